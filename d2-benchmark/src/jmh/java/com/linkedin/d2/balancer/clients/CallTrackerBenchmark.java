@@ -0,0 +1,95 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package com.linkedin.d2.balancer.clients;
+
+import com.linkedin.util.clock.SystemClock;
+import com.linkedin.util.degrader.CallCompletion;
+import com.linkedin.util.degrader.CallTracker;
+import com.linkedin.util.degrader.CallTrackerImpl;
+import com.linkedin.util.degrader.ConcurrentCallTrackerImpl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the throughput of calls started and ended on the call tracker of one host by 1, 8 and 32 threads, with
+ * {@link CallTrackerImpl} against {@link ConcurrentCallTrackerImpl}.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CallTrackerBenchmark {
+
+  private static final long INTERVAL = 5000;
+
+  @State(Scope.Benchmark)
+  public static class CallTrackerState {
+    @Param({"lock", "concurrent"})
+    String _implementation;
+
+    CallTracker _callTracker;
+
+    @Setup
+    public void setUp() {
+      _callTracker = "concurrent".equals(_implementation)
+          ? new ConcurrentCallTrackerImpl(INTERVAL, SystemClock.instance())
+          : new CallTrackerImpl(INTERVAL, SystemClock.instance());
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(1)
+  public CallCompletion measureCall_1Thread(CallTrackerState state) {
+    return call(state._callTracker);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(8)
+  public CallCompletion measureCall_8Threads(CallTrackerState state) {
+    return call(state._callTracker);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(32)
+  public CallCompletion measureCall_32Threads(CallTrackerState state) {
+    return call(state._callTracker);
+  }
+
+  private static CallCompletion call(CallTracker callTracker) {
+    CallCompletion callCompletion = callTracker.startCall();
+    callCompletion.endCall();
+    return callCompletion;
+  }
+}
@@ -25,6 +25,8 @@ import com.linkedin.d2.balancer.properties.PartitionData;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyFactoryV3;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyV3;
+import com.linkedin.d2.balancer.strategies.relative.P2CLoadBalancerStrategy;
+import com.linkedin.d2.balancer.strategies.relative.P2CLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.util.URIRequest;
@@ -90,6 +92,7 @@ public class LoadBalancerStrategyBenchmark
     URIRequest _uriRequest = new URIRequest("d2://" + DUMMY_SERVICE_NAME);
     LoadBalancerStrategy _degraderStrategy = buildDegraderLoadBalancerStrategy();
     LoadBalancerStrategy _relativeStrategy = buildRelativeLoadBalancerStrategy();
+    LoadBalancerStrategy _p2cStrategy = buildP2CLoadBalancerStrategy();
     Map<URI, TrackerClient> _degraderTrackerClients = createDegraderTrackerClients(10);
     Map<URI, TrackerClient> _trackerClients = createTrackerClients(10);
     RestRequest _restRequest = new RestRequestBuilder(_uriRequest.getURI()).build();
@@ -109,6 +112,13 @@ public class LoadBalancerStrategyBenchmark
     return state._relativeStrategy.getTrackerClient(state._restRequest, requestContext, 0, 0, state._trackerClients);
   }
 
+  @Benchmark
+  public TrackerClient measureP2CStrategy10Hosts(LoadBalancerStrategy_10Hosts state)
+  {
+    RequestContext requestContext = new RequestContext();
+    return state._p2cStrategy.getTrackerClient(state._restRequest, requestContext, 0, 0, state._trackerClients);
+  }
+
   @State(Scope.Benchmark)
   public static class DegraderLoadBalancerStrategyInitialize
   {
@@ -235,6 +245,7 @@ public class LoadBalancerStrategyBenchmark
     URIRequest _uriRequest = new URIRequest("d2://" + DUMMY_SERVICE_NAME);
     LoadBalancerStrategy _degraderStrategy = buildDegraderLoadBalancerStrategy();
     LoadBalancerStrategy _relativeStrategy = buildRelativeLoadBalancerStrategy();
+    LoadBalancerStrategy _p2cStrategy = buildP2CLoadBalancerStrategy();
     Map<URI, TrackerClient> _degraderTrackerClients = createDegraderTrackerClients(100);
     Map<URI, TrackerClient> _trackerClients = createTrackerClients(100);
     RestRequest _restRequest = new RestRequestBuilder(_uriRequest.getURI()).build();
@@ -254,6 +265,13 @@ public class LoadBalancerStrategyBenchmark
     return state._relativeStrategy.getTrackerClient(state._restRequest, requestContext, 0, 0, state._trackerClients);
   }
 
+  @Benchmark
+  public TrackerClient measureP2CStrategy100Hosts(LoadBalancerStrategy_100Hosts state)
+  {
+    RequestContext requestContext = new RequestContext();
+    return state._p2cStrategy.getTrackerClient(state._restRequest, requestContext, 0, 0, state._trackerClients);
+  }
+
   private static Map<URI, TrackerClient> createDegraderTrackerClients(int numHosts)
   {
     Map<URI, TrackerClient> trackerClients = new HashMap<>();
@@ -287,6 +305,16 @@ public class LoadBalancerStrategyBenchmark
         .newLoadBalancer(serviceProperties);
   }
 
+  private static P2CLoadBalancerStrategy buildP2CLoadBalancerStrategy()
+  {
+    D2RelativeStrategyProperties relativeStrategyProperties = new D2RelativeStrategyProperties();
+    ServiceProperties serviceProperties = new ServiceProperties(DUMMY_SERVICE_NAME, DEFAULT_CLUSTER_NAME, DEFAULT_PATH, DEFAULT_STRATEGY_LIST,
+        null, null, null, null, null,
+        null, null, RelativeStrategyPropertiesConverter.toMap(relativeStrategyProperties));
+    return new P2CLoadBalancerStrategyFactory(EXECUTOR_SERVICE, null, new ArrayList<>(), null, SystemClock.instance())
+        .newLoadBalancer(serviceProperties);
+  }
+
   private static DegraderLoadBalancerStrategyV3 buildDegraderLoadBalancerStrategy()
   {
     ServiceProperties serviceProperties = new ServiceProperties(DUMMY_SERVICE_NAME, DEFAULT_CLUSTER_NAME, DEFAULT_PATH, DEFAULT_STRATEGY_LIST,
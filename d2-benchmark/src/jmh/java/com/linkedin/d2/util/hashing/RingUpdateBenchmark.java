@@ -0,0 +1,131 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package com.linkedin.d2.util.hashing;
+
+import com.linkedin.d2.balancer.strategies.MPConsistentHashRingFactory;
+import com.linkedin.d2.balancer.strategies.PointBasedConsistentHashRingFactory;
+import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyConfig;
+import com.linkedin.d2.balancer.util.hashing.ConsistentHashRing;
+import com.linkedin.d2.balancer.util.hashing.ConsistentHashRing.Point;
+import com.linkedin.d2.balancer.util.hashing.MPConsistentHashRing;
+import com.linkedin.d2.balancer.util.hashing.Ring;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the creation of a ring of 1000 hosts with 100 points each after the points of one host changed, by the
+ * ring factories that update their last ring, against building the whole ring again.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RingUpdateBenchmark {
+
+  private static final int NUM_HOSTS = 1000;
+  private static final int NUM_POINTS_PER_HOST = 100;
+
+  @State(Scope.Benchmark)
+  public static class PointBased_1000Hosts_State {
+    PointBasedConsistentHashRingFactory<URI> _factory =
+        new PointBasedConsistentHashRingFactory<>(new DegraderLoadBalancerStrategyConfig(1000));
+    PointsMaps _pointsMaps = new PointsMaps();
+    List<Point<URI>> _points = new ArrayList<>();
+
+    public PointBased_1000Hosts_State() {
+      _factory.createRing(_pointsMaps._healthy);
+      _pointsMaps._healthy.forEach((host, points) -> _points.addAll(_factory.getPointsMap().get(host).subList(0, points)));
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measurePointBasedUpdate_1000Hosts(PointBased_1000Hosts_State state) {
+    return state._factory.createRing(state._pointsMaps.next());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measurePointBasedRebuild_1000Hosts(PointBased_1000Hosts_State state) {
+    // What the factory did for every change: sort all the points of the hosts
+    return new ConsistentHashRing<>(new ArrayList<>(state._points));
+  }
+
+  @State(Scope.Benchmark)
+  public static class MPCHash_1000Hosts_State {
+    MPConsistentHashRingFactory<URI> _factory = new MPConsistentHashRingFactory<>(21, 1);
+    PointsMaps _pointsMaps = new PointsMaps();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measureMPCHashUpdate_1000Hosts(MPCHash_1000Hosts_State state) {
+    return state._factory.createRing(state._pointsMaps.next());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Ring<URI> measureMPCHashRebuild_1000Hosts(MPCHash_1000Hosts_State state) {
+    return new MPConsistentHashRing<>(state._pointsMaps.next(), 21, 1);
+  }
+
+  /**
+   * Alternates between two points maps that differ by the points of one host, as after a health update of the host.
+   */
+  private static class PointsMaps {
+    private final Map<URI, Integer> _healthy = buildPointsMap(NUM_HOSTS, NUM_POINTS_PER_HOST);
+    private final Map<URI, Integer> _degraded = new HashMap<>(_healthy);
+    // the state starts with the healthy map
+    private boolean _next = true;
+
+    PointsMaps() {
+      _degraded.put(URI.create(String.format("app-%04d.linkedin.com", 0)), NUM_POINTS_PER_HOST / 2);
+    }
+
+    Map<URI, Integer> next() {
+      _next = !_next;
+      return _next ? _healthy : _degraded;
+    }
+  }
+
+  private static Map<URI, Integer> buildPointsMap(int numHosts, int numPointsPerHost) {
+    return IntStream.range(0, numHosts).boxed().collect(
+        Collectors.toMap(
+            key -> URI.create(String.format("app-%04d.linkedin.com", key)),
+            value -> numPointsPerHost));
+  }
+}
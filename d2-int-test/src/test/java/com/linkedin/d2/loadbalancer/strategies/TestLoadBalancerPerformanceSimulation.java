@@ -20,6 +20,7 @@ import com.linkedin.d2.D2RelativeStrategyProperties;
 import com.linkedin.d2.balancer.strategies.framework.LatencyCorrelation;
 import com.linkedin.d2.balancer.strategies.framework.LoadBalancerStrategyTestRunner;
 import com.linkedin.d2.balancer.strategies.framework.LoadBalancerStrategyTestRunnerBuilder;
+import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategyFactory;
 import com.linkedin.d2.loadBalancerStrategyType;
 import java.net.URI;
 import java.util.ArrayList;
@@ -240,6 +241,42 @@ public class TestLoadBalancerPerformanceSimulation {
     }
   }
 
+  /**
+   * P2C keeps the health scores of the relative strategy, and on top of them sends fewer requests to the slow host
+   * as soon as its latency is known. This lowers the average latency, and the tail latency is no higher.
+   */
+  @Test(dataProvider = "numHosts")
+  public void testP2CWithOneConstantSevereBadHost(int numHosts)
+  {
+    LoadBalancerStrategyTestRunner testRelativeRunner = buildDefaultRunnerWithConstantBadHost(loadBalancerStrategyType.RELATIVE,
+        numHosts, SEVERE_BAD_LATENCY, RelativeLoadBalancerStrategyFactory.DEFAULT_RELATIVE_LATENCY_HIGH_THRESHOLD_FACTOR);
+    testRelativeRunner.runWait();
+    double relativeStrategyAverageLatency = testRelativeRunner.getAvgLatency();
+    long relativeStrategyP99Latency = testRelativeRunner.getLatencyPercentile(99);
+
+    LoadBalancerStrategyTestRunner testP2CRunner = buildDefaultRunnerWithConstantBadHost(loadBalancerStrategyType.P2C,
+        numHosts, SEVERE_BAD_LATENCY, RelativeLoadBalancerStrategyFactory.DEFAULT_RELATIVE_LATENCY_HIGH_THRESHOLD_FACTOR);
+    testP2CRunner.runWait();
+    double p2cStrategyAverageLatency = testP2CRunner.getAvgLatency();
+    long p2cStrategyP99Latency = testP2CRunner.getLatencyPercentile(99);
+
+    assertTrue(p2cStrategyAverageLatency < relativeStrategyAverageLatency,
+        "P2C should send fewer requests to the slow host, which gives a lower average cluster latency");
+    assertTrue(p2cStrategyP99Latency <= relativeStrategyP99Latency,
+        "P2C should not send more requests to the slow host, which gives no higher p99 cluster latency");
+  }
+
+  @DataProvider(name = "numHosts")
+  public Object[][] getNumHosts()
+  {
+    return new Object[][]
+        {
+            {SMALL_CLUSTER_HOST_NUM},
+            {MEDIUM_CLUSTER_HOST_NUM},
+            {LARGE_CLUSTER_HOST_NUM}
+        };
+  }
+
   @DataProvider(name = "latencyFactorThreshold")
   public Object[][] getLatencyFactorThreshold()
   {
@@ -336,6 +373,13 @@ public class TestLoadBalancerPerformanceSimulation {
 
   private LoadBalancerStrategyTestRunner buildDefaultRunnerWithConstantBadHost(int numHosts, long badHostLatency,
       double relativeLatencyHighThresholdFactor)
+  {
+    return buildDefaultRunnerWithConstantBadHost(loadBalancerStrategyType.RELATIVE, numHosts, badHostLatency,
+        relativeLatencyHighThresholdFactor);
+  }
+
+  private LoadBalancerStrategyTestRunner buildDefaultRunnerWithConstantBadHost(loadBalancerStrategyType type, int numHosts,
+      long badHostLatency, double relativeLatencyHighThresholdFactor)
   {
     List<Long> constantLatencyList = new ArrayList<>();
     constantLatencyList.add(badHostLatency);
@@ -347,7 +391,7 @@ public class TestLoadBalancerPerformanceSimulation {
     D2RelativeStrategyProperties relativeStrategyProperties = new D2RelativeStrategyProperties()
         .setRelativeLatencyHighThresholdFactor(relativeLatencyHighThresholdFactor);
 
-    return new LoadBalancerStrategyTestRunnerBuilder(loadBalancerStrategyType.RELATIVE, DEFAULT_SERVICE_NAME, numHosts)
+    return new LoadBalancerStrategyTestRunnerBuilder(type, DEFAULT_SERVICE_NAME, numHosts)
         .setConstantRequestCount(DEFAULT_REQUESTS_PER_INTERVAL)
         .setNumIntervals(30)
         .setConstantLatency(constantLatencyList)
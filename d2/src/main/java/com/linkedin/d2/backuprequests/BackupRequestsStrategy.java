@@ -29,6 +29,9 @@ import java.util.Optional;
  * <li>{@code BackupRequestsStrategy} is notified about every response time using
  * {@link #recordCompletion(long)} method.</li>
  * </ol>
+ * Once the partition an outgoing request is routed to is known, {@link #recordPartition(int)} is called, and
+ * {@link #isBackupRequestAllowed(int)} replaces {@code isBackupRequestAllowed()} so that strategies can keep a budget
+ * of backup requests per partition.
  * <p>
  * Implementation of {@code BackupRequestsStrategy} has to be thread safe and can be instantiated multiple times
  * whenever backup requests configuration is changed.
@@ -57,4 +60,25 @@ public interface BackupRequestsStrategy
    * @return true if backup request is supposed to be made
    */
   boolean isBackupRequestAllowed();
+
+  /**
+   * Records that an outgoing request, for which {@link #getTimeUntilBackupRequestNano()} has been called, was routed
+   * to the given partition. It is called at most once per request.
+   * @param partitionId partition of the request
+   */
+  default void recordPartition(int partitionId)
+  {
+  }
+
+  /**
+   * Returns true if backup request is supposed to be made for a request routed to the given partition.
+   * The same rules as for {@link #isBackupRequestAllowed()} apply.
+   *
+   * @param partitionId partition of the original request, recorded with {@link #recordPartition(int)}
+   * @return true if backup request is supposed to be made
+   */
+  default boolean isBackupRequestAllowed(int partitionId)
+  {
+    return isBackupRequestAllowed();
+  }
 }
@@ -29,14 +29,31 @@ public class BackupRequestsStrategyStats
   private final long _minDelay;
   private final long _maxDelay;
   private final long _avgDelay;
+  private final long _requests;
 
   public BackupRequestsStrategyStats(long allowed, long successful, long minDelay, long maxDelay, long avgDelay)
+  {
+    this(allowed, successful, minDelay, maxDelay, avgDelay, 0);
+  }
+
+  public BackupRequestsStrategyStats(long allowed, long successful, long minDelay, long maxDelay, long avgDelay,
+      long requests)
   {
     _allowed = allowed;
     _successful = successful;
     _minDelay = minDelay;
     _maxDelay = maxDelay;
     _avgDelay = avgDelay;
+    _requests = requests;
+  }
+
+  /**
+   * Returns number of original requests for which a backup request was considered.
+   * @return number of original requests for which a backup request was considered
+   */
+  public long getRequests()
+  {
+    return _requests;
   }
 
   /**
@@ -88,6 +105,24 @@ public class BackupRequestsStrategyStats
     return _avgDelay;
   }
 
+  /**
+   * Returns percent of allowed backup requests that were successful, or 0 if none was allowed.
+   * @return percent of allowed backup requests that were successful
+   */
+  public double getSuccessfulPercent()
+  {
+    return _allowed == 0 ? 0 : (_successful * 100d) / _allowed;
+  }
+
+  /**
+   * Returns cost of backup requests as a percent of the number of original requests, or 0 if there was none.
+   * @return number of allowed backup requests as a percent of the number of original requests
+   */
+  public double getCostPercent()
+  {
+    return _requests == 0 ? 0 : (_allowed * 100d) / _requests;
+  }
+
   @Override
   public int hashCode()
   {
@@ -97,6 +132,7 @@ public class BackupRequestsStrategyStats
     result = prime * result + (int) (_avgDelay ^ (_avgDelay >>> 32));
     result = prime * result + (int) (_maxDelay ^ (_maxDelay >>> 32));
     result = prime * result + (int) (_minDelay ^ (_minDelay >>> 32));
+    result = prime * result + (int) (_requests ^ (_requests >>> 32));
     result = prime * result + (int) (_successful ^ (_successful >>> 32));
     return result;
   }
@@ -119,6 +155,8 @@ public class BackupRequestsStrategyStats
       return false;
     if (_minDelay != other._minDelay)
       return false;
+    if (_requests != other._requests)
+      return false;
     if (_successful != other._successful)
       return false;
     return true;
@@ -128,7 +166,7 @@ public class BackupRequestsStrategyStats
   public String toString()
   {
     return "BackupRequestsStrategyStats [allowed=" + _allowed + ", successful=" + _successful + ", minDelay="
-        + _minDelay + ", maxDelay=" + _maxDelay + ", avgDelay=" + _avgDelay + "]";
+        + _minDelay + ", maxDelay=" + _maxDelay + ", avgDelay=" + _avgDelay + ", requests=" + _requests + "]";
   }
 
 }
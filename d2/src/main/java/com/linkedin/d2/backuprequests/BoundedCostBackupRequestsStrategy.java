@@ -15,7 +15,9 @@
 */
 package com.linkedin.d2.backuprequests;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.HdrHistogram.AbstractHistogram;
 import org.HdrHistogram.IntCountsHistogram;
@@ -30,6 +32,10 @@ import com.linkedin.d2.balancer.util.BurstyBarrier;
  * <p>
  * For discussion about {@code percent} and {@code maxBurst} parameters see {@link BurstyBarrier} class.
  * <p>
+ * The cost is bounded for each partition separately once partitions of requests are recorded, so that a partition
+ * receiving most of the requests can not use up the backup requests of the others. Requests of unknown partitions are
+ * bounded together.
+ * <p>
  * This class is thread safe.
  *
  * @author Jaroslaw Odzga (jodzga@linkedin.com)
@@ -52,6 +58,9 @@ public class BoundedCostBackupRequestsStrategy implements BackupRequestsStrategy
   private final long _minBackupDelayNano;
 
   private final BurstyBarrier _costLimiter;
+  private final Map<Integer, BurstyBarrier> _partitionCostLimiters = new ConcurrentHashMap<>();
+  private final double _percent;
+  private final int _maxBurst;
 
   private final Object _lock = new Object();
 
@@ -95,6 +104,8 @@ public class BoundedCostBackupRequestsStrategy implements BackupRequestsStrategy
     _requiredHistory = requiredHistory;
     _percentile = 100d - percent;
     _costLimiter = new BurstyBarrier(percent, maxBurst);
+    _percent = percent;
+    _maxBurst = maxBurst;
     _minBackupDelayNano = 1000L * 1000L * minBackupDelayMs;
   }
 
@@ -104,6 +115,19 @@ public class BoundedCostBackupRequestsStrategy implements BackupRequestsStrategy
     return _costLimiter.canPassThrough();
   }
 
+  @Override
+  public void recordPartition(int partitionId)
+  {
+    _partitionCostLimiters.computeIfAbsent(partitionId, id -> new BurstyBarrier(_percent, _maxBurst)).arrive();
+  }
+
+  @Override
+  public boolean isBackupRequestAllowed(int partitionId)
+  {
+    BurstyBarrier partitionCostLimiter = _partitionCostLimiters.get(partitionId);
+    return partitionCostLimiter == null ? isBackupRequestAllowed() : partitionCostLimiter.canPassThrough();
+  }
+
   @Override
   public Optional<Long> getTimeUntilBackupRequestNano()
   {
@@ -34,6 +34,7 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
 
   private final LongAdder _totalAllowedCount = new LongAdder();
   private final LongAdder _totalSuccessCount = new LongAdder();
+  private final LongAdder _totalRequestCount = new LongAdder();
 
   private final AtomicReference<DelayStats> _lastDelayStats = new AtomicReference<>();
 
@@ -51,6 +52,7 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
   @Override
   public Optional<Long> getTimeUntilBackupRequestNano()
   {
+    _totalRequestCount.increment();
     final Optional<Long> delay = _delegate.getTimeUntilBackupRequestNano();
     delay.ifPresent(this::recordDelay);
     return delay;
@@ -78,10 +80,26 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
   @Override
   public boolean isBackupRequestAllowed()
   {
-    final boolean allowed = _delegate.isBackupRequestAllowed();
+    return countAllowed(_delegate.isBackupRequestAllowed());
+  }
+
+  @Override
+  public void recordPartition(int partitionId)
+  {
+    _delegate.recordPartition(partitionId);
+  }
+
+  @Override
+  public boolean isBackupRequestAllowed(int partitionId)
+  {
+    return countAllowed(_delegate.isBackupRequestAllowed(partitionId));
+  }
+
+  private boolean countAllowed(boolean allowed)
+  {
     if (allowed)
     {
-      _totalAllowedCount.increment();;
+      _totalAllowedCount.increment();
     }
     return allowed;
   }
@@ -101,12 +119,13 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
   {
     if (delayStats == null)
     {
-      return new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(), 0, 0, 0);
+      return new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(), 0, 0, 0,
+          _totalRequestCount.sum());
     } else
     {
       return new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(),
           delayStats._totalDelayMin, delayStats._totalDelayMax,
-          delayStats._totalDelaySum / delayStats._totalDelayCount);
+          delayStats._totalDelaySum / delayStats._totalDelayCount, _totalRequestCount.sum());
     }
   }
 
@@ -158,10 +177,12 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
       {
         //no delay stats
         if (_snapshotStats.compareAndSet(snapshotStats,
-            new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(), 0, 0, 0)))
+            new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(), 0, 0, 0,
+                _totalRequestCount.sum())))
         {
           return new BackupRequestsStrategyStats(_totalAllowedCount.sum() - snapshotStats.getAllowed(),
-              _totalSuccessCount.sum() - snapshotStats.getSuccessful(), 0, 0, 0);
+              _totalSuccessCount.sum() - snapshotStats.getSuccessful(), 0, 0, 0,
+              _totalRequestCount.sum() - snapshotStats.getRequests());
         } else
         {
           return null;
@@ -179,11 +200,12 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
               if (_snapshotStats.compareAndSet(snapshotStats,
                   new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(),
                       lastDelayStats._totalDelayMin, lastDelayStats._totalDelayMax,
-                      lastDelayStats._totalDelaySum / lastDelayStats._totalDelayCount)))
+                      lastDelayStats._totalDelaySum / lastDelayStats._totalDelayCount, _totalRequestCount.sum())))
               {
                 return new BackupRequestsStrategyStats(_totalAllowedCount.sum() - snapshotStats.getAllowed(),
                     _totalSuccessCount.sum() - snapshotStats.getSuccessful(), lastDelayStats._totalDelayMin,
-                    lastDelayStats._totalDelayMax, lastDelayStats._totalDelaySum / lastDelayStats._totalDelayCount);
+                    lastDelayStats._totalDelayMax, lastDelayStats._totalDelaySum / lastDelayStats._totalDelayCount,
+                    _totalRequestCount.sum() - snapshotStats.getRequests());
               } else
               {
                 return null;
@@ -206,10 +228,12 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
     {
       // no change in delay stats or overflow
       if (_snapshotStats.compareAndSet(snapshotStats,
-          new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(), 0, 0, 0)))
+          new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(), 0, 0, 0,
+              _totalRequestCount.sum())))
       {
         return new BackupRequestsStrategyStats(_totalAllowedCount.sum() - snapshotStats.getAllowed(),
-            _totalSuccessCount.sum() - snapshotStats.getSuccessful(), 0, 0, 0);
+            _totalSuccessCount.sum() - snapshotStats.getSuccessful(), 0, 0, 0,
+            _totalRequestCount.sum() - snapshotStats.getRequests());
 
       } else
       {
@@ -219,11 +243,13 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
     {
       if (_snapshotStats.compareAndSet(snapshotStats,
           new BackupRequestsStrategyStats(_totalAllowedCount.sum(), _totalSuccessCount.sum(), lastDelayStats._delayMin,
-              lastDelayStats._delayMax, (lastDelayStats._totalDelaySum - snapshotDelayStats._totalDelaySum) / count)))
+              lastDelayStats._delayMax, (lastDelayStats._totalDelaySum - snapshotDelayStats._totalDelaySum) / count,
+              _totalRequestCount.sum())))
       {
         return new BackupRequestsStrategyStats(_totalAllowedCount.sum() - snapshotStats.getAllowed(),
             _totalSuccessCount.sum() - snapshotStats.getSuccessful(), lastDelayStats._delayMin,
-            lastDelayStats._delayMax, (lastDelayStats._totalDelaySum - snapshotDelayStats._totalDelaySum) / count);
+            lastDelayStats._delayMax, (lastDelayStats._totalDelaySum - snapshotDelayStats._totalDelaySum) / count,
+            _totalRequestCount.sum() - snapshotStats.getRequests());
       } else
       {
         return null;
@@ -235,7 +261,8 @@ public class TrackingBackupRequestsStrategy implements BackupRequestsStrategy, B
   public String toString()
   {
     return "TrackingBackupRequestsStrategy [delegate=" + _delegate + ", totalAllowedCount=" + _totalAllowedCount
-        + ", totalSuccessCount=" + _totalSuccessCount + ", lastDelayStats=" + _lastDelayStats + ", snapshotStats="
+        + ", totalSuccessCount=" + _totalSuccessCount + ", totalRequestCount=" + _totalRequestCount
+        + ", lastDelayStats=" + _lastDelayStats + ", snapshotStats="
         + _snapshotStats + ", snapshotDelayStats=" + _snapshotDelayStats + "]";
   }
 
@@ -31,6 +31,8 @@ import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyFactoryV3;
 import com.linkedin.d2.balancer.strategies.random.RandomLoadBalancerStrategyFactory;
+import com.linkedin.d2.balancer.strategies.relative.P2CLoadBalancerStrategy;
+import com.linkedin.d2.balancer.strategies.relative.P2CLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.util.downstreams.DownstreamServicesFetcher;
@@ -567,6 +569,11 @@ public class D2ClientBuilder
           SystemClock.instance());
       loadBalancerStrategyFactories.putIfAbsent(RelativeLoadBalancerStrategy.RELATIVE_LOAD_BALANCER_STRATEGY_NAME,
           relativeLoadBalancerStrategyFactory);
+      final P2CLoadBalancerStrategyFactory p2cLoadBalancerStrategyFactory = new P2CLoadBalancerStrategyFactory(
+          _config._executorService, _config.healthCheckOperations, Collections.emptyList(), _config.eventEmitter,
+          SystemClock.instance());
+      loadBalancerStrategyFactories.putIfAbsent(P2CLoadBalancerStrategy.P2C_LOAD_BALANCER_STRATEGY_NAME,
+          p2cLoadBalancerStrategyFactory);
     }
 
     return loadBalancerStrategyFactories;
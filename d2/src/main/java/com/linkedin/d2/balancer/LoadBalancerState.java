@@ -90,6 +90,15 @@ public interface LoadBalancerState
   List<SchemeStrategyPair> getStrategiesForService(String serviceName,
                                                     List<String> prioritizedSchemes);
 
+  /**
+   * Opens connections to the hosts of the service ahead of its first requests, as configured by its transport client
+   * properties. The callback is invoked once the connections are open. Failures to connect are not errors.
+   */
+  default void warmUpConnections(String serviceName, Callback<None> callback)
+  {
+    callback.onSuccess(None.none());
+  }
+
   /**
    * This registers the LoadBalancerClusterListener with the LoadBalancerState, so that
    * the user can receive updates.
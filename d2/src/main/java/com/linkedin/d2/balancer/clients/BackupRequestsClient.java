@@ -32,6 +32,7 @@ import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy.ExcludedHostHints;
 import com.linkedin.d2.balancer.util.LoadBalancerUtil;
+import com.linkedin.d2.balancer.util.partitions.SelectedPartitionHints;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
@@ -39,12 +40,15 @@ import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.CancelingReader;
+import com.linkedin.r2.util.Cancellable;
 import com.linkedin.r2.util.NamedThreadFactory;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -432,8 +436,12 @@ public class BackupRequestsClient extends D2ClientDelegator
 
     URI targetHostUri = KeyMapper.TargetHostHints.getRequestContextTargetHost(requestContext);
     Boolean backupRequestAcceptable = KeyMapper.TargetHostHints.getRequestContextOtherHostAcceptable(requestContext);
-    if (targetHostUri == null || (backupRequestAcceptable != null && backupRequestAcceptable))
+    final boolean backupRequestConsidered =
+        targetHostUri == null || (backupRequestAcceptable != null && backupRequestAcceptable);
+    if (backupRequestConsidered)
     {
+      // The delay is per service and operation rather than per partition, as it is scheduled before the request is
+      // routed to a partition. The partition only decides whether the backup request is sent once the delay elapsed.
       Optional<Long> delayNano = strategy.getTimeUntilBackupRequestNano();
       if (delayNano.isPresent())
       {
@@ -456,6 +464,10 @@ public class BackupRequestsClient extends D2ClientDelegator
       private void recordLatency()
       {
         long latency = System.nanoTime() - startNano;
+        if (backupRequestConsidered)
+        {
+          recordPartition(strategy, requestContext);
+        }
         strategy.recordCompletion(latency);
         strategy.getLatencyWithoutBackup().record(latency,
             histogram -> notifyLatency(serviceName, operation, histogram, false));
@@ -476,6 +488,43 @@ public class BackupRequestsClient extends D2ClientDelegator
     };
   }
 
+  /*
+   * Records the partition the request was routed to, if known
+   */
+  private static void recordPartition(TrackingBackupRequestsStrategy strategy, RequestContext requestContext)
+  {
+    Integer partitionId = SelectedPartitionHints.getRequestContextSelectedPartition(requestContext);
+    if (partitionId != null)
+    {
+      strategy.recordPartition(partitionId);
+    }
+  }
+
+  /*
+   * Cancels a request that lost to the other one if its transport supports it and has not sent it yet, so that it
+   * does not wait for a connection any longer.
+   */
+  private static void cancelRequest(RequestContext requestContext)
+  {
+    Object cancellation = requestContext.getLocalAttr(R2Constants.REQUEST_CANCELLATION);
+    if (cancellation instanceof Cancellable)
+    {
+      ((Cancellable) cancellation).cancel();
+    }
+  }
+
+  /*
+   * Cancels the entity stream of a response that lost to the other request, so that it does not hold on to
+   * the connection until the response is fully received. Rest responses are already fully received.
+   */
+  private static void discardResponse(Object response)
+  {
+    if (response instanceof StreamResponse)
+    {
+      ((StreamResponse) response).getEntityStream().setReader(new CancelingReader());
+    }
+  }
+
   @Override
   public void shutdown(Callback<None> callback)
   {
@@ -495,6 +544,9 @@ public class BackupRequestsClient extends D2ClientDelegator
   {
 
     private final AtomicBoolean _done = new AtomicBoolean(false);
+    private final AtomicBoolean _partitionRecorded = new AtomicBoolean(false);
+    private volatile boolean _originalCancelled = false;
+    private final ScheduledFuture<?> _backupRequest;
     private final R _request;
     private final RequestContext _requestContext;
     private final RequestContext _backupRequestContext;
@@ -521,18 +573,37 @@ public class BackupRequestsClient extends D2ClientDelegator
       _strategy = strategy;
       _serviceName = serviceName;
       _operation = operation;
-      executorService.schedule(this::maybeSendBackupRequest, delayNano, TimeUnit.NANOSECONDS);
+      _backupRequest = executorService.schedule(this::maybeSendBackupRequest, delayNano, TimeUnit.NANOSECONDS);
+    }
+
+    /*
+     * Records the partition of the original request once it has been routed, and returns it if known
+     */
+    private Integer recordPartition()
+    {
+      Integer partitionId = SelectedPartitionHints.getRequestContextSelectedPartition(_requestContext);
+      if (partitionId != null && _partitionRecorded.compareAndSet(false, true))
+      {
+        _strategy.recordPartition(partitionId);
+      }
+      return partitionId;
+    }
+
+    private boolean isBackupRequestAllowed(Integer partitionId)
+    {
+      return partitionId == null ? _strategy.isBackupRequestAllowed() : _strategy.isBackupRequestAllowed(partitionId);
     }
 
     private void maybeSendBackupRequest()
     {
       Set<URI> exclusionSet = ExcludedHostHints.getRequestContextExcludedHosts(_requestContext);
       // exclusionSet should have been set by original request but it might be null e.g. if original
-      // request has not been made yet
+      // request has not been made yet. It holds the host of the original request, which the backup request avoids.
       if (exclusionSet != null)
       {
         exclusionSet.forEach(uri -> ExcludedHostHints.addRequestContextExcludedHost(_backupRequestContext, uri));
-        if (!_done.get() && _strategy.isBackupRequestAllowed())
+        Integer partitionId = recordPartition();
+        if (!_done.get() && isBackupRequestAllowed(partitionId))
         {
           _client.doRequest(_request, _backupRequestContext, new Callback<T>()
           {
@@ -544,6 +615,10 @@ public class BackupRequestsClient extends D2ClientDelegator
                 completeBackup();
                 _callback.onSuccess(result);
               }
+              else
+              {
+                discardResponse(result);
+              }
             }
 
             @Override
@@ -560,6 +635,9 @@ public class BackupRequestsClient extends D2ClientDelegator
 
             private void completeBackup()
             {
+              // Set before cancelling, which may complete the original request right away
+              _originalCancelled = true;
+              cancelRequest(_requestContext);
               _strategy.backupRequestSuccess();
               _strategy.getLatencyWithBackup().record(System.nanoTime() - _startNano,
                   histogram -> notifyLatency(_serviceName, _operation, histogram, true));
@@ -572,25 +650,34 @@ public class BackupRequestsClient extends D2ClientDelegator
     @Override
     public void onSuccess(T result)
     {
-      trackingCompletion(() -> _callback.onSuccess(result));
+      if (!trackingCompletion(() -> _callback.onSuccess(result)))
+      {
+        discardResponse(result);
+      }
     }
 
     /*
-     * This method guarantees that the completion is called only if not called by the backup
+     * This method guarantees that the completion is called only if not called by the backup,
+     * and returns whether it was called
      */
-    private void trackingCompletion(Runnable completion)
+    private boolean trackingCompletion(Runnable completion)
     {
       long latency = System.nanoTime() - _startNano;
+      recordPartition();
       //feed backup request strategy with latency of the original request
       _strategy.recordCompletion(latency);
       if (_done.compareAndSet(false, true))
       {
+        // no need to wake up for the backup request any more
+        _backupRequest.cancel(false);
+        cancelRequest(_backupRequestContext);
         //if original request completed before backup then update both latency metrics
         _strategy.getLatencyWithBackup().record(latency,
             histogram -> notifyLatency(_serviceName, _operation, histogram, true));
         _strategy.getLatencyWithoutBackup().record(latency,
             histogram -> notifyLatency(_serviceName, _operation, histogram, false));
         completion.run();
+        return true;
       } else
       {
         /*
@@ -599,12 +686,18 @@ public class BackupRequestsClient extends D2ClientDelegator
          */
         _strategy.getLatencyWithoutBackup().record(latency,
             histogram -> notifyLatency(_serviceName, _operation, histogram, false));
+        return false;
       }
     }
 
     @Override
     public void onError(Throwable e)
     {
+      if (_originalCancelled && e instanceof CancellationException)
+      {
+        // The backup request won, and the latency the original request would have had is unknown
+        return;
+      }
       trackingCompletion(() -> _callback.onError(e));
     }
   }
@@ -26,6 +26,8 @@ import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.util.clock.Clock;
 import com.linkedin.util.clock.SystemClock;
+import com.linkedin.util.degrader.CallTracker;
+import com.linkedin.util.degrader.CallTrackerImpl;
 import com.linkedin.util.degrader.Degrader;
 import com.linkedin.util.degrader.DegraderControl;
 import com.linkedin.util.degrader.DegraderImpl;
@@ -62,8 +64,19 @@ public class DegraderTrackerClientImpl extends TrackerClientImpl implements Degr
                                Clock clock, DegraderImpl.Config config, long interval, Pattern errorStatusPattern,
                                boolean doNotSlowStart)
   {
-    super(uri, partitionDataMap, wrappedClient, clock, interval,
-        (status) -> errorStatusPattern.matcher(Integer.toString(status)).matches(), true, doNotSlowStart);
+    this(uri, partitionDataMap, wrappedClient, clock, config, new CallTrackerImpl(interval, clock), errorStatusPattern,
+        doNotSlowStart);
+  }
+
+  /**
+   * @param callTracker tracks the calls to this client, and must not be shared with other clients.
+   */
+  public DegraderTrackerClientImpl(URI uri, Map<Integer, PartitionData> partitionDataMap, TransportClient wrappedClient,
+                               Clock clock, DegraderImpl.Config config, CallTracker callTracker,
+                               Pattern errorStatusPattern, boolean doNotSlowStart)
+  {
+    super(uri, partitionDataMap, wrappedClient, callTracker,
+        (status) -> errorStatusPattern.matcher(Integer.toString(status)).matches(), doNotSlowStart);
 
     if (config == null)
     {
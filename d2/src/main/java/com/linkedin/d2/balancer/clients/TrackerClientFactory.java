@@ -19,6 +19,7 @@ package com.linkedin.d2.balancer.clients;
 import com.linkedin.d2.D2RelativeStrategyProperties;
 import com.linkedin.d2.HttpStatusCodeRange;
 import com.linkedin.d2.balancer.config.RelativeStrategyPropertiesConverter;
+import com.linkedin.d2.balancer.strategies.relative.P2CLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategyFactory;
 import java.net.URI;
@@ -38,6 +39,9 @@ import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategy
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.util.clock.Clock;
 import com.linkedin.util.clock.SystemClock;
+import com.linkedin.util.degrader.CallTracker;
+import com.linkedin.util.degrader.CallTrackerImpl;
+import com.linkedin.util.degrader.ConcurrentCallTrackerImpl;
 import com.linkedin.util.degrader.DegraderImpl;
 import com.linkedin.util.RateLimitedLogger;
 
@@ -100,6 +104,7 @@ public class TrackerClientFactory
         trackerClient = createDegraderTrackerClient(uri, uriProperties, serviceProperties,  loadBalancerStrategyName, transportClient, clock, doNotSlowStart);
         break;
       case (RelativeLoadBalancerStrategy.RELATIVE_LOAD_BALANCER_STRATEGY_NAME):
+      case (P2CLoadBalancerStrategy.P2C_LOAD_BALANCER_STRATEGY_NAME):
         trackerClient = createTrackerClientImpl(uri, uriProperties, serviceProperties, loadBalancerStrategyName,
             transportClient, clock, false, doNotSlowStart);
         break;
@@ -142,7 +147,7 @@ public class TrackerClientFactory
                                      transportClient,
                                      clock,
                                      config,
-                                     trackerClientInterval,
+                                     createCallTracker(serviceProperties, trackerClientInterval, clock, true),
                                      errorStatusPattern,
                                      doNotSlowStart);
   }
@@ -155,6 +160,7 @@ public class TrackerClientFactory
       switch (loadBalancerStrategyName)
       {
         case (RelativeLoadBalancerStrategy.RELATIVE_LOAD_BALANCER_STRATEGY_NAME):
+        case (P2CLoadBalancerStrategy.P2C_LOAD_BALANCER_STRATEGY_NAME):
           Map<String, Object> relativeLoadBalancerProperties = serviceProperties.getRelativeStrategyProperties();
           if (relativeLoadBalancerProperties != null)
           {
@@ -180,6 +186,24 @@ public class TrackerClientFactory
     return interval;
   }
 
+  /**
+   * Creates a {@link ConcurrentCallTrackerImpl} when enabled by the load balancer strategy properties of the service,
+   * and a {@link CallTrackerImpl} otherwise.
+   */
+  private static CallTracker createCallTracker(ServiceProperties serviceProperties, long interval, Clock clock,
+      boolean percentileTrackingEnabled)
+  {
+    boolean concurrentCallTrackerEnabled = false;
+    if (serviceProperties != null && serviceProperties.getLoadBalancerStrategyProperties() != null)
+    {
+      concurrentCallTrackerEnabled = MapUtil.getWithDefault(serviceProperties.getLoadBalancerStrategyProperties(),
+          PropertyKeys.HTTP_LB_CONCURRENT_CALL_TRACKER_ENABLED, false, Boolean.class);
+    }
+    return concurrentCallTrackerEnabled
+        ? new ConcurrentCallTrackerImpl(interval, clock, percentileTrackingEnabled)
+        : new CallTrackerImpl(interval, clock, percentileTrackingEnabled);
+  }
+
   private static Pattern getErrorStatusPattern(ServiceProperties serviceProperties)
   {
     String regex = TrackerClientImpl.DEFAULT_ERROR_STATUS_REGEX;
@@ -236,13 +260,13 @@ public class TrackerClientFactory
       return false;
     };
 
+    CallTracker callTracker = createCallTracker(serviceProperties,
+        getInterval(loadBalancerStrategyName, serviceProperties), clock, percentileTrackingEnabled);
     return new TrackerClientImpl(uri,
                                  uriProperties.getPartitionDataMap(uri),
                                  transportClient,
-                                 clock,
-                                 getInterval(loadBalancerStrategyName, serviceProperties),
+                                 callTracker,
                                  isErrorStatus,
-                                 percentileTrackingEnabled,
                                  doNotSlowStart);
   }
 }
@@ -85,10 +85,20 @@ public class TrackerClientImpl implements TrackerClient
 
   public TrackerClientImpl(URI uri, Map<Integer, PartitionData> partitionDataMap, TransportClient transportClient,
       Clock clock, long interval, Predicate<Integer> isErrorStatus, boolean percentileTrackingEnabled, boolean doNotSlowStart)
+  {
+    this(uri, partitionDataMap, transportClient, new CallTrackerImpl(interval, clock, percentileTrackingEnabled),
+        isErrorStatus, doNotSlowStart);
+  }
+
+  /**
+   * @param callTracker tracks the calls to this client, and must not be shared with other clients.
+   */
+  public TrackerClientImpl(URI uri, Map<Integer, PartitionData> partitionDataMap, TransportClient transportClient,
+      CallTracker callTracker, Predicate<Integer> isErrorStatus, boolean doNotSlowStart)
   {
     _uri = uri;
     _transportClient = transportClient;
-    _callTracker = new CallTrackerImpl(interval, clock, percentileTrackingEnabled);
+    _callTracker = callTracker;
     _isErrorStatus = isErrorStatus;
     _partitionData = Collections.unmodifiableMap(partitionDataMap);
     _latestCallStats = _callTracker.getCallStats();
@@ -178,6 +178,14 @@ public class LoadBalancerStrategyPropertiesConverter
     {
       map.put(PropertyKeys.HTTP_LB_HIGH_EVENT_EMITTING_INTERVAL, config.getHighEmittingInterval().toString());
     }
+    if (config.hasSubsetSize())
+    {
+      map.put(PropertyKeys.HTTP_LB_SUBSET_SIZE, config.getSubsetSize().toString());
+    }
+    if (config.hasConcurrentCallTrackerEnabled())
+    {
+      map.put(PropertyKeys.HTTP_LB_CONCURRENT_CALL_TRACKER_ENABLED, config.isConcurrentCallTrackerEnabled().toString());
+    }
     return map;
   }
 
@@ -324,6 +332,15 @@ public class LoadBalancerStrategyPropertiesConverter
     {
       config.setHighEmittingInterval(coerce(properties.get(PropertyKeys.HTTP_LB_HIGH_EVENT_EMITTING_INTERVAL), Integer.class));
     }
+    if (properties.containsKey(PropertyKeys.HTTP_LB_SUBSET_SIZE))
+    {
+      config.setSubsetSize(coerce(properties.get(PropertyKeys.HTTP_LB_SUBSET_SIZE), Integer.class));
+    }
+    if (properties.containsKey(PropertyKeys.HTTP_LB_CONCURRENT_CALL_TRACKER_ENABLED))
+    {
+      config.setConcurrentCallTrackerEnabled(
+          coerce(properties.get(PropertyKeys.HTTP_LB_CONCURRENT_CALL_TRACKER_ENABLED), Boolean.class));
+    }
 
     return config;
   }
@@ -40,6 +40,11 @@ public enum AllowedClientPropertyKeys
   HTTP_USE_RESPONSE_COMPRESSION(PropertyKeys.HTTP_USE_RESPONSE_COMPRESSION),
   HTTP_POOL_WAITER_SIZE(PropertyKeys.HTTP_POOL_WAITER_SIZE),
   HTTP_POOL_MIN_SIZE(PropertyKeys.HTTP_POOL_MIN_SIZE),
+  HTTP_POOL_EVENT_LOOP_AFFINITY(PropertyKeys.HTTP_POOL_EVENT_LOOP_AFFINITY),
+  HTTP_POOL_ADAPTIVE_SIZING(PropertyKeys.HTTP_POOL_ADAPTIVE_SIZING),
+  HTTP_POOL_CONCURRENT(PropertyKeys.HTTP_POOL_CONCURRENT),
+  HTTP_POOL_WARM_UP_SIZE(PropertyKeys.HTTP_POOL_WARM_UP_SIZE),
+  HTTP_WRITE_COALESCING(PropertyKeys.HTTP_WRITE_COALESCING),
   HTTP_POOL_STATS_NAME_PREFIX(PropertyKeys.HTTP_POOL_STATS_NAME_PREFIX),
   HTTP_REQUEST_CONTENT_ENCODINGS(PropertyKeys.HTTP_REQUEST_CONTENT_ENCODINGS),
   HTTP_PROTOCOL_VERSION(PropertyKeys.HTTP_PROTOCOL_VERSION);
@@ -104,6 +104,8 @@ public class PropertyKeys
   public static final String HTTP_LB_ERROR_STATUS_REGEX = "http.loadBalancer.errorStatusRegex";
   public static final String HTTP_LB_LOW_EVENT_EMITTING_INTERVAL = "http.loadBalancer.lowEmittingInterval";
   public static final String HTTP_LB_HIGH_EVENT_EMITTING_INTERVAL = "http.loadBalancer.highEmittingInterval";
+  public static final String HTTP_LB_SUBSET_SIZE = "http.loadBalancer.subsetSize";
+  public static final String HTTP_LB_CONCURRENT_CALL_TRACKER_ENABLED = "http.loadBalancer.concurrentCallTrackerEnabled";
 
   // Relative load balancer specific properties
   public static final String UP_STEP = getFieldName(D2RelativeStrategyProperties.fields().upStep());
@@ -177,6 +179,11 @@ public class PropertyKeys
   public static final String HTTP_QUERY_POST_THRESHOLD = HttpClientFactory.HTTP_QUERY_POST_THRESHOLD;
   public static final String HTTP_POOL_STRATEGY = HttpClientFactory.HTTP_POOL_STRATEGY;
   public static final String HTTP_POOL_MIN_SIZE = HttpClientFactory.HTTP_POOL_MIN_SIZE;
+  public static final String HTTP_POOL_EVENT_LOOP_AFFINITY = HttpClientFactory.HTTP_POOL_EVENT_LOOP_AFFINITY;
+  public static final String HTTP_POOL_ADAPTIVE_SIZING = HttpClientFactory.HTTP_POOL_ADAPTIVE_SIZING;
+  public static final String HTTP_POOL_CONCURRENT = HttpClientFactory.HTTP_POOL_CONCURRENT;
+  public static final String HTTP_POOL_WARM_UP_SIZE = HttpClientFactory.HTTP_POOL_WARM_UP_SIZE;
+  public static final String HTTP_WRITE_COALESCING = HttpClientFactory.HTTP_WRITE_COALESCING;
   public static final String HTTP_POOL_STATS_NAME_PREFIX = HttpClientFactory.HTTP_POOL_STATS_NAME_PREFIX;
   public static final String HTTP_MAX_HEADER_SIZE = HttpClientFactory.HTTP_MAX_HEADER_SIZE;
   public static final String HTTP_MAX_CHUNK_SIZE = HttpClientFactory.HTTP_MAX_CHUNK_SIZE;
@@ -37,6 +37,7 @@ import com.linkedin.d2.balancer.properties.PartitionData;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.properties.UriProperties;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.subsetting.DeterministicSubsetting;
 import com.linkedin.d2.balancer.util.ClientFactoryProvider;
 import com.linkedin.d2.balancer.util.ClusterInfoProvider;
 import com.linkedin.d2.balancer.util.HostOverrideList;
@@ -50,6 +51,7 @@ import com.linkedin.d2.balancer.util.hashing.Ring;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessException;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessor;
 import com.linkedin.d2.balancer.util.partitions.PartitionInfoProvider;
+import com.linkedin.d2.balancer.util.partitions.SelectedPartitionHints;
 import com.linkedin.d2.discovery.event.PropertyEventThread.PropertyEventShutdownCallback;
 import com.linkedin.d2.discovery.util.Stats;
 import com.linkedin.r2.message.Request;
@@ -462,7 +464,7 @@ public class SimpleLoadBalancer implements LoadBalancer, HashRingProvider, Clien
   public void warmUpService(String serviceName, Callback<None> callback)
   {
     listenToServiceAndCluster(serviceName, true,
-      Callbacks.handle(service -> callback.onSuccess(None.none()), callback));
+      Callbacks.handle(service -> _state.warmUpConnections(serviceName, callback), callback));
   }
 
   private LoadBalancerStateItem<UriProperties> getUriItem(String serviceName,
@@ -719,6 +721,11 @@ public class SimpleLoadBalancer implements LoadBalancer, HashRingProvider, Clien
     Set<URI> possibleUris = uris.getUriBySchemeAndPartition(scheme, partitionId);
 
     Map<URI, TrackerClient> clientsToBalance = getPotentialClients(serviceName, serviceProperties, clusterProperties, possibleUris);
+    if (DeterministicSubsetting.getSubsetSize(serviceProperties) > 0)
+    {
+      // a host of the subset of this client is only part of the partitions it was selected for
+      clientsToBalance.values().removeIf(client -> !client.getPartitionDataMap().containsKey(partitionId));
+    }
     if (clientsToBalance.isEmpty())
     {
       info(_log, "Can not find a host for service: ", serviceName, ", scheme: ", scheme, ", partition: ", partitionId);
@@ -873,6 +880,12 @@ public class SimpleLoadBalancer implements LoadBalancer, HashRingProvider, Clien
           + " (choosable: " + clientsToLoadBalance.size() + " hosts, total in cluster: " + uris.Uris().size() + ")");
       }
     }
+
+    if (targetHost == null)
+    {
+      // The partition of a request to a target host is picked at random above, so it is not recorded
+      SelectedPartitionHints.setRequestContextSelectedPartition(requestContext, partitionId);
+    }
     return trackerClient;
   }
 
@@ -18,6 +18,7 @@ package com.linkedin.d2.balancer.simple;
 
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.Callbacks;
+import com.linkedin.common.callback.MultiCallback;
 import com.linkedin.common.callback.SimpleCallback;
 import com.linkedin.common.util.None;
 import com.linkedin.d2.balancer.LoadBalancerClusterListener;
@@ -26,12 +27,16 @@ import com.linkedin.d2.balancer.LoadBalancerStateItem;
 import com.linkedin.d2.balancer.clients.TrackerClient;
 import com.linkedin.d2.balancer.clients.TrackerClientFactory;
 import com.linkedin.d2.balancer.properties.ClusterProperties;
+import com.linkedin.d2.balancer.properties.PropertyKeys;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.properties.UriProperties;
+import com.linkedin.d2.balancer.properties.util.PropertyUtil;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyV3;
+import com.linkedin.d2.balancer.strategies.relative.P2CLoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategy;
+import com.linkedin.d2.balancer.subsetting.DeterministicSubsetting;
 import com.linkedin.d2.balancer.util.ClientFactoryProvider;
 import com.linkedin.d2.balancer.util.LoadBalancerUtil;
 import com.linkedin.d2.balancer.util.partitions.PartitionAccessor;
@@ -46,6 +51,7 @@ import com.linkedin.internal.common.util.CollectionUtils;
 import com.linkedin.r2.transport.common.TransportClientFactory;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.util.NamedThreadFactory;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -55,7 +61,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -75,6 +86,8 @@ import static com.linkedin.d2.discovery.util.LogUtil.warn;
 public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactoryProvider
 {
   private static final Logger                                                            _log = LoggerFactory.getLogger(SimpleLoadBalancerState.class);
+  private static final int CONNECTION_WARM_UP_THREADS = 4;
+  private static final long CONNECTION_WARM_UP_THREAD_KEEP_ALIVE_SECONDS = 60;
 
   private final UriLoadBalancerSubscriber _uriSubscriber;
   private final ClusterLoadBalancerSubscriber _clusterSubscriber;
@@ -133,11 +146,24 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
    */
   private final List<LoadBalancerClusterListener>                                       _clusterListeners;
 
+  /**
+   * Map from service name => uri => callbacks of the connection warm up in progress, guarded by the map of the service
+   */
+  private final Map<String, Map<URI, List<Callback<None>>>>                              _connectionWarmUps;
+
+  /**
+   * Executor of the connection warm ups, which may block to resolve hosts, and the pool it defaults to
+   */
+  private volatile Executor                                                              _connectionWarmUpExecutor;
+  private final ExecutorService                                                          _defaultConnectionWarmUpExecutor;
+
   private final SSLContext    _sslContext;
   private final SSLParameters _sslParameters;
   private final boolean       _isSSLEnabled;
   private final SslSessionValidatorFactory _sslSessionValidatorFactory;
 
+  private volatile DeterministicSubsetting _subsetting;
+
   /*
    * Concurrency considerations:
    *
@@ -275,6 +301,22 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     _isSSLEnabled = isSSLEnabled;
     _sslSessionValidatorFactory = sessionValidatorFactory;
     _clusterListeners = Collections.synchronizedList(new ArrayList<>());
+    _connectionWarmUps = new ConcurrentHashMap<>();
+    _defaultConnectionWarmUpExecutor = createConnectionWarmUpExecutor();
+    _connectionWarmUpExecutor = _defaultConnectionWarmUpExecutor;
+    _subsetting = new DeterministicSubsetting();
+  }
+
+  /**
+   * @return a small pool for the connection warm ups, whose threads only live while hosts are being warmed up.
+   */
+  private static ExecutorService createConnectionWarmUpExecutor()
+  {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(CONNECTION_WARM_UP_THREADS, CONNECTION_WARM_UP_THREADS,
+        CONNECTION_WARM_UP_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new NamedThreadFactory("D2 Connection Warm Up"));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   public void register(final SimpleLoadBalancerStateListener listener)
@@ -418,6 +460,8 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
             clusterListener.onClusterRemoved(clusterName);
           }
         }
+
+        _defaultConnectionWarmUpExecutor.shutdown();
       }
     });
   }
@@ -617,6 +661,35 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     return _serviceSubscriber.isListeningToProperty(serviceName);
   }
 
+  /**
+   * Sets the id that selects the hosts this client connects to, for services that enable subsetting. Defaults to the
+   * name of the local host and the id of the process. Takes effect on the next update of the uris or properties of a service.
+   */
+  public void setSubsettingClientId(String clientId)
+  {
+    _subsetting = new DeterministicSubsetting(clientId);
+  }
+
+  /**
+   * @return the uris of the cluster the service keeps tracker clients for: all of them, or the subset of this client
+   *         and its rescaled weights if the service enables subsetting.
+   */
+  UriProperties getSubset(String serviceName, UriProperties uriProperties)
+  {
+    LoadBalancerStateItem<ServiceProperties> servicePropertiesItem = _serviceProperties.get(serviceName);
+    return servicePropertiesItem == null || servicePropertiesItem.getProperty() == null ? uriProperties
+        : _subsetting.getSubset(servicePropertiesItem.getProperty(), uriProperties);
+  }
+
+  /**
+   * Sets the executor that warms up the connections to hosts, which may block to resolve them. Defaults to a small
+   * pool owned by this state, so that the event bus thread never waits on DNS.
+   */
+  public void setConnectionWarmUpExecutor(Executor connectionWarmUpExecutor)
+  {
+    _connectionWarmUpExecutor = connectionWarmUpExecutor;
+  }
+
   public long getDelayedExecution()
   {
     return _delayedExecution;
@@ -824,6 +897,119 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     return client;
   }
 
+  /**
+   * Opens connections to every host of a service ahead of its first requests, see
+   * {@link #warmUpConnections(String, URI, Callback)}.
+   */
+  @Override
+  public void warmUpConnections(String serviceName, Callback<None> callback)
+  {
+    Map<URI, TrackerClient> trackerClients = _trackerClients.get(serviceName);
+    if (trackerClients == null || trackerClients.isEmpty())
+    {
+      callback.onSuccess(None.none());
+      return;
+    }
+
+    Set<URI> uris = new HashSet<>(trackerClients.keySet());
+    Callback<None> multiCallback = new MultiCallback(callback, uris.size());
+    for (URI uri : uris)
+    {
+      warmUpConnections(serviceName, uri, multiCallback);
+    }
+  }
+
+  /**
+   * Opens connections to a host of a service ahead of its first requests, as many as the
+   * {@link PropertyKeys#HTTP_POOL_WARM_UP_SIZE} transport client property of the service. A host being warmed up is
+   * not warmed up again until it is done. The host is resolved and connected to on the connection warm up executor,
+   * since this is called from the event bus thread. Failures to connect are logged and do not fail the callback,
+   * since the requests will connect anyway.
+   */
+  void warmUpConnections(String serviceName, URI uri, Callback<None> callback)
+  {
+    int connections = getConnectionWarmUpSize(serviceName);
+    TransportClient transportClient = connections > 0 ? getTransportClient(serviceName, uri) : null;
+    if (transportClient == null)
+    {
+      callback.onSuccess(None.none());
+      return;
+    }
+
+    Map<URI, List<Callback<None>>> warmUps = _connectionWarmUps.computeIfAbsent(serviceName, k -> new HashMap<>());
+    synchronized (warmUps)
+    {
+      List<Callback<None>> callbacks = warmUps.get(uri);
+      if (callbacks != null)
+      {
+        callbacks.add(callback);
+        return;
+      }
+      callbacks = new ArrayList<>();
+      callbacks.add(callback);
+      warmUps.put(uri, callbacks);
+    }
+
+    debug(_log, "opening ", connections, " connections to ", uri, " for service ", serviceName);
+    Callback<None> warmUpCallback = new Callback<None>()
+    {
+      @Override
+      public void onError(Throwable e)
+      {
+        warn(_log, "failed to open connections to ", uri, " for service ", serviceName, ": ", e);
+        done();
+      }
+
+      @Override
+      public void onSuccess(None none)
+      {
+        done();
+      }
+
+      private void done()
+      {
+        List<Callback<None>> callbacks;
+        synchronized (warmUps)
+        {
+          callbacks = warmUps.remove(uri);
+        }
+        callbacks.forEach(hostCallback -> hostCallback.onSuccess(None.none()));
+      }
+    };
+    try
+    {
+      _connectionWarmUpExecutor.execute(() -> transportClient.warmUp(uri, connections, warmUpCallback));
+    }
+    catch (RejectedExecutionException e)
+    {
+      warmUpCallback.onError(e);
+    }
+  }
+
+  private int getConnectionWarmUpSize(String serviceName)
+  {
+    LoadBalancerStateItem<ServiceProperties> servicePropertiesItem = _serviceProperties.get(serviceName);
+    if (servicePropertiesItem == null || servicePropertiesItem.getProperty() == null)
+    {
+      return 0;
+    }
+    Object warmUpSize =
+        servicePropertiesItem.getProperty().getTransportClientProperties().get(PropertyKeys.HTTP_POOL_WARM_UP_SIZE);
+    if (warmUpSize == null)
+    {
+      return HttpClientFactory.DEFAULT_POOL_WARM_UP_SIZE;
+    }
+    try
+    {
+      return PropertyUtil.coerce(warmUpSize, Integer.class);
+    }
+    catch (IllegalArgumentException e)
+    {
+      warn(_log, "invalid ", PropertyKeys.HTTP_POOL_WARM_UP_SIZE, " for service ", serviceName, ": ", warmUpSize);
+      return 0;
+    }
+  }
+
   /**
    * Creates new {@link TrackerClient} and {@link TransportClient} for service and shut down any old ones.
    *
@@ -847,6 +1033,7 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     UriProperties uriProperties = uriItem == null ? null : uriItem.getProperty();
     if (uriProperties != null)
     {
+      uriProperties = _subsetting.getSubset(serviceProperties, uriProperties);
       Set<URI> uris = uriProperties.Uris();
       newTrackerClients = new ConcurrentHashMap<>(CollectionUtils.getMapInitialCapacity(uris.size(), 0.75f), 0.75f, 1);
 
@@ -1064,8 +1251,8 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     Map<String, LoadBalancerStrategy> newStrategies = new ConcurrentHashMap<>();
 
     if (factory == null && strategyList != null && strategyList.size() == 1
-        && strategyList.contains(RelativeLoadBalancerStrategy.RELATIVE_LOAD_BALANCER_STRATEGY_NAME)
-        && !_loadBalancerStrategyFactories.containsKey(RelativeLoadBalancerStrategy.RELATIVE_LOAD_BALANCER_STRATEGY_NAME))
+        && (strategyList.contains(RelativeLoadBalancerStrategy.RELATIVE_LOAD_BALANCER_STRATEGY_NAME)
+            || strategyList.contains(P2CLoadBalancerStrategy.P2C_LOAD_BALANCER_STRATEGY_NAME)))
     {
       factory = _loadBalancerStrategyFactories.get(DegraderLoadBalancerStrategyV3.DEGRADER_STRATEGY_NAME);
       warn(_log, "unable to find cluster or factory for ", serviceProperties, ", defaulting to ", factory);
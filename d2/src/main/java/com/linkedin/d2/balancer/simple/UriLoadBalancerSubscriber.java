@@ -16,6 +16,7 @@
 
 package com.linkedin.d2.balancer.simple;
 
+import com.linkedin.common.callback.Callbacks;
 import com.linkedin.d2.balancer.LoadBalancerState;
 import com.linkedin.d2.balancer.LoadBalancerStateItem;
 import com.linkedin.d2.balancer.clients.TrackerClient;
@@ -76,13 +77,15 @@ class UriLoadBalancerSubscriber extends AbstractLoadBalancerSubscriber<UriProper
             _simpleLoadBalancerState.getTrackerClients().put(serviceName, trackerClients);
           }
 
-          for (URI uri : uriProperties.Uris())
+          UriProperties serviceUriProperties = _simpleLoadBalancerState.getSubset(serviceName, uriProperties);
+          for (URI uri : serviceUriProperties.Uris())
           {
-            Map<Integer, PartitionData> partitionDataMap = uriProperties.getPartitionDataMap(uri);
+            Map<Integer, PartitionData> partitionDataMap = serviceUriProperties.getPartitionDataMap(uri);
             TrackerClient client = trackerClients.get(uri);
             if (client == null || !client.getPartitionDataMap().equals(partitionDataMap))
             {
-              client = _simpleLoadBalancerState.buildTrackerClient(uri, uriProperties, serviceName);
+              boolean announced = client == null;
+              client = _simpleLoadBalancerState.buildTrackerClient(uri, serviceUriProperties, serviceName);
 
               if (client != null)
               {
@@ -95,6 +98,12 @@ class UriLoadBalancerSubscriber extends AbstractLoadBalancerSubscriber<UriProper
                 }
 
                 trackerClients.put(uri, client);
+
+                // open connections to the new host in the background
+                if (announced)
+                {
+                  _simpleLoadBalancerState.warmUpConnections(serviceName, uri, Callbacks.empty());
+                }
               }
             }
           }
@@ -120,11 +129,13 @@ class UriLoadBalancerSubscriber extends AbstractLoadBalancerSubscriber<UriProper
           Map<URI, TrackerClient> trackerClients = _simpleLoadBalancerState.getTrackerClients().get(serviceName);
           if (trackerClients != null)
           {
+            // uris that left the subset of this client are removed as well
+            Set<URI> serviceUris = _simpleLoadBalancerState.getSubset(serviceName, uriProperties).Uris();
             for (Iterator<URI> it = trackerClients.keySet().iterator(); it.hasNext(); )
             {
               URI uri = it.next();
 
-              if (!uriProperties.Uris().contains(uri))
+              if (!serviceUris.contains(uri))
               {
                 TrackerClient client = trackerClients.remove(uri);
 
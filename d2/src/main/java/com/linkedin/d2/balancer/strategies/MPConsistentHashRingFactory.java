@@ -18,18 +18,29 @@ package com.linkedin.d2.balancer.strategies;
 
 import com.linkedin.d2.balancer.util.hashing.MPConsistentHashRing;
 import com.linkedin.d2.balancer.util.hashing.Ring;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 
 /**
  * A ring factory generates {@link MPConsistentHashRing}s.
  *
+ * The factory keeps the last ring it created, and returns it again as long as the points do not change. It also keeps
+ * the bucket hashes of the hosts, so that a new ring only hashes the hosts that were not part of the previous one.
+ *
+ * Note: MPConsistentHashRingFactory is not thread safe. It is currently protected by partition lock
+ *       from the caller. Make sure to have proper protection if it is used in other environment.
+ *
  * @author Ang Xu
  */
 public class MPConsistentHashRingFactory<T> implements RingFactory<T>
 {
   private final int _numProbes;
   private final int _pointsPerHost;
+  private final Map<T, long[]> _bucketHashes = new HashMap<>();
+  private Map<T, Integer> _ringPointsMap = Collections.emptyMap();
+  private Ring<T> _ring;
 
   public MPConsistentHashRingFactory(int numProbes, int pointsPerHost)
   {
@@ -40,6 +51,15 @@ public class MPConsistentHashRingFactory<T> implements RingFactory<T>
   @Override
   public Ring<T> createRing(Map<T, Integer> points)
   {
-    return new MPConsistentHashRing<>(points, _numProbes, _pointsPerHost);
+    if (_ring != null && _ringPointsMap.equals(points))
+    {
+      return _ring;
+    }
+
+    _bucketHashes.keySet().retainAll(points.keySet());
+    _ring = new MPConsistentHashRing<>(points, _numProbes,
+        host -> _bucketHashes.computeIfAbsent(host, h -> MPConsistentHashRing.hashBuckets(h, _pointsPerHost)));
+    _ringPointsMap = new HashMap<>(points);
+    return _ring;
   }
 }
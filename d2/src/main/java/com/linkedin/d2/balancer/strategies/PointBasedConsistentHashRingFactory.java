@@ -27,9 +27,13 @@ import java.nio.charset.Charset;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +47,9 @@ import org.slf4j.LoggerFactory;
  *    points for each update unless more Points are needed.
  * 2. Avoid re-invoking MD5 (or other expensive hashing mechanisms) for the point generation.
  *
+ * The factory also keeps the last ring it created. The ring is returned again as long as the points do not change,
+ * and a new ring is built by applying the changed points to the sorted points of the last ring.
+ *
  * Note: DegraderRingFactory is not thread safe. It is currently protected by partition lock
  *       from the caller. Make sure to have proper protection if it is used in other environment.
  */
@@ -52,6 +59,9 @@ public class PointBasedConsistentHashRingFactory<T> implements RingFactory<T>
   private static final Logger _log = LoggerFactory.getLogger(PointBasedConsistentHashRingFactory.class);
 
   final private Map<T, List<Point<T>>> _ringPoints; // map from object t --> list of points for this object
+  // points map and ring of the last ring created, the new rings are built from them
+  private Map<T, Integer> _ringPointsMap = Collections.emptyMap();
+  private ConsistentHashRing<T> _ring;
   private final MessageDigest _md;
   private final double _hashRingPointCleanUpRate;
   // threshold to clean up old factory points. See clearPoints function
@@ -84,20 +94,37 @@ public class PointBasedConsistentHashRingFactory<T> implements RingFactory<T>
   @Override
   public Ring<T> createRing(Map<T, Integer> points)
   {
-    List<Point<T>> newRingPoints = new ArrayList<>();
-    clearPoints(points.size());
-    for (Map.Entry<T, Integer> entry : points.entrySet())
+    if (_ring != null && _ringPointsMap.equals(points))
     {
-      T t = entry.getKey();
-      int numDesiredPoints = entry.getValue();
-      List<Point<T>> tPoints = getPointList(t, numDesiredPoints);
+      return _ring;
+    }
+
+    List<Point<T>> newRingPoints;
+    boolean sorted;
+    if (clearPoints(points.size()) || _ring == null)
+    {
+      newRingPoints = new ArrayList<>();
+      for (Map.Entry<T, Integer> entry : points.entrySet())
+      {
+        T t = entry.getKey();
+        int numDesiredPoints = entry.getValue();
+        List<Point<T>> tPoints = getPointList(t, numDesiredPoints);
 
-      // Only copy the number of desired points
-      newRingPoints.addAll(tPoints.subList(0, numDesiredPoints));
+        // Only copy the number of desired points
+        newRingPoints.addAll(tPoints.subList(0, numDesiredPoints));
+      }
+      sorted = false;
+    }
+    else
+    {
+      newRingPoints = updatePoints(points);
+      sorted = true;
     }
 
     _log.debug("Creating new hash ring with the following points {}", newRingPoints);
-    return new ConsistentHashRing<>(newRingPoints);
+    _ring = new ConsistentHashRing<>(newRingPoints, sorted);
+    _ringPointsMap = new HashMap<>(points);
+    return _ring;
   }
 
   public Map<T, List<Point<T>>> getPointsMap()
@@ -123,14 +150,77 @@ public class PointBasedConsistentHashRingFactory<T> implements RingFactory<T>
    *
    * @param size the size of new URI list
    */
-  private void clearPoints(int size)
+  private boolean clearPoints(int size)
   {
     int unusedEntries = _ringPoints.size() - size;
     int unusedEntryThreshold = (int)(_ringPoints.size() * _hashRingPointCleanUpRate);
     if (unusedEntries > Math.max(unusedEntryThreshold, POINTS_CLEANUP_MIN_UNUSED_ENTRY))
     {
       _ringPoints.clear();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Applies the difference between the points of the last ring and the given ones to the sorted points of the last
+   * ring, instead of sorting all the points again.
+   *
+   * The points of an object in a ring are always the first ones of its point list, so an object that lost points
+   * loses the last ones it had in the ring, and an object that gained points gains the next ones of its list. The
+   * points that remain are already sorted, and are merged with the sorted new points.
+   *
+   * @return the sorted points of the new ring
+   */
+  private List<Point<T>> updatePoints(Map<T, Integer> points)
+  {
+    // Points are shared by the point lists and the rings, so they can be compared by identity
+    Set<Point<T>> removedPoints = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Map.Entry<T, Integer> entry : _ringPointsMap.entrySet())
+    {
+      int numPoints = points.getOrDefault(entry.getKey(), 0);
+      if (numPoints < entry.getValue())
+      {
+        removedPoints.addAll(_ringPoints.get(entry.getKey()).subList(numPoints, entry.getValue()));
+      }
+    }
+
+    List<Point<T>> addedPoints = new ArrayList<>();
+    int numRingPoints = 0;
+    for (Map.Entry<T, Integer> entry : points.entrySet())
+    {
+      int numDesiredPoints = entry.getValue();
+      int numPoints = _ringPointsMap.getOrDefault(entry.getKey(), 0);
+      if (numDesiredPoints > numPoints)
+      {
+        addedPoints.addAll(getPointList(entry.getKey(), numDesiredPoints).subList(numPoints, numDesiredPoints));
+      }
+      numRingPoints += numDesiredPoints;
+    }
+    Collections.sort(addedPoints);
+
+    List<Point<T>> newRingPoints = new ArrayList<>(numRingPoints);
+    Iterator<Point<T>> addedIterator = addedPoints.iterator();
+    Point<T> added = addedIterator.hasNext() ? addedIterator.next() : null;
+    for (Point<T> point : _ring.getPoints())
+    {
+      if (removedPoints.contains(point))
+      {
+        continue;
+      }
+      while (added != null && added.compareTo(point) < 0)
+      {
+        newRingPoints.add(added);
+        added = addedIterator.hasNext() ? addedIterator.next() : null;
+      }
+      newRingPoints.add(point);
+    }
+    while (added != null)
+    {
+      newRingPoints.add(added);
+      added = addedIterator.hasNext() ? addedIterator.next() : null;
     }
+    return newRingPoints;
   }
 
   /**
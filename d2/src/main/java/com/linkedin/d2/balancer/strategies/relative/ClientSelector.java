@@ -98,10 +98,13 @@ public class ClientSelector
     return trackerClient;
   }
 
-  private TrackerClient getTrackerClientFromRing(Request request,
-                                                 RequestContext requestContext,
-                                                 Ring<URI> ring,
-                                                 Map<URI, TrackerClient> trackerClients)
+  /**
+   * Pick a {@link TrackerClient} from the ring for a request without target host, skipping the excluded hosts
+   */
+  protected TrackerClient getTrackerClientFromRing(Request request,
+                                                   RequestContext requestContext,
+                                                   Ring<URI> ring,
+                                                   Map<URI, TrackerClient> trackerClients)
   {
     Set<URI> excludedUris = LoadBalancerStrategy.ExcludedHostHints.getRequestContextExcludedHosts(requestContext) == null
         ? new HashSet<>()
@@ -0,0 +1,141 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.relative;
+
+import com.linkedin.d2.balancer.clients.TrackerClient;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.util.hashing.HashFunction;
+import com.linkedin.d2.balancer.util.hashing.RandomHash;
+import com.linkedin.d2.balancer.util.hashing.Ring;
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.util.degrader.CallTracker;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntSupplier;
+
+
+/**
+ * Select the least loaded of two distinct hosts picked at random from the hash ring for a request.
+ *
+ * The hosts are picked in proportion to their points on the ring, so the health scores of the relative
+ * strategy still shift traffic away from unhealthy hosts and quarantined hosts are never picked. A pick that lands on
+ * an excluded host or on the first pick is drawn again a few times, and then found by walking the ring. The load of a
+ * host is its number of calls in flight, plus the call about to be sent, times the moving average of its latency from
+ * {@link CallTracker#getCurrentLatencyEwma()}.
+ *
+ * Only requests hashed with {@link RandomHash} are balanced this way. A request hash method that routes requests
+ * to hosts, e.g. {@link com.linkedin.d2.balancer.util.hashing.URIRegexHash} for sticky routing, is honored: the
+ * host is found as {@link ClientSelector} finds it, without comparing loads.
+ */
+public class P2CClientSelector extends ClientSelector
+{
+  private static final int MAX_DRAWS = 3;
+
+  private final IntSupplier _randomHash;
+  private final boolean _randomRequestHash;
+
+  public P2CClientSelector(HashFunction<Request> requestHashFunction)
+  {
+    this(requestHashFunction, () -> ThreadLocalRandom.current().nextInt());
+  }
+
+  P2CClientSelector(HashFunction<Request> requestHashFunction, IntSupplier randomHash)
+  {
+    super(requestHashFunction);
+    _randomHash = randomHash;
+    _randomRequestHash = requestHashFunction instanceof RandomHash;
+  }
+
+  @Override
+  protected TrackerClient getTrackerClientFromRing(Request request,
+                                                   RequestContext requestContext,
+                                                   Ring<URI> ring,
+                                                   Map<URI, TrackerClient> trackerClients)
+  {
+    if (!_randomRequestHash)
+    {
+      return super.getTrackerClientFromRing(request, requestContext, ring, trackerClients);
+    }
+
+    Set<URI> excludedUris = LoadBalancerStrategy.ExcludedHostHints.getRequestContextExcludedHosts(requestContext);
+    if (excludedUris == null)
+    {
+      excludedUris = Collections.emptySet();
+    }
+
+    TrackerClient first = pickFromRing(ring, trackerClients, excludedUris, null);
+    if (first == null)
+    {
+      return super.getTrackerClientFromRing(request, requestContext, ring, trackerClients);
+    }
+    TrackerClient second = pickFromRing(ring, trackerClients, excludedUris, first.getUri());
+    if (second == null)
+    {
+      // The first pick is the only host available
+      return first;
+    }
+    return getLoad(second) < getLoad(first) ? second : first;
+  }
+
+  /**
+   * Picks a host at random, skipping the excluded hosts and the other pick.
+   */
+  private TrackerClient pickFromRing(Ring<URI> ring, Map<URI, TrackerClient> trackerClients, Set<URI> excludedUris,
+      URI otherPick)
+  {
+    int hash = 0;
+    for (int i = 0; i < MAX_DRAWS; i++)
+    {
+      hash = _randomHash.getAsInt();
+      TrackerClient trackerClient = getAvailable(ring.get(hash), trackerClients, excludedUris, otherPick);
+      if (trackerClient != null)
+      {
+        return trackerClient;
+      }
+    }
+
+    // Walk the ring from the last draw, e.g. when one host holds most of the points or most hosts are excluded
+    Iterator<URI> ringIterator = ring.getIterator(hash);
+    while (ringIterator.hasNext())
+    {
+      TrackerClient trackerClient = getAvailable(ringIterator.next(), trackerClients, excludedUris, otherPick);
+      if (trackerClient != null)
+      {
+        return trackerClient;
+      }
+    }
+    return null;
+  }
+
+  private static TrackerClient getAvailable(URI uri, Map<URI, TrackerClient> trackerClients, Set<URI> excludedUris,
+      URI otherPick)
+  {
+    return uri == null || uri.equals(otherPick) || excludedUris.contains(uri) ? null : trackerClients.get(uri);
+  }
+
+  private static double getLoad(TrackerClient trackerClient)
+  {
+    CallTracker callTracker = trackerClient.getCallTracker();
+    // A host without latency yet costs one millisecond per call so that the calls in flight still count
+    return (callTracker.getCurrentConcurrency() + 1) * Math.max(1, callTracker.getCurrentLatencyEwma());
+  }
+}
@@ -0,0 +1,41 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.relative;
+
+
+/**
+ * A {@link RelativeLoadBalancerStrategy} that sends each request to the least loaded of two hosts picked at random,
+ * the power of two choices. Health scores, quarantine and partitions are maintained as by the relative strategy,
+ * which is configured by the same properties.
+ *
+ * @see P2CClientSelector
+ */
+public class P2CLoadBalancerStrategy extends RelativeLoadBalancerStrategy
+{
+  public static final String P2C_LOAD_BALANCER_STRATEGY_NAME = "p2c";
+
+  public P2CLoadBalancerStrategy(StateUpdater stateUpdater, P2CClientSelector clientSelector)
+  {
+    super(stateUpdater, clientSelector);
+  }
+
+  @Override
+  public String getName()
+  {
+    return P2C_LOAD_BALANCER_STRATEGY_NAME;
+  }
+}
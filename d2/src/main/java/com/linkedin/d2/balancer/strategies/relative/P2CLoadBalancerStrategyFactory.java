@@ -0,0 +1,52 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.relative;
+
+import com.linkedin.d2.D2RelativeStrategyProperties;
+import com.linkedin.d2.balancer.config.RelativeStrategyPropertiesConverter;
+import com.linkedin.d2.balancer.event.EventEmitter;
+import com.linkedin.d2.balancer.properties.ServiceProperties;
+import com.linkedin.d2.balancer.strategies.PartitionStateUpdateListener;
+import com.linkedin.d2.balancer.util.healthcheck.HealthCheckOperations;
+import com.linkedin.util.clock.Clock;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+
+/**
+ * Load balancer factory for {@link P2CLoadBalancerStrategy}.
+ */
+public class P2CLoadBalancerStrategyFactory extends RelativeLoadBalancerStrategyFactory
+{
+  public P2CLoadBalancerStrategyFactory(ScheduledExecutorService executorService, HealthCheckOperations healthCheckOperations,
+      List<PartitionStateUpdateListener.Factory<PartitionState>> stateListenerFactories, EventEmitter eventEmitter, Clock clock)
+  {
+    super(executorService, healthCheckOperations, stateListenerFactories, eventEmitter, clock);
+  }
+
+  @Override
+  public P2CLoadBalancerStrategy newLoadBalancer(ServiceProperties serviceProperties)
+  {
+    D2RelativeStrategyProperties relativeStrategyProperties = RelativeStrategyPropertiesConverter
+        .toProperties(serviceProperties.getRelativeStrategyProperties());
+    relativeStrategyProperties = putDefaultValues(relativeStrategyProperties);
+
+    return new P2CLoadBalancerStrategy(getRelativeStateUpdater(relativeStrategyProperties,
+        serviceProperties.getServiceName(), serviceProperties.getClusterName(), serviceProperties.getPath()),
+        new P2CClientSelector(getRequestHashFunction(relativeStrategyProperties)));
+  }
+}
@@ -100,7 +100,7 @@ public class RelativeLoadBalancerStrategyFactory implements LoadBalancerStrategy
                                             serviceProperties.getPath()), getClientSelector(relativeStrategyProperties));
   }
 
-  private StateUpdater getRelativeStateUpdater(D2RelativeStrategyProperties relativeStrategyProperties,
+  StateUpdater getRelativeStateUpdater(D2RelativeStrategyProperties relativeStrategyProperties,
       String serviceName, String clusterName, String servicePath)
   {
     QuarantineManager quarantineManager = getQuarantineManager(relativeStrategyProperties, serviceName, servicePath);
@@ -129,7 +129,7 @@ public class RelativeLoadBalancerStrategyFactory implements LoadBalancerStrategy
         relativeStrategyProperties.getUpdateIntervalMs(), relativeStrategyProperties.getRelativeLatencyLowThresholdFactor());
   }
 
-  private HashFunction<Request> getRequestHashFunction(D2RelativeStrategyProperties relativeStrategyProperties)
+  HashFunction<Request> getRequestHashFunction(D2RelativeStrategyProperties relativeStrategyProperties)
   {
     if (relativeStrategyProperties.hasRingProperties() && relativeStrategyProperties.getRingProperties().hasHashConfig())
     {
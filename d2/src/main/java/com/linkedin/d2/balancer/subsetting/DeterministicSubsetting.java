@@ -0,0 +1,212 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package com.linkedin.d2.balancer.subsetting;
+
+import com.linkedin.common.util.MapUtil;
+import com.linkedin.d2.balancer.properties.PartitionData;
+import com.linkedin.d2.balancer.properties.PropertyKeys;
+import com.linkedin.d2.balancer.properties.ServiceProperties;
+import com.linkedin.d2.balancer.properties.UriProperties;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import net.openhft.hashing.LongHashFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Selects the subset of the hosts of a cluster that one client of a service connects to, so that the number of
+ * connections of a cluster grows with the number of its clients times the subset size instead of times the number of
+ * hosts, and each client observes more calls per host.
+ *
+ * <p>Hosts are selected per partition by weighted rendezvous hashing: every (client, host) pair gets a score derived
+ * from their hash and the weight of the host, and each client keeps the hosts with the best scores. The selection is
+ * stable, since it only depends on the client id and the hosts, and spreads the clients evenly over the hosts in
+ * proportion to their weights. When a host joins, it only replaces a host in the subsets where it scores better, and
+ * when a host leaves, only the subsets it was part of change, each by one host.</p>
+ *
+ * <p>A host is part of about {@code subsetSize * weight / totalWeight} of the subsets. Its weight in a subset is
+ * divided by that probability, so that the load each host receives from all the clients remains proportional to its
+ * weight.</p>
+ */
+public class DeterministicSubsetting
+{
+  private static final Logger LOG = LoggerFactory.getLogger(DeterministicSubsetting.class);
+  private static final LongHashFunction HASH_FUNCTION = LongHashFunction.xx_r39(0xDEADBEEF);
+
+  private final String _clientId;
+
+  /**
+   * Creates a subsetting for this client, identified by the name of the local host and the id of the process,
+   * resolved on first use. Processes on the same host then select different subsets, but a restarted process may
+   * select a new one. Configure a client id that is stable across restarts, e.g. the host and port of the
+   * application, to keep the subset.
+   */
+  public DeterministicSubsetting()
+  {
+    this(null);
+  }
+
+  /**
+   * @param clientId identifies the client, the same id selects the same subset, so it must be unique per process.
+   *                 Null for the name of the local host and the id of the process.
+   */
+  public DeterministicSubsetting(String clientId)
+  {
+    _clientId = clientId;
+  }
+
+  public String getClientId()
+  {
+    return _clientId != null ? _clientId : LocalClientId.VALUE;
+  }
+
+  /**
+   * @return the number of hosts per partition a client of the service connects to, or 0 if the service does not
+   *         enable subsetting.
+   */
+  public static int getSubsetSize(ServiceProperties serviceProperties)
+  {
+    Integer subsetSize = MapUtil.getWithDefault(serviceProperties.getLoadBalancerStrategyProperties(),
+        PropertyKeys.HTTP_LB_SUBSET_SIZE, 0, Integer.class);
+    return Math.max(subsetSize, 0);
+  }
+
+  /**
+   * @return the hosts of the subset of this client and their rescaled weights, or the given uri properties if the
+   *         service does not enable subsetting. A host is only kept in the partitions it was selected for.
+   */
+  public UriProperties getSubset(ServiceProperties serviceProperties, UriProperties uriProperties)
+  {
+    int subsetSize = getSubsetSize(serviceProperties);
+    if (subsetSize == 0)
+    {
+      return uriProperties;
+    }
+
+    Map<Integer, List<URI>> urisByPartition = new HashMap<>();
+    for (Map.Entry<URI, Map<Integer, PartitionData>> entry : uriProperties.getPartitionDesc().entrySet())
+    {
+      for (Integer partitionId : entry.getValue().keySet())
+      {
+        urisByPartition.computeIfAbsent(partitionId, id -> new ArrayList<>()).add(entry.getKey());
+      }
+    }
+
+    String serviceName = serviceProperties.getServiceName();
+    Map<URI, Map<Integer, PartitionData>> subset = new HashMap<>();
+    for (Map.Entry<Integer, List<URI>> entry : urisByPartition.entrySet())
+    {
+      Integer partitionId = entry.getKey();
+      List<URI> uris = entry.getValue();
+      if (uris.size() <= subsetSize)
+      {
+        for (URI uri : uris)
+        {
+          subset.computeIfAbsent(uri, u -> new HashMap<>())
+              .put(partitionId, uriProperties.getPartitionDataMap(uri).get(partitionId));
+        }
+        continue;
+      }
+
+      double totalWeight = 0;
+      Map<URI, Double> scores = new HashMap<>();
+      for (URI uri : uris)
+      {
+        double weight = uriProperties.getPartitionDataMap(uri).get(partitionId).getWeight();
+        totalWeight += Math.max(weight, 0);
+        scores.put(uri, score(serviceName, uri, weight));
+      }
+      uris.sort(Comparator.comparingDouble(scores::get));
+
+      for (URI uri : uris.subList(0, subsetSize))
+      {
+        double weight = uriProperties.getPartitionDataMap(uri).get(partitionId).getWeight();
+        double inclusionProbability = totalWeight > 0 ? Math.min(1, subsetSize * weight / totalWeight) : 1;
+        double subsetWeight = inclusionProbability > 0 ? weight / inclusionProbability : weight;
+        subset.computeIfAbsent(uri, u -> new HashMap<>()).put(partitionId, new PartitionData(subsetWeight));
+      }
+    }
+
+    Map<URI, Map<String, Object>> uriSpecificProperties = new HashMap<>();
+    for (Map.Entry<URI, Map<String, Object>> entry : uriProperties.getUriSpecificProperties().entrySet())
+    {
+      if (subset.containsKey(entry.getKey()))
+      {
+        uriSpecificProperties.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return new UriProperties(uriProperties.getClusterName(), subset, uriSpecificProperties);
+  }
+
+  /**
+   * Weighted rendezvous score of a host for this client, lower is better: the exponential random variable
+   * {@code -ln(u) / weight}, where u is uniform in (0, 1) and derived from the hash of the client and the host.
+   * The host with the lowest score is picked with a probability proportional to its weight.
+   */
+  private double score(String serviceName, URI uri, double weight)
+  {
+    if (weight <= 0)
+    {
+      return Double.POSITIVE_INFINITY;
+    }
+    long hash = HASH_FUNCTION.hashChars(getClientId() + '/' + serviceName + '/' + uri);
+    double uniform = ((hash >>> 11) + 0.5) / (1L << 53);
+    return -Math.log(uniform) / weight;
+  }
+
+  /**
+   * Resolves the name of the local host and the id of the process once, on first use.
+   */
+  private static final class LocalClientId
+  {
+    private static final String VALUE = resolve();
+
+    private static String resolve()
+    {
+      try
+      {
+        return InetAddress.getLocalHost().getHostName() + '/' + processId();
+      }
+      catch (UnknownHostException e)
+      {
+        String clientId = UUID.randomUUID().toString();
+        LOG.warn("Unable to resolve the local host name, using the random subsetting client id " + clientId, e);
+        return clientId;
+      }
+    }
+
+    /**
+     * @return the id of the process, from the name of the runtime, which is "pid@hostname" on usual JVMs.
+     */
+    private static String processId()
+    {
+      String runtimeName = ManagementFactory.getRuntimeMXBean().getName();
+      int at = runtimeName.indexOf('@');
+      return at > 0 ? runtimeName.substring(0, at) : runtimeName;
+    }
+  }
+}
@@ -46,7 +46,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The WarmUpLoadBalancer warms up the internal {@link SimpleLoadBalancer} services/cluster list
- * before the client is announced as "started".
+ * before the client is announced as "started". The {@link SimpleLoadBalancer} also opens connections
+ * to the hosts of each service, when its http.poolWarmUpSize transport client property is set.
  *
  * @author Francesco Capponi (fcapponi@linkedin.com)
  */
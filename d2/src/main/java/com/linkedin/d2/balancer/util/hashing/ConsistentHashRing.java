@@ -63,6 +63,20 @@ public class ConsistentHashRing<T> implements Ring<T>
    *
    */
   public ConsistentHashRing(List<Point<T>> points)
+  {
+    this(points, false);
+  }
+
+  /**
+   * Create a consistent hash ring with given points, which may already be sorted
+   * @param points Point list;
+   * @param sorted true if the points are already sorted, in which case they are not sorted again
+   *
+   * Note: ConsistentHashRing takes over the ownership for points and assume no
+   *       changes to the list from outside.
+   *
+   */
+  public ConsistentHashRing(List<Point<T>> points, boolean sorted)
   {
     _md = null;   // not used
     _points = points;
@@ -72,8 +86,11 @@ public class ConsistentHashRing<T> implements Ring<T>
       throw new RuntimeException("Building consistent hash ring without points");
     }
 
-    // Sort the points
-    Collections.sort(points);
+    if (!sorted)
+    {
+      // Sort the points
+      Collections.sort(points);
+    }
 
     debug(_log, "Initializing consistent hash ring with {} items: ", points.size());
   }
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.Function;
 import javax.annotation.Nonnull;
 import net.openhft.hashing.LongHashFunction;
 import org.slf4j.Logger;
@@ -80,6 +81,18 @@ public class MPConsistentHashRing<T> implements Ring<T>
    *                  the hash ring is.
    */
   public MPConsistentHashRing(Map<T, Integer> pointsMap, int numProbes, int pointsPerHost)
+  {
+    this(pointsMap, numProbes, host -> hashBuckets(host, pointsPerHost));
+  }
+
+  /**
+   * Creates a multi-probe consistent hash ring with given points map, number of probes and bucket hashes, so that
+   * the hashes of the hosts can be kept from one ring to the next.
+   *
+   * @param bucketHashes Returns the hashes of the buckets of a host, as computed by {@link #hashBuckets(Object, int)}.
+   *                     It is only called for hosts with points.
+   */
+  public MPConsistentHashRing(Map<T, Integer> pointsMap, int numProbes, Function<T, long[]> bucketHashes)
   {
     _buckets = new ArrayList<>(pointsMap.size());
     _hosts = new ArrayList<>(pointsMap.size());
@@ -88,16 +101,10 @@ public class MPConsistentHashRing<T> implements Ring<T>
       // ignore items whose point is equal to zero
       if (entry.getValue() > 0)
       {
-        byte[] bytesToHash = entry.getKey().toString().getBytes(UTF8);
-        long hash = HASH_FUNCTION_0.hashBytes(bytesToHash) & MASK;
-        _buckets.add(new Bucket(entry.getKey(), hash, entry.getValue()));
         _hosts.add(entry.getKey());
-
-        long hashOfHash = hash;
-        int duplicate = pointsPerHost - 1;
-        while (duplicate-- > 0) {
-          hashOfHash = HASH_FUNCTION_0.hashLong(hashOfHash) & MASK;
-          _buckets.add(new Bucket(entry.getKey(), hashOfHash, entry.getValue()));
+        for (long hash : bucketHashes.apply(entry.getKey()))
+        {
+          _buckets.add(new Bucket(entry.getKey(), hash, entry.getValue()));
         }
       }
     }
@@ -109,6 +116,21 @@ public class MPConsistentHashRing<T> implements Ring<T>
     }
   }
 
+  /**
+   * @return the hashes of the buckets of the host in the ring, one per point of the host.
+   */
+  public static long[] hashBuckets(Object host, int pointsPerHost)
+  {
+    long[] hashes = new long[Math.max(pointsPerHost, 1)];
+    byte[] bytesToHash = host.toString().getBytes(UTF8);
+    hashes[0] = HASH_FUNCTION_0.hashBytes(bytesToHash) & MASK;
+    for (int i = 1; i < hashes.length; i++)
+    {
+      hashes[i] = HASH_FUNCTION_0.hashLong(hashes[i - 1]) & MASK;
+    }
+    return hashes;
+  }
+
   @Override
   public T get(int key)
   {
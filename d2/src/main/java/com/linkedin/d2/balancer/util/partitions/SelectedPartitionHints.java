@@ -0,0 +1,54 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.util.partitions;
+
+import com.linkedin.r2.message.RequestContext;
+
+
+/**
+ * Hint in the {@link RequestContext} of a request holding the partition D2 routed it to, for the clients that keep
+ * statistics per partition.
+ * Warning: This is an internal D2 hint. Please do not use it outside.
+ */
+public final class SelectedPartitionHints
+{
+  private static final String SELECTED_PARTITION_KEY_NAME = "D2-Hint-SelectedPartition";
+
+  private SelectedPartitionHints()
+  {
+  }
+
+  /**
+   * Inserts a hint in RequestContext recording the partition the request is routed to.
+   * @param context RequestContext for the request being routed
+   * @param partitionId partition the request is routed to
+   */
+  public static void setRequestContextSelectedPartition(RequestContext context, int partitionId)
+  {
+    context.putLocalAttr(SELECTED_PARTITION_KEY_NAME, partitionId);
+  }
+
+  /**
+   * Retrieve the partition the request was routed to, or null if the request has not been routed to a partition yet.
+   * @param context RequestContext for the request
+   * @return partition the request was routed to, or null
+   */
+  public static Integer getRequestContextSelectedPartition(RequestContext context)
+  {
+    return (Integer) context.getLocalAttr(SELECTED_PARTITION_KEY_NAME);
+  }
+}
@@ -16,6 +16,7 @@
 package com.linkedin.d2.backuprequests;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import java.util.concurrent.TimeUnit;
@@ -88,6 +89,28 @@ public class TestBoundedCostBackupRequestsStrategy
         + withBackup99 / 1000000 + "ms, without backup: " + withoutBackup99 / 1000000 + "ms");
   }
 
+  @Test
+  public void testPartitionBudgets()
+  {
+    BoundedCostBackupRequestsStrategy strategy = new BoundedCostBackupRequestsStrategy(10, 1, 1024, 128, 0);
+
+    for (int i = 0; i < 20; i++)
+    {
+      strategy.recordPartition(0);
+      strategy.recordPartition(1);
+    }
+
+    // using up the budget of one partition does not affect the other
+    assertTrue(strategy.isBackupRequestAllowed(0));
+    assertFalse(strategy.isBackupRequestAllowed(0));
+    assertTrue(strategy.isBackupRequestAllowed(1));
+    assertFalse(strategy.isBackupRequestAllowed(1));
+
+    // partitions that were never recorded share the global budget
+    assertTrue(strategy.isBackupRequestAllowed(2));
+    assertFalse(strategy.isBackupRequestAllowed());
+  }
+
   @Test(expectedExceptions = { IllegalArgumentException.class })
   public void testZeroPercent()
   {
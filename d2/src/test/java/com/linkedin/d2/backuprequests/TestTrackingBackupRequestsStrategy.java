@@ -112,6 +112,7 @@ public class TestTrackingBackupRequestsStrategy
     assertEquals(stats.getMinDelayNano(), constantDelay);
     assertEquals(stats.getMaxDelayNano(), constantDelay);
     assertEquals(stats.getAvgDelayNano(), constantDelay);
+    assertEquals(stats.getRequests(), 100);
     stats = trackingStrategy.getDiffStats();
     assertNotNull(stats);
     assertEquals(stats.getAllowed(), 0);
@@ -119,6 +120,7 @@ public class TestTrackingBackupRequestsStrategy
     assertEquals(stats.getMinDelayNano(), 0);
     assertEquals(stats.getMaxDelayNano(), 0);
     assertEquals(stats.getAvgDelayNano(), 0);
+    assertEquals(stats.getRequests(), 0);
 
     for (int i = 0; i < 100; i++)
     {
@@ -209,6 +211,9 @@ public class TestTrackingBackupRequestsStrategy
     BackupRequestsStrategyStats stats = trackingStrategy.getStats();
     assertEquals(totalAllowed, stats.getAllowed());
     assertEquals(totalSuccessful, stats.getSuccessful());
+    assertEquals(stats.getRequests(), 100L * 100000);
+    assertEquals(stats.getCostPercent(), totalAllowed * 100d / stats.getRequests());
+    assertEquals(stats.getSuccessfulPercent(), totalSuccessful * 100d / totalAllowed);
     assertEquals(stats.getMinDelayNano(), totalMin);
     assertEquals(stats.getMaxDelayNano(), totalMax);
     assertEquals((double) stats.getAvgDelayNano(), (double) Distribution.AVG, 1000000d);
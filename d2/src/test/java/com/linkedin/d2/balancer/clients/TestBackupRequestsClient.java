@@ -18,6 +18,7 @@ package com.linkedin.d2.balancer.clients;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.common.util.None;
 import com.linkedin.d2.BackupRequestsConfiguration;
 import com.linkedin.d2.BoundedCostBackupRequests;
@@ -40,7 +41,9 @@ import com.linkedin.d2.balancer.LoadBalancer;
 import com.linkedin.d2.balancer.properties.PartitionData;
 import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.simple.SimpleLoadBalancer;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy.ExcludedHostHints;
 import com.linkedin.d2.balancer.util.JacksonUtil;
+import com.linkedin.d2.balancer.util.partitions.SelectedPartitionHints;
 import com.linkedin.d2.discovery.event.PropertyEventThread.PropertyEventShutdownCallback;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.codec.JacksonDataCodec;
@@ -51,9 +54,17 @@ import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.StreamResponseBuilder;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.WriteHandle;
+import com.linkedin.r2.message.stream.entitystream.Writer;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.util.Cancellable;
 import com.linkedin.util.clock.SystemClock;
 
 import java.io.IOException;
@@ -68,12 +79,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -85,6 +102,7 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertSame;
@@ -99,6 +117,9 @@ public class TestBackupRequestsClient
   private static final String PATH = "";
   private static final String STRATEGY_NAME = "degrader";
   private static final ByteString CONTENT = ByteString.copy(new byte[8092]);
+  private static final URI SERVICE_URI = URI.create("d2://testService");
+  private static final int PARTITION_ID = 3;
+  private static final long BACKUP_DELAY_NANO = TimeUnit.MILLISECONDS.toNanos(50);
 
   private ScheduledExecutorService _executor;
 
@@ -554,6 +575,116 @@ public class TestBackupRequestsClient
     assertEquals(events.size(), 0);
   }
 
+  @Test(dataProvider = "isD2Async")
+  public void testPartitionRecordedOnce(boolean isD2Async) throws Exception
+  {
+    HoldingLoadBalancer loadBalancer = new HoldingLoadBalancer();
+    List<Integer> recordedPartitions = new CopyOnWriteArrayList<>();
+    BackupRequestsClient client = createAlwaysBackupClient(loadBalancer, _executor, BACKUP_DELAY_NANO,
+        recordedPartitions, isD2Async);
+
+    Future<RestResponse> response = client.restRequest(new RestRequestBuilder(SERVICE_URI).build(),
+        createRequestContext());
+    TransportCallback<RestResponse> original = loadBalancer.takeRestCallback();
+    TransportCallback<RestResponse> backup = loadBalancer.takeRestCallback();
+    // The partition is recorded when the backup request is sent and is not recorded again when both complete
+    backup.onResponse(TransportResponseImpl.success(new RestResponseBuilder().build()));
+    original.onResponse(TransportResponseImpl.success(new RestResponseBuilder().build()));
+
+    assertEquals(response.get(5, TimeUnit.SECONDS).getStatus(), 200);
+    assertEquals(recordedPartitions, Collections.singletonList(PARTITION_ID));
+  }
+
+  @Test(dataProvider = "isD2Async")
+  public void testBackupRequestCancelledWhenOriginalCompletes(boolean isD2Async) throws Exception
+  {
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+    executor.setRemoveOnCancelPolicy(true);
+    try
+    {
+      HoldingLoadBalancer loadBalancer = new HoldingLoadBalancer();
+      BackupRequestsClient client = createAlwaysBackupClient(loadBalancer, executor, TimeUnit.MINUTES.toNanos(1),
+          new CopyOnWriteArrayList<>(), isD2Async);
+
+      Future<RestResponse> response = client.restRequest(new RestRequestBuilder(SERVICE_URI).build(),
+          createRequestContext());
+      TransportCallback<RestResponse> original = loadBalancer.takeRestCallback();
+      assertEquals(executor.getQueue().size(), 1, "The backup request should be scheduled");
+      original.onResponse(TransportResponseImpl.success(new RestResponseBuilder().build()));
+
+      assertEquals(response.get(5, TimeUnit.SECONDS).getStatus(), 200);
+      assertTrue(executor.getQueue().isEmpty(), "The backup request should be cancelled");
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(dataProvider = "isD2Async")
+  public void testLosingOriginalStreamResponseCancelled(boolean isD2Async) throws Exception
+  {
+    testLosingStreamResponseCancelled(isD2Async, false);
+  }
+
+  @Test(dataProvider = "isD2Async")
+  public void testLosingBackupStreamResponseCancelled(boolean isD2Async) throws Exception
+  {
+    testLosingStreamResponseCancelled(isD2Async, true);
+  }
+
+  private void testLosingStreamResponseCancelled(boolean isD2Async, boolean originalWins) throws Exception
+  {
+    HoldingLoadBalancer loadBalancer = new HoldingLoadBalancer();
+    BackupRequestsClient client = createAlwaysBackupClient(loadBalancer, _executor, BACKUP_DELAY_NANO,
+        new CopyOnWriteArrayList<>(), isD2Async);
+
+    FutureCallback<StreamResponse> response = new FutureCallback<>();
+    client.streamRequest(new StreamRequestBuilder(SERVICE_URI).build(EntityStreams.emptyStream()),
+        createRequestContext(), response);
+    TransportCallback<StreamResponse> original = loadBalancer.takeStreamCallback();
+    TransportCallback<StreamResponse> backup = loadBalancer.takeStreamCallback();
+    AbortRecordingWriter winnerWriter = new AbortRecordingWriter();
+    AbortRecordingWriter loserWriter = new AbortRecordingWriter();
+    (originalWins ? original : backup).onResponse(TransportResponseImpl.success(
+        new StreamResponseBuilder().build(EntityStreams.newEntityStream(winnerWriter))));
+    (originalWins ? backup : original).onResponse(TransportResponseImpl.success(
+        new StreamResponseBuilder().build(EntityStreams.newEntityStream(loserWriter))));
+
+    assertNotNull(response.get(5, TimeUnit.SECONDS));
+    assertTrue(loserWriter.awaitAbort(5, TimeUnit.SECONDS), "The losing response should be cancelled");
+    assertFalse(winnerWriter.isAborted(), "The winning response should be left to the caller");
+  }
+
+  @Test(dataProvider = "isD2Async")
+  public void testLosingOriginalRequestCancelled(boolean isD2Async) throws Exception
+  {
+    testLosingRequestCancelled(isD2Async, false);
+  }
+
+  @Test(dataProvider = "isD2Async")
+  public void testLosingBackupRequestCancelled(boolean isD2Async) throws Exception
+  {
+    testLosingRequestCancelled(isD2Async, true);
+  }
+
+  private void testLosingRequestCancelled(boolean isD2Async, boolean originalWins) throws Exception
+  {
+    HoldingLoadBalancer loadBalancer = new HoldingLoadBalancer();
+    BackupRequestsClient client = createAlwaysBackupClient(loadBalancer, _executor, BACKUP_DELAY_NANO,
+        new CopyOnWriteArrayList<>(), isD2Async);
+
+    Future<RestResponse> response = client.restRequest(new RestRequestBuilder(SERVICE_URI).build(),
+        createRequestContext());
+    TransportCallback<RestResponse> original = loadBalancer.takeRestCallback();
+    TransportCallback<RestResponse> backup = loadBalancer.takeRestCallback();
+    (originalWins ? original : backup).onResponse(TransportResponseImpl.success(new RestResponseBuilder().build()));
+
+    assertEquals(response.get(5, TimeUnit.SECONDS).getStatus(), 200);
+    // Requests are numbered in the order they are sent, the original request first
+    assertEquals(loadBalancer.getCancelledRequests(), Collections.singletonList(originalWins ? 1 : 0));
+  }
+
   @DataProvider(name = "isD2Async")
   public Object[][] isD2Async()
   {
@@ -603,6 +734,38 @@ public class TestBackupRequestsClient
     return new BackupRequestsClient(dynamicClient, loadBalancer, _executor, statsConsumer, 10, TimeUnit.SECONDS, isD2Async);
   }
 
+  private static RequestContext createRequestContext()
+  {
+    RequestContext requestContext = new RequestContext();
+    requestContext.putLocalAttr(R2Constants.OPERATION, "get");
+    return requestContext;
+  }
+
+  private BackupRequestsClient createAlwaysBackupClient(LoadBalancer loadBalancer,
+      ScheduledExecutorService executor, long backupDelayNano, List<Integer> recordedPartitions, boolean isD2Async)
+  {
+    DynamicClient dynamicClient = new DynamicClient(loadBalancer, null);
+    BackupRequestsStrategy alwaysBackup = new TestTrackingBackupRequestsStrategy.MockBackupRequestsStrategy(
+        () -> Optional.of(backupDelayNano),
+        () -> true)
+    {
+      @Override
+      public void recordPartition(int partitionId)
+      {
+        recordedPartitions.add(partitionId);
+      }
+    };
+    TrackingBackupRequestsStrategy strategy = new TrackingBackupRequestsStrategy(alwaysBackup);
+    return new BackupRequestsClient(dynamicClient, loadBalancer, executor, null, 10, TimeUnit.SECONDS, isD2Async)
+    {
+      @Override
+      Optional<TrackingBackupRequestsStrategy> getStrategyAfterUpdate(final String serviceName, final String operation)
+      {
+        return Optional.of(strategy);
+      }
+    };
+  }
+
   private BackupRequestsClient createAlwaysBackupClientWithHosts(List<String> uris, Deque<URI> hostsReceivingRequestList,
       int responseDelayNano, int backupDelayNano, boolean isD2Async)
       throws IOException
@@ -717,6 +880,128 @@ public class TestBackupRequestsClient
     }
   }
 
+  /**
+   * Routes every request to a new host in partition {@link #PARTITION_ID}, recording both in the request context as
+   * the load balancer does, and holds the responses until the test completes them. Requests can be cancelled as if
+   * they were already sent, which is only recorded.
+   */
+  private class HoldingLoadBalancer implements LoadBalancer
+  {
+    private final AtomicInteger _hosts = new AtomicInteger();
+    private final AtomicInteger _requests = new AtomicInteger();
+    private final List<Integer> _cancelledRequests = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<TransportCallback<RestResponse>> _restCallbacks = new LinkedBlockingQueue<>();
+    private final BlockingQueue<TransportCallback<StreamResponse>> _streamCallbacks = new LinkedBlockingQueue<>();
+    private final TransportClient _transportClient = new TransportClient()
+    {
+      @Override
+      public void restRequest(RestRequest request, RequestContext requestContext, Map<String, String> wireAttrs,
+          TransportCallback<RestResponse> callback)
+      {
+        recordCancellation(requestContext);
+        _restCallbacks.add(callback);
+      }
+
+      @Override
+      public void streamRequest(StreamRequest request, RequestContext requestContext, Map<String, String> wireAttrs,
+          TransportCallback<StreamResponse> callback)
+      {
+        recordCancellation(requestContext);
+        _streamCallbacks.add(callback);
+      }
+
+      @Override
+      public void shutdown(Callback<None> callback)
+      {
+      }
+    };
+
+    private void recordCancellation(RequestContext requestContext)
+    {
+      int request = _requests.getAndIncrement();
+      requestContext.putLocalAttr(R2Constants.REQUEST_CANCELLATION, (Cancellable) () ->
+      {
+        _cancelledRequests.add(request);
+        return false;
+      });
+    }
+
+    List<Integer> getCancelledRequests()
+    {
+      return _cancelledRequests;
+    }
+
+    TransportCallback<RestResponse> takeRestCallback() throws InterruptedException
+    {
+      TransportCallback<RestResponse> callback = _restCallbacks.poll(5, TimeUnit.SECONDS);
+      assertNotNull(callback, "Request not sent");
+      return callback;
+    }
+
+    TransportCallback<StreamResponse> takeStreamCallback() throws InterruptedException
+    {
+      TransportCallback<StreamResponse> callback = _streamCallbacks.poll(5, TimeUnit.SECONDS);
+      assertNotNull(callback, "Request not sent");
+      return callback;
+    }
+
+    @Override
+    public void getClient(Request request, RequestContext requestContext, Callback<TransportClient> clientCallback)
+    {
+      URI host = URI.create("http://host" + _hosts.incrementAndGet() + ".test.com:123");
+      ExcludedHostHints.addRequestContextExcludedHost(requestContext, host);
+      SelectedPartitionHints.setRequestContextSelectedPartition(requestContext, PARTITION_ID);
+      clientCallback.onSuccess(_transportClient);
+    }
+
+    @Override
+    public void start(Callback<None> callback)
+    {
+    }
+
+    @Override
+    public void shutdown(PropertyEventShutdownCallback shutdown)
+    {
+    }
+
+    @Override
+    public void getLoadBalancedServiceProperties(String serviceName, Callback<ServiceProperties> clientCallback)
+    {
+      clientCallback.onSuccess(createServiceProperties(null));
+    }
+  }
+
+  private static class AbortRecordingWriter implements Writer
+  {
+    private final CountDownLatch _aborted = new CountDownLatch(1);
+
+    @Override
+    public void onInit(WriteHandle wh)
+    {
+    }
+
+    @Override
+    public void onWritePossible()
+    {
+    }
+
+    @Override
+    public void onAbort(Throwable e)
+    {
+      _aborted.countDown();
+    }
+
+    boolean awaitAbort(long timeout, TimeUnit unit) throws InterruptedException
+    {
+      return _aborted.await(timeout, unit);
+    }
+
+    boolean isAborted()
+    {
+      return _aborted.getCount() == 0;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private final Map<String, Object> createBackupRequestsConfiguration(int cost, String operation)
       throws JsonParseException, JsonMappingException, IOException
@@ -16,6 +16,7 @@
 
 package com.linkedin.d2.balancer.simple;
 
+import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.Callbacks;
 import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.common.util.None;
@@ -49,6 +50,7 @@ import com.linkedin.d2.discovery.event.SynchronousExecutorService;
 import com.linkedin.d2.discovery.stores.mock.MockStore;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.stream.StreamRequestBuilder;
@@ -57,6 +59,7 @@ import com.linkedin.r2.message.stream.entitystream.EntityStreams;
 import com.linkedin.r2.transport.common.TransportClientFactory;
 import com.linkedin.r2.transport.common.bridge.client.TransportCallbackAdapter;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.http.client.HttpClientFactory;
 import com.linkedin.r2.transport.http.client.common.ssl.SslSessionNotTrustedException;
 import com.linkedin.r2.transport.http.client.common.ssl.SslSessionValidator;
@@ -1527,6 +1530,65 @@ public class SimpleLoadBalancerStateTest
     assertEquals(client.getUri(), uri);
   }
 
+  @Test(groups = { "small", "back-end" })
+  public void testWarmUpConnections() throws Exception
+  {
+    reset();
+
+    WarmUpRecordingClientFactory clientFactory = new WarmUpRecordingClientFactory();
+    SimpleLoadBalancerState state = new SimpleLoadBalancerState(_executorService, _uriRegistry, _clusterRegistry,
+        _serviceRegistry, Collections.singletonMap("http", clientFactory), _loadBalancerStrategyFactories);
+    List<Runnable> warmUpTasks = Collections.synchronizedList(new ArrayList<>());
+    state.setConnectionWarmUpExecutor(warmUpTasks::add);
+    FutureCallback<None> startCallback = new FutureCallback<>();
+    state.start(startCallback);
+    startCallback.get();
+
+    URI uri1 = URI.create("http://host-1/test");
+    URI uri2 = URI.create("http://host-2/test");
+    Map<Integer, PartitionData> partitionData =
+        Collections.singletonMap(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d));
+    Map<URI, Map<Integer, PartitionData>> uriData = new HashMap<>();
+    uriData.put(uri1, partitionData);
+
+    state.listenToCluster("cluster-1", new NullStateListenerCallback());
+    state.listenToService("service-1", new NullStateListenerCallback());
+    _serviceRegistry.put("service-1", new ServiceProperties("service-1", "cluster-1", "/test",
+        Arrays.asList("random"), Collections.<String, Object>emptyMap(),
+        Collections.singletonMap(PropertyKeys.HTTP_POOL_WARM_UP_SIZE, "3"), null, Arrays.asList("http"), null));
+
+    // newly announced hosts are warmed up, off the thread that updates the state
+    _uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData));
+    assertTrue(clientFactory._warmUps.isEmpty());
+    runTasks(warmUpTasks);
+    assertEquals(clientFactory._warmUps, Collections.singletonList(uri1 + " 3"));
+
+    uriData.put(uri2, partitionData);
+    _uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData));
+    runTasks(warmUpTasks);
+    assertEquals(clientFactory._warmUps, Arrays.asList(uri1 + " 3", uri2 + " 3"));
+
+    // warming up the service warms up all its hosts
+    clientFactory._warmUps.clear();
+    FutureCallback<None> warmUpCallback = new FutureCallback<>();
+    state.warmUpConnections("service-1", warmUpCallback);
+    assertFalse(warmUpCallback.isDone());
+    runTasks(warmUpTasks);
+    warmUpCallback.get();
+    assertEquals(new HashSet<>(clientFactory._warmUps), new HashSet<>(Arrays.asList(uri1 + " 3", uri2 + " 3")));
+  }
+
+  private static void runTasks(List<Runnable> tasks)
+  {
+    List<Runnable> copy;
+    synchronized (tasks)
+    {
+      copy = new ArrayList<>(tasks);
+      tasks.clear();
+    }
+    copy.forEach(Runnable::run);
+  }
+
   @Test(groups = { "small", "back-end" })
   public void testGetClientAfterServiceMetadataChange()
   {
@@ -1858,6 +1920,46 @@ public class SimpleLoadBalancerStateTest
     assertNull(client);
   }
 
+  /**
+   * Creates clients that record the hosts and connection counts they are asked to warm up.
+   */
+  private static class WarmUpRecordingClientFactory implements TransportClientFactory
+  {
+    private final List<String> _warmUps = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public TransportClient getClient(Map<String, ? extends Object> properties)
+    {
+      return new TransportClient()
+      {
+        @Override
+        public void restRequest(RestRequest request, RequestContext requestContext, Map<String, String> wireAttrs,
+            TransportCallback<RestResponse> callback)
+        {
+        }
+
+        @Override
+        public void warmUp(URI uri, int connections, Callback<None> callback)
+        {
+          _warmUps.add(uri + " " + connections);
+          callback.onSuccess(None.none());
+        }
+
+        @Override
+        public void shutdown(Callback<None> callback)
+        {
+          callback.onSuccess(None.none());
+        }
+      };
+    }
+
+    @Override
+    public void shutdown(Callback<None> callback)
+    {
+      callback.onSuccess(None.none());
+    }
+  }
+
   private static class TestShutdownCallback implements PropertyEventShutdownCallback
   {
     private final CountDownLatch _latch = new CountDownLatch(1);
@@ -27,6 +27,7 @@ import com.linkedin.d2.balancer.util.partitions.DefaultPartitionAccessor;
 
 import com.linkedin.util.degrader.DegraderImpl;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -38,6 +39,7 @@ import org.testng.annotations.Test;
 import static com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyConfig.*;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 
@@ -175,6 +177,53 @@ public class DelegatingRingFactoryTest
     }
   }
 
+  @Test(groups = { "small", "back-end" })
+  public void testIncrementalRingUpdates()
+  {
+    Map<String, Integer> pointsMp = buildPointsMap(20);
+    List<String> uris = new ArrayList<>(pointsMp.keySet());
+    Random random = new Random(1);
+
+    PointBasedConsistentHashRingFactory<String> ringFactory = new PointBasedConsistentHashRingFactory<>(new DegraderLoadBalancerStrategyConfig(1L));
+    Ring<String> ring = ringFactory.createRing(pointsMp);
+    // the ring is reused as long as the points do not change
+    assertSame(ringFactory.createRing(new HashMap<>(pointsMp)), ring);
+
+    for (int i = 0; i < 200; ++i) {
+      String uri = uris.get(random.nextInt(uris.size()));
+      if (random.nextInt(10) == 0) {
+        pointsMp.remove(uri);
+      } else {
+        pointsMp.put(uri, random.nextInt(200));
+      }
+      ring = ringFactory.createRing(pointsMp);
+
+      // the updated ring has the points of a ring built from scratch
+      Ring<String> expectedRing = new PointBasedConsistentHashRingFactory<String>(new DegraderLoadBalancerStrategyConfig(1L)).createRing(pointsMp);
+      assertEquals(((ConsistentHashRing<String>) ring).getPoints(), ((ConsistentHashRing<String>) expectedRing).getPoints());
+    }
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testMultiProbeRingUpdates()
+  {
+    Map<String, Integer> pointsMp = buildPointsMap(20);
+    List<String> uris = new ArrayList<>(pointsMp.keySet());
+
+    MPConsistentHashRingFactory<String> ringFactory = new MPConsistentHashRingFactory<>(DEFAULT_NUM_PROBES, 2);
+    Ring<String> ring = ringFactory.createRing(pointsMp);
+    assertSame(ringFactory.createRing(new HashMap<>(pointsMp)), ring);
+
+    pointsMp.put(uris.get(0), 50);
+    pointsMp.remove(uris.get(1));
+    pointsMp.put("http://test.linkedin.com:2000", 100);
+    ring = ringFactory.createRing(pointsMp);
+    Ring<String> expectedRing = new MPConsistentHashRing<>(pointsMp, DEFAULT_NUM_PROBES, 2);
+    for (int key = 0; key < 1000; ++key) {
+      assertEquals(ring.get(key), expectedRing.get(key));
+    }
+  }
+
   @Test(groups = { "small", "back-end" })
   public void testFactoryWithNoneHashConfig() {
     RingFactory<String> factory = new DelegatingRingFactory<>(configBuilder(null, null));
@@ -76,12 +76,14 @@ public class LoadBalancerStrategyTestRunner
   private Map<URI, Integer> _currentRequestCountMap;
   private Map<URI, Integer> _callCountMap;
   private Map<URI, Long> _latencySumMap;
+  private List<Long> _latencies;
   private Map<URI, List<Integer>> _pointHistoryMap = new HashMap<>();
 
   public LoadBalancerStrategyTestRunner(LoadBalancerStrategy strategy, String serviceName,
       List<URI> uris, Map<Integer, Map<URI, TrackerClient>> partitionTrackerClientsMap,
       int numIntervals, RequestCountManager requestsManager, ClockedExecutor clockedExecutor, Map<URI, Integer> currentErrorMap,
-      Map<URI, Integer> lastRequestCountMap, Map<URI, Integer> currentRequestCountMap, Map<URI, Integer> callCountMap, Map<URI, Long> latencySumMap)
+      Map<URI, Integer> lastRequestCountMap, Map<URI, Integer> currentRequestCountMap, Map<URI, Integer> callCountMap, Map<URI, Long> latencySumMap,
+      List<Long> latencies)
   {
     _strategy = strategy;
     _serviceName = serviceName;
@@ -96,6 +98,7 @@ public class LoadBalancerStrategyTestRunner
     _currentRequestCountMap = currentRequestCountMap;
     _callCountMap = callCountMap;
     _latencySumMap = latencySumMap;
+    _latencies = latencies;
   }
 
   /**
@@ -164,6 +167,20 @@ public class LoadBalancerStrategyTestRunner
     return latencySum / callCountTotal;
   }
 
+  /**
+   * Get a percentile of the latencies of all the calls during the test
+   *
+   * @param percentile The percentile, between 0 and 100
+   * @return the latency within which the given percentage of the calls completed
+   */
+  public long getLatencyPercentile(double percentile)
+  {
+    List<Long> latencies = new ArrayList<>(_latencies);
+    Collections.sort(latencies);
+    int index = (int) Math.ceil(percentile / 100 * latencies.size()) - 1;
+    return latencies.get(Math.max(index, 0));
+  }
+
   public void runWait()
   {
     runWait(Arrays.asList(DEFAULT_PARTITION_ID));
@@ -29,6 +29,7 @@ import com.linkedin.d2.balancer.properties.ServiceProperties;
 import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderConfigFactory;
 import com.linkedin.d2.balancer.strategies.degrader.DegraderLoadBalancerStrategyFactoryV3;
+import com.linkedin.d2.balancer.strategies.relative.P2CLoadBalancerStrategyFactory;
 import com.linkedin.d2.balancer.strategies.relative.RelativeLoadBalancerStrategyFactory;
 import com.linkedin.d2.loadBalancerStrategyType;
 import com.linkedin.r2.message.RequestContext;
@@ -91,6 +92,7 @@ public class LoadBalancerStrategyTestRunnerBuilder
   private Map<URI, Integer> _currentRequestCountMap = new HashMap<>();
   private Map<URI, Integer> _callCountMap = new HashMap<>();
   private Map<URI, Long> _latencySumMap = new HashMap<>();
+  private List<Long> _latencies = new ArrayList<>();
 
   public LoadBalancerStrategyTestRunnerBuilder(final loadBalancerStrategyType type, final String serviceName, final int numHosts)
   {
@@ -281,9 +283,13 @@ public class LoadBalancerStrategyTestRunnerBuilder
     {
       case DEGRADER:
         return buildDegraderStrategy();
+      case P2C:
+        return buildRelativeStrategy(new P2CLoadBalancerStrategyFactory(_clockedExecutor, null, new ArrayList<>(), null,
+            _clockedExecutor));
       case RELATIVE:
       default:
-        return buildRelativeStrategy();
+        return buildRelativeStrategy(new RelativeLoadBalancerStrategyFactory(_clockedExecutor, null, new ArrayList<>(),
+            null, _clockedExecutor));
     }
   }
 
@@ -297,7 +303,7 @@ public class LoadBalancerStrategyTestRunnerBuilder
 
     _transportClients = _uris.stream()
         .map(uri -> new MockTransportClient(_clockedExecutor, _latencyManager, _errorCountManager, uri, INTERVAL_IN_MILLIS,
-            _currentErrorCountMap, _lastRequestCountMap, _callCountMap, _latencySumMap))
+            _currentErrorCountMap, _lastRequestCountMap, _callCountMap, _latencySumMap, _latencies))
         .collect(Collectors.toList());
     Map<URI, TrackerClient> trackerClientMap = _transportClients.stream()
         .map(transportClient -> {
@@ -313,18 +319,17 @@ public class LoadBalancerStrategyTestRunnerBuilder
     return buildInternal(trackerClientMap);
   }
 
-  private LoadBalancerStrategyTestRunner buildRelativeStrategy()
+  private LoadBalancerStrategyTestRunner buildRelativeStrategy(RelativeLoadBalancerStrategyFactory strategyFactory)
   {
     if (_serviceProperties == null)
     {
       setRelativeLoadBalancerStrategies(new D2RelativeStrategyProperties());
     }
-    _strategy = new RelativeLoadBalancerStrategyFactory(_clockedExecutor, null, new ArrayList<>(), null, _clockedExecutor)
-        .newLoadBalancer(_serviceProperties);
+    _strategy = strategyFactory.newLoadBalancer(_serviceProperties);
 
     _transportClients = _uris.stream()
         .map(uri -> new MockTransportClient(_clockedExecutor, _latencyManager, _errorCountManager, uri, INTERVAL_IN_MILLIS,
-            _currentErrorCountMap, _lastRequestCountMap, _callCountMap, _latencySumMap))
+            _currentErrorCountMap, _lastRequestCountMap, _callCountMap, _latencySumMap, _latencies))
         .collect(Collectors.toList());
     Map<URI, TrackerClient> trackerClientMap = _transportClients.stream()
         .map(transportClient -> {
@@ -359,7 +364,7 @@ public class LoadBalancerStrategyTestRunnerBuilder
     }
     return new LoadBalancerStrategyTestRunner(_strategy, _serviceName, _uris, partitionTrackerClientsMap, _numIntervals,
         _requestCountManager, _clockedExecutor, _currentErrorCountMap, _lastRequestCountMap, _currentRequestCountMap,
-        _callCountMap, _latencySumMap);
+        _callCountMap, _latencySumMap, _latencies);
   }
 
   /**
@@ -377,11 +382,12 @@ public class LoadBalancerStrategyTestRunnerBuilder
     private Map<URI, Integer> _lastRequestCountMap;
     private Map<URI, Integer> _callCountMap;
     private Map<URI, Long> _latencySumMap;
+    private List<Long> _latencies;
 
     MockTransportClient(
         ClockedExecutor executor, LatencyManager latencyManager, ErrorCountManager errorCountManager, URI uri,
         long intervalMillis, Map<URI, Integer> currentErrorCountMap, Map<URI, Integer> lastRequestCountMap,
-        Map<URI, Integer> callCountMap, Map<URI, Long> latencySumMap)
+        Map<URI, Integer> callCountMap, Map<URI, Long> latencySumMap, List<Long> latencies)
     {
       _clockedExecutor = executor;
       _latencyManager = latencyManager;
@@ -393,6 +399,7 @@ public class LoadBalancerStrategyTestRunnerBuilder
       _lastRequestCountMap = lastRequestCountMap;
       _callCountMap = callCountMap;
       _latencySumMap = latencySumMap;
+      _latencies = latencies;
     }
 
     @Override
@@ -432,6 +439,7 @@ public class LoadBalancerStrategyTestRunnerBuilder
       _callCountMap.put(_uri, _callCountMap.get(_uri) + 1);
       _latencySumMap.putIfAbsent(_uri, 0L);
       _latencySumMap.put(_uri, _latencySumMap.get(_uri) + latency);
+      _latencies.add(latency);
 
     }
 
@@ -0,0 +1,186 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.balancer.strategies.relative;
+
+import com.linkedin.d2.balancer.KeyMapper;
+import com.linkedin.d2.balancer.clients.TrackerClient;
+import com.linkedin.d2.balancer.strategies.LoadBalancerStrategy;
+import com.linkedin.d2.balancer.util.hashing.HashFunction;
+import com.linkedin.d2.balancer.util.hashing.RandomHash;
+import com.linkedin.d2.balancer.util.hashing.Ring;
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.util.clock.SettableClock;
+import com.linkedin.util.degrader.CallCompletion;
+import com.linkedin.util.degrader.CallTracker;
+import com.linkedin.util.degrader.CallTrackerImpl;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.mockito.Mockito;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.anyInt;
+import static org.testng.Assert.assertEquals;
+
+
+/**
+ * Test for {@link P2CClientSelector}
+ */
+public class P2CClientSelectorTest
+{
+  private static final URI URI_1 = URI.create("dummy_uri_1");
+  private static final URI URI_2 = URI.create("dummy_uri_2");
+  private static final int HASH_1 = 1;
+  private static final int HASH_2 = 2;
+
+  private SettableClock _clock;
+  private TrackerClient _trackerClient1;
+  private TrackerClient _trackerClient2;
+  private Map<URI, TrackerClient> _trackerClients;
+  private Ring<URI> _ring;
+  private Request _request;
+  private RequestContext _requestContext;
+
+  @BeforeMethod
+  @SuppressWarnings("unchecked")
+  private void setup()
+  {
+    _clock = new SettableClock();
+    _trackerClient1 = mockTrackerClient(URI_1);
+    _trackerClient2 = mockTrackerClient(URI_2);
+    _trackerClients = new HashMap<>();
+    _trackerClients.put(URI_1, _trackerClient1);
+    _trackerClients.put(URI_2, _trackerClient2);
+    _ring = Mockito.mock(Ring.class);
+    Mockito.when(_ring.get(HASH_1)).thenReturn(URI_1);
+    Mockito.when(_ring.get(HASH_2)).thenReturn(URI_2);
+    Mockito.when(_ring.getIterator(anyInt())).thenAnswer(invocation -> Arrays.asList(URI_1, URI_2).iterator());
+    _request = Mockito.mock(Request.class);
+    _requestContext = new RequestContext();
+  }
+
+  @Test
+  public void testPickFewerCallsInFlight()
+  {
+    _trackerClient1.getCallTracker().startCall();
+
+    assertEquals(getTrackerClient(HASH_1, HASH_2), _trackerClient2);
+    assertEquals(getTrackerClient(HASH_2, HASH_1), _trackerClient2);
+  }
+
+  @Test
+  public void testPickLowerLatency()
+  {
+    trackCall(_trackerClient1, 100);
+    trackCall(_trackerClient2, 10);
+
+    assertEquals(getTrackerClient(HASH_1, HASH_2), _trackerClient2);
+
+    // Two calls in flight at 10ms are still cheaper than one call at 100ms
+    _trackerClient2.getCallTracker().startCall();
+    _trackerClient2.getCallTracker().startCall();
+    assertEquals(getTrackerClient(HASH_1, HASH_2), _trackerClient2);
+  }
+
+  @Test
+  public void testPickSameHostTwice()
+  {
+    _trackerClient1.getCallTracker().startCall();
+
+    assertEquals(getTrackerClient(HASH_1, HASH_1, HASH_2), _trackerClient2,
+        "The second pick should be drawn again when it lands on the first one");
+  }
+
+  @Test
+  public void testAlwaysPickSameHost()
+  {
+    _trackerClient1.getCallTracker().startCall();
+
+    assertEquals(getTrackerClient(HASH_1), _trackerClient2,
+        "The second pick should be found by walking the ring when every draw lands on the first one");
+  }
+
+  @Test
+  public void testOnePickExcluded()
+  {
+    _trackerClient1.getCallTracker().startCall();
+    LoadBalancerStrategy.ExcludedHostHints.addRequestContextExcludedHost(_requestContext, URI_2);
+
+    assertEquals(getTrackerClient(HASH_1, HASH_2), _trackerClient1);
+  }
+
+  @Test
+  public void testBothPicksExcluded()
+  {
+    LoadBalancerStrategy.ExcludedHostHints.addRequestContextExcludedHost(_requestContext, URI_1);
+
+    assertEquals(getTrackerClient(HASH_1), _trackerClient2,
+        "The host should be found by walking the ring when every draw is excluded");
+  }
+
+  @Test
+  public void testGetTargetHost()
+  {
+    _trackerClient1.getCallTracker().startCall();
+    KeyMapper.TargetHostHints.setRequestContextTargetHost(_requestContext, URI_1);
+
+    assertEquals(getTrackerClient(HASH_1, HASH_2), _trackerClient1);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testRequestHashMethodHonored()
+  {
+    _trackerClient1.getCallTracker().startCall();
+    HashFunction<Request> requestHashFunction = Mockito.mock(HashFunction.class);
+    Mockito.when(requestHashFunction.hash(_request)).thenReturn(HASH_1);
+    P2CClientSelector clientSelector = new P2CClientSelector(requestHashFunction, () -> HASH_2);
+
+    assertEquals(clientSelector.getTrackerClient(_request, _requestContext, _ring, _trackerClients), _trackerClient1,
+        "The host of the request hash should be picked regardless of the loads");
+  }
+
+  /**
+   * @param hashes the random hashes drawn, the last of which is repeated once the others are drawn.
+   */
+  private TrackerClient getTrackerClient(int... hashes)
+  {
+    int[] draws = new int[1];
+    P2CClientSelector clientSelector =
+        new P2CClientSelector(new RandomHash(), () -> hashes[Math.min(draws[0]++, hashes.length - 1)]);
+    return clientSelector.getTrackerClient(_request, _requestContext, _ring, _trackerClients);
+  }
+
+  private void trackCall(TrackerClient trackerClient, long latency)
+  {
+    CallCompletion callCompletion = trackerClient.getCallTracker().startCall();
+    _clock.addDuration(latency);
+    callCompletion.endCall();
+  }
+
+  private TrackerClient mockTrackerClient(URI uri)
+  {
+    TrackerClient trackerClient = Mockito.mock(TrackerClient.class);
+    CallTracker callTracker = new CallTrackerImpl(RelativeLoadBalancerStrategyFactory.DEFAULT_UPDATE_INTERVAL_MS, _clock);
+    Mockito.when(trackerClient.getCallTracker()).thenReturn(callTracker);
+    Mockito.when(trackerClient.getUri()).thenReturn(uri);
+    return trackerClient;
+  }
+}
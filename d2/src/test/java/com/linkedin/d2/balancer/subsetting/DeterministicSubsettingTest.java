@@ -0,0 +1,186 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package com.linkedin.d2.balancer.subsetting;
+
+import com.linkedin.d2.balancer.properties.PartitionData;
+import com.linkedin.d2.balancer.properties.PropertyKeys;
+import com.linkedin.d2.balancer.properties.ServiceProperties;
+import com.linkedin.d2.balancer.properties.UriProperties;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class DeterministicSubsettingTest
+{
+  private static final String SERVICE_NAME = "testService";
+  private static final String CLUSTER_NAME = "testCluster";
+  private static final int SUBSET_SIZE = 10;
+
+  @Test
+  public void testDisabled()
+  {
+    UriProperties uriProperties = createUriProperties(50, 0);
+    ServiceProperties serviceProperties = new ServiceProperties(SERVICE_NAME, CLUSTER_NAME, "/test",
+        Collections.singletonList("degrader"));
+    Assert.assertSame(new DeterministicSubsetting("client").getSubset(serviceProperties, uriProperties), uriProperties);
+  }
+
+  @Test
+  public void testSubsetIsStable()
+  {
+    UriProperties uriProperties = createUriProperties(50, 0);
+    UriProperties subset = new DeterministicSubsetting("client").getSubset(createServiceProperties(), uriProperties);
+    Assert.assertEquals(subset.Uris().size(), SUBSET_SIZE);
+    Assert.assertEquals(new DeterministicSubsetting("client").getSubset(createServiceProperties(), uriProperties),
+        subset);
+    Assert.assertNotEquals(new DeterministicSubsetting("other").getSubset(createServiceProperties(), uriProperties)
+        .Uris(), subset.Uris());
+
+    // Each host gets its share of the load of all the clients, 50 hosts over 10 in the subset
+    for (URI uri : subset.Uris())
+    {
+      Assert.assertEquals(subset.getPartitionDataMap(uri).get(0).getWeight(), 5d, 1e-9);
+    }
+  }
+
+  @Test
+  public void testDefaultClientIdIsUniquePerProcess()
+  {
+    // Processes on the same host must not all select the same subset
+    String runtimeName = ManagementFactory.getRuntimeMXBean().getName();
+    String processId = runtimeName.substring(0, runtimeName.indexOf('@'));
+    Assert.assertTrue(new DeterministicSubsetting().getClientId().endsWith('/' + processId));
+  }
+
+  @Test
+  public void testSmallClusterKeepsAllHosts()
+  {
+    UriProperties uriProperties = createUriProperties(SUBSET_SIZE, 0);
+    UriProperties subset = new DeterministicSubsetting("client").getSubset(createServiceProperties(), uriProperties);
+    Assert.assertEquals(subset.getPartitionDesc(), uriProperties.getPartitionDesc());
+  }
+
+  @Test
+  public void testHostsAreEvenlyDistributed()
+  {
+    UriProperties uriProperties = createUriProperties(50, 0);
+    Map<URI, Integer> clientsPerHost = new HashMap<>();
+    for (int i = 0; i < 1000; i++)
+    {
+      UriProperties subset = new DeterministicSubsetting("client" + i).getSubset(createServiceProperties(), uriProperties);
+      subset.Uris().forEach(uri -> clientsPerHost.merge(uri, 1, Integer::sum));
+    }
+
+    // 200 clients per host on average
+    Assert.assertEquals(clientsPerHost.size(), 50);
+    for (int clients : clientsPerHost.values())
+    {
+      Assert.assertTrue(clients > 120 && clients < 280, "Unbalanced host with " + clients + " clients");
+    }
+  }
+
+  @Test
+  public void testSubsetChangesSmoothly()
+  {
+    DeterministicSubsetting subsetting = new DeterministicSubsetting("client");
+    Map<URI, Map<Integer, PartitionData>> partitionDescriptions =
+        new HashMap<>(createUriProperties(50, 0).getPartitionDesc());
+    Set<URI> subset = getSubsetUris(subsetting, partitionDescriptions);
+
+    // A host of the subset leaves, and one host replaces it
+    URI removed = subset.iterator().next();
+    partitionDescriptions.remove(removed);
+    Set<URI> newSubset = getSubsetUris(subsetting, partitionDescriptions);
+    Set<URI> kept = new HashSet<>(subset);
+    kept.remove(removed);
+    Assert.assertEquals(newSubset.size(), SUBSET_SIZE);
+    Assert.assertTrue(newSubset.containsAll(kept));
+
+    // New hosts replace at most one host of the subset each
+    for (int i = 50; i < 60; i++)
+    {
+      subset = newSubset;
+      partitionDescriptions.put(URI.create("http://host" + i + ":1234"),
+          Collections.singletonMap(0, new PartitionData(1d)));
+      newSubset = getSubsetUris(subsetting, partitionDescriptions);
+      Set<URI> replaced = new HashSet<>(subset);
+      replaced.removeAll(newSubset);
+      Assert.assertTrue(replaced.size() <= 1);
+    }
+  }
+
+  @Test
+  public void testHostsAreSelectedPerPartition()
+  {
+    Map<URI, Map<Integer, PartitionData>> partitionDescriptions = new HashMap<>();
+    partitionDescriptions.putAll(createUriProperties(30, 0).getPartitionDesc());
+    for (int i = 0; i < 30; i++)
+    {
+      Map<Integer, PartitionData> partitionDataMap = new HashMap<>(partitionDescriptions.get(createUri(i)));
+      partitionDataMap.put(1, new PartitionData(1d));
+      partitionDescriptions.put(createUri(i), partitionDataMap);
+    }
+
+    UriProperties subset = new DeterministicSubsetting("client").getSubset(createServiceProperties(),
+        new UriProperties(CLUSTER_NAME, partitionDescriptions));
+    Assert.assertEquals(subset.getUriBySchemeAndPartition("http", 0).size(), SUBSET_SIZE);
+    Assert.assertEquals(subset.getUriBySchemeAndPartition("http", 1).size(), SUBSET_SIZE);
+    for (URI uri : subset.Uris())
+    {
+      for (int partitionId : subset.getPartitionDataMap(uri).keySet())
+      {
+        Assert.assertTrue(subset.getUriBySchemeAndPartition("http", partitionId).contains(uri));
+      }
+    }
+  }
+
+  private static Set<URI> getSubsetUris(DeterministicSubsetting subsetting,
+      Map<URI, Map<Integer, PartitionData>> partitionDescriptions)
+  {
+    return subsetting.getSubset(createServiceProperties(), new UriProperties(CLUSTER_NAME, partitionDescriptions))
+        .Uris();
+  }
+
+  private static ServiceProperties createServiceProperties()
+  {
+    return new ServiceProperties(SERVICE_NAME, CLUSTER_NAME, "/test", Collections.singletonList("degrader"),
+        Collections.singletonMap(PropertyKeys.HTTP_LB_SUBSET_SIZE, String.valueOf(SUBSET_SIZE)));
+  }
+
+  private static UriProperties createUriProperties(int hostCount, int partitionId)
+  {
+    Map<URI, Map<Integer, PartitionData>> partitionDescriptions = new HashMap<>();
+    for (int i = 0; i < hostCount; i++)
+    {
+      partitionDescriptions.put(createUri(i), Collections.singletonMap(partitionId, new PartitionData(1d)));
+    }
+    return new UriProperties(CLUSTER_NAME, partitionDescriptions);
+  }
+
+  private static URI createUri(int index)
+  {
+    return URI.create("http://host" + index + ":1234");
+  }
+}
@@ -0,0 +1,166 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.symbol.SymbolTable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures encode and decode throughput of every {@link DataCodec} against the shapes in {@link BenchmarkDataShape}.
+ * Run with the gc profiler (configured by default in this module) to also get the allocation rate per operation.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DataCodecBenchmark
+{
+  public enum CodecType
+  {
+    JSON
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new JacksonDataCodec();
+      }
+    },
+    SMILE
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new JacksonSmileDataCodec();
+      }
+    },
+    LICOR_TEXT
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new JacksonLICORDataCodec(false);
+      }
+    },
+    LICOR_BINARY_SYMBOL_TABLE
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new JacksonLICORDataCodec(true, symbolTable);
+      }
+    },
+    PSON
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new PsonDataCodec();
+      }
+    },
+    BSON
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new BsonDataCodec();
+      }
+    },
+    PROTOBUF
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new ProtobufDataCodec(new ProtobufCodecOptions.Builder().setEnableASCIIOnlyStrings(true).build());
+      }
+    },
+    PROTOBUF_SYMBOL_TABLE
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new ProtobufDataCodec(new ProtobufCodecOptions.Builder()
+            .setSymbolTable(symbolTable)
+            .setEnableASCIIOnlyStrings(true)
+            .build());
+      }
+    },
+    PROTOBUF_LAZY_MAPS
+    {
+      @Override
+      DataCodec create(SymbolTable symbolTable)
+      {
+        return new ProtobufDataCodec(new ProtobufCodecOptions.Builder()
+            .setSymbolTable(symbolTable)
+            .setEnableASCIIOnlyStrings(true)
+            .setEnableLazyMapDecoding(true)
+            .build());
+      }
+    };
+
+    abstract DataCodec create(SymbolTable symbolTable);
+  }
+
+  @State(Scope.Benchmark)
+  public static class CodecState
+  {
+    @Param
+    CodecType _codecType;
+
+    @Param
+    BenchmarkDataShape _shape;
+
+    DataCodec _codec;
+    DataMap _map;
+    byte[] _bytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+      _map = _shape.create();
+      _codec = _codecType.create(BenchmarkDataShape.buildSymbolTable(_map));
+      _bytes = _codec.mapToBytes(_map);
+    }
+  }
+
+  @Benchmark
+  public byte[] encode(CodecState state) throws IOException
+  {
+    return state._codec.mapToBytes(state._map);
+  }
+
+  @Benchmark
+  public DataMap decode(CodecState state) throws IOException
+  {
+    return state._codec.bytesToMap(state._bytes);
+  }
+}
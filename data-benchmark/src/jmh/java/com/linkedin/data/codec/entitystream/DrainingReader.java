@@ -0,0 +1,83 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.entitystream.ReadHandle;
+import com.linkedin.entitystream.Reader;
+import java.io.ByteArrayOutputStream;
+
+
+/**
+ * A {@link Reader} that pulls all the data synchronously, optionally copying it into an output stream.
+ */
+public class DrainingReader implements Reader<ByteString>
+{
+  private final ByteArrayOutputStream _out;
+  private ReadHandle _readHandle;
+  private long _length;
+  private Throwable _error;
+
+  public DrainingReader(ByteArrayOutputStream out)
+  {
+    _out = out;
+  }
+
+  /**
+   * @return the number of bytes read.
+   */
+  public long getLength()
+  {
+    return _length;
+  }
+
+  /**
+   * @return the error the stream failed with, or null.
+   */
+  public Throwable getError()
+  {
+    return _error;
+  }
+
+  @Override
+  public void onInit(ReadHandle rh)
+  {
+    _readHandle = rh;
+    _readHandle.request(Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void onDataAvailable(ByteString data)
+  {
+    _length += data.length();
+    if (_out != null)
+    {
+      _out.write(data.copyBytes(), 0, data.length());
+    }
+  }
+
+  @Override
+  public void onDone()
+  {
+  }
+
+  @Override
+  public void onError(Throwable e)
+  {
+    _error = e;
+  }
+}
@@ -0,0 +1,158 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.ChunkedByteStringWriter;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BenchmarkDataShape;
+import com.linkedin.data.codec.ProtobufCodecOptions;
+import com.linkedin.data.codec.symbol.SymbolTable;
+import com.linkedin.entitystream.EntityStreams;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures encode and decode throughput of every {@link StreamDataCodec} against the shapes in
+ * {@link BenchmarkDataShape}. Encoded streams are drained synchronously, so the numbers reflect codec cost rather
+ * than any transport.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StreamDataCodecBenchmark
+{
+  private static final int BUFFER_SIZE = 4096;
+
+  public enum StreamCodecType
+  {
+    JSON
+    {
+      @Override
+      StreamDataCodec create(SymbolTable symbolTable)
+      {
+        return new JacksonStreamDataCodec(BUFFER_SIZE);
+      }
+    },
+    SMILE
+    {
+      @Override
+      StreamDataCodec create(SymbolTable symbolTable)
+      {
+        return new JacksonSmileStreamDataCodec(BUFFER_SIZE);
+      }
+    },
+    LICOR_TEXT
+    {
+      @Override
+      StreamDataCodec create(SymbolTable symbolTable)
+      {
+        return new JacksonLICORStreamDataCodec(BUFFER_SIZE, false);
+      }
+    },
+    LICOR_BINARY_SYMBOL_TABLE
+    {
+      @Override
+      StreamDataCodec create(SymbolTable symbolTable)
+      {
+        return new JacksonLICORStreamDataCodec(BUFFER_SIZE, true, symbolTable);
+      }
+    },
+    PROTOBUF
+    {
+      @Override
+      StreamDataCodec create(SymbolTable symbolTable)
+      {
+        return new ProtobufStreamDataCodec(BUFFER_SIZE);
+      }
+    },
+    PROTOBUF_SYMBOL_TABLE
+    {
+      @Override
+      StreamDataCodec create(SymbolTable symbolTable)
+      {
+        return new ProtobufStreamDataCodec(BUFFER_SIZE, new ProtobufCodecOptions.Builder()
+            .setSymbolTable(symbolTable)
+            .setEnableASCIIOnlyStrings(true)
+            .build());
+      }
+    };
+
+    abstract StreamDataCodec create(SymbolTable symbolTable);
+  }
+
+  @State(Scope.Benchmark)
+  public static class StreamCodecState
+  {
+    @Param
+    StreamCodecType _codecType;
+
+    @Param
+    BenchmarkDataShape _shape;
+
+    StreamDataCodec _codec;
+    DataMap _map;
+    byte[] _bytes;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+      _map = _shape.create();
+      _codec = _codecType.create(BenchmarkDataShape.buildSymbolTable(_map));
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      DrainingReader reader = new DrainingReader(out);
+      _codec.encodeMap(_map).setReader(reader);
+      if (reader.getError() != null)
+      {
+        throw new IllegalStateException("Failed to encode " + _shape + " with " + _codecType, reader.getError());
+      }
+      _bytes = out.toByteArray();
+    }
+  }
+
+  @Benchmark
+  public long encode(StreamCodecState state)
+  {
+    DrainingReader reader = new DrainingReader(null);
+    state._codec.encodeMap(state._map).setReader(reader);
+    return reader.getLength();
+  }
+
+  @Benchmark
+  public DataMap decode(StreamCodecState state) throws Exception
+  {
+    return state._codec.decodeMap(EntityStreams.newEntityStream(new ChunkedByteStringWriter(state._bytes, BUFFER_SIZE)))
+        .toCompletableFuture()
+        .get();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BenchmarkDataShape;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.codec.entitystream.DrainingReader;
+import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
+import com.linkedin.data.codec.entitystream.StreamDataCodec;
+import com.linkedin.data.transform.DataComplexProcessor;
+import com.linkedin.data.transform.DataProcessingException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the projection engines on the {@link BenchmarkDataShape#COLLECTION} shape: the in-place {@link Filter} run
+ * by the {@link DataComplexProcessor} interpreter, the {@link CopyFilter} used by rest.li servers, and
+ * {@link CompiledProjector}. The compiled projector is compiled in every invocation, as it is once per response.
+ * The encode benchmarks compare encoding a projected copy with projecting while encoding.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProjectionBenchmark
+{
+  public enum MaskShape
+  {
+    /**
+     * A few fields of every element, like a typical client projection.
+     */
+    SPARSE("{\"elements\": {\"$*\": {\"field0\": 1, \"field4\": 1, \"nested\": {\"field1\": 1}}}, \"paging\": 1}"),
+
+    /**
+     * Most fields of every element.
+     */
+    DENSE("{\"elements\": {\"$*\": {\"field0\": 1, \"field1\": 1, \"field2\": 1, \"field3\": 1, \"field4\": 1, "
+        + "\"field5\": 1, \"field6\": 1, \"field7\": 1, \"field8\": 1, \"field9\": 1, \"field10\": 1, \"field11\": 1, "
+        + "\"field12\": 1, \"field13\": 1, \"field14\": 1, \"field15\": 1, \"field16\": 1, \"field17\": 1, "
+        + "\"field18\": 1, \"field19\": 1, \"tags\": 1, \"nested\": 1}}, \"paging\": 1}"),
+
+    /**
+     * A page of the elements with a nested array projection.
+     */
+    RANGE("{\"elements\": {\"$*\": {\"field0\": 1, \"tags\": {\"$start\": 0, \"$count\": 2}}, "
+        + "\"$start\": 10, \"$count\": 20}}");
+
+    private final String _json;
+
+    MaskShape(String json)
+    {
+      _json = json;
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class ProjectionState
+  {
+    @Param
+    MaskShape _maskShape;
+
+    DataMap _data;
+    DataMap _mask;
+    StreamDataCodec _codec = new JacksonStreamDataCodec(4096);
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+      _data = BenchmarkDataShape.COLLECTION.create();
+      _mask = new JacksonDataCodec().stringToMap(_maskShape._json);
+      _mask.makeReadOnly();
+    }
+  }
+
+  @Benchmark
+  public DataMap filter(ProjectionState state) throws CloneNotSupportedException, DataProcessingException
+  {
+    // Filter projects in place, so it has to work on a copy to leave the input intact like the other engines.
+    final DataMap data = state._data.copy();
+    new DataComplexProcessor(new Filter(), state._mask, data).run(false);
+    return data;
+  }
+
+  @Benchmark
+  public DataMap copyFilter(ProjectionState state)
+  {
+    return (DataMap) new CopyFilter(Collections.emptySet()).filter(state._data, state._mask);
+  }
+
+  @Benchmark
+  public DataMap compiledProjector(ProjectionState state)
+  {
+    return CompiledProjector.compile(state._mask).project(state._data, Collections.emptySet());
+  }
+
+  @Benchmark
+  public long encodeProjectedCopy(ProjectionState state)
+  {
+    final DataMap projected = CompiledProjector.compile(state._mask).project(state._data, Collections.emptySet());
+    final DrainingReader reader = new DrainingReader(null);
+    state._codec.encodeMap(projected).setReader(reader);
+    return reader.getLength();
+  }
+
+  @Benchmark
+  public long encodeWhileProjecting(ProjectionState state)
+  {
+    final DrainingReader reader = new DrainingReader(null);
+    state._codec.encodeMap(state._data,
+        CompiledProjector.compile(state._mask).toEncodingProjection(Collections.emptySet())).setReader(reader);
+    return reader.getLength();
+  }
+}
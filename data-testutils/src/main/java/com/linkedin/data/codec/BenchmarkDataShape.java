@@ -0,0 +1,247 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.symbol.InMemorySymbolTable;
+import com.linkedin.data.codec.symbol.SymbolTable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+
+/**
+ * Representative {@link DataMap} shapes used by the codec, projection and compression benchmarks. All shapes are
+ * generated from a fixed seed so that runs are comparable across builds.
+ */
+public enum BenchmarkDataShape
+{
+  /**
+   * A single record with many fields of mixed primitive types, like a large denormalized entity.
+   */
+  WIDE_RECORD
+  {
+    @Override
+    DataMap create(Random random)
+    {
+      return wideRecord(random, 512);
+    }
+  },
+
+  /**
+   * A chain of nested records, stressing the per-level overhead of the encoders and decoders.
+   */
+  DEEP_NESTING
+  {
+    @Override
+    DataMap create(Random random)
+    {
+      DataMap root = new DataMap();
+      DataMap current = root;
+      for (int i = 0; i < 64; i++)
+      {
+        current.put("id", random.nextLong());
+        current.put("name", randomString(random, 16));
+        DataMap child = new DataMap();
+        current.put("child", child);
+        current = child;
+      }
+      current.put("leaf", true);
+      return root;
+    }
+  },
+
+  /**
+   * Large arrays of numeric primitives, like the feature vectors and embeddings of ML payloads.
+   */
+  PRIMITIVE_ARRAYS
+  {
+    @Override
+    DataMap create(Random random)
+    {
+      DataList ints = new DataList(100_000);
+      DataList longs = new DataList(10_000);
+      DataList doubles = new DataList(100_000);
+      for (int i = 0; i < 100_000; i++)
+      {
+        ints.add(random.nextInt());
+        doubles.add(random.nextDouble());
+      }
+      for (int i = 0; i < 10_000; i++)
+      {
+        longs.add(random.nextLong());
+      }
+      DataMap map = new DataMap();
+      map.put("ints", ints);
+      map.put("longs", longs);
+      map.put("doubles", doubles);
+      return map;
+    }
+  },
+
+  /**
+   * A record dominated by raw byte fields, like thumbnails or serialized blobs.
+   */
+  BYTES_HEAVY
+  {
+    @Override
+    DataMap create(Random random)
+    {
+      DataMap map = new DataMap();
+      DataList blobs = new DataList();
+      for (int i = 0; i < 16; i++)
+      {
+        byte[] bytes = new byte[64 * 1024];
+        random.nextBytes(bytes);
+        blobs.add(ByteString.unsafeWrap(bytes));
+      }
+      map.put("blobs", blobs);
+      map.put("contentType", "application/octet-stream");
+      return map;
+    }
+  },
+
+  /**
+   * A typical collection response: a list of moderately sized records plus paging metadata.
+   */
+  COLLECTION
+  {
+    @Override
+    DataMap create(Random random)
+    {
+      DataList elements = new DataList(100);
+      for (int i = 0; i < 100; i++)
+      {
+        DataMap element = wideRecord(random, 24);
+        element.put("tags", randomStrings(random, 8));
+        DataMap nested = wideRecord(random, 8);
+        element.put("nested", nested);
+        elements.add(element);
+      }
+      DataMap paging = new DataMap();
+      paging.put("start", 0);
+      paging.put("count", 100);
+      paging.put("total", 12345);
+      DataMap map = new DataMap();
+      map.put("elements", elements);
+      map.put("paging", paging);
+      return map;
+    }
+  };
+
+  private static final long SEED = 0xC0DECL;
+
+  abstract DataMap create(Random random);
+
+  /**
+   * @return a new instance of this shape, generated from a fixed seed.
+   */
+  public DataMap create()
+  {
+    return create(new Random(SEED));
+  }
+
+  /**
+   * Builds a {@link SymbolTable} containing every map key in the given data, which is what a service would
+   * typically distribute for its own schemas.
+   */
+  public static SymbolTable buildSymbolTable(DataMap map)
+  {
+    Set<String> symbols = new HashSet<>();
+    collectSymbols(symbols, map);
+    return new InMemorySymbolTable("BENCHMARK", new ArrayList<>(symbols));
+  }
+
+  private static DataMap wideRecord(Random random, int numFields)
+  {
+    DataMap map = new DataMap();
+    for (int i = 0; i < numFields; i++)
+    {
+      String key = "field" + i;
+      switch (i % 6)
+      {
+        case 0:
+          map.put(key, random.nextInt());
+          break;
+        case 1:
+          map.put(key, random.nextLong());
+          break;
+        case 2:
+          map.put(key, random.nextDouble());
+          break;
+        case 3:
+          map.put(key, random.nextBoolean());
+          break;
+        case 4:
+          map.put(key, randomString(random, 32));
+          break;
+        default:
+          map.put(key, "ENUM_SYMBOL_" + (i % 4));
+          break;
+      }
+    }
+    return map;
+  }
+
+  private static DataList randomStrings(Random random, int count)
+  {
+    DataList list = new DataList(count);
+    for (int i = 0; i < count; i++)
+    {
+      list.add(randomString(random, 12));
+    }
+    return list;
+  }
+
+  private static String randomString(Random random, int length)
+  {
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++)
+    {
+      sb.append((char) ('a' + random.nextInt(26)));
+    }
+    return sb.toString();
+  }
+
+  private static void collectSymbols(Set<String> symbols, DataMap map)
+  {
+    for (Map.Entry<String, Object> entry : map.entrySet())
+    {
+      symbols.add(entry.getKey());
+      collectSymbols(symbols, entry.getValue());
+    }
+  }
+
+  private static void collectSymbols(Set<String> symbols, Object value)
+  {
+    if (value instanceof DataMap)
+    {
+      collectSymbols(symbols, (DataMap) value);
+    }
+    else if (value instanceof DataList)
+    {
+      for (Object element : (DataList) value)
+      {
+        collectSymbols(symbols, element);
+      }
+    }
+  }
+}
@@ -0,0 +1,416 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.entitystream.EncodingProjection;
+import com.linkedin.data.collections.CheckedUtil;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Projector that compiles a positive projection mask into a tree of nodes once, and then copies the selected
+ * fields from data objects by walking that tree directly. Unlike {@link CopyFilter}, projecting a {@link DataMap}
+ * only looks up the fields named by the mask instead of evaluating the mask against every field in the data, and no
+ * intermediate operation maps or composed masks are allocated.
+ *
+ * <p>Only the subset of masks that projections commonly produce can be compiled: every field is selected with a
+ * positive mask or a nested mask, arrays are projected with a complex wildcard and optional
+ * {@link FilterConstants#START}/{@link FilterConstants#COUNT} range, and a node does not mix named fields with a
+ * wildcard. For that subset the result is the same as the one produced by {@link CopyFilter}. {@link #compile(DataMap)}
+ * returns null for every other mask, in which case the caller should fall back to {@link CopyFilter}.</p>
+ *
+ * <p>Instances are immutable and may be shared across threads.</p>
+ */
+public final class CompiledProjector
+{
+  private static final DataList EMPTY_DATALIST = new DataList();
+  static
+  {
+    EMPTY_DATALIST.makeReadOnly();
+  }
+
+  private final Node _root;
+
+  private CompiledProjector(Node root)
+  {
+    _root = root;
+  }
+
+  /**
+   * Compile the given mask.
+   *
+   * @param mask the filter data, e.g. {@link com.linkedin.data.transform.filter.request.MaskTree#getDataMap()}.
+   * @return the compiled projector, or null if the mask is not supported and {@link CopyFilter} should be used instead.
+   */
+  public static CompiledProjector compile(DataMap mask)
+  {
+    final Node root = compileNode(mask);
+    return root == null ? null : new CompiledProjector(root);
+  }
+
+  /**
+   * Project the given data.
+   *
+   * @param data the data to project.
+   * @param alwaysIncludedFields fields to include in the projected data regardless of the mask, may be null.
+   * @return a new {@link DataMap} that contains the selected fields. Selected values are shared with the input data
+   *         as they are in the result of {@link CopyFilter}.
+   */
+  public DataMap project(DataMap data, Set<String> alwaysIncludedFields)
+  {
+    if (data == null)
+    {
+      throw new RuntimeException("Either data or operation is null");
+    }
+    return projectMap(data, _root, alwaysIncludedFields == null ? Collections.emptySet() : alwaysIncludedFields);
+  }
+
+  /**
+   * Create a projection that applies this projector while a {@link DataMap} is encoded, e.g. by
+   * {@link com.linkedin.data.codec.entitystream.StreamDataCodec#encodeMap(DataMap, EncodingProjection)}. The encoded
+   * output is the same as the encoding of the result of {@link #project(DataMap, Set)}, but no projected copy is built.
+   *
+   * @param alwaysIncludedFields fields to include in the projected data regardless of the mask, may be null.
+   * @return the projection for the root map. It is meant to be used by a single encoder.
+   */
+  public EncodingProjection toEncodingProjection(Set<String> alwaysIncludedFields)
+  {
+    return new NodeProjection(_root, alwaysIncludedFields == null ? Collections.emptySet() : alwaysIncludedFields);
+  }
+
+  private static Node compileNode(DataMap mask)
+  {
+    if (mask.isEmpty())
+    {
+      // An empty mask keeps all fields by default, which the compiled nodes do not model.
+      return null;
+    }
+
+    final List<String> fieldNames = new ArrayList<>(mask.size());
+    final List<Node> fieldNodes = new ArrayList<>(mask.size());
+    Node wildcard = null;
+    int start = 0;
+    int count = Integer.MAX_VALUE;
+
+    for (Map.Entry<String, Object> entry : mask.entrySet())
+    {
+      final String key = entry.getKey();
+      final Object value = entry.getValue();
+
+      if (key.equals(FilterConstants.WILDCARD))
+      {
+        if (value.getClass() != DataMap.class || (wildcard = compileNode((DataMap) value)) == null)
+        {
+          return null;
+        }
+      }
+      else if (key.equals(FilterConstants.START) || key.equals(FilterConstants.COUNT))
+      {
+        if (!(value instanceof Integer) || (Integer) value < 0)
+        {
+          return null;
+        }
+        if (key.equals(FilterConstants.START))
+        {
+          start = (Integer) value;
+        }
+        else
+        {
+          count = (Integer) value;
+        }
+      }
+      else if (key.indexOf('$') >= 0)
+      {
+        // Escaped field names and unknown directives are left to the interpreter.
+        return null;
+      }
+      else if (FilterConstants.POSITIVE.equals(value))
+      {
+        fieldNames.add(key);
+        fieldNodes.add(null);
+      }
+      else if (value.getClass() == DataMap.class)
+      {
+        final Node child = compileNode((DataMap) value);
+        if (child == null)
+        {
+          return null;
+        }
+        fieldNames.add(key);
+        fieldNodes.add(child);
+      }
+      else
+      {
+        return null;
+      }
+    }
+
+    if (wildcard != null && !fieldNames.isEmpty())
+    {
+      // Named fields would have to be composed with the wildcard.
+      return null;
+    }
+
+    return new Node(fieldNames.toArray(new String[0]), fieldNodes.toArray(new Node[0]), wildcard, start, count, mask);
+  }
+
+  private static Object project(Object data, Node node, Set<String> alwaysIncludedFields)
+  {
+    if (data.getClass() == DataMap.class)
+    {
+      return projectMap((DataMap) data, node, alwaysIncludedFields);
+    }
+    else if (data.getClass() == DataList.class)
+    {
+      return projectList((DataList) data, node, alwaysIncludedFields);
+    }
+    else
+    {
+      throw new RuntimeException(String.format("Data type in instruction must be DataMap or DataList, but is: %1$s",
+          data.getClass().getName()));
+    }
+  }
+
+  private static DataMap projectMap(DataMap data, Node node, Set<String> alwaysIncludedFields)
+  {
+    if (node._wildcard != null)
+    {
+      final DataMap result = new DataMap((int) (data.size() / 0.75f) + 1);
+      for (Map.Entry<String, Object> entry : data.entrySet())
+      {
+        final Object value = entry.getValue();
+        final boolean projectValue = value instanceof DataComplex && !alwaysIncludedFields.contains(entry.getKey());
+        CheckedUtil.putWithoutChecking(result, entry.getKey(),
+            projectValue ? project(value, node._wildcard, alwaysIncludedFields) : value);
+      }
+      return result;
+    }
+
+    final DataMap result =
+        new DataMap((int) ((node._fieldNames.length + alwaysIncludedFields.size()) / 0.75f) + 1);
+    for (int i = 0; i < node._fieldNames.length; ++i)
+    {
+      final String name = node._fieldNames[i];
+      final Object value = data.get(name);
+      if (value == null || alwaysIncludedFields.contains(name))
+      {
+        continue;
+      }
+
+      final Node child = node._fieldNodes[i];
+      if (child == null)
+      {
+        CheckedUtil.putWithoutChecking(result, name, value);
+      }
+      else if (value instanceof DataComplex)
+      {
+        CheckedUtil.putWithoutChecking(result, name, project(value, child, alwaysIncludedFields));
+      }
+      else
+      {
+        throw primitiveValueError(value, child);
+      }
+    }
+
+    for (String name : alwaysIncludedFields)
+    {
+      final Object value = data.get(name);
+      if (value != null)
+      {
+        CheckedUtil.putWithoutChecking(result, name, value);
+      }
+    }
+
+    return result;
+  }
+
+  private static DataList projectList(DataList data, Node node, Set<String> alwaysIncludedFields)
+  {
+    final int start = node._start;
+    if (start >= data.size() || node._count <= 0)
+    {
+      return EMPTY_DATALIST;
+    }
+
+    final int count = Math.min(node._count, data.size() - start);
+    final DataList result = new DataList(count);
+    for (int i = start; i < start + count; ++i)
+    {
+      final Object value = data.get(i);
+      CheckedUtil.addWithoutChecking(result,
+          node._wildcard == null ? value : project(value, node._wildcard, alwaysIncludedFields));
+    }
+    return result;
+  }
+
+  private static RuntimeException primitiveValueError(Object value, Node node)
+  {
+    return new RuntimeException(String.format("data is of primitive value: %1$s, but filter: %2$s is complex",
+        value, node._mask));
+  }
+
+  /**
+   * {@link EncodingProjection} view of a {@link Node}. Projections of nested nodes are created on first use and
+   * reused for the other values that the same node applies to, e.g. every element of an array.
+   */
+  private static final class NodeProjection implements EncodingProjection
+  {
+    private final Node _node;
+    private final Set<String> _alwaysIncludedFields;
+    private NodeProjection[] _fieldProjections;
+    private NodeProjection _wildcardProjection;
+
+    private NodeProjection(Node node, Set<String> alwaysIncludedFields)
+    {
+      _node = node;
+      _alwaysIncludedFields = alwaysIncludedFields;
+    }
+
+    @Override
+    public Collection<Map.Entry<String, Object>> selectEntries(DataMap map)
+    {
+      if (_node._wildcard != null)
+      {
+        return map.entrySet();
+      }
+
+      final List<Map.Entry<String, Object>> entries =
+          new ArrayList<>(_node._fieldNames.length + _alwaysIncludedFields.size());
+      for (int i = 0; i < _node._fieldNames.length; ++i)
+      {
+        final String name = _node._fieldNames[i];
+        final Object value = map.get(name);
+        if (value == null || _alwaysIncludedFields.contains(name))
+        {
+          continue;
+        }
+        if (_node._fieldNodes[i] != null && !(value instanceof DataComplex))
+        {
+          throw primitiveValueError(value, _node._fieldNodes[i]);
+        }
+        entries.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+      }
+
+      for (String name : _alwaysIncludedFields)
+      {
+        final Object value = map.get(name);
+        if (value != null)
+        {
+          entries.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+        }
+      }
+
+      return entries;
+    }
+
+    @Override
+    public EncodingProjection getFieldProjection(String key)
+    {
+      if (_alwaysIncludedFields.contains(key))
+      {
+        return null;
+      }
+      if (_node._wildcard != null)
+      {
+        return getElementProjection();
+      }
+
+      for (int i = 0; i < _node._fieldNames.length; ++i)
+      {
+        if (_node._fieldNames[i].equals(key))
+        {
+          if (_node._fieldNodes[i] == null)
+          {
+            return null;
+          }
+          if (_fieldProjections == null)
+          {
+            _fieldProjections = new NodeProjection[_node._fieldNames.length];
+          }
+          if (_fieldProjections[i] == null)
+          {
+            _fieldProjections[i] = new NodeProjection(_node._fieldNodes[i], _alwaysIncludedFields);
+          }
+          return _fieldProjections[i];
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public int getStart()
+    {
+      return _node._start;
+    }
+
+    @Override
+    public int getCount()
+    {
+      return _node._count;
+    }
+
+    @Override
+    public EncodingProjection getElementProjection()
+    {
+      if (_node._wildcard == null)
+      {
+        return null;
+      }
+      if (_wildcardProjection == null)
+      {
+        _wildcardProjection = new NodeProjection(_node._wildcard, _alwaysIncludedFields);
+      }
+      return _wildcardProjection;
+    }
+  }
+
+  /**
+   * Compiled form of one level of the mask.
+   */
+  private static final class Node
+  {
+    private final String[] _fieldNames;
+    // null entries select the whole field value
+    private final Node[] _fieldNodes;
+    private final Node _wildcard;
+    private final int _start;
+    private final int _count;
+    // source of this node, only used in error messages
+    private final DataMap _mask;
+
+    private Node(String[] fieldNames, Node[] fieldNodes, Node wildcard, int start, int count, DataMap mask)
+    {
+      _fieldNames = fieldNames;
+      _fieldNodes = fieldNodes;
+      _wildcard = wildcard;
+      _start = start;
+      _count = count;
+      _mask = mask;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.entitystream.JacksonLICORStreamDataCodec;
+import com.linkedin.data.codec.entitystream.JacksonSmileStreamDataCodec;
+import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
+import com.linkedin.data.codec.entitystream.ProtobufStreamDataCodec;
+import com.linkedin.data.codec.entitystream.StreamDataCodec;
+import com.linkedin.data.transform.DataProcessingException;
+import java.util.Set;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static com.linkedin.data.TestUtil.dataMapFromString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+
+/**
+ * Runs the filter test cases against {@link CompiledProjector}, both projecting a copy and projecting while encoding.
+ * Masks that cannot be compiled are projected with {@link CopyFilter}, the same way {@code RestUtils.projectFields}
+ * falls back.
+ */
+public class TestCompiledProjector extends TestFilterOnData
+{
+  private static final StreamDataCodec[] CODECS = {
+      new JacksonStreamDataCodec(1),
+      new JacksonSmileStreamDataCodec(1),
+      new JacksonLICORStreamDataCodec(1, false),
+      new JacksonLICORStreamDataCodec(1, true),
+      new ProtobufStreamDataCodec(1)
+  };
+
+  @Override
+  protected void genericFilterTest(DataMap data, DataMap filter, DataMap expected, Set<String> alwaysIncludedFields,
+      String description) throws DataProcessingException
+  {
+    final String dataBefore = data.toString();
+    final CompiledProjector projector = CompiledProjector.compile(filter);
+    final Object filtered = projector == null
+        ? new CopyFilter(alwaysIncludedFields).filter(data, filter)
+        : projector.project(data, alwaysIncludedFields);
+    assertEquals(filtered, expected, "The following test failed: \n" + description  +
+        "\nData: " + dataBefore + "\nFilter: " + filter + "\nAlwaysIncludedFields: " + alwaysIncludedFields +
+        "\nCompiled: " + (projector != null) + "\nExpected: " + expected + "\nActual result: " + filtered);
+    assertEquals(data.toString(), dataBefore, "Projection must not modify the input data");
+
+    if (projector != null)
+    {
+      for (StreamDataCodec codec : CODECS)
+      {
+        final DataMap decoded = decodeProjected(codec, data, projector, alwaysIncludedFields);
+        assertEquals(decoded, expected, "Projected encoding with " + codec.getClass().getSimpleName() +
+            " failed: \n" + description + "\nData: " + dataBefore + "\nFilter: " + filter +
+            "\nExpected: " + expected + "\nActual result: " + decoded);
+      }
+    }
+  }
+
+  private static DataMap decodeProjected(StreamDataCodec codec, DataMap data, CompiledProjector projector,
+      Set<String> alwaysIncludedFields)
+  {
+    try
+    {
+      return codec.decodeMap(codec.encodeMap(data, projector.toEncodingProjection(alwaysIncludedFields)))
+          .toCompletableFuture().get();
+    }
+    catch (Exception e)
+    {
+      throw new AssertionError("Projected encoding failed", e);
+    }
+  }
+
+  @DataProvider
+  public Object[][] compilableMasks()
+  {
+    return new Object[][] {
+        { "{'a': 1}" },
+        { "{'a': 1, 'b': {'c': 1, 'd': {'e': 1}}}" },
+        { "{'a': {'$*': {'b': 1}}}" },
+        { "{'a': {'$*': {'b': 1}, '$start': 1, '$count': 2}}" },
+        { "{'a': {'$start': 0, '$count': 10}}" },
+        { "{'a': {'$*': {'$*': {'b': 1}}}}" }
+    };
+  }
+
+  @Test(dataProvider = "compilableMasks")
+  public void testCompilableMasks(String mask) throws Exception
+  {
+    assertNotNull(CompiledProjector.compile(dataMapFromString(mask.replace('\'', '"'))));
+  }
+
+  @DataProvider
+  public Object[][] unsupportedMasks()
+  {
+    return new Object[][] {
+        { "{}" },
+        { "{'a': 0}" },
+        { "{'a': 1, 'b': {'c': 0}}" },
+        { "{'a': {}}" },
+        { "{'$*': 1}" },
+        { "{'$*': 0, 'a': 1}" },
+        { "{'a': 1, '$*': {'b': 1}}" },
+        { "{'$$a': 1}" },
+        { "{'a': {'$start': -1}}" },
+        { "{'a': 2}" }
+    };
+  }
+
+  @Test(dataProvider = "unsupportedMasks")
+  public void testUnsupportedMasks(String mask) throws Exception
+  {
+    assertNull(CompiledProjector.compile(dataMapFromString(mask.replace('\'', '"'))));
+  }
+}
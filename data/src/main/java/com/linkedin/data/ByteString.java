@@ -390,6 +390,26 @@ public final class ByteString
     return ByteBuffer.wrap(byteArray.getArray(), byteArray.getOffset(), byteArray.getLength()).asReadOnlyBuffer();
   }
 
+  /**
+   * Returns read only {@link ByteBuffer} views of the backing chunks of this {@link ByteString}, in order.
+   *
+   * Unlike {@link #asByteBuffer()}, this method never copies, even if this {@link ByteString} was assembled from
+   * multiple chunks. Prefer it when the consumer can take a sequence of buffers, e.g. a gathering write or a
+   * composite buffer.
+   *
+   * @return read only {@link ByteBuffer} views of the backing chunks of this {@link ByteString}.
+   */
+  public ByteBuffer[] asByteBuffers()
+  {
+    ByteBuffer[] byteBuffers = new ByteBuffer[_byteArrays.getArraySize()];
+    for (int i = 0; i < byteBuffers.length; i++)
+    {
+      ByteArray byteArray = _byteArrays.get(i);
+      byteBuffers[i] = ByteBuffer.wrap(byteArray.getArray(), byteArray.getOffset(), byteArray.getLength()).asReadOnlyBuffer();
+    }
+    return byteBuffers;
+  }
+
   /**
    * Return a String representation of the bytes in this {@link ByteString}, decoded using the supplied
    * charset.
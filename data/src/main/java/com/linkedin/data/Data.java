@@ -16,6 +16,7 @@
 
 package com.linkedin.data;
 
+import com.linkedin.data.collections.PrimitiveList;
 import com.linkedin.util.ArgumentUtil;
 import java.io.Closeable;
 import java.io.IOException;
@@ -398,6 +399,18 @@ public class Data
     {
     }
 
+    /**
+     * Invoked instead of {@link #startMap(DataMap)} when only some of the entries of the {@link DataMap} are
+     * traversed, e.g. when a projection is applied while encoding.
+     *
+     * @param map provides the {@link DataMap} to be traversed.
+     * @param size the number of entries that will be traversed.
+     */
+    default void startMap(DataMap map, int size) throws IOException
+    {
+      startMap(map);
+    }
+
     /**
      * Invoked when the key of {@link DataMap} entry is traversed.
      * This callback is invoked before the value callback.
@@ -434,6 +447,18 @@ public class Data
     {
     }
 
+    /**
+     * Invoked instead of {@link #startList(DataList)} when only some of the elements of the {@link DataList} are
+     * traversed, e.g. when a projection is applied while encoding.
+     *
+     * @param list provides the {@link DataList} to be traversed.
+     * @param size the number of elements that will be traversed.
+     */
+    default void startList(DataList list, int size) throws IOException
+    {
+      startList(list);
+    }
+
     /**
      * Invoked to provide the index of the next {@link DataList} entry.
      * This callback is invoked before the value callback.
@@ -578,6 +603,14 @@ public class Data
             cycleChecker.startList(list);
             callback.startList(list);
 
+            PrimitiveList primitiveStorage = list.getPrimitiveStorage();
+            if (primitiveStorage != null)
+            {
+              traversePrimitiveList(primitiveStorage, callback);
+              callback.endList();
+              return;
+            }
+
             // Use Java 8 forEach to minimize intermediary object creation for better performance.
             final int[] index = {0};
             try
@@ -636,6 +669,35 @@ public class Data
     callback.illegalValue(obj);
   }
 
+  /**
+   * Traverse the elements of a {@link DataList} stored unboxed in a primitive array, without boxing them.
+   */
+  private static void traversePrimitiveList(PrimitiveList list, TraverseCallback callback) throws IOException
+  {
+    Class<? extends Number> elementClass = list.getElementClass();
+    int size = list.size();
+    for (int i = 0; i < size; i++)
+    {
+      callback.index(i);
+      if (elementClass == Integer.class)
+      {
+        callback.integerValue(list.getInt(i));
+      }
+      else if (elementClass == Long.class)
+      {
+        callback.longValue(list.getLong(i));
+      }
+      else if (elementClass == Float.class)
+      {
+        callback.floatValue(list.getFloat(i));
+      }
+      else
+      {
+        callback.doubleValue(list.getDouble(i));
+      }
+    }
+  }
+
   /**
    * Dump Data object with the given name and prefix to the given string builder.
    *
@@ -18,6 +18,7 @@ package com.linkedin.data;
 
 import com.linkedin.data.collections.CheckedList;
 import com.linkedin.data.collections.ListChecker;
+import com.linkedin.data.collections.PrimitiveList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -49,6 +50,13 @@ import java.util.Map;
  * is lazy and may be delayed until the {@link DataList} is about to be modified.
  * <p>
  *
+ * Lists of numbers may be created with primitive storage, see {@link #newIntList(int)}.
+ * Such lists keep their elements unboxed in a primitive array and box them lazily on
+ * {@link #get(int)}. Elements can be read and appended without boxing through the typed
+ * accessors such as {@link #getInt(int)}, {@link #toIntArray()} and {@link #addInt(int)}.
+ * Storing an element of a different type switches the list back to boxed storage.
+ * <p>
+ *
  * @author slim
  */
 public final class DataList extends CheckedList<Object> implements DataComplex
@@ -81,6 +89,55 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     super(initialCapacity, _checker);
   }
 
+  private DataList(PrimitiveList list)
+  {
+    super(list, _checker);
+  }
+
+  /**
+   * Construct an empty {@link DataList} that stores {@link Integer}s unboxed.
+   *
+   * @param initialCapacity provides the initial capacity of the {@link DataList}.
+   * @return the new {@link DataList}.
+   */
+  public static DataList newIntList(int initialCapacity)
+  {
+    return new DataList(PrimitiveList.newIntList(initialCapacity));
+  }
+
+  /**
+   * Construct an empty {@link DataList} that stores {@link Long}s unboxed.
+   *
+   * @param initialCapacity provides the initial capacity of the {@link DataList}.
+   * @return the new {@link DataList}.
+   */
+  public static DataList newLongList(int initialCapacity)
+  {
+    return new DataList(PrimitiveList.newLongList(initialCapacity));
+  }
+
+  /**
+   * Construct an empty {@link DataList} that stores {@link Float}s unboxed.
+   *
+   * @param initialCapacity provides the initial capacity of the {@link DataList}.
+   * @return the new {@link DataList}.
+   */
+  public static DataList newFloatList(int initialCapacity)
+  {
+    return new DataList(PrimitiveList.newFloatList(initialCapacity));
+  }
+
+  /**
+   * Construct an empty {@link DataList} that stores {@link Double}s unboxed.
+   *
+   * @param initialCapacity provides the initial capacity of the {@link DataList}.
+   * @return the new {@link DataList}.
+   */
+  public static DataList newDoubleList(int initialCapacity)
+  {
+    return new DataList(PrimitiveList.newDoubleList(initialCapacity));
+  }
+
   @Override
   public Object get(int index)
   {
@@ -115,6 +172,12 @@ public final class DataList extends CheckedList<Object> implements DataComplex
    */
   public void copyReferencedObjects(DataComplexTable alreadyCopied) throws CloneNotSupportedException
   {
+    if (hasPrimitiveStorage())
+    {
+      // Numbers are immutable, there is nothing to copy.
+      return;
+    }
+
     int count = size();
     for (int i = 0; i < count; ++i)
     {
@@ -136,9 +199,12 @@ public final class DataList extends CheckedList<Object> implements DataComplex
   @Override
   public void makeReadOnly()
   {
-    for (Object o : this)
+    if (!hasPrimitiveStorage())
     {
-      Data.makeReadOnly(o);
+      for (Object o : this)
+      {
+        Data.makeReadOnly(o);
+      }
     }
     setReadOnly();
     _madeReadOnly = true;
@@ -150,6 +216,240 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     return _madeReadOnly;
   }
 
+  /**
+   * Returns whether the elements of this {@link DataList} are stored unboxed in a primitive array.
+   *
+   * @return true if the elements are stored in a primitive array.
+   */
+  public boolean hasPrimitiveStorage()
+  {
+    return getPrimitiveStorage() != null;
+  }
+
+  /**
+   * Returns the element at the specified position as an int, without boxing it if
+   * this {@link DataList} stores ints.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position converted to an int.
+   * @throws ClassCastException if the element is not a {@link Number}.
+   */
+  public int getInt(int index)
+  {
+    instrumentAccess(index);
+    PrimitiveList primitiveList = getPrimitiveList();
+    return primitiveList != null ? primitiveList.getInt(index) : ((Number) super.get(index)).intValue();
+  }
+
+  /**
+   * Returns the element at the specified position as a long, without boxing it if
+   * this {@link DataList} stores longs.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position converted to a long.
+   * @throws ClassCastException if the element is not a {@link Number}.
+   */
+  public long getLong(int index)
+  {
+    instrumentAccess(index);
+    PrimitiveList primitiveList = getPrimitiveList();
+    return primitiveList != null ? primitiveList.getLong(index) : ((Number) super.get(index)).longValue();
+  }
+
+  /**
+   * Returns the element at the specified position as a float, without boxing it if
+   * this {@link DataList} stores floats.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position converted to a float.
+   * @throws ClassCastException if the element is not a {@link Number}.
+   */
+  public float getFloat(int index)
+  {
+    instrumentAccess(index);
+    PrimitiveList primitiveList = getPrimitiveList();
+    return primitiveList != null ? primitiveList.getFloat(index) : ((Number) super.get(index)).floatValue();
+  }
+
+  /**
+   * Returns the element at the specified position as a double, without boxing it if
+   * this {@link DataList} stores doubles.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position converted to a double.
+   * @throws ClassCastException if the element is not a {@link Number}.
+   */
+  public double getDouble(int index)
+  {
+    instrumentAccess(index);
+    PrimitiveList primitiveList = getPrimitiveList();
+    return primitiveList != null ? primitiveList.getDouble(index) : ((Number) super.get(index)).doubleValue();
+  }
+
+  /**
+   * Returns the elements of this {@link DataList} converted to ints.
+   *
+   * @return a new array with the elements converted to ints.
+   * @throws ClassCastException if an element is not a {@link Number}.
+   */
+  public int[] toIntArray()
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    if (primitiveList != null)
+    {
+      return primitiveList.toIntArray();
+    }
+    int[] array = new int[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = ((Number) super.get(i)).intValue();
+    }
+    return array;
+  }
+
+  /**
+   * Returns the elements of this {@link DataList} converted to longs.
+   *
+   * @return a new array with the elements converted to longs.
+   * @throws ClassCastException if an element is not a {@link Number}.
+   */
+  public long[] toLongArray()
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    if (primitiveList != null)
+    {
+      return primitiveList.toLongArray();
+    }
+    long[] array = new long[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = ((Number) super.get(i)).longValue();
+    }
+    return array;
+  }
+
+  /**
+   * Returns the elements of this {@link DataList} converted to floats.
+   *
+   * @return a new array with the elements converted to floats.
+   * @throws ClassCastException if an element is not a {@link Number}.
+   */
+  public float[] toFloatArray()
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    if (primitiveList != null)
+    {
+      return primitiveList.toFloatArray();
+    }
+    float[] array = new float[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = ((Number) super.get(i)).floatValue();
+    }
+    return array;
+  }
+
+  /**
+   * Returns the elements of this {@link DataList} converted to doubles.
+   *
+   * @return a new array with the elements converted to doubles.
+   * @throws ClassCastException if an element is not a {@link Number}.
+   */
+  public double[] toDoubleArray()
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    if (primitiveList != null)
+    {
+      return primitiveList.toDoubleArray();
+    }
+    double[] array = new double[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = ((Number) super.get(i)).doubleValue();
+    }
+    return array;
+  }
+
+  /**
+   * Appends an int, without boxing it if this {@link DataList} stores ints.
+   *
+   * @param value provides the value to append.
+   * @throws UnsupportedOperationException if the list is read-only.
+   */
+  public void addInt(int value)
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    if (primitiveList == null)
+    {
+      addWithoutChecking(value);
+    }
+    else
+    {
+      checkMutability();
+      primitiveList.addInt(value);
+    }
+  }
+
+  /**
+   * Appends a long, without boxing it if this {@link DataList} stores longs.
+   *
+   * @param value provides the value to append.
+   * @throws UnsupportedOperationException if the list is read-only.
+   */
+  public void addLong(long value)
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    if (primitiveList == null)
+    {
+      addWithoutChecking(value);
+    }
+    else
+    {
+      checkMutability();
+      primitiveList.addLong(value);
+    }
+  }
+
+  /**
+   * Appends a float, without boxing it if this {@link DataList} stores floats.
+   *
+   * @param value provides the value to append.
+   * @throws UnsupportedOperationException if the list is read-only.
+   */
+  public void addFloat(float value)
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    if (primitiveList == null)
+    {
+      addWithoutChecking(value);
+    }
+    else
+    {
+      checkMutability();
+      primitiveList.addFloat(value);
+    }
+  }
+
+  /**
+   * Appends a double, without boxing it if this {@link DataList} stores doubles.
+   *
+   * @param value provides the value to append.
+   * @throws UnsupportedOperationException if the list is read-only.
+   */
+  public void addDouble(double value)
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    if (primitiveList == null)
+    {
+      addWithoutChecking(value);
+    }
+    else
+    {
+      checkMutability();
+      primitiveList.addDouble(value);
+    }
+  }
+
   /**
    * Returns the element at the specified position cast to a {@link DataList}.
    *
@@ -238,6 +538,17 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     return _dataComplexHashCode;
   }
 
+  /**
+   * Returns the storage of this {@link DataList} if its elements are stored unboxed in a primitive array.
+   *
+   * @return the {@link PrimitiveList} storing the elements, or null if the elements are boxed.
+   */
+  PrimitiveList getPrimitiveStorage()
+  {
+    PrimitiveList primitiveList = getPrimitiveList();
+    return primitiveList != null && primitiveList.isPrimitive() ? primitiveList : null;
+  }
+
   // Unit test use only
   void disableChecker()
   {
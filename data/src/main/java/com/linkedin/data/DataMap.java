@@ -18,6 +18,7 @@ package com.linkedin.data;
 
 import com.linkedin.data.collections.CheckedMap;
 import com.linkedin.data.collections.MapChecker;
+import com.linkedin.data.collections.MapLoader;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -51,6 +52,10 @@ import java.util.Map;
  *
  * Since {@link DataMap} extends {@link CheckedMap}, copying of the {@link DataMap} is lazy and may be
  * delayed until the {@link DataMap} is about to be modified.
+ * <p>
+ *
+ * A {@link DataMap} created by {@link #newLazyMap(MapLoader)} loads its entries on first access. Codecs use
+ * this to defer decoding nested records until they are read.
  *
  * @author slim
  */
@@ -110,6 +115,26 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
     super(initialCapacity, loadFactor, _checker);
   }
 
+  private DataMap(MapLoader<String, Object> loader)
+  {
+    super(loader, _checker);
+  }
+
+  /**
+   * Constructs a {@link DataMap} whose entries are provided by the specified loader on first access,
+   * whether the access is a read or a mutation. Until then, the map holds nothing but the loader.
+   * <p>
+   *
+   * The loader is trusted to supply valid Data objects, they are not checked.
+   *
+   * @param loader provides the entries of the new {@link DataMap}.
+   * @return a lazily populated {@link DataMap}.
+   */
+  public static DataMap newLazyMap(MapLoader<String, Object> loader)
+  {
+    return new DataMap(loader);
+  }
+
   @Override
   public DataMap clone() throws CloneNotSupportedException
   {
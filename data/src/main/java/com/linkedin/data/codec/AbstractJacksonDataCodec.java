@@ -68,6 +68,7 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
   protected final JsonFactory _factory;
 
   private boolean _sortKeys;
+  private boolean _enablePrimitiveListStorage;
 
   protected AbstractJacksonDataCodec(JsonFactory factory)
   {
@@ -79,6 +80,16 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     _sortKeys = sortKeys;
   }
 
+  /**
+   * If set to true, then arrays whose first element is a number are parsed into a {@link DataList} with
+   * primitive storage, which avoids boxing every element. The list switches back to boxed storage if it
+   * turns out to contain elements of other types. Disabled by default.
+   */
+  public void setEnablePrimitiveListStorage(boolean enablePrimitiveListStorage)
+  {
+    _enablePrimitiveListStorage = enablePrimitiveListStorage;
+  }
+
   @Override
   public byte[] mapToBytes(DataMap map) throws IOException
   {
@@ -172,7 +183,7 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
   {
     try
     {
-      return new Parser().parse(jsonParser, expectType);
+      return new Parser(false, _enablePrimitiveListStorage).parse(jsonParser, expectType);
     }
     finally
     {
@@ -397,11 +408,17 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
      */
     private static final int MAX_DATA_MAP_RECURSION_SIZE = 6;
 
+    /**
+     * Initial capacity of lists with primitive storage, matching the default capacity of {@link java.util.ArrayList}.
+     */
+    private static final int DEFAULT_PRIMITIVE_LIST_CAPACITY = 10;
+
     private StringBuilder _errorBuilder = null;
     private JsonParser _parser = null;
     private boolean _debug = false;
     private Deque<Object> _nameStack = null;
     private Map<Object, DataLocation> _locationMap = null;
+    private final boolean _enablePrimitiveListStorage;
 
     Parser()
     {
@@ -409,8 +426,14 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     }
 
     Parser(boolean debug)
+    {
+      this(debug, false);
+    }
+
+    Parser(boolean debug, boolean enablePrimitiveListStorage)
     {
       _debug = debug;
+      _enablePrimitiveListStorage = enablePrimitiveListStorage;
     }
 
     /**
@@ -710,6 +733,11 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
 
     private DataList parseDataList() throws IOException
     {
+      if (_enablePrimitiveListStorage && _locationMap == null)
+      {
+        return parsePrimitiveDataList();
+      }
+
       DataList list = new DataList();
       JsonToken token;
       int index = 0;
@@ -729,6 +757,89 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
       return list;
     }
 
+    /**
+     * Parses an array into a {@link DataList} whose storage is chosen from the type of the first element, adding
+     * numbers without boxing them.
+     */
+    private DataList parsePrimitiveDataList() throws IOException
+    {
+      JsonToken token = _parser.nextToken();
+      JsonParser.NumberType numberType = isNumber(token) ? _parser.getNumberType() : null;
+      DataList list;
+      if (numberType == JsonParser.NumberType.INT)
+      {
+        list = DataList.newIntList(DEFAULT_PRIMITIVE_LIST_CAPACITY);
+      }
+      else if (numberType == JsonParser.NumberType.LONG)
+      {
+        list = DataList.newLongList(DEFAULT_PRIMITIVE_LIST_CAPACITY);
+      }
+      else if (numberType == JsonParser.NumberType.FLOAT)
+      {
+        list = DataList.newFloatList(DEFAULT_PRIMITIVE_LIST_CAPACITY);
+      }
+      else if (numberType == JsonParser.NumberType.DOUBLE)
+      {
+        list = DataList.newDoubleList(DEFAULT_PRIMITIVE_LIST_CAPACITY);
+      }
+      else
+      {
+        list = new DataList();
+      }
+
+      int index = 0;
+      while (token != JsonToken.END_ARRAY)
+      {
+        if (_debug)
+        {
+          _nameStack.addLast(index);
+          index++;
+        }
+        if (!addNumber(list, token))
+        {
+          parse(list, null, token);
+        }
+        if (_debug)
+        {
+          _nameStack.removeLast();
+        }
+        token = _parser.nextToken();
+      }
+      return list;
+    }
+
+    private boolean addNumber(DataList list, JsonToken token) throws IOException
+    {
+      JsonParser.NumberType numberType = isNumber(token) ? _parser.getNumberType() : null;
+      if (numberType == null)
+      {
+        return false;
+      }
+
+      switch (numberType)
+      {
+        case INT:
+          list.addInt(_parser.getIntValue());
+          return true;
+        case LONG:
+          list.addLong(_parser.getLongValue());
+          return true;
+        case FLOAT:
+          list.addFloat(_parser.getFloatValue());
+          return true;
+        case DOUBLE:
+          list.addDouble(_parser.getDoubleValue());
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    private boolean isNumber(JsonToken token)
+    {
+      return token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+    }
+
     private void error(JsonToken token, JsonParser.NumberType type) throws IOException
     {
       if (_errorBuilder == null)
@@ -934,7 +934,11 @@ public class BufferChain
   public BufferChain putByteString(ByteString value)
   {
     reserve(value.length());
-    _currentBuffer.put(value.asByteBuffer());
+    // put the chunks one by one, asByteBuffer() would first assemble a compound ByteString into a temporary array
+    for (ByteBuffer chunk : value.asByteBuffers())
+    {
+      _currentBuffer.put(chunk);
+    }
     return this;
   }
 
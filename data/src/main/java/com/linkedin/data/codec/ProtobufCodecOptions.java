@@ -76,17 +76,44 @@ public class ProtobufCodecOptions
    */
   private final int _protoWriterBufferSize;
 
+  /**
+   * If true, then lists whose first element is an int, long, float or double are decoded into a
+   * {@link com.linkedin.data.DataList} with primitive storage, which avoids boxing every element. The list
+   * switches back to boxed storage if it turns out to contain elements of other types.
+   *
+   * <p>Disabled by default.</p>
+   */
+  private final boolean _enablePrimitiveListStorage;
+
+  /**
+   * If true, then records nested in the decoded payload are decoded lazily: their bytes are only skipped over
+   * when the enclosing record is decoded, and they are decoded one level at a time, on first access. This saves
+   * most of the decoding cost when only a few fields of a large payload are read.
+   *
+   * <p>Only applies when decoding from a byte array or a single chunk {@link com.linkedin.data.ByteString}. The
+   * lazily decoded records keep a copy of their own bytes, so the input is neither retained nor aliased.
+   * Errors in a nested record other than malformed framing, e.g. an unknown symbol, are only detected on first
+   * access and are reported as an {@link java.io.UncheckedIOException}.</p>
+   *
+   * <p>Disabled by default.</p>
+   */
+  private final boolean _enableLazyMapDecoding;
+
   private ProtobufCodecOptions(SymbolTable symbolTable,
                                boolean enableASCIIOnlyStrings,
                                boolean enableFixedLengthFloatDoubles,
                                boolean tolerateInvalidSurrogatePairs,
-                               int protoWriterBufferSize)
+                               int protoWriterBufferSize,
+                               boolean enablePrimitiveListStorage,
+                               boolean enableLazyMapDecoding)
   {
     _symbolTable = symbolTable == null ? EmptySymbolTable.SHARED : symbolTable;
     _enableASCIIOnlyStrings = enableASCIIOnlyStrings;
     _enableFixedLengthFloatDoubles = enableFixedLengthFloatDoubles;
     _shouldTolerateInvalidSurrogatePairs = tolerateInvalidSurrogatePairs;
     _protoWriterBufferSize = protoWriterBufferSize;
+    _enablePrimitiveListStorage = enablePrimitiveListStorage;
+    _enableLazyMapDecoding = enableLazyMapDecoding;
   }
 
   /**
@@ -130,6 +157,24 @@ public class ProtobufCodecOptions
     return _protoWriterBufferSize;
   }
 
+  /**
+   * @return True if lists of numbers should be decoded into a {@link com.linkedin.data.DataList} with primitive
+   * storage, false if every element should be boxed.
+   */
+  public boolean shouldEnablePrimitiveListStorage()
+  {
+    return _enablePrimitiveListStorage;
+  }
+
+  /**
+   * @return True if nested records should be decoded lazily, on first access, false if the whole payload should be
+   * decoded upfront.
+   */
+  public boolean shouldEnableLazyMapDecoding()
+  {
+    return _enableLazyMapDecoding;
+  }
+
   /**
    * Builder to incrementally build options.
    */
@@ -180,6 +225,29 @@ public class ProtobufCodecOptions
      */
     private int _protoWriterBufferSize;
 
+    /**
+     * If true, then lists whose first element is an int, long, float or double are decoded into a
+     * {@link com.linkedin.data.DataList} with primitive storage, which avoids boxing every element. The list
+     * switches back to boxed storage if it turns out to contain elements of other types.
+     *
+     * <p>Disabled by default.</p>
+     */
+    private boolean _enablePrimitiveListStorage;
+
+    /**
+     * If true, then records nested in the decoded payload are decoded lazily: their bytes are only skipped over
+     * when the enclosing record is decoded, and they are decoded one level at a time, on first access. This saves
+     * most of the decoding cost when only a few fields of a large payload are read.
+     *
+     * <p>Only applies when decoding from a byte array or a single chunk {@link com.linkedin.data.ByteString}. The
+     * lazily decoded records keep a copy of their own bytes, so the input is neither retained nor aliased.
+     * Errors in a nested record other than malformed framing, e.g. an unknown symbol, are only detected on first
+     * access and are reported as an {@link java.io.UncheckedIOException}.</p>
+     *
+     * <p>Disabled by default.</p>
+     */
+    private boolean _enableLazyMapDecoding;
+
     public Builder()
     {
       _symbolTable = null;
@@ -187,6 +255,8 @@ public class ProtobufCodecOptions
       _enableFixedLengthFloatDoubles = false;
       _shouldTolerateInvalidSurrogatePairs = true;
       _protoWriterBufferSize = DEFAULT_BUFFER_SIZE;
+      _enablePrimitiveListStorage = false;
+      _enableLazyMapDecoding = false;
     }
 
     /**
@@ -245,6 +315,26 @@ public class ProtobufCodecOptions
       return this;
     }
 
+    /**
+     * If set to true, then lists whose first element is an int, long, float or double are decoded into a
+     * {@link com.linkedin.data.DataList} with primitive storage, which avoids boxing every element.
+     */
+    public Builder setEnablePrimitiveListStorage(boolean enablePrimitiveListStorage)
+    {
+      this._enablePrimitiveListStorage = enablePrimitiveListStorage;
+      return this;
+    }
+
+    /**
+     * If set to true, then records nested in the decoded payload are decoded lazily, on first access. The byte array
+     * the payload is decoded from must not be modified afterwards.
+     */
+    public Builder setEnableLazyMapDecoding(boolean enableLazyMapDecoding)
+    {
+      this._enableLazyMapDecoding = enableLazyMapDecoding;
+      return this;
+    }
+
     /**
      * Build an options instance.
      */
@@ -254,7 +344,9 @@ public class ProtobufCodecOptions
           _enableASCIIOnlyStrings,
           _enableFixedLengthFloatDoubles,
           _shouldTolerateInvalidSurrogatePairs,
-          _protoWriterBufferSize);
+          _protoWriterBufferSize,
+          _enablePrimitiveListStorage,
+          _enableLazyMapDecoding);
     }
   }
 }
@@ -30,6 +30,7 @@ import com.linkedin.util.FastByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.function.Function;
 
 
@@ -234,10 +235,56 @@ public class ProtobufDataCodec implements DataCodec
   protected final DataList readList(ProtoReader reader) throws IOException
   {
     int size = reader.readInt32();
+    if (size > 0 && _options.shouldEnablePrimitiveListStorage())
+    {
+      return readPrimitiveList(reader, size);
+    }
+
     DataList dataList = new DataList(size);
     for (int i = 0; i < size; i++)
     {
-      CheckedUtil.addWithoutChecking(dataList, readValue(reader, null));
+      CheckedUtil.addWithoutChecking(dataList, readNestedValue(reader.readRawByte(), reader));
+    }
+
+    return dataList;
+  }
+
+  /**
+   * Reads a list into a {@link DataList} whose storage is chosen from the ordinal of the first element, so that
+   * lists of numbers are filled without boxing.
+   */
+  private DataList readPrimitiveList(ProtoReader reader, int size) throws IOException
+  {
+    byte ordinal = reader.readRawByte();
+    DataList dataList;
+    switch (ordinal)
+    {
+      case INTEGER_ORDINAL: dataList = DataList.newIntList(size); break;
+      case LONG_ORDINAL: dataList = DataList.newLongList(size); break;
+      case FLOAT_ORDINAL:
+      case FIXED_FLOAT_ORDINAL: dataList = DataList.newFloatList(size); break;
+      case DOUBLE_ORDINAL:
+      case FIXED_DOUBLE_ORDINAL: dataList = DataList.newDoubleList(size); break;
+      default: dataList = new DataList(size); break;
+    }
+
+    for (int i = 0; i < size; i++)
+    {
+      if (i > 0)
+      {
+        ordinal = reader.readRawByte();
+      }
+
+      switch (ordinal)
+      {
+        case INTEGER_ORDINAL: dataList.addInt(reader.readInt32()); break;
+        case LONG_ORDINAL: dataList.addLong(reader.readInt64()); break;
+        case FLOAT_ORDINAL: dataList.addFloat(Float.intBitsToFloat(reader.readInt32())); break;
+        case FIXED_FLOAT_ORDINAL: dataList.addFloat(Float.intBitsToFloat(reader.readFixedInt32())); break;
+        case DOUBLE_ORDINAL: dataList.addDouble(Double.longBitsToDouble(reader.readInt64())); break;
+        case FIXED_DOUBLE_ORDINAL: dataList.addDouble(Double.longBitsToDouble(reader.readFixedInt64())); break;
+        default: CheckedUtil.addWithoutChecking(dataList, readNestedValue(ordinal, reader)); break;
+      }
     }
 
     return dataList;
@@ -249,12 +296,89 @@ public class ProtobufDataCodec implements DataCodec
     DataMap dataMap = new DataMap(DataMapBuilder.getOptimumHashMapCapacityFromSize(size));
     for (int i = 0; i < size; i++)
     {
-      CheckedUtil.putWithoutChecking(dataMap, (String) readValue(reader, this::isString), readValue(reader, null));
+      CheckedUtil.putWithoutChecking(dataMap, (String) readValue(reader, this::isString),
+          readNestedValue(reader.readRawByte(), reader));
     }
 
     return dataMap;
   }
 
+  /**
+   * Reads a value nested in a map or a list. If lazy map decoding is enabled and the reader supports it, maps are
+   * only skipped over and copied, and are decoded on first access. Copying keeps the lazy maps from holding on to
+   * the whole input, or from seeing changes made to it after decoding.
+   */
+  private Object readNestedValue(byte ordinal, ProtoReader reader) throws IOException
+  {
+    if (ordinal == MAP_ORDINAL && _options.shouldEnableLazyMapDecoding() && reader.getPosition() >= 0)
+    {
+      int start = reader.getPosition();
+      skipValue(ordinal, reader);
+      byte[] bytes = reader.copyBytes(start, reader.getPosition());
+      return DataMap.newLazyMap(() -> {
+        try
+        {
+          return readMap(ProtoReader.newInstance(bytes));
+        }
+        catch (IOException e)
+        {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+
+    return readValue(ordinal, reader);
+  }
+
+  /**
+   * Skips over a value without decoding it.
+   */
+  private void skipValue(byte ordinal, ProtoReader reader) throws IOException
+  {
+    switch (ordinal)
+    {
+      case MAP_ORDINAL:
+        // Skip both the keys and the values.
+        for (int i = reader.readInt32() * 2; i > 0; i--)
+        {
+          skipValue(reader.readRawByte(), reader);
+        }
+        break;
+      case LIST_ORDINAL:
+        for (int i = reader.readInt32(); i > 0; i--)
+        {
+          skipValue(reader.readRawByte(), reader);
+        }
+        break;
+      case ASCII_STRING_LITERAL_ORDINAL:
+      case STRING_LITERAL_ORDINAL:
+      case RAW_BYTES_ORDINAL:
+        reader.skipRawBytes(reader.readInt32());
+        break;
+      case STRING_REFERENCE_ORDINAL:
+      case INTEGER_ORDINAL:
+      case LONG_ORDINAL:
+      case FLOAT_ORDINAL:
+      case DOUBLE_ORDINAL:
+        reader.readInt64();
+        break;
+      case FIXED_FLOAT_ORDINAL:
+        reader.skipRawBytes(4);
+        break;
+      case FIXED_DOUBLE_ORDINAL:
+        reader.skipRawBytes(8);
+        break;
+      case BOOLEAN_TRUE_ORDINAL:
+      case BOOLEAN_FALSE_ORDINAL:
+      case NULL_ORDINAL:
+        break;
+      default:
+        // Subclasses define how to read unknown values, so there is no cheaper way to skip them.
+        readUnknownValue(ordinal, reader);
+        break;
+    }
+  }
+
   protected final String readStringReference(ProtoReader reader) throws IOException
   {
     String value;
@@ -283,6 +407,11 @@ public class ProtobufDataCodec implements DataCodec
       throw new DataDecodingException("Unable to find expected ordinal. Read: " + ordinal);
     }
 
+    return readValue(ordinal, reader);
+  }
+
+  private Object readValue(byte ordinal, ProtoReader reader) throws IOException
+  {
     switch (ordinal)
     {
       case MAP_ORDINAL: return readMap(reader);
@@ -516,9 +645,15 @@ public class ProtobufDataCodec implements DataCodec
      * @param map provides the {@link DataMap}to be traversed.
      */
     public void startMap(DataMap map) throws IOException
+    {
+      startMap(map, map.size());
+    }
+
+    @Override
+    public void startMap(DataMap map, int size) throws IOException
     {
       _protoWriter.writeByte(MAP_ORDINAL);
-      _protoWriter.writeUInt32(map.size());
+      _protoWriter.writeUInt32(size);
     }
 
     /**
@@ -550,9 +685,15 @@ public class ProtobufDataCodec implements DataCodec
      * @param list provides the {@link DataList}to be traversed.
      */
     public void startList(DataList list) throws IOException
+    {
+      startList(list, list.size());
+    }
+
+    @Override
+    public void startList(DataList list, int size) throws IOException
     {
       _protoWriter.writeByte(LIST_ORDINAL);
-      _protoWriter.writeUInt32(list.size());
+      _protoWriter.writeUInt32(size);
     }
 
     @Override
@@ -25,9 +25,13 @@ import com.linkedin.entitystream.WriteHandle;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,6 +60,10 @@ public abstract class AbstractDataEncoder implements DataEncoder
   private WriteHandle<? super ByteString> _writeHandle;
   private boolean _done;
 
+  // Projections of the objects in _stack, null elements write the object whole. Only used if a projection is set.
+  private List<EncodingProjection> _projectionStack;
+  private String _currentKey;
+
   private AbstractDataEncoder(int bufferSize)
   {
     _out = new QueueBufferedOutputStream(bufferSize);
@@ -81,6 +89,24 @@ public abstract class AbstractDataEncoder implements DataEncoder
     _typeStack.push(LIST);
   }
 
+  /**
+   * Create an encoder that applies the given projection while writing the map.
+   *
+   * @param dataMap the map to encode.
+   * @param projection the projection to apply, or null to write the whole map.
+   * @param bufferSize the size of the primary output buffer.
+   */
+  protected AbstractDataEncoder(DataMap dataMap, EncodingProjection projection, int bufferSize)
+  {
+    this(dataMap, bufferSize);
+
+    if (projection != null)
+    {
+      _projectionStack = new ArrayList<>();
+      _projectionStack.add(projection);
+    }
+  }
+
   @Override
   public void onInit(WriteHandle<? super ByteString> wh)
   {
@@ -136,6 +162,9 @@ public abstract class AbstractDataEncoder implements DataEncoder
    * <p>This can be overridden by implementations to control the order in which entries are serialized. It is
    * highly recommended to not modify the iterator or the backing map after this method has been called. Doing so
    * may result in a {@link java.util.ConcurrentModificationException}</p>
+   *
+   * <p>This is not used for maps that a projection applies to, which are written in the order of the entries selected
+   * by the projection.</p>
    */
   protected Iterator<Map.Entry<String, Object>> createIterator(DataMap dataMap) throws IOException
   {
@@ -203,7 +232,14 @@ public abstract class AbstractDataEncoder implements DataEncoder
         if (_typeStack.peek() == MAP)
         {
           DataMap dataMap = preProcessMap((DataMap) current);
-          if (dataMap != null)
+          EncodingProjection projection = currentProjection();
+          if (dataMap != null && projection != null)
+          {
+            Collection<Map.Entry<String, Object>> entries = projection.selectEntries(dataMap);
+            _iteratorStack.push(entries.iterator());
+            _traverseCallback.startMap(dataMap, entries.size());
+          }
+          else if (dataMap != null)
           {
             _iteratorStack.push(createIterator(dataMap));
             _traverseCallback.startMap(dataMap);
@@ -221,7 +257,15 @@ public abstract class AbstractDataEncoder implements DataEncoder
         else
         {
           DataList dataList = preProcessList((DataList) current);
-          if (dataList != null)
+          EncodingProjection projection = currentProjection();
+          if (dataList != null && projection != null)
+          {
+            int start = Math.min(projection.getStart(), dataList.size());
+            int size = Math.min(projection.getCount(), dataList.size() - start);
+            _iteratorStack.push(new RangeIterator(dataList, start, size));
+            _traverseCallback.startList(dataList, size);
+          }
+          else if (dataList != null)
           {
             _iteratorStack.push(createIterator(dataList));
             _traverseCallback.startList(dataList);
@@ -247,7 +291,8 @@ public abstract class AbstractDataEncoder implements DataEncoder
         if (_typeStack.peek() == MAP)
         {
           Map.Entry<String, ?> entry = (Map.Entry<String, ?>) currItem;
-          _traverseCallback.key(entry.getKey());
+          _currentKey = entry.getKey();
+          _traverseCallback.key(_currentKey);
           writeValue(entry.getValue());
         }
         else
@@ -296,10 +341,12 @@ public abstract class AbstractDataEncoder implements DataEncoder
         _traverseCallback.integerValue((int) value);
         break;
       case "com.linkedin.data.DataMap":
+        pushProjection();
         _stack.push((DataMap) value);
         _typeStack.push(MAP);
         break;
       case "com.linkedin.data.DataList":
+        pushProjection();
         _stack.push((DataList) value);
         _typeStack.push(LIST);
         break;
@@ -327,9 +374,69 @@ public abstract class AbstractDataEncoder implements DataEncoder
   {
     _stack.pop();
     _done = _stack.isEmpty();
+    if (_projectionStack != null)
+    {
+      _projectionStack.remove(_projectionStack.size() - 1);
+    }
     return _typeStack.pop();
   }
 
+  private EncodingProjection currentProjection()
+  {
+    return _projectionStack == null ? null : _projectionStack.get(_projectionStack.size() - 1);
+  }
+
+  /**
+   * Push the projection of a complex value that is about to be pushed to the stack, derived from the projection of
+   * the object that contains it.
+   */
+  private void pushProjection()
+  {
+    if (_projectionStack != null)
+    {
+      EncodingProjection parent = currentProjection();
+      EncodingProjection projection = null;
+      if (parent != null)
+      {
+        projection = _typeStack.peek() == MAP ? parent.getFieldProjection(_currentKey) : parent.getElementProjection();
+      }
+      _projectionStack.add(projection);
+    }
+  }
+
+  /**
+   * Iterates over a range of the elements of a {@link DataList}.
+   */
+  private static class RangeIterator implements Iterator<Object>
+  {
+    private final DataList _list;
+    private final int _end;
+    private int _index;
+
+    RangeIterator(DataList list, int start, int size)
+    {
+      _list = list;
+      _index = start;
+      _end = start + size;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return _index < _end;
+    }
+
+    @Override
+    public Object next()
+    {
+      if (_index >= _end)
+      {
+        throw new NoSuchElementException();
+      }
+      return _list.get(_index++);
+    }
+  }
+
   @Override
   public void onAbort(Throwable e)
   {
@@ -54,6 +54,13 @@ abstract class AbstractJacksonDataEncoder extends AbstractDataEncoder
     _jsonFactory = jsonFactory;
   }
 
+  protected AbstractJacksonDataEncoder(JsonFactory jsonFactory, DataMap dataMap, EncodingProjection projection,
+      int bufferSize)
+  {
+    super(dataMap, projection, bufferSize);
+    _jsonFactory = jsonFactory;
+  }
+
   @Override
   protected Data.TraverseCallback createTraverseCallback(OutputStream out) throws IOException
   {
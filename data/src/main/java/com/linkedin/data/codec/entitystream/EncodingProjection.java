@@ -0,0 +1,64 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import java.util.Collection;
+import java.util.Map;
+
+
+/**
+ * Selects the parts of a {@link com.linkedin.data.DataComplex} that an {@link AbstractDataEncoder} writes, so that a
+ * projection can be applied while encoding the original object instead of encoding a projected copy of it. Excluded
+ * entries and elements are skipped without being traversed.
+ *
+ * <p>A projection applies to one level of the object. The projection for a nested {@link DataMap} or
+ * {@link DataList} is obtained from {@link #getFieldProjection(String)} or {@link #getElementProjection()}, and null
+ * means that the nested object is written whole.</p>
+ */
+public interface EncodingProjection
+{
+  /**
+   * Select the entries of a {@link DataMap} to write.
+   *
+   * @param map the map this projection applies to.
+   * @return the selected entries, in the order they are written.
+   */
+  Collection<Map.Entry<String, Object>> selectEntries(DataMap map);
+
+  /**
+   * @param key key of a selected entry.
+   * @return the projection to apply to the value of the entry if it is complex, or null to write it whole.
+   */
+  EncodingProjection getFieldProjection(String key);
+
+  /**
+   * @return the index of the first element written when this projection applies to a {@link DataList}.
+   */
+  int getStart();
+
+  /**
+   * @return the maximum number of elements written when this projection applies to a {@link DataList}.
+   */
+  int getCount();
+
+  /**
+   * @return the projection to apply to the complex elements of a {@link DataList}, or null to write them whole.
+   */
+  EncodingProjection getElementProjection();
+}
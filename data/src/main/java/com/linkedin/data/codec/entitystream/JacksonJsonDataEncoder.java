@@ -54,4 +54,10 @@ public class JacksonJsonDataEncoder extends AbstractJacksonDataEncoder implement
   {
     super(jsonFactory, dataList, bufferSize);
   }
+
+  public JacksonJsonDataEncoder(JsonFactory jsonFactory, DataMap dataMap, EncodingProjection projection,
+      int bufferSize)
+  {
+    super(jsonFactory, dataMap, projection, bufferSize);
+  }
 }
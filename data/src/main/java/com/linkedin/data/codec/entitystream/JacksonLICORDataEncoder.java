@@ -60,6 +60,13 @@ public class JacksonLICORDataEncoder extends AbstractJacksonDataEncoder
     _symbolTable = symbolTable;
   }
 
+  public JacksonLICORDataEncoder(DataMap dataMap, EncodingProjection projection, int bufferSize, boolean encodeBinary,
+      SymbolTable symbolTable)
+  {
+    super(JacksonLICORStreamDataCodec.getFactory(encodeBinary), dataMap, projection, bufferSize);
+    _symbolTable = symbolTable;
+  }
+
   @Deprecated
   @Override
   protected void writeStartObject() throws IOException
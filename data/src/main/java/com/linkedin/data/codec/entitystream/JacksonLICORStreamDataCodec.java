@@ -98,6 +98,20 @@ public class JacksonLICORStreamDataCodec implements StreamDataCodec
     return EntityStreams.newEntityStream(encoder);
   }
 
+  @Override
+  public boolean supportsEncodingProjection()
+  {
+    return true;
+  }
+
+  @Override
+  public EntityStream<ByteString> encodeMap(DataMap map, EncodingProjection projection)
+  {
+    JacksonLICORDataEncoder encoder =
+        new JacksonLICORDataEncoder(map, projection, _bufferSize, _useBinary, _symbolTable);
+    return EntityStreams.newEntityStream(encoder);
+  }
+
   @Override
   public EntityStream<ByteString> encodeList(DataList list)
   {
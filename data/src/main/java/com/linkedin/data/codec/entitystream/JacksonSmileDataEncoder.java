@@ -53,4 +53,10 @@ public class JacksonSmileDataEncoder extends AbstractJacksonDataEncoder implemen
   {
     super(smileFactory, dataList, bufferSize);
   }
+
+  public JacksonSmileDataEncoder(SmileFactory smileFactory, DataMap dataMap, EncodingProjection projection,
+      int bufferSize)
+  {
+    super(smileFactory, dataMap, projection, bufferSize);
+  }
 }
@@ -79,6 +79,18 @@ public class JacksonSmileStreamDataCodec implements StreamDataCodec
     return EntityStreams.newEntityStream(new JacksonSmileDataEncoder(_smileFactory, map, _bufferSize));
   }
 
+  @Override
+  public boolean supportsEncodingProjection()
+  {
+    return true;
+  }
+
+  @Override
+  public EntityStream<ByteString> encodeMap(DataMap map, EncodingProjection projection)
+  {
+    return EntityStreams.newEntityStream(new JacksonSmileDataEncoder(_smileFactory, map, projection, _bufferSize));
+  }
+
   @Override
   public EntityStream<ByteString> encodeList(DataList list)
   {
@@ -72,6 +72,19 @@ public class JacksonStreamDataCodec implements StreamDataCodec
     return EntityStreams.newEntityStream(encoder);
   }
 
+  @Override
+  public boolean supportsEncodingProjection()
+  {
+    return true;
+  }
+
+  @Override
+  public EntityStream<ByteString> encodeMap(DataMap map, EncodingProjection projection)
+  {
+    JacksonJsonDataEncoder encoder = new JacksonJsonDataEncoder(_jsonFactory, map, projection, _bufferSize);
+    return EntityStreams.newEntityStream(encoder);
+  }
+
   @Override
   public EntityStream<ByteString> encodeList(DataList list)
   {
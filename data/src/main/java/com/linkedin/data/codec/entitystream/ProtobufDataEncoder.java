@@ -64,6 +64,13 @@ public class ProtobufDataEncoder extends AbstractDataEncoder
     _options = options;
   }
 
+  public ProtobufDataEncoder(DataMap dataMap, EncodingProjection projection, int bufferSize,
+      ProtobufCodecOptions options)
+  {
+    super(dataMap, projection, bufferSize);
+    _options = options;
+  }
+
   @Override
   protected Data.TraverseCallback createTraverseCallback(OutputStream out) throws IOException
   {
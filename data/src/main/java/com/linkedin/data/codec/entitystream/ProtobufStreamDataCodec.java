@@ -71,6 +71,18 @@ public class ProtobufStreamDataCodec implements StreamDataCodec
     return EntityStreams.newEntityStream(new ProtobufDataEncoder(map, _bufferSize, _options));
   }
 
+  @Override
+  public boolean supportsEncodingProjection()
+  {
+    return true;
+  }
+
+  @Override
+  public EntityStream<ByteString> encodeMap(DataMap map, EncodingProjection projection)
+  {
+    return EntityStreams.newEntityStream(new ProtobufDataEncoder(map, projection, _bufferSize, _options));
+  }
+
   @Override
   public EntityStream<ByteString> encodeList(DataList list)
   {
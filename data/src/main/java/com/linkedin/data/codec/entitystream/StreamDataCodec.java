@@ -50,6 +50,31 @@ public interface StreamDataCodec
    */
   EntityStream<ByteString> encodeMap(DataMap map);
 
+  /**
+   * @return true if the codec supports {@link #encodeMap(DataMap, EncodingProjection)} with a projection. The codecs
+   *         in this package all support it.
+   */
+  default boolean supportsEncodingProjection()
+  {
+    return false;
+  }
+
+  /**
+   * Encodes a <code>DataMap</code> to an <code>EntityStream</code>, writing only the parts of it selected by the
+   * projection.
+   *
+   * @throws UnsupportedOperationException if a projection is given and the codec does not support it, see
+   *         {@link #supportsEncodingProjection()}.
+   */
+  default EntityStream<ByteString> encodeMap(DataMap map, EncodingProjection projection)
+  {
+    if (projection == null)
+    {
+      return encodeMap(map);
+    }
+    throw new UnsupportedOperationException(getClass().getName() + " does not support projected encoding");
+  }
+
   /**
    * Encodes a <code>DataList</code> to an <code>EntityStream</code>.
    */
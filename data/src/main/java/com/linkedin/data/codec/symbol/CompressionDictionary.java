@@ -0,0 +1,109 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.symbol;
+
+import com.linkedin.data.ByteString;
+import java.util.Objects;
+
+
+/**
+ * A named, pre-trained compression dictionary (eg: a zstd dictionary built from sampled responses) that is shared
+ * between a service and its clients in the same way as a {@link SymbolTable}.
+ *
+ * <p>The name follows the same format as symbol table names, so that clients can locate the service that serves the
+ * dictionary using {@link SymbolTableMetadataExtractor}. All nodes of a cluster serving the same dictionary give it
+ * the same local name, see {@link #getLocalName(String)}.</p>
+ */
+public final class CompressionDictionary
+{
+  private static final SymbolTableMetadataExtractor METADATA_EXTRACTOR = new SymbolTableMetadataExtractor();
+
+  private final String _name;
+  private final ByteString _data;
+
+  public CompressionDictionary(String name, ByteString data)
+  {
+    _name = Objects.requireNonNull(name, "name");
+    _data = Objects.requireNonNull(data, "data");
+  }
+
+  /**
+   * @return The name of this dictionary.
+   */
+  public String getName()
+  {
+    return _name;
+  }
+
+  /**
+   * @return The name of this dictionary without the URI of the server node serving it.
+   */
+  public String getLocalName()
+  {
+    return getLocalName(_name);
+  }
+
+  /**
+   * Strips the server node URI from a dictionary name, so that the same dictionary served by different nodes of a
+   * cluster can be matched and cached once.
+   *
+   * @param name The full dictionary name.
+   *
+   * @return The dictionary name without the server node URI.
+   *
+   * @throws RuntimeException if the name is malformed.
+   */
+  public static String getLocalName(String name)
+  {
+    return METADATA_EXTRACTOR.extractMetadata(name).getSymbolTableName();
+  }
+
+  /**
+   * @return The raw dictionary content.
+   */
+  public ByteString getData()
+  {
+    return _data;
+  }
+
+  @Override
+  public boolean equals(Object o)
+  {
+    if (this == o)
+    {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass())
+    {
+      return false;
+    }
+    CompressionDictionary that = (CompressionDictionary) o;
+    return _name.equals(that._name) && _data.equals(that._data);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    return Objects.hash(_name, _data);
+  }
+
+  @Override
+  public String toString()
+  {
+    return "CompressionDictionary{" + "_name='" + _name + '\'' + ", _size=" + _data.length() + '}';
+  }
+}
@@ -18,6 +18,7 @@ package com.linkedin.data.codec.symbol;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.linkedin.data.ByteString;
 import com.linkedin.data.codec.ProtobufCodecOptions;
 import com.linkedin.data.codec.ProtobufDataCodec;
 import java.io.IOException;
@@ -52,6 +53,16 @@ public class DefaultSymbolTableProvider implements SymbolTableProvider
    */
   private static final String SYMBOL_TABLE_HEADER = "x-restli-symbol-table-request";
 
+  /**
+   * Compression dictionary request header
+   */
+  private static final String COMPRESSION_DICTIONARY_HEADER = "x-restli-compression-dictionary-request";
+
+  /**
+   * Content type of compression dictionaries
+   */
+  private static final String OCTET_STREAM = "application/octet-stream";
+
   /**
    * Logger.
    */
@@ -78,6 +89,11 @@ public class DefaultSymbolTableProvider implements SymbolTableProvider
    */
   private final Cache<String, SymbolTable> _cache;
 
+  /**
+   * Cache storing mapping from compression dictionary name to compression dictionary.
+   */
+  private final Cache<String, CompressionDictionary> _dictionaryCache;
+
   /**
    * Set the overridden SSL socket factory.
    */
@@ -91,6 +107,7 @@ public class DefaultSymbolTableProvider implements SymbolTableProvider
   DefaultSymbolTableProvider()
   {
     _cache = Caffeine.newBuilder().maximumSize(1000).build();
+    _dictionaryCache = Caffeine.newBuilder().maximumSize(100).build();
   }
 
   /**
@@ -110,6 +127,23 @@ public class DefaultSymbolTableProvider implements SymbolTableProvider
     }
   }
 
+  /**
+   * Inject a local compression dictionary into the compression dictionary cache.
+   *
+   * @param dictionary The compression dictionary to inject.
+   */
+  public void injectLocalCompressionDictionary(CompressionDictionary dictionary)
+  {
+    if (dictionary != null)
+    {
+      _dictionaryCache.put(dictionary.getName(), dictionary);
+    }
+    else
+    {
+      LOGGER.error("Cannot inject null local compression dictionary");
+    }
+  }
+
   @Override
   public SymbolTable getSymbolTable(String symbolTableName)
   {
@@ -174,6 +208,71 @@ public class DefaultSymbolTableProvider implements SymbolTableProvider
     throw new IllegalStateException("Unable to fetch symbol table with name: " + symbolTableName);
   }
 
+  @Override
+  public CompressionDictionary getCompressionDictionary(String dictionaryName)
+  {
+    try
+    {
+      SymbolTableMetadata metadata = METADATA_EXTRACTOR.extractMetadata(dictionaryName);
+      String serverNodeUri = metadata.getServerNodeUri();
+      String localName = metadata.getSymbolTableName();
+      boolean isRemote = metadata.isRemote();
+
+      // First check the cache.
+      CompressionDictionary dictionary = _dictionaryCache.getIfPresent(localName);
+      if (dictionary != null)
+      {
+        return dictionary;
+      }
+
+      // If this is not a remote dictionary, and we didn't find it in the cache, cry foul.
+      if (!isRemote)
+      {
+        throw new IllegalStateException("Unable to fetch compression dictionary with name: " + dictionaryName);
+      }
+
+      // Dictionaries are served from the same path as symbol tables, and are told apart by the request header.
+      String url = serverNodeUri + "/" + SYMBOL_TABLE_URI_PATH + "/" + localName;
+      HttpURLConnection connection = openConnection(url);
+      try
+      {
+        connection.setRequestProperty(ACCEPT_HEADER, OCTET_STREAM);
+        connection.setRequestProperty(COMPRESSION_DICTIONARY_HEADER, Boolean.toString(true));
+        int responseCode = connection.getResponseCode();
+
+        if (responseCode == HttpURLConnection.HTTP_OK)
+        {
+          try (InputStream inputStream = connection.getInputStream())
+          {
+            dictionary = new CompressionDictionary(localName, ByteString.read(inputStream));
+          }
+        }
+        else
+        {
+          throw new IOException("Unexpected response status: " + responseCode);
+        }
+      }
+      finally
+      {
+        connection.disconnect();
+      }
+
+      // Cache the retrieved dictionary.
+      _dictionaryCache.put(localName, dictionary);
+      return dictionary;
+    }
+    catch (MalformedURLException ex)
+    {
+      LOGGER.error("Failed to construct compression dictionary URL from name: " + dictionaryName, ex);
+    }
+    catch (Exception e)
+    {
+      LOGGER.error("Failed to fetch remote compression dictionary with name: " + dictionaryName, e);
+    }
+
+    throw new IllegalStateException("Unable to fetch compression dictionary with name: " + dictionaryName);
+  }
+
   HttpURLConnection openConnection(String url) throws IOException
   {
     HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
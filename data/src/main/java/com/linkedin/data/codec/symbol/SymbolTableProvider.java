@@ -21,7 +21,7 @@ import java.util.Map;
 
 
 /**
- * An abstraction to manage shared symbol tables keyed by name.
+ * An abstraction to manage shared symbol tables and compression dictionaries keyed by name.
  */
 public interface SymbolTableProvider {
 
@@ -64,4 +64,29 @@ public interface SymbolTableProvider {
   {
     return null;
   }
+
+  /**
+   * Get the compression dictionary with the given name.
+   *
+   * @param dictionaryName The name of the compression dictionary to lookup.
+   *
+   * @return The compression dictionary if found, null otherwise.
+   */
+  default CompressionDictionary getCompressionDictionary(String dictionaryName)
+  {
+    throw new IllegalStateException("Not configured to fetch compression dictionary with name: " + dictionaryName);
+  }
+
+  /**
+   * Get the compression dictionary to use for compressing the response.
+   *
+   * @param requestUri     The request URI.
+   * @param requestHeaders The request headers.
+   *
+   * @return The compression dictionary if found, null otherwise.
+   */
+  default CompressionDictionary getResponseCompressionDictionary(URI requestUri, Map<String, String> requestHeaders)
+  {
+    return null;
+  }
 }
@@ -31,8 +31,9 @@ import java.util.function.Consumer;
  * keys and values being stored into the {@link CheckedList}.
  * <p>
  *
- * The underlying list implementation is {@link ArrayList}. It delegates
- * list operations to the underlying [@link ArrayList} associated
+ * The underlying list implementation is {@link ArrayList}, unless a
+ * {@link PrimitiveList} is provided at construction. It delegates
+ * list operations to the underlying list associated
  * with this {@link CheckedList}.
  * <p>
  *
@@ -116,6 +117,21 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
     _list = new InternalList<E>(initialCapacity);
   }
 
+  /**
+   * Construct a new list that stores its elements in the specified {@link PrimitiveList},
+   * with the specified {@link ListChecker}.
+   *
+   * @param list provides the {@link PrimitiveList} that stores the elements.
+   * @param checker provides the {@link ListChecker}.
+   */
+  @SuppressWarnings("unchecked")
+  protected CheckedList(PrimitiveList list, ListChecker<E> checker)
+  {
+    _checker = checker;
+    _list = (List<E>) (List<?>) list;
+    checkAll(_list);
+  }
+
   @Override
   public boolean add(E e)
   {
@@ -160,7 +176,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   public CheckedList<E> clone() throws CloneNotSupportedException
   {
     CheckedList<E> o = (CheckedList<E>) super.clone();
-    o._list = (InternalList<E>) _list.clone();
+    o._list = (_list instanceof PrimitiveList) ? (List<E>) ((PrimitiveList) _list).clone() : (InternalList<E>) ((InternalList<E>) _list).clone();
     o._readOnly = false;
     return o;
   }
@@ -245,7 +261,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   public void removeRange(int fromIndex, int toIndex)
   {
     checkMutability();
-    _list.removeRange(fromIndex, toIndex);
+    _list.subList(fromIndex, toIndex).clear();
   }
 
   @Override
@@ -368,7 +384,20 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
     return setWithoutChecking(index, element);
   }
 
-  private final void checkMutability()
+  /**
+   * Returns the {@link PrimitiveList} that stores the elements of this list.
+   *
+   * @return the {@link PrimitiveList} if this list was constructed with one, otherwise null.
+   */
+  protected final PrimitiveList getPrimitiveList()
+  {
+    return (_list instanceof PrimitiveList) ? (PrimitiveList) _list : null;
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the list is read-only.
+   */
+  protected final void checkMutability()
   {
     if (_readOnly)
     {
@@ -432,14 +461,9 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
     {
       super(initialCapacity);
     }
-    @Override
-    public void removeRange(int fromIndex, int toIndex)
-    {
-      super.removeRange(fromIndex, toIndex);
-    }
   }
 
   protected ListChecker<E> _checker;
   private boolean _readOnly = false;
-  private InternalList<E> _list;
+  private List<E> _list;
 }
@@ -47,6 +47,10 @@ import java.util.function.Consumer;
  * to release its reference the underlying {@link HashMap}.
  * <p>
  *
+ * The entries of a {@link CheckedMap} may also be supplied lazily by a
+ * {@link MapLoader}, in which case they are loaded on first access.
+ * <p>
+ *
  * The {@link #entrySet}, {@link #keySet} and {@link #values}
  * methods return unmodifiable set and collection views.
  *
@@ -159,6 +163,22 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
     _map = new HashMap<>(initialCapacity, loadFactor);
   }
 
+  /**
+   * Construct a map whose entries are provided by the specified {@link MapLoader} on first access.
+   * <p>
+   *
+   * Any operation on the map, including reads, loads the entries first. Loading is thread safe, so a
+   * lazily populated map that is read-only may be read concurrently like any other read-only map.
+   *
+   * @param loader provides the entries of the new map.
+   * @param checker provides the {@link MapChecker}.
+   */
+  protected CheckedMap(MapLoader<K,V> loader, MapChecker<K,V> checker)
+  {
+    _checker = checker;
+    _loader = loader;
+  }
+
   @Override
   public void clear()
   {
@@ -168,7 +188,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
     {
       keys = new HashSet<>(keySet());
     }
-    _map.clear();
+    map().clear();
     if (keys != null)
     {
       notifyChangeListenersOnClear(keys);
@@ -180,7 +200,8 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap<K,V> clone() throws CloneNotSupportedException
   {
     CheckedMap<K,V> o = (CheckedMap<K,V>) super.clone();
-    o._map = (HashMap<K,V>) _map.clone();
+    o._map = (HashMap<K,V>) map().clone();
+    o._loader = null;
     o._readOnly = false;
     o._changeListenerHead = null;
     o._changeListenerReferenceQueue = null;
@@ -190,13 +211,13 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   @Override
   public boolean containsKey(Object key)
   {
-    return _map.containsKey(key);
+    return map().containsKey(key);
   }
 
   @Override
   public boolean containsValue(Object value)
   {
-    return _map.containsValue(value);
+    return map().containsValue(value);
   }
 
   /**
@@ -207,31 +228,31 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   @Override
   public Set<java.util.Map.Entry<K, V>> entrySet()
   {
-    return Collections.unmodifiableMap(_map).entrySet();
+    return Collections.unmodifiableMap(map()).entrySet();
   }
 
   @Override
   public boolean equals(Object object)
   {
-    return _map.equals(object);
+    return map().equals(object);
   }
 
   @Override
   public V get(Object key)
   {
-    return _map.get(key);
+    return map().get(key);
   }
 
   @Override
   public int hashCode()
   {
-    return _map.hashCode();
+    return map().hashCode();
   }
 
   @Override
   public boolean isEmpty()
   {
-    return _map.isEmpty();
+    return map().isEmpty();
   }
 
   /**
@@ -242,7 +263,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   @Override
   public Set<K> keySet()
   {
-    return Collections.unmodifiableSet(_map.keySet());
+    return Collections.unmodifiableSet(map().keySet());
   }
 
   @Override
@@ -250,7 +271,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     checkKeyValue(key, value);
     checkMutability();
-    V oldValue = _map.put(key, value);
+    V oldValue = map().put(key, value);
     notifyChangeListenersOnPut(key, value);
     return oldValue;
   }
@@ -260,7 +281,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     checkAll(m);
     checkMutability();
-    _map.putAll(m);
+    map().putAll(m);
     notifyChangeListenersOnPutAll(m);
   }
 
@@ -269,7 +290,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public V remove(Object key)
   {
     checkMutability();
-    V oldValue = _map.remove(key);
+    V oldValue = map().remove(key);
 
     if (!(oldValue == null || oldValue == Data.NULL))
     {
@@ -282,19 +303,19 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   @Override
   public String toString()
   {
-    return _map.toString();
+    return map().toString();
   }
 
   @Override
   public void forEach(BiConsumer<? super K, ? super V> action)
   {
-    _map.forEach(action);
+    map().forEach(action);
   }
 
   @Override
   public int size()
   {
-    return _map.size();
+    return map().size();
   }
 
   /**
@@ -305,7 +326,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   @Override
   public Collection<V> values()
   {
-    return Collections.unmodifiableCollection(_map.values());
+    return Collections.unmodifiableCollection(map().values());
   }
 
   @Override
@@ -324,6 +345,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public void invalidate()
   {
     _map = null;
+    _loader = null;
   }
 
   private final void checkMutability()
@@ -398,7 +420,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   protected V putWithoutChecking(K key, V value)
   {
     checkMutability();
-    V oldValue = _map.put(key, value);
+    V oldValue = map().put(key, value);
     notifyChangeListenersOnPut(key, value);
     return oldValue;
   }
@@ -424,7 +446,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     checkMutability();
     assert(assertCheckKeyValue(key, value)) : "Check is failed";
-    return _map.put(key, value);
+    return map().put(key, value);
   }
 
   /**
@@ -435,7 +457,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   protected void putAllWithoutChecking(Map<? extends K, ? extends V> src)
   {
     checkMutability();
-    _map.putAll(src);
+    map().putAll(src);
     notifyChangeListenersOnPutAll(src);
   }
 
@@ -452,6 +474,28 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
    */
   protected final Map<K,V> getObject()
   {
+    return map();
+  }
+
+  /**
+   * Returns the underlying map, loading it first if this map is lazily populated and not loaded yet.
+   */
+  private HashMap<K,V> map()
+  {
+    MapLoader<K,V> loader = _loader;
+    if (loader != null)
+    {
+      // Lock on the loader rather than on this map, which callers may lock on themselves.
+      synchronized (loader)
+      {
+        if (_loader == loader)
+        {
+          _map = loader.load().map();
+          // Clearing the volatile loader publishes the loaded map to the threads that see it cleared.
+          _loader = null;
+        }
+      }
+    }
     return _map;
   }
 
@@ -583,6 +627,8 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   // to purge change listeners of stale entries.
   private ReferenceQueue<ChangeListener<K, V>> _changeListenerReferenceQueue;
   private HashMap<K,V> _map;
+  // Non-null until the entries of a lazily populated map are loaded.
+  private volatile MapLoader<K,V> _loader;
 
   /**
    * A singly-linked list node that holds weak references to objects.
@@ -0,0 +1,33 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+/**
+ * Supplies the entries of a lazily populated {@link CheckedMap}, see
+ * {@link CheckedMap#CheckedMap(MapLoader, MapChecker)}.
+ */
+@FunctionalInterface
+public interface MapLoader<K,V>
+{
+  /**
+   * Load the entries. This is invoked at most once, on the first access to the lazily populated map.
+   *
+   * @return a map holding the entries. Its entries are adopted without being checked or copied,
+   *         so the returned map must not be used afterwards.
+   */
+  CheckedMap<K,V> load();
+}
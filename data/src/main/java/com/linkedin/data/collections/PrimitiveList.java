@@ -0,0 +1,815 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+
+/**
+ * A list of numbers stored unboxed in a primitive array.
+ * <p>
+ *
+ * Elements are boxed lazily when accessed through the {@link java.util.List} interface,
+ * and the typed accessors such as {@link #getInt(int)} and {@link #toIntArray()} avoid
+ * boxing altogether when they match the primitive type of the list.
+ * <p>
+ *
+ * The list accepts any element. When an element that does not match its primitive type
+ * is stored, the list permanently switches to storing boxed elements in an {@link ArrayList},
+ * so it behaves exactly like the default storage of a {@link CheckedList}.
+ * <p>
+ *
+ * Instances are created through {@link #newIntList(int)}, {@link #newLongList(int)},
+ * {@link #newFloatList(int)} and {@link #newDoubleList(int)}.
+ */
+public abstract class PrimitiveList extends AbstractList<Object> implements RandomAccess, Cloneable
+{
+  /**
+   * Create an empty list that stores {@link Integer}s as ints.
+   *
+   * @param initialCapacity provides the initial capacity.
+   * @return the new list.
+   */
+  public static PrimitiveList newIntList(int initialCapacity)
+  {
+    return new IntList(initialCapacity);
+  }
+
+  /**
+   * Create an empty list that stores {@link Long}s as longs.
+   *
+   * @param initialCapacity provides the initial capacity.
+   * @return the new list.
+   */
+  public static PrimitiveList newLongList(int initialCapacity)
+  {
+    return new LongList(initialCapacity);
+  }
+
+  /**
+   * Create an empty list that stores {@link Float}s as floats.
+   *
+   * @param initialCapacity provides the initial capacity.
+   * @return the new list.
+   */
+  public static PrimitiveList newFloatList(int initialCapacity)
+  {
+    return new FloatList(initialCapacity);
+  }
+
+  /**
+   * Create an empty list that stores {@link Double}s as doubles.
+   *
+   * @param initialCapacity provides the initial capacity.
+   * @return the new list.
+   */
+  public static PrimitiveList newDoubleList(int initialCapacity)
+  {
+    return new DoubleList(initialCapacity);
+  }
+
+  private PrimitiveList()
+  {
+  }
+
+  /**
+   * @return the boxed class of the elements stored in the primitive array, such as {@link Integer}.
+   */
+  public abstract Class<? extends Number> getElementClass();
+
+  /**
+   * @return true if the elements are still stored in a primitive array, false if the list
+   *         has switched to storing boxed elements.
+   */
+  public final boolean isPrimitive()
+  {
+    return _objects == null;
+  }
+
+  @Override
+  public final int size()
+  {
+    return _objects == null ? _size : _objects.size();
+  }
+
+  @Override
+  public final Object get(int index)
+  {
+    if (_objects != null)
+    {
+      return _objects.get(index);
+    }
+    checkIndex(index);
+    return box(index);
+  }
+
+  @Override
+  public final Object set(int index, Object element)
+  {
+    if (_objects == null && !accepts(element))
+    {
+      inflate();
+    }
+    if (_objects != null)
+    {
+      return _objects.set(index, element);
+    }
+    checkIndex(index);
+    Object previous = box(index);
+    store(index, element);
+    return previous;
+  }
+
+  @Override
+  public final boolean add(Object element)
+  {
+    add(size(), element);
+    return true;
+  }
+
+  @Override
+  public final void add(int index, Object element)
+  {
+    modCount++;
+    if (_objects == null && !accepts(element))
+    {
+      inflate();
+    }
+    if (_objects != null)
+    {
+      _objects.add(index, element);
+      return;
+    }
+    if (index > _size || index < 0)
+    {
+      throw new IndexOutOfBoundsException(outOfBoundsMessage(index));
+    }
+    ensureCapacity(_size + 1);
+    if (index < _size)
+    {
+      move(index, index + 1, _size - index);
+    }
+    store(index, element);
+    _size++;
+  }
+
+  @Override
+  public final Object remove(int index)
+  {
+    modCount++;
+    if (_objects != null)
+    {
+      return _objects.remove(index);
+    }
+    checkIndex(index);
+    Object previous = box(index);
+    int numMoved = _size - index - 1;
+    if (numMoved > 0)
+    {
+      move(index + 1, index, numMoved);
+    }
+    _size--;
+    return previous;
+  }
+
+  @Override
+  public final void clear()
+  {
+    modCount++;
+    if (_objects != null)
+    {
+      _objects.clear();
+    }
+    _size = 0;
+  }
+
+  @Override
+  protected final void removeRange(int fromIndex, int toIndex)
+  {
+    modCount++;
+    if (_objects != null)
+    {
+      _objects.subList(fromIndex, toIndex).clear();
+      return;
+    }
+    move(toIndex, fromIndex, _size - toIndex);
+    _size -= toIndex - fromIndex;
+  }
+
+  /**
+   * @param index of the element to return.
+   * @return the element at the specified position converted to an int.
+   * @throws ClassCastException if the element is not a {@link Number}.
+   */
+  public int getInt(int index)
+  {
+    return ((Number) get(index)).intValue();
+  }
+
+  /**
+   * @param index of the element to return.
+   * @return the element at the specified position converted to a long.
+   * @throws ClassCastException if the element is not a {@link Number}.
+   */
+  public long getLong(int index)
+  {
+    return ((Number) get(index)).longValue();
+  }
+
+  /**
+   * @param index of the element to return.
+   * @return the element at the specified position converted to a float.
+   * @throws ClassCastException if the element is not a {@link Number}.
+   */
+  public float getFloat(int index)
+  {
+    return ((Number) get(index)).floatValue();
+  }
+
+  /**
+   * @param index of the element to return.
+   * @return the element at the specified position converted to a double.
+   * @throws ClassCastException if the element is not a {@link Number}.
+   */
+  public double getDouble(int index)
+  {
+    return ((Number) get(index)).doubleValue();
+  }
+
+  /**
+   * Append an int, without boxing it if this list stores ints.
+   *
+   * @param value provides the value to append.
+   */
+  public void addInt(int value)
+  {
+    add(value);
+  }
+
+  /**
+   * Append a long, without boxing it if this list stores longs.
+   *
+   * @param value provides the value to append.
+   */
+  public void addLong(long value)
+  {
+    add(value);
+  }
+
+  /**
+   * Append a float, without boxing it if this list stores floats.
+   *
+   * @param value provides the value to append.
+   */
+  public void addFloat(float value)
+  {
+    add(value);
+  }
+
+  /**
+   * Append a double, without boxing it if this list stores doubles.
+   *
+   * @param value provides the value to append.
+   */
+  public void addDouble(double value)
+  {
+    add(value);
+  }
+
+  /**
+   * @return a new array with all the elements converted to ints.
+   * @throws ClassCastException if an element is not a {@link Number}.
+   */
+  public int[] toIntArray()
+  {
+    int[] array = new int[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = getInt(i);
+    }
+    return array;
+  }
+
+  /**
+   * @return a new array with all the elements converted to longs.
+   * @throws ClassCastException if an element is not a {@link Number}.
+   */
+  public long[] toLongArray()
+  {
+    long[] array = new long[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = getLong(i);
+    }
+    return array;
+  }
+
+  /**
+   * @return a new array with all the elements converted to floats.
+   * @throws ClassCastException if an element is not a {@link Number}.
+   */
+  public float[] toFloatArray()
+  {
+    float[] array = new float[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = getFloat(i);
+    }
+    return array;
+  }
+
+  /**
+   * @return a new array with all the elements converted to doubles.
+   * @throws ClassCastException if an element is not a {@link Number}.
+   */
+  public double[] toDoubleArray()
+  {
+    double[] array = new double[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = getDouble(i);
+    }
+    return array;
+  }
+
+  @Override
+  public PrimitiveList clone() throws CloneNotSupportedException
+  {
+    PrimitiveList o = (PrimitiveList) super.clone();
+    if (_objects != null)
+    {
+      o._objects = new ArrayList<>(_objects);
+    }
+    o.modCount = 0;
+    return o;
+  }
+
+  /**
+   * @return true if the element can be stored in the primitive array.
+   */
+  abstract boolean accepts(Object element);
+
+  /**
+   * @return the boxed element of the primitive array at the specified position.
+   */
+  abstract Object box(int index);
+
+  /**
+   * Store an element accepted by {@link #accepts(Object)} in the primitive array.
+   */
+  abstract void store(int index, Object element);
+
+  abstract int capacity();
+
+  abstract void resize(int capacity);
+
+  abstract void move(int srcIndex, int destIndex, int length);
+
+  /**
+   * Release the primitive array once the elements have been moved to boxed storage.
+   */
+  abstract void release();
+
+  final void ensureCapacity(int minCapacity)
+  {
+    int capacity = capacity();
+    if (minCapacity > capacity)
+    {
+      resize(Math.max(minCapacity, capacity + (capacity >> 1) + 1));
+    }
+  }
+
+  final void checkIndex(int index)
+  {
+    if (index >= _size || index < 0)
+    {
+      throw new IndexOutOfBoundsException(outOfBoundsMessage(index));
+    }
+  }
+
+  private String outOfBoundsMessage(int index)
+  {
+    return "Index: " + index + ", Size: " + _size;
+  }
+
+  private void inflate()
+  {
+    ArrayList<Object> objects = new ArrayList<>(Math.max(capacity(), _size + 1));
+    for (int i = 0; i < _size; i++)
+    {
+      objects.add(box(i));
+    }
+    release();
+    _size = 0;
+    _objects = objects;
+  }
+
+  private static final class IntList extends PrimitiveList
+  {
+    private IntList(int initialCapacity)
+    {
+      _elements = new int[initialCapacity];
+    }
+
+    @Override
+    public int getInt(int index)
+    {
+      if (_objects != null)
+      {
+        return super.getInt(index);
+      }
+      checkIndex(index);
+      return _elements[index];
+    }
+
+    @Override
+    public void addInt(int value)
+    {
+      if (_objects != null)
+      {
+        super.addInt(value);
+        return;
+      }
+      modCount++;
+      ensureCapacity(_size + 1);
+      _elements[_size++] = value;
+    }
+
+    @Override
+    public int[] toIntArray()
+    {
+      return _objects != null ? super.toIntArray() : Arrays.copyOf(_elements, _size);
+    }
+
+    @Override
+    public Class<? extends Number> getElementClass()
+    {
+      return Integer.class;
+    }
+
+    @Override
+    public IntList clone() throws CloneNotSupportedException
+    {
+      IntList o = (IntList) super.clone();
+      o._elements = Arrays.copyOf(_elements, _size);
+      return o;
+    }
+
+    @Override
+    boolean accepts(Object element)
+    {
+      return element instanceof Integer;
+    }
+
+    @Override
+    Object box(int index)
+    {
+      return _elements[index];
+    }
+
+    @Override
+    void store(int index, Object element)
+    {
+      _elements[index] = (Integer) element;
+    }
+
+    @Override
+    int capacity()
+    {
+      return _elements.length;
+    }
+
+    @Override
+    void resize(int capacity)
+    {
+      _elements = Arrays.copyOf(_elements, capacity);
+    }
+
+    @Override
+    void move(int srcIndex, int destIndex, int length)
+    {
+      System.arraycopy(_elements, srcIndex, _elements, destIndex, length);
+    }
+
+    @Override
+    void release()
+    {
+      _elements = EMPTY_INTS;
+    }
+
+    private int[] _elements;
+  }
+
+  private static final class LongList extends PrimitiveList
+  {
+    private LongList(int initialCapacity)
+    {
+      _elements = new long[initialCapacity];
+    }
+
+    @Override
+    public long getLong(int index)
+    {
+      if (_objects != null)
+      {
+        return super.getLong(index);
+      }
+      checkIndex(index);
+      return _elements[index];
+    }
+
+    @Override
+    public void addLong(long value)
+    {
+      if (_objects != null)
+      {
+        super.addLong(value);
+        return;
+      }
+      modCount++;
+      ensureCapacity(_size + 1);
+      _elements[_size++] = value;
+    }
+
+    @Override
+    public long[] toLongArray()
+    {
+      return _objects != null ? super.toLongArray() : Arrays.copyOf(_elements, _size);
+    }
+
+    @Override
+    public Class<? extends Number> getElementClass()
+    {
+      return Long.class;
+    }
+
+    @Override
+    public LongList clone() throws CloneNotSupportedException
+    {
+      LongList o = (LongList) super.clone();
+      o._elements = Arrays.copyOf(_elements, _size);
+      return o;
+    }
+
+    @Override
+    boolean accepts(Object element)
+    {
+      return element instanceof Long;
+    }
+
+    @Override
+    Object box(int index)
+    {
+      return _elements[index];
+    }
+
+    @Override
+    void store(int index, Object element)
+    {
+      _elements[index] = (Long) element;
+    }
+
+    @Override
+    int capacity()
+    {
+      return _elements.length;
+    }
+
+    @Override
+    void resize(int capacity)
+    {
+      _elements = Arrays.copyOf(_elements, capacity);
+    }
+
+    @Override
+    void move(int srcIndex, int destIndex, int length)
+    {
+      System.arraycopy(_elements, srcIndex, _elements, destIndex, length);
+    }
+
+    @Override
+    void release()
+    {
+      _elements = EMPTY_LONGS;
+    }
+
+    private long[] _elements;
+  }
+
+  private static final class FloatList extends PrimitiveList
+  {
+    private FloatList(int initialCapacity)
+    {
+      _elements = new float[initialCapacity];
+    }
+
+    @Override
+    public float getFloat(int index)
+    {
+      if (_objects != null)
+      {
+        return super.getFloat(index);
+      }
+      checkIndex(index);
+      return _elements[index];
+    }
+
+    @Override
+    public void addFloat(float value)
+    {
+      if (_objects != null)
+      {
+        super.addFloat(value);
+        return;
+      }
+      modCount++;
+      ensureCapacity(_size + 1);
+      _elements[_size++] = value;
+    }
+
+    @Override
+    public float[] toFloatArray()
+    {
+      return _objects != null ? super.toFloatArray() : Arrays.copyOf(_elements, _size);
+    }
+
+    @Override
+    public Class<? extends Number> getElementClass()
+    {
+      return Float.class;
+    }
+
+    @Override
+    public FloatList clone() throws CloneNotSupportedException
+    {
+      FloatList o = (FloatList) super.clone();
+      o._elements = Arrays.copyOf(_elements, _size);
+      return o;
+    }
+
+    @Override
+    boolean accepts(Object element)
+    {
+      return element instanceof Float;
+    }
+
+    @Override
+    Object box(int index)
+    {
+      return _elements[index];
+    }
+
+    @Override
+    void store(int index, Object element)
+    {
+      _elements[index] = (Float) element;
+    }
+
+    @Override
+    int capacity()
+    {
+      return _elements.length;
+    }
+
+    @Override
+    void resize(int capacity)
+    {
+      _elements = Arrays.copyOf(_elements, capacity);
+    }
+
+    @Override
+    void move(int srcIndex, int destIndex, int length)
+    {
+      System.arraycopy(_elements, srcIndex, _elements, destIndex, length);
+    }
+
+    @Override
+    void release()
+    {
+      _elements = EMPTY_FLOATS;
+    }
+
+    private float[] _elements;
+  }
+
+  private static final class DoubleList extends PrimitiveList
+  {
+    private DoubleList(int initialCapacity)
+    {
+      _elements = new double[initialCapacity];
+    }
+
+    @Override
+    public double getDouble(int index)
+    {
+      if (_objects != null)
+      {
+        return super.getDouble(index);
+      }
+      checkIndex(index);
+      return _elements[index];
+    }
+
+    @Override
+    public void addDouble(double value)
+    {
+      if (_objects != null)
+      {
+        super.addDouble(value);
+        return;
+      }
+      modCount++;
+      ensureCapacity(_size + 1);
+      _elements[_size++] = value;
+    }
+
+    @Override
+    public double[] toDoubleArray()
+    {
+      return _objects != null ? super.toDoubleArray() : Arrays.copyOf(_elements, _size);
+    }
+
+    @Override
+    public Class<? extends Number> getElementClass()
+    {
+      return Double.class;
+    }
+
+    @Override
+    public DoubleList clone() throws CloneNotSupportedException
+    {
+      DoubleList o = (DoubleList) super.clone();
+      o._elements = Arrays.copyOf(_elements, _size);
+      return o;
+    }
+
+    @Override
+    boolean accepts(Object element)
+    {
+      return element instanceof Double;
+    }
+
+    @Override
+    Object box(int index)
+    {
+      return _elements[index];
+    }
+
+    @Override
+    void store(int index, Object element)
+    {
+      _elements[index] = (Double) element;
+    }
+
+    @Override
+    int capacity()
+    {
+      return _elements.length;
+    }
+
+    @Override
+    void resize(int capacity)
+    {
+      _elements = Arrays.copyOf(_elements, capacity);
+    }
+
+    @Override
+    void move(int srcIndex, int destIndex, int length)
+    {
+      System.arraycopy(_elements, srcIndex, _elements, destIndex, length);
+    }
+
+    @Override
+    void release()
+    {
+      _elements = EMPTY_DOUBLES;
+    }
+
+    private double[] _elements;
+  }
+
+  private static final int[] EMPTY_INTS = new int[0];
+  private static final long[] EMPTY_LONGS = new long[0];
+  private static final float[] EMPTY_FLOATS = new float[0];
+  private static final double[] EMPTY_DOUBLES = new double[0];
+
+  int _size;
+  ArrayList<Object> _objects;
+}
@@ -58,6 +58,40 @@ public final class DoubleArray extends DirectArrayTemplate<Double>
     addAll(Arrays.asList(rest));
   }
 
+  /**
+   * Returns the element at the specified position as a primitive {@code double}. The element is not boxed
+   * if the underlying {@link DataList} has primitive storage.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   * @throws TemplateOutputCastException if the element cannot be coerced to a {@code double}.
+   */
+  public double getDouble(int index) throws TemplateOutputCastException
+  {
+    return _list.hasPrimitiveStorage() ? _list.getDouble(index) : get(index);
+  }
+
+  /**
+   * Returns the elements of this array as a primitive {@code double} array. The elements are not boxed
+   * if the underlying {@link DataList} has primitive storage.
+   *
+   * @return a new array containing the elements of this array.
+   * @throws TemplateOutputCastException if an element cannot be coerced to a {@code double}.
+   */
+  public double[] toDoubleArray() throws TemplateOutputCastException
+  {
+    if (_list.hasPrimitiveStorage())
+    {
+      return _list.toDoubleArray();
+    }
+    double[] array = new double[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = get(i);
+    }
+    return array;
+  }
+
   @Override
   public DoubleArray clone() throws CloneNotSupportedException
   {
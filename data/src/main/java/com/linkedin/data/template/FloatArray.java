@@ -58,6 +58,40 @@ public final class FloatArray extends DirectArrayTemplate<Float>
     addAll(Arrays.asList(rest));
   }
 
+  /**
+   * Returns the element at the specified position as a primitive {@code float}. The element is not boxed
+   * if the underlying {@link DataList} has primitive storage.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   * @throws TemplateOutputCastException if the element cannot be coerced to a {@code float}.
+   */
+  public float getFloat(int index) throws TemplateOutputCastException
+  {
+    return _list.hasPrimitiveStorage() ? _list.getFloat(index) : get(index);
+  }
+
+  /**
+   * Returns the elements of this array as a primitive {@code float} array. The elements are not boxed
+   * if the underlying {@link DataList} has primitive storage.
+   *
+   * @return a new array containing the elements of this array.
+   * @throws TemplateOutputCastException if an element cannot be coerced to a {@code float}.
+   */
+  public float[] toFloatArray() throws TemplateOutputCastException
+  {
+    if (_list.hasPrimitiveStorage())
+    {
+      return _list.toFloatArray();
+    }
+    float[] array = new float[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = get(i);
+    }
+    return array;
+  }
+
   @Override
   public FloatArray clone() throws CloneNotSupportedException
   {
@@ -50,6 +50,40 @@ public final class IntegerArray extends DirectArrayTemplate<Integer>
     super(list, SCHEMA, Integer.class, Integer.class);
   }
 
+  /**
+   * Returns the element at the specified position as a primitive {@code int}. The element is not boxed
+   * if the underlying {@link DataList} has primitive storage.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   * @throws TemplateOutputCastException if the element cannot be coerced to a {@code int}.
+   */
+  public int getInt(int index) throws TemplateOutputCastException
+  {
+    return _list.hasPrimitiveStorage() ? _list.getInt(index) : get(index);
+  }
+
+  /**
+   * Returns the elements of this array as a primitive {@code int} array. The elements are not boxed
+   * if the underlying {@link DataList} has primitive storage.
+   *
+   * @return a new array containing the elements of this array.
+   * @throws TemplateOutputCastException if an element cannot be coerced to a {@code int}.
+   */
+  public int[] toIntArray() throws TemplateOutputCastException
+  {
+    if (_list.hasPrimitiveStorage())
+    {
+      return _list.toIntArray();
+    }
+    int[] array = new int[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = get(i);
+    }
+    return array;
+  }
+
   @Override
   public IntegerArray clone() throws CloneNotSupportedException
   {
@@ -58,6 +58,40 @@ public final class LongArray extends DirectArrayTemplate<Long>
     addAll(Arrays.asList(rest));
   }
 
+  /**
+   * Returns the element at the specified position as a primitive {@code long}. The element is not boxed
+   * if the underlying {@link DataList} has primitive storage.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   * @throws TemplateOutputCastException if the element cannot be coerced to a {@code long}.
+   */
+  public long getLong(int index) throws TemplateOutputCastException
+  {
+    return _list.hasPrimitiveStorage() ? _list.getLong(index) : get(index);
+  }
+
+  /**
+   * Returns the elements of this array as a primitive {@code long} array. The elements are not boxed
+   * if the underlying {@link DataList} has primitive storage.
+   *
+   * @return a new array containing the elements of this array.
+   * @throws TemplateOutputCastException if an element cannot be coerced to a {@code long}.
+   */
+  public long[] toLongArray() throws TemplateOutputCastException
+  {
+    if (_list.hasPrimitiveStorage())
+    {
+      return _list.toLongArray();
+    }
+    long[] array = new long[size()];
+    for (int i = 0; i < array.length; i++)
+    {
+      array[i] = get(i);
+    }
+    return array;
+  }
+
   @Override
   public LongArray clone() throws CloneNotSupportedException
   {
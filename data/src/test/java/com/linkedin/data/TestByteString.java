@@ -171,6 +171,22 @@ public class TestByteString
     }
   }
 
+  @Test(dataProvider = "byteStrings")
+  public void testAsByteBuffers(byte[] bytes, ByteString bs)
+  {
+    final ByteString twoBs = cons(bs, bs);
+    final ByteBuffer[] buffers = twoBs.asByteBuffers();
+    Assert.assertEquals(buffers.length, twoBs.decompose().size());
+
+    final ByteBuffer actual = ByteBuffer.allocate(twoBs.length());
+    for (ByteBuffer buffer : buffers)
+    {
+      Assert.assertTrue(buffer.isReadOnly());
+      actual.put(buffer);
+    }
+    Assert.assertEquals(actual.array(), twoBs.copyBytes());
+  }
+
   @Test(dataProvider = "byteStrings")
   public void testAsInputStream(byte[] bytes, ByteString bs) throws IOException
   {
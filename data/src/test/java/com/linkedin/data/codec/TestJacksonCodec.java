@@ -48,6 +48,22 @@ public class TestJacksonCodec extends TestCodec
     testDataCodec(codec, dataComplex);
   }
 
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testJacksonDataCodecWithPrimitiveListStorage(String testName, DataComplex dataComplex) throws IOException
+  {
+    JacksonDataCodec codec = new JacksonDataCodec();
+    codec.setEnablePrimitiveListStorage(true);
+    testDataCodec(codec, dataComplex);
+
+    DataList ints = codec.bytesToList("[7,27,279]".getBytes());
+    assertTrue(ints.hasPrimitiveStorage());
+    assertEquals(ints.toIntArray(), new int[] { 7, 27, 279 });
+
+    DataList mixed = codec.bytesToList("[7,12345678901,\"a\"]".getBytes());
+    assertFalse(mixed.hasPrimitiveStorage());
+    assertEquals(mixed, new DataList(Arrays.asList(7, 12345678901L, "a")));
+  }
+
   @Test
   public void testJacksonDataCodec() throws IOException
   {
@@ -17,9 +17,13 @@
 package com.linkedin.data.codec;
 
 import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.symbol.InMemorySymbolTable;
 import com.linkedin.data.protobuf.Utf8Utils;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -40,6 +44,96 @@ public class TestProtobufCodec extends TestCodec
     testDataCodec(codec, dataComplex);
   }
 
+  @Test(dataProvider = "protobufCodecData", dataProviderClass = CodecDataProviders.class)
+  public void testProtobufDataCodecWithPrimitiveListStorage(String testName, DataComplex dataComplex,
+      boolean enableFixedLengthFloatDoubles) throws IOException
+  {
+    ProtobufDataCodec codec = new ProtobufDataCodec(
+        new ProtobufCodecOptions.Builder().setEnableASCIIOnlyStrings(true)
+            .setEnableFixedLengthFloatDoubles(enableFixedLengthFloatDoubles)
+            .setEnablePrimitiveListStorage(true)
+            .build());
+    testDataCodec(codec, dataComplex);
+  }
+
+  @Test
+  public void testPrimitiveListStorage() throws IOException
+  {
+    ProtobufDataCodec codec = new ProtobufDataCodec(
+        new ProtobufCodecOptions.Builder().setEnablePrimitiveListStorage(true).build());
+
+    DataList doubles = codec.bytesToList(codec.listToBytes(new DataList(Arrays.asList(1.5, 2.5, 3.5))));
+    Assert.assertTrue(doubles.hasPrimitiveStorage());
+    Assert.assertEquals(doubles.toDoubleArray(), new double[] { 1.5, 2.5, 3.5 });
+
+    DataList mixed = codec.bytesToList(codec.listToBytes(new DataList(Arrays.asList(1, 2L, "three"))));
+    Assert.assertFalse(mixed.hasPrimitiveStorage());
+    Assert.assertEquals(mixed, new DataList(Arrays.asList(1, 2L, "three")));
+  }
+
+  @Test(dataProvider = "protobufCodecData", dataProviderClass = CodecDataProviders.class)
+  public void testProtobufDataCodecWithLazyMapDecoding(String testName, DataComplex dataComplex,
+      boolean enableFixedLengthFloatDoubles) throws IOException
+  {
+    ProtobufDataCodec codec = new ProtobufDataCodec(
+        new ProtobufCodecOptions.Builder().setEnableASCIIOnlyStrings(true)
+            .setEnableFixedLengthFloatDoubles(enableFixedLengthFloatDoubles)
+            .setEnableLazyMapDecoding(true)
+            .build());
+    testDataCodec(codec, dataComplex);
+  }
+
+  @Test
+  public void testLazyMapDecoding() throws IOException
+  {
+    DataMap nested = new DataMap();
+    nested.put("symbol", 1);
+    DataMap map = new DataMap();
+    map.put("nested", nested);
+    map.put("list", new DataList(Arrays.asList(nested, "value")));
+
+    byte[] bytes = new ProtobufDataCodec(new ProtobufCodecOptions.Builder()
+        .setSymbolTable(new InMemorySymbolTable("encoder", Arrays.asList("nested", "symbol")))
+        .build()).mapToBytes(map);
+
+    // The decoder does not know about "symbol", which is only referenced from the nested maps.
+    ProtobufDataCodec codec = new ProtobufDataCodec(new ProtobufCodecOptions.Builder()
+        .setSymbolTable(new InMemorySymbolTable("decoder", Arrays.asList("nested")))
+        .setEnableLazyMapDecoding(true)
+        .build());
+    DataMap decoded = codec.bytesToMap(bytes);
+    Assert.assertEquals(decoded.size(), 2);
+    Assert.assertEquals(decoded.getDataList("list").get(1), "value");
+
+    try
+    {
+      decoded.getDataMap("nested").get("symbol");
+      Assert.fail("Expected UncheckedIOException");
+    }
+    catch (UncheckedIOException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof DataDecodingException);
+    }
+  }
+
+  @Test
+  public void testLazyMapDecodingDoesNotAliasInput() throws IOException
+  {
+    DataMap nested = new DataMap();
+    nested.put("key", "value");
+    DataMap map = new DataMap();
+    map.put("nested", nested);
+
+    ProtobufDataCodec codec =
+        new ProtobufDataCodec(new ProtobufCodecOptions.Builder().setEnableLazyMapDecoding(true).build());
+    byte[] bytes = codec.mapToBytes(map);
+    DataMap decoded = codec.bytesToMap(bytes);
+
+    // The nested map is not decoded yet, and must not see changes to the input.
+    Arrays.fill(bytes, (byte) 0);
+    Assert.assertEquals(decoded.getDataMap("nested"), nested);
+  }
+
   @Test(dataProvider = "surrogatePairData", dataProviderClass = CodecDataProviders.class)
   public void testSurrogatePairs(String value, String expectedString, int expectedLength,
       boolean isValidSurrogatePair, boolean tolerateInvalidSurrogatePairs) throws Exception
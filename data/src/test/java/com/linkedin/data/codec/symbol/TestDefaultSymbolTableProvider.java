@@ -105,4 +105,52 @@ public class TestDefaultSymbolTableProvider
     DefaultSymbolTableProvider provider = new DefaultSymbolTableProvider();
     provider.getSymbolTable("random");
   }
+
+  @Test
+  public void testRemoteCompressionDictionarySuccess() throws Exception
+  {
+    ByteString dictionaryData = ByteString.copy(new byte[] { 1, 2, 3, 4 });
+
+    HttpURLConnection connection = mock(HttpURLConnection.class);
+    DefaultSymbolTableProvider provider = spy(new DefaultSymbolTableProvider());
+    doReturn(connection).when(provider).openConnection(eq("https://someservice:100/symbolTable/dictionaryName"));
+    when(connection.getResponseCode()).thenReturn(200);
+    when(connection.getInputStream()).thenReturn(dictionaryData.asInputStream());
+
+    CompressionDictionary dictionary = provider.getCompressionDictionary("https://someservice:100|dictionaryName");
+    verify(connection).setRequestProperty(eq("x-restli-compression-dictionary-request"), eq("true"));
+    verify(connection).disconnect();
+    Assert.assertEquals(dictionary, new CompressionDictionary("dictionaryName", dictionaryData));
+
+    // Mock out the network to throw exceptions on any interactions.
+    doThrow(new RuntimeException()).when(provider).openConnection(anyString());
+
+    // Verify that the dictionary is in cache by retrieving it again.
+    Assert.assertEquals(provider.getCompressionDictionary("dictionaryName"), dictionary);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testRemoteCompressionDictionaryErrorResponseCode() throws Exception
+  {
+    HttpURLConnection connection = mock(HttpURLConnection.class);
+    DefaultSymbolTableProvider provider = spy(new DefaultSymbolTableProvider());
+    doReturn(connection).when(provider).openConnection(eq("https://someservice:100/symbolTable/dictionaryName"));
+    when(connection.getResponseCode()).thenReturn(404);
+    provider.getCompressionDictionary("https://someservice:100|dictionaryName");
+  }
+
+  @Test
+  public void testLocalCompressionDictionary()
+  {
+    DefaultSymbolTableProvider provider = new DefaultSymbolTableProvider();
+    CompressionDictionary dictionary = new CompressionDictionary("local", ByteString.copy(new byte[] { 1, 2 }));
+    provider.injectLocalCompressionDictionary(dictionary);
+    Assert.assertEquals(provider.getCompressionDictionary("local"), dictionary);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testLocalCompressionDictionaryFailure()
+  {
+    new DefaultSymbolTableProvider().getCompressionDictionary("random");
+  }
 }
@@ -18,6 +18,13 @@ package com.linkedin.data.collections;
 
 import com.linkedin.data.DataMap;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -80,4 +87,86 @@ public class TestCheckedMap
     });
     Assert.assertNull(map._changeListenerHead);
   }
+
+  @Test
+  public void testLazyMap() throws CloneNotSupportedException
+  {
+    AtomicInteger loads = new AtomicInteger();
+    DataMap map = DataMap.newLazyMap(() ->
+    {
+      loads.incrementAndGet();
+      DataMap entries = new DataMap();
+      entries.put("a", 1);
+      entries.put("b", "two");
+      return entries;
+    });
+    Assert.assertEquals(loads.get(), 0);
+
+    Assert.assertEquals(map.get("a"), 1);
+    Assert.assertEquals(map.size(), 2);
+    Assert.assertEquals(loads.get(), 1);
+
+    DataMap clone = map.clone();
+    clone.put("c", 3.0);
+    Assert.assertEquals(map.size(), 2);
+    Assert.assertEquals(clone.size(), 3);
+    Assert.assertEquals(loads.get(), 1);
+  }
+
+  @Test
+  public void testLazyMapConcurrentReads() throws Exception
+  {
+    AtomicInteger loads = new AtomicInteger();
+    DataMap map = DataMap.newLazyMap(() ->
+    {
+      loads.incrementAndGet();
+      DataMap entries = new DataMap();
+      for (int i = 0; i < 100; i++)
+      {
+        entries.put("key" + i, i);
+      }
+      return entries;
+    });
+    map.setReadOnly();
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try
+    {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> sizes = new ArrayList<>();
+      for (int i = 0; i < threads; i++)
+      {
+        sizes.add(executor.submit(() ->
+        {
+          start.await();
+          return map.size();
+        }));
+      }
+      start.countDown();
+      for (Future<Integer> size : sizes)
+      {
+        Assert.assertEquals(size.get().intValue(), 100);
+      }
+      Assert.assertEquals(loads.get(), 1);
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testLazyMapLoadedOnMutation()
+  {
+    DataMap map = DataMap.newLazyMap(() ->
+    {
+      DataMap entries = new DataMap();
+      entries.put("a", 1);
+      return entries;
+    });
+    map.put("b", 2);
+    Assert.assertEquals(map.keySet().size(), 2);
+    Assert.assertEquals(map, new DataMap(map));
+  }
 }
@@ -0,0 +1,175 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.template.DoubleArray;
+import com.linkedin.data.template.IntegerArray;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestPrimitiveList
+{
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testAgainstReferenceList()
+  {
+    PrimitiveList list = PrimitiveList.newIntList(2);
+    for (int value : TestCommonList.referenceList1)
+    {
+      list.addInt(value);
+    }
+    assertTrue(list.isPrimitive());
+    TestCommonList.testAgainstReferenceList1((List<Integer>) (List<?>) list);
+  }
+
+  @Test
+  public void testMutations()
+  {
+    PrimitiveList list = PrimitiveList.newLongList(0);
+    list.add(1L);
+    list.add(3L);
+    list.add(1, 2L);
+    list.addLong(4L);
+    assertEquals(list, Arrays.asList(1L, 2L, 3L, 4L));
+
+    assertEquals(list.set(0, 0L), 1L);
+    assertEquals(list.remove(3), 4L);
+    assertEquals(list, Arrays.asList(0L, 2L, 3L));
+
+    list.subList(0, 2).clear();
+    assertEquals(list, Arrays.asList(3L));
+    assertEquals(list.getLong(0), 3L);
+    assertTrue(list.isPrimitive());
+
+    list.clear();
+    assertTrue(list.isEmpty());
+
+    try
+    {
+      list.get(0);
+      fail("Expected IndexOutOfBoundsException");
+    }
+    catch (IndexOutOfBoundsException e)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testSwitchToBoxedStorage()
+  {
+    PrimitiveList list = PrimitiveList.newDoubleList(4);
+    list.addDouble(1.5);
+    list.addDouble(2.5);
+
+    // An Integer is not a Double, so the list has to keep it boxed.
+    list.add(3);
+    assertFalse(list.isPrimitive());
+    assertEquals(list, Arrays.asList(1.5, 2.5, 3));
+    assertEquals(list.get(2).getClass(), Integer.class);
+
+    list.addDouble(4.5);
+    assertEquals(list.getDouble(3), 4.5);
+    assertEquals(list.toDoubleArray(), new double[] { 1.5, 2.5, 3.0, 4.5 });
+    assertEquals(list.toIntArray(), new int[] { 1, 2, 3, 4 });
+  }
+
+  @Test
+  public void testClone() throws CloneNotSupportedException
+  {
+    PrimitiveList list = PrimitiveList.newFloatList(4);
+    list.addFloat(1.0f);
+    list.addFloat(2.0f);
+
+    PrimitiveList clone = list.clone();
+    assertNotSame(clone, list);
+    clone.addFloat(3.0f);
+    assertEquals(list.size(), 2);
+    assertEquals(clone.toFloatArray(), new float[] { 1.0f, 2.0f, 3.0f });
+  }
+
+  @Test
+  public void testDataList() throws CloneNotSupportedException
+  {
+    DataList list = DataList.newIntList(4);
+    list.addInt(1);
+    list.add(2);
+    list.addInt(3);
+    assertTrue(list.hasPrimitiveStorage());
+    assertEquals(list, new DataList(Arrays.asList(1, 2, 3)));
+    assertEquals(list.hashCode(), new DataList(Arrays.asList(1, 2, 3)).hashCode());
+    assertEquals(list.getInt(1), 2);
+    assertEquals(list.toIntArray(), new int[] { 1, 2, 3 });
+    assertEquals(list.toLongArray(), new long[] { 1L, 2L, 3L });
+
+    DataList copy = list.copy();
+    assertTrue(copy.hasPrimitiveStorage());
+    assertEquals(copy, list);
+
+    list.makeReadOnly();
+    try
+    {
+      list.addInt(4);
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      // expected
+    }
+
+    try
+    {
+      list.add("string");
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      // expected
+    }
+
+    copy.add("string");
+    assertFalse(copy.hasPrimitiveStorage());
+    assertEquals(copy.get(3), "string");
+  }
+
+  @Test
+  public void testArrayTemplates()
+  {
+    DataList ints = DataList.newIntList(3);
+    ints.addInt(7);
+    ints.addInt(27);
+    ints.addInt(279);
+    IntegerArray integerArray = new IntegerArray(ints);
+    assertEquals(integerArray.getInt(2), 279);
+    assertEquals(integerArray.toIntArray(), new int[] { 7, 27, 279 });
+
+    DataList doubles = new DataList(Arrays.asList(1.5, "NaN"));
+    DoubleArray doubleArray = new DoubleArray(doubles);
+    assertEquals(doubleArray.getDouble(0), 1.5);
+    assertTrue(Double.isNaN(doubleArray.toDoubleArray()[1]));
+  }
+}
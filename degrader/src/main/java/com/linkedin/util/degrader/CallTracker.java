@@ -102,6 +102,18 @@ public interface CallTracker
    */
   int getCurrentConcurrency();
 
+  /**
+   * Returns the peak-sensitive exponentially weighted moving average of the call latency. A call slower than the
+   * average raises it to its own latency at once, faster calls lower it gradually, and the average decays while no
+   * call completes, with a time constant of one interval. Failed calls never lower the average.
+   * @return the moving average of the call latency in milliseconds, 0 before the first call completes or if the
+   *         implementation does not track it.
+   */
+  default double getCurrentLatencyEwma()
+  {
+    return 0;
+  }
+
   /**
    * Tracks a single successful call
    * @param duration in milliseconds
@@ -70,6 +70,8 @@ public class CallTrackerImpl implements CallTracker
   private long _errorCountTotal;
   private int _concurrency;
   private long _sumOfOutstandingStartTimes;
+  // Updated under _lock, read without it
+  private final LatencyEwma _latencyEwma;
   //Total counts of specific types of error like RemoteInvocation error, 400 errors, 500 errors
   private Map<ErrorType, Integer> _errorTypeCountsTotal;
 
@@ -94,6 +96,7 @@ public class CallTrackerImpl implements CallTracker
     _lastStartTime = -1;
     _lastResetTime = _clock.currentTimeMillis();
     _errorTypeCountsTotal = new HashMap<ErrorType, Integer>();
+    _latencyEwma = new LatencyEwma(interval);
     /* create trackers for each resolution */
     _tracker = new Tracker(percentileTrackingEnabled);
   }
@@ -223,6 +226,12 @@ public class CallTrackerImpl implements CallTracker
     return _concurrency;
   }
 
+  @Override
+  public double getCurrentLatencyEwma()
+  {
+    return _latencyEwma.get(_clock.currentTimeMillis());
+  }
+
   @Override
   public long getTimeSinceLastCallStart()
   {
@@ -243,6 +252,7 @@ public class CallTrackerImpl implements CallTracker
       _errorCountTotal = 0;
       _tracker.reset();
       _errorTypeCountsTotal.clear();
+      _latencyEwma.reset();
       pending = checkForPending();
     }
     // Always deliver pending events without holding _lock to avoid deadlocks.
@@ -379,6 +389,7 @@ public class CallTrackerImpl implements CallTracker
   private void addCallData(long duration, boolean hasError, long currentTime, ErrorType errorType)
   {
     _tracker.addNewData(currentTime, hasError, duration, errorType);
+    _latencyEwma.update(duration, hasError, currentTime);
 
     // Has to be after addNewData
     if (hasError)
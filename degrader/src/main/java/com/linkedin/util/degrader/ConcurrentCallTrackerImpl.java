@@ -0,0 +1,656 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.util.degrader;
+
+import com.linkedin.common.stats.LogLinearBuckets;
+import com.linkedin.common.stats.LongStats;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SystemClock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A {@link CallTracker} for calls started and ended by many threads at once. It reports the same statistics as
+ * {@link CallTrackerImpl}, but starting and ending a call never takes a lock: counters are {@link LongAdder}s, and
+ * call times are recorded into a few shared histogram stripes, which are merged into the {@link CallStats} of an
+ * interval when it rolls over. The stripe of a call is chosen by hashing the id of the thread that ends it, so
+ * threads only contend when they hash to the same stripe, and stripes are updated with atomic operations since
+ * several threads may share one. Stripes are used rather than thread-local histograms, which the rollover would have
+ * to find and merge across every thread that ever ended a call, and which would outlive those threads. Only
+ * rollovers, once per interval, and resets take a lock.
+ *
+ * It differs from {@link CallTrackerImpl} in that:
+ * <ul>
+ *   <li>Percentiles of call times are read from histogram buckets, so they are up to about 6% above the exact
+ *   values. When percentile tracking is disabled, they are -1 as with {@link CallTrackerImpl}.</li>
+ *   <li>A call that ends while its interval rolls over may be counted in either interval.</li>
+ *   <li>The current concurrency is the only counter shared by all threads, since the maximum concurrency of an
+ *   interval needs its exact value.</li>
+ * </ul>
+ *
+ * The {@link CallCompletion} of a call, which holds its start time as {@link CallTracker#startCall()} requires, is
+ * its only allocation.
+ */
+public class ConcurrentCallTrackerImpl implements CallTracker
+{
+  private static final Clock DEFAULT_CLOCK = SystemClock.instance();
+  private static final int STRIPE_COUNT =
+      Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+  private static final ErrorType[] ERROR_TYPES = ErrorType.values();
+
+  private final Object _lock = new Object();
+
+  private final Clock _clock;
+  private final long _interval;
+  private final boolean _percentileTrackingEnabled;
+
+  private volatile long _lastStartTime;
+  private volatile long _lastResetTime;
+  private final LongAdder _callCountTotal = new LongAdder();
+  private final LongAdder _callStartCountTotal = new LongAdder();
+  private final LongAdder _errorCountTotal = new LongAdder();
+  private final LongAdder[] _errorTypeCountsTotal = newLongAdders(ERROR_TYPES.length);
+  private final AtomicInteger _concurrency = new AtomicInteger();
+  private final LongAdder _sumOfOutstandingStartTimes = new LongAdder();
+  private final LatencyEwma _latencyEwma;
+
+  // Statistics of the current interval
+  private final LongAdder _callStartCount = new LongAdder();
+  private final LongAdder _errorCount = new LongAdder();
+  private final LongAdder[] _errorTypeCounts = newLongAdders(ERROR_TYPES.length);
+  private final AtomicInteger _concurrentMax = new AtomicInteger();
+  private final AtomicReferenceArray<Stripe> _stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+  // Guarded by _lock
+  private long _startTime;
+
+  private volatile CallStats _stats;
+  private volatile List<StatsRolloverEventListener> _listeners = Collections.emptyList();
+
+  public ConcurrentCallTrackerImpl(long interval)
+  {
+    this(interval, DEFAULT_CLOCK);
+  }
+
+  public ConcurrentCallTrackerImpl(long interval, Clock clock)
+  {
+    this(interval, clock, true);
+  }
+
+  public ConcurrentCallTrackerImpl(long interval, Clock clock, boolean percentileTrackingEnabled)
+  {
+    _clock = clock;
+    _interval = interval;
+    _percentileTrackingEnabled = percentileTrackingEnabled;
+    _lastStartTime = -1;
+    _lastResetTime = _clock.currentTimeMillis();
+    _latencyEwma = new LatencyEwma(interval);
+    synchronized (_lock)
+    {
+      resetInterval(new ArrayList<>(1));
+    }
+  }
+
+  @Override
+  public CallCompletion startCall()
+  {
+    long currentTime = _clock.currentTimeMillis();
+    rolloverIfStale(currentTime);
+    _callStartCount.increment();
+    _callStartCountTotal.increment();
+    int concurrency = _concurrency.incrementAndGet();
+    int concurrentMax = _concurrentMax.get();
+    while (concurrency > concurrentMax && !_concurrentMax.compareAndSet(concurrentMax, concurrency))
+    {
+      concurrentMax = _concurrentMax.get();
+    }
+    // Avoid writing the shared field more than once per millisecond
+    if (_lastStartTime != currentTime)
+    {
+      _lastStartTime = currentTime;
+    }
+    _sumOfOutstandingStartTimes.add(currentTime);
+    return new CallCompletionImpl(this, currentTime);
+  }
+
+  @Override
+  public CallStats getCallStats()
+  {
+    return rolloverIfStale(_clock.currentTimeMillis());
+  }
+
+  @Override
+  public long getInterval()
+  {
+    return _interval;
+  }
+
+  @Override
+  public void addStatsRolloverEventListener(StatsRolloverEventListener listener)
+  {
+    synchronized (_lock)
+    {
+      List<StatsRolloverEventListener> copy = new ArrayList<>(_listeners);
+      copy.add(listener);
+      _listeners = Collections.unmodifiableList(copy);
+    }
+  }
+
+  @Override
+  public boolean removeStatsRolloverEventListener(StatsRolloverEventListener listener)
+  {
+    synchronized (_lock)
+    {
+      List<StatsRolloverEventListener> copy = new ArrayList<>(_listeners);
+      boolean removed = copy.remove(listener);
+      if (removed)
+      {
+        _listeners = Collections.unmodifiableList(copy);
+      }
+      return removed;
+    }
+  }
+
+  @Override
+  public long getCurrentCallCountTotal()
+  {
+    return _callCountTotal.sum();
+  }
+
+  @Override
+  public long getCurrentCallStartCountTotal()
+  {
+    return _callStartCountTotal.sum();
+  }
+
+  @Override
+  public long getCurrentErrorCountTotal()
+  {
+    return _errorCountTotal.sum();
+  }
+
+  @Override
+  public Map<ErrorType, Integer> getCurrentErrorTypeCountsTotal()
+  {
+    return Collections.unmodifiableMap(sumErrorTypeCounts(_errorTypeCountsTotal, false));
+  }
+
+  @Override
+  public int getCurrentConcurrency()
+  {
+    return _concurrency.get();
+  }
+
+  @Override
+  public double getCurrentLatencyEwma()
+  {
+    return _latencyEwma.get(_clock.currentTimeMillis());
+  }
+
+  @Override
+  public long getTimeSinceLastCallStart()
+  {
+    long lastStartTime = _lastStartTime;
+    return lastStartTime == -1 ? -1 : _clock.currentTimeMillis() - lastStartTime;
+  }
+
+  @Override
+  public long getLastResetTime()
+  {
+    return _lastResetTime;
+  }
+
+  @Override
+  public void reset()
+  {
+    List<PendingEvent> events = new ArrayList<>(1);
+    synchronized (_lock)
+    {
+      _lastStartTime = -1;
+      _lastResetTime = _clock.currentTimeMillis();
+      _callCountTotal.reset();
+      _callStartCountTotal.reset();
+      _errorCountTotal.reset();
+      for (LongAdder count : _errorTypeCountsTotal)
+      {
+        count.reset();
+      }
+      _latencyEwma.reset();
+      resetInterval(events);
+    }
+    // Always deliver events without holding _lock to avoid deadlocks.
+    deliver(events);
+  }
+
+  @Override
+  public void trackCall(long duration)
+  {
+    long currentTime = _clock.currentTimeMillis();
+    rolloverIfStale(currentTime);
+    addCallData(duration, false, currentTime, null);
+  }
+
+  @Override
+  public void trackCallWithError(long duration)
+  {
+    long currentTime = _clock.currentTimeMillis();
+    rolloverIfStale(currentTime);
+    addCallData(duration, true, currentTime, null);
+  }
+
+  private void endCall(long start, long endTime, boolean hasError, ErrorType errorType)
+  {
+    rolloverIfStale(endTime);
+    if (start >= _lastResetTime)
+    {
+      addCallData(endTime - start, hasError, endTime, errorType);
+    }
+
+    // Concurrency is not reset
+    int concurrency = _concurrency.get();
+    while (concurrency > 0 && !_concurrency.compareAndSet(concurrency, concurrency - 1))
+    {
+      concurrency = _concurrency.get();
+    }
+    // Sum of outstanding start times is not reset
+    _sumOfOutstandingStartTimes.add(-start);
+  }
+
+  private void addCallData(long duration, boolean hasError, long currentTime, ErrorType errorType)
+  {
+    stripe().addValue(duration);
+    _latencyEwma.update(duration, hasError, currentTime);
+    if (hasError)
+    {
+      _errorCount.increment();
+      _errorCountTotal.increment();
+      if (errorType != null)
+      {
+        _errorTypeCountsTotal[errorType.ordinal()].increment();
+      }
+    }
+    if (errorType != null)
+    {
+      _errorTypeCounts[errorType.ordinal()].increment();
+    }
+    _callCountTotal.increment();
+  }
+
+  /**
+   * @return the stripe that the id of the current thread hashes to, created on its first use.
+   */
+  private Stripe stripe()
+  {
+    int index = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+    Stripe stripe = _stripes.get(index);
+    if (stripe == null)
+    {
+      _stripes.compareAndSet(index, null, new Stripe(_percentileTrackingEnabled));
+      stripe = _stripes.get(index);
+    }
+    return stripe;
+  }
+
+  /**
+   * @return the statistics of the last interval, after rolling the intervals over if it is stale.
+   */
+  private CallStats rolloverIfStale(long currentTime)
+  {
+    CallStats stats = _stats;
+    if (!stats.stale(currentTime))
+    {
+      return stats;
+    }
+
+    List<PendingEvent> events = new ArrayList<>(2);
+    synchronized (_lock)
+    {
+      if (_stats.stale(currentTime))
+      {
+        long offset = currentTime - _lastResetTime;
+        long currentStartOffset = ((offset / _interval) * _interval);
+        long lastEnd = _lastResetTime + currentStartOffset;
+        long lastStart = lastEnd - _interval;
+        if (_startTime == lastStart)
+        {
+          // Current interval has elapsed.
+          // Emit stats and start new current interval.
+          rolloverStats(lastEnd, false, events);
+        }
+        else if (_startTime < lastStart)
+        {
+          // Current interval is stale, emit stale accumulated stats.
+          rolloverStats(_startTime + _interval, false, events);
+          // Start new interval.
+          _startTime = lastStart;
+          rolloverStats(lastEnd, false, events);
+        }
+      }
+      stats = _stats;
+    }
+    // Always deliver events without holding _lock to avoid deadlocks.
+    deliver(events);
+    return stats;
+  }
+
+  /**
+   * Drops the statistics of the current interval and emits empty statistics for the interval ending at the last
+   * reset. Must be called while holding _lock.
+   */
+  private void resetInterval(List<PendingEvent> events)
+  {
+    _startTime = _lastResetTime - _interval;
+    _callStartCount.reset();
+    _errorCount.reset();
+    for (LongAdder count : _errorTypeCounts)
+    {
+      count.reset();
+    }
+    _concurrentMax.set(_concurrency.get());
+    drainCallTimes();
+    rolloverStats(_lastResetTime, true, events);
+  }
+
+  /**
+   * Closes the current interval at the given time and starts the next one. Must be called while holding _lock.
+   *
+   * @param events the events to deliver to the listeners once _lock is released.
+   */
+  private void rolloverStats(long endTime, boolean reset, List<PendingEvent> events)
+  {
+    int concurrency = _concurrency.get();
+    _stats = new CallTrackerImpl.CallTrackerStats(
+        _interval,
+        _startTime,
+        endTime,
+        _callCountTotal.sum(),
+        (int) _callStartCount.sumThenReset(),
+        _callStartCountTotal.sum(),
+        (int) _errorCount.sumThenReset(),
+        _errorCountTotal.sum(),
+        _concurrentMax.getAndSet(concurrency),
+        concurrency == 0 ? 0 : (_sumOfOutstandingStartTimes.sum() / concurrency),
+        concurrency,
+        drainCallTimes().getStats(),
+        sumErrorTypeCounts(_errorTypeCounts, true),
+        sumErrorTypeCounts(_errorTypeCountsTotal, false));
+    _startTime = endTime;
+
+    if (!_listeners.isEmpty())
+    {
+      events.add(new PendingEvent(_stats, reset));
+    }
+  }
+
+  /**
+   * @return the call times recorded by all stripes since the last call, which are removed from the stripes.
+   */
+  private Stripe drainCallTimes()
+  {
+    Stripe merged = new Stripe(_percentileTrackingEnabled);
+    for (int i = 0; i < STRIPE_COUNT; i++)
+    {
+      Stripe stripe = _stripes.get(i);
+      if (stripe != null)
+      {
+        stripe.drainTo(merged);
+      }
+    }
+    return merged;
+  }
+
+  private void deliver(List<PendingEvent> events)
+  {
+    if (!events.isEmpty())
+    {
+      List<StatsRolloverEventListener> listeners = _listeners;
+      for (PendingEvent event : events)
+      {
+        for (StatsRolloverEventListener listener : listeners)
+        {
+          listener.onStatsRollover(event);
+        }
+      }
+    }
+  }
+
+  private static Map<ErrorType, Integer> sumErrorTypeCounts(LongAdder[] counts, boolean reset)
+  {
+    Map<ErrorType, Integer> errorTypeCounts = new EnumMap<>(ErrorType.class);
+    for (int i = 0; i < counts.length; i++)
+    {
+      long count = reset ? counts[i].sumThenReset() : counts[i].sum();
+      if (count > 0)
+      {
+        errorTypeCounts.put(ERROR_TYPES[i], (int) count);
+      }
+    }
+    return errorTypeCounts;
+  }
+
+  private static LongAdder[] newLongAdders(int length)
+  {
+    LongAdder[] adders = new LongAdder[length];
+    for (int i = 0; i < length; i++)
+    {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  private static class PendingEvent implements StatsRolloverEvent
+  {
+    private final CallStats _stats;
+    private final boolean _reset;
+
+    PendingEvent(CallStats stats, boolean reset)
+    {
+      _stats = stats;
+      _reset = reset;
+    }
+
+    @Override
+    public CallStats getCallStats()
+    {
+      return _stats;
+    }
+
+    @Override
+    public boolean isReset()
+    {
+      return _reset;
+    }
+  }
+
+  private static class CallCompletionImpl implements CallCompletion
+  {
+    private static final long NOT_RECORDED = Long.MIN_VALUE;
+    private static final AtomicIntegerFieldUpdater<CallCompletionImpl> DONE =
+        AtomicIntegerFieldUpdater.newUpdater(CallCompletionImpl.class, "_done");
+    private static final AtomicLongFieldUpdater<CallCompletionImpl> END_TIME =
+        AtomicLongFieldUpdater.newUpdater(CallCompletionImpl.class, "_endTime");
+
+    private final ConcurrentCallTrackerImpl _tracker;
+    private final long _start;
+    private volatile int _done;
+    private volatile long _endTime = NOT_RECORDED;
+
+    private CallCompletionImpl(ConcurrentCallTrackerImpl tracker, long start)
+    {
+      _tracker = tracker;
+      _start = start;
+    }
+
+    @Override
+    public void record()
+    {
+      END_TIME.compareAndSet(this, NOT_RECORDED, _tracker._clock.currentTimeMillis());
+    }
+
+    @Override
+    public void endCall()
+    {
+      endCall(false, null);
+    }
+
+    @Override
+    public void endCallWithError()
+    {
+      endCall(true, null);
+    }
+
+    @Override
+    public void endCallWithError(ErrorType errorType)
+    {
+      endCall(true, errorType);
+    }
+
+    private void endCall(boolean hasError, ErrorType errorType)
+    {
+      if (DONE.compareAndSet(this, 0, 1))
+      {
+        record();
+        _tracker.endCall(_start, _endTime, hasError, errorType);
+      }
+    }
+  }
+
+  /**
+   * Call times recorded in the current interval by the threads whose ids hash to the stripe. Values below 16
+   * milliseconds are counted exactly, and each power of two above is split into 16 buckets of equal width, up to
+   * {@link Integer#MAX_VALUE} milliseconds.
+   */
+  private static class Stripe
+  {
+    private static final LogLinearBuckets BUCKETS = new LogLinearBuckets(4, 31);
+    private static final int BUCKET_COUNT = BUCKETS.getBucketCount();
+
+    private final AtomicIntegerArray _counts;
+    private final AtomicLong _count = new AtomicLong();
+    private final AtomicLong _sum = new AtomicLong();
+    private final AtomicLong _sumOfSquares = new AtomicLong();
+    private final AtomicLong _min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong _max = new AtomicLong(Long.MIN_VALUE);
+
+    private Stripe(boolean percentileTrackingEnabled)
+    {
+      _counts = percentileTrackingEnabled ? new AtomicIntegerArray(BUCKET_COUNT) : null;
+    }
+
+    private void addValue(long value)
+    {
+      if (_counts != null)
+      {
+        _counts.incrementAndGet(BUCKETS.bucketIndex(value));
+      }
+      _sum.addAndGet(value);
+      _sumOfSquares.addAndGet(value * value);
+      long min = _min.get();
+      while (value < min && !_min.compareAndSet(min, value))
+      {
+        min = _min.get();
+      }
+      long max = _max.get();
+      while (value > max && !_max.compareAndSet(max, value))
+      {
+        max = _max.get();
+      }
+      // A value added while its stripe is drained may be split over two intervals
+      _count.incrementAndGet();
+    }
+
+    /**
+     * Moves the values of this stripe to the given one, which must not be in use by other threads.
+     */
+    private void drainTo(Stripe stripe)
+    {
+      long count = _count.getAndSet(0);
+      if (count == 0)
+      {
+        return;
+      }
+      stripe._count.addAndGet(count);
+      stripe._sum.addAndGet(_sum.getAndSet(0));
+      stripe._sumOfSquares.addAndGet(_sumOfSquares.getAndSet(0));
+      stripe._min.accumulateAndGet(_min.getAndSet(Long.MAX_VALUE), Math::min);
+      stripe._max.accumulateAndGet(_max.getAndSet(Long.MIN_VALUE), Math::max);
+      if (_counts != null)
+      {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+          int bucketCount = _counts.getAndSet(i, 0);
+          if (bucketCount != 0)
+          {
+            stripe._counts.addAndGet(i, bucketCount);
+          }
+        }
+      }
+    }
+
+    private LongStats getStats()
+    {
+      int count = (int) _count.get();
+      long min = _min.get();
+      long max = _max.get();
+      // The count of a value added during the last drain may be the only thing in this interval, without its min
+      // and max
+      if (count == 0 || min > max)
+      {
+        return _counts == null ? new LongStats(0, 0, 0, 0, 0, -1, -1, -1, -1) : new LongStats();
+      }
+      long sum = _sum.get();
+      double average = (double) sum / count;
+      double standardDeviation = Math.sqrt(Math.max(0, (_sumOfSquares.get() - sum * average) / count));
+      if (_counts == null)
+      {
+        return new LongStats(count, average, standardDeviation, min, max, -1, -1, -1, -1);
+      }
+      return new LongStats(count, average, standardDeviation, min, max,
+          getPercentile(0.50, max), getPercentile(0.90, max), getPercentile(0.95, max), getPercentile(0.99, max));
+    }
+
+    private long getPercentile(double pct, long max)
+    {
+      long total = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++)
+      {
+        total += _counts.get(i);
+      }
+      long rank = Math.max(1, (long) Math.ceil(pct * total));
+      long seen = 0;
+      for (int i = 0; i < BUCKET_COUNT; i++)
+      {
+        seen += _counts.get(i);
+        if (seen >= rank)
+        {
+          return Math.min(BUCKETS.bucketHighestValue(i), max);
+        }
+      }
+      return max;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.util.degrader;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * The peak-sensitive exponentially weighted moving average of call latencies behind
+ * {@link CallTracker#getCurrentLatencyEwma()}.
+ *
+ * The average is updated with a compare-and-set loop, so a peak is never lost to a concurrent update. Updates only
+ * write when the average changes, which calls faster than the average within the same millisecond do not. The time
+ * of the average is kept apart from it, so an update racing with another one a millisecond later may decay the
+ * average by that millisecond twice.
+ */
+class LatencyEwma
+{
+  private final long _timeConstant;
+  private final AtomicLong _averageBits = new AtomicLong(Double.doubleToRawLongBits(0));
+  private volatile long _time;
+
+  /**
+   * @param timeConstant time in milliseconds for the average to decay by a factor of e.
+   */
+  LatencyEwma(long timeConstant)
+  {
+    _timeConstant = timeConstant;
+  }
+
+  double get(long currentTime)
+  {
+    return Double.longBitsToDouble(_averageBits.get()) * weight(currentTime);
+  }
+
+  void update(long duration, boolean hasError, long currentTime)
+  {
+    double weight = weight(currentTime);
+    long bits;
+    long updatedBits;
+    do
+    {
+      bits = _averageBits.get();
+      double average = Double.longBitsToDouble(bits) * weight;
+      // Peaks are taken at once, and a fast failure does not make the callee look faster
+      double updated = duration >= average || hasError
+          ? Math.max(duration, average)
+          : average + duration * (1 - weight);
+      updatedBits = Double.doubleToRawLongBits(updated);
+    }
+    while (updatedBits != bits && !_averageBits.compareAndSet(bits, updatedBits));
+
+    if (currentTime > _time)
+    {
+      _time = currentTime;
+    }
+  }
+
+  void reset()
+  {
+    _averageBits.set(Double.doubleToRawLongBits(0));
+  }
+
+  /**
+   * @return the weight of the current average in an average updated at the given time.
+   */
+  private double weight(long currentTime)
+  {
+    long elapsed = currentTime - _time;
+    if (elapsed <= 0)
+    {
+      return 1;
+    }
+    return _timeConstant > 0 ? Math.exp(-(double) elapsed / _timeConstant) : 0;
+  }
+}
@@ -26,6 +26,7 @@ import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 
+import com.linkedin.util.clock.Clock;
 import com.linkedin.util.clock.SettableClock;
 import com.linkedin.util.clock.Time;
 import org.testng.annotations.Test;
@@ -43,7 +44,7 @@ public class TestCallTracker
   private static final long FIVE_MS = Time.milliseconds(5);
   private static final long TEN_MS = Time.milliseconds(10);
 
-  private CallTrackerImpl _callTracker;
+  private CallTracker _callTracker;
   private long _interval = INTERVAL;
   private SettableClock _clock;
 
@@ -51,7 +52,12 @@ public class TestCallTracker
   protected void setUp() throws Exception
   {
     _clock = new SettableClock();
-    _callTracker = new CallTrackerImpl(_interval, _clock);
+    _callTracker = createCallTracker(_interval, _clock);
+  }
+
+  protected CallTracker createCallTracker(long interval, Clock clock)
+  {
+    return new CallTrackerImpl(interval, clock);
   }
 
   @AfterMethod
@@ -632,7 +638,7 @@ public class TestCallTracker
   @org.testng.annotations.Test public void testStandardDeviationWithSmallVarianceAndLargeSample()
   {
     long interval = 7200000;
-    _callTracker = new CallTrackerImpl(interval, _clock);
+    _callTracker = createCallTracker(interval, _clock);
 
     List<CallCompletion> dones = startCall(_callTracker, 50 * 1000);
     _clock.addDuration(Time.minutes(60));
@@ -1275,6 +1281,41 @@ public class TestCallTracker
                         "Interval standard deviation is incorrect");
   }
 
+  @Test
+  public void testLatencyEwma()
+  {
+    Assert.assertEquals(_callTracker.getCurrentLatencyEwma(), 0.0, "Initial latency average is incorrect");
+
+    // A call slower than the average raises it at once
+    CallCompletion done = _callTracker.startCall();
+    _clock.addDuration(TEN_MS * 10);
+    done.endCall();
+    Assert.assertEquals(_callTracker.getCurrentLatencyEwma(), 100.0, "Peak latency average is incorrect");
+
+    // A faster call lowers it by the weight of the time elapsed since the last update
+    done = _callTracker.startCall();
+    _clock.addDuration(FIVE_MS);
+    done.endCall();
+    double weight = Math.exp(-(double) FIVE_MS / INTERVAL);
+    double expected = 100.0 * weight + FIVE_MS * (1 - weight);
+    Assert.assertEquals(_callTracker.getCurrentLatencyEwma(), expected, 1e-9, "Latency average is incorrect");
+
+    // A fast failure does not lower it
+    done = _callTracker.startCall();
+    _clock.addDuration(FIVE_MS);
+    done.endCallWithError();
+    expected *= weight;
+    Assert.assertEquals(_callTracker.getCurrentLatencyEwma(), expected, 1e-9, "Latency average after error is incorrect");
+
+    // It decays while no call completes
+    _clock.addDuration(INTERVAL);
+    Assert.assertEquals(_callTracker.getCurrentLatencyEwma(), expected * Math.exp(-1), 1e-9,
+                        "Decayed latency average is incorrect");
+
+    _callTracker.reset();
+    Assert.assertEquals(_callTracker.getCurrentLatencyEwma(), 0.0, "Latency average after reset is incorrect");
+  }
+
    private List<CallCompletion> startCall(CallTracker callTracker, int count)
   {
     List<CallCompletion> dones = new ArrayList<CallCompletion>();
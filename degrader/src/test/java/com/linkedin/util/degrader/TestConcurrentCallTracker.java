@@ -0,0 +1,184 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.util.degrader;
+
+import com.linkedin.common.stats.LongStats;
+import com.linkedin.util.clock.Clock;
+import com.linkedin.util.clock.SettableClock;
+import com.linkedin.util.clock.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * Runs the tests of {@link TestCallTracker} against {@link ConcurrentCallTrackerImpl}.
+ */
+public class TestConcurrentCallTracker extends TestCallTracker
+{
+  private static final long INTERVAL = Time.minutes(1);
+
+  @Override
+  protected CallTracker createCallTracker(long interval, Clock clock)
+  {
+    return new ConcurrentCallTrackerImpl(interval, clock);
+  }
+
+  @Test
+  public void testPercentilesAreBucketed()
+  {
+    SettableClock clock = new SettableClock();
+    CallTracker callTracker = new ConcurrentCallTrackerImpl(INTERVAL, clock);
+    for (int i = 1; i <= 1000; i++)
+    {
+      callTracker.trackCall(i);
+    }
+    clock.addDuration(INTERVAL);
+
+    LongStats stats = callTracker.getCallStats().getCallTimeStats();
+    Assert.assertEquals(stats.getCount(), 1000);
+    Assert.assertEquals(stats.getAverage(), 500.5, 0.001);
+    Assert.assertEquals(stats.getMinimum(), 1);
+    Assert.assertEquals(stats.getMaximum(), 1000);
+    assertWithinBucket(stats.get50Pct(), 500);
+    assertWithinBucket(stats.get90Pct(), 900);
+    assertWithinBucket(stats.get95Pct(), 950);
+    assertWithinBucket(stats.get99Pct(), 990);
+  }
+
+  @Test
+  public void testPercentileTrackingDisabled()
+  {
+    SettableClock clock = new SettableClock();
+    CallTracker callTracker = new ConcurrentCallTrackerImpl(INTERVAL, clock, false);
+    callTracker.trackCall(5);
+    callTracker.trackCall(15);
+    clock.addDuration(INTERVAL);
+
+    LongStats stats = callTracker.getCallStats().getCallTimeStats();
+    Assert.assertEquals(stats.getCount(), 2);
+    Assert.assertEquals(stats.getAverage(), 10.0, 0.001);
+    Assert.assertEquals(stats.getStandardDeviation(), 5.0, 0.001);
+    Assert.assertEquals(stats.get50Pct(), -1);
+    Assert.assertEquals(stats.get99Pct(), -1);
+  }
+
+  @Test
+  public void testConcurrentCalls() throws Exception
+  {
+    final int threads = 8;
+    final int callsPerThread = 10000;
+    SettableClock clock = new SettableClock();
+    CallTracker callTracker = new ConcurrentCallTrackerImpl(INTERVAL, clock);
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try
+    {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++)
+      {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int j = 0; j < callsPerThread; j++)
+          {
+            CallCompletion completion = callTracker.startCall();
+            if (j % 10 == 0)
+            {
+              completion.endCallWithError(ErrorType.REMOTE_INVOCATION_EXCEPTION);
+            }
+            else
+            {
+              completion.endCall();
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures)
+      {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+
+    clock.addDuration(INTERVAL);
+    CallTracker.CallStats stats = callTracker.getCallStats();
+    Assert.assertEquals(stats.getCallCount(), threads * callsPerThread);
+    Assert.assertEquals(stats.getCallStartCount(), threads * callsPerThread);
+    Assert.assertEquals(stats.getErrorCount(), threads * callsPerThread / 10);
+    Assert.assertEquals((int) stats.getErrorTypeCounts().get(ErrorType.REMOTE_INVOCATION_EXCEPTION),
+        threads * callsPerThread / 10);
+    Assert.assertTrue(stats.getConcurrentMax() >= 1 && stats.getConcurrentMax() <= threads);
+    Assert.assertEquals(callTracker.getCurrentConcurrency(), 0);
+    Assert.assertEquals(callTracker.getCurrentCallCountTotal(), threads * callsPerThread);
+    Assert.assertEquals(callTracker.getCurrentErrorCountTotal(), threads * callsPerThread / 10);
+  }
+
+  @Test
+  public void testConcurrentPeakIsKept() throws Exception
+  {
+    final int threads = 8;
+    final int callsPerThread = 10000;
+    // The clock does not move, so faster calls leave the average unchanged and only a lost peak lowers it.
+    SettableClock clock = new SettableClock();
+    CallTracker callTracker = new ConcurrentCallTrackerImpl(INTERVAL, clock);
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try
+    {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++)
+      {
+        final long peak = 1000 + i;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int j = 0; j < callsPerThread; j++)
+          {
+            callTracker.trackCall(j == callsPerThread / 2 ? peak : 1);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures)
+      {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals(callTracker.getCurrentLatencyEwma(), 1000.0 + threads - 1);
+  }
+
+  private static void assertWithinBucket(long actual, long expected)
+  {
+    Assert.assertTrue(actual >= expected && actual <= expected * 1.07, actual + " is not close to " + expected);
+  }
+}
@@ -329,4 +329,26 @@ final class ByteArrayReader extends ProtoReader
     }
     return _buffer[_pos++];
   }
+
+  @Override
+  public void skipRawBytes(int length) throws IOException
+  {
+    if (length < 0 || length > (_limit - _pos))
+    {
+      throw new EOFException();
+    }
+    _pos += length;
+  }
+
+  @Override
+  public int getPosition()
+  {
+    return _pos;
+  }
+
+  @Override
+  public byte[] copyBytes(int start, int end)
+  {
+    return Arrays.copyOfRange(_buffer, start, end);
+  }
 }
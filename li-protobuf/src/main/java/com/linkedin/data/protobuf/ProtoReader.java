@@ -148,4 +148,36 @@ public abstract class ProtoReader
    * @throws EOFException The end of the stream or the current _limit was reached.
    */
   public abstract byte readRawByte() throws IOException;
+
+  /**
+   * Skip the given number of bytes.
+   *
+   * @throws EOFException The end of the stream or the current _limit was reached.
+   */
+  public void skipRawBytes(int length) throws IOException
+  {
+    for (int i = 0; i < length; i++)
+    {
+      readRawByte();
+    }
+  }
+
+  /**
+   * Return the current position of this reader in its input, or -1 if this reader does not support
+   * {@link #copyBytes(int, int)}.
+   */
+  public int getPosition()
+  {
+    return -1;
+  }
+
+  /**
+   * Copy the input between the given positions, as returned by {@link #getPosition()}. This reader is not affected.
+   *
+   * @throws UnsupportedOperationException if {@link #getPosition()} returns -1.
+   */
+  public byte[] copyBytes(int start, int end)
+  {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -0,0 +1,99 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.common.stats;
+
+/**
+ * Log-linear bucketing of non-negative values for histograms, like HdrHistogram.
+ *
+ * <p>Values below the sub-bucket count are bucketed exactly. Each power of two above is split into sub-bucket count
+ * buckets of equal width, so that a bucket is at most 1 / sub-bucket count of its values wide. Negative values fall
+ * in the first bucket, and values above the largest one in the last bucket.</p>
+ */
+public final class LogLinearBuckets
+{
+  private final int _subBucketBits;
+  private final int _subBucketCount;
+  private final int _bucketCount;
+  private final long _maxValue;
+
+  /**
+   * @param subBucketBits log2 of the number of buckets each power of two is split into.
+   * @param valueBits number of bits of the largest value to bucket, up to 63.
+   */
+  public LogLinearBuckets(int subBucketBits, int valueBits)
+  {
+    if (subBucketBits < 1 || valueBits > 63 || valueBits < subBucketBits)
+    {
+      throw new IllegalArgumentException("Invalid bucketing of " + valueBits + " bits values into " + subBucketBits
+          + " bits sub-buckets");
+    }
+    _subBucketBits = subBucketBits;
+    _subBucketCount = 1 << subBucketBits;
+    // One group of sub-buckets for the exact values, and one for each power of two from 2^subBucketBits
+    _bucketCount = (valueBits + 1 - subBucketBits) << subBucketBits;
+    _maxValue = valueBits == 63 ? Long.MAX_VALUE : (1L << valueBits) - 1;
+  }
+
+  /**
+   * @return the number of buckets.
+   */
+  public int getBucketCount()
+  {
+    return _bucketCount;
+  }
+
+  /**
+   * @return the number of buckets each power of two is split into.
+   */
+  public int getSubBucketCount()
+  {
+    return _subBucketCount;
+  }
+
+  /**
+   * @return the index of the bucket holding the given value.
+   */
+  public int bucketIndex(long value)
+  {
+    if (value < _subBucketCount)
+    {
+      return (int) Math.max(0, value);
+    }
+    if (value > _maxValue)
+    {
+      return _bucketCount - 1;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - _subBucketBits;
+    // The top subBucketBits + 1 bits of the value, whose leading one is dropped, select the sub-bucket
+    return ((shift + 1) << _subBucketBits) + (int) (value >>> shift) - _subBucketCount;
+  }
+
+  /**
+   * @return the highest value held by the bucket at the given index.
+   */
+  public long bucketHighestValue(int index)
+  {
+    if (index < _subBucketCount)
+    {
+      return index;
+    }
+    int shift = (index >> _subBucketBits) - 1;
+    long lowest = ((long) (_subBucketCount + (index & (_subBucketCount - 1)))) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
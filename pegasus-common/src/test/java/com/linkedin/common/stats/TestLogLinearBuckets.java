@@ -0,0 +1,73 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.common.stats;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestLogLinearBuckets
+{
+  @DataProvider
+  public Object[][] bucketings()
+  {
+    return new Object[][] {
+        { 5, 63, Long.MAX_VALUE },
+        { 4, 31, (long) Integer.MAX_VALUE },
+        { 1, 8, 255L }
+    };
+  }
+
+  @Test(dataProvider = "bucketings")
+  public void testBuckets(int subBucketBits, int valueBits, long maxValue)
+  {
+    LogLinearBuckets buckets = new LogLinearBuckets(subBucketBits, valueBits);
+    Assert.assertEquals(buckets.getSubBucketCount(), 1 << subBucketBits);
+
+    long previousHighest = -1;
+    for (int i = 0; i < buckets.getBucketCount(); i++)
+    {
+      long highest = buckets.bucketHighestValue(i);
+      // Buckets are contiguous, and each value falls in its own bucket
+      Assert.assertTrue(highest > previousHighest);
+      Assert.assertEquals(buckets.bucketIndex(previousHighest + 1), i);
+      Assert.assertEquals(buckets.bucketIndex(highest), i);
+      // Buckets above the exact values are at most 1 / sub-bucket count of their values wide
+      Assert.assertTrue(highest - previousHighest - 1 <= (previousHighest + 1) / buckets.getSubBucketCount());
+      previousHighest = highest;
+    }
+    Assert.assertEquals(previousHighest, maxValue);
+  }
+
+  @Test
+  public void testOutOfRangeValues()
+  {
+    LogLinearBuckets buckets = new LogLinearBuckets(4, 31);
+
+    Assert.assertEquals(buckets.bucketIndex(-1), 0);
+    Assert.assertEquals(buckets.bucketIndex(Long.MIN_VALUE), 0);
+    Assert.assertEquals(buckets.bucketIndex(Integer.MAX_VALUE + 1L), buckets.getBucketCount() - 1);
+    Assert.assertEquals(buckets.bucketIndex(Long.MAX_VALUE), buckets.getBucketCount() - 1);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testTooManyValueBits()
+  {
+    new LogLinearBuckets(5, 64);
+  }
+}
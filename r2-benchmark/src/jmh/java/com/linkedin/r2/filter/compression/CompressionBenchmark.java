@@ -0,0 +1,128 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.r2.filter.compression;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BenchmarkDataShape;
+import com.linkedin.data.codec.DataCodec;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.codec.ProtobufCodecOptions;
+import com.linkedin.data.codec.ProtobufDataCodec;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures compression and decompression throughput of every {@link EncodingType} on rest.li payloads, which are the
+ * shapes in {@link BenchmarkDataShape} encoded as JSON or protobuf. The compress benchmark also counts the bytes before
+ * and after compression, so the compression ratio of each encoding can be read from its secondary results.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompressionBenchmark
+{
+  public enum PayloadFormat
+  {
+    JSON
+    {
+      @Override
+      DataCodec createCodec(DataMap map)
+      {
+        return new JacksonDataCodec();
+      }
+    },
+    PROTOBUF
+    {
+      @Override
+      DataCodec createCodec(DataMap map)
+      {
+        return new ProtobufDataCodec(new ProtobufCodecOptions.Builder()
+            .setSymbolTable(BenchmarkDataShape.buildSymbolTable(map))
+            .setEnableASCIIOnlyStrings(true)
+            .build());
+      }
+    };
+
+    abstract DataCodec createCodec(DataMap map);
+  }
+
+  @State(Scope.Benchmark)
+  public static class CompressionState
+  {
+    @Param({"GZIP", "DEFLATE", "BZIP2", "SNAPPY", "SNAPPY_FRAMED", "ZSTD", "LZ4_FRAMED"})
+    EncodingType _encoding;
+
+    @Param
+    PayloadFormat _format;
+
+    @Param({"WIDE_RECORD", "COLLECTION"})
+    BenchmarkDataShape _shape;
+
+    Compressor _compressor;
+    ByteString _payload;
+    ByteString _compressed;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, CompressionException
+    {
+      DataMap map = _shape.create();
+      _payload = ByteString.unsafeWrap(_format.createCodec(map).mapToBytes(map));
+      _compressor = _encoding.getCompressor();
+      _compressed = _compressor.deflate(_payload);
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class CompressedSize
+  {
+    public long uncompressedBytes;
+    public long compressedBytes;
+  }
+
+  @Benchmark
+  public ByteString compress(CompressionState state, CompressedSize size) throws CompressionException
+  {
+    ByteString compressed = state._compressor.deflate(state._payload);
+    size.uncompressedBytes += state._payload.length();
+    size.compressedBytes += compressed.length();
+    return compressed;
+  }
+
+  @Benchmark
+  public ByteString decompress(CompressionState state) throws CompressionException
+  {
+    return state._compressor.inflate(state._compressed);
+  }
+}
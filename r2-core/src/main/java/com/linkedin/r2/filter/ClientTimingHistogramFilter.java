@@ -0,0 +1,102 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.message.rest.RestFilter;
+import com.linkedin.r2.filter.message.stream.StreamFilter;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.Observer;
+import com.linkedin.r2.message.timing.ServiceTimingHistograms;
+import java.util.Map;
+
+
+/**
+ * A client filter that records the timings of each request in the {@link ServiceTimingHistograms} of its service
+ * once the response is back: when a rest response or an error is received, and when the entity of a stream response
+ * has been read.
+ */
+public class ClientTimingHistogramFilter implements RestFilter, StreamFilter
+{
+  private final ServiceTimingHistograms _histograms;
+  private final String _serviceName;
+
+  /**
+   * @param histograms histograms the timings are recorded in.
+   * @param serviceName name of the service the requests going through the filter are sent to.
+   */
+  public ClientTimingHistogramFilter(ServiceTimingHistograms histograms, String serviceName)
+  {
+    _histograms = histograms;
+    _serviceName = serviceName;
+  }
+
+  @Override
+  public void onRestResponse(RestResponse res, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    _histograms.record(_serviceName, requestContext);
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onRestError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    _histograms.record(_serviceName, requestContext);
+    nextFilter.onError(ex, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onStreamResponse(StreamResponse res, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<StreamRequest, StreamResponse> nextFilter)
+  {
+    res.getEntityStream().addObserver(new Observer()
+    {
+      @Override
+      public void onDataAvailable(ByteString data)
+      {
+        // do nothing
+      }
+
+      @Override
+      public void onDone()
+      {
+        _histograms.record(_serviceName, requestContext);
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        _histograms.record(_serviceName, requestContext);
+      }
+    });
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onStreamError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+      NextFilter<StreamRequest, StreamResponse> nextFilter)
+  {
+    _histograms.record(_serviceName, requestContext);
+    nextFilter.onError(ex, requestContext, wireAttrs);
+  }
+}
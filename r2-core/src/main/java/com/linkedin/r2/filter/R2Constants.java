@@ -78,6 +78,19 @@ public class R2Constants
    */
   public static final String CLIENT_REQUEST_METRIC_GROUP_NAME = "CLIENT_REQUEST_METRIC_GROUP_NAME";
 
+  /**
+   * Client uses this key to set the {@link com.linkedin.r2.message.RequestPriority} of a request. Requests of a higher
+   * priority are served first when they wait for a connection.
+   */
+  public static final String REQUEST_PRIORITY = "REQUEST_PRIORITY";
+
+  /**
+   * Transport clients may set this key to a {@link com.linkedin.r2.util.Cancellable} that abandons the request if it
+   * is not sent yet, e.g. while it waits for a connection. A cancelled request completes its callback with a
+   * {@link java.util.concurrent.CancellationException}.
+   */
+  public static final String REQUEST_CANCELLATION = "REQUEST_CANCELLATION";
+
   /**
    * Server-side request finalizer manager.
    *
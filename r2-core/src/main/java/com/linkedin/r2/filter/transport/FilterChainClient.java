@@ -33,6 +33,7 @@ import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 
 import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
+import java.net.URI;
 import java.util.Map;
 
 /**
@@ -90,6 +91,12 @@ public class FilterChainClient implements TransportClient
     _filters.onStreamRequest(request, requestContext, wireAttrs);
   }
 
+  @Override
+  public void warmUp(URI uri, int connections, Callback<None> callback)
+  {
+    _client.warmUp(uri, connections, callback);
+  }
+
   @Override
   public void shutdown(Callback<None> callback)
   {
@@ -0,0 +1,64 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package com.linkedin.r2.message;
+
+import com.linkedin.r2.filter.R2Constants;
+
+
+/**
+ * Importance of a request, set in the {@link RequestContext} with the {@link R2Constants#REQUEST_PRIORITY} local
+ * attribute. When requests wait for a connection, the pools serve those of a higher priority first, see
+ * {@link com.linkedin.r2.transport.http.client.AsyncPool#get(com.linkedin.common.callback.Callback, RequestPriority)}.
+ * Constants are declared from the highest priority to the lowest.
+ */
+public enum RequestPriority
+{
+  /**
+   * For the requests whose latency matters the most, such as those serving a user interaction.
+   */
+  CRITICAL,
+
+  HIGH,
+
+  /**
+   * The priority of requests that do not set one.
+   */
+  NORMAL,
+
+  /**
+   * For requests that can be delayed or failed first when the downstream service slows down, such as batch jobs.
+   */
+  LOW;
+
+  /**
+   * @return the priority set in the request context, or {@link #NORMAL} if none is set.
+   */
+  public static RequestPriority fromRequestContext(RequestContext requestContext)
+  {
+    Object priority = requestContext.getLocalAttr(R2Constants.REQUEST_PRIORITY);
+    return priority instanceof RequestPriority ? (RequestPriority) priority : NORMAL;
+  }
+
+  /**
+   * @return true if this priority is higher than the other one.
+   */
+  public boolean isHigherThan(RequestPriority other)
+  {
+    return ordinal() < other.ordinal();
+  }
+}
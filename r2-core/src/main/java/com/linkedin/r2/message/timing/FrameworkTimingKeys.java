@@ -65,6 +65,16 @@ public enum FrameworkTimingKeys
   SERVER_REQUEST_RESTLI_PROJECTION_DECODE("server/request/restli/projection_decode", TimingImportance.LOW),
   SERVER_RESPONSE_RESTLI_PROJECTION_APPLY("server/request/restli/projection_apply", TimingImportance.LOW),
 
+  // Transport metrics of the Netty client: waiting for a pooled channel, connecting a new channel (the TLS handshake
+  // is recorded under TimingNameConstants.SSL_HANDSHAKE), writing the request, waiting for the response headers
+  // (server time and network), reading the response entity, and decoding it into the R2 response
+  CLIENT_REQUEST_R2_POOL_WAIT("client/request/r2/pool_wait", TimingImportance.LOW),
+  CLIENT_REQUEST_R2_CONNECT("client/request/r2/connect", TimingImportance.LOW),
+  CLIENT_REQUEST_R2_WRITE("client/request/r2/write", TimingImportance.LOW),
+  CLIENT_RESPONSE_R2_WAIT("client/response/r2/wait", TimingImportance.LOW),
+  CLIENT_RESPONSE_R2_READ("client/response/r2/read", TimingImportance.LOW),
+  CLIENT_RESPONSE_R2_DECODE("client/response/r2/decode", TimingImportance.LOW),
+
   // Misc. metrics
   CLIENT_REQUEST_RESTLI_GET_PROTOCOL("client/request/restli/get_protocol", TimingImportance.LOW);
 
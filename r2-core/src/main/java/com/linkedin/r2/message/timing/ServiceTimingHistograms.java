@@ -0,0 +1,81 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.timing;
+
+import com.linkedin.r2.message.RequestContext;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Aggregates the timings recorded in the {@link RequestContext}s of the requests to each downstream service into a
+ * {@link TimingHistogram} per service and {@link TimingKey}, to be scraped by a metrics exporter.
+ *
+ * <p>The clients of an {@code HttpClientFactory} configured with an instance record the timings of their requests
+ * when the response comes back, see {@link com.linkedin.r2.filter.ClientTimingHistogramFilter}.</p>
+ */
+public class ServiceTimingHistograms
+{
+  private final ConcurrentMap<String, ConcurrentMap<TimingKey, TimingHistogram>> _histograms = new ConcurrentHashMap<>();
+
+  /**
+   * Records every completed timing of the request context in the histograms of the service.
+   * @param serviceName name of the service the request was sent to.
+   * @param requestContext request context holding the timings of the request.
+   */
+  @SuppressWarnings("unchecked")
+  public void record(String serviceName, RequestContext requestContext)
+  {
+    // Do not create the timings map of requests without timings
+    Map<TimingKey, TimingContextUtil.TimingContext> timings =
+        (Map<TimingKey, TimingContextUtil.TimingContext>) requestContext.getLocalAttr(TimingContextUtil.TIMINGS_KEY_NAME);
+    if (timings == null || timings.isEmpty())
+    {
+      return;
+    }
+
+    ConcurrentMap<TimingKey, TimingHistogram> histograms =
+        _histograms.computeIfAbsent(serviceName, name -> new ConcurrentHashMap<>());
+    for (TimingContextUtil.TimingContext timing : timings.values())
+    {
+      if (timing.isComplete())
+      {
+        histograms.computeIfAbsent(timing.getName(), key -> new TimingHistogram()).record(timing.getDurationNano());
+      }
+    }
+  }
+
+  /**
+   * @return the names of the services with recorded timings.
+   */
+  public Set<String> getServiceNames()
+  {
+    return Collections.unmodifiableSet(_histograms.keySet());
+  }
+
+  /**
+   * @return the histograms of the timings recorded for the service, by timing key, empty if none was recorded.
+   */
+  public Map<TimingKey, TimingHistogram> getHistograms(String serviceName)
+  {
+    Map<TimingKey, TimingHistogram> histograms = _histograms.get(serviceName);
+    return histograms == null ? Collections.emptyMap() : Collections.unmodifiableMap(histograms);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.timing;
+
+import com.linkedin.common.stats.LogLinearBuckets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A lock-free histogram of durations in nanoseconds, with a bounded relative error like HdrHistogram.
+ *
+ * <p>Values are bucketed by {@link LogLinearBuckets}: values below 32 are counted exactly, and each power of two above
+ * is split into 32 buckets of equal width, so that a bucket is at most about 3% of its values wide. The
+ * histogram takes a fixed ~15KB, whatever the number of recorded values. Recording is a few atomic increments and
+ * never blocks; reads run concurrently with recording and may miss the values being recorded.</p>
+ *
+ * <p>The histogram is cumulative: it counts every value recorded since it was created, so that scrapers compute
+ * rates and windows from the differences between two reads.</p>
+ */
+public class TimingHistogram
+{
+  private static final LogLinearBuckets BUCKETS = new LogLinearBuckets(5, 63);
+  static final int SUB_BUCKET_COUNT = BUCKETS.getSubBucketCount();
+  private static final int BUCKET_COUNT = BUCKETS.getBucketCount();
+
+  private final AtomicLongArray _counts = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder _count = new LongAdder();
+  private final LongAdder _sum = new LongAdder();
+  private final AtomicLong _max = new AtomicLong();
+
+  /**
+   * Records a duration. Negative durations, such as those of timings that never completed, are ignored.
+   * @param durationNano duration in nanoseconds.
+   */
+  public void record(long durationNano)
+  {
+    if (durationNano < 0)
+    {
+      return;
+    }
+    _counts.incrementAndGet(BUCKETS.bucketIndex(durationNano));
+    _count.increment();
+    _sum.add(durationNano);
+    long max = _max.get();
+    while (durationNano > max && !_max.compareAndSet(max, durationNano))
+    {
+      max = _max.get();
+    }
+  }
+
+  /**
+   * @return the number of recorded durations.
+   */
+  public long getCount()
+  {
+    return _count.sum();
+  }
+
+  /**
+   * @return the sum of the recorded durations, in nanoseconds.
+   */
+  public long getSum()
+  {
+    return _sum.sum();
+  }
+
+  /**
+   * @return the largest recorded duration in nanoseconds, or 0 if none was recorded.
+   */
+  public long getMax()
+  {
+    return _max.get();
+  }
+
+  /**
+   * @param percentile percentile between 0 and 100.
+   * @return the highest value of the bucket holding the duration at the percentile, which is at most about 3% above
+   *         the exact duration and never above the largest recorded duration, or 0 if none was recorded.
+   */
+  public long getValueAtPercentile(double percentile)
+  {
+    if (percentile < 0 || percentile > 100)
+    {
+      throw new IllegalArgumentException("percentile should be between 0 and 100: " + percentile);
+    }
+
+    long[] counts = new long[BUCKET_COUNT];
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++)
+    {
+      counts[i] = _counts.get(i);
+      total += counts[i];
+    }
+    if (total == 0)
+    {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++)
+    {
+      seen += counts[i];
+      if (seen >= rank)
+      {
+        return Math.min(BUCKETS.bucketHighestValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+}
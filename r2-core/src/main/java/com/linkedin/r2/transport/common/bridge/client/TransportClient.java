@@ -27,6 +27,7 @@ import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 
+import java.net.URI;
 import java.util.Map;
 
 /**
@@ -69,6 +70,20 @@ public interface TransportClient
     throw new UnsupportedOperationException("Please use an implementation that supports streaming.");
   }
 
+  /**
+   * Asynchronously opens connections to the host of the given URI ahead of the first requests to it, so that these
+   * requests do not wait for connections to be established and secured. Implementations that do not hold
+   * connections do nothing.
+   *
+   * @param uri the URI of the host to connect to
+   * @param connections the number of connections to open, bounded by the size of the connection pool
+   * @param callback a callback that will be invoked once the connections are open, or with the first error
+   */
+  default void warmUp(URI uri, int connections, Callback<None> callback)
+  {
+    callback.onSuccess(None.none());
+  }
+
   /**
    * Starts asynchronous shutdown of the client. This method should block minimally, if at all.
    *
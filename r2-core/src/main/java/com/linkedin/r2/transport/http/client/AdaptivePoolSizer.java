@@ -0,0 +1,199 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.util.ArgumentUtil;
+
+
+/**
+ * Computes the target size of an {@link AsyncPoolImpl} from the load it observes, so that the pool holds about as
+ * many objects as requests are in flight instead of its configured maximum.
+ *
+ * <p>The pool reports its requests and checkouts as they happen and asks for a new target size once per resize
+ * interval. By Little's law, the number of objects checked out on average is the rate of requests times the time an
+ * object is checked out (its round trip time). The round trip time is derived from the same law, as the checked out
+ * count integrated over the interval divided by the number of objects returned. The target size is the request rate
+ * times the round trip time, with some headroom. It grows by half when waiters waited longer than the maximum wait
+ * time on average, since requests are then queueing for objects. It grows at once, but never while object creation
+ * fails and the {@link RateLimiter} of the pool backs off, and shrinks by at most a quarter per interval.</p>
+ *
+ * <p>This class is not thread safe. The pool calls it while holding its lock.</p>
+ */
+public class AdaptivePoolSizer
+{
+  public static final long DEFAULT_RESIZE_INTERVAL = 1000;
+  public static final double DEFAULT_HEADROOM = 1.25;
+  public static final long DEFAULT_MAX_WAIT_TIME = 10;
+
+  private final long _resizeInterval;
+  private final double _headroom;
+  private final long _maxWaitTime;
+
+  // Round trip time of the last intervals with returned objects, negative until one is observed
+  private double _roundTripTime = -1;
+
+  // Observations of the current interval
+  private long _intervalStart = -1;
+  private long _lastCheckedOutChange;
+  private int _checkedOut;
+  private double _checkedOutIntegral;
+  private int _requests;
+  private int _returns;
+  private long _waitTimeSum;
+  private int _waits;
+
+  /**
+   * Creates a sizer with the default resize interval, headroom and maximum wait time.
+   */
+  public AdaptivePoolSizer()
+  {
+    this(DEFAULT_RESIZE_INTERVAL, DEFAULT_HEADROOM, DEFAULT_MAX_WAIT_TIME);
+  }
+
+  /**
+   * @param resizeInterval milliseconds between two computations of the target size.
+   * @param headroom factor applied to the number of objects needed on average, at least 1.
+   * @param maxWaitTime average milliseconds a waiter may wait for an object before the pool grows faster.
+   */
+  public AdaptivePoolSizer(long resizeInterval, double headroom, long maxWaitTime)
+  {
+    ArgumentUtil.checkArgument(resizeInterval > 0, "resizeInterval");
+    ArgumentUtil.checkArgument(headroom >= 1, "headroom");
+    _resizeInterval = resizeInterval;
+    _headroom = headroom;
+    _maxWaitTime = maxWaitTime;
+  }
+
+  /**
+   * @return milliseconds between two calls to {@link #resize(long, int, int, int, boolean)}.
+   */
+  public long getResizeInterval()
+  {
+    return _resizeInterval;
+  }
+
+  /**
+   * Starts the first interval.
+   */
+  public void start(long now)
+  {
+    _intervalStart = now;
+    _lastCheckedOutChange = now;
+  }
+
+  /**
+   * Records a request for an object, served by an idle object or queued as a waiter.
+   */
+  public void requested()
+  {
+    _requests++;
+  }
+
+  /**
+   * Records that an object was checked out.
+   * @param checkedOut the number of checked out objects after the checkout.
+   */
+  public void checkedOut(long now, int checkedOut)
+  {
+    integrate(now);
+    _checkedOut = checkedOut;
+  }
+
+  /**
+   * Records that an object was returned to the pool or disposed.
+   * @param checkedOut the number of checked out objects after the return.
+   */
+  public void returned(long now, int checkedOut)
+  {
+    integrate(now);
+    _checkedOut = checkedOut;
+    _returns++;
+  }
+
+  /**
+   * Records the time a request waited for an object, whether it got one or failed, e.g. because it timed out.
+   */
+  public void waited(long waitTime)
+  {
+    _waitTimeSum += waitTime;
+    _waits++;
+  }
+
+  /**
+   * Computes the target size from the observations of the interval that ends now, and starts the next interval.
+   * @param targetSize the current target size.
+   * @param creationThrottled true if object creation fails and the rate limiter backs off, in which case the target
+   *                          size does not grow.
+   * @return the new target size, between the minimum size (at least 1) and the maximum size.
+   */
+  public int resize(long now, int targetSize, int minSize, int maxSize, boolean creationThrottled)
+  {
+    integrate(now);
+    long elapsed = now - _intervalStart;
+    if (elapsed <= 0)
+    {
+      return clamp(targetSize, minSize, maxSize);
+    }
+
+    if (_returns > 0)
+    {
+      double roundTripTime = _checkedOutIntegral / _returns;
+      _roundTripTime = _roundTripTime < 0 ? roundTripTime : (_roundTripTime + roundTripTime) / 2;
+    }
+
+    int desired = 0;
+    if (_roundTripTime >= 0)
+    {
+      desired = (int) Math.ceil((double) _requests / elapsed * _roundTripTime * _headroom);
+    }
+    // Never below the objects checked out now, some of which may not have come back yet
+    desired = Math.max(desired, _checkedOut);
+    if (_waits > 0 && _waitTimeSum / _waits > _maxWaitTime)
+    {
+      desired = Math.max(desired, targetSize + Math.max(1, targetSize / 2));
+    }
+
+    int next;
+    if (desired > targetSize)
+    {
+      next = creationThrottled ? targetSize : desired;
+    }
+    else
+    {
+      next = Math.max(desired, targetSize - Math.max(1, targetSize / 4));
+    }
+
+    _intervalStart = now;
+    _checkedOutIntegral = 0;
+    _requests = 0;
+    _returns = 0;
+    _waitTimeSum = 0;
+    _waits = 0;
+    return clamp(next, minSize, maxSize);
+  }
+
+  private void integrate(long now)
+  {
+    _checkedOutIntegral += (double) _checkedOut * (now - _lastCheckedOutChange);
+    _lastCheckedOutChange = now;
+  }
+
+  private static int clamp(int size, int minSize, int maxSize)
+  {
+    return Math.min(Math.max(size, Math.max(minSize, 1)), maxSize);
+  }
+}
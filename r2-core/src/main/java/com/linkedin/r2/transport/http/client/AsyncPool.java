@@ -21,6 +21,7 @@
 package com.linkedin.r2.transport.http.client;
 
 import com.linkedin.common.callback.Callback;
+import com.linkedin.r2.message.RequestPriority;
 import com.linkedin.r2.util.Cancellable;
 import com.linkedin.common.util.None;
 
@@ -92,6 +93,21 @@ public interface AsyncPool<T>
    */
   Cancellable get(Callback<T> callback);
 
+  /**
+   * Get an object from the pool for a request of the given priority. Pools that order their waiters by priority
+   * serve the waiters of a higher priority first, and in FIFO order within a priority. Other pools serve the
+   * request like {@link #get(Callback)}.
+   *
+   * @param callback the callback to receive the checked out object
+   * @param priority the priority of the request the object is for
+   * @return A {@link Cancellable} which, if invoked before the callback, will cancel
+   * the pending get request.
+   */
+  default Cancellable get(Callback<T> callback, RequestPriority priority)
+  {
+    return get(callback);
+  }
+
   /**
    * Return a previously checked out object to the pool. It is okay to return a checked out object
    * more than once. But it is an error to return an object to the pool that is not currently checked
@@ -110,6 +126,36 @@ public interface AsyncPool<T>
    */
   void dispose(T obj);
 
+  /**
+   * Create an object ahead of the requests that will need it, without checking it out. The new object
+   * is handed to a waiter or becomes idle, so that it can be used as soon as it is created. No object
+   * is created if the pool is not running or already holds as many objects as it may grow to.
+   *
+   * The default implementation checks an object out and returns it right away, which only creates an
+   * object if none is idle.
+   *
+   * @param callback invoked with true once the object is in the pool, with false if none was created,
+   *                 or with the error if the creation failed
+   */
+  default void createIdleObject(Callback<Boolean> callback)
+  {
+    get(new Callback<T>()
+    {
+      @Override
+      public void onSuccess(T obj)
+      {
+        put(obj);
+        callback.onSuccess(true);
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        callback.onError(e);
+      }
+    });
+  }
+
   /**
    * Get a snapshot of pool statistics. The specific statistics are described in
    * {@link AsyncPoolStats}. Calling getStats will reset any 'latched' statistics.
@@ -22,6 +22,7 @@ package com.linkedin.r2.transport.http.client;
 
 import com.linkedin.common.stats.LongTracker;
 import com.linkedin.common.stats.LongTracking;
+import com.linkedin.r2.message.RequestPriority;
 import com.linkedin.r2.util.SingleTimeout;
 import com.linkedin.util.ArgumentUtil;
 import com.linkedin.util.clock.Clock;
@@ -30,8 +31,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -45,7 +48,6 @@ import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.SimpleCallback;
 import com.linkedin.common.util.None;
 import com.linkedin.r2.util.Cancellable;
-import com.linkedin.r2.util.LinkedDeque;
 import com.linkedin.r2.transport.http.client.RateLimiter.Task;
 
 /**
@@ -68,7 +70,10 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   private final ScheduledExecutorService _timeoutExecutor;
   private final int _minSize;
   private volatile ScheduledFuture<?> _objectTimeoutFuture;
+  private volatile ScheduledFuture<?> _resizeFuture;
   private final RateLimiter _rateLimiter;
+  private final AdaptivePoolSizer _sizer;
+  private final AsyncPoolPriorityPolicy _priorityPolicy;
 
   public static final int MIN_WAITER_TIMEOUT = 300;
   public static final int MAX_WAITER_TIMEOUT = 1000;
@@ -86,12 +91,19 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   // Including idle, checked out, and creations/destructions in progress
   private int _poolSize = 0;
   private int _checkedOut = 0;
+  // The size the pool may grow to, the maximum size unless adapted by the sizer
+  private int _targetSize;
   // Unused objects live here, sorted by age.
   // The first object is the least recently added object.
   private final Deque<TimedObject<T>> _idle = new LinkedList<TimedObject<T>>();
   // When no unused objects are available, callbacks live here while they wait
-  // for a new object (either returned by another user, or newly created)
-  private final LinkedDeque<Callback<T>> _waiters = new LinkedDeque<>();
+  // for a new object (either returned by another user, or newly created),
+  // served by priority
+  private final PriorityWaiterQueue<Callback<T>> _waiters = new PriorityWaiterQueue<>();
+  // The priorities of the checked out objects and their number by priority,
+  // only tracked when the priority policy caps the share of priorities
+  private final Map<T, RequestPriority> _checkedOutPriorities;
+  private final int[] _checkedOutByPriority = new int[RequestPriority.values().length];
   private Throwable _lastCreateError = null;
   private State _state = State.NOT_YET_STARTED;
   private Callback<None> _shutdownCallback = null;
@@ -224,6 +236,64 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       RateLimiter rateLimiter,
       Clock clock,
       LongTracker waitTimeTracker)
+  {
+    this(name, lifecycle, maxSize, idleTimeout, waiterTimeout, timeoutExecutor, maxWaiters, strategy, minSize,
+        rateLimiter, clock, waitTimeTracker, null);
+  }
+
+  /**
+   * Creates an AsyncPoolImpl whose size adapts to the load between the
+   * minimum and maximum sizes, see {@link AdaptivePoolSizer}. The pool
+   * does not create objects beyond the target size computed by the sizer,
+   * and destroys the least recently used idle objects when the target size
+   * shrinks below the pool size. Objects are still created through the
+   * rate limiter.
+   *
+   * @param sizer the sizer of the pool, or null to let the pool grow up to
+   *              its maximum size.
+   * @see #AsyncPoolImpl(String, Lifecycle, int, long, long, ScheduledExecutorService, int, Strategy, int, RateLimiter, Clock, LongTracker)
+   */
+  public AsyncPoolImpl(String name,
+      Lifecycle<T> lifecycle,
+      int maxSize,
+      long idleTimeout,
+      long waiterTimeout,
+      ScheduledExecutorService timeoutExecutor,
+      int maxWaiters,
+      Strategy strategy,
+      int minSize,
+      RateLimiter rateLimiter,
+      Clock clock,
+      LongTracker waitTimeTracker,
+      AdaptivePoolSizer sizer)
+  {
+    this(name, lifecycle, maxSize, idleTimeout, waiterTimeout, timeoutExecutor, maxWaiters, strategy, minSize,
+        rateLimiter, clock, waitTimeTracker, sizer, null);
+  }
+
+  /**
+   * Creates an AsyncPoolImpl that applies the limits of a priority policy
+   * to the requests of each {@link RequestPriority}. Waiters are served by
+   * priority with or without a policy.
+   *
+   * @param priorityPolicy the limits on the requests of each priority, or
+   *                       null for none.
+   * @see #AsyncPoolImpl(String, Lifecycle, int, long, long, ScheduledExecutorService, int, Strategy, int, RateLimiter, Clock, LongTracker, AdaptivePoolSizer)
+   */
+  public AsyncPoolImpl(String name,
+      Lifecycle<T> lifecycle,
+      int maxSize,
+      long idleTimeout,
+      long waiterTimeout,
+      ScheduledExecutorService timeoutExecutor,
+      int maxWaiters,
+      Strategy strategy,
+      int minSize,
+      RateLimiter rateLimiter,
+      Clock clock,
+      LongTracker waitTimeTracker,
+      AdaptivePoolSizer sizer,
+      AsyncPoolPriorityPolicy priorityPolicy)
   {
     ArgumentUtil.notNull(lifecycle, "lifecycle");
     ArgumentUtil.notNull(timeoutExecutor, "timeoutExecutor");
@@ -241,11 +311,21 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     _strategy = strategy;
     _minSize = minSize;
     _rateLimiter = rateLimiter;
+    _sizer = sizer;
+    _priorityPolicy = priorityPolicy;
+    _checkedOutPriorities = priorityPolicy != null && priorityPolicy.hasMaxShares() ? new IdentityHashMap<>() : null;
+    _targetSize = maxSize;
     _clock = clock;
     _statsTracker = new AsyncPoolStatsTracker(
         () -> _lifecycle.getStats(),
         () -> _maxSize,
         () -> _minSize,
+        () -> {
+          synchronized (_lock)
+          {
+            return _targetSize;
+          }
+        },
         () -> {
           synchronized (_lock) {
             return _poolSize;
@@ -294,6 +374,12 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
           }
         }, freq, freq, TimeUnit.MILLISECONDS);
       }
+      if (_sizer != null)
+      {
+        _sizer.start(_clock.currentTimeMillis());
+        long interval = _sizer.getResizeInterval();
+        _resizeFuture = _timeoutExecutor.scheduleAtFixedRate(this::resize, interval, interval, TimeUnit.MILLISECONDS);
+      }
     }
 
     // Make the minimum required number of connections now
@@ -347,11 +433,20 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   @Override
   public Cancellable get(final Callback<T> callback)
   {
+    return get(callback, RequestPriority.NORMAL);
+  }
+
+  @Override
+  public Cancellable get(final Callback<T> callback, final RequestPriority priority)
+  {
+    ArgumentUtil.notNull(priority, "priority");
     // getter needs to add to wait queue atomically with check for empty pool
     // putter needs to add to pool atomically with check for empty wait queue
     boolean create = false;
-    boolean reject = false;
-    final LinkedDeque.Node<Callback<T>> node;
+    String rejectReason = null;
+    Callback<T> displaced = null;
+    List<Callback<T>> shed = Collections.emptyList();
+    final PriorityWaiterQueue.Entry<Callback<T>> entry;
     Callback<T> callbackWithTracking = new TimeTrackingCallback<T>(callback);
     for (;;)
     {
@@ -362,6 +457,13 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
         state = _state;
         if (state == State.RUNNING)
         {
+          if (isPriorityCapped(priority))
+          {
+            rejectReason = "AsyncPool " + _poolName + " reached maximum share of " + priority + " priority: "
+                + _priorityPolicy.getMaxCount(priority, _maxSize);
+            entry = null;
+            break;
+          }
           if(_strategy == Strategy.LRU)
           {
             obj = _idle.pollFirst();
@@ -372,6 +474,22 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
           }
           if (obj == null)
           {
+            if (isOverloaded())
+            {
+              // Waiters wait too long; shed the lowest priority to serve the others sooner
+              shed = _waiters.pollAll(RequestPriority.LOW);
+              if (priority == RequestPriority.LOW)
+              {
+                rejectReason = "AsyncPool " + _poolName + " is shedding " + priority + " priority waiters";
+                entry = null;
+                break;
+              }
+            }
+            if (_waiters.size() >= _maxWaiters)
+            {
+              // Make room by displacing the most recent waiter of a lower priority, if any
+              displaced = _waiters.pollLastBelow(priority);
+            }
             if (_waiters.size() < _maxWaiters)
             {
               if (isWaiterTimeoutEnabled())
@@ -379,16 +497,21 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
                 callbackWithTracking = new WaiterTimeoutCallback(callbackWithTracking);
               }
               // No objects available and the waiter list is not full; add to waiter list and break out of loop
-              node = _waiters.addLastNode(callbackWithTracking);
+              entry = _waiters.add(callbackWithTracking, priority, _clock.currentTimeMillis());
+              if (_sizer != null)
+              {
+                _sizer.requested();
+              }
               create = shouldCreate();
             }
             else
             {
-              reject = true;
-              node = null;
+              rejectReason = "AsyncPool " + _poolName + " reached maximum waiter size: " + _maxWaiters;
+              entry = null;
             }
             break;
           }
+          checkedOutWithPriority(obj.get(), priority);
         }
       }
       if (state != State.RUNNING)
@@ -406,19 +529,39 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
         {
           _checkedOut++;
           _statsTracker.sampleMaxCheckedOut();
+          if (_sizer != null)
+          {
+            _sizer.requested();
+            _sizer.checkedOut(_clock.currentTimeMillis(), _checkedOut);
+          }
         }
         callbackWithTracking.onSuccess(rawObj);
         return () -> false;
       }
       // Invalid object, discard it and keep trying
+      synchronized (_lock)
+      {
+        returnedWithPriority(rawObj);
+      }
       destroy(rawObj, true);
       trc("dequeued and disposed an invalid idle object");
     }
-    if (reject)
+    if (!shed.isEmpty())
+    {
+      LOG.debug("{}: shedding {} {} priority waiters", new Object[]{ _poolName, shed.size(), RequestPriority.LOW });
+      for (Callback<T> waiter : shed)
+      {
+        rejectWaiter(waiter, "AsyncPool " + _poolName + " is shedding " + RequestPriority.LOW + " priority waiters");
+      }
+    }
+    if (displaced != null)
+    {
+      rejectWaiter(displaced, "AsyncPool " + _poolName + " reached maximum waiter size: " + _maxWaiters);
+    }
+    if (rejectReason != null)
     {
       // This is a recoverable exception. User can simply retry the failed get() operation.
-      callbackWithTracking.onError(
-          new SizeLimitExceededException("AsyncPool " + _poolName + " reached maximum waiter size: " + _maxWaiters));
+      callbackWithTracking.onError(new SizeLimitExceededException(rejectReason));
       return () -> false;
     }
     trc("enqueued a waiter");
@@ -433,7 +576,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       {
         synchronized (_lock)
         {
-          boolean cancelled = _waiters.removeNode(node) != null;
+          boolean cancelled = _waiters.remove(entry);
           if (cancelled)
           {
             shutdownIfNeeded();
@@ -444,6 +587,68 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     };
   }
 
+  /**
+   * This method is safe to call while holding the lock.
+   * @return true if the requests of the priority hold or wait for their maximum share of the pool.
+   */
+  private boolean isPriorityCapped(RequestPriority priority)
+  {
+    return _checkedOutPriorities != null && _checkedOutByPriority[priority.ordinal()] + _waiters.size(priority)
+        >= _priorityPolicy.getMaxCount(priority, _maxSize);
+  }
+
+  /**
+   * This method is safe to call while holding the lock.
+   * @return true if the oldest waiter waited longer than the shed wait time of the priority policy.
+   */
+  private boolean isOverloaded()
+  {
+    return _priorityPolicy != null && _priorityPolicy.getShedWaitTime() > 0
+        && _clock.currentTimeMillis() - _waiters.getOldestTime() > _priorityPolicy.getShedWaitTime();
+  }
+
+  /**
+   * Must be called while holding the lock.
+   */
+  private void checkedOutWithPriority(T obj, RequestPriority priority)
+  {
+    if (_checkedOutPriorities != null)
+    {
+      _checkedOutPriorities.put(obj, priority);
+      _checkedOutByPriority[priority.ordinal()]++;
+    }
+  }
+
+  /**
+   * Must be called while holding the lock.
+   */
+  private void returnedWithPriority(T obj)
+  {
+    if (_checkedOutPriorities != null)
+    {
+      RequestPriority priority = _checkedOutPriorities.remove(obj);
+      if (priority != null)
+      {
+        _checkedOutByPriority[priority.ordinal()]--;
+      }
+    }
+  }
+
+  /**
+   * DO NOT call this method while holding the lock!  It invokes user code.
+   */
+  private void rejectWaiter(Callback<T> waiter, String reason)
+  {
+    try
+    {
+      waiter.onError(new SizeLimitExceededException(reason));
+    }
+    catch (Exception ex)
+    {
+      LOG.error("Encountered error while invoking error waiter callback", ex);
+    }
+  }
+
   private boolean isWaiterTimeoutEnabled()
   {
     // Do not enable waiter timeout if the configured value is not within the fail fast threshold
@@ -456,6 +661,11 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     synchronized (_lock)
     {
       _checkedOut--;
+      returnedWithPriority(obj);
+      if (_sizer != null)
+      {
+        _sizer.returned(_clock.currentTimeMillis(), _checkedOut);
+      }
     }
     if (!_lifecycle.validatePut(obj))
     {
@@ -476,15 +686,22 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       // If we have waiters, the idle list must already be empty.
       // Therefore, immediately reusing the object is valid with
       // both MRU and LRU strategies.
-      waiter = _waiters.poll();
-      if (waiter == null)
+      PriorityWaiterQueue.Entry<Callback<T>> entry = _waiters.pollEntry();
+      if (entry == null)
       {
+        waiter = null;
         _idle.offerLast(new TimedObject<T>(obj));
       }
       else
       {
+        waiter = entry.getWaiter();
+        checkedOutWithPriority(obj, entry.getPriority());
         _checkedOut++;
         _statsTracker.sampleMaxCheckedOut();
+        if (_sizer != null)
+        {
+          _sizer.checkedOut(_clock.currentTimeMillis(), _checkedOut);
+        }
       }
       shutdown = checkShutdownComplete();
     }
@@ -514,10 +731,38 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     synchronized (_lock)
     {
       _checkedOut--;
+      returnedWithPriority(obj);
+      if (_sizer != null)
+      {
+        _sizer.returned(_clock.currentTimeMillis(), _checkedOut);
+      }
     }
     destroy(obj, true);
   }
 
+  @Override
+  public void createIdleObject(Callback<Boolean> callback)
+  {
+    boolean create = false;
+    synchronized (_lock)
+    {
+      if (_state == State.RUNNING && _poolSize < _targetSize)
+      {
+        _poolSize++;
+        _statsTracker.sampleMaxPoolSize();
+        create = true;
+      }
+    }
+    if (create)
+    {
+      create(callback);
+    }
+    else
+    {
+      callback.onSuccess(false);
+    }
+  }
+
   @Override
   public AsyncPoolStats getStats()
   {
@@ -609,7 +854,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     {
       if (_state == State.RUNNING)
       {
-        if (_poolSize >= _maxSize)
+        if (_poolSize >= _targetSize)
         {
           // If we pass up an opportunity to create an object due to full pool, the next
           // timeout is not necessarily caused by any previous creation failure.  Need to
@@ -632,18 +877,31 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
    * DO NOT call this method while holding the lock!  It invokes user code.
    */
   private void create()
+  {
+    create(null);
+  }
+
+  /**
+   * DO NOT call this method while holding the lock!  It invokes user code.
+   * @param idleObjectCallback if not null, the object is created for {@link #createIdleObject(Callback)}
+   *                           even if no one is waiting for it, and the callback is notified of the outcome
+   */
+  private void create(final Callback<Boolean> idleObjectCallback)
   {
     trc("initiating object creation");
-    _rateLimiter.submit(new Task()
+    final Task task = new Task()
     {
       @Override
       public void run(final SimpleCallback callback)
       {
         boolean shouldIgnore;
         synchronized (_lock) {
-          // Ignore the object creation if no one is waiting for the object and the pool already has _minSize objects
+          // Ignore the object creation if no one is waiting for the object and the pool already has _minSize objects,
+          // or, if the object is created ahead of the requests, if the pool is shutting down
           int totalObjects = _checkedOut + _idle.size();
-          shouldIgnore = _waiters.size() == 0 && totalObjects >= _minSize;
+          shouldIgnore = idleObjectCallback == null
+              ? _waiters.size() == 0 && totalObjects >= _minSize
+              : _state != State.RUNNING;
           if (shouldIgnore) {
             _statsTracker.incrementIgnoredCreation();
             if (_poolSize >= 1)
@@ -657,6 +915,11 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
 
         if (shouldIgnore) {
           callback.onDone();
+          if (idleObjectCallback != null)
+          {
+            shutdownIfNeeded();
+            idleObjectCallback.onSuccess(false);
+          }
           return;
         }
 
@@ -674,6 +937,10 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
             }
             add(t);
             callback.onDone();
+            if (idleObjectCallback != null)
+            {
+              idleObjectCallback.onSuccess(true);
+            }
           }
 
           @Override
@@ -732,11 +999,54 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
             }
             LOG.debug(_poolName + ": object creation failed", e);
             callback.onDone();
+            IdleObjectCreation.notifyFailed(idleObjectCallback, cancelledCreate, e);
           }
         }, () -> new ObjectCreationTimeoutException(
             "Exceeded creation timeout of " + _creationTimeout + "ms: in Pool: "+ _poolName)));
       }
-    });
+    };
+    _rateLimiter.submit(idleObjectCallback == null ? task : new IdleObjectCreation(task, idleObjectCallback));
+  }
+
+  /**
+   * Adapts the target size to the load. Destroys the least recently used idle objects
+   * beyond a smaller target size, and creates objects for waiters that a larger target
+   * size lets the pool serve.
+   */
+  private void resize()
+  {
+    List<T> excessObjects = new ArrayList<T>();
+    int creations = 0;
+    synchronized (_lock)
+    {
+      if (_state != State.RUNNING)
+      {
+        return;
+      }
+      int targetSize = _sizer.resize(_clock.currentTimeMillis(), _targetSize, _minSize, _maxSize,
+          _lastCreateError != null);
+      if (targetSize != _targetSize)
+      {
+        LOG.debug("{}: target size changed from {} to {}", new Object[]{ _poolName, _targetSize, targetSize });
+        _targetSize = targetSize;
+      }
+      for (int excess = _poolSize - _targetSize; excess > 0 && !_idle.isEmpty(); excess--)
+      {
+        excessObjects.add(_idle.pollFirst().get());
+      }
+      while (creations < _waiters.size() && shouldCreate())
+      {
+        creations++;
+      }
+    }
+    for (T obj : excessObjects)
+    {
+      destroy(obj, false);
+    }
+    for (int i = 0; i < creations; i++)
+    {
+      create();
+    }
   }
 
   private void timeoutObjects()
@@ -816,6 +1126,11 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     {
       future.cancel(false);
     }
+    ScheduledFuture<?> resizeFuture = _resizeFuture;
+    if (resizeFuture != null)
+    {
+      resizeFuture.cancel(false);
+    }
 
     LOG.info("{}: {}", _poolName, "shutdown complete");
 
@@ -904,6 +1219,11 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       {
         _statsTracker.trackWaitTime(waitTime);
         _statsTracker.sampleMaxWaitTime(waitTime);
+        // Waiters that timed out or failed waited too, and are the strongest sign that the pool is too small
+        if (_sizer != null)
+        {
+          _sizer.waited(waitTime);
+        }
       }
       _callback.onError(e);
     }
@@ -916,6 +1236,10 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       {
         _statsTracker.trackWaitTime(waitTime);
         _statsTracker.sampleMaxWaitTime(waitTime);
+        if (_sizer != null)
+        {
+          _sizer.waited(waitTime);
+        }
       }
       _callback.onSuccess(result);
     }
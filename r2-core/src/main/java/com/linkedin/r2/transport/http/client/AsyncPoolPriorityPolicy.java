@@ -0,0 +1,96 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.r2.message.RequestPriority;
+import com.linkedin.util.ArgumentUtil;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * Limits of an {@link AsyncPoolImpl} on the requests of each {@link RequestPriority}, on top of the ordering of its
+ * waiters by priority.
+ *
+ * <p>A priority may be capped to a share of the maximum pool size: the requests of that priority holding or waiting
+ * for an object never exceed the share, rounded up, and the pool rejects the requests beyond it at once. This keeps
+ * room in the pool for the other priorities.</p>
+ *
+ * <p>When a shed wait time is set and the oldest waiter of the pool has waited longer, the pool is considered
+ * overloaded: it fails the waiters of the lowest priority, {@link RequestPriority#LOW}, and rejects the new ones
+ * that would have to wait, until the waiters are served in time again.</p>
+ *
+ * <p>Both are reported to the requests as a {@link com.linkedin.r2.SizeLimitExceededException}, like a full waiter queue.</p>
+ */
+public class AsyncPoolPriorityPolicy
+{
+  private final Map<RequestPriority, Double> _maxShares;
+  private final long _shedWaitTime;
+
+  /**
+   * @param maxShares share of the maximum pool size, greater than 0 and at most 1, that the requests of each priority
+   *                  may hold or wait for. Priorities without a share are not capped.
+   * @param shedWaitTime milliseconds the oldest waiter may wait before the pool sheds the lowest priority, or 0 to
+   *                     never shed.
+   */
+  public AsyncPoolPriorityPolicy(Map<RequestPriority, Double> maxShares, long shedWaitTime)
+  {
+    ArgumentUtil.notNull(maxShares, "maxShares");
+    ArgumentUtil.checkArgument(shedWaitTime >= 0, "shedWaitTime");
+    for (Map.Entry<RequestPriority, Double> entry : maxShares.entrySet())
+    {
+      ArgumentUtil.notNull(entry.getKey(), "priority");
+      ArgumentUtil.checkArgument(entry.getValue() != null && entry.getValue() > 0 && entry.getValue() <= 1,
+          "maxShares of " + entry.getKey());
+    }
+    _maxShares = maxShares.isEmpty()
+        ? Collections.emptyMap() : Collections.unmodifiableMap(new EnumMap<>(maxShares));
+    _shedWaitTime = shedWaitTime;
+  }
+
+  /**
+   * @return true if the share of at least one priority is capped.
+   */
+  public boolean hasMaxShares()
+  {
+    return !_maxShares.isEmpty();
+  }
+
+  /**
+   * @return the number of objects the requests of the priority may hold or wait for in a pool of the given maximum
+   *         size, at least 1, or {@link Integer#MAX_VALUE} if the priority is not capped.
+   */
+  public int getMaxCount(RequestPriority priority, int maxPoolSize)
+  {
+    Double share = _maxShares.get(priority);
+    if (share == null)
+    {
+      return Integer.MAX_VALUE;
+    }
+    return Math.max(1, (int) Math.ceil(share * maxPoolSize));
+  }
+
+  /**
+   * @return milliseconds the oldest waiter may wait before the pool sheds the lowest priority, 0 if it never does.
+   */
+  public long getShedWaitTime()
+  {
+    return _shedWaitTime;
+  }
+}
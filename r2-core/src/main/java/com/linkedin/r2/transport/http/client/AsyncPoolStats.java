@@ -42,6 +42,7 @@ public class AsyncPoolStats implements PoolStats
   private final int _checkedOut;
   private final int _maxPoolSize;
   private final int _minPoolSize;
+  private final int _targetPoolSize;
   private final int _poolSize;
 
   private final int _sampleMaxCheckedOut;
@@ -55,6 +56,43 @@ public class AsyncPoolStats implements PoolStats
   private final long _waitTime99Pct;
   private final LifecycleStats _lifecycleStats;
 
+  /**
+   * This class should be instantiated through a call to
+   * getStats() on an AsyncPool. The target pool size is the maximum pool size.
+   */
+  public AsyncPoolStats(
+      int totalCreated,
+      int totalDestroyed,
+      int totalCreateErrors,
+      int totalDestroyErrors,
+      int totalBadDestroyed,
+      int totalTimedOut,
+      int totalWaiterTimedOut,
+      int totalCreationsIgnored,
+
+      int checkedOut,
+      int maxPoolSize,
+      int minPoolSize,
+      int poolSize,
+
+      int sampleMaxCheckedOut,
+      int sampleMaxPoolSize,
+      long sampleMaxWaitTime,
+
+      int idleCount,
+      double waitTimeAvg,
+      long waitTime50Pct,
+      long waitTime95Pct,
+      long waitTime99Pct,
+      LifecycleStats lifecycleStats
+  )
+  {
+    this(totalCreated, totalDestroyed, totalCreateErrors, totalDestroyErrors, totalBadDestroyed, totalTimedOut,
+        totalWaiterTimedOut, totalCreationsIgnored, checkedOut, maxPoolSize, minPoolSize, maxPoolSize, poolSize,
+        sampleMaxCheckedOut, sampleMaxPoolSize, sampleMaxWaitTime, idleCount, waitTimeAvg, waitTime50Pct, waitTime95Pct,
+        waitTime99Pct, lifecycleStats);
+  }
+
   /**
    * This class should be instantiated through a call to
    * getStats() on an AsyncPool.
@@ -72,6 +110,7 @@ public class AsyncPoolStats implements PoolStats
       int checkedOut,
       int maxPoolSize,
       int minPoolSize,
+      int targetPoolSize,
       int poolSize,
 
       int sampleMaxCheckedOut,
@@ -98,6 +137,7 @@ public class AsyncPoolStats implements PoolStats
     _checkedOut = checkedOut;
     _maxPoolSize = maxPoolSize;
     _minPoolSize = minPoolSize;
+    _targetPoolSize = targetPoolSize;
     _poolSize = poolSize;
 
     _sampleMaxCheckedOut = sampleMaxCheckedOut;
@@ -235,6 +275,16 @@ public class AsyncPoolStats implements PoolStats
     return _minPoolSize;
   }
 
+  /**
+   * Get the size the pool is currently allowed to grow to.
+   * @return The target pool size
+   */
+  @Override
+  public int getTargetPoolSize()
+  {
+    return _targetPoolSize;
+  }
+
   /**
    * Get the pool size at the time of the call to getStats().
    * @return The pool size
@@ -346,6 +396,7 @@ public class AsyncPoolStats implements PoolStats
         "\ntotalWaiterTimedOut: " + _totalWaiterTimedOut +
         "\ncheckedOut: " + _totalTimedOut +
         "\nmaxPoolSize: " + _maxPoolSize +
+        "\ntargetPoolSize: " + _targetPoolSize +
         "\npoolSize: " + _poolSize +
         "\nsampleMaxCheckedOut: " + _sampleMaxCheckedOut +
         "\nsampleMaxPoolSize: " + _sampleMaxPoolSize +
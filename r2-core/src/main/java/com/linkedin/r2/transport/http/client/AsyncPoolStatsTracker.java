@@ -22,13 +22,17 @@ import com.linkedin.common.stats.LongTracking;
 import com.linkedin.util.clock.Clock;
 import com.linkedin.util.clock.SystemClock;
 import com.linkedin.util.clock.Time;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 
 /**
  * Tracks statistics from a {@link com.linkedin.r2.transport.http.client.AsyncPool} and produces
- * a {@link com.linkedin.r2.transport.http.client.AsyncPoolStats} upon request. The implementation
- * itself is not thread safe. Use external synchronization if needed.
+ * a {@link com.linkedin.r2.transport.http.client.AsyncPoolStats} upon request. Counters and sampled
+ * maximums are updated atomically, so the increment and sample methods may be called concurrently.
+ * {@link #trackWaitTime(long)} and {@link #getStats()} use the {@link LongTracker}, which is not
+ * thread safe, and need external synchronization.
  *
  * @author Sean Sheng
  * @version $Revision: $
@@ -46,14 +50,14 @@ public class AsyncPoolStatsTracker
   /**
    * These are total counts over the entire lifetime of the pool
    */
-  private int _totalCreated = 0;
-  private int _totalDestroyed = 0;
-  private int _totalCreateErrors = 0;
-  private int _totalDestroyErrors = 0;
-  private int _totalBadDestroyed = 0;
-  private int _totalTimedOut = 0;
-  private int _totalWaiterTimedOut = 0;
-  private int _totalCreationIgnored = 0;
+  private final AtomicInteger _totalCreated = new AtomicInteger();
+  private final AtomicInteger _totalDestroyed = new AtomicInteger();
+  private final AtomicInteger _totalCreateErrors = new AtomicInteger();
+  private final AtomicInteger _totalDestroyErrors = new AtomicInteger();
+  private final AtomicInteger _totalBadDestroyed = new AtomicInteger();
+  private final AtomicInteger _totalTimedOut = new AtomicInteger();
+  private final AtomicInteger _totalWaiterTimedOut = new AtomicInteger();
+  private final AtomicInteger _totalCreationIgnored = new AtomicInteger();
 
 
   /**
@@ -62,13 +66,14 @@ public class AsyncPoolStatsTracker
   private int _sampleMaxCheckedOut = 0;
   private int _sampleMaxPoolSize = 0;
   private long _sampleMaxWaitTime = 0;
-  private int _currentMaxCheckedOut = 0;
-  private int _currentMaxPoolSize = 0;
-  private long _currentMaxWaitTime = 0;
+  private final AtomicInteger _currentMaxCheckedOut = new AtomicInteger();
+  private final AtomicInteger _currentMaxPoolSize = new AtomicInteger();
+  private final AtomicLong _currentMaxWaitTime = new AtomicLong();
 
   private final Supplier<PoolStats.LifecycleStats> _lifecycleStatsSupplier;
   private final Supplier<Integer> _maxSizeSupplier;
   private final Supplier<Integer> _minSizeSupplier;
+  private final Supplier<Integer> _targetSizeSupplier;
   private final Supplier<Integer> _poolSizeSupplier;
   private final Supplier<Integer> _checkedOutSupplier;
   private final Supplier<Integer> _idleSizeSupplier;
@@ -105,10 +110,33 @@ public class AsyncPoolStatsTracker
       Supplier<Integer> idleSizeSupplier,
       Clock clock,
       LongTracker waitTimeTracker)
+  {
+    this(lifecycleStatsSupplier,
+        maxSizeSupplier,
+        minSizeSupplier,
+        maxSizeSupplier,
+        poolSizeSupplier,
+        checkedOutSupplier,
+        idleSizeSupplier,
+        clock,
+        waitTimeTracker);
+  }
+
+  public AsyncPoolStatsTracker(
+      Supplier<PoolStats.LifecycleStats> lifecycleStatsSupplier,
+      Supplier<Integer> maxSizeSupplier,
+      Supplier<Integer> minSizeSupplier,
+      Supplier<Integer> targetSizeSupplier,
+      Supplier<Integer> poolSizeSupplier,
+      Supplier<Integer> checkedOutSupplier,
+      Supplier<Integer> idleSizeSupplier,
+      Clock clock,
+      LongTracker waitTimeTracker)
   {
     _lifecycleStatsSupplier = lifecycleStatsSupplier;
     _maxSizeSupplier = maxSizeSupplier;
     _minSizeSupplier = minSizeSupplier;
+    _targetSizeSupplier = targetSizeSupplier;
     _poolSizeSupplier = poolSizeSupplier;
     _checkedOutSupplier = checkedOutSupplier;
     _idleSizeSupplier = idleSizeSupplier;
@@ -118,57 +146,57 @@ public class AsyncPoolStatsTracker
 
   public void incrementCreated()
   {
-    _totalCreated++;
+    _totalCreated.incrementAndGet();
   }
 
   public void incrementIgnoredCreation()
   {
-    _totalCreationIgnored++;
+    _totalCreationIgnored.incrementAndGet();
   }
 
   public void incrementDestroyed()
   {
-    _totalDestroyed++;
+    _totalDestroyed.incrementAndGet();
   }
 
   public void incrementCreateErrors()
   {
-    _totalCreateErrors++;
+    _totalCreateErrors.incrementAndGet();
   }
 
   public void incrementDestroyErrors()
   {
-    _totalDestroyErrors++;
+    _totalDestroyErrors.incrementAndGet();
   }
 
   public void incrementBadDestroyed()
   {
-    _totalBadDestroyed++;
+    _totalBadDestroyed.incrementAndGet();
   }
 
   public void incrementTimedOut()
   {
-    _totalTimedOut++;
+    _totalTimedOut.incrementAndGet();
   }
 
   public void incrementWaiterTimedOut()
   {
-    _totalWaiterTimedOut++;
+    _totalWaiterTimedOut.incrementAndGet();
   }
 
   public void sampleMaxPoolSize()
   {
-    _currentMaxPoolSize = Math.max(_poolSizeSupplier.get(), _currentMaxPoolSize);
+    _currentMaxPoolSize.accumulateAndGet(_poolSizeSupplier.get(), Math::max);
   }
 
   public void sampleMaxCheckedOut()
   {
-    _currentMaxCheckedOut = Math.max(_checkedOutSupplier.get(), _currentMaxCheckedOut);
+    _currentMaxCheckedOut.accumulateAndGet(_checkedOutSupplier.get(), Math::max);
   }
 
   public void sampleMaxWaitTime(long waitTimeMillis)
   {
-    _currentMaxWaitTime = Math.max(waitTimeMillis, _currentMaxWaitTime);
+    _currentMaxWaitTime.accumulateAndGet(waitTimeMillis, Math::max);
   }
 
   public void trackWaitTime(long waitTimeMillis)
@@ -181,30 +209,27 @@ public class AsyncPoolStatsTracker
     long now = _clock.currentTimeMillis();
     if (now - _lastSamplingTime > MINIMUM_SAMPLING_PERIOD)
     {
-      _sampleMaxCheckedOut = _currentMaxCheckedOut;
-      _sampleMaxPoolSize = _currentMaxPoolSize;
-      _sampleMaxWaitTime = _currentMaxWaitTime;
-
-      _currentMaxCheckedOut = _checkedOutSupplier.get();
-      _currentMaxPoolSize = _poolSizeSupplier.get();
-      _currentMaxWaitTime = 0L;
+      _sampleMaxCheckedOut = _currentMaxCheckedOut.getAndSet(_checkedOutSupplier.get());
+      _sampleMaxPoolSize = _currentMaxPoolSize.getAndSet(_poolSizeSupplier.get());
+      _sampleMaxWaitTime = _currentMaxWaitTime.getAndSet(0L);
 
       _lastSamplingTime = now;
     }
 
     LongStats waitTimeStats = _waitTimeTracker.getStats();
     AsyncPoolStats stats = new AsyncPoolStats(
-        _totalCreated,
-        _totalDestroyed,
-        _totalCreateErrors,
-        _totalDestroyErrors,
-        _totalBadDestroyed,
-        _totalTimedOut,
-        _totalWaiterTimedOut,
-        _totalCreationIgnored,
+        _totalCreated.get(),
+        _totalDestroyed.get(),
+        _totalCreateErrors.get(),
+        _totalDestroyErrors.get(),
+        _totalBadDestroyed.get(),
+        _totalTimedOut.get(),
+        _totalWaiterTimedOut.get(),
+        _totalCreationIgnored.get(),
         _checkedOutSupplier.get(),
         _maxSizeSupplier.get(),
         _minSizeSupplier.get(),
+        _targetSizeSupplier.get(),
         _poolSizeSupplier.get(),
         _sampleMaxCheckedOut,
         _sampleMaxPoolSize,
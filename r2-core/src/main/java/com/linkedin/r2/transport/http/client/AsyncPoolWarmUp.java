@@ -0,0 +1,144 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.util.None;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Fills an {@link AsyncPool} with objects ahead of the requests that will need them.
+ */
+public final class AsyncPoolWarmUp
+{
+  /**
+   * Default maximum number of objects created at once.
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+  private AsyncPoolWarmUp()
+  {
+  }
+
+  /**
+   * Warms up the pool with at most {@link #DEFAULT_MAX_CONCURRENCY} objects created at once.
+   *
+   * @see #warmUp(AsyncPool, int, int, Callback)
+   */
+  public static <T> void warmUp(AsyncPool<T> pool, int count, Callback<None> callback)
+  {
+    warmUp(pool, count, DEFAULT_MAX_CONCURRENCY, callback);
+  }
+
+  /**
+   * Creates objects with {@link AsyncPool#createIdleObject(Callback)} until the pool holds the given number of
+   * objects, with at most the given number of creations in progress at once. Each object can be checked out as soon
+   * as it is created. Objects the pool already holds count towards the number. No more objects are created once a
+   * creation fails or the pool is full.
+   *
+   * @param pool the pool to warm up.
+   * @param count number of objects the pool should hold, bounded by its maximum size.
+   * @param maxConcurrency maximum number of objects created at once.
+   * @param callback invoked once the creations completed, with the first error if a creation failed.
+   */
+  public static <T> void warmUp(AsyncPool<T> pool, int count, int maxConcurrency, Callback<None> callback)
+  {
+    if (maxConcurrency <= 0)
+    {
+      throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+    }
+    PoolStats stats = pool.getStats();
+    int creations = Math.min(count, stats.getMaxPoolSize()) - stats.getPoolSize();
+    if (creations <= 0)
+    {
+      callback.onSuccess(None.none());
+      return;
+    }
+    new WarmUp(pool, creations, Math.min(creations, maxConcurrency), callback).start();
+  }
+
+  /**
+   * Runs the creations as a number of chains, each starting the next creation once its previous one completed.
+   */
+  private static final class WarmUp implements Callback<Boolean>
+  {
+    private final AsyncPool<?> _pool;
+    private final Callback<None> _callback;
+    // Creations not started yet, or not positive once no more creations should start
+    private final AtomicInteger _pending;
+    // Chains of creations that did not end yet
+    private final AtomicInteger _chains;
+    private final AtomicReference<Throwable> _firstError = new AtomicReference<>();
+
+    private WarmUp(AsyncPool<?> pool, int creations, int chains, Callback<None> callback)
+    {
+      _pool = pool;
+      _callback = callback;
+      _pending = new AtomicInteger(creations);
+      _chains = new AtomicInteger(chains);
+    }
+
+    private void start()
+    {
+      for (int i = _chains.get(); i > 0; i--)
+      {
+        next();
+      }
+    }
+
+    @Override
+    public void onSuccess(Boolean created)
+    {
+      if (!created)
+      {
+        // The pool is full or no longer running
+        _pending.set(0);
+      }
+      next();
+    }
+
+    @Override
+    public void onError(Throwable e)
+    {
+      _firstError.compareAndSet(null, e);
+      _pending.set(0);
+      next();
+    }
+
+    private void next()
+    {
+      if (_pending.getAndDecrement() > 0)
+      {
+        _pool.createIdleObject(this);
+      }
+      else if (_chains.decrementAndGet() == 0)
+      {
+        Throwable error = _firstError.get();
+        if (error == null)
+        {
+          _callback.onSuccess(None.none());
+        }
+        else
+        {
+          _callback.onError(error);
+        }
+      }
+    }
+  }
+}
@@ -26,8 +26,8 @@ import com.linkedin.common.stats.LongTracker;
 import com.linkedin.common.stats.LongTracking;
 import com.linkedin.common.util.None;
 import com.linkedin.r2.SizeLimitExceededException;
+import com.linkedin.r2.message.RequestPriority;
 import com.linkedin.r2.util.Cancellable;
-import com.linkedin.r2.util.LinkedDeque;
 import com.linkedin.util.ArgumentUtil;
 import com.linkedin.util.clock.Clock;
 import com.linkedin.util.clock.SystemClock;
@@ -90,7 +90,9 @@ public class AsyncSharedPoolImpl<T> implements AsyncPool<T>
   private final HashMap<T, Integer> _disposedItems = new HashMap<>();
 
   private final AsyncPoolStatsTracker _statsTracker;
-  private final LinkedDeque<Callback<T>> _waiters;
+  private final Clock _clock;
+  // Waiters are all served at once by the creation of the item, those of a higher priority first
+  private final PriorityWaiterQueue<Callback<T>> _waiters;
   private State _state = State.NOT_YET_STARTED;
   private Callback<None> _shutdownCallback = null;
 
@@ -122,6 +124,7 @@ public class AsyncSharedPoolImpl<T> implements AsyncPool<T>
     _timeoutMills = timeoutMills;
     _createImmediately = createImmediately;
     _maxWaiters = maxWaiters;
+    _clock = clock;
 
     _item = new TimedObject<>();
     _statsTracker = new AsyncPoolStatsTracker(
@@ -152,7 +155,7 @@ public class AsyncSharedPoolImpl<T> implements AsyncPool<T>
         },
         clock,
         waitTimeTracker);
-    _waiters = new LinkedDeque<>();
+    _waiters = new PriorityWaiterQueue<>();
   }
 
   @Override
@@ -226,11 +229,19 @@ public class AsyncSharedPoolImpl<T> implements AsyncPool<T>
 
   @Override
   public Cancellable get(Callback<T> callback)
+  {
+    return get(callback, RequestPriority.NORMAL);
+  }
+
+  @Override
+  public Cancellable get(Callback<T> callback, RequestPriority priority)
   {
     ArgumentUtil.notNull(callback, "callback");
+    ArgumentUtil.notNull(priority, "priority");
 
     final TimeTrackingCallback timeTrackingCallback = new TimeTrackingCallback(callback);
-    final LinkedDeque.Node<Callback<T>> node;
+    final PriorityWaiterQueue.Entry<Callback<T>> entry;
+    Callback<T> displaced = null;
     T item = null;
     boolean create = false;
     while (true)
@@ -244,7 +255,13 @@ public class AsyncSharedPoolImpl<T> implements AsyncPool<T>
           item = _item.get();
           if (item == null)
           {
-            node = _waiters.size() < _maxWaiters ? _waiters.addLastNode(timeTrackingCallback) : null;
+            if (_waiters.size() >= _maxWaiters)
+            {
+              // Make room by displacing the most recent waiter of a lower priority, if any
+              displaced = _waiters.pollLastBelow(priority);
+            }
+            entry = _waiters.size() < _maxWaiters
+                ? _waiters.add(timeTrackingCallback, priority, _clock.currentTimeMillis()) : null;
             if (_isCreateInProgress)
             {
               LOG.debug("{}: item creation is in progress", _name);
@@ -285,7 +302,19 @@ public class AsyncSharedPoolImpl<T> implements AsyncPool<T>
         doDestroy(item, BAD, () -> {});
       }
     }
-    if (node == null)
+    if (displaced != null)
+    {
+      try
+      {
+        displaced.onError(
+            new SizeLimitExceededException("AsyncPool " + _name + " reached maximum waiter size: " + _maxWaiters));
+      }
+      catch (Exception ex)
+      {
+        LOG.error("Encountered error while invoking error waiter callback", ex);
+      }
+    }
+    if (entry == null)
     {
       // This is a recoverable exception. User can simply retry the failed get() operation.
       timeTrackingCallback.onError(
@@ -300,7 +329,7 @@ public class AsyncSharedPoolImpl<T> implements AsyncPool<T>
     return () -> {
       synchronized (_lock)
       {
-        return _waiters.removeNode(node) != null;
+        return _waiters.remove(entry);
       }
     };
   }
@@ -506,7 +535,7 @@ public class AsyncSharedPoolImpl<T> implements AsyncPool<T>
         {
           _statsTracker.incrementCreated();
 
-          // Takes a snapshot of waiters and clears all waiters
+          // Takes a snapshot of waiters, by priority, and clears all waiters
           int size = _waiters.size();
           _checkedOut += size;
           _statsTracker.sampleMaxCheckedOut();
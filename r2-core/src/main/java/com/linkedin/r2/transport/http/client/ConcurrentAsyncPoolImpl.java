@@ -0,0 +1,839 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.SimpleCallback;
+import com.linkedin.common.stats.LongTracker;
+import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.SizeLimitExceededException;
+import com.linkedin.r2.transport.http.client.RateLimiter.Task;
+import com.linkedin.r2.util.Cancellable;
+import com.linkedin.util.ArgumentUtil;
+import com.linkedin.util.clock.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * An {@link AsyncPool} with the semantics of {@link AsyncPoolImpl} (maximum and minimum size, idle timeout,
+ * waiter timeout, maximum waiters, {@link AsyncPoolImpl.Strategy} and rate limited creation) that does not
+ * serialize {@link #get(Callback)} and {@link #put(Object)} on a single lock.
+ *
+ * <p>Idle objects and waiters are kept in lock-free deques and the sizes of the pool in atomic counters.
+ * A getter enqueues itself after finding no idle object and a putter enqueues its object after finding no
+ * waiter, and both then try to match idle objects with waiters, so neither can be left waiting for the
+ * other. Waiters are served in order of arrival, except that a getter may take an object returned while an
+ * earlier waiter is still being enqueued.</p>
+ *
+ * <p>Idle objects are kept in a single deque shared by all threads rather than per thread, as the pool does not
+ * know which thread an object is affine to. Pools of channels partition by event loop one level up, with one pool
+ * per event loop.</p>
+ *
+ * <p>The wait time tracker is not thread safe and is the only state updated under a lock. Pass a
+ * {@link NoopLongTracker} if wait time percentiles are not needed, which also skips the lock.</p>
+ */
+public class ConcurrentAsyncPoolImpl<T> implements AsyncPool<T>
+{
+  private static final Logger LOG = LoggerFactory.getLogger(ConcurrentAsyncPoolImpl.class);
+
+  private enum State { NOT_YET_STARTED, RUNNING, SHUTTING_DOWN, STOPPED }
+
+  // Configured
+  private final String _poolName;
+  private final Lifecycle<T> _lifecycle;
+  private final int _maxSize;
+  private final int _maxWaiters;
+  private final long _idleTimeout;
+  private final long _waiterTimeout;
+  private final long _creationTimeout;
+  private final ScheduledExecutorService _timeoutExecutor;
+  private final AsyncPoolImpl.Strategy _strategy;
+  private final int _minSize;
+  private final RateLimiter _rateLimiter;
+  private final Clock _clock;
+  private volatile ScheduledFuture<?> _objectTimeoutFuture;
+
+  // Including idle, checked out, and creations/destructions in progress
+  private final AtomicInteger _poolSize = new AtomicInteger();
+  private final AtomicInteger _checkedOut = new AtomicInteger();
+  // Unused objects live here, sorted by age.
+  // The first object is the least recently added object.
+  private final ConcurrentLinkedDeque<TimedObject<T>> _idle = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger _idleSize = new AtomicInteger();
+  // Waiters that have not been served, timed out or cancelled yet
+  private final ConcurrentLinkedDeque<Waiter> _waiters = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger _waiterCount = new AtomicInteger();
+  private final AtomicReference<State> _state = new AtomicReference<>(State.NOT_YET_STARTED);
+  private final AtomicReference<Callback<None>> _shutdownCallback = new AtomicReference<>();
+  private final AsyncPoolStatsTracker _statsTracker;
+  // Guards the wait time tracker of the stats tracker, unless it tracks nothing
+  private final Object _waitTimeLock = new Object();
+  private final boolean _waitTimeTracked;
+
+  /**
+   * @param name Pool name, used in logs and statistics.
+   * @param lifecycle The lifecycle used to create and destroy pool objects.
+   * @param maxSize The maximum number of objects in the pool.
+   * @param idleTimeout The number of milliseconds before an idle pool object
+   *                    may be destroyed.
+   * @param waiterTimeout The number of milliseconds a waiter is kept before it
+   *                      fails, if between {@link AsyncPoolImpl#MIN_WAITER_TIMEOUT}
+   *                      and {@link AsyncPoolImpl#MAX_WAITER_TIMEOUT}.
+   * @param timeoutExecutor A ScheduledExecutorService that will be used to
+   *                        timeout objects, waiters and creations.
+   * @param maxWaiters The maximum number of waiters.
+   * @param strategy The strategy used to return pool objects.
+   * @param minSize Minimum number of objects in the pool. Set to zero for
+   *                no minimum.
+   * @param rateLimiter The {@link RateLimiter} that controls the object creation rate.
+   * @param clock a clock object used in tracking async pool stats
+   * @param waitTimeTracker tracker used to track the wait time percentiles.
+   */
+  public ConcurrentAsyncPoolImpl(String name,
+      Lifecycle<T> lifecycle,
+      int maxSize,
+      long idleTimeout,
+      long waiterTimeout,
+      ScheduledExecutorService timeoutExecutor,
+      int maxWaiters,
+      AsyncPoolImpl.Strategy strategy,
+      int minSize,
+      RateLimiter rateLimiter,
+      Clock clock,
+      LongTracker waitTimeTracker)
+  {
+    ArgumentUtil.notNull(lifecycle, "lifecycle");
+    ArgumentUtil.notNull(timeoutExecutor, "timeoutExecutor");
+    ArgumentUtil.notNull(strategy, "strategy");
+    ArgumentUtil.notNull(rateLimiter, "rateLimiter");
+
+    _poolName = name + "/" + Integer.toHexString(hashCode());
+    _lifecycle = lifecycle;
+    _maxSize = maxSize;
+    _idleTimeout = idleTimeout;
+    _waiterTimeout = waiterTimeout;
+    _creationTimeout = AsyncPoolImpl.DEFAULT_OBJECT_CREATION_TIMEOUT;
+    _timeoutExecutor = timeoutExecutor;
+    _maxWaiters = maxWaiters;
+    _strategy = strategy;
+    _minSize = minSize;
+    _rateLimiter = rateLimiter;
+    _clock = clock;
+    _waitTimeTracked = !(waitTimeTracker instanceof NoopLongTracker);
+    _statsTracker = new AsyncPoolStatsTracker(
+        () -> _lifecycle.getStats(),
+        () -> _maxSize,
+        () -> _minSize,
+        _poolSize::get,
+        _checkedOut::get,
+        _idleSize::get,
+        clock,
+        waitTimeTracker);
+  }
+
+  @Override
+  public String getName()
+  {
+    return _poolName;
+  }
+
+  @Override
+  public void start()
+  {
+    if (!_state.compareAndSet(State.NOT_YET_STARTED, State.RUNNING))
+    {
+      throw new IllegalStateException(_poolName + " is " + _state.get());
+    }
+    if (_idleTimeout > 0)
+    {
+      long freq = Math.min(_idleTimeout / 10, 1000);
+      _objectTimeoutFuture = _timeoutExecutor.scheduleAtFixedRate(this::timeoutObjects, freq, freq,
+          TimeUnit.MILLISECONDS);
+    }
+
+    // Make the minimum required number of connections now
+    for (int i = 0; i < _minSize; i++)
+    {
+      if (shouldCreate())
+      {
+        create();
+      }
+    }
+  }
+
+  @Override
+  public void shutdown(Callback<None> callback)
+  {
+    // The callback is published before the state changes, so that whoever completes the shutdown finds it
+    if (!_shutdownCallback.compareAndSet(null, callback))
+    {
+      callback.onError(new IllegalStateException(_poolName + " is " + _state.get()));
+      return;
+    }
+    if (!_state.compareAndSet(State.RUNNING, State.SHUTTING_DOWN))
+    {
+      _shutdownCallback.set(null);
+      callback.onError(new IllegalStateException(_poolName + " is " + _state.get()));
+      return;
+    }
+    LOG.info("{}: {}", _poolName, "shutdown requested");
+    shutdownIfNeeded();
+  }
+
+  @Override
+  public Collection<Callback<T>> cancelWaiters()
+  {
+    List<Callback<T>> cancelled = new ArrayList<>();
+    for (Waiter waiter; (waiter = pollWaiter()) != null;)
+    {
+      cancelled.add(waiter._callback);
+    }
+    return cancelled;
+  }
+
+  @Override
+  public Cancellable get(final Callback<T> callback)
+  {
+    final Callback<T> callbackWithTracking = new TimeTrackingCallback(callback);
+    for (;;)
+    {
+      final State state = _state.get();
+      if (state != State.RUNNING)
+      {
+        callbackWithTracking.onError(new IllegalStateException(_poolName + " is " + state));
+        return () -> false;
+      }
+      final TimedObject<T> obj = pollIdle();
+      if (obj == null)
+      {
+        break;
+      }
+      final State stateAfterPoll = _state.get();
+      if (stateAfterPoll != State.RUNNING)
+      {
+        // The pool was shut down after the state was checked above, and may have stopped counting this object as
+        // idle. Put it back so that the shutdown sees it.
+        unpollIdle(obj);
+        shutdownIfNeeded();
+        callbackWithTracking.onError(new IllegalStateException(_poolName + " is " + stateAfterPoll));
+        return () -> false;
+      }
+      T rawObj = obj.get();
+      if (_lifecycle.validateGet(rawObj))
+      {
+        trc("dequeued an idle object");
+        checkOut();
+        callbackWithTracking.onSuccess(rawObj);
+        return () -> false;
+      }
+      // Invalid object, discard it and keep trying
+      destroy(rawObj, true);
+      trc("dequeued and disposed an invalid idle object");
+    }
+
+    if (!reserveWaiter())
+    {
+      // This is a recoverable exception. User can simply retry the failed get() operation.
+      callbackWithTracking.onError(
+          new SizeLimitExceededException("AsyncPool " + _poolName + " reached maximum waiter size: " + _maxWaiters));
+      return () -> false;
+    }
+    final Waiter waiter = new Waiter(callbackWithTracking);
+    _waiters.offerLast(waiter);
+    if (isWaiterTimeoutEnabled())
+    {
+      waiter._timeoutFuture = _timeoutExecutor.schedule(waiter::timeout, _waiterTimeout, TimeUnit.MILLISECONDS);
+    }
+    trc("enqueued a waiter");
+
+    if (_state.get() == State.STOPPED && waiter.claim())
+    {
+      // The pool stopped while the waiter was being enqueued, nothing will serve it
+      _waiters.remove(waiter);
+      callbackWithTracking.onError(new IllegalStateException(_poolName + " is " + State.STOPPED));
+      return () -> false;
+    }
+    if (shouldCreate())
+    {
+      create();
+    }
+    // An object may have been returned after the idle objects were polled above
+    serveWaiters();
+    return waiter;
+  }
+
+  private boolean isWaiterTimeoutEnabled()
+  {
+    // Do not enable waiter timeout if the configured value is not within the fail fast threshold
+    return _waiterTimeout >= AsyncPoolImpl.MIN_WAITER_TIMEOUT && _waiterTimeout <= AsyncPoolImpl.MAX_WAITER_TIMEOUT;
+  }
+
+  @Override
+  public void put(T obj)
+  {
+    _checkedOut.decrementAndGet();
+    if (!_lifecycle.validatePut(obj))
+    {
+      destroy(obj, true);
+      return;
+    }
+    // A channel made it through a complete request lifecycle
+    _rateLimiter.setPeriod(0);
+    add(obj);
+  }
+
+  private void add(T obj)
+  {
+    final Waiter waiter = pollWaiter();
+    if (waiter != null)
+    {
+      trc("dequeued a waiter");
+      checkOut();
+      waiter._callback.onSuccess(obj);
+    }
+    else
+    {
+      _idle.offerLast(new TimedObject<>(obj));
+      _idleSize.incrementAndGet();
+      trc("enqueued an idle object");
+      // A waiter may have been enqueued after the waiters were polled above
+      serveWaiters();
+    }
+    shutdownIfNeeded();
+  }
+
+  @Override
+  public void dispose(T obj)
+  {
+    _checkedOut.decrementAndGet();
+    destroy(obj, true);
+  }
+
+  @Override
+  public void createIdleObject(Callback<Boolean> callback)
+  {
+    if (reserveIdleObject())
+    {
+      create(callback);
+    }
+    else
+    {
+      callback.onSuccess(false);
+    }
+  }
+
+  @Override
+  public AsyncPoolStats getStats()
+  {
+    if (!_waitTimeTracked)
+    {
+      return _statsTracker.getStats();
+    }
+    synchronized (_waitTimeLock)
+    {
+      return _statsTracker.getStats();
+    }
+  }
+
+  /**
+   * Hands idle objects to waiters until either of them runs out. Both {@link #get(Callback)} and
+   * {@link #add(Object)} call this after enqueuing, so that the last one to enqueue sees the other.
+   */
+  private void serveWaiters()
+  {
+    while (!_waiters.isEmpty())
+    {
+      final TimedObject<T> obj = pollIdle();
+      if (obj == null)
+      {
+        return;
+      }
+      T rawObj = obj.get();
+      if (!_lifecycle.validateGet(rawObj))
+      {
+        destroy(rawObj, true);
+        trc("dequeued and disposed an invalid idle object");
+        continue;
+      }
+      final Waiter waiter = pollWaiter();
+      if (waiter == null)
+      {
+        // The waiters were served, timed out or cancelled meanwhile. Put the object back and check the waiters
+        // again.
+        unpollIdle(obj);
+        continue;
+      }
+      trc("dequeued a waiter");
+      checkOut();
+      waiter._callback.onSuccess(rawObj);
+    }
+  }
+
+  private TimedObject<T> pollIdle()
+  {
+    final TimedObject<T> obj = _strategy == AsyncPoolImpl.Strategy.LRU ? _idle.pollFirst() : _idle.pollLast();
+    if (obj != null)
+    {
+      _idleSize.decrementAndGet();
+    }
+    return obj;
+  }
+
+  /**
+   * Puts an object taken with {@link #pollIdle()} back where it was taken from.
+   */
+  private void unpollIdle(TimedObject<T> obj)
+  {
+    if (_strategy == AsyncPoolImpl.Strategy.LRU)
+    {
+      _idle.offerFirst(obj);
+    }
+    else
+    {
+      _idle.offerLast(obj);
+    }
+    _idleSize.incrementAndGet();
+  }
+
+  private Waiter pollWaiter()
+  {
+    for (Waiter waiter; (waiter = _waiters.pollFirst()) != null;)
+    {
+      if (waiter.claim())
+      {
+        return waiter;
+      }
+    }
+    return null;
+  }
+
+  private boolean reserveWaiter()
+  {
+    for (;;)
+    {
+      int waiters = _waiterCount.get();
+      if (waiters >= _maxWaiters)
+      {
+        return false;
+      }
+      if (_waiterCount.compareAndSet(waiters, waiters + 1))
+      {
+        return true;
+      }
+    }
+  }
+
+  private void checkOut()
+  {
+    _checkedOut.incrementAndGet();
+    _statsTracker.sampleMaxCheckedOut();
+  }
+
+  private void destroy(T obj, boolean bad)
+  {
+    if (bad)
+    {
+      _statsTracker.incrementBadDestroyed();
+    }
+    trc("disposing a pooled object");
+    _lifecycle.destroy(obj, bad, new Callback<T>()
+    {
+      @Override
+      public void onSuccess(T t)
+      {
+        _statsTracker.incrementDestroyed();
+        if (objectDestroyed(1))
+        {
+          create();
+        }
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        _statsTracker.incrementDestroyErrors();
+        if (objectDestroyed(1))
+        {
+          create();
+        }
+      }
+    });
+  }
+
+  /**
+   * @param num number of objects have been destroyed
+   * @return true if another object creation should be initiated
+   */
+  private boolean objectDestroyed(int num)
+  {
+    _poolSize.accumulateAndGet(num, (size, destroyed) -> Math.max(size - destroyed, 0));
+    boolean create = shouldCreate();
+    shutdownIfNeeded();
+    return create;
+  }
+
+  /**
+   * Reserves a slot in the pool for a new object if the pool is running, not full, and either has waiters
+   * or is below its minimum size.
+   * @return true if another object creation should be initiated.
+   */
+  private boolean shouldCreate()
+  {
+    if (_state.get() != State.RUNNING)
+    {
+      return false;
+    }
+    for (;;)
+    {
+      int poolSize = _poolSize.get();
+      if (poolSize >= _maxSize || (_waiterCount.get() == 0 && poolSize >= _minSize))
+      {
+        return false;
+      }
+      if (_poolSize.compareAndSet(poolSize, poolSize + 1))
+      {
+        _statsTracker.sampleMaxPoolSize();
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Reserves a slot in the pool for an object created by {@link #createIdleObject(Callback)} if the pool is running
+   * and not full.
+   * @return true if the object creation should be initiated.
+   */
+  private boolean reserveIdleObject()
+  {
+    if (_state.get() != State.RUNNING)
+    {
+      return false;
+    }
+    for (;;)
+    {
+      int poolSize = _poolSize.get();
+      if (poolSize >= _maxSize)
+      {
+        return false;
+      }
+      if (_poolSize.compareAndSet(poolSize, poolSize + 1))
+      {
+        _statsTracker.sampleMaxPoolSize();
+        return true;
+      }
+    }
+  }
+
+  private void create()
+  {
+    create(null);
+  }
+
+  /**
+   * @param idleObjectCallback if not null, the object is created for {@link #createIdleObject(Callback)}
+   *                           even if no one is waiting for it, and the callback is notified of the outcome
+   */
+  private void create(final Callback<Boolean> idleObjectCallback)
+  {
+    trc("initiating object creation");
+    final Task task = new Task()
+    {
+      @Override
+      public void run(final SimpleCallback callback)
+      {
+        // Ignore the object creation if no one is waiting for the object and the pool already has _minSize objects,
+        // or, if the object is created ahead of the requests, if the pool is shutting down
+        boolean shouldIgnore = idleObjectCallback == null
+            ? _waiterCount.get() == 0 && _checkedOut.get() + _idleSize.get() >= _minSize
+            : _state.get() != State.RUNNING;
+        if (shouldIgnore)
+        {
+          _statsTracker.incrementIgnoredCreation();
+          // _poolSize also include the count of creation requests pending. So we have to make sure the pool size
+          // count is updated when we ignore the creation request.
+          _poolSize.accumulateAndGet(1, (size, ignored) -> Math.max(size - ignored, 0));
+          shutdownIfNeeded();
+          callback.onDone();
+          if (idleObjectCallback != null)
+          {
+            idleObjectCallback.onSuccess(false);
+          }
+          return;
+        }
+
+        // Lets not trust the _lifecycle to timely return a response here.
+        // Embedding the callback inside a timeout callback to force a response within creationTimeout
+        // deadline to reclaim the object slot in the pool
+        _lifecycle.create(new TimeoutCallback<>(_timeoutExecutor, _creationTimeout, TimeUnit.MILLISECONDS, new Callback<T>()
+        {
+          @Override
+          public void onSuccess(T t)
+          {
+            _statsTracker.incrementCreated();
+            add(t);
+            callback.onDone();
+            if (idleObjectCallback != null)
+            {
+              idleObjectCallback.onSuccess(true);
+            }
+          }
+
+          @Override
+          public void onError(final Throwable e)
+          {
+            // As in AsyncPoolImpl, deny all waiters and cancel all pending creates so that the waiters see the
+            // real reason rather than eventually timing out while creations are rate limited
+            final Collection<Task> cancelledCreate = _rateLimiter.cancelPendingTasks();
+            _statsTracker.incrementCreateErrors();
+            final Collection<Callback<T>> waitersDenied =
+                _waiters.isEmpty() ? Collections.<Callback<T>>emptyList() : cancelWaiters();
+
+            // reclaim the slot in the pool
+            boolean create = objectDestroyed(1 + cancelledCreate.size());
+
+            for (Callback<T> denied : waitersDenied)
+            {
+              try
+              {
+                denied.onError(e);
+              }
+              catch (Exception ex)
+              {
+                LOG.error("Encountered error while invoking error waiter callback", ex);
+              }
+            }
+
+            // Now after cancelling all the pending tasks, lets make sure to back off on the creation
+            _rateLimiter.incrementPeriod();
+
+            // since all waiters are cancelled, the only condition that makes this true is when the pool is below
+            // the min poolSize
+            if (create)
+            {
+              create();
+            }
+            LOG.debug(_poolName + ": object creation failed", e);
+            callback.onDone();
+            IdleObjectCreation.notifyFailed(idleObjectCallback, cancelledCreate, e);
+          }
+        }, () -> new ObjectCreationTimeoutException(
+            "Exceeded creation timeout of " + _creationTimeout + "ms: in Pool: " + _poolName)));
+      }
+    };
+    _rateLimiter.submit(idleObjectCallback == null ? task : new IdleObjectCreation(task, idleObjectCallback));
+  }
+
+  private void timeoutObjects()
+  {
+    Collection<T> expiredObjects = getExpiredObjects();
+    if (expiredObjects.size() > 0)
+    {
+      LOG.debug("{}: disposing {} objects due to idle timeout", _poolName, expiredObjects.size());
+      for (T obj : expiredObjects)
+      {
+        destroy(obj, false);
+      }
+    }
+  }
+
+  private Collection<T> getExpiredObjects()
+  {
+    List<T> expiredObjects = new ArrayList<>();
+    long deadline = _clock.currentTimeMillis() - _idleTimeout;
+    int excess = _poolSize.get() - _minSize;
+    for (TimedObject<T> p; excess > 0 && (p = _idle.peekFirst()) != null && p.getTime() < deadline;)
+    {
+      // The oldest object may be taken by a getter between the peek and the removal
+      if (_idle.removeFirstOccurrence(p))
+      {
+        _idleSize.decrementAndGet();
+        expiredObjects.add(p.get());
+        _statsTracker.incrementTimedOut();
+        excess--;
+      }
+    }
+    return expiredObjects;
+  }
+
+  private void shutdownIfNeeded()
+  {
+    if (_state.get() != State.SHUTTING_DOWN)
+    {
+      return;
+    }
+    final int waiters = _waiterCount.get();
+    final int idle = _idleSize.get();
+    final int poolSize = _poolSize.get();
+    if (waiters == 0 && idle == poolSize && _state.compareAndSet(State.SHUTTING_DOWN, State.STOPPED))
+    {
+      finishShutdown(_shutdownCallback.getAndSet(null));
+    }
+    else
+    {
+      LOG.info("{}: {} waiters and {} objects outstanding before shutdown", new Object[]{ _poolName, waiters, poolSize - idle });
+    }
+  }
+
+  private void finishShutdown(Callback<None> shutdown)
+  {
+    ScheduledFuture<?> future = _objectTimeoutFuture;
+    if (future != null)
+    {
+      future.cancel(false);
+    }
+
+    LOG.info("{}: {}", _poolName, "shutdown complete");
+
+    shutdown.onSuccess(None.none());
+  }
+
+  private class TimedObject<T>
+  {
+    private final T _obj;
+    private final long _time;
+
+    public TimedObject(T obj)
+    {
+      _obj = obj;
+      _time = _clock.currentTimeMillis();
+    }
+
+    public T get()
+    {
+      return _obj;
+    }
+
+    public long getTime()
+    {
+      return _time;
+    }
+  }
+
+  /**
+   * A pending {@link #get(Callback)}. Exactly one of serving, timing out, cancelling or denying the waiter
+   * claims it, which also releases its slot in the waiter count.
+   */
+  private class Waiter implements Cancellable
+  {
+    private final Callback<T> _callback;
+    private final AtomicBoolean _claimed = new AtomicBoolean();
+    private volatile ScheduledFuture<?> _timeoutFuture;
+
+    private Waiter(Callback<T> callback)
+    {
+      _callback = callback;
+    }
+
+    private boolean claim()
+    {
+      if (!_claimed.compareAndSet(false, true))
+      {
+        return false;
+      }
+      _waiterCount.decrementAndGet();
+      ScheduledFuture<?> future = _timeoutFuture;
+      if (future != null)
+      {
+        future.cancel(false);
+      }
+      return true;
+    }
+
+    private void timeout()
+    {
+      if (claim())
+      {
+        _waiters.remove(this);
+        _statsTracker.incrementWaiterTimedOut();
+        LOG.debug("{}: failing waiter due to waiter timeout", _poolName);
+        _callback.onError(
+            new WaiterTimeoutException("Exceeded waiter timeout of " + _waiterTimeout + "ms: in Pool: " + _poolName));
+        shutdownIfNeeded();
+      }
+    }
+
+    @Override
+    public boolean cancel()
+    {
+      if (claim())
+      {
+        _waiters.remove(this);
+        shutdownIfNeeded();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private class TimeTrackingCallback implements Callback<T>
+  {
+    private final long _startTime;
+    private final Callback<T> _callback;
+
+    public TimeTrackingCallback(Callback<T> callback)
+    {
+      _callback = callback;
+      _startTime = _clock.currentTimeMillis();
+    }
+
+    @Override
+    public void onError(Throwable e)
+    {
+      trackWaitTime();
+      _callback.onError(e);
+    }
+
+    @Override
+    public void onSuccess(T result)
+    {
+      trackWaitTime();
+      _callback.onSuccess(result);
+    }
+
+    private void trackWaitTime()
+    {
+      long waitTime = _clock.currentTimeMillis() - _startTime;
+      _statsTracker.sampleMaxWaitTime(waitTime);
+      if (!_waitTimeTracked)
+      {
+        return;
+      }
+      synchronized (_waitTimeLock)
+      {
+        _statsTracker.trackWaitTime(waitTime);
+      }
+    }
+  }
+
+  private void trc(Object toLog)
+  {
+    LOG.trace("{}: {}", _poolName, toLog);
+  }
+}
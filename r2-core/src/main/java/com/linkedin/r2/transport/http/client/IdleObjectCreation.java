@@ -0,0 +1,68 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.SimpleCallback;
+import com.linkedin.r2.transport.http.client.RateLimiter.Task;
+import java.util.Collection;
+
+
+/**
+ * The {@link Task} of an object created by {@link AsyncPool#createIdleObject(Callback)}, which lets its callback be
+ * notified if the {@link RateLimiter} cancels the task.
+ */
+final class IdleObjectCreation implements Task
+{
+  private final Task _task;
+  private final Callback<Boolean> _callback;
+
+  IdleObjectCreation(Task task, Callback<Boolean> callback)
+  {
+    _task = task;
+    _callback = callback;
+  }
+
+  @Override
+  public void run(SimpleCallback callback)
+  {
+    _task.run(callback);
+  }
+
+  /**
+   * Notifies the callbacks of a failed object creation and of the idle object creations it cancelled.
+   *
+   * @param callback callback of the failed creation, null unless it was an idle object creation.
+   * @param cancelled tasks cancelled because of the failure.
+   * @param e the creation error.
+   */
+  static void notifyFailed(Callback<Boolean> callback, Collection<Task> cancelled, Throwable e)
+  {
+    if (callback != null)
+    {
+      callback.onError(e);
+    }
+    for (Task task : cancelled)
+    {
+      if (task instanceof IdleObjectCreation)
+      {
+        ((IdleObjectCreation) task)._callback.onError(e);
+      }
+    }
+  }
+}
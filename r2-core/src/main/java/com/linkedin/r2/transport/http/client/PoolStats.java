@@ -106,6 +106,17 @@ public interface PoolStats
    */
   int getMinPoolSize();
 
+  /**
+   * Get the size the pool is currently allowed to grow to. It is the
+   * maximum pool size unless the pool adapts its size to the load, in
+   * which case it lies between the minimum and maximum pool sizes.
+   * @return The target pool size
+   */
+  default int getTargetPoolSize()
+  {
+    return getMaxPoolSize();
+  }
+
   /**
    * Get the pool size at the time of the call to getStats().
    * @return The pool size
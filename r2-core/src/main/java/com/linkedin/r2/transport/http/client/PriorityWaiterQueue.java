@@ -0,0 +1,210 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.r2.message.RequestPriority;
+import com.linkedin.r2.util.LinkedDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * The waiters of a pool, one FIFO queue per {@link RequestPriority}. Waiters are polled from the queue of the highest
+ * priority first.
+ *
+ * <p>This class is not thread safe. Pools access it while holding their lock.</p>
+ */
+class PriorityWaiterQueue<W>
+{
+  private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+  private final List<LinkedDeque<Entry<W>>> _queues = new ArrayList<>(PRIORITIES.length);
+  private int _size = 0;
+
+  PriorityWaiterQueue()
+  {
+    for (int i = 0; i < PRIORITIES.length; i++)
+    {
+      _queues.add(new LinkedDeque<>());
+    }
+  }
+
+  /**
+   * Adds a waiter at the end of the queue of its priority.
+   * @param time the time the waiter started to wait.
+   * @return the entry of the waiter, to remove it from the queue.
+   */
+  Entry<W> add(W waiter, RequestPriority priority, long time)
+  {
+    Entry<W> entry = new Entry<>(waiter, priority, time);
+    entry._node = _queues.get(priority.ordinal()).addLastNode(entry);
+    _size++;
+    return entry;
+  }
+
+  /**
+   * @return true if the entry was still queued.
+   */
+  boolean remove(Entry<W> entry)
+  {
+    if (_queues.get(entry._priority.ordinal()).removeNode(entry._node) == null)
+    {
+      return false;
+    }
+    _size--;
+    return true;
+  }
+
+  /**
+   * @return true if the waiter was still queued.
+   */
+  boolean remove(W waiter)
+  {
+    for (LinkedDeque<Entry<W>> queue : _queues)
+    {
+      for (Entry<W> entry : queue)
+      {
+        if (entry._waiter == waiter)
+        {
+          return remove(entry);
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the first waiter of the highest priority, or null if there is no waiter.
+   */
+  Entry<W> pollEntry()
+  {
+    for (LinkedDeque<Entry<W>> queue : _queues)
+    {
+      Entry<W> entry = queue.pollFirst();
+      if (entry != null)
+      {
+        _size--;
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the first waiter of the highest priority, or null if there is no waiter.
+   */
+  W poll()
+  {
+    Entry<W> entry = pollEntry();
+    return entry == null ? null : entry._waiter;
+  }
+
+  /**
+   * @return the last waiter of the lowest priority below the given one, or null if there is none.
+   */
+  W pollLastBelow(RequestPriority priority)
+  {
+    for (int i = PRIORITIES.length - 1; i > priority.ordinal(); i--)
+    {
+      Entry<W> entry = _queues.get(i).pollLast();
+      if (entry != null)
+      {
+        _size--;
+        return entry._waiter;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the waiters of the priority, removed from the queue, in FIFO order.
+   */
+  List<W> pollAll(RequestPriority priority)
+  {
+    LinkedDeque<Entry<W>> queue = _queues.get(priority.ordinal());
+    if (queue.isEmpty())
+    {
+      return Collections.emptyList();
+    }
+    List<W> waiters = new ArrayList<>(queue.size());
+    for (Entry<W> entry; (entry = queue.pollFirst()) != null;)
+    {
+      waiters.add(entry._waiter);
+    }
+    _size -= waiters.size();
+    return waiters;
+  }
+
+  /**
+   * @return the time the oldest waiter started to wait, or {@link Long#MAX_VALUE} if there is no waiter.
+   */
+  long getOldestTime()
+  {
+    long oldest = Long.MAX_VALUE;
+    for (LinkedDeque<Entry<W>> queue : _queues)
+    {
+      Entry<W> entry = queue.peekFirst();
+      if (entry != null)
+      {
+        oldest = Math.min(oldest, entry._time);
+      }
+    }
+    return oldest;
+  }
+
+  int size()
+  {
+    return _size;
+  }
+
+  int size(RequestPriority priority)
+  {
+    return _queues.get(priority.ordinal()).size();
+  }
+
+  boolean isEmpty()
+  {
+    return _size == 0;
+  }
+
+  static final class Entry<W>
+  {
+    private final W _waiter;
+    private final RequestPriority _priority;
+    private final long _time;
+    private LinkedDeque.Node<Entry<W>> _node;
+
+    private Entry(W waiter, RequestPriority priority, long time)
+    {
+      _waiter = waiter;
+      _priority = priority;
+      _time = time;
+    }
+
+    W getWaiter()
+    {
+      return _waiter;
+    }
+
+    RequestPriority getPriority()
+    {
+      return _priority;
+    }
+  }
+}
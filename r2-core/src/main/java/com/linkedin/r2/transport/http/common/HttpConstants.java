@@ -11,6 +11,23 @@ public interface HttpConstants
    */
   public static final String HEADER_RESPONSE_COMPRESSION_THRESHOLD = "X-Response-Compression-Threshold";
 
+  /**
+   * Custom header for the comma separated local names (without the server node URI) of the shared compression
+   * dictionaries a client already holds, and can decompress responses with.
+   */
+  public static final String HEADER_ACCEPT_COMPRESSION_DICTIONARY = "X-Accept-Compression-Dictionary";
+
+  /**
+   * Custom header for the name of the shared compression dictionary a response was compressed with.
+   */
+  public static final String HEADER_COMPRESSION_DICTIONARY = "X-Compression-Dictionary";
+
+  /**
+   * Custom header for the name of the shared compression dictionary the server would compress the response with, if
+   * the client held it.
+   */
+  public static final String HEADER_COMPRESSION_DICTIONARY_AVAILABLE = "X-Compression-Dictionary-Available";
+
   /**
    * Custom header for the number of retries.
    */
@@ -0,0 +1,62 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.timing;
+
+import com.linkedin.r2.message.RequestContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestServiceTimingHistograms
+{
+  private static final TimingKey KEY_COMPLETE = TimingKey.registerNewKey("test/histograms/complete", TimingImportance.LOW);
+  private static final TimingKey KEY_PENDING = TimingKey.registerNewKey("test/histograms/pending", TimingImportance.LOW);
+
+  @Test
+  public void testRecord()
+  {
+    ServiceTimingHistograms histograms = new ServiceTimingHistograms();
+
+    RequestContext requestContext = new RequestContext();
+    TimingContextUtil.markTiming(requestContext, KEY_COMPLETE, 2000);
+    TimingContextUtil.beginTiming(requestContext, KEY_PENDING);
+    histograms.record("service", requestContext);
+
+    RequestContext otherRequestContext = new RequestContext();
+    TimingContextUtil.markTiming(otherRequestContext, KEY_COMPLETE, 4000);
+    histograms.record("service", otherRequestContext);
+
+    Assert.assertEquals(histograms.getServiceNames().size(), 1);
+    Assert.assertTrue(histograms.getServiceNames().contains("service"));
+    Assert.assertEquals(histograms.getHistograms("service").size(), 1);
+    TimingHistogram histogram = histograms.getHistograms("service").get(KEY_COMPLETE);
+    Assert.assertEquals(histogram.getCount(), 2);
+    Assert.assertEquals(histogram.getMax(), 4000);
+    Assert.assertTrue(histograms.getHistograms("other").isEmpty());
+  }
+
+  @Test
+  public void testRecordWithoutTimings()
+  {
+    ServiceTimingHistograms histograms = new ServiceTimingHistograms();
+    RequestContext requestContext = new RequestContext();
+    histograms.record("service", requestContext);
+
+    Assert.assertTrue(histograms.getServiceNames().isEmpty());
+    Assert.assertNull(requestContext.getLocalAttr(TimingContextUtil.TIMINGS_KEY_NAME));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestTimingHistogram
+{
+  @Test
+  public void testPercentiles()
+  {
+    TimingHistogram histogram = new TimingHistogram();
+    Assert.assertEquals(histogram.getValueAtPercentile(50), 0);
+
+    for (long value = 1; value <= 1000; value++)
+    {
+      histogram.record(value * 1000);
+    }
+    histogram.record(-1);
+
+    Assert.assertEquals(histogram.getCount(), 1000);
+    Assert.assertEquals(histogram.getMax(), 1000000);
+    Assert.assertEquals(histogram.getSum(), 500500000);
+    assertWithinError(histogram.getValueAtPercentile(50), 500000);
+    assertWithinError(histogram.getValueAtPercentile(99), 990000);
+    Assert.assertEquals(histogram.getValueAtPercentile(100), 1000000);
+    assertWithinError(histogram.getValueAtPercentile(0), 1000);
+  }
+
+  @Test
+  public void testConcurrentRecording() throws Exception
+  {
+    TimingHistogram histogram = new TimingHistogram();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try
+    {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++)
+      {
+        futures.add(executor.submit(() -> {
+          for (long value = 1; value <= 10000; value++)
+          {
+            histogram.record(value);
+          }
+        }));
+      }
+      for (Future<?> future : futures)
+      {
+        future.get();
+      }
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+
+    Assert.assertEquals(histogram.getCount(), 40000);
+    Assert.assertEquals(histogram.getMax(), 10000);
+    assertWithinError(histogram.getValueAtPercentile(50), 5000);
+  }
+
+  private static void assertWithinError(long actual, long expected)
+  {
+    Assert.assertTrue(actual >= expected && actual <= expected + expected / TimingHistogram.SUB_BUCKET_COUNT,
+        actual + " is not within the error of " + expected);
+  }
+}
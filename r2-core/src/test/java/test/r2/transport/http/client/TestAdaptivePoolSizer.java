@@ -0,0 +1,210 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.transport.http.client;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.stats.LongTracking;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.transport.http.client.AdaptivePoolSizer;
+import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.NoopRateLimiter;
+import com.linkedin.r2.transport.http.client.WaiterTimeoutException;
+import com.linkedin.util.clock.SystemClock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+
+public class TestAdaptivePoolSizer
+{
+  private static final long INTERVAL = 1000;
+  private static final int MAX_SIZE = 10;
+
+  private final ScheduledExecutorService _executor = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterClass
+  public void stopExecutor()
+  {
+    _executor.shutdown();
+  }
+
+  @Test
+  public void testTargetSizeFollowsLittlesLaw()
+  {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(INTERVAL, 1.25, 10);
+    sizer.start(0);
+    // 20 requests per second, each holding an object for 100ms: 2 objects in use on average
+    recordBursts(sizer, 0, 2, 100);
+    Assert.assertEquals(sizer.resize(INTERVAL, 2, 0, MAX_SIZE, false), 3);
+  }
+
+  @Test
+  public void testDoesNotGrowWhileCreationIsThrottled()
+  {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(INTERVAL, 1.25, 10);
+    sizer.start(0);
+    recordBursts(sizer, 0, 2, 100);
+    Assert.assertEquals(sizer.resize(INTERVAL, 2, 0, MAX_SIZE, true), 2);
+  }
+
+  @Test
+  public void testGrowsWhenWaitersWait()
+  {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(INTERVAL, 1.25, 10);
+    sizer.start(0);
+    recordBursts(sizer, 0, 2, 100);
+    sizer.waited(50);
+    Assert.assertEquals(sizer.resize(INTERVAL, 4, 0, MAX_SIZE, false), 6);
+  }
+
+  @Test
+  public void testShrinksGradually()
+  {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(INTERVAL, 1.25, 10);
+    sizer.start(0);
+    int targetSize = MAX_SIZE;
+    List<Integer> targetSizes = new ArrayList<>();
+    for (int i = 1; i <= 8; i++)
+    {
+      targetSize = sizer.resize(i * INTERVAL, targetSize, 0, MAX_SIZE, false);
+      targetSizes.add(targetSize);
+    }
+    Assert.assertEquals(targetSizes.toString(), "[8, 6, 5, 4, 3, 2, 1, 1]");
+  }
+
+  @Test
+  public void testKeepsCheckedOutObjectsAndMinimumSize()
+  {
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(INTERVAL, 1.25, 10);
+    sizer.start(0);
+    sizer.requested();
+    sizer.checkedOut(0, 1);
+    sizer.requested();
+    sizer.checkedOut(0, 2);
+    sizer.requested();
+    sizer.checkedOut(0, 3);
+    // No object came back, so the round trip time is unknown
+    Assert.assertEquals(sizer.resize(INTERVAL, 3, 0, MAX_SIZE, false), 3);
+    Assert.assertEquals(sizer.resize(2 * INTERVAL, 3, 5, MAX_SIZE, false), 5);
+  }
+
+  @Test
+  public void testPoolShrinksToTargetSize() throws Exception
+  {
+    TestAsyncPool.SynchronousLifecycle lifecycle = new TestAsyncPool.SynchronousLifecycle();
+    AsyncPoolImpl<Object> pool = new AsyncPoolImpl<>("object pool", lifecycle, MAX_SIZE, 0, Integer.MAX_VALUE,
+        _executor, Integer.MAX_VALUE, AsyncPoolImpl.Strategy.MRU, 0, new NoopRateLimiter(), SystemClock.instance(),
+        new LongTracking(), new AdaptivePoolSizer(10, 1.25, 10));
+    pool.start();
+    Assert.assertEquals(pool.getStats().getTargetPoolSize(), MAX_SIZE);
+
+    List<Object> objects = new ArrayList<>();
+    for (int i = 0; i < 5; i++)
+    {
+      FutureCallback<Object> callback = new FutureCallback<>();
+      pool.get(callback);
+      objects.add(callback.get(5, TimeUnit.SECONDS));
+    }
+    objects.forEach(pool::put);
+
+    // Without requests, the target size shrinks to 1 and idle objects beyond it are destroyed
+    long deadline = System.currentTimeMillis() + 5000;
+    while ((pool.getStats().getTargetPoolSize() > 1 || lifecycle.getLive() > 1)
+        && System.currentTimeMillis() < deadline)
+    {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(pool.getStats().getTargetPoolSize(), 1);
+    Assert.assertEquals(lifecycle.getLive(), 1);
+    Assert.assertEquals(pool.getStats().getPoolSize(), 1);
+
+    FutureCallback<None> shutdown = new FutureCallback<>();
+    pool.shutdown(shutdown);
+    shutdown.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testPoolRecordsWaitsOfTimedOutWaiters() throws Exception
+  {
+    List<Long> waitTimes = new ArrayList<>();
+    AdaptivePoolSizer sizer = new AdaptivePoolSizer(60000, 1.25, 10)
+    {
+      @Override
+      public void waited(long waitTime)
+      {
+        super.waited(waitTime);
+        waitTimes.add(waitTime);
+      }
+    };
+    AsyncPoolImpl<Object> pool = new AsyncPoolImpl<>("object pool", new TestAsyncPool.SynchronousLifecycle(), 1, 0,
+        AsyncPoolImpl.MIN_WAITER_TIMEOUT, _executor, Integer.MAX_VALUE, AsyncPoolImpl.Strategy.MRU, 0,
+        new NoopRateLimiter(), SystemClock.instance(), new LongTracking(), sizer);
+    pool.start();
+
+    FutureCallback<Object> first = new FutureCallback<>();
+    pool.get(first);
+    Object object = first.get(5, TimeUnit.SECONDS);
+    Assert.assertEquals(waitTimes.size(), 1);
+
+    // The only object is checked out, so the next waiter times out
+    FutureCallback<Object> second = new FutureCallback<>();
+    pool.get(second);
+    try
+    {
+      second.get(5, TimeUnit.SECONDS);
+      Assert.fail("The waiter should have timed out");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof WaiterTimeoutException);
+    }
+    Assert.assertEquals(waitTimes.size(), 2);
+    // The timeout may fire a clock tick early
+    Assert.assertTrue(waitTimes.get(1) >= AsyncPoolImpl.MIN_WAITER_TIMEOUT - 1, waitTimes.toString());
+
+    pool.put(object);
+    FutureCallback<None> shutdown = new FutureCallback<>();
+    pool.shutdown(shutdown);
+    shutdown.get(5, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Records bursts of requests every {@code holdTime} milliseconds over one interval, each request holding its
+   * object until the next burst.
+   */
+  private static void recordBursts(AdaptivePoolSizer sizer, long start, int burstSize, long holdTime)
+  {
+    for (long time = start; time < start + INTERVAL; time += holdTime)
+    {
+      for (int i = 1; i <= burstSize; i++)
+      {
+        sizer.requested();
+        sizer.checkedOut(time, i);
+      }
+      for (int i = burstSize - 1; i >= 0; i--)
+      {
+        sizer.returned(time + holdTime, i);
+      }
+    }
+  }
+}
@@ -0,0 +1,252 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package test.r2.transport.http.client;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.stats.LongTracking;
+import com.linkedin.r2.SizeLimitExceededException;
+import com.linkedin.r2.message.RequestPriority;
+import com.linkedin.r2.transport.http.client.AsyncPool;
+import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.AsyncPoolPriorityPolicy;
+import com.linkedin.r2.transport.http.client.AsyncSharedPoolImpl;
+import com.linkedin.r2.transport.http.client.NoopRateLimiter;
+import com.linkedin.util.clock.SettableClock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+
+public class TestAsyncPoolPriority
+{
+  private final ScheduledExecutorService _executor = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterClass
+  public void stopExecutor()
+  {
+    _executor.shutdown();
+  }
+
+  @Test
+  public void testWaitersServedByPriority() throws Exception
+  {
+    AsyncPool<Object> pool = createPool(1, Integer.MAX_VALUE, null, new SettableClock());
+    Object obj = checkOut(pool, RequestPriority.NORMAL);
+
+    List<String> served = new ArrayList<>();
+    pool.get(new RecordingCallback(served, "low"), RequestPriority.LOW);
+    pool.get(new RecordingCallback(served, "normal1"), RequestPriority.NORMAL);
+    pool.get(new RecordingCallback(served, "critical"), RequestPriority.CRITICAL);
+    pool.get(new RecordingCallback(served, "normal2"));
+
+    for (int i = 0; i < 4; i++)
+    {
+      pool.put(obj);
+    }
+    Assert.assertEquals(served, Arrays.asList("critical", "normal1", "normal2", "low"));
+  }
+
+  @Test
+  public void testLowerPriorityWaiterDisplacedWhenFull() throws Exception
+  {
+    AsyncPool<Object> pool = createPool(1, 2, null, new SettableClock());
+    checkOut(pool, RequestPriority.NORMAL);
+
+    FutureCallback<Object> low1 = new FutureCallback<>();
+    FutureCallback<Object> low2 = new FutureCallback<>();
+    pool.get(low1, RequestPriority.LOW);
+    pool.get(low2, RequestPriority.LOW);
+
+    // The most recent waiter of a lower priority makes room for a higher priority
+    FutureCallback<Object> high = new FutureCallback<>();
+    pool.get(high, RequestPriority.HIGH);
+    assertSizeLimitExceeded(low2);
+    Assert.assertFalse(low1.isDone());
+
+    // Waiters of the same or a higher priority are not displaced
+    FutureCallback<Object> low3 = new FutureCallback<>();
+    pool.get(low3, RequestPriority.LOW);
+    assertSizeLimitExceeded(low3);
+    Assert.assertFalse(low1.isDone());
+    Assert.assertFalse(high.isDone());
+  }
+
+  @Test
+  public void testMaxShare() throws Exception
+  {
+    AsyncPoolPriorityPolicy policy = new AsyncPoolPriorityPolicy(Collections.singletonMap(RequestPriority.LOW, 0.5), 0);
+    AsyncPool<Object> pool = createPool(4, Integer.MAX_VALUE, policy, new SettableClock());
+
+    Object low1 = checkOut(pool, RequestPriority.LOW);
+    checkOut(pool, RequestPriority.LOW);
+    FutureCallback<Object> low3 = new FutureCallback<>();
+    pool.get(low3, RequestPriority.LOW);
+    assertSizeLimitExceeded(low3);
+
+    // Other priorities use the rest of the pool
+    checkOut(pool, RequestPriority.NORMAL);
+    checkOut(pool, RequestPriority.NORMAL);
+
+    // Waiters count towards the share
+    pool.put(low1);
+    FutureCallback<Object> low4 = new FutureCallback<>();
+    pool.get(low4, RequestPriority.LOW);
+    Assert.assertTrue(low4.isDone());
+    FutureCallback<Object> low5 = new FutureCallback<>();
+    pool.get(low5, RequestPriority.LOW);
+    assertSizeLimitExceeded(low5);
+    Assert.assertEquals(pool.getStats().getCheckedOut(), 4);
+  }
+
+  @Test
+  public void testShedLowestPriority() throws Exception
+  {
+    SettableClock clock = new SettableClock();
+    AsyncPoolPriorityPolicy policy = new AsyncPoolPriorityPolicy(Collections.emptyMap(), 100);
+    AsyncPool<Object> pool = createPool(1, Integer.MAX_VALUE, policy, clock);
+    Object obj = checkOut(pool, RequestPriority.NORMAL);
+
+    FutureCallback<Object> normal = new FutureCallback<>();
+    FutureCallback<Object> low = new FutureCallback<>();
+    pool.get(normal, RequestPriority.NORMAL);
+    pool.get(low, RequestPriority.LOW);
+
+    // Not overloaded yet
+    clock.addDuration(100);
+    FutureCallback<Object> low2 = new FutureCallback<>();
+    pool.get(low2, RequestPriority.LOW);
+    Assert.assertFalse(low.isDone());
+    Assert.assertFalse(low2.isDone());
+
+    // The oldest waiter waited too long, so the low priority waiters are shed
+    clock.addDuration(1);
+    FutureCallback<Object> low3 = new FutureCallback<>();
+    pool.get(low3, RequestPriority.LOW);
+    assertSizeLimitExceeded(low);
+    assertSizeLimitExceeded(low2);
+    assertSizeLimitExceeded(low3);
+
+    FutureCallback<Object> high = new FutureCallback<>();
+    pool.get(high, RequestPriority.HIGH);
+    Assert.assertFalse(high.isDone());
+    pool.put(obj);
+    Assert.assertSame(high.get(5, TimeUnit.SECONDS), obj);
+    Assert.assertFalse(normal.isDone());
+  }
+
+  @Test
+  public void testSharedPoolServesWaitersByPriority() throws Exception
+  {
+    DeferredLifecycle lifecycle = new DeferredLifecycle();
+    AsyncPool<Object> pool = new AsyncSharedPoolImpl<>("shared pool", lifecycle, _executor, new NoopRateLimiter(),
+        Integer.MAX_VALUE, Integer.MAX_VALUE);
+    pool.start();
+
+    List<String> served = new ArrayList<>();
+    pool.get(new RecordingCallback(served, "low"), RequestPriority.LOW);
+    pool.get(new RecordingCallback(served, "normal"));
+    pool.get(new RecordingCallback(served, "critical"), RequestPriority.CRITICAL);
+    lifecycle.complete();
+
+    Assert.assertEquals(served, Arrays.asList("critical", "normal", "low"));
+  }
+
+  private AsyncPool<Object> createPool(int maxSize, int maxWaiters, AsyncPoolPriorityPolicy policy,
+      SettableClock clock)
+  {
+    AsyncPool<Object> pool = new AsyncPoolImpl<>("object pool", new TestAsyncPool.SynchronousLifecycle(), maxSize,
+        0, Integer.MAX_VALUE, _executor, maxWaiters, AsyncPoolImpl.Strategy.MRU, 0, new NoopRateLimiter(), clock,
+        new LongTracking(), null, policy);
+    pool.start();
+    return pool;
+  }
+
+  private static Object checkOut(AsyncPool<Object> pool, RequestPriority priority) throws Exception
+  {
+    FutureCallback<Object> callback = new FutureCallback<>();
+    pool.get(callback, priority);
+    return callback.get(5, TimeUnit.SECONDS);
+  }
+
+  private static void assertSizeLimitExceeded(FutureCallback<Object> callback) throws Exception
+  {
+    Assert.assertTrue(callback.isDone());
+    try
+    {
+      callback.get();
+      Assert.fail("The request should have been rejected");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof SizeLimitExceededException);
+    }
+  }
+
+  private static class RecordingCallback implements Callback<Object>
+  {
+    private final List<String> _served;
+    private final String _name;
+
+    private RecordingCallback(List<String> served, String name)
+    {
+      _served = served;
+      _name = name;
+    }
+
+    @Override
+    public void onError(Throwable e)
+    {
+      Assert.fail("Unexpected failure", e);
+    }
+
+    @Override
+    public void onSuccess(Object result)
+    {
+      _served.add(_name);
+    }
+  }
+
+  /**
+   * Creates objects when {@link #complete()} is called.
+   */
+  private static class DeferredLifecycle extends TestAsyncPool.SynchronousLifecycle
+  {
+    private final List<Callback<Object>> _pending = new ArrayList<>();
+
+    @Override
+    public synchronized void create(Callback<Object> callback)
+    {
+      _pending.add(callback);
+    }
+
+    synchronized void complete()
+    {
+      _pending.forEach(callback -> callback.onSuccess(new Object()));
+      _pending.clear();
+    }
+  }
+}
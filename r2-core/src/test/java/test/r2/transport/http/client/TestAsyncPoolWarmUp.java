@@ -0,0 +1,231 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.transport.http.client;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.transport.http.client.AsyncPool;
+import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.AsyncPoolWarmUp;
+import com.linkedin.r2.transport.http.client.ConcurrentAsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.NoopRateLimiter;
+import com.linkedin.r2.transport.http.client.PoolStats;
+import com.linkedin.util.clock.SystemClock;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestAsyncPoolWarmUp
+{
+  private static final int MAX_SIZE = 5;
+  private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+  private final ScheduledExecutorService _executor = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterClass
+  public void stopExecutor()
+  {
+    _executor.shutdown();
+  }
+
+  @DataProvider
+  public Object[][] concurrentPool()
+  {
+    return new Object[][] { { false }, { true } };
+  }
+
+  @Test(dataProvider = "concurrentPool")
+  public void testWarmUp(boolean concurrentPool) throws Exception
+  {
+    TestAsyncPool.SynchronousLifecycle lifecycle = new TestAsyncPool.SynchronousLifecycle();
+    AsyncPool<Object> pool = newPool(lifecycle, concurrentPool);
+    pool.start();
+
+    warmUp(pool, 3);
+    PoolStats stats = pool.getStats();
+    Assert.assertEquals(lifecycle.getLive(), 3);
+    Assert.assertEquals(stats.getIdleCount(), 3);
+    Assert.assertEquals(stats.getCheckedOut(), 0);
+
+    // Objects in the pool count towards the number, and the pool does not grow beyond its maximum size
+    warmUp(pool, 3);
+    Assert.assertEquals(lifecycle.getLive(), 3);
+    warmUp(pool, MAX_SIZE * 2);
+    Assert.assertEquals(lifecycle.getLive(), MAX_SIZE);
+    Assert.assertEquals(pool.getStats().getIdleCount(), MAX_SIZE);
+  }
+
+  @Test(dataProvider = "concurrentPool")
+  public void testWarmUpNothing(boolean concurrentPool) throws Exception
+  {
+    TestAsyncPool.SynchronousLifecycle lifecycle = new TestAsyncPool.SynchronousLifecycle();
+    AsyncPool<Object> pool = newPool(lifecycle, concurrentPool);
+    pool.start();
+
+    warmUp(pool, 0);
+    Assert.assertEquals(lifecycle.getLive(), 0);
+  }
+
+  @Test(dataProvider = "concurrentPool")
+  public void testBoundedConcurrency(boolean concurrentPool) throws Exception
+  {
+    HeldCreationLifecycle lifecycle = new HeldCreationLifecycle();
+    AsyncPool<Object> pool = newPool(lifecycle, concurrentPool);
+    pool.start();
+
+    FutureCallback<None> callback = new FutureCallback<>();
+    AsyncPoolWarmUp.warmUp(pool, 4, 2, callback);
+    Assert.assertEquals(lifecycle.getPendingCreations(), 2);
+
+    // Each object can be checked out as soon as it is created, while the next creation starts
+    lifecycle.completeCreation();
+    Assert.assertEquals(pool.getStats().getIdleCount(), 1);
+    Assert.assertEquals(pool.getStats().getCheckedOut(), 0);
+    Assert.assertEquals(lifecycle.getPendingCreations(), 2);
+    FutureCallback<Object> getCallback = new FutureCallback<>();
+    pool.get(getCallback);
+    pool.put(getCallback.get(5, TimeUnit.SECONDS));
+
+    lifecycle.completeCreation();
+    Assert.assertEquals(lifecycle.getPendingCreations(), 2);
+    lifecycle.completeCreation();
+    Assert.assertEquals(lifecycle.getPendingCreations(), 1);
+    Assert.assertFalse(callback.isDone());
+    lifecycle.completeCreation();
+    Assert.assertEquals(lifecycle.getPendingCreations(), 0);
+
+    callback.get(5, TimeUnit.SECONDS);
+    Assert.assertEquals(pool.getStats().getIdleCount(), 4);
+    Assert.assertEquals(pool.getStats().getCheckedOut(), 0);
+  }
+
+  @Test(dataProvider = "concurrentPool")
+  public void testCreationFailure(boolean concurrentPool) throws Exception
+  {
+    TestAsyncPool.UnreliableLifecycle lifecycle = new TestAsyncPool.UnreliableLifecycle();
+    lifecycle.setFail(true);
+    AsyncPool<AtomicBoolean> pool = newPool(lifecycle, concurrentPool);
+    pool.start();
+
+    try
+    {
+      warmUp(pool, 3);
+      Assert.fail("Warm up should fail when objects cannot be created");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertEquals(pool.getStats().getCheckedOut(), 0);
+      Assert.assertEquals(pool.getStats().getPoolSize(), 0);
+    }
+  }
+
+  @Test(dataProvider = "concurrentPool")
+  public void testPoolShutDown(boolean concurrentPool) throws Exception
+  {
+    TestAsyncPool.SynchronousLifecycle lifecycle = new TestAsyncPool.SynchronousLifecycle();
+    AsyncPool<Object> pool = newPool(lifecycle, concurrentPool);
+    pool.start();
+    FutureCallback<None> shutdownCallback = new FutureCallback<>();
+    pool.shutdown(shutdownCallback);
+    shutdownCallback.get(5, TimeUnit.SECONDS);
+
+    warmUp(pool, 3);
+    Assert.assertEquals(lifecycle.getLive(), 0);
+  }
+
+  private <T> AsyncPool<T> newPool(AsyncPool.Lifecycle<T> lifecycle, boolean concurrentPool)
+  {
+    if (concurrentPool)
+    {
+      return new ConcurrentAsyncPoolImpl<>("object pool", lifecycle, MAX_SIZE, IDLE_TIMEOUT, 0, _executor,
+          Integer.MAX_VALUE, AsyncPoolImpl.Strategy.MRU, 0, new NoopRateLimiter(), SystemClock.instance(),
+          NoopLongTracker.instance());
+    }
+    return new AsyncPoolImpl<>("object pool", lifecycle, MAX_SIZE, IDLE_TIMEOUT, _executor);
+  }
+
+  private static void warmUp(AsyncPool<?> pool, int count) throws Exception
+  {
+    FutureCallback<None> callback = new FutureCallback<>();
+    AsyncPoolWarmUp.warmUp(pool, count, callback);
+    callback.get(5, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Holds the creations until the test completes them, in order.
+   */
+  private static class HeldCreationLifecycle implements AsyncPool.Lifecycle<Object>
+  {
+    private final Deque<Callback<Object>> _creations = new ArrayDeque<>();
+
+    @Override
+    public synchronized void create(Callback<Object> callback)
+    {
+      _creations.add(callback);
+    }
+
+    synchronized int getPendingCreations()
+    {
+      return _creations.size();
+    }
+
+    void completeCreation()
+    {
+      Callback<Object> creation;
+      synchronized (this)
+      {
+        creation = _creations.poll();
+      }
+      creation.onSuccess(new Object());
+    }
+
+    @Override
+    public boolean validateGet(Object obj)
+    {
+      return true;
+    }
+
+    @Override
+    public boolean validatePut(Object obj)
+    {
+      return true;
+    }
+
+    @Override
+    public void destroy(Object obj, boolean error, Callback<Object> callback)
+    {
+      callback.onSuccess(obj);
+    }
+
+    @Override
+    public PoolStats.LifecycleStats getStats()
+    {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,346 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.transport.http.client;
+
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.SizeLimitExceededException;
+import com.linkedin.r2.transport.http.client.AsyncPool;
+import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.ConcurrentAsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.NoopRateLimiter;
+import com.linkedin.r2.transport.http.client.PoolStats;
+import com.linkedin.r2.transport.http.client.WaiterTimeoutException;
+import com.linkedin.r2.util.Cancellable;
+import com.linkedin.util.clock.SystemClock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+
+public class TestConcurrentAsyncPool
+{
+  private static final int NO_WAITER_TIMEOUT = 0;
+
+  private final ScheduledExecutorService _executor = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterClass
+  public void stopExecutor()
+  {
+    _executor.shutdown();
+  }
+
+  @Test
+  public void testMustStart() throws Exception
+  {
+    AsyncPool<Object> pool = newPool(new TestAsyncPool.SynchronousLifecycle(), 1, 0, Integer.MAX_VALUE,
+        NO_WAITER_TIMEOUT, AsyncPoolImpl.Strategy.MRU);
+    FutureCallback<Object> cb = new FutureCallback<>();
+    pool.get(cb);
+    try
+    {
+      cb.get(5, TimeUnit.SECONDS);
+      Assert.fail("Get succeeded on pool not yet started");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void testMaxSize() throws Exception
+  {
+    final int ITERATIONS = 1000;
+    final int THREADS = 64;
+    final int POOL_SIZE = 8;
+    TestAsyncPool.SynchronousLifecycle lifecycle = new TestAsyncPool.SynchronousLifecycle();
+    final AsyncPool<Object> pool = newPool(lifecycle, POOL_SIZE, 0, Integer.MAX_VALUE, NO_WAITER_TIMEOUT,
+        AsyncPoolImpl.Strategy.MRU);
+    pool.start();
+
+    final List<Throwable> errors = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>(THREADS);
+    for (int i = 0; i < THREADS; i++)
+    {
+      Thread t = new Thread(() -> {
+        for (int j = 0; j < ITERATIONS; j++)
+        {
+          FutureCallback<Object> cb = new FutureCallback<>();
+          pool.get(cb);
+          try
+          {
+            pool.put(cb.get(5, TimeUnit.SECONDS));
+          }
+          catch (Exception e)
+          {
+            synchronized (errors)
+            {
+              errors.add(e);
+            }
+            return;
+          }
+        }
+      });
+      t.start();
+      threads.add(t);
+    }
+    for (Thread t : threads)
+    {
+      t.join();
+    }
+    Assert.assertTrue(errors.isEmpty(), "Unexpected failures " + errors);
+    Assert.assertTrue(lifecycle.getHighWaterMark() <= POOL_SIZE, "High water mark exceeded " + POOL_SIZE);
+
+    PoolStats stats = pool.getStats();
+    Assert.assertEquals(stats.getCheckedOut(), 0);
+    Assert.assertEquals(stats.getIdleCount(), stats.getPoolSize());
+    Assert.assertEquals(stats.getTotalCreated(), lifecycle.getLive());
+
+    FutureCallback<None> shutdown = new FutureCallback<>();
+    pool.shutdown(shutdown);
+    shutdown.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testShutdown() throws Exception
+  {
+    final int POOL_SIZE = 25;
+    AsyncPool<Object> pool = newPool(new TestAsyncPool.SynchronousLifecycle(), POOL_SIZE, 0, Integer.MAX_VALUE,
+        NO_WAITER_TIMEOUT, AsyncPoolImpl.Strategy.MRU);
+    pool.start();
+
+    List<Object> objects = new ArrayList<>(POOL_SIZE);
+    for (int i = 0; i < POOL_SIZE; i++)
+    {
+      FutureCallback<Object> cb = new FutureCallback<>();
+      pool.get(cb);
+      objects.add(cb.get());
+    }
+    FutureCallback<None> shutdown = new FutureCallback<>();
+    pool.shutdown(shutdown);
+
+    FutureCallback<None> secondShutdown = new FutureCallback<>();
+    pool.shutdown(secondShutdown);
+    Assert.assertTrue(secondShutdown.isDone());
+
+    for (Object o : objects)
+    {
+      Assert.assertFalse(shutdown.isDone(), "Pool shutdown with objects checked out");
+      pool.put(o);
+    }
+    shutdown.get(5, TimeUnit.SECONDS);
+
+    FutureCallback<Object> cb = new FutureCallback<>();
+    pool.get(cb);
+    Assert.assertTrue(cb.isDone());
+  }
+
+  @Test
+  public void testCancelTriggerShutdown() throws Exception
+  {
+    AsyncPool<Object> pool = newPool(new TestAsyncPool.SynchronousLifecycle(), 1, 0, Integer.MAX_VALUE,
+        NO_WAITER_TIMEOUT, AsyncPoolImpl.Strategy.MRU);
+    pool.start();
+
+    FutureCallback<Object> callback1 = new FutureCallback<>();
+    pool.get(callback1);
+    FutureCallback<Object> callback2 = new FutureCallback<>();
+    Cancellable cancellable2 = pool.get(callback2);
+
+    FutureCallback<None> shutdownCallback = new FutureCallback<>();
+    pool.shutdown(shutdownCallback);
+    pool.dispose(callback1.get(5, TimeUnit.SECONDS));
+
+    Assert.assertTrue(cancellable2.cancel());
+    Assert.assertFalse(cancellable2.cancel());
+    shutdownCallback.get(5, TimeUnit.SECONDS);
+    Assert.assertFalse(callback2.isDone());
+  }
+
+  @Test
+  public void testStrategy() throws Exception
+  {
+    final int GET = 10;
+    for (AsyncPoolImpl.Strategy strategy : AsyncPoolImpl.Strategy.values())
+    {
+      AsyncPool<Object> pool = newPool(new TestAsyncPool.SynchronousLifecycle(), GET, 0, Integer.MAX_VALUE,
+          NO_WAITER_TIMEOUT, strategy);
+      pool.start();
+
+      List<Object> objects = new ArrayList<>();
+      for (int i = 0; i < GET; i++)
+      {
+        FutureCallback<Object> cb = new FutureCallback<>();
+        pool.get(cb);
+        objects.add(cb.get());
+      }
+      for (Object o : objects)
+      {
+        pool.put(o);
+      }
+
+      FutureCallback<Object> cb = new FutureCallback<>();
+      pool.get(cb);
+      Assert.assertSame(cb.get(), strategy == AsyncPoolImpl.Strategy.LRU ? objects.get(0) : objects.get(GET - 1));
+    }
+  }
+
+  @Test
+  public void testMinSizeAndIdleTimeout() throws Exception
+  {
+    final int POOL_SIZE = 10;
+    final int MIN_SIZE = 4;
+    TestAsyncPool.SynchronousLifecycle lifecycle = new TestAsyncPool.SynchronousLifecycle();
+    AsyncPool<Object> pool = new ConcurrentAsyncPoolImpl<>("object pool", lifecycle, POOL_SIZE, 100,
+        NO_WAITER_TIMEOUT, _executor, Integer.MAX_VALUE, AsyncPoolImpl.Strategy.MRU, MIN_SIZE, new NoopRateLimiter(),
+        SystemClock.instance(), NoopLongTracker.instance());
+    pool.start();
+    Assert.assertEquals(lifecycle.getLive(), MIN_SIZE);
+
+    List<Object> objects = new ArrayList<>();
+    for (int i = 0; i < POOL_SIZE; i++)
+    {
+      FutureCallback<Object> cb = new FutureCallback<>();
+      pool.get(cb);
+      objects.add(cb.get());
+    }
+    Assert.assertEquals(lifecycle.getLive(), POOL_SIZE);
+    for (Object o : objects)
+    {
+      pool.put(o);
+    }
+
+    // Idle objects beyond the minimum size are destroyed after the idle timeout
+    long deadline = System.currentTimeMillis() + 5000;
+    while (lifecycle.getLive() > MIN_SIZE && System.currentTimeMillis() < deadline)
+    {
+      Thread.sleep(50);
+    }
+    Assert.assertEquals(lifecycle.getLive(), MIN_SIZE);
+    Assert.assertEquals(pool.getStats().getTotalTimedOut(), POOL_SIZE - MIN_SIZE);
+  }
+
+  @Test
+  public void testMaxWaiters() throws Exception
+  {
+    final int MAX_WAITERS = 2;
+    AsyncPool<Object> pool = newPool(new TestAsyncPool.ObjectCreatorThatNeverCreates(), 1, 0, MAX_WAITERS,
+        NO_WAITER_TIMEOUT, AsyncPoolImpl.Strategy.MRU);
+    pool.start();
+
+    List<Cancellable> cancellables = new ArrayList<>();
+    for (int i = 0; i < MAX_WAITERS; i++)
+    {
+      cancellables.add(pool.get(new FutureCallback<>()));
+    }
+    FutureCallback<Object> rejected = new FutureCallback<>();
+    pool.get(rejected);
+    try
+    {
+      rejected.get(5, TimeUnit.SECONDS);
+      Assert.fail("Get succeeded beyond the maximum number of waiters");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof SizeLimitExceededException);
+    }
+
+    // Cancelling a waiter makes room for another
+    Assert.assertTrue(cancellables.get(0).cancel());
+    FutureCallback<Object> accepted = new FutureCallback<>();
+    pool.get(accepted);
+    Assert.assertFalse(accepted.isDone());
+    Assert.assertEquals(pool.cancelWaiters().size(), MAX_WAITERS);
+  }
+
+  @Test
+  public void testWaiterTimeout() throws Exception
+  {
+    final int WAITER_TIMEOUT = 300;
+    AsyncPool<Object> pool = newPool(new TestAsyncPool.SynchronousLifecycle(), 1, 0, Integer.MAX_VALUE,
+        WAITER_TIMEOUT, AsyncPoolImpl.Strategy.MRU);
+    pool.start();
+
+    FutureCallback<Object> checkedOut = new FutureCallback<>();
+    pool.get(checkedOut);
+    Object obj = checkedOut.get(5, TimeUnit.SECONDS);
+
+    FutureCallback<Object> waiter = new FutureCallback<>();
+    pool.get(waiter);
+    try
+    {
+      waiter.get(5, TimeUnit.SECONDS);
+      Assert.fail("Waiter did not time out");
+    }
+    catch (ExecutionException e)
+    {
+      Assert.assertTrue(e.getCause() instanceof WaiterTimeoutException);
+    }
+    Assert.assertEquals(pool.getStats().getTotalWaiterTimedOut(), 1);
+
+    // The returned object goes back to the idle list instead of the timed out waiter
+    pool.put(obj);
+    Assert.assertEquals(pool.getStats().getIdleCount(), 1);
+  }
+
+  @Test
+  public void testCreateErrorFailsWaiters() throws Exception
+  {
+    TestAsyncPool.UnreliableLifecycle lifecycle = new TestAsyncPool.UnreliableLifecycle();
+    AsyncPool<AtomicBoolean> pool = new ConcurrentAsyncPoolImpl<>("object pool", lifecycle, 1, 0,
+        NO_WAITER_TIMEOUT, _executor, Integer.MAX_VALUE, AsyncPoolImpl.Strategy.MRU, 0, new NoopRateLimiter(),
+        SystemClock.instance(), NoopLongTracker.instance());
+    pool.start();
+
+    lifecycle.setFail(true);
+    FutureCallback<AtomicBoolean> cb = new FutureCallback<>();
+    pool.get(cb);
+    try
+    {
+      cb.get(5, TimeUnit.SECONDS);
+      Assert.fail("Get succeeded although creation failed");
+    }
+    catch (ExecutionException e)
+    {
+      // This is what we expect
+    }
+    PoolStats stats = pool.getStats();
+    Assert.assertEquals(stats.getTotalCreateErrors(), 1);
+    Assert.assertEquals(stats.getPoolSize(), 0);
+
+    lifecycle.setFail(false);
+    cb = new FutureCallback<>();
+    pool.get(cb);
+    Assert.assertNotNull(cb.get(5, TimeUnit.SECONDS));
+  }
+
+  private <T> AsyncPool<T> newPool(AsyncPool.Lifecycle<T> lifecycle, int maxSize, int minSize, int maxWaiters,
+      long waiterTimeout, AsyncPoolImpl.Strategy strategy)
+  {
+    return new ConcurrentAsyncPoolImpl<>("object pool", lifecycle, maxSize, 0, waiterTimeout, _executor,
+        maxWaiters, strategy, minSize, new NoopRateLimiter(), SystemClock.instance(), NoopLongTracker.instance());
+  }
+}
@@ -0,0 +1,359 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.r2.filter.compression;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.linkedin.r2.util.NamedThreadFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+
+/**
+ * Chooses the response encoding of the server compression filters from the compression ratio and cost observed
+ * for each resource, instead of always using the encoding preferred by the client.
+ *
+ * <ul>
+ *   <li>If the preferred encoding has compressed the responses of a resource to more than
+ *   {@link #getMaxCompressionRatio()} of their size on average, responses of that resource are sent uncompressed.
+ *   Every {@link #getProbeInterval()}th such response is still compressed so that a change in the payloads is
+ *   noticed.</li>
+ *   <li>If the CPU load is at or above {@link #getCpuLoadThreshold()}, the cheapest encoding accepted by the client is
+ *   used. Encodings are compared by their observed time per byte once each of them has
+ *   {@link #getMinSamples()} timed samples for the resource, and by a fixed ranking from lz4 to bzip2
+ *   otherwise.</li>
+ * </ul>
+ *
+ * Statistics are kept per resource, which is the first segment of the request path, and per {@link EncodingType}.
+ * They are available from {@link #getStats()} to report bytes saved against time spent compressing. Request paths
+ * come from clients, so only the statistics of the {@link #getMaxResources()} most recently used resources are
+ * kept.
+ *
+ * <p>By default, the CPU load is the recent CPU usage of the whole system, as reported by
+ * {@code com.sun.management.OperatingSystemMXBean#getSystemCpuLoad()}, or the system load average divided by the
+ * number of processors on JVMs without it. It is sampled once per second by a shared daemon thread, and
+ * {@link #select(String, EncodingType, List)} only reads the last sample.</p>
+ *
+ * <p>Instances are thread safe and are meant to be shared by the filters of a server.</p>
+ */
+public final class AdaptiveCompressionSelector
+{
+  public static final double DEFAULT_MAX_COMPRESSION_RATIO = 0.9;
+  public static final int DEFAULT_MIN_SAMPLES = 10;
+  public static final int DEFAULT_PROBE_INTERVAL = 100;
+  public static final double DEFAULT_CPU_LOAD_THRESHOLD = 0.8;
+  public static final int DEFAULT_MAX_RESOURCES = 1000;
+
+  /**
+   * Local attribute of the request context that holds the resource of the request between request and response.
+   */
+  static final String RESOURCE_ATTR = "ADAPTIVE_COMPRESSION_RESOURCE";
+
+  /**
+   * Encodings from the cheapest to the most expensive to compute, used until there are enough samples.
+   */
+  private static final List<EncodingType> COST_RANKING = Arrays.asList(EncodingType.LZ4_FRAMED, EncodingType.SNAPPY,
+      EncodingType.SNAPPY_FRAMED, EncodingType.ZSTD, EncodingType.DEFLATE, EncodingType.GZIP, EncodingType.BZIP2);
+
+  private final double _maxCompressionRatio;
+  private final int _minSamples;
+  private final int _probeInterval;
+  private final double _cpuLoadThreshold;
+  private final DoubleSupplier _cpuLoad;
+  private final int _maxResources;
+  private final Cache<String, Map<EncodingType, CompressionStats>> _stats;
+
+  /**
+   * Creates a selector with the default settings that reads the sampled system CPU load.
+   */
+  public AdaptiveCompressionSelector()
+  {
+    this(DEFAULT_MAX_COMPRESSION_RATIO, DEFAULT_MIN_SAMPLES, DEFAULT_PROBE_INTERVAL, DEFAULT_CPU_LOAD_THRESHOLD,
+        SystemCpuLoadSampler::getCpuLoad);
+  }
+
+  /**
+   * @param maxCompressionRatio compression is skipped for a resource and encoding when compressed responses are on
+   *                            average larger than this fraction of their original size.
+   * @param minSamples number of compressed responses of a resource and encoding before their statistics are used.
+   * @param probeInterval one in this many responses that would be sent uncompressed is compressed anyway.
+   * @param cpuLoadThreshold CPU load, between 0 and 1, at and above which the cheapest accepted encoding is used.
+   * @param cpuLoad supplies the current CPU load between 0 and 1, or a negative value if it is not available. It is
+   *                called for every compressed response, so it should only read a sampled value.
+   */
+  public AdaptiveCompressionSelector(double maxCompressionRatio, int minSamples, int probeInterval,
+      double cpuLoadThreshold, DoubleSupplier cpuLoad)
+  {
+    this(maxCompressionRatio, minSamples, probeInterval, cpuLoadThreshold, cpuLoad, DEFAULT_MAX_RESOURCES);
+  }
+
+  /**
+   * @param maxCompressionRatio compression is skipped for a resource and encoding when compressed responses are on
+   *                            average larger than this fraction of their original size.
+   * @param minSamples number of compressed responses of a resource and encoding before their statistics are used.
+   * @param probeInterval one in this many responses that would be sent uncompressed is compressed anyway.
+   * @param cpuLoadThreshold CPU load, between 0 and 1, at and above which the cheapest accepted encoding is used.
+   * @param cpuLoad supplies the current CPU load between 0 and 1, or a negative value if it is not available. It is
+   *                called for every compressed response, so it should only read a sampled value.
+   * @param maxResources maximum number of resources statistics are kept for. The least recently used resources are
+   *                     evicted beyond it.
+   */
+  public AdaptiveCompressionSelector(double maxCompressionRatio, int minSamples, int probeInterval,
+      double cpuLoadThreshold, DoubleSupplier cpuLoad, int maxResources)
+  {
+    if (maxCompressionRatio <= 0)
+    {
+      throw new IllegalArgumentException("maxCompressionRatio should be positive.");
+    }
+    if (minSamples < 1)
+    {
+      throw new IllegalArgumentException("minSamples should be positive.");
+    }
+    if (probeInterval < 1)
+    {
+      throw new IllegalArgumentException("probeInterval should be positive.");
+    }
+    if (cpuLoadThreshold < 0)
+    {
+      throw new IllegalArgumentException("cpuLoadThreshold should not be negative.");
+    }
+    if (cpuLoad == null)
+    {
+      throw new IllegalArgumentException("cpuLoad should not be null.");
+    }
+    if (maxResources < 1)
+    {
+      throw new IllegalArgumentException("maxResources should be positive.");
+    }
+    _maxCompressionRatio = maxCompressionRatio;
+    _minSamples = minSamples;
+    _probeInterval = probeInterval;
+    _cpuLoadThreshold = cpuLoadThreshold;
+    _cpuLoad = cpuLoad;
+    _maxResources = maxResources;
+    _stats = Caffeine.newBuilder().maximumSize(maxResources).build();
+  }
+
+  /**
+   * @param uri request URI.
+   * @return the resource that statistics of the response to the request are recorded under.
+   */
+  public static String getResource(URI uri)
+  {
+    final String path = uri.getRawPath();
+    if (path == null)
+    {
+      return "";
+    }
+    final int start = path.startsWith("/") ? 1 : 0;
+    final int end = path.indexOf('/', start);
+    return end < 0 ? path.substring(start) : path.substring(start, end);
+  }
+
+  /**
+   * Selects the encoding of a response.
+   *
+   * @param resource resource of the request, see {@link #getResource(URI)}.
+   * @param preferred the encoding chosen from the client's preference, e.g. by {@link AcceptEncoding#chooseBest(List)}.
+   * @param accepted the encodings accepted by the client, in order of preference.
+   * @return the encoding to use, which is {@link EncodingType#IDENTITY} if the response should not be compressed.
+   */
+  public EncodingType select(String resource, EncodingType preferred, List<EncodingType> accepted)
+  {
+    if (preferred == null || !preferred.hasCompressor())
+    {
+      return preferred;
+    }
+
+    final Map<EncodingType, CompressionStats> resourceStats = getResourceStats(resource);
+    EncodingType selected = preferred;
+    final double cpuLoad = _cpuLoad.getAsDouble();
+    if (cpuLoad >= 0 && cpuLoad >= _cpuLoadThreshold)
+    {
+      selected = cheapest(resourceStats, preferred, accepted);
+    }
+
+    return resourceStats.get(selected).shouldSkip(_minSamples, _maxCompressionRatio, _probeInterval)
+        ? EncodingType.IDENTITY
+        : selected;
+  }
+
+  /**
+   * Records the compression of a response.
+   *
+   * @param resource resource of the request, see {@link #getResource(URI)}.
+   * @param encoding encoding of the response.
+   * @param uncompressedBytes size of the response before compression.
+   * @param compressedBytes size of the response after compression.
+   * @param nanos time spent compressing, or a negative value if it was not measured.
+   */
+  public void recordCompression(String resource, EncodingType encoding, long uncompressedBytes, long compressedBytes,
+      long nanos)
+  {
+    if (encoding.hasCompressor())
+    {
+      getResourceStats(resource).get(encoding).recordCompression(uncompressedBytes, compressedBytes, nanos);
+    }
+  }
+
+  /**
+   * @return snapshots of the statistics, by resource and encoding. Encodings that were never selected for a resource
+   *         are not included.
+   */
+  public Map<String, Map<EncodingType, CompressionStats>> getStats()
+  {
+    _stats.cleanUp();
+    final Map<String, Map<EncodingType, CompressionStats>> result = new HashMap<>();
+    for (Map.Entry<String, Map<EncodingType, CompressionStats>> entry : _stats.asMap().entrySet())
+    {
+      final Map<EncodingType, CompressionStats> snapshots = new EnumMap<>(EncodingType.class);
+      for (Map.Entry<EncodingType, CompressionStats> stats : entry.getValue().entrySet())
+      {
+        final CompressionStats snapshot = stats.getValue().snapshot();
+        if (snapshot.getCompressedCount() > 0 || snapshot.getSkippedCount() > 0)
+        {
+          snapshots.put(stats.getKey(), snapshot);
+        }
+      }
+      result.put(entry.getKey(), Collections.unmodifiableMap(snapshots));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  public double getMaxCompressionRatio()
+  {
+    return _maxCompressionRatio;
+  }
+
+  public int getMinSamples()
+  {
+    return _minSamples;
+  }
+
+  public int getProbeInterval()
+  {
+    return _probeInterval;
+  }
+
+  public double getCpuLoadThreshold()
+  {
+    return _cpuLoadThreshold;
+  }
+
+  public int getMaxResources()
+  {
+    return _maxResources;
+  }
+
+  private EncodingType cheapest(Map<EncodingType, CompressionStats> resourceStats, EncodingType preferred,
+      List<EncodingType> accepted)
+  {
+    // Compare snapshots, as the statistics are updated concurrently under their own locks.
+    final Map<EncodingType, CompressionStats> snapshots = new EnumMap<>(EncodingType.class);
+    snapshots.put(preferred, resourceStats.get(preferred).snapshot());
+    boolean measured = true;
+    for (EncodingType encoding : accepted)
+    {
+      if (encoding.hasCompressor())
+      {
+        final CompressionStats snapshot = resourceStats.get(encoding).snapshot();
+        snapshots.put(encoding, snapshot);
+        measured &= snapshot.getTimedCount() >= _minSamples;
+      }
+    }
+
+    EncodingType cheapest = preferred;
+    for (EncodingType encoding : accepted)
+    {
+      if (!encoding.hasCompressor())
+      {
+        continue;
+      }
+      if (measured
+          ? snapshots.get(encoding).getAverageNanosPerByte() < snapshots.get(cheapest).getAverageNanosPerByte()
+          : COST_RANKING.indexOf(encoding) < COST_RANKING.indexOf(cheapest))
+      {
+        cheapest = encoding;
+      }
+    }
+    return cheapest;
+  }
+
+  private Map<EncodingType, CompressionStats> getResourceStats(String resource)
+  {
+    return _stats.get(resource, key ->
+    {
+      final Map<EncodingType, CompressionStats> newStats = new EnumMap<>(EncodingType.class);
+      for (EncodingType encoding : EncodingType.values())
+      {
+        if (encoding.hasCompressor())
+        {
+          newStats.put(encoding, new CompressionStats());
+        }
+      }
+      return newStats;
+    });
+  }
+
+  /**
+   * Samples the system CPU load once per second, from the first selector that uses it on.
+   */
+  private static final class SystemCpuLoadSampler
+  {
+    private static final long SAMPLE_INTERVAL_MILLIS = 1000;
+    private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+    private static volatile double _cpuLoad = sample();
+
+    static
+    {
+      final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable ->
+      {
+        final Thread thread = new NamedThreadFactory("R2 Compression CPU Load Sampler").newThread(runnable);
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.scheduleWithFixedDelay(() -> _cpuLoad = sample(), SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+
+    static double getCpuLoad()
+    {
+      return _cpuLoad;
+    }
+
+    private static double sample()
+    {
+      if (OS instanceof com.sun.management.OperatingSystemMXBean)
+      {
+        return ((com.sun.management.OperatingSystemMXBean) OS).getSystemCpuLoad();
+      }
+      // Negative if the load average is not available either
+      return OS.getSystemLoadAverage() / OS.getAvailableProcessors();
+    }
+  }
+}
@@ -17,7 +17,11 @@
 package com.linkedin.r2.filter.compression;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.linkedin.data.ByteString;
+import com.linkedin.data.codec.symbol.CompressionDictionary;
+import com.linkedin.data.codec.symbol.SymbolTableProviderHolder;
 import com.linkedin.r2.filter.NextFilter;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.filter.CompressionConfig;
@@ -28,7 +32,9 @@ import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.transport.http.common.HttpConstants;
+import com.linkedin.r2.util.NamedThreadFactory;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -36,20 +42,48 @@ import java.util.Map;
 import java.util.Set;
 
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Client filter for compression
+ *
+ * <p>If the client accepts zstd, dictionaries the server names in
+ * {@link HttpConstants#HEADER_COMPRESSION_DICTIONARY_AVAILABLE} are fetched through the global
+ * {@link com.linkedin.data.codec.symbol.SymbolTableProvider} on a separate executor, never on the thread delivering
+ * the response. Only dictionaries already fetched are advertised in
+ * {@link HttpConstants#HEADER_ACCEPT_COMPRESSION_DICTIONARY}, so a client whose provider cannot fetch dictionaries
+ * never receives dictionary compressed responses.</p>
+ *
+ * <p>Dictionaries are advertised, fetched and cached by their {@link CompressionDictionary#getLocalName(String) local
+ * name}, so the same dictionary served by every host of a cluster is only fetched and held once.</p>
  */
 public class ClientCompressionFilter implements RestFilter
 {
   private static final Logger LOG = LoggerFactory.getLogger(ClientCompressionFilter.class);
 
+  private static final int MAX_COMPRESSION_DICTIONARIES = 16;
+  private static final long UNAVAILABLE_DICTIONARY_RETRY_MINUTES = 5;
+  private static final String ADVERTISED_DICTIONARIES_ATTR = "ADVERTISED_COMPRESSION_DICTIONARIES";
+
   private final EncodingType _requestContentEncoding;
   private final CompressionConfig _responseCompressionConfig;
   private final String _acceptEncodingHeader;
   private final ClientCompressionHelper _helper;
+  private final boolean _acceptsCompressionDictionary;
+  private final Executor _dictionaryFetchExecutor;
+  private final Cache<String, Compressor> _dictionaryCompressors =
+      Caffeine.newBuilder().maximumSize(MAX_COMPRESSION_DICTIONARIES).build();
+  private final Cache<String, Boolean> _unavailableDictionaries = Caffeine.newBuilder()
+      .maximumSize(MAX_COMPRESSION_DICTIONARIES)
+      .expireAfterWrite(UNAVAILABLE_DICTIONARY_RETRY_MINUTES, TimeUnit.MINUTES)
+      .build();
+  private final Set<String> _pendingDictionaries = ConcurrentHashMap.newKeySet();
 
 
   /**
@@ -67,6 +101,29 @@ public class ClientCompressionFilter implements RestFilter
                                  EncodingType[] acceptedEncodings,
                                  CompressionConfig responseCompressionConfig,
                                  List<String> responseCompressionOperations)
+  {
+    this(requestContentEncoding, requestCompressionConfig, acceptedEncodings, responseCompressionConfig,
+        responseCompressionOperations, null);
+  }
+
+  /**
+   * Instantiates a client compression filter.
+   *
+   * @param requestContentEncoding the encoding that should be used to compress requests.
+   * @param requestCompressionConfig config for determining when to compress requests.
+   * @param acceptedEncodings encodings accepted by the client, used to generate Accept-Encoding header.
+   * @param responseCompressionConfig config for determining when to ask the server to compress responses.
+   *                                  This overrides the config in the server.
+   * @param responseCompressionOperations the set of operations for which response compression will be turned on.
+   * @param dictionaryFetchExecutor executor fetching the compression dictionaries the server makes available; if null,
+   *                                a single daemon thread shared by all filters is used.
+   */
+  public ClientCompressionFilter(EncodingType requestContentEncoding,
+                                 CompressionConfig requestCompressionConfig,
+                                 EncodingType[] acceptedEncodings,
+                                 CompressionConfig responseCompressionConfig,
+                                 List<String> responseCompressionOperations,
+                                 Executor dictionaryFetchExecutor)
   {
     if (requestContentEncoding == null)
     {
@@ -99,8 +156,10 @@ public class ClientCompressionFilter implements RestFilter
 
     _requestContentEncoding = requestContentEncoding;
     _acceptEncodingHeader = buildAcceptEncodingHeader(acceptedEncodings);
+    _acceptsCompressionDictionary = Arrays.asList(acceptedEncodings).contains(EncodingType.ZSTD);
     _responseCompressionConfig = responseCompressionConfig;
     _helper = new ClientCompressionHelper(requestCompressionConfig, responseCompressionOperations);
+    _dictionaryFetchExecutor = dictionaryFetchExecutor;
   }
 
   /**
@@ -159,6 +218,17 @@ public class ClientCompressionFilter implements RestFilter
    * @return request with response compression headers.
    */
   public RestRequest addResponseCompressionHeaders(CompressionOption responseCompressionOverride, RestRequest req)
+  {
+    return addResponseCompressionHeaders(responseCompressionOverride, req, null);
+  }
+
+  /**
+   * Same as {@link #addResponseCompressionHeaders(CompressionOption, RestRequest)}, and keeps the compressors of the
+   * advertised dictionaries in the request context, if any, to decompress the response with them even if they are
+   * evicted in between.
+   */
+  private RestRequest addResponseCompressionHeaders(CompressionOption responseCompressionOverride, RestRequest req,
+      RequestContext requestContext)
   {
     // If the client manually set an accept encoding header, don't override and short circuit.
     if (req.getHeader(HttpConstants.ACCEPT_ENCODING) != null)
@@ -167,6 +237,19 @@ public class ClientCompressionFilter implements RestFilter
     }
 
     RestRequestBuilder builder = req.builder();
+    if (_acceptsCompressionDictionary && responseCompressionOverride != CompressionOption.FORCE_OFF)
+    {
+      Map<String, Compressor> dictionaryCompressors = new HashMap<>(_dictionaryCompressors.asMap());
+      if (!dictionaryCompressors.isEmpty())
+      {
+        builder.setHeader(HttpConstants.HEADER_ACCEPT_COMPRESSION_DICTIONARY,
+            String.join(",", dictionaryCompressors.keySet()));
+        if (requestContext != null)
+        {
+          requestContext.putLocalAttr(ADVERTISED_DICTIONARIES_ATTR, dictionaryCompressors);
+        }
+      }
+    }
     if (responseCompressionOverride == null)
     {
       builder.addHeaderValue(HttpConstants.ACCEPT_ENCODING, _acceptEncodingHeader);
@@ -216,7 +299,7 @@ public class ClientCompressionFilter implements RestFilter
       {
         CompressionOption responseCompressionOverride =
             (CompressionOption) requestContext.getLocalAttr(R2Constants.RESPONSE_COMPRESSION_OVERRIDE);
-        req = addResponseCompressionHeaders(responseCompressionOverride, req);
+        req = addResponseCompressionHeaders(responseCompressionOverride, req, requestContext);
       }
     }
     catch (CompressionException e)
@@ -241,6 +324,12 @@ public class ClientCompressionFilter implements RestFilter
     {
       try
       {
+        String availableDictionary = res.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE);
+        if (availableDictionary != null && _acceptsCompressionDictionary)
+        {
+          fetchDictionaryIfAbsent(availableDictionary);
+        }
+
         //Check for header encoding
         String compressionHeader = res.getHeader(HttpConstants.CONTENT_ENCODING);
 
@@ -260,10 +349,16 @@ public class ClientCompressionFilter implements RestFilter
           {
             throw new CompressionException(CompressionConstants.SERVER_ENCODING_ERROR + compressionHeader);
           }
-          ByteString inflated = encoding.getCompressor().inflate(res.getEntity());
+          String dictionaryName = res.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY);
+          Compressor compressor = dictionaryName == null
+              ? encoding.getCompressor()
+              : getDictionaryCompressor(encoding, dictionaryName, requestContext);
+          ByteString inflated = compressor.inflate(res.getEntity());
           Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
           headers.putAll(res.getHeaders());
           headers.remove(HttpConstants.CONTENT_ENCODING);
+          headers.remove(HttpConstants.HEADER_COMPRESSION_DICTIONARY);
+          headers.remove(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE);
           headers.put(HttpConstants.CONTENT_LENGTH, Integer.toString(inflated.length()));
           res = res.builder().setEntity(inflated).setHeaders(headers).build();
         }
@@ -278,6 +373,125 @@ public class ClientCompressionFilter implements RestFilter
     nextFilter.onResponse(res, requestContext, wireAttrs);
   }
 
+  @SuppressWarnings("unchecked")
+  private Compressor getDictionaryCompressor(EncodingType encoding, String dictionaryName,
+      RequestContext requestContext) throws CompressionException
+  {
+    if (encoding != EncodingType.ZSTD)
+    {
+      throw new CompressionException(CompressionConstants.SERVER_ENCODING_ERROR + encoding.getHttpName()
+          + " with dictionary " + dictionaryName);
+    }
+
+    String localName;
+    try
+    {
+      localName = CompressionDictionary.getLocalName(dictionaryName);
+    }
+    catch (RuntimeException e)
+    {
+      throw new CompressionException("Invalid compression dictionary name " + dictionaryName, e);
+    }
+
+    // Servers only use dictionaries the request advertised, whose compressors the request context holds.
+    Map<String, Compressor> advertisedCompressors =
+        (Map<String, Compressor>) requestContext.getLocalAttr(ADVERTISED_DICTIONARIES_ATTR);
+    Compressor compressor = advertisedCompressors == null ? null : advertisedCompressors.get(localName);
+    if (compressor == null)
+    {
+      // Requests whose headers were not added by this filter did not keep them.
+      compressor = _dictionaryCompressors.getIfPresent(localName);
+    }
+    if (compressor == null)
+    {
+      fetchDictionaryIfAbsent(dictionaryName);
+      throw new CompressionException("Compression dictionary " + dictionaryName + " is not available");
+    }
+    return compressor;
+  }
+
+  private void fetchDictionaryIfAbsent(String dictionaryName)
+  {
+    String localName;
+    try
+    {
+      localName = CompressionDictionary.getLocalName(dictionaryName);
+    }
+    catch (RuntimeException e)
+    {
+      LOG.debug("Ignoring invalid compression dictionary name " + dictionaryName, e);
+      return;
+    }
+
+    if (_dictionaryCompressors.getIfPresent(localName) != null
+        || _unavailableDictionaries.getIfPresent(localName) != null
+        || _pendingDictionaries.size() >= MAX_COMPRESSION_DICTIONARIES
+        || !_pendingDictionaries.add(localName))
+    {
+      return;
+    }
+
+    Executor executor = _dictionaryFetchExecutor == null ? DictionaryFetchExecutorHolder.EXECUTOR
+        : _dictionaryFetchExecutor;
+    try
+    {
+      executor.execute(() ->
+      {
+        try
+        {
+          fetchDictionary(dictionaryName, localName);
+        }
+        finally
+        {
+          _pendingDictionaries.remove(localName);
+        }
+      });
+    }
+    catch (RejectedExecutionException e)
+    {
+      _pendingDictionaries.remove(localName);
+      LOG.warn("Unable to schedule the fetch of compression dictionary " + dictionaryName, e);
+    }
+  }
+
+  private void fetchDictionary(String dictionaryName, String localName)
+  {
+    CompressionDictionary dictionary = null;
+    try
+    {
+      dictionary = SymbolTableProviderHolder.INSTANCE.getSymbolTableProvider().getCompressionDictionary(dictionaryName);
+    }
+    catch (RuntimeException e)
+    {
+      LOG.debug("Unable to fetch compression dictionary " + dictionaryName, e);
+    }
+
+    if (dictionary == null)
+    {
+      _unavailableDictionaries.put(localName, Boolean.TRUE);
+    }
+    else
+    {
+      // Local names identify the dictionary content, so the compressor can be reused for all responses naming it,
+      // whichever host of the cluster served them.
+      _dictionaryCompressors.put(localName,
+          new ZstdCompressor(ZstdCompressor.DEFAULT_LEVEL, dictionary.getData().copyBytes()));
+    }
+  }
+
+  /**
+   * Lazily creates the executor shared by filters constructed without one.
+   */
+  private static class DictionaryFetchExecutorHolder
+  {
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(runnable ->
+    {
+      Thread thread = new NamedThreadFactory("R2 Compression Dictionary Fetcher").newThread(runnable);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
   @Override
   public void onRestError(Throwable ex, RequestContext requestContext,
                           Map<String, String> wireAttrs,
@@ -0,0 +1,190 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.r2.filter.compression;
+
+/**
+ * Response compression statistics of one {@link EncodingType} for one resource, as tracked by
+ * {@link AdaptiveCompressionSelector}. Instances returned by {@link AdaptiveCompressionSelector#getStats()} are
+ * snapshots and do not change.
+ */
+public final class CompressionStats
+{
+  /**
+   * Weight of the latest sample in the moving averages of compression ratio and cost.
+   */
+  private static final double SAMPLE_WEIGHT = 0.2;
+
+  private long _compressedCount;
+  private long _timedCount;
+  private long _skippedCount;
+  private int _skipsSinceProbe;
+  private long _uncompressedBytes;
+  private long _compressedBytes;
+  private long _compressionNanos;
+  private double _averageRatio;
+  private double _averageNanosPerByte;
+
+  CompressionStats()
+  {
+  }
+
+  private CompressionStats(CompressionStats other)
+  {
+    _compressedCount = other._compressedCount;
+    _timedCount = other._timedCount;
+    _skippedCount = other._skippedCount;
+    _uncompressedBytes = other._uncompressedBytes;
+    _compressedBytes = other._compressedBytes;
+    _compressionNanos = other._compressionNanos;
+    _averageRatio = other._averageRatio;
+    _averageNanosPerByte = other._averageNanosPerByte;
+  }
+
+  synchronized void recordCompression(long uncompressedBytes, long compressedBytes, long nanos)
+  {
+    if (uncompressedBytes <= 0)
+    {
+      return;
+    }
+
+    final double ratio = (double) compressedBytes / uncompressedBytes;
+    _averageRatio = _compressedCount == 0 ? ratio : _averageRatio + SAMPLE_WEIGHT * (ratio - _averageRatio);
+    _compressedCount++;
+    _uncompressedBytes += uncompressedBytes;
+    _compressedBytes += compressedBytes;
+
+    if (nanos >= 0)
+    {
+      final double nanosPerByte = (double) nanos / uncompressedBytes;
+      _averageNanosPerByte = _timedCount == 0
+          ? nanosPerByte
+          : _averageNanosPerByte + SAMPLE_WEIGHT * (nanosPerByte - _averageNanosPerByte);
+      _timedCount++;
+      _compressionNanos += nanos;
+    }
+  }
+
+  /**
+   * @return true if compression should be skipped, or false if this response should be compressed, either because
+   *         the encoding compresses well enough or to probe whether it still does not.
+   */
+  synchronized boolean shouldSkip(int minSamples, double maxRatio, int probeInterval)
+  {
+    if (_compressedCount < minSamples || _averageRatio <= maxRatio)
+    {
+      return false;
+    }
+    if (++_skipsSinceProbe >= probeInterval)
+    {
+      // Compress every so often anyway, so that a resource whose payloads became compressible is noticed.
+      _skipsSinceProbe = 0;
+      return false;
+    }
+    _skippedCount++;
+    return true;
+  }
+
+  synchronized CompressionStats snapshot()
+  {
+    return new CompressionStats(this);
+  }
+
+  /**
+   * @return the number of responses compressed with this encoding.
+   */
+  public long getCompressedCount()
+  {
+    return _compressedCount;
+  }
+
+  /**
+   * @return the number of responses sent uncompressed because this encoding did not compress them well enough.
+   */
+  public long getSkippedCount()
+  {
+    return _skippedCount;
+  }
+
+  /**
+   * @return the total size of the responses before compression.
+   */
+  public long getUncompressedBytes()
+  {
+    return _uncompressedBytes;
+  }
+
+  /**
+   * @return the total size of the responses after compression.
+   */
+  public long getCompressedBytes()
+  {
+    return _compressedBytes;
+  }
+
+  /**
+   * @return the number of bytes saved by compression. This is negative if compression made responses larger.
+   */
+  public long getBytesSaved()
+  {
+    return _uncompressedBytes - _compressedBytes;
+  }
+
+  /**
+   * @return the total time spent compressing responses in nanoseconds. Streamed responses are compressed
+   *         asynchronously and are not included.
+   */
+  public long getCompressionNanos()
+  {
+    return _compressionNanos;
+  }
+
+  /**
+   * @return the moving average of compressed size divided by uncompressed size, or 0 if nothing was compressed.
+   */
+  public double getAverageRatio()
+  {
+    return _averageRatio;
+  }
+
+  /**
+   * @return the moving average of compression time per uncompressed byte in nanoseconds, or 0 if no compression
+   *         was timed.
+   */
+  public double getAverageNanosPerByte()
+  {
+    return _averageNanosPerByte;
+  }
+
+  long getTimedCount()
+  {
+    return _timedCount;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "CompressionStats{" +
+        "_compressedCount=" + _compressedCount +
+        ", _skippedCount=" + _skippedCount +
+        ", _uncompressedBytes=" + _uncompressedBytes +
+        ", _compressedBytes=" + _compressedBytes +
+        ", _compressionNanos=" + _compressionNanos +
+        ", _averageRatio=" + _averageRatio +
+        ", _averageNanosPerByte=" + _averageNanosPerByte +
+        '}';
+  }
+}
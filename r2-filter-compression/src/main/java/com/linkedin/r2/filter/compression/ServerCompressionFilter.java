@@ -16,7 +16,12 @@
 
 package com.linkedin.r2.filter.compression;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.linkedin.data.ByteString;
+import com.linkedin.data.codec.symbol.CompressionDictionary;
+import com.linkedin.data.codec.symbol.SymbolTableProviderHolder;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -41,6 +46,14 @@ import com.linkedin.r2.transport.http.common.HttpConstants;
  *
  * Filter class for server to negotiate acceptable compression formats from clients
  * and compresses the response with the relevant headers accordingly.
+ *
+ * <p>If the global {@link com.linkedin.data.codec.symbol.SymbolTableProvider} has a response compression dictionary
+ * and the client lists it in {@link HttpConstants#HEADER_ACCEPT_COMPRESSION_DICTIONARY}, zstd responses are compressed
+ * with that dictionary and name it in {@link HttpConstants#HEADER_COMPRESSION_DICTIONARY}. Otherwise zstd responses
+ * name it in {@link HttpConstants#HEADER_COMPRESSION_DICTIONARY_AVAILABLE}, so the client can fetch it for later
+ * requests. Dictionaries are matched and cached by their
+ * {@link CompressionDictionary#getLocalName(String) local name}, so a client that fetched the dictionary from any
+ * host of the cluster can use it with all of them.</p>
  * @author erli
  *
  */
@@ -50,8 +63,15 @@ public class ServerCompressionFilter implements RestFilter
 
   private final Set<EncodingType> _supportedEncoding;
   private final ServerCompressionHelper _serverCompressionHelper;
+  private final AdaptiveCompressionSelector _adaptiveCompressionSelector;
 
   private static final String EMPTY = "";
+  private static final String COMPRESSION_DICTIONARY_ATTR = "COMPRESSION_DICTIONARY";
+  private static final String COMPRESSION_DICTIONARY_AVAILABLE_ATTR = "COMPRESSION_DICTIONARY_AVAILABLE";
+  private static final int MAX_COMPRESSION_DICTIONARIES = 16;
+
+  private final Cache<String, Compressor> _dictionaryCompressors =
+      Caffeine.newBuilder().maximumSize(MAX_COMPRESSION_DICTIONARIES).build();
 
   /**
    * Instantiates an empty compression filter that does no compression.
@@ -81,6 +101,19 @@ public class ServerCompressionFilter implements RestFilter
    * @param supportedEncoding
    */
   public ServerCompressionFilter(EncodingType[] supportedEncoding, CompressionConfig defaultResponseCompressionConfig)
+  {
+    this(supportedEncoding, defaultResponseCompressionConfig, null);
+  }
+
+  /** Instantiates a compression filter
+   * that supports the compression methods in the given set in argument, and adapts the encoding of each response
+   * to the compression observed for its resource.
+   * @param supportedEncoding
+   * @param adaptiveCompressionSelector selects the response encoding and tracks compression statistics; if null,
+   *                                    the encoding preferred by the client is always used.
+   */
+  public ServerCompressionFilter(EncodingType[] supportedEncoding, CompressionConfig defaultResponseCompressionConfig,
+      AdaptiveCompressionSelector adaptiveCompressionSelector)
   {
     if (defaultResponseCompressionConfig == null)
     {
@@ -90,6 +123,7 @@ public class ServerCompressionFilter implements RestFilter
     _supportedEncoding.add(EncodingType.IDENTITY);
     _supportedEncoding.add(EncodingType.ANY);
     _serverCompressionHelper = new ServerCompressionHelper(defaultResponseCompressionConfig);
+    _adaptiveCompressionSelector = adaptiveCompressionSelector;
   }
 
   /**
@@ -147,6 +181,25 @@ public class ServerCompressionFilter implements RestFilter
       {
         requestContext.putLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD,
             _serverCompressionHelper.getResponseCompressionThreshold(req));
+        if (_adaptiveCompressionSelector != null)
+        {
+          requestContext.putLocalAttr(AdaptiveCompressionSelector.RESOURCE_ATTR,
+              AdaptiveCompressionSelector.getResource(req.getURI()));
+        }
+        if (_supportedEncoding.contains(EncodingType.ZSTD)
+            && responseAcceptedEncodings.contains(EncodingType.ZSTD.getHttpName()))
+        {
+          CompressionDictionary dictionary = SymbolTableProviderHolder.INSTANCE.getSymbolTableProvider()
+              .getResponseCompressionDictionary(req.getURI(), req.getHeaders());
+          if (dictionary != null)
+          {
+            requestContext.putLocalAttr(
+                acceptsCompressionDictionary(req, dictionary.getLocalName())
+                    ? COMPRESSION_DICTIONARY_ATTR
+                    : COMPRESSION_DICTIONARY_AVAILABLE_ATTR,
+                dictionary);
+          }
+        }
       }
       nextFilter.onRequest(req, requestContext, wireAttrs);
     }
@@ -179,21 +232,54 @@ public class ServerCompressionFilter implements RestFilter
 
         List<AcceptEncoding> parsedEncodings = AcceptEncoding.parseAcceptEncodingHeader(responseAcceptedEncodings, _supportedEncoding);
         EncodingType selectedEncoding = AcceptEncoding.chooseBest(parsedEncodings);
+        String resource = _adaptiveCompressionSelector == null ? null
+            : (String) requestContext.getLocalAttr(AdaptiveCompressionSelector.RESOURCE_ATTR);
 
         //Check if there exists an acceptable encoding
         if (selectedEncoding != null)
         {
-          if (selectedEncoding.hasCompressor() &&
-              res.getEntity().length() > (Integer) requestContext.getLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD))
+          boolean compress = selectedEncoding.hasCompressor() &&
+              res.getEntity().length() > (Integer) requestContext.getLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD);
+          if (compress && resource != null)
           {
-            Compressor compressor = selectedEncoding.getCompressor();
+            selectedEncoding = _adaptiveCompressionSelector.select(resource, selectedEncoding, getTypes(parsedEncodings));
+            compress = selectedEncoding.hasCompressor();
+          }
+
+          if (compress)
+          {
+            CompressionDictionary dictionary = selectedEncoding == EncodingType.ZSTD
+                ? (CompressionDictionary) requestContext.getLocalAttr(COMPRESSION_DICTIONARY_ATTR)
+                : null;
+            Compressor compressor = dictionary == null
+                ? selectedEncoding.getCompressor()
+                : getDictionaryCompressor(dictionary);
+            long startTime = System.nanoTime();
             ByteString compressed = compressor.deflate(res.getEntity());
+            if (resource != null)
+            {
+              _adaptiveCompressionSelector.recordCompression(resource, selectedEncoding, res.getEntity().length(),
+                  compressed.length(), System.nanoTime() - startTime);
+            }
 
             if (compressed.length() < res.getEntity().length())
             {
               RestResponseBuilder resCompress = res.builder();
               resCompress.removeHeader(HttpConstants.CONTENT_LENGTH);
               resCompress.addHeaderValue(HttpConstants.CONTENT_ENCODING, compressor.getContentEncodingName());
+              if (dictionary != null)
+              {
+                resCompress.setHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY, dictionary.getName());
+              }
+              else if (selectedEncoding == EncodingType.ZSTD)
+              {
+                CompressionDictionary available =
+                    (CompressionDictionary) requestContext.getLocalAttr(COMPRESSION_DICTIONARY_AVAILABLE_ATTR);
+                if (available != null)
+                {
+                  resCompress.setHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE, available.getName());
+                }
+              }
               resCompress.setEntity(compressed);
               res = resCompress.build();
             }
@@ -215,6 +301,44 @@ public class ServerCompressionFilter implements RestFilter
   }
 
 
+  private static boolean acceptsCompressionDictionary(RestRequest req, String localName)
+  {
+    String acceptedDictionaries = req.getHeader(HttpConstants.HEADER_ACCEPT_COMPRESSION_DICTIONARY);
+    if (acceptedDictionaries != null)
+    {
+      for (String accepted : acceptedDictionaries.split(","))
+      {
+        if (accepted.trim().equals(localName))
+        {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private Compressor getDictionaryCompressor(CompressionDictionary dictionary)
+  {
+    String localName = dictionary.getLocalName();
+    Compressor compressor = _dictionaryCompressors.getIfPresent(localName);
+    if (compressor == null)
+    {
+      compressor = new ZstdCompressor(ZstdCompressor.DEFAULT_LEVEL, dictionary.getData().copyBytes());
+      _dictionaryCompressors.put(localName, compressor);
+    }
+    return compressor;
+  }
+
+  private static List<EncodingType> getTypes(List<AcceptEncoding> encodings)
+  {
+    List<EncodingType> types = new ArrayList<EncodingType>(encodings.size());
+    for (AcceptEncoding encoding : encodings)
+    {
+      types.add(encoding.getType());
+    }
+    return types;
+  }
+
   @Override
   public void onRestError(Throwable ex, RequestContext requestContext,
                           Map<String, String> wireAttrs,
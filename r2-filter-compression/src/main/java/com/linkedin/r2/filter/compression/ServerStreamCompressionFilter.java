@@ -17,6 +17,7 @@
 package com.linkedin.r2.filter.compression;
 
 import com.linkedin.common.callback.Callback;
+import com.linkedin.data.ByteString;
 import com.linkedin.r2.filter.compression.streaming.AcceptEncoding;
 import com.linkedin.r2.filter.compression.streaming.StreamEncodingType;
 import com.linkedin.r2.message.stream.entitystream.CompositeWriter;
@@ -29,6 +30,8 @@ import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.message.stream.StreamResponseBuilder;
 import com.linkedin.r2.message.stream.entitystream.EntityStream;
 import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.Observer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -57,6 +60,7 @@ public class ServerStreamCompressionFilter implements StreamFilter
   private final Set<StreamEncodingType> _supportedEncoding;
   private final Executor _executor;
   private final ServerCompressionHelper _serverCompressionHelper;
+  private final AdaptiveCompressionSelector _adaptiveCompressionSelector;
 
 
   /** Takes a comma delimited string containing standard
@@ -79,12 +83,27 @@ public class ServerStreamCompressionFilter implements StreamFilter
    * @param supportedEncoding
    */
   public ServerStreamCompressionFilter(StreamEncodingType[] supportedEncoding, Executor executor, int compressThreshold)
+  {
+    this(supportedEncoding, executor, compressThreshold, null);
+  }
+
+  /** Instantiates a compression filter
+   * that supports the compression methods in the given set in argument, and adapts the encoding of each response
+   * to the compression observed for its resource. Streamed responses are compressed asynchronously, so only their
+   * compression ratio is recorded.
+   * @param supportedEncoding
+   * @param adaptiveCompressionSelector selects the response encoding and tracks compression statistics; if null,
+   *                                    the encoding preferred by the client is always used.
+   */
+  public ServerStreamCompressionFilter(StreamEncodingType[] supportedEncoding, Executor executor, int compressThreshold,
+      AdaptiveCompressionSelector adaptiveCompressionSelector)
   {
     _supportedEncoding = new HashSet<StreamEncodingType>(Arrays.asList(supportedEncoding));
     _supportedEncoding.add(StreamEncodingType.IDENTITY);
     _supportedEncoding.add(StreamEncodingType.ANY);
     _executor = executor;
     _serverCompressionHelper = new ServerCompressionHelper(compressThreshold);
+    _adaptiveCompressionSelector = adaptiveCompressionSelector;
   }
 
   /**
@@ -129,6 +148,11 @@ public class ServerStreamCompressionFilter implements StreamFilter
       {
         requestContext.putLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD,
             _serverCompressionHelper.getResponseCompressionThreshold(req));
+        if (_adaptiveCompressionSelector != null)
+        {
+          requestContext.putLocalAttr(AdaptiveCompressionSelector.RESOURCE_ATTR,
+              AdaptiveCompressionSelector.getResource(req.getURI()));
+        }
       }
 
       requestContext.putLocalAttr(HttpConstants.ACCEPT_ENCODING, responseCompression);
@@ -159,7 +183,9 @@ public class ServerStreamCompressionFilter implements StreamFilter
       }
 
       List<AcceptEncoding> parsedEncodings = AcceptEncoding.parseAcceptEncodingHeader(responseCompression, _supportedEncoding);
-      StreamEncodingType selectedEncoding = AcceptEncoding.chooseBest(parsedEncodings);
+      final StreamEncodingType selectedEncoding = AcceptEncoding.chooseBest(parsedEncodings);
+      final String resource = _adaptiveCompressionSelector == null ? null
+          : (String) requestContext.getLocalAttr(AdaptiveCompressionSelector.RESOURCE_ATTR);
 
       //Check if there exists an acceptable encoding
       if (selectedEncoding == null)
@@ -170,7 +196,6 @@ public class ServerStreamCompressionFilter implements StreamFilter
       else if (selectedEncoding != StreamEncodingType.IDENTITY)
       {
         final int threshold = (Integer) requestContext.getLocalAttr(HttpConstants.HEADER_RESPONSE_COMPRESSION_THRESHOLD);
-        final StreamingCompressor compressor = selectedEncoding.getCompressor(_executor);
         PartialReader reader = new PartialReader(threshold, new Callback<EntityStream[]>()
         {
           @Override
@@ -189,7 +214,25 @@ public class ServerStreamCompressionFilter implements StreamFilter
             }
             else
             {
-              EntityStream compressedStream = compressor.deflate(EntityStreams.newEntityStream(new CompositeWriter(results)));
+              StreamEncodingType encoding = selectedEncoding;
+              if (resource != null)
+              {
+                encoding = selectAdaptively(resource, selectedEncoding, parsedEncodings);
+              }
+
+              EntityStream uncompressedStream = EntityStreams.newEntityStream(new CompositeWriter(results));
+              if (encoding == StreamEncodingType.IDENTITY)
+              {
+                nextFilter.onResponse(res.builder().build(uncompressedStream), requestContext, wireAttrs);
+                return;
+              }
+
+              StreamingCompressor compressor = encoding.getCompressor(_executor);
+              EntityStream compressedStream = compressor.deflate(uncompressedStream);
+              if (resource != null)
+              {
+                recordCompression(resource, encoding, uncompressedStream, compressedStream);
+              }
               StreamResponseBuilder builder = res.builder();
               // remove original content-length header if presents.
               if (builder.getHeader(HttpConstants.CONTENT_LENGTH) != null)
@@ -223,6 +266,64 @@ public class ServerStreamCompressionFilter implements StreamFilter
     nextFilter.onError(ex, requestContext, wireAttrs);
   }
 
+  private StreamEncodingType selectAdaptively(String resource, StreamEncodingType preferred,
+      List<AcceptEncoding> acceptedEncodings)
+  {
+    List<EncodingType> accepted = new ArrayList<EncodingType>(acceptedEncodings.size());
+    for (AcceptEncoding encoding : acceptedEncodings)
+    {
+      accepted.add(toEncodingType(encoding.getType()));
+    }
+    EncodingType selected = _adaptiveCompressionSelector.select(resource, toEncodingType(preferred), accepted);
+    return StreamEncodingType.get(selected.getHttpName());
+  }
+
+  private void recordCompression(final String resource, StreamEncodingType encoding, EntityStream uncompressedStream,
+      EntityStream compressedStream)
+  {
+    final EncodingType encodingType = toEncodingType(encoding);
+    final ByteCounter uncompressedBytes = new ByteCounter();
+    uncompressedStream.addObserver(uncompressedBytes);
+    compressedStream.addObserver(new ByteCounter()
+    {
+      @Override
+      public void onDone()
+      {
+        _adaptiveCompressionSelector.recordCompression(resource, encodingType, uncompressedBytes._count, _count, -1);
+      }
+    });
+  }
+
+  private static EncodingType toEncodingType(StreamEncodingType encoding)
+  {
+    // Every streaming encoding has a counterpart with the same HTTP name.
+    return EncodingType.get(encoding.getHttpName());
+  }
+
+  /**
+   * Counts the bytes of an entity stream. The stream notifies observers from one thread at a time.
+   */
+  private static class ByteCounter implements Observer
+  {
+    protected volatile long _count;
+
+    @Override
+    public void onDataAvailable(ByteString data)
+    {
+      _count += data.length();
+    }
+
+    @Override
+    public void onDone()
+    {
+    }
+
+    @Override
+    public void onError(Throwable e)
+    {
+    }
+  }
+
   private Map<String, String> stripHeaders(Map<String, String> headerMap, String...headers)
   {
     Map<String, String> newMap = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
@@ -0,0 +1,116 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.r2.filter.compression;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+
+/**
+ * Compressor for "zstd" Encoding, optionally with a trained dictionary.
+ *
+ * <p>Data compressed with a dictionary can only be decompressed with the same dictionary, so a compressor with a
+ * dictionary should only be used between peers that are known to share it. The dictionary is digested once, when
+ * the compressor is created, so a compressor should be reused for all the payloads of its dictionary.</p>
+ */
+public class ZstdCompressor extends AbstractCompressor
+{
+  private static final String HTTP_NAME = "zstd";
+
+  /**
+   * The default compression level of zstd, which compresses faster than gzip at a better ratio.
+   */
+  public static final int DEFAULT_LEVEL = 3;
+
+  private final int _level;
+  private final ZstdDictCompress _compressDictionary;
+  private final ZstdDictDecompress _decompressDictionary;
+
+  public ZstdCompressor()
+  {
+    this(DEFAULT_LEVEL);
+  }
+
+  /**
+   * @param level compression level, from 1 (fastest) to 22 (smallest).
+   */
+  public ZstdCompressor(int level)
+  {
+    this(level, null);
+  }
+
+  /**
+   * @param level compression level, from 1 (fastest) to 22 (smallest).
+   * @param dictionary trained dictionary, e.g. from {@link #trainDictionary(List, int)}, or null to compress without one.
+   */
+  public ZstdCompressor(int level, byte[] dictionary)
+  {
+    _level = level;
+    _compressDictionary = dictionary == null ? null : new ZstdDictCompress(dictionary, level);
+    _decompressDictionary = dictionary == null ? null : new ZstdDictDecompress(dictionary);
+  }
+
+  /**
+   * Trains a dictionary on sample payloads. A dictionary mostly helps with small payloads that share structure,
+   * e.g. the field names of rest.li responses of a resource.
+   *
+   * @param samples sample payloads.
+   * @param dictionarySize maximum size of the dictionary in bytes.
+   * @return the trained dictionary.
+   */
+  public static byte[] trainDictionary(List<byte[]> samples, int dictionarySize)
+  {
+    int sampleSize = 0;
+    for (byte[] sample : samples)
+    {
+      sampleSize += sample.length;
+    }
+    ZstdDictTrainer trainer = new ZstdDictTrainer(sampleSize, dictionarySize);
+    for (byte[] sample : samples)
+    {
+      trainer.addSample(sample);
+    }
+    return trainer.trainSamples();
+  }
+
+  @Override
+  public String getContentEncodingName()
+  {
+    return HTTP_NAME;
+  }
+
+  @Override
+  protected InputStream createInflaterInputStream(InputStream compressedDataStream) throws IOException
+  {
+    ZstdInputStream in = new ZstdInputStream(compressedDataStream);
+    return _decompressDictionary == null ? in : in.setDict(_decompressDictionary);
+  }
+
+  @Override
+  protected OutputStream createDeflaterOutputStream(OutputStream decompressedDataStream) throws IOException
+  {
+    ZstdOutputStream out = new ZstdOutputStream(decompressedDataStream, _level);
+    return _compressDictionary == null ? out : out.setDict(_compressDictionary);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.r2.filter.compression.streaming;
+
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Streaming compressor for "zstd" Encoding, optionally with a trained dictionary. The dictionary is digested once,
+ * when the compressor is created, and shared by all the streams it compresses or decompresses.
+ *
+ * @see com.linkedin.r2.filter.compression.ZstdCompressor
+ */
+public class ZstdCompressor extends AbstractCompressor
+{
+  private final Executor _executor;
+  private final int _level;
+  private final ZstdDictCompress _compressDictionary;
+  private final ZstdDictDecompress _decompressDictionary;
+
+  public ZstdCompressor(Executor executor)
+  {
+    this(executor, com.linkedin.r2.filter.compression.ZstdCompressor.DEFAULT_LEVEL, null);
+  }
+
+  /**
+   * @param level compression level, from 1 (fastest) to 22 (smallest).
+   * @param dictionary trained dictionary, or null to compress without one.
+   */
+  public ZstdCompressor(Executor executor, int level, byte[] dictionary)
+  {
+    _executor = executor;
+    _level = level;
+    _compressDictionary = dictionary == null ? null : new ZstdDictCompress(dictionary, level);
+    _decompressDictionary = dictionary == null ? null : new ZstdDictDecompress(dictionary);
+  }
+
+  @Override
+  public String getContentEncodingName()
+  {
+    return StreamEncodingType.ZSTD.getHttpName();
+  }
+
+  @Override
+  protected StreamingInflater createInflater(EntityStream underlying)
+  {
+    return new StreamingInflater(underlying, _executor)
+    {
+      @Override
+      protected InputStream createInputStream(InputStream in) throws IOException
+      {
+        ZstdInputStream zstd = new ZstdInputStream(in);
+        return _decompressDictionary == null ? zstd : zstd.setDict(_decompressDictionary);
+      }
+    };
+  }
+
+  @Override
+  protected StreamingDeflater createDeflater(EntityStream underlying)
+  {
+    return new StreamingDeflater(underlying)
+    {
+      @Override
+      protected OutputStream createOutputStream(OutputStream out) throws IOException
+      {
+        ZstdOutputStream zstd = new ZstdOutputStream(out, _level);
+        return _compressDictionary == null ? zstd : zstd.setDict(_compressDictionary);
+      }
+    };
+  }
+}
@@ -0,0 +1,171 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.r2.filter.compression;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestAdaptiveCompressionSelector
+{
+  private static final String RESOURCE = "greetings";
+  private static final List<EncodingType> ACCEPTED = Arrays.asList(EncodingType.GZIP, EncodingType.DEFLATE,
+      EncodingType.SNAPPY, EncodingType.IDENTITY);
+
+  @Test
+  public void testSkipsIncompressibleResource()
+  {
+    AdaptiveCompressionSelector selector = new AdaptiveCompressionSelector(0.9, 2, 5, 0.8, () -> 0.0);
+    for (int i = 0; i < 2; i++)
+    {
+      Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.GZIP);
+      selector.recordCompression(RESOURCE, EncodingType.GZIP, 1000, 1010, 1000);
+    }
+
+    for (int i = 0; i < 4; i++)
+    {
+      Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.IDENTITY);
+    }
+    // Every probeInterval-th response is compressed to check whether the resource became compressible.
+    Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.GZIP);
+    Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.IDENTITY);
+
+    // Other resources are not affected.
+    Assert.assertEquals(selector.select("other", EncodingType.GZIP, ACCEPTED), EncodingType.GZIP);
+
+    CompressionStats stats = selector.getStats().get(RESOURCE).get(EncodingType.GZIP);
+    Assert.assertEquals(stats.getCompressedCount(), 2);
+    Assert.assertEquals(stats.getSkippedCount(), 5);
+    Assert.assertEquals(stats.getBytesSaved(), -20);
+  }
+
+  @Test
+  public void testCompressesCompressibleResource()
+  {
+    AdaptiveCompressionSelector selector = new AdaptiveCompressionSelector(0.9, 2, 5, 0.8, () -> 0.0);
+    for (int i = 0; i < 10; i++)
+    {
+      Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.GZIP);
+      selector.recordCompression(RESOURCE, EncodingType.GZIP, 1000, 300, 5000);
+    }
+
+    CompressionStats stats = selector.getStats().get(RESOURCE).get(EncodingType.GZIP);
+    Assert.assertEquals(stats.getCompressedCount(), 10);
+    Assert.assertEquals(stats.getSkippedCount(), 0);
+    Assert.assertEquals(stats.getUncompressedBytes(), 10000);
+    Assert.assertEquals(stats.getCompressedBytes(), 3000);
+    Assert.assertEquals(stats.getBytesSaved(), 7000);
+    Assert.assertEquals(stats.getCompressionNanos(), 50000);
+    Assert.assertEquals(stats.getAverageRatio(), 0.3, 1e-9);
+    Assert.assertEquals(stats.getAverageNanosPerByte(), 5.0, 1e-9);
+    Assert.assertFalse(selector.getStats().get(RESOURCE).containsKey(EncodingType.DEFLATE));
+  }
+
+  @Test
+  public void testPrefersCheaperEncodingUnderLoad()
+  {
+    double[] cpuLoad = { 0.5 };
+    AdaptiveCompressionSelector selector = new AdaptiveCompressionSelector(0.9, 1, 5, 0.8, () -> cpuLoad[0]);
+    Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.GZIP);
+
+    // Without samples, the encodings are ranked by their usual cost.
+    cpuLoad[0] = 0.9;
+    Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.SNAPPY);
+    Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, Collections.singletonList(EncodingType.GZIP)),
+        EncodingType.GZIP);
+
+    // Once every accepted encoding has been timed, the measured cost is used.
+    selector.recordCompression(RESOURCE, EncodingType.GZIP, 1000, 300, 5000);
+    selector.recordCompression(RESOURCE, EncodingType.DEFLATE, 1000, 300, 4000);
+    selector.recordCompression(RESOURCE, EncodingType.SNAPPY, 1000, 500, 6000);
+    Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.DEFLATE);
+
+    // An unavailable load is not treated as saturation.
+    cpuLoad[0] = -1;
+    Assert.assertEquals(selector.select(RESOURCE, EncodingType.GZIP, ACCEPTED), EncodingType.GZIP);
+  }
+
+  @Test
+  public void testStreamedCompressionIsNotTimed()
+  {
+    AdaptiveCompressionSelector selector = new AdaptiveCompressionSelector();
+    selector.recordCompression(RESOURCE, EncodingType.GZIP, 1000, 300, -1);
+
+    CompressionStats stats = selector.getStats().get(RESOURCE).get(EncodingType.GZIP);
+    Assert.assertEquals(stats.getCompressedCount(), 1);
+    Assert.assertEquals(stats.getAverageRatio(), 0.3, 1e-9);
+    Assert.assertEquals(stats.getCompressionNanos(), 0);
+    Assert.assertEquals(stats.getAverageNanosPerByte(), 0.0);
+  }
+
+  @Test
+  public void testResourcesAreBounded()
+  {
+    AdaptiveCompressionSelector selector = new AdaptiveCompressionSelector(0.9, 1, 5, 0.8, () -> 0.0, 2);
+    for (int i = 0; i < 100; i++)
+    {
+      String resource = "resource" + i;
+      Assert.assertEquals(selector.select(resource, EncodingType.GZIP, ACCEPTED), EncodingType.GZIP);
+      selector.recordCompression(resource, EncodingType.GZIP, 1000, 300, 100);
+    }
+
+    Assert.assertTrue(selector.getStats().size() <= 2);
+  }
+
+  @Test
+  public void testNoCompressionSelected()
+  {
+    AdaptiveCompressionSelector selector = new AdaptiveCompressionSelector();
+    Assert.assertEquals(selector.select(RESOURCE, EncodingType.IDENTITY, ACCEPTED), EncodingType.IDENTITY);
+    Assert.assertNull(selector.select(RESOURCE, null, ACCEPTED));
+  }
+
+  @DataProvider
+  public Object[][] resources()
+  {
+    return new Object[][] {
+        { "http://localhost:1338/greetings/1?fields=message", "greetings" },
+        { "/greetings?q=search", "greetings" },
+        { "greetings/1/subgreetings", "greetings" },
+        { "/", "" },
+        { "", "" }
+    };
+  }
+
+  @Test(dataProvider = "resources")
+  public void testGetResource(String uri, String expected)
+  {
+    Assert.assertEquals(AdaptiveCompressionSelector.getResource(URI.create(uri)), expected);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidMaxResources()
+  {
+    new AdaptiveCompressionSelector(0.9, 1, 5, 0.8, () -> 0.0, 0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidProbeInterval()
+  {
+    new AdaptiveCompressionSelector(0.9, 1, 0, 0.8, () -> 0.0);
+  }
+}
@@ -16,9 +16,15 @@
 
 package com.linkedin.r2.filter.compression;
 
+import com.linkedin.data.ByteString;
+import com.linkedin.data.codec.symbol.CompressionDictionary;
+import com.linkedin.data.codec.symbol.SymbolTableProvider;
+import com.linkedin.data.codec.symbol.SymbolTableProviderHolder;
+import com.linkedin.r2.filter.CompressionConfig;
 import com.linkedin.r2.filter.NextFilter;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
 import com.linkedin.r2.transport.http.common.HttpConstants;
@@ -27,10 +33,15 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Test compression rules
@@ -39,7 +50,7 @@ import java.util.Map;
  */
 public class TestServerCompressionFilter
 {
-  private static final String ACCEPT_COMPRESSIONS = "gzip, deflate, bzip2, snappy, x-snappy-framed";
+  private static final String ACCEPT_COMPRESSIONS = "gzip, deflate, bzip2, snappy, x-snappy-framed, zstd, x-lz4-framed";
 
   class HeaderCaptureFilter implements NextFilter<RestRequest, RestResponse>
   {
@@ -101,7 +112,9 @@ public class TestServerCompressionFilter
         {"gzip;q=1.00,deflate;q=0.80,bzip2;q=0.60,snappy;q=0.40", 1000, null},
         {"snappy", 1000, null},
         {"unknown;q=1.00,bzip2;q=0.70", 1000, null},
-        {"x-snappy-framed", 0, EncodingType.SNAPPY_FRAMED}
+        {"x-snappy-framed", 0, EncodingType.SNAPPY_FRAMED},
+        {"zstd", 0, EncodingType.ZSTD},
+        {"zstd;q=0.50,x-lz4-framed;q=1.00", 0, EncodingType.LZ4_FRAMED}
     };
   }
 
@@ -124,4 +137,350 @@ public class TestServerCompressionFilter
     serverCompressionFilter.onRestResponse(restResponse, context, Collections.<String, String>emptyMap(),
                                            new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, expectedContentEncodingName, compressedLength));
   }
+
+  @Test
+  public void testAdaptiveCompressionSkipsIncompressibleResponses()
+  {
+    AdaptiveCompressionSelector selector = new AdaptiveCompressionSelector(0.9, 1, 100, 0.8, () -> 0.0);
+    ServerCompressionFilter serverCompressionFilter = new ServerCompressionFilter(
+        AcceptEncoding.parseAcceptEncoding(ACCEPT_COMPRESSIONS), new CompressionConfig(0), selector);
+    RestRequest restRequest = new RestRequestBuilder(URI.create("/greetings/1"))
+        .setHeader(HttpConstants.ACCEPT_ENCODING, "gzip").build();
+    byte[] random = new byte[1000];
+    new Random(0).nextBytes(random);
+    byte[] text = new byte[1000];
+    Arrays.fill(text, (byte) 'A');
+
+    // The first random response is compressed, which makes it larger, so it is sent as is.
+    RequestContext context = new RequestContext();
+    serverCompressionFilter.onRestRequest(restRequest, context, Collections.<String, String>emptyMap(),
+        new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, null));
+    serverCompressionFilter.onRestResponse(new RestResponseBuilder().setEntity(random).build(), context,
+        Collections.<String, String>emptyMap(), new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, null, 1000));
+
+    // Later responses of the resource are not compressed.
+    context = new RequestContext();
+    serverCompressionFilter.onRestRequest(restRequest, context, Collections.<String, String>emptyMap(),
+        new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, null));
+    serverCompressionFilter.onRestResponse(new RestResponseBuilder().setEntity(text).build(), context,
+        Collections.<String, String>emptyMap(), new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, null, 1000));
+
+    CompressionStats stats = selector.getStats().get("greetings").get(EncodingType.GZIP);
+    Assert.assertEquals(stats.getCompressedCount(), 1);
+    Assert.assertEquals(stats.getSkippedCount(), 1);
+    Assert.assertTrue(stats.getBytesSaved() < 0);
+  }
+
+  @Test
+  public void testCompressionDictionaryRoundTrip()
+  {
+    byte[] samples = ("{\"message\":\"Hello\",\"tone\":\"FRIENDLY\",\"senders\":[\"alice\",\"bob\"],"
+        + "\"id\":12345,\"created\":1600000000000}").getBytes(StandardCharsets.UTF_8);
+    CompressionDictionary dictionary =
+        new CompressionDictionary("https://host:100/service|Test-dict-1", ByteString.copy(samples));
+    SymbolTableProvider provider = new SymbolTableProvider()
+    {
+      @Override
+      public CompressionDictionary getCompressionDictionary(String dictionaryName)
+      {
+        return dictionary.getName().equals(dictionaryName) ? dictionary : null;
+      }
+
+      @Override
+      public CompressionDictionary getResponseCompressionDictionary(URI requestUri, Map<String, String> requestHeaders)
+      {
+        return dictionary;
+      }
+    };
+    SymbolTableProvider original = SymbolTableProviderHolder.INSTANCE.getSymbolTableProvider();
+    SymbolTableProviderHolder.INSTANCE.setSymbolTableProvider(provider);
+    try
+    {
+      ClientCompressionFilter clientCompressionFilter = new ClientCompressionFilter(EncodingType.IDENTITY,
+          new CompressionConfig(Integer.MAX_VALUE), new EncodingType[] { EncodingType.ZSTD }, new CompressionConfig(0),
+          Collections.<String>emptyList(), Runnable::run);
+      ServerCompressionFilter serverCompressionFilter = new ServerCompressionFilter(
+          AcceptEncoding.parseAcceptEncoding(ACCEPT_COMPRESSIONS), new CompressionConfig(0));
+      byte[] entity = ("{\"message\":\"Hi\",\"tone\":\"FRIENDLY\",\"senders\":[\"carol\"],"
+          + "\"id\":12346,\"created\":1600000000001}").getBytes(StandardCharsets.UTF_8);
+
+      // The client does not hold the dictionary yet, so the server only makes it available.
+      RestRequest restRequest = clientCompressionFilter.addResponseCompressionHeaders(null,
+          new RestRequestBuilder(URI.create("/greetings/1")).build());
+      Assert.assertNull(restRequest.getHeader(HttpConstants.HEADER_ACCEPT_COMPRESSION_DICTIONARY));
+      RestResponse response = compressResponse(serverCompressionFilter, restRequest, entity);
+      Assert.assertEquals(response.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+      Assert.assertNull(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY));
+      Assert.assertEquals(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE),
+          dictionary.getName());
+      RestResponse inflated = inflateResponse(clientCompressionFilter, response);
+      Assert.assertEquals(inflated.getEntity().copyBytes(), entity);
+      Assert.assertNull(inflated.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE));
+
+      // Once fetched, the client advertises the dictionary and the server compresses with it.
+      restRequest = clientCompressionFilter.addResponseCompressionHeaders(null,
+          new RestRequestBuilder(URI.create("/greetings/1")).build());
+      Assert.assertEquals(restRequest.getHeader(HttpConstants.HEADER_ACCEPT_COMPRESSION_DICTIONARY), "Test-dict-1");
+      response = compressResponse(serverCompressionFilter, restRequest, entity);
+      Assert.assertEquals(response.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+      Assert.assertEquals(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY), dictionary.getName());
+      Assert.assertNull(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE));
+      Assert.assertTrue(response.getEntity().length()
+          < new ZstdCompressor().deflate(ByteString.copy(entity)).length());
+
+      inflated = inflateResponse(clientCompressionFilter, response);
+      Assert.assertEquals(inflated.getEntity().copyBytes(), entity);
+      Assert.assertNull(inflated.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY));
+    }
+    catch (CompressionException e)
+    {
+      Assert.fail("Compression failed", e);
+    }
+    finally
+    {
+      SymbolTableProviderHolder.INSTANCE.setSymbolTableProvider(original);
+    }
+  }
+
+  @Test
+  public void testCompressionDictionaryEvictedAfterRequest()
+  {
+    byte[] samples = ("{\"message\":\"Hello\",\"tone\":\"FRIENDLY\",\"senders\":[\"alice\",\"bob\"],"
+        + "\"id\":12345,\"created\":1600000000000}").getBytes(StandardCharsets.UTF_8);
+    CompressionDictionary dictionary =
+        new CompressionDictionary("https://host:100/service|Test-dict-1", ByteString.copy(samples));
+    SymbolTableProvider provider = new SymbolTableProvider()
+    {
+      @Override
+      public CompressionDictionary getCompressionDictionary(String dictionaryName)
+      {
+        return dictionary.getName().equals(dictionaryName) ? dictionary : null;
+      }
+
+      @Override
+      public CompressionDictionary getResponseCompressionDictionary(URI requestUri, Map<String, String> requestHeaders)
+      {
+        return dictionary;
+      }
+    };
+    SymbolTableProvider original = SymbolTableProviderHolder.INSTANCE.getSymbolTableProvider();
+    SymbolTableProviderHolder.INSTANCE.setSymbolTableProvider(provider);
+    try
+    {
+      ClientCompressionFilter clientCompressionFilter = new ClientCompressionFilter(EncodingType.IDENTITY,
+          new CompressionConfig(Integer.MAX_VALUE), new EncodingType[] { EncodingType.ZSTD }, new CompressionConfig(0),
+          Collections.singletonList(ClientCompressionHelper.COMPRESS_ALL_RESPONSES_INDICATOR), Runnable::run);
+      ServerCompressionFilter serverCompressionFilter = new ServerCompressionFilter(
+          AcceptEncoding.parseAcceptEncoding(ACCEPT_COMPRESSIONS), new CompressionConfig(0));
+      byte[] entity = ("{\"message\":\"Hi\",\"tone\":\"FRIENDLY\",\"senders\":[\"carol\"],"
+          + "\"id\":12346,\"created\":1600000000001}").getBytes(StandardCharsets.UTF_8);
+
+      // The client fetches the dictionary the server makes available, and advertises it in the next request.
+      inflateResponse(clientCompressionFilter, new RestResponseBuilder()
+          .setHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE, dictionary.getName()).build());
+      AtomicReference<RestRequest> request = new AtomicReference<>();
+      RequestContext requestContext = new RequestContext();
+      clientCompressionFilter.onRestRequest(new RestRequestBuilder(URI.create("/greetings/1")).build(), requestContext,
+          Collections.<String, String>emptyMap(), new RequestCaptureFilter(request));
+      Assert.assertEquals(request.get().getHeader(HttpConstants.HEADER_ACCEPT_COMPRESSION_DICTIONARY), "Test-dict-1");
+      RestResponse response = compressResponse(serverCompressionFilter, request.get(), entity);
+      Assert.assertEquals(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY), dictionary.getName());
+
+      // A client that no longer holds the dictionary, as when it is evicted once advertised, still decompresses the
+      // response with the compressor the request kept.
+      ClientCompressionFilter evictedClientCompressionFilter = new ClientCompressionFilter(EncodingType.IDENTITY,
+          new CompressionConfig(Integer.MAX_VALUE), new EncodingType[] { EncodingType.ZSTD }, new CompressionConfig(0),
+          Collections.<String>emptyList(), Runnable::run);
+      AtomicReference<RestResponse> inflated = new AtomicReference<>();
+      evictedClientCompressionFilter.onRestResponse(response, requestContext, Collections.<String, String>emptyMap(),
+          new ResponseCaptureFilter(inflated));
+      Assert.assertEquals(inflated.get().getEntity().copyBytes(), entity);
+    }
+    finally
+    {
+      SymbolTableProviderHolder.INSTANCE.setSymbolTableProvider(original);
+    }
+  }
+
+  @Test
+  public void testCompressionDictionarySharedAcrossHosts()
+  {
+    byte[] samples = ("{\"message\":\"Hello\",\"tone\":\"FRIENDLY\",\"senders\":[\"alice\",\"bob\"],"
+        + "\"id\":12345,\"created\":1600000000000}").getBytes(StandardCharsets.UTF_8);
+    AtomicInteger fetchCount = new AtomicInteger();
+    // Every host of the cluster serves the same dictionary under its own server node URI.
+    SymbolTableProvider provider = new SymbolTableProvider()
+    {
+      @Override
+      public CompressionDictionary getCompressionDictionary(String dictionaryName)
+      {
+        fetchCount.incrementAndGet();
+        return new CompressionDictionary(dictionaryName, ByteString.copy(samples));
+      }
+
+      @Override
+      public CompressionDictionary getResponseCompressionDictionary(URI requestUri, Map<String, String> requestHeaders)
+      {
+        return new CompressionDictionary("https://" + requestUri.getHost() + ":100/service|Test-dict-1",
+            ByteString.copy(samples));
+      }
+    };
+    SymbolTableProvider original = SymbolTableProviderHolder.INSTANCE.getSymbolTableProvider();
+    SymbolTableProviderHolder.INSTANCE.setSymbolTableProvider(provider);
+    try
+    {
+      ClientCompressionFilter clientCompressionFilter = new ClientCompressionFilter(EncodingType.IDENTITY,
+          new CompressionConfig(Integer.MAX_VALUE), new EncodingType[] { EncodingType.ZSTD }, new CompressionConfig(0),
+          Collections.<String>emptyList(), Runnable::run);
+      ServerCompressionFilter serverCompressionFilter = new ServerCompressionFilter(
+          AcceptEncoding.parseAcceptEncoding(ACCEPT_COMPRESSIONS), new CompressionConfig(0));
+      byte[] entity = ("{\"message\":\"Hi\",\"tone\":\"FRIENDLY\",\"senders\":[\"carol\"],"
+          + "\"id\":12346,\"created\":1600000000001}").getBytes(StandardCharsets.UTF_8);
+
+      // The first host makes the dictionary available, and the client fetches it.
+      RestRequest restRequest = clientCompressionFilter.addResponseCompressionHeaders(null,
+          new RestRequestBuilder(URI.create("http://host1/greetings/1")).build());
+      RestResponse response = compressResponse(serverCompressionFilter, restRequest, entity);
+      Assert.assertEquals(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE),
+          "https://host1:100/service|Test-dict-1");
+      inflateResponse(clientCompressionFilter, response);
+      Assert.assertEquals(fetchCount.get(), 1);
+
+      // The second host compresses with its copy of the dictionary, which the client already holds.
+      restRequest = clientCompressionFilter.addResponseCompressionHeaders(null,
+          new RestRequestBuilder(URI.create("http://host2/greetings/1")).build());
+      Assert.assertEquals(restRequest.getHeader(HttpConstants.HEADER_ACCEPT_COMPRESSION_DICTIONARY), "Test-dict-1");
+      response = compressResponse(serverCompressionFilter, restRequest, entity);
+      Assert.assertEquals(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY),
+          "https://host2:100/service|Test-dict-1");
+      Assert.assertNull(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE));
+      Assert.assertEquals(inflateResponse(clientCompressionFilter, response).getEntity().copyBytes(), entity);
+      Assert.assertEquals(fetchCount.get(), 1);
+    }
+    finally
+    {
+      SymbolTableProviderHolder.INSTANCE.setSymbolTableProvider(original);
+    }
+  }
+
+  @Test
+  public void testCompressionDictionaryNotAdvertisedWhenUnavailable()
+  {
+    byte[] samples = ("{\"message\":\"Hello\",\"tone\":\"FRIENDLY\"}").getBytes(StandardCharsets.UTF_8);
+    CompressionDictionary dictionary =
+        new CompressionDictionary("https://host:100/service|Test-dict-1", ByteString.copy(samples));
+    // The client cannot fetch dictionaries, as getCompressionDictionary keeps its throwing default.
+    SymbolTableProvider provider = new SymbolTableProvider()
+    {
+      @Override
+      public CompressionDictionary getResponseCompressionDictionary(URI requestUri, Map<String, String> requestHeaders)
+      {
+        return dictionary;
+      }
+    };
+    SymbolTableProvider original = SymbolTableProviderHolder.INSTANCE.getSymbolTableProvider();
+    SymbolTableProviderHolder.INSTANCE.setSymbolTableProvider(provider);
+    try
+    {
+      ClientCompressionFilter clientCompressionFilter = new ClientCompressionFilter(EncodingType.IDENTITY,
+          new CompressionConfig(Integer.MAX_VALUE), new EncodingType[] { EncodingType.ZSTD }, new CompressionConfig(0),
+          Collections.<String>emptyList(), Runnable::run);
+      ServerCompressionFilter serverCompressionFilter = new ServerCompressionFilter(
+          AcceptEncoding.parseAcceptEncoding(ACCEPT_COMPRESSIONS), new CompressionConfig(0));
+      byte[] entity = new byte[1000];
+      Arrays.fill(entity, (byte) 'A');
+
+      for (int i = 0; i < 2; i++)
+      {
+        RestRequest restRequest = clientCompressionFilter.addResponseCompressionHeaders(null,
+            new RestRequestBuilder(URI.create("/greetings/1")).build());
+        Assert.assertNull(restRequest.getHeader(HttpConstants.HEADER_ACCEPT_COMPRESSION_DICTIONARY));
+        RestResponse response = compressResponse(serverCompressionFilter, restRequest, entity);
+        Assert.assertEquals(response.getHeader(HttpConstants.CONTENT_ENCODING), EncodingType.ZSTD.getHttpName());
+        Assert.assertNull(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY));
+        Assert.assertEquals(response.getHeader(HttpConstants.HEADER_COMPRESSION_DICTIONARY_AVAILABLE),
+            dictionary.getName());
+        Assert.assertEquals(inflateResponse(clientCompressionFilter, response).getEntity().copyBytes(), entity);
+      }
+    }
+    finally
+    {
+      SymbolTableProviderHolder.INSTANCE.setSymbolTableProvider(original);
+    }
+  }
+
+  private RestResponse compressResponse(ServerCompressionFilter serverCompressionFilter,
+      RestRequest restRequest, byte[] entity)
+  {
+    AtomicReference<RestResponse> compressed = new AtomicReference<>();
+    RequestContext context = new RequestContext();
+    serverCompressionFilter.onRestRequest(restRequest, context, Collections.<String, String>emptyMap(),
+        new HeaderCaptureFilter(HttpConstants.CONTENT_ENCODING, null));
+    serverCompressionFilter.onRestResponse(new RestResponseBuilder().setEntity(entity).build(), context,
+        Collections.<String, String>emptyMap(), new ResponseCaptureFilter(compressed));
+    return compressed.get();
+  }
+
+  private RestResponse inflateResponse(ClientCompressionFilter clientCompressionFilter, RestResponse response)
+  {
+    AtomicReference<RestResponse> inflated = new AtomicReference<>();
+    clientCompressionFilter.onRestResponse(response, new RequestContext(), Collections.<String, String>emptyMap(),
+        new ResponseCaptureFilter(inflated));
+    Assert.assertNotNull(inflated.get());
+    return inflated.get();
+  }
+
+  private static class RequestCaptureFilter implements NextFilter<RestRequest, RestResponse>
+  {
+    private final AtomicReference<RestRequest> _request;
+
+    RequestCaptureFilter(AtomicReference<RestRequest> request)
+    {
+      _request = request;
+    }
+
+    @Override
+    public void onRequest(RestRequest restRequest, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _request.set(restRequest);
+    }
+
+    @Override
+    public void onResponse(RestResponse restResponse, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+    }
+
+    @Override
+    public void onError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      Assert.fail("Unexpected error", ex);
+    }
+  }
+
+  private static class ResponseCaptureFilter implements NextFilter<RestRequest, RestResponse>
+  {
+    private final AtomicReference<RestResponse> _response;
+
+    ResponseCaptureFilter(AtomicReference<RestResponse> response)
+    {
+      _response = response;
+    }
+
+    @Override
+    public void onRequest(RestRequest restRequest, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+    }
+
+    @Override
+    public void onResponse(RestResponse restResponse, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      _response.set(restResponse);
+    }
+
+    @Override
+    public void onError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs)
+    {
+      Assert.fail("Unexpected error", ex);
+    }
+  }
 }
@@ -0,0 +1,303 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+
+package test.r2.integ;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.rest.RestStatus;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.StreamResponseBuilder;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.transport.common.Client;
+import com.linkedin.r2.transport.common.RestRequestHandler;
+import com.linkedin.r2.transport.common.StreamRequestHandler;
+import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import com.linkedin.r2.transport.http.server.HttpNettyServerBuilder;
+import com.linkedin.r2.transport.http.server.HttpServer;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2HeadersFrame;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.util.ReferenceCountUtil;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import test.r2.integ.helper.BytesReader;
+import test.r2.integ.helper.BytesWriter;
+
+
+/**
+ * Sends requests with the HTTP/2 clients to the Netty server built by {@link HttpNettyServerBuilder}, serving
+ * HTTP/2 in clear text (h2c).
+ */
+public class TestHttp2NettyServer
+{
+  private static final int PORT = 8098;
+  private static final URI ECHO_URI = URI.create("/echo");
+  private static final URI STREAM_ECHO_URI = URI.create("/streamEcho");
+  private static final String PROTOCOL_VERSION_HEADER = "X-Protocol-Version";
+  // Larger than the initial HTTP/2 flow-control window of 64KB, so that the entities need WINDOW_UPDATEs
+  private static final int STREAM_ENTITY_SIZE = 512 * 1024;
+  private static final byte BYTE = 100;
+
+  private HttpServer _server;
+  private HttpClientFactory _clientFactory;
+  private HttpClientFactory _clientFactoryV2;
+
+  @BeforeClass
+  public void setup() throws Exception
+  {
+    _clientFactory = new HttpClientFactory.Builder().setUsePipelineV2(false).build();
+    _clientFactoryV2 = new HttpClientFactory.Builder().setUsePipelineV2(true).build();
+    _server = new HttpNettyServerBuilder()
+        .port(PORT)
+        .filters(FilterChains.empty())
+        .transportDispatcher(new TransportDispatcherBuilder()
+            .addRestHandler(ECHO_URI, new RestEchoHandler())
+            .addStreamHandler(STREAM_ECHO_URI, new StreamEchoHandler())
+            .build())
+        .enableHttp2(true)
+        .build();
+    _server.start();
+  }
+
+  @AfterClass
+  public void tearDown() throws Exception
+  {
+    final FutureCallback<None> factoryShutdownCallback = new FutureCallback<>();
+    _clientFactory.shutdown(factoryShutdownCallback);
+    factoryShutdownCallback.get();
+
+    final FutureCallback<None> factoryV2ShutdownCallback = new FutureCallback<>();
+    _clientFactoryV2.shutdown(factoryV2ShutdownCallback);
+    factoryV2ShutdownCallback.get();
+
+    if (_server != null)
+    {
+      _server.stop();
+      _server.waitForStop();
+    }
+  }
+
+  @DataProvider
+  public Object[][] clientConfigurations()
+  {
+    return new Object[][] {
+        { false, false },
+        { false, true },
+        { true, false },
+        { true, true }
+    };
+  }
+
+  @Test(dataProvider = "clientConfigurations")
+  public void testRestRequest(boolean usePipelineV2, boolean restOverStream) throws Exception
+  {
+    final Client client = createClient(usePipelineV2, restOverStream);
+    try
+    {
+      final RestRequest request = new RestRequestBuilder(createURI(ECHO_URI))
+          .setMethod("POST")
+          .setEntity(ByteString.copyString("Hello, world!", "UTF-8"))
+          .build();
+      final RestResponse response = client.restRequest(request).get(10, TimeUnit.SECONDS);
+
+      Assert.assertEquals(response.getStatus(), RestStatus.OK);
+      Assert.assertEquals(response.getEntity().asString("UTF-8"), "Hello, world!");
+      Assert.assertEquals(response.getHeader(PROTOCOL_VERSION_HEADER), HttpProtocolVersion.HTTP_2.name());
+    }
+    finally
+    {
+      shutdown(client);
+    }
+  }
+
+  @Test(dataProvider = "clientConfigurations")
+  public void testStreamRequest(boolean usePipelineV2, boolean restOverStream) throws Exception
+  {
+    final Client client = createClient(usePipelineV2, restOverStream);
+    try
+    {
+      final BytesWriter writer = new BytesWriter(STREAM_ENTITY_SIZE, BYTE);
+      final StreamRequest request = new StreamRequestBuilder(createURI(STREAM_ECHO_URI))
+          .setMethod("POST")
+          .build(EntityStreams.newEntityStream(writer));
+      final FutureCallback<StreamResponse> responseCallback = new FutureCallback<>();
+      client.streamRequest(request, responseCallback);
+      final StreamResponse response = responseCallback.get(10, TimeUnit.SECONDS);
+
+      Assert.assertEquals(response.getStatus(), RestStatus.OK);
+      Assert.assertEquals(response.getHeader(PROTOCOL_VERSION_HEADER), HttpProtocolVersion.HTTP_2.name());
+      final FutureCallback<None> readerCallback = new FutureCallback<>();
+      final BytesReader reader = new BytesReader(BYTE, readerCallback);
+      response.getEntityStream().setReader(reader);
+      readerCallback.get(10, TimeUnit.SECONDS);
+      Assert.assertTrue(writer.isDone());
+      Assert.assertEquals(reader.getTotalBytes(), STREAM_ENTITY_SIZE);
+      Assert.assertTrue(reader.allBytesCorrect());
+    }
+    finally
+    {
+      shutdown(client);
+    }
+  }
+
+  /**
+   * The r2 clients always send the :path pseudo-header, so the request is sent with the Netty HTTP/2 codec, over a
+   * connection starting with the HTTP/2 preface (prior knowledge).
+   */
+  @Test
+  public void testMissingPathRejected() throws Exception
+  {
+    final EventLoopGroup eventLoopGroup = new NioEventLoopGroup(1);
+    try
+    {
+      final Channel channel = new Bootstrap()
+          .group(eventLoopGroup)
+          .channel(NioSocketChannel.class)
+          .handler(new ChannelInitializer<Channel>()
+          {
+            @Override
+            protected void initChannel(Channel ch)
+            {
+              ch.pipeline().addLast(Http2FrameCodecBuilder.forClient().build());
+              ch.pipeline().addLast(new Http2MultiplexHandler(new ChannelInboundHandlerAdapter()));
+            }
+          })
+          .connect("localhost", PORT)
+          .sync()
+          .channel();
+
+      final CompletableFuture<Http2Headers> responseHeaders = new CompletableFuture<>();
+      final Http2StreamChannel streamChannel = new Http2StreamChannelBootstrap(channel)
+          .handler(new ChannelInboundHandlerAdapter()
+          {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg)
+            {
+              if (msg instanceof Http2HeadersFrame)
+              {
+                responseHeaders.complete(((Http2HeadersFrame) msg).headers());
+              }
+              ReferenceCountUtil.release(msg);
+            }
+          })
+          .open()
+          .sync()
+          .getNow();
+
+      final Http2Headers requestHeaders = new DefaultHttp2Headers()
+          .method("GET")
+          .scheme("http")
+          .authority("localhost:" + PORT);
+      streamChannel.writeAndFlush(new DefaultHttp2HeadersFrame(requestHeaders, true)).sync();
+
+      Assert.assertEquals(responseHeaders.get(10, TimeUnit.SECONDS).status().toString(),
+          String.valueOf(RestStatus.BAD_REQUEST));
+      channel.close().sync();
+    }
+    finally
+    {
+      eventLoopGroup.shutdownGracefully().sync();
+    }
+  }
+
+  private Client createClient(boolean usePipelineV2, boolean restOverStream)
+  {
+    final Map<String, String> properties = new HashMap<>();
+    properties.put(HttpClientFactory.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_2.name());
+    properties.put(HttpClientFactory.HTTP_REQUEST_TIMEOUT, "10000");
+    final HttpClientFactory clientFactory = usePipelineV2 ? _clientFactoryV2 : _clientFactory;
+    return new TransportClientAdapter(clientFactory.getClient(properties), restOverStream);
+  }
+
+  private static void shutdown(Client client) throws Exception
+  {
+    final FutureCallback<None> callback = new FutureCallback<>();
+    client.shutdown(callback);
+    callback.get();
+  }
+
+  private static URI createURI(URI relativeURI)
+  {
+    return URI.create("http://localhost:" + PORT).resolve(relativeURI);
+  }
+
+  private static class RestEchoHandler implements RestRequestHandler
+  {
+    @Override
+    public void handleRequest(RestRequest request, RequestContext requestContext,
+        Callback<RestResponse> callback)
+    {
+      callback.onSuccess(new RestResponseBuilder()
+          .setEntity(request.getEntity())
+          .setHeader(PROTOCOL_VERSION_HEADER, getProtocolVersion(requestContext))
+          .build());
+    }
+  }
+
+  private static class StreamEchoHandler implements StreamRequestHandler
+  {
+    @Override
+    public void handleRequest(StreamRequest request, RequestContext requestContext,
+        Callback<StreamResponse> callback)
+    {
+      callback.onSuccess(new StreamResponseBuilder()
+          .setHeader(PROTOCOL_VERSION_HEADER, getProtocolVersion(requestContext))
+          .build(request.getEntityStream()));
+    }
+  }
+
+  private static String getProtocolVersion(RequestContext requestContext)
+  {
+    return String.valueOf(requestContext.getLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION));
+  }
+}
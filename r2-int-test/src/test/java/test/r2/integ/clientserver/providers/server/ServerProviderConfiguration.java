@@ -62,7 +62,8 @@ public class ServerProviderConfiguration
   {
     return Arrays.asList(
       new Http2JettyServerProvider(true),
-      new Http2JettyServerProvider(false)
+      new Http2JettyServerProvider(false),
+      new Http2NettyServerProvider()
     );
   }
 
@@ -19,15 +19,19 @@ package com.linkedin.r2.netty.client;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.MultiCallback;
 import com.linkedin.common.util.None;
+import com.linkedin.data.ByteString;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Messages;
 import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestPriority;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.Observer;
+import com.linkedin.r2.message.timing.FrameworkTimingKeys;
 import com.linkedin.r2.message.timing.TimingContextUtil;
 import com.linkedin.r2.message.timing.TimingImportance;
 import com.linkedin.r2.message.timing.TimingKey;
@@ -46,6 +50,7 @@ import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.HttpClientFactory;
 import com.linkedin.r2.transport.http.client.InvokedOnceTransportCallback;
+import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolManager;
 import com.linkedin.r2.transport.http.client.common.ssl.SslSessionValidator;
 import com.linkedin.r2.transport.http.common.HttpBridge;
@@ -68,6 +73,7 @@ import java.net.URI;
 import java.net.UnknownHostException;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -174,7 +180,48 @@ public class HttpNettyClient implements TransportClient
       Map<String, String> wireAttrs,
       TransportCallback<RestResponse> callback)
   {
-    sendRequest(request, requestContext, wireAttrs, Messages.toStreamTransportCallback(callback));
+    final TransportCallback<RestResponse> decodeTimingCallback = response -> {
+      if (!response.hasError())
+      {
+        TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_DECODE.key());
+      }
+      callback.onResponse(response);
+    };
+    sendRequest(request, requestContext, wireAttrs,
+        beginDecodeTiming(requestContext, Messages.toStreamTransportCallback(decodeTimingCallback)));
+  }
+
+  /**
+   * Begins the decode of a rest response once its entity has been read, until the full response is built from it.
+   * The observer is added before the callback sets the reader of the entity, and is notified before it.
+   */
+  private static TransportCallback<StreamResponse> beginDecodeTiming(RequestContext requestContext,
+      TransportCallback<StreamResponse> callback)
+  {
+    return response -> {
+      if (!response.hasError())
+      {
+        response.getResponse().getEntityStream().addObserver(new Observer()
+        {
+          @Override
+          public void onDataAvailable(ByteString data)
+          {
+          }
+
+          @Override
+          public void onDone()
+          {
+            TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_DECODE.key());
+          }
+
+          @Override
+          public void onError(Throwable e)
+          {
+          }
+        });
+      }
+      callback.onResponse(response);
+    };
   }
 
   @Override
@@ -248,6 +295,32 @@ public class HttpNettyClient implements TransportClient
     }
   }
 
+  @Override
+  public void warmUp(URI uri, int connections, Callback<None> callback)
+  {
+    final NettyClientState state = _state.get();
+    if (state != NettyClientState.RUNNING)
+    {
+      callback.onError(new IllegalStateException("Client is not running"));
+      return;
+    }
+
+    final SocketAddress address;
+    try
+    {
+      address = resolveAddress(uri, new RequestContext());
+    }
+    catch (Exception e)
+    {
+      callback.onError(e);
+      return;
+    }
+
+    final ChannelPoolManager channelPoolManager =
+        HTTPS_SCHEME.equals(uri.getScheme()) ? _sslChannelPoolManager : _channelPoolManager;
+    channelPoolManager.warmUp(address, connections, callback);
+  }
+
   private void sendStreamRequestAsRestRequest(StreamRequest request, RequestContext requestContext,
       Map<String, String> wireAttrs, TransportCallback<StreamResponse> callback)
   {
@@ -337,12 +410,29 @@ public class HttpNettyClient implements TransportClient
     // Saves protocol version in request context
     requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION, _protocolVersion);
 
+    TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
     final Cancellable pendingGet = pool.get(new ChannelPoolGetCallback(
-        pool, requestWithWireAttrHeaders, requestContext, decoratedCallback, timeout, resolvedRequestTimeout, _streamingTimeout));
+        pool, requestWithWireAttrHeaders, requestContext, decoratedCallback, timeout, resolvedRequestTimeout, _streamingTimeout),
+        RequestPriority.fromRequestContext(requestContext));
 
     if (pendingGet != null)
     {
       timeout.addTimeoutTask(pendingGet::cancel);
+      requestContext.putLocalAttr(R2Constants.REQUEST_CANCELLATION, (Cancellable) () ->
+      {
+        if (!pendingGet.cancel())
+        {
+          return false;
+        }
+        // The timeout may have completed the callback already
+        if (timeout.getItem() != null)
+        {
+          TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
+          decoratedCallback.onResponse(TransportResponseImpl.error(
+              new CancellationException("Request cancelled while waiting for a channel")));
+        }
+        return true;
+      });
     }
   }
 
@@ -397,12 +487,16 @@ public class HttpNettyClient implements TransportClient
       // Cancels previous timeout and takes over the responsibility of invoking the request callback
       _timeout.getItem();
 
+      TimingContextUtil.endTiming(_requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
+      ChannelPoolLifecycle.markConnectTiming(channel, _requestContext);
+
       // Sets channel attributes relevant to the request
       channel.attr(NettyChannelAttributes.CHANNEL_POOL).set(_pool);
 
       TransportCallback<StreamResponse> sslTimingCallback = SslHandshakeTimingHandler.getSslTimingCallback(channel, _requestContext, _callback);
 
       channel.attr(NettyChannelAttributes.RESPONSE_CALLBACK).set(sslTimingCallback);
+      channel.attr(NettyChannelAttributes.REQUEST_CONTEXT).set(_requestContext);
 
       // Set the session validator requested by the user
       final SslSessionValidator sslSessionValidator = (SslSessionValidator) _requestContext.getLocalAttr(R2Constants.REQUESTED_SSL_SESSION_VALIDATOR);
@@ -437,6 +531,7 @@ public class HttpNettyClient implements TransportClient
 
       // Here we want the exception in outbound operations to be passed back through pipeline so that
       // the user callback would be invoked with the exception and the channel can be put back into the pool
+      TimingContextUtil.beginTiming(_requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_WRITE.key());
       channel.writeAndFlush(_request).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
     }
 
@@ -448,6 +543,7 @@ public class HttpNettyClient implements TransportClient
     @Override
     public void onError(Throwable e)
     {
+      TimingContextUtil.endTiming(_requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
       _callback.onResponse(TransportResponseImpl.error(e));
     }
   }
@@ -539,7 +635,19 @@ public class HttpNettyClient implements TransportClient
   public static SocketAddress resolveAddress(Request request, RequestContext requestContext)
       throws UnknownHostException, UnknownSchemeException
   {
-    final URI uri = request.getURI();
+    return resolveAddress(request.getURI(), requestContext);
+  }
+
+  /**
+   * Resolves the IP Address from the URI host
+   *
+   * @param uri URI of the host
+   * @param requestContext Request's context
+   * @return SocketAddress resolved from the URI host
+   */
+  public static SocketAddress resolveAddress(URI uri, RequestContext requestContext)
+      throws UnknownHostException, UnknownSchemeException
+  {
     final String scheme = uri.getScheme();
 
     if (!HTTP_SCHEME.equalsIgnoreCase(scheme) && !HTTPS_SCHEME.equalsIgnoreCase(scheme))
@@ -26,8 +26,9 @@ import com.linkedin.r2.netty.handler.common.SslHandshakeTimingHandler;
 import com.linkedin.r2.netty.handler.http.HttpMessageDecoders;
 import com.linkedin.r2.netty.handler.http.HttpMessageEncoders;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.codec.http.HttpScheme;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -60,7 +61,7 @@ import javax.net.ssl.SSLParameters;
  * @author Sean Sheng
  * @author Nizar Mankulangara
  */
-class HttpChannelInitializer extends ChannelInitializer<NioSocketChannel>
+class HttpChannelInitializer extends ChannelInitializer<SocketChannel>
 {
   /**
    * HTTP/2 stream channels are not recyclable and should be disposed upon completion.
@@ -76,10 +77,11 @@ class HttpChannelInitializer extends ChannelInitializer<NioSocketChannel>
   private final long _maxContentLength;
   private final boolean _ssl;
   private final boolean _enableSSLSessionResumption;
+  private final boolean _writeCoalescing;
 
   HttpChannelInitializer(SSLContext sslContext, SSLParameters sslParameters, int maxInitialLineLength,
       int maxHeaderSize, int maxChunkSize, long maxContentLength, boolean enableSSLSessionResumption,
-      int sslHandShakeTimeout)
+      int sslHandShakeTimeout, boolean writeCoalescing)
   {
     _sslContext = sslContext;
     _sslParameters = sslParameters;
@@ -90,16 +92,24 @@ class HttpChannelInitializer extends ChannelInitializer<NioSocketChannel>
     _sslHandShakeTimeout = sslHandShakeTimeout;
     _ssl = _sslContext != null && _sslParameters != null;
     _enableSSLSessionResumption = enableSSLSessionResumption;
+    _writeCoalescing = writeCoalescing;
   }
 
   @Override
-  protected void initChannel(NioSocketChannel channel)
+  protected void initChannel(SocketChannel channel)
   {
     if (_ssl)
     {
       channel.pipeline().addLast(SessionResumptionSslHandler.PIPELINE_SESSION_RESUMPTION_HANDLER,
           new SessionResumptionSslHandler(_sslContext, _sslParameters, _enableSSLSessionResumption, _sslHandShakeTimeout));
     }
+    if (_writeCoalescing)
+    {
+      // Below the codec, so that the headers and the data chunks written in the same event loop iteration leave in
+      // one flush, and above the SslHandler, so that they are also encrypted together
+      channel.pipeline().addLast("flushConsolidation",
+          new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+    }
 
     channel.pipeline().addLast("codec", new HttpClientCodec(_maxInitialLineLength, _maxHeaderSize, _maxChunkSize));
     channel.pipeline().addLast("outboundRestRequestEncoder", HttpMessageEncoders.newRestRequestEncoder());
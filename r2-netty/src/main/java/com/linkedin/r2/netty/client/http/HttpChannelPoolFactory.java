@@ -17,11 +17,17 @@
 package com.linkedin.r2.netty.client.http;
 
 import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.r2.netty.common.NettyTransport;
+import com.linkedin.r2.transport.http.client.AdaptivePoolSizer;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.AsyncPoolPriorityPolicy;
+import com.linkedin.r2.transport.http.client.ConcurrentAsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
+import com.linkedin.r2.transport.http.client.RateLimiter;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
+import com.linkedin.r2.transport.http.client.common.EventLoopAffineChannelPool;
 import com.linkedin.util.clock.SystemClock;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
@@ -29,7 +35,7 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import java.net.SocketAddress;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.net.ssl.SSLContext;
@@ -53,6 +59,11 @@ public class HttpChannelPoolFactory implements ChannelPoolFactory
   private final ScheduledExecutorService _scheduler;
   private final AsyncPoolImpl.Strategy _strategy;
   private int _channelPoolWaiterTimeout;
+  private final EventLoopGroup _eventLoopGroup;
+  private final boolean _eventLoopAffinity;
+  private final boolean _adaptivePoolSizing;
+  private final boolean _concurrentPool;
+  private final AsyncPoolPriorityPolicy _priorityPolicy;
 
   public HttpChannelPoolFactory(
       ScheduledExecutorService scheduler,
@@ -74,10 +85,16 @@ public class HttpChannelPoolFactory implements ChannelPoolFactory
       boolean enableSSLSessionResumption,
       int channelPoolWaiterTimeout,
       int connectTimeout,
-      int sslHandShakeTimeout)
+      int sslHandShakeTimeout,
+      boolean eventLoopAffinity,
+      boolean adaptivePoolSizing,
+      boolean writeCoalescing,
+      boolean concurrentPool,
+      AsyncPoolPriorityPolicy priorityPolicy)
   {
-    ChannelInitializer<NioSocketChannel> initializer = new HttpChannelInitializer(sslContext, sslParameters,
-        maxInitialLineLength, maxHeaderSize, maxChunkSize, maxContentLength, enableSSLSessionResumption, sslHandShakeTimeout);
+    ChannelInitializer<SocketChannel> initializer = new HttpChannelInitializer(sslContext, sslParameters,
+        maxInitialLineLength, maxHeaderSize, maxChunkSize, maxContentLength, enableSSLSessionResumption, sslHandShakeTimeout,
+        writeCoalescing);
 
     _scheduler = scheduler;
     _allChannels = channelGroup;
@@ -90,32 +107,60 @@ public class HttpChannelPoolFactory implements ChannelPoolFactory
     _tcpNoDelay = tcpNoDelay;
     _channelPoolWaiterTimeout = channelPoolWaiterTimeout;
 
-    _bootstrap = new Bootstrap().group(eventLoopGroup).channel(NioSocketChannel.class).
+    _bootstrap = new Bootstrap().group(eventLoopGroup).channel(NettyTransport.of(eventLoopGroup).getChannelClass()).
         option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout).handler(initializer);
+    _eventLoopGroup = eventLoopGroup;
+    _eventLoopAffinity = eventLoopAffinity;
+    _adaptivePoolSizing = adaptivePoolSizing;
+    _concurrentPool = concurrentPool;
+    _priorityPolicy = priorityPolicy;
   }
 
   @Override
   public AsyncPool<Channel> getPool(SocketAddress address)
   {
+    if (_eventLoopAffinity)
+    {
+      return new EventLoopAffineChannelPool(address.toString(), _eventLoopGroup, _maxPoolSize, _minPoolSize,
+          _maxPoolWaiterSize, _maxConcurrentConnectionInitializations,
+          (eventLoop, maxPoolSize, minPoolSize, maxPoolWaiterSize, maxConcurrentConnectionInitializations) ->
+              createPool(address, _bootstrap.clone(eventLoop), maxPoolSize, minPoolSize, maxPoolWaiterSize,
+                  maxConcurrentConnectionInitializations));
+    }
+    return createPool(address, _bootstrap, _maxPoolSize, _minPoolSize, _maxPoolWaiterSize,
+        _maxConcurrentConnectionInitializations);
+  }
+
+  private AsyncPool<Channel> createPool(SocketAddress address, Bootstrap bootstrap, int maxPoolSize, int minPoolSize,
+      int maxPoolWaiterSize, int maxConcurrentConnectionInitializations)
+  {
+    ChannelPoolLifecycle lifecycle = new ChannelPoolLifecycle(address, bootstrap, _allChannels, _tcpNoDelay);
+    RateLimiter rateLimiter = new ExponentialBackOffRateLimiter(0,
+        ChannelPoolLifecycle.MAX_PERIOD_BEFORE_RETRY_CONNECTIONS,
+        ChannelPoolLifecycle.INITIAL_PERIOD_BEFORE_RETRY_CONNECTIONS,
+        _scheduler,
+        maxConcurrentConnectionInitializations);
+    if (_concurrentPool)
+    {
+      // Neither adaptive sizing nor request priorities are supported by the concurrent pool
+      return new ConcurrentAsyncPoolImpl<>(address.toString(), lifecycle, maxPoolSize, _idleTimeout,
+          _channelPoolWaiterTimeout, _scheduler, maxPoolWaiterSize, _strategy, minPoolSize, rateLimiter,
+          SystemClock.instance(), NoopLongTracker.instance());
+    }
     return new AsyncPoolImpl<>(address.toString(),
-        new ChannelPoolLifecycle(address,
-            _bootstrap,
-            _allChannels,
-            _tcpNoDelay),
-        _maxPoolSize,
+        lifecycle,
+        maxPoolSize,
         _idleTimeout,
         _channelPoolWaiterTimeout,
         _scheduler,
-        _maxPoolWaiterSize,
+        maxPoolWaiterSize,
         _strategy,
-        _minPoolSize,
-        new ExponentialBackOffRateLimiter(0,
-            ChannelPoolLifecycle.MAX_PERIOD_BEFORE_RETRY_CONNECTIONS,
-            ChannelPoolLifecycle.INITIAL_PERIOD_BEFORE_RETRY_CONNECTIONS,
-            _scheduler,
-            _maxConcurrentConnectionInitializations),
+        minPoolSize,
+        rateLimiter,
         SystemClock.instance(),
-        NoopLongTracker.instance()
+        NoopLongTracker.instance(),
+        _adaptivePoolSizing ? new AdaptivePoolSizer() : null,
+        _priorityPolicy
     );
   }
 }
@@ -31,7 +31,7 @@ import com.linkedin.r2.netty.handler.http2.Http2ProtocolUpgradeHandler;
 import com.linkedin.r2.netty.handler.http2.UnsupportedHandler;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPromise;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpClientUpgradeHandler;
 import io.netty.handler.codec.http2.Http2ClientUpgradeCodec;
@@ -112,7 +112,7 @@ import javax.net.ssl.SSLParameters;
  * @author Sean Sheng
  * @author Nizar Mankulangara
  */
-class Http2ChannelInitializer extends ChannelInitializer<NioSocketChannel>
+class Http2ChannelInitializer extends ChannelInitializer<SocketChannel>
 {
   private static final long MAX_INITIAL_STREAM_WINDOW_SIZE = 8 * 1024 * 1024;
   private static final boolean IS_CLIENT = true;
@@ -142,7 +142,7 @@ class Http2ChannelInitializer extends ChannelInitializer<NioSocketChannel>
   }
 
   @Override
-  protected void initChannel(NioSocketChannel channel) throws SSLException
+  protected void initChannel(SocketChannel channel) throws SSLException
   {
     if (_ssl)
     {
@@ -157,7 +157,7 @@ class Http2ChannelInitializer extends ChannelInitializer<NioSocketChannel>
   /**
    * Configure the pipeline for TLS ALPN negotiation to HTTP/2.
    */
-  private void configureSsl(NioSocketChannel channel) throws SSLException
+  private void configureSsl(SocketChannel channel) throws SSLException
   {
     final SslContext sslCtx = createSslContext();
     final ChannelPromise alpnPromise = channel.newPromise();
@@ -195,7 +195,7 @@ class Http2ChannelInitializer extends ChannelInitializer<NioSocketChannel>
   /**
    * Configure the pipeline for HTTP/2 clear text.
    */
-  private void configureClearText(NioSocketChannel channel)
+  private void configureClearText(SocketChannel channel)
   {
     final HttpClientCodec sourceCodec = new HttpClientCodec(_maxInitialLineLength, _maxHeaderSize, _maxChunkSize);
 
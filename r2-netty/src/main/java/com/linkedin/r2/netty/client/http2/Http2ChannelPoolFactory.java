@@ -17,6 +17,7 @@
 package com.linkedin.r2.netty.client.http2;
 
 import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.r2.netty.common.NettyTransport;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.NoopRateLimiter;
@@ -29,7 +30,7 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import java.net.SocketAddress;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.net.ssl.SSLContext;
@@ -74,7 +75,7 @@ public class Http2ChannelPoolFactory implements ChannelPoolFactory
       int connectTimeout,
       int sslHandShakeTimeout)
   {
-    final ChannelInitializer<NioSocketChannel> initializer = new Http2ChannelInitializer(
+    final ChannelInitializer<SocketChannel> initializer = new Http2ChannelInitializer(
         sslContext, sslParameters, maxInitialLineLength, maxHeaderSize, maxChunkSize, maxContentLength,
         enableSSLSessionResumption, sslHandShakeTimeout);
 
@@ -90,7 +91,7 @@ public class Http2ChannelPoolFactory implements ChannelPoolFactory
 
     _bootstrap = new Bootstrap().
         group(eventLoopGroup).
-        channel(NioSocketChannel.class).
+        channel(NettyTransport.of(eventLoopGroup).getChannelClass()).
         option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout).
         handler(initializer);
     _ssl = sslContext != null && sslParameters != null;
@@ -0,0 +1,44 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.netty.common;
+
+import com.linkedin.data.ByteString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Conversions between {@link ByteString} and Netty {@link ByteBuf}.
+ */
+public class ByteStringUtil
+{
+  private ByteStringUtil()
+  {
+  }
+
+  /**
+   * Wraps the given {@link ByteString} into a {@link ByteBuf} without copying. A {@link ByteString} assembled from
+   * multiple chunks, e.g. the output of a codec, is exposed as a composite buffer rather than being flattened into a
+   * new array first. The returned buffer is not pooled, so releasing it never affects the {@link ByteString}.
+   *
+   * @param data the {@link ByteString} to wrap.
+   * @return a read only {@link ByteBuf} view of the data.
+   */
+  public static ByteBuf toByteBuf(ByteString data)
+  {
+    return Unpooled.wrappedBuffer(data.asByteBuffers());
+  }
+}
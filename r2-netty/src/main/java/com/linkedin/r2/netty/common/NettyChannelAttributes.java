@@ -16,6 +16,7 @@
 
 package com.linkedin.r2.netty.common;
 
+import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.message.stream.entitystream.EntityStream;
 import com.linkedin.r2.netty.entitystream.StreamWriter;
@@ -71,6 +72,12 @@ public interface NettyChannelAttributes
    */
   AttributeKey<TransportCallback<StreamResponse>> RESPONSE_CALLBACK = AttributeKey.newInstance("responseCallback");
 
+  /**
+   * Attribute for the {@link RequestContext} of the request in flight, in which the handlers record the timings of
+   * the transport phases of the request.
+   */
+  AttributeKey<RequestContext> REQUEST_CONTEXT = AttributeKey.newInstance("requestContext");
+
   /**
    * Attribute for the {@link SslSessionValidator}.
    */
@@ -17,12 +17,12 @@
 package com.linkedin.r2.netty.common;
 
 import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.Response;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.transport.http.common.HttpConstants;
 import com.linkedin.r2.transport.http.util.CookieUtil;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -65,7 +65,7 @@ public class NettyRequestAdapter
       path = "/";
     }
 
-    ByteBuf content = Unpooled.wrappedBuffer(request.getEntity().asByteBuffer());
+    ByteBuf content = ByteStringUtil.toByteBuf(request.getEntity());
     HttpRequest nettyRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, nettyMethod, path, content);
     nettyRequest.headers().set(HttpConstants.CONTENT_LENGTH, request.getEntity().length());
 
@@ -212,4 +212,33 @@ public class NettyRequestAdapter
 
     return headers;
   }
+
+  /**
+   * Extracts fields from a {@link Response} and construct a {@link Http2Headers} instance.
+   *
+   * @param response StreamResponse or RestResponse to extract fields from
+   * @return a new instance of Http2Headers
+   */
+  public static Http2Headers toHttp2Headers(Response response)
+  {
+    final Http2Headers headers = new DefaultHttp2Headers().status(Integer.toString(response.getStatus()));
+    for (Map.Entry<String, String> entry : response.getHeaders().entrySet())
+    {
+      // Ignores HTTP/2 blacklisted headers
+      if (HEADER_BLACKLIST.contains(entry.getKey().toLowerCase()))
+      {
+        continue;
+      }
+
+      headers.set(entry.getKey().toLowerCase(), entry.getValue());
+    }
+
+    // Each cookie needs its own set-cookie field, they cannot be folded into a single value
+    for (String cookie : response.getCookies())
+    {
+      headers.add(HttpHeaderNames.SET_COOKIE, cookie);
+    }
+
+    return headers;
+  }
 }
@@ -0,0 +1,110 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.netty.common;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The Netty transport used for the event loops and channels of R2 clients and servers.
+ *
+ * <p>{@link #EPOLL} uses the native Linux epoll transport, which is edge-triggered, makes fewer system calls and
+ * allows several acceptors to bind the same port with SO_REUSEPORT. It is only available on Linux with the native
+ * library, so callers should go through {@link #resolve(NettyTransport)} to fall back to {@link #NIO}.</p>
+ */
+public enum NettyTransport
+{
+  NIO,
+  EPOLL;
+
+  private static final Logger LOG = LoggerFactory.getLogger(NettyTransport.class);
+
+  /**
+   * @return true if this transport can be used on the current platform.
+   */
+  public boolean isAvailable()
+  {
+    return this == NIO || Epoll.isAvailable();
+  }
+
+  /**
+   * @return the requested transport if it is available, or {@link #NIO} otherwise.
+   */
+  public static NettyTransport resolve(NettyTransport requested)
+  {
+    if (requested == null)
+    {
+      return NIO;
+    }
+    if (requested.isAvailable())
+    {
+      return requested;
+    }
+    LOG.warn("Netty transport {} is not available, falling back to {}", requested, NIO, Epoll.unavailabilityCause());
+    return NIO;
+  }
+
+  /**
+   * @param threads number of event loops, or 0 for Netty's default.
+   * @param threadFactory factory of the event loop threads.
+   * @return a new event loop group of this transport.
+   */
+  public EventLoopGroup newEventLoopGroup(int threads, ThreadFactory threadFactory)
+  {
+    return this == EPOLL ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+  }
+
+  /**
+   * @return the server channel class of this transport.
+   */
+  public Class<? extends ServerSocketChannel> getServerChannelClass()
+  {
+    return this == EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  /**
+   * @return the client channel class of this transport.
+   */
+  public Class<? extends SocketChannel> getChannelClass()
+  {
+    return this == EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * Returns the transport of an event loop group, so that client channels can be created for any group, including
+   * groups provided by the application.
+   *
+   * @param eventLoopGroup the event loop group.
+   * @return {@link #EPOLL} for epoll event loop groups, and {@link #NIO} otherwise.
+   */
+  public static NettyTransport of(EventLoopGroup eventLoopGroup)
+  {
+    return eventLoopGroup instanceof EpollEventLoopGroup ? EPOLL : NIO;
+  }
+}
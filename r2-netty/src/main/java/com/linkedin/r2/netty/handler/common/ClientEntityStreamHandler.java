@@ -18,11 +18,15 @@ package com.linkedin.r2.netty.handler.common;
 
 import com.linkedin.common.callback.Callback;
 import com.linkedin.data.ByteString;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.message.stream.StreamResponseBuilder;
 import com.linkedin.r2.message.stream.entitystream.EntityStreams;
 import com.linkedin.r2.message.stream.entitystream.Writer;
+import com.linkedin.r2.message.timing.FrameworkTimingKeys;
+import com.linkedin.r2.message.timing.TimingContextUtil;
 import com.linkedin.r2.netty.common.NettyChannelAttributes;
 import com.linkedin.r2.netty.entitystream.StreamReader;
 import com.linkedin.r2.netty.entitystream.StreamWriter;
@@ -51,6 +55,10 @@ import java.util.function.Supplier;
  * upon receiving response headers, exception, or channel inactive events. Together with timeout
  * {@link ScheduledFuture}, the implementation can also guarantee the callback is invoked eventually.
  *
+ * The handler also records the transport phases of the request in its {@link RequestContext}, set as a channel
+ * attribute: the write of the request headers, the wait for the response headers, and the read of the response
+ * entity until its last chunk.
+ *
  * @author Sean Sheng
  * @author Nizar Mankulangara
  */
@@ -73,7 +81,14 @@ public class ClientEntityStreamHandler extends ChannelDuplexHandler
 
       // Sets reader after the headers have been flushed on the channel
       OrderedEntityStreamReader orderedReader = new OrderedEntityStreamReader(ctx, new StreamReader(ctx));
-      ctx.write(request).addListener(future -> request.getEntityStream().setReader(orderedReader));
+      ctx.write(request).addListener(future -> {
+        markRequestWritten(ctx);
+        request.getEntityStream().setReader(orderedReader);
+      });
+    }
+    else if (msg instanceof RestRequest)
+    {
+      ctx.write(msg).addListener(future -> markRequestWritten(ctx));
     }
     else
     {
@@ -97,6 +112,13 @@ public class ClientEntityStreamHandler extends ChannelDuplexHandler
 
       final StreamResponse response = builder.unsafeSetHeaders(headers).build(EntityStreams.newEntityStream(writer));
 
+      final RequestContext requestContext = ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).get();
+      if (requestContext != null)
+      {
+        TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_WAIT.key());
+        TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_READ.key());
+      }
+
       final TransportCallback<StreamResponse> callback = ctx.channel().attr(NettyChannelAttributes.RESPONSE_CALLBACK).getAndSet(null);
       if (callback != null)
       {
@@ -105,6 +127,15 @@ public class ClientEntityStreamHandler extends ChannelDuplexHandler
     }
     else if (msg instanceof ByteString)
     {
+      if (msg == StreamWriter.EOF)
+      {
+        // Before the writer completes the entity stream, which lets the user read the whole response
+        final RequestContext requestContext = ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).getAndSet(null);
+        if (requestContext != null)
+        {
+          TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_READ.key());
+        }
+      }
       final StreamWriter writer = msg == StreamWriter.EOF ?
           ctx.channel().attr(NettyChannelAttributes.RESPONSE_WRITER).getAndSet(null) :
           ctx.channel().attr(NettyChannelAttributes.RESPONSE_WRITER).get();
@@ -122,6 +153,7 @@ public class ClientEntityStreamHandler extends ChannelDuplexHandler
   @Override
   public void channelInactive(ChannelHandlerContext ctx)
   {
+    ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).set(null);
     tryInvokeCallbackWithError(ctx, ClosedChannelException::new);
     tryNotifyWriterWithError(ctx, ClosedChannelException::new);
     ctx.fireChannelInactive();
@@ -130,11 +162,26 @@ public class ClientEntityStreamHandler extends ChannelDuplexHandler
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
   {
+    ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).set(null);
     tryInvokeCallbackWithError(ctx, () -> cause);
     tryNotifyWriterWithError(ctx, () -> cause);
     ctx.fireExceptionCaught(cause);
   }
 
+  /**
+   * Ends the write of the request and starts waiting for the response, once the request headers, and the entity of
+   * full requests, have been written.
+   */
+  private static void markRequestWritten(ChannelHandlerContext ctx)
+  {
+    final RequestContext requestContext = ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).get();
+    if (requestContext != null)
+    {
+      TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_WRITE.key());
+      TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_WAIT.key());
+    }
+  }
+
   /**
    * Attempts to invoke {@link Callback} with the given {@link Throwable}. Callback can be invoked
    * at most once guaranteed by channel attributes #getAndSet(null).
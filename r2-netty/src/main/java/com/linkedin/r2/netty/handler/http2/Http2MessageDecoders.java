@@ -17,6 +17,8 @@
 package com.linkedin.r2.netty.handler.http2;
 
 import com.linkedin.data.ByteString;
+import com.linkedin.r2.message.rest.RestStatus;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
 import com.linkedin.r2.message.stream.StreamResponseBuilder;
 import com.linkedin.r2.netty.entitystream.StreamWriter;
 import com.linkedin.r2.transport.http.common.HttpConstants;
@@ -29,12 +31,14 @@ import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http2.Http2DataFrame;
 import io.netty.handler.codec.http2.Http2Headers;
 import io.netty.handler.codec.http2.Http2HeadersFrame;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Inbound {@link ChannelHandler} implementation that decodes {@link Http2HeadersFrame} and
- * {@link Http2DataFrame} into {@link StreamResponseBuilder} and {@link ByteString}.
+ * {@link Http2DataFrame} into {@link StreamResponseBuilder} or {@link StreamRequestBuilder}, and {@link ByteString}.
  *
  * @author Sean Sheng
  * @author Nizar Mankulangara
@@ -46,6 +50,11 @@ public class Http2MessageDecoders
     return new ResponseDecoder();
   }
 
+  public static RequestDecoder newRequestDecoder()
+  {
+    return new RequestDecoder();
+  }
+
   public static DataDecoder newDataDecoder()
   {
     return new DataDecoder();
@@ -133,6 +142,101 @@ public class Http2MessageDecoders
     }
   }
 
+  /**
+   * Decodes the headers frames of a single HTTP/2 stream, so an instance must not be shared between stream channels.
+   * The first headers frame is the request, the headers frames that follow carry trailers, which are not supported and
+   * ignored. A request missing the :method or :path pseudo-header is answered with 400 and not decoded.
+   */
+  public static class RequestDecoder extends MessageToMessageDecoder<Http2HeadersFrame>
+  {
+    private boolean _requestReceived = false;
+
+    private RequestDecoder()
+    {
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, Http2HeadersFrame frame, List<Object> out)
+    {
+      if (_requestReceived)
+      {
+        if (frame.isEndStream())
+        {
+          out.add(StreamWriter.EOF);
+        }
+        return;
+      }
+      _requestReceived = true;
+
+      final Http2Headers headers = frame.headers();
+
+      final URI uri = toRequestUri(headers);
+      if (uri == null || headers.method() == null)
+      {
+        // The request is not dispatched, the data frames that follow are dropped by the stream handler
+        ctx.writeAndFlush(RestStatus.responseForStatus(RestStatus.BAD_REQUEST,
+            "Malformed HTTP/2 request, :method=" + headers.method() + " :path=" + headers.path()));
+        return;
+      }
+
+      final StreamRequestBuilder builder = new StreamRequestBuilder(uri);
+      builder.setMethod(headers.method().toString());
+      if (headers.authority() != null)
+      {
+        builder.addHeaderValue(HttpHeaderNames.HOST.toString(), headers.authority().toString());
+      }
+
+      for (Map.Entry<CharSequence, CharSequence> header : headers)
+      {
+        if (Http2Headers.PseudoHeaderName.isPseudoHeader(header.getKey()))
+        {
+          // Do no set HTTP/2 pseudo headers to request
+          continue;
+        }
+
+        final String key = header.getKey().toString();
+        final String value = header.getValue().toString();
+
+        // Clients may split cookies into several cookie fields for better header compression
+        if (key.equalsIgnoreCase(HttpConstants.REQUEST_COOKIE_HEADER_NAME))
+        {
+          builder.addCookie(value);
+        }
+        else
+        {
+          builder.unsafeAddHeaderValue(key, value);
+        }
+      }
+
+      out.add(builder);
+      if (frame.isEndStream())
+      {
+        out.add(StreamWriter.EOF);
+      }
+    }
+
+    /**
+     * Like requests decoded from HTTP/1.1, the request URI only has the path and query.
+     *
+     * @return the request URI, or {@code null} if the :path pseudo-header is missing or is not a valid URI
+     */
+    private static URI toRequestUri(Http2Headers headers)
+    {
+      if (headers.path() == null)
+      {
+        return null;
+      }
+      try
+      {
+        return new URI(headers.path().toString());
+      }
+      catch (URISyntaxException e)
+      {
+        return null;
+      }
+    }
+  }
+
   @Sharable
   public static class DataDecoder extends MessageToMessageDecoder<Http2DataFrame>
   {
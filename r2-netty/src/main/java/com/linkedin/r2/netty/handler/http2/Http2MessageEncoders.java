@@ -18,7 +18,10 @@ package com.linkedin.r2.netty.handler.http2;
 
 import com.linkedin.data.ByteString;
 import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.netty.common.ByteStringUtil;
 import com.linkedin.r2.netty.common.NettyRequestAdapter;
 import com.linkedin.r2.netty.entitystream.StreamReader;
 
@@ -34,8 +37,8 @@ import io.netty.handler.codec.http2.Http2HeadersFrame;
 import java.util.List;
 
 /**
- * Outbound {@link ChannelHandler} implementations that encodes {@link StreamRequest} and request
- * entity in the form of {@link ByteString} into {@link Http2HeadersFrame} and {@link Http2DataFrame}.
+ * Outbound {@link ChannelHandler} implementations that encodes {@link StreamRequest} or {@link StreamResponse}
+ * and entity in the form of {@link ByteString} into {@link Http2HeadersFrame} and {@link Http2DataFrame}.
  *
  * @author Sean Sheng
  * @author Nizar Mankulangara
@@ -54,6 +57,16 @@ public final class Http2MessageEncoders
     return new RestRequestEncoder();
   }
 
+  public static StreamResponseEncoder newStreamResponseEncoder()
+  {
+    return new StreamResponseEncoder();
+  }
+
+  public static RestResponseEncoder newRestResponseEncoder()
+  {
+    return new RestResponseEncoder();
+  }
+
   public static DataEncoder newDataEncoder()
   {
     return new DataEncoder();
@@ -82,11 +95,39 @@ public final class Http2MessageEncoders
     protected void encode(ChannelHandlerContext ctx, RestRequest request, List<Object> out) throws Exception
     {
       out.add(new DefaultHttp2HeadersFrame(NettyRequestAdapter.toHttp2Headers(request)));
-      ByteBuf content = Unpooled.wrappedBuffer(request.getEntity().asByteBuffer());
+      ByteBuf content = ByteStringUtil.toByteBuf(request.getEntity());
       out.add(new DefaultHttp2DataFrame(content, true));
     }
   }
 
+  public static class StreamResponseEncoder extends MessageToMessageEncoder<StreamResponse>
+  {
+    private StreamResponseEncoder()
+    {
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, StreamResponse response, List<Object> out)
+    {
+      out.add(new DefaultHttp2HeadersFrame(NettyRequestAdapter.toHttp2Headers(response)));
+    }
+  }
+
+  public static class RestResponseEncoder extends MessageToMessageEncoder<RestResponse>
+  {
+    private RestResponseEncoder()
+    {
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, RestResponse response, List<Object> out)
+    {
+      out.add(new DefaultHttp2HeadersFrame(NettyRequestAdapter.toHttp2Headers(response)));
+      ByteBuf content = ByteStringUtil.toByteBuf(response.getEntity());
+      out.add(new DefaultHttp2DataFrame(content, END_OF_STREAM));
+    }
+  }
+
   public static class DataEncoder extends MessageToMessageEncoder<ByteString>
   {
     private DataEncoder()
@@ -102,7 +143,7 @@ public final class Http2MessageEncoders
       }
       else
       {
-        out.add(new DefaultHttp2DataFrame(Unpooled.wrappedBuffer(data.asByteBuffer())));
+        out.add(new DefaultHttp2DataFrame(ByteStringUtil.toByteBuf(data)));
       }
     }
   }
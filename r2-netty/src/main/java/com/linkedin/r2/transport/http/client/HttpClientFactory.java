@@ -23,6 +23,7 @@ import com.linkedin.common.callback.MultiCallback;
 import com.linkedin.common.util.None;
 import com.linkedin.r2.disruptor.DisruptFilter;
 import com.linkedin.r2.event.EventProviderRegistry;
+import com.linkedin.r2.filter.ClientTimingHistogramFilter;
 import com.linkedin.r2.filter.CompressionConfig;
 import com.linkedin.r2.filter.FilterChain;
 import com.linkedin.r2.filter.FilterChains;
@@ -38,6 +39,8 @@ import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.timing.ServiceTimingHistograms;
+import com.linkedin.r2.netty.common.NettyTransport;
 import com.linkedin.r2.transport.common.TransportClientFactory;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
@@ -57,6 +60,8 @@ import com.linkedin.r2.util.NamedThreadFactory;
 import com.linkedin.util.clock.SystemClock;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
+import java.net.URI;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -126,6 +131,15 @@ public class HttpClientFactory implements TransportClientFactory
   public static final String HTTP_POOL_STATS_NAME_PREFIX = "http.poolStatsNamePrefix";
   public static final String HTTP_POOL_STRATEGY = "http.poolStrategy";
   public static final String HTTP_POOL_MIN_SIZE = "http.poolMinSize";
+  public static final String HTTP_POOL_EVENT_LOOP_AFFINITY = "http.poolEventLoopAffinity";
+  public static final String HTTP_POOL_ADAPTIVE_SIZING = "http.poolAdaptiveSizing";
+  // Uses ConcurrentAsyncPoolImpl, which does not lock on checkouts and returns, as the HTTP/1.1 pool of each host.
+  // It does not support adaptive sizing nor request priorities.
+  public static final String HTTP_POOL_CONCURRENT = "http.poolConcurrent";
+  // Number of connections opened to each newly announced host before the first requests, see TransportClient#warmUp
+  public static final String HTTP_POOL_WARM_UP_SIZE = "http.poolWarmUpSize";
+  // Consolidates the flushes of HTTP/1.1 channels issued in the same event loop iteration into one system call
+  public static final String HTTP_WRITE_COALESCING = "http.writeCoalescing";
   public static final String HTTP_MAX_HEADER_SIZE = "http.maxHeaderSize";
   public static final String HTTP_MAX_CHUNK_SIZE = "http.maxChunkSize";
   public static final String HTTP_MAX_CONCURRENT_CONNECTIONS = "http.maxConcurrentConnections";
@@ -148,11 +162,18 @@ public class HttpClientFactory implements TransportClientFactory
   public static final String DEFAULT_POOL_STATS_NAME_PREFIX = "noSpecifiedNamePrefix";
   public static final AsyncPoolImpl.Strategy DEFAULT_POOL_STRATEGY = AsyncPoolImpl.Strategy.MRU;
   public static final int DEFAULT_POOL_MIN_SIZE = 0;
+  public static final boolean DEFAULT_POOL_EVENT_LOOP_AFFINITY = false;
+  public static final boolean DEFAULT_POOL_ADAPTIVE_SIZING = false;
+  public static final boolean DEFAULT_POOL_CONCURRENT = false;
+  public static final int DEFAULT_POOL_WARM_UP_SIZE = 0;
+  public static final boolean DEFAULT_WRITE_COALESCING = false;
   public static final int DEFAULT_MAX_HEADER_SIZE = 8 * 1024;
   public static final int DEFAULT_MAX_CHUNK_SIZE = 8 * 1024;
   public static final int DEFAULT_CONNECT_TIMEOUT = 30000;
   public static final int DEFAULT_SSL_HANDSHAKE_TIMEOUT = 10000;
   public static final int DEFAULT_CHANNELPOOL_WAITER_TIMEOUT = Integer.MAX_VALUE;
+  // Negative to keep the session cache size of the SSLContext
+  public static final int DEFAULT_SSL_SESSION_CACHE_SIZE = -1;
   public static final double DEFAULT_MAX_CLIENT_REQUEST_RETRY_RATIO = 0.2;
   public static final double UNLIMITED_CLIENT_REQUEST_RETRY_RATIO = 1.0;
   /**
@@ -197,6 +218,10 @@ public class HttpClientFactory implements TransportClientFactory
   private final int _connectTimeout;
   private final int _sslHandShakeTimeout;
   private final int _channelPoolWaiterTimeout;
+  /** Size of the TLS client session cache set on the SSLContexts of the clients, except the JVM default one. */
+  private final int _sslSessionCacheSize;
+  /** Histograms the timings of the requests of each service are recorded in, or null. */
+  private final ServiceTimingHistograms _serviceTimingHistograms;
   /** Request compression config for each http service. */
   private final Map<String, CompressionConfig> _requestCompressionConfigs;
   /** Response compression config for each http service. */
@@ -619,7 +644,7 @@ public class HttpClientFactory implements TransportClientFactory
         shutdownCallbackExecutor, jmxManager, requestCompressionThresholdDefault, requestCompressionConfigs,
         responseCompressionConfigs, compressionExecutor, defaultHttpVersion, shareConnection, eventProviderRegistry,
         enableSSLSessionResumption, usePipelineV2, executorsToShutDown, DEFAULT_CONNECT_TIMEOUT,
-        DEFAULT_SSL_HANDSHAKE_TIMEOUT, DEFAULT_CHANNELPOOL_WAITER_TIMEOUT);
+        DEFAULT_SSL_HANDSHAKE_TIMEOUT, DEFAULT_CHANNELPOOL_WAITER_TIMEOUT, DEFAULT_SSL_SESSION_CACHE_SIZE);
   }
 
   private HttpClientFactory(FilterChain filters,
@@ -642,7 +667,10 @@ public class HttpClientFactory implements TransportClientFactory
                             List<ExecutorService> executorsToShutDown,
                             int connectTimeout,
                             int sslHandShakeTimeout,
-                            int channelPoolWaiterTimeout)
+                            int channelPoolWaiterTimeout,
+                            int sslSessionCacheSize,
+                            ServiceTimingHistograms serviceTimingHistograms,
+                            AsyncPoolPriorityPolicy poolPriorityPolicy)
   {
     _filters = filters;
     _eventLoopGroup = eventLoopGroup;
@@ -658,6 +686,8 @@ public class HttpClientFactory implements TransportClientFactory
     _connectTimeout = connectTimeout;
     _sslHandShakeTimeout = sslHandShakeTimeout;
     _channelPoolWaiterTimeout = channelPoolWaiterTimeout;
+    _sslSessionCacheSize = sslSessionCacheSize;
+    _serviceTimingHistograms = serviceTimingHistograms;
     if (requestCompressionConfigs == null)
     {
       throw new IllegalArgumentException("requestCompressionConfigs should not be null.");
@@ -673,7 +703,7 @@ public class HttpClientFactory implements TransportClientFactory
     _defaultHttpVersion = defaultHttpVersion;
     _channelPoolManagerFactory = new ChannelPoolManagerFactoryImpl(
         _eventLoopGroup, _executor, enableSSLSessionResumption,_usePipelineV2, _channelPoolWaiterTimeout,
-        _connectTimeout, _sslHandShakeTimeout);
+        _connectTimeout, _sslHandShakeTimeout, poolPriorityPolicy);
 
     if (eventProviderRegistry != null)
     {
@@ -712,6 +742,10 @@ public class HttpClientFactory implements TransportClientFactory
     private int _connectTimeout = DEFAULT_CONNECT_TIMEOUT;
     private int _sslHandShakeTimeout = DEFAULT_SSL_HANDSHAKE_TIMEOUT;
     private int _channelPoolWaiterTimeout = DEFAULT_CHANNELPOOL_WAITER_TIMEOUT;
+    private int _sslSessionCacheSize = DEFAULT_SSL_SESSION_CACHE_SIZE;
+    private ServiceTimingHistograms _serviceTimingHistograms = null;
+    private AsyncPoolPriorityPolicy _poolPriorityPolicy = null;
+    private NettyTransport _transport = NettyTransport.NIO;
 
     /**
      * @param eventLoopGroup the {@link EventLoopGroup} that all Clients created by this
@@ -864,6 +898,47 @@ public class HttpClientFactory implements TransportClientFactory
       return this;
     }
 
+    /**
+     * Sets the size of the TLS session cache of the {@link SSLContext} passed for each client. The factory does not
+     * copy the context: the size is set on the client session context of the given {@code SSLContext} itself, so it
+     * applies to every other user of that context as well, including those outside of this factory. The JVM default
+     * context returned by {@link SSLContext#getDefault()} is shared by the whole process and is never resized; pass a
+     * dedicated context to bound its cache.
+     *
+     * @param sslSessionCacheSize maximum number of TLS sessions kept for resumption by the client session context of
+     *                            the {@link SSLContext} of each client, 0 for no limit. The context is shared by all
+     *                            the connection pools using it, so that a connection to a host resumes the session of
+     *                            any previous connection to that host. Negative to keep the size set on the context.
+     */
+    public Builder setSslSessionCacheSize(int sslSessionCacheSize)
+    {
+      _sslSessionCacheSize = sslSessionCacheSize;
+      return this;
+    }
+
+    /**
+     * @param serviceTimingHistograms histograms the timings of the requests are recorded in, by the name of the
+     *                                service set with {@link #HTTP_SERVICE_NAME} in the client properties, once their
+     *                                response is back. The timings include the transport phases of the requests,
+     *                                see {@link com.linkedin.r2.message.timing.FrameworkTimingKeys}.
+     */
+    public Builder setServiceTimingHistograms(ServiceTimingHistograms serviceTimingHistograms)
+    {
+      _serviceTimingHistograms = serviceTimingHistograms;
+      return this;
+    }
+
+    /**
+     * @param poolPriorityPolicy limits on the requests of each {@link com.linkedin.r2.message.RequestPriority}
+     *                           applied by the HTTP/1.1 connection pools, see {@link AsyncPoolPriorityPolicy}. The
+     *                           pools serve the requests waiting for a connection by priority with or without it.
+     */
+    public Builder setPoolPriorityPolicy(AsyncPoolPriorityPolicy poolPriorityPolicy)
+    {
+      _poolPriorityPolicy = poolPriorityPolicy;
+      return this;
+    }
+
     public Builder setConnectTimeout(int connectTimeout)
     {
       _connectTimeout = connectTimeout;
@@ -894,6 +969,16 @@ public class HttpClientFactory implements TransportClientFactory
       return this;
     }
 
+    /**
+     * @param transport the Netty transport of the event loop group created by the factory when none is set with
+     *                  {@link #setEventLoopGroup}. Falls back to {@link NettyTransport#NIO} if it is not available.
+     */
+    public Builder setTransport(NettyTransport transport)
+    {
+      _transport = transport;
+      return this;
+    }
+
     public HttpClientFactory build()
     {
       List<ExecutorService> executorsToShutDown = new ArrayList<>();
@@ -901,7 +986,9 @@ public class HttpClientFactory implements TransportClientFactory
       EventLoopGroup eventLoopGroup = _eventLoopGroup;
       if (eventLoopGroup == null)
       {
-        eventLoopGroup = new NioEventLoopGroup(0 /* use default settings */, new NamedThreadFactory("R2 Nio Event Loop"));
+        NettyTransport transport = NettyTransport.resolve(_transport);
+        eventLoopGroup = transport.newEventLoopGroup(0 /* use default settings */, new NamedThreadFactory(
+            transport == NettyTransport.EPOLL ? "R2 Epoll Event Loop" : "R2 Nio Event Loop"));
       }
 
       ScheduledExecutorService scheduledExecutorService = _executor;
@@ -943,7 +1030,8 @@ public class HttpClientFactory implements TransportClientFactory
         _shutdownExecutor, callbackExecutorGroup, _shutdownCallbackExecutor, _jmxManager,
         _requestCompressionThresholdDefault, _requestCompressionConfigs, _responseCompressionConfigs,
         compressionExecutor, _defaultHttpVersion, _shareConnection, eventProviderRegistry, _enableSSLSessionResumption,
-          _usePipelineV2, executorsToShutDown, _connectTimeout, _sslHandShakeTimeout, _channelPoolWaiterTimeout);
+          _usePipelineV2, executorsToShutDown, _connectTimeout, _sslHandShakeTimeout, _channelPoolWaiterTimeout,
+          _sslSessionCacheSize, _serviceTimingHistograms, _poolPriorityPolicy);
     }
 
   }
@@ -1115,6 +1203,14 @@ public class HttpClientFactory implements TransportClientFactory
     filters = filters.addLastRest(clientQueryTunnelFilter);
     filters = filters.addLast(clientQueryTunnelFilter);
 
+    String serviceName = (String) properties.get(HTTP_SERVICE_NAME);
+    if (_serviceTimingHistograms != null && serviceName != null)
+    {
+      ClientTimingHistogramFilter timingHistogramFilter = new ClientTimingHistogramFilter(_serviceTimingHistograms, serviceName);
+      filters = filters.addLastRest(timingHistogramFilter);
+      filters = filters.addLast(timingHistogramFilter);
+    }
+
     // Add the disruptor filter to the end of the filter chain to get the most accurate simulation of disrupt
     Integer requestTimeout = chooseNewOverDefault(getIntValue(properties, HTTP_REQUEST_TIMEOUT), DEFAULT_REQUEST_TIMEOUT);
     DisruptFilter disruptFilter = new DisruptFilter(_executor, _eventLoopGroup, requestTimeout, SystemClock.instance());
@@ -1348,6 +1444,15 @@ public class HttpClientFactory implements TransportClientFactory
     Integer maxConcurrentConnectionInitializations = chooseNewOverDefault(getIntValue(properties, HTTP_MAX_CONCURRENT_CONNECTIONS), DEFAULT_MAX_CONCURRENT_CONNECTIONS);
     AsyncPoolImpl.Strategy strategy = chooseNewOverDefault(getStrategy(properties), DEFAULT_POOL_STRATEGY);
     Integer gracefulShutdownTimeout = chooseNewOverDefault(getIntValue(properties, HTTP_GRACEFUL_SHUTDOWN_TIMEOUT), DEFAULT_GRACEFUL_SHUTDOWN_TIMEOUT);
+    Boolean eventLoopAffinity = chooseNewOverDefault(getBooleanValue(properties, HTTP_POOL_EVENT_LOOP_AFFINITY), DEFAULT_POOL_EVENT_LOOP_AFFINITY);
+    Boolean adaptivePoolSizing = chooseNewOverDefault(getBooleanValue(properties, HTTP_POOL_ADAPTIVE_SIZING), DEFAULT_POOL_ADAPTIVE_SIZING);
+    Boolean writeCoalescing = chooseNewOverDefault(getBooleanValue(properties, HTTP_WRITE_COALESCING), DEFAULT_WRITE_COALESCING);
+    Boolean concurrentPool = chooseNewOverDefault(getBooleanValue(properties, HTTP_POOL_CONCURRENT), DEFAULT_POOL_CONCURRENT);
+    if (concurrentPool && adaptivePoolSizing)
+    {
+      LOG.warn("{} is not supported by the pools enabled by {}, the pools keep their configured sizes",
+          HTTP_POOL_ADAPTIVE_SIZING, HTTP_POOL_CONCURRENT);
+    }
 
     return new ChannelPoolManagerKeyBuilder()
       .setMaxPoolSize(maxPoolSize).setGracefulShutdownTimeout(gracefulShutdownTimeout).setIdleTimeout(idleTimeout)
@@ -1355,13 +1460,38 @@ public class HttpClientFactory implements TransportClientFactory
       .setPoolWaiterSize(poolWaiterSize).setSSLParameters(sslParameters).setStrategy(strategy).setMinPoolSize(poolMinSize)
       .setMaxHeaderSize(maxHeaderSize).setMaxChunkSize(maxChunkSize)
       .setMaxConcurrentConnectionInitializations(maxConcurrentConnectionInitializations)
-      .setTcpNoDelay(tcpNoDelay).setPoolStatsNamePrefix(poolStatsNamePrefix).build();
+      .setTcpNoDelay(tcpNoDelay).setPoolStatsNamePrefix(poolStatsNamePrefix).setEventLoopAffinity(eventLoopAffinity)
+      .setAdaptivePoolSizing(adaptivePoolSizing).setWriteCoalescing(writeCoalescing).setConcurrentPool(concurrentPool)
+      .build();
+  }
+
+  private static boolean isDefaultSslContext(SSLContext sslContext)
+  {
+    try
+    {
+      return sslContext == SSLContext.getDefault();
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      return false;
+    }
   }
 
   TransportClient getRawClient(Map<String, ? extends Object> properties,
                                SSLContext sslContext,
                                SSLParameters sslParameters)
   {
+    if (sslContext != null && _sslSessionCacheSize >= 0)
+    {
+      if (isDefaultSslContext(sslContext))
+      {
+        LOG.warn("Not resizing the TLS session cache of the JVM default SSLContext, which the whole process shares");
+      }
+      else
+      {
+        sslContext.getClientSessionContext().setSessionCacheSize(_sslSessionCacheSize);
+      }
+    }
 
     // key which identifies and contains the set of transport properties to create a channel pool manager
     ChannelPoolManagerKey key = createChannelPoolManagerKey(properties, null, null);
@@ -1635,6 +1765,12 @@ public class HttpClientFactory implements TransportClientFactory
       _client.streamRequest(request, requestContext, wireAttrs, callback);
     }
 
+    @Override
+    public void warmUp(URI uri, int connections, Callback<None> callback)
+    {
+      _client.warmUp(uri, connections, callback);
+    }
+
     @Override
     public void shutdown(final Callback<None> callback)
     {
@@ -1712,6 +1848,17 @@ public class HttpClientFactory implements TransportClientFactory
       _streamClient.streamRequest(request, requestContext, wireAttrs, callback);
     }
 
+    /**
+     * Warms up the pools of both clients, since either may serve rest requests depending on rest-over-stream.
+     */
+    @Override
+    public void warmUp(URI uri, int connections, Callback<None> callback)
+    {
+      Callback<None> multiCallback = new MultiCallback(callback, 2);
+      _legacyClient.warmUp(uri, connections, multiCallback);
+      _streamClient.warmUp(uri, connections, multiCallback);
+    }
+
     @Override
     public void shutdown(final Callback<None> callback)
     {
@@ -46,6 +46,7 @@ import com.linkedin.r2.transport.http.common.HttpBridge;
 import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import java.net.SocketAddress;
+import java.net.URI;
 import java.net.UnknownHostException;
 import java.util.Map;
 import java.util.Set;
@@ -243,6 +244,30 @@ public abstract class AbstractNettyClient<Req extends Request, Res extends Respo
     return isSslRequest(request) ? _sslChannelPoolManager : _channelPoolManager;
   }
 
+  @Override
+  public void warmUp(URI uri, int connections, Callback<None> callback)
+  {
+    NettyClientState state = _state.get();
+    if (state != NettyClientState.RUNNING)
+    {
+      callback.onError(new IllegalStateException("Client is " + state));
+      return;
+    }
+
+    final SocketAddress address;
+    try
+    {
+      address = HttpNettyClient.resolveAddress(uri, new RequestContext());
+    }
+    catch (UnknownHostException | UnknownSchemeException e)
+    {
+      callback.onError(e);
+      return;
+    }
+
+    ChannelPoolManager channelPoolManager = "https".equals(uri.getScheme()) ? _sslChannelPoolManager : _channelPoolManager;
+    channelPoolManager.warmUp(address, connections, callback);
+  }
 
   @Override
   public final void shutdown(final Callback<None> callback) {
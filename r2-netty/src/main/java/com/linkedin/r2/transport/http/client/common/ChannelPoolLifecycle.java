@@ -22,6 +22,9 @@ package com.linkedin.r2.transport.http.client.common;
 
 import com.linkedin.common.callback.Callback;
 import com.linkedin.r2.RetriableRequestException;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.timing.FrameworkTimingKeys;
+import com.linkedin.r2.message.timing.TimingContextUtil;
 import com.linkedin.r2.netty.common.SslHandlerUtil;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolLifecycleStats;
@@ -55,6 +58,11 @@ public class ChannelPoolLifecycle implements AsyncPool.Lifecycle<Channel>
 
   public static final AttributeKey<Long> CHANNEL_CREATION_TIME_KEY = AttributeKey.valueOf("channelCreationTime");
 
+  /**
+   * Nanoseconds it took to connect the channel, until the first request served by the channel records it.
+   */
+  public static final AttributeKey<Long> CONNECT_DURATION_KEY = AttributeKey.valueOf("connectDuration");
+
   /**
    * Maximum period in ms between retries for creating a channel in back-off policies
    */
@@ -91,6 +99,7 @@ public class ChannelPoolLifecycle implements AsyncPool.Lifecycle<Channel>
   @Override
   public void create(final Callback<Channel> channelCallback)
   {
+    final long connectStartTime = System.nanoTime();
     _bootstrap.connect(_remoteAddress).addListener((ChannelFutureListener) channelFuture -> {
       if (!channelFuture.isSuccess())
       {
@@ -100,6 +109,7 @@ public class ChannelPoolLifecycle implements AsyncPool.Lifecycle<Channel>
 
       Channel c = channelFuture.channel();
       c.attr(CHANNEL_CREATION_TIME_KEY).set(_clock.currentTimeMillis());
+      c.attr(CONNECT_DURATION_KEY).set(System.nanoTime() - connectStartTime);
 
       if (_tcpNoDelay)
       {
@@ -134,6 +144,19 @@ public class ChannelPoolLifecycle implements AsyncPool.Lifecycle<Channel>
     });
   }
 
+  /**
+   * Records the time it took to connect the channel as {@link FrameworkTimingKeys#CLIENT_REQUEST_R2_CONNECT}, if the
+   * request is the first one served by the channel, which was then connected for it.
+   */
+  public static void markConnectTiming(Channel channel, RequestContext requestContext)
+  {
+    Long duration = channel.attr(CONNECT_DURATION_KEY).getAndSet(null);
+    if (duration != null)
+    {
+      TimingContextUtil.markTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_CONNECT.key(), duration);
+    }
+  }
+
   private void onError(Callback<Channel> channelCallback, Throwable cause)
   {
     LOG.warn("Failed to create channel, remote={}", _remoteAddress, cause);
@@ -20,6 +20,7 @@ import com.linkedin.common.callback.Callback;
 import com.linkedin.common.util.None;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolStats;
+import com.linkedin.r2.transport.http.client.AsyncPoolWarmUp;
 import com.linkedin.r2.transport.http.client.PoolStats;
 import com.linkedin.r2.transport.http.client.PoolStatsProvider;
 import io.netty.channel.Channel;
@@ -43,6 +44,30 @@ public interface ChannelPoolManager extends PoolStatsProvider
 
   AsyncPool<Channel> getPoolForAddress(SocketAddress address) throws IllegalStateException;
 
+  /**
+   * Opens channels to the given address ahead of the first requests to it, until its pool holds the given number of
+   * channels or its maximum size. A few channels are opened at once, see {@link AsyncPoolWarmUp}, and each can serve
+   * requests as soon as it is open.
+   *
+   * @param address address of the host to connect to
+   * @param channels number of channels to open
+   * @param callback invoked once the channels are open, or with the first error
+   */
+  default void warmUp(SocketAddress address, int channels, Callback<None> callback)
+  {
+    final AsyncPool<Channel> pool;
+    try
+    {
+      pool = getPoolForAddress(address);
+    }
+    catch (IllegalStateException e)
+    {
+      callback.onError(e);
+      return;
+    }
+    AsyncPoolWarmUp.warmUp(pool, channels, callback);
+  }
+
   /**
    * Get statistics from each pool. The map keys represent pool names.
    * The values are the corresponding {@link AsyncPoolStats} objects.
@@ -20,6 +20,7 @@ import com.linkedin.common.callback.Callback;
 import com.linkedin.common.util.None;
 import com.linkedin.r2.netty.client.http.HttpChannelPoolFactory;
 import com.linkedin.r2.netty.client.http2.Http2ChannelPoolFactory;
+import com.linkedin.r2.transport.http.client.AsyncPoolPriorityPolicy;
 import com.linkedin.r2.transport.http.client.rest.HttpNettyChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.stream.http.HttpNettyStreamChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamChannelPoolFactory;
@@ -56,6 +57,7 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
   private final int _channelPoolWaiterTimeout;
   private final int _connectTimeout;
   private final int _sslHandShakeTimeout;
+  private final AsyncPoolPriorityPolicy _priorityPolicy;
 
   /**
    * @param eventLoopGroup The EventLoopGroup; it is the caller's responsibility to shut
@@ -68,6 +70,18 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
   public ChannelPoolManagerFactoryImpl(EventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler,
       boolean enableSSLSessionResumption, boolean usePipelineV2, int channelPoolWaiterTimeout,
       int connectTimeout, int sslHandShakeTimeout)
+  {
+    this(eventLoopGroup, scheduler, enableSSLSessionResumption, usePipelineV2, channelPoolWaiterTimeout, connectTimeout,
+        sslHandShakeTimeout, null);
+  }
+
+  /**
+   * @param priorityPolicy limits on the requests of each priority applied by the HTTP/1.1 channel pools, or null
+   *                       for none. The pools serve waiters by priority either way.
+   */
+  public ChannelPoolManagerFactoryImpl(EventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler,
+      boolean enableSSLSessionResumption, boolean usePipelineV2, int channelPoolWaiterTimeout,
+      int connectTimeout, int sslHandShakeTimeout, AsyncPoolPriorityPolicy priorityPolicy)
   {
     _eventLoopGroup = eventLoopGroup;
     _scheduler = scheduler;
@@ -76,6 +90,7 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
     _channelPoolWaiterTimeout = channelPoolWaiterTimeout;
     _connectTimeout = connectTimeout;
     _sslHandShakeTimeout = sslHandShakeTimeout;
+    _priorityPolicy = priorityPolicy;
   }
 
   @Override
@@ -111,7 +126,12 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
         channelGroup,
         _channelPoolWaiterTimeout,
         _connectTimeout,
-        _sslHandShakeTimeout),
+        _sslHandShakeTimeout,
+        channelPoolManagerKey.isEventLoopAffinity(),
+        channelPoolManagerKey.isAdaptivePoolSizing(),
+        channelPoolManagerKey.isWriteCoalescing(),
+        channelPoolManagerKey.isConcurrentPool(),
+        _priorityPolicy),
       channelPoolManagerKey.getName(),
       channelGroup,
       _scheduler);
@@ -144,7 +164,12 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
           _enableSSLSessionResumption,
           _channelPoolWaiterTimeout,
           _connectTimeout,
-          _sslHandShakeTimeout);
+          _sslHandShakeTimeout,
+          channelPoolManagerKey.isEventLoopAffinity(),
+          channelPoolManagerKey.isAdaptivePoolSizing(),
+          channelPoolManagerKey.isWriteCoalescing(),
+          channelPoolManagerKey.isConcurrentPool(),
+          _priorityPolicy);
     }
     else
     {
@@ -167,7 +192,12 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
           channelGroup,
           _channelPoolWaiterTimeout,
           _connectTimeout,
-          _sslHandShakeTimeout);
+          _sslHandShakeTimeout,
+          channelPoolManagerKey.isEventLoopAffinity(),
+          channelPoolManagerKey.isAdaptivePoolSizing(),
+          channelPoolManagerKey.isWriteCoalescing(),
+          channelPoolManagerKey.isConcurrentPool(),
+          _priorityPolicy);
     }
     return new ChannelPoolManagerImpl(
         channelPoolFactory,
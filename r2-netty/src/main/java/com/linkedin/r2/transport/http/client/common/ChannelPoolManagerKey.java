@@ -45,12 +45,28 @@ public class ChannelPoolManagerKey
   private final AsyncPoolImpl.Strategy _strategy;
   private final boolean _tcpNoDelay;
   private final String _poolStatsNamePrefix;
+  private final boolean _eventLoopAffinity;
+  private final boolean _adaptivePoolSizing;
+  private final boolean _writeCoalescing;
+  private final boolean _concurrentPool;
 
   public ChannelPoolManagerKey(SSLContext sslContext, SSLParameters sslParameters, int gracefulShutdownTimeout,
                                long idleTimeout, long sslIdleTimeout, int maxHeaderSize, int maxChunkSize,
                                long maxResponseSize, int maxPoolSize, int minPoolSize,
                                int maxConcurrentConnectionInitializations, int poolWaiterSize, AsyncPoolImpl.Strategy strategy,
                                boolean tcpNoDelay, String poolStatsNamePrefix)
+  {
+    this(sslContext, sslParameters, gracefulShutdownTimeout, idleTimeout, sslIdleTimeout, maxHeaderSize, maxChunkSize,
+        maxResponseSize, maxPoolSize, minPoolSize, maxConcurrentConnectionInitializations, poolWaiterSize, strategy,
+        tcpNoDelay, poolStatsNamePrefix, false, false, false, false);
+  }
+
+  public ChannelPoolManagerKey(SSLContext sslContext, SSLParameters sslParameters, int gracefulShutdownTimeout,
+                               long idleTimeout, long sslIdleTimeout, int maxHeaderSize, int maxChunkSize,
+                               long maxResponseSize, int maxPoolSize, int minPoolSize,
+                               int maxConcurrentConnectionInitializations, int poolWaiterSize, AsyncPoolImpl.Strategy strategy,
+                               boolean tcpNoDelay, String poolStatsNamePrefix, boolean eventLoopAffinity,
+                               boolean adaptivePoolSizing, boolean writeCoalescing, boolean concurrentPool)
   {
     _sslContext = sslContext;
     _sslParameters = sslParameters;
@@ -67,6 +83,10 @@ public class ChannelPoolManagerKey
     _strategy = strategy;
     _tcpNoDelay = tcpNoDelay;
     _poolStatsNamePrefix = poolStatsNamePrefix;
+    _eventLoopAffinity = eventLoopAffinity;
+    _adaptivePoolSizing = adaptivePoolSizing;
+    _writeCoalescing = writeCoalescing;
+    _concurrentPool = concurrentPool;
   }
 
   /**
@@ -106,6 +126,23 @@ public class ChannelPoolManagerKey
     result = 31 * result + (_tcpNoDelay ? 1 : 0);
     result = 31 * result + (isSsl() ? 1 : 0);
     result = 31 * result + (_poolStatsNamePrefix != null ? _poolStatsNamePrefix.hashCode() : 0);
+    // Only mixed in when enabled, so that the names of existing pools do not change
+    if (_eventLoopAffinity)
+    {
+      result = 31 * result + 1;
+    }
+    if (_adaptivePoolSizing)
+    {
+      result = 31 * result + 2;
+    }
+    if (_writeCoalescing)
+    {
+      result = 31 * result + 3;
+    }
+    if (_concurrentPool)
+    {
+      result = 31 * result + 4;
+    }
     return result;
   }
 
@@ -182,6 +219,41 @@ public class ChannelPoolManagerKey
     return _poolStatsNamePrefix;
   }
 
+  /**
+   * @return true if the pool of each host is partitioned by event loop, see {@link EventLoopAffineChannelPool}.
+   */
+  public boolean isEventLoopAffinity()
+  {
+    return _eventLoopAffinity;
+  }
+
+  /**
+   * @return true if the HTTP/1.1 pool of each host adapts its size to the load, see
+   *         {@link com.linkedin.r2.transport.http.client.AdaptivePoolSizer}.
+   */
+  public boolean isAdaptivePoolSizing()
+  {
+    return _adaptivePoolSizing;
+  }
+
+  /**
+   * @return true if the HTTP/1.1 channels consolidate the flushes issued in the same event loop iteration, see
+   *         {@link io.netty.handler.flush.FlushConsolidationHandler}.
+   */
+  public boolean isWriteCoalescing()
+  {
+    return _writeCoalescing;
+  }
+
+  /**
+   * @return true if the HTTP/1.1 pool of each host is a
+   *         {@link com.linkedin.r2.transport.http.client.ConcurrentAsyncPoolImpl}.
+   */
+  public boolean isConcurrentPool()
+  {
+    return _concurrentPool;
+  }
+
   @Override
   public boolean equals(Object o)
   {
@@ -200,6 +272,10 @@ public class ChannelPoolManagerKey
     if (_maxConcurrentConnectionInitializations != that._maxConcurrentConnectionInitializations) return false;
     if (_poolWaiterSize != that._poolWaiterSize) return false;
     if (_tcpNoDelay != that._tcpNoDelay) return false;
+    if (_eventLoopAffinity != that._eventLoopAffinity) return false;
+    if (_adaptivePoolSizing != that._adaptivePoolSizing) return false;
+    if (_writeCoalescing != that._writeCoalescing) return false;
+    if (_concurrentPool != that._concurrentPool) return false;
     if (isSsl() != that.isSsl()) return false;
     if (_strategy != that._strategy) return false;
     return _poolStatsNamePrefix != null ? _poolStatsNamePrefix.equals(that._poolStatsNamePrefix) : that._poolStatsNamePrefix == null;
@@ -46,6 +46,10 @@ public class ChannelPoolManagerKeyBuilder
   private AsyncPoolImpl.Strategy _strategy = HttpClientFactory.DEFAULT_POOL_STRATEGY;
   private boolean _tcpNoDelay = HttpClientFactory.DEFAULT_TCP_NO_DELAY;
   private String _poolStatsNamePrefix = HttpClientFactory.DEFAULT_POOL_STATS_NAME_PREFIX;
+  private boolean _eventLoopAffinity = HttpClientFactory.DEFAULT_POOL_EVENT_LOOP_AFFINITY;
+  private boolean _adaptivePoolSizing = HttpClientFactory.DEFAULT_POOL_ADAPTIVE_SIZING;
+  private boolean _writeCoalescing = HttpClientFactory.DEFAULT_WRITE_COALESCING;
+  private boolean _concurrentPool = HttpClientFactory.DEFAULT_POOL_CONCURRENT;
 
   /**
    * @param sslContext {@link SSLContext}
@@ -199,10 +203,51 @@ public class ChannelPoolManagerKeyBuilder
     return this;
   }
 
+  /**
+   * @param eventLoopAffinity partition the HTTP/1.1 pool of each host by event loop, so that requests issued on an
+   *                          event loop prefer channels registered on the same loop
+   */
+  public ChannelPoolManagerKeyBuilder setEventLoopAffinity(boolean eventLoopAffinity)
+  {
+    _eventLoopAffinity = eventLoopAffinity;
+    return this;
+  }
+
+  /**
+   * @param adaptivePoolSizing let the HTTP/1.1 pool of each host grow and shrink with the load between the minimum
+   *                           and maximum pool sizes
+   */
+  public ChannelPoolManagerKeyBuilder setAdaptivePoolSizing(boolean adaptivePoolSizing)
+  {
+    _adaptivePoolSizing = adaptivePoolSizing;
+    return this;
+  }
+
+  /**
+   * @param writeCoalescing let the HTTP/1.1 channels send the writes flushed in the same event loop iteration with
+   *                        a single flush, fewer system calls and fewer packets
+   */
+  public ChannelPoolManagerKeyBuilder setWriteCoalescing(boolean writeCoalescing)
+  {
+    _writeCoalescing = writeCoalescing;
+    return this;
+  }
+
+  /**
+   * @param concurrentPool use a {@link com.linkedin.r2.transport.http.client.ConcurrentAsyncPoolImpl} as the HTTP/1.1
+   *                       pool of each host, which does not serialize checkouts and returns on a single lock
+   */
+  public ChannelPoolManagerKeyBuilder setConcurrentPool(boolean concurrentPool)
+  {
+    _concurrentPool = concurrentPool;
+    return this;
+  }
+
   public ChannelPoolManagerKey build()
   {
     return new ChannelPoolManagerKey(_sslContext, _sslParameters, _gracefulShutdownTimeout, _idleTimeout, _sslIdleTimeout,
       _maxHeaderSize, _maxChunkSize, _maxResponseSize, _maxPoolSize, _minPoolSize, _maxConcurrentConnectionInitializations,
-      _poolWaiterSize, _strategy, _tcpNoDelay, _poolStatsNamePrefix);
+      _poolWaiterSize, _strategy, _tcpNoDelay, _poolStatsNamePrefix, _eventLoopAffinity,
+      _adaptivePoolSizing, _writeCoalescing, _concurrentPool);
   }
 }
@@ -0,0 +1,382 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client.common;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.MultiCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.message.RequestPriority;
+import com.linkedin.r2.transport.http.client.AsyncPool;
+import com.linkedin.r2.transport.http.client.AsyncPoolLifecycleStats;
+import com.linkedin.r2.transport.http.client.AsyncPoolStats;
+import com.linkedin.r2.transport.http.client.PoolStats;
+import com.linkedin.r2.util.Cancellable;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * An {@link AsyncPool} of {@link Channel}s to one host that is partitioned by {@link EventLoop}. Each partition is
+ * a pool of channels registered on one event loop of the group. The maximum and minimum pool sizes, the maximum
+ * number of waiters and the maximum number of concurrent connection initializations are split between the partitions
+ * so that their sum is the configured value: partitions get an equal share, rounded down, and the first ones one more
+ * until the remainder is used up. There are no more partitions than the maximum pool size or the maximum number of
+ * concurrent connection initializations, so that every partition can connect, and event loops without a partition
+ * borrow channels from the others.
+ *
+ * <p>A request issued on an event loop of the group gets a channel of that loop, so that its writes and reads do not
+ * hop between threads. It only falls back to the partition of another loop when every channel of its own partition
+ * is checked out and another partition still has room. Requests issued on other threads are spread over the
+ * partitions in turn, with the same fallback. Channels are returned to the partition of their event loop.</p>
+ */
+public class EventLoopAffineChannelPool implements AsyncPool<Channel>
+{
+  /**
+   * Creates the pool of one partition.
+   */
+  public interface PartitionFactory
+  {
+    /**
+     * @param eventLoop event loop that every channel of the partition must be registered on.
+     * @param maxSize maximum number of channels of the partition.
+     * @param minSize minimum number of channels of the partition.
+     * @param maxWaiters maximum number of waiters of the partition.
+     * @param maxConcurrentConnectionInitializations maximum number of channels the partition connects at once.
+     * @return a new pool of channels registered on the event loop.
+     */
+    AsyncPool<Channel> create(EventLoop eventLoop, int maxSize, int minSize, int maxWaiters,
+        int maxConcurrentConnectionInitializations);
+  }
+
+  private final String _name;
+  private final Partition[] _partitions;
+  // Read only once constructed
+  private final Map<EventLoop, Partition> _partitionsByEventLoop = new IdentityHashMap<>();
+  private final AtomicInteger _next = new AtomicInteger();
+
+  /**
+   * @param name pool name, used in logs and statistics.
+   * @param eventLoopGroup the group whose event loops the channels are registered on, at most one partition per loop.
+   * @param maxSize maximum number of channels of the whole pool.
+   * @param minSize minimum number of channels of the whole pool.
+   * @param maxWaiters maximum number of waiters of the whole pool.
+   * @param maxConcurrentConnectionInitializations maximum number of channels the whole pool connects at once.
+   * @param partitionFactory creates the pool of each partition.
+   */
+  public EventLoopAffineChannelPool(String name, EventLoopGroup eventLoopGroup, int maxSize, int minSize,
+      int maxWaiters, int maxConcurrentConnectionInitializations, PartitionFactory partitionFactory)
+  {
+    List<EventLoop> eventLoops = new ArrayList<>();
+    for (EventExecutor executor : eventLoopGroup)
+    {
+      eventLoops.add((EventLoop) executor);
+    }
+    if (eventLoops.isEmpty())
+    {
+      throw new IllegalArgumentException("eventLoopGroup has no event loop");
+    }
+
+    _name = name;
+    _partitions = new Partition[Math.max(1,
+        Math.min(eventLoops.size(), Math.min(maxSize, maxConcurrentConnectionInitializations)))];
+    for (int i = 0; i < _partitions.length; i++)
+    {
+      EventLoop eventLoop = eventLoops.get(i);
+      int partitionMaxSize = share(maxSize, i);
+      int partitionMaxWaiters = share(maxWaiters, i);
+      AsyncPool<Channel> pool = partitionFactory.create(eventLoop, partitionMaxSize, share(minSize, i),
+          partitionMaxWaiters, share(maxConcurrentConnectionInitializations, i));
+      Partition partition = new Partition(i, pool, partitionMaxSize, partitionMaxWaiters);
+      _partitions[i] = partition;
+      _partitionsByEventLoop.put(eventLoop, partition);
+    }
+  }
+
+  @Override
+  public String getName()
+  {
+    return _name;
+  }
+
+  @Override
+  public void start()
+  {
+    for (Partition partition : _partitions)
+    {
+      partition._pool.start();
+    }
+  }
+
+  @Override
+  public void shutdown(Callback<None> callback)
+  {
+    Callback<None> multiCallback = new MultiCallback(callback, _partitions.length);
+    for (Partition partition : _partitions)
+    {
+      partition._pool.shutdown(multiCallback);
+    }
+  }
+
+  @Override
+  public Collection<Callback<Channel>> cancelWaiters()
+  {
+    List<Callback<Channel>> cancelled = new ArrayList<>();
+    for (Partition partition : _partitions)
+    {
+      cancelled.addAll(partition._pool.cancelWaiters());
+    }
+    return cancelled;
+  }
+
+  @Override
+  public Cancellable get(Callback<Channel> callback)
+  {
+    return get(callback, RequestPriority.NORMAL);
+  }
+
+  @Override
+  public Cancellable get(Callback<Channel> callback, RequestPriority priority)
+  {
+    Partition preferred = currentPartition();
+    if (preferred == null)
+    {
+      preferred = _partitions[Math.floorMod(_next.getAndIncrement(), _partitions.length)];
+    }
+
+    Partition selected = preferred;
+    for (int i = 1; i < _partitions.length && selected.isExhausted(); i++)
+    {
+      Partition other = _partitions[(preferred._index + i) % _partitions.length];
+      if (!other.isExhausted())
+      {
+        selected = other;
+      }
+    }
+    // Every partition is exhausted, wait on one that takes waiters
+    for (int i = 1; i < _partitions.length && selected.isExhausted() && selected._maxWaiters == 0; i++)
+    {
+      selected = _partitions[(preferred._index + i) % _partitions.length];
+    }
+    return selected.get(callback, priority);
+  }
+
+  @Override
+  public void put(Channel channel)
+  {
+    partitionOf(channel).put(channel);
+  }
+
+  @Override
+  public void dispose(Channel channel)
+  {
+    partitionOf(channel).dispose(channel);
+  }
+
+  /**
+   * Creates the channel in the partitions in turn, skipping those that are full.
+   */
+  @Override
+  public void createIdleObject(Callback<Boolean> callback)
+  {
+    createIdleObject(Math.floorMod(_next.getAndIncrement(), _partitions.length), 0, callback);
+  }
+
+  private void createIdleObject(int first, int attempt, Callback<Boolean> callback)
+  {
+    if (attempt == _partitions.length)
+    {
+      callback.onSuccess(false);
+      return;
+    }
+    _partitions[(first + attempt) % _partitions.length]._pool.createIdleObject(new Callback<Boolean>()
+    {
+      @Override
+      public void onSuccess(Boolean created)
+      {
+        if (created)
+        {
+          callback.onSuccess(true);
+        }
+        else
+        {
+          createIdleObject(first, attempt + 1, callback);
+        }
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        callback.onError(e);
+      }
+    });
+  }
+
+  /**
+   * Totals and sizes are summed over the partitions. Wait time statistics are those of the partition with the
+   * highest wait time, except the average, which is averaged over the partitions. Creation time statistics are
+   * aggregated the same way over the partitions that report them.
+   */
+  @Override
+  public PoolStats getStats()
+  {
+    int totalCreated = 0, totalDestroyed = 0, totalCreateErrors = 0, totalDestroyErrors = 0, totalBadDestroyed = 0;
+    int totalTimedOut = 0, totalWaiterTimedOut = 0, totalCreationIgnored = 0;
+    int checkedOut = 0, maxPoolSize = 0, minPoolSize = 0, poolSize = 0, sampleMaxCheckedOut = 0, sampleMaxPoolSize = 0;
+    int targetPoolSize = 0, idleCount = 0;
+    long sampleMaxWaitTime = 0, waitTime50Pct = 0, waitTime95Pct = 0, waitTime99Pct = 0;
+    double waitTimeAvgSum = 0;
+    long createTime50Pct = 0, createTime95Pct = 0, createTime99Pct = 0;
+    double createTimeAvgSum = 0;
+    int lifecycleStatsCount = 0;
+    for (Partition partition : _partitions)
+    {
+      PoolStats stats = partition._pool.getStats();
+      totalCreated += stats.getTotalCreated();
+      totalDestroyed += stats.getTotalDestroyed();
+      totalCreateErrors += stats.getTotalCreateErrors();
+      totalDestroyErrors += stats.getTotalDestroyErrors();
+      totalBadDestroyed += stats.getTotalBadDestroyed();
+      totalTimedOut += stats.getTotalTimedOut();
+      totalWaiterTimedOut += stats.getTotalWaiterTimedOut();
+      totalCreationIgnored += stats.getTotalCreationIgnored();
+      checkedOut += stats.getCheckedOut();
+      maxPoolSize += stats.getMaxPoolSize();
+      minPoolSize += stats.getMinPoolSize();
+      targetPoolSize += stats.getTargetPoolSize();
+      poolSize += stats.getPoolSize();
+      sampleMaxCheckedOut += stats.getSampleMaxCheckedOut();
+      sampleMaxPoolSize += stats.getSampleMaxPoolSize();
+      idleCount += stats.getIdleCount();
+      sampleMaxWaitTime = Math.max(sampleMaxWaitTime, stats.getSampleMaxWaitTime());
+      waitTime50Pct = Math.max(waitTime50Pct, stats.getWaitTime50Pct());
+      waitTime95Pct = Math.max(waitTime95Pct, stats.getWaitTime95Pct());
+      waitTime99Pct = Math.max(waitTime99Pct, stats.getWaitTime99Pct());
+      waitTimeAvgSum += stats.getWaitTimeAvg();
+      PoolStats.LifecycleStats lifecycleStats = stats.getLifecycleStats();
+      if (lifecycleStats != null)
+      {
+        createTime50Pct = Math.max(createTime50Pct, lifecycleStats.getCreateTime50Pct());
+        createTime95Pct = Math.max(createTime95Pct, lifecycleStats.getCreateTime95Pct());
+        createTime99Pct = Math.max(createTime99Pct, lifecycleStats.getCreateTime99Pct());
+        createTimeAvgSum += lifecycleStats.getCreateTimeAvg();
+        lifecycleStatsCount++;
+      }
+    }
+    PoolStats.LifecycleStats lifecycleStats = lifecycleStatsCount == 0 ? null : new AsyncPoolLifecycleStats(
+        createTimeAvgSum / lifecycleStatsCount, createTime50Pct, createTime95Pct, createTime99Pct);
+    return new AsyncPoolStats(totalCreated, totalDestroyed, totalCreateErrors, totalDestroyErrors, totalBadDestroyed,
+        totalTimedOut, totalWaiterTimedOut, totalCreationIgnored, checkedOut, maxPoolSize, minPoolSize, targetPoolSize,
+        poolSize, sampleMaxCheckedOut, sampleMaxPoolSize, sampleMaxWaitTime, idleCount,
+        waitTimeAvgSum / _partitions.length, waitTime50Pct, waitTime95Pct, waitTime99Pct, lifecycleStats);
+  }
+
+  /**
+   * @return the partition of the event loop running the current thread, or null if the thread is not an event loop
+   * of the group with a partition.
+   */
+  private Partition currentPartition()
+  {
+    for (Map.Entry<EventLoop, Partition> entry : _partitionsByEventLoop.entrySet())
+    {
+      if (entry.getKey().inEventLoop())
+      {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  private Partition partitionOf(Channel channel)
+  {
+    Partition partition = _partitionsByEventLoop.get(channel.eventLoop());
+    if (partition == null)
+    {
+      throw new IllegalArgumentException(_name + " does not own channel " + channel);
+    }
+    return partition;
+  }
+
+  /**
+   * @return the share of the total of the partition with the given index.
+   */
+  private int share(int total, int index)
+  {
+    return total / _partitions.length + (index < total % _partitions.length ? 1 : 0);
+  }
+
+  private final class Partition
+  {
+    private final int _index;
+    private final AsyncPool<Channel> _pool;
+    private final int _maxSize;
+    private final int _maxWaiters;
+    // Channels checked out of this partition, an estimate of whether a get would wait for a channel
+    private final AtomicInteger _checkedOut = new AtomicInteger();
+
+    private Partition(int index, AsyncPool<Channel> pool, int maxSize, int maxWaiters)
+    {
+      _index = index;
+      _pool = pool;
+      _maxSize = maxSize;
+      _maxWaiters = maxWaiters;
+    }
+
+    private boolean isExhausted()
+    {
+      return _checkedOut.get() >= _maxSize;
+    }
+
+    private Cancellable get(Callback<Channel> callback, RequestPriority priority)
+    {
+      return _pool.get(new Callback<Channel>()
+      {
+        @Override
+        public void onSuccess(Channel channel)
+        {
+          _checkedOut.incrementAndGet();
+          callback.onSuccess(channel);
+        }
+
+        @Override
+        public void onError(Throwable e)
+        {
+          callback.onError(e);
+        }
+      }, priority);
+    }
+
+    private void put(Channel channel)
+    {
+      _checkedOut.decrementAndGet();
+      _pool.put(channel);
+    }
+
+    private void dispose(Channel channel)
+    {
+      _checkedOut.decrementAndGet();
+      _pool.dispose(channel);
+    }
+  }
+}
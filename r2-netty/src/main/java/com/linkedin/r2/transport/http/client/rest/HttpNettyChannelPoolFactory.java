@@ -17,13 +17,19 @@
 package com.linkedin.r2.transport.http.client.rest;
 
 import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.r2.netty.common.NettyTransport;
 import com.linkedin.r2.netty.common.SslHandlerUtil;
 import com.linkedin.r2.netty.handler.common.SessionResumptionSslHandler;
+import com.linkedin.r2.transport.http.client.AdaptivePoolSizer;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.AsyncPoolPriorityPolicy;
+import com.linkedin.r2.transport.http.client.ConcurrentAsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
+import com.linkedin.r2.transport.http.client.RateLimiter;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
+import com.linkedin.r2.transport.http.client.common.EventLoopAffineChannelPool;
 import com.linkedin.util.clock.SystemClock;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
@@ -31,9 +37,10 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import java.net.SocketAddress;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.net.ssl.SSLContext;
@@ -56,12 +63,19 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
   private final ScheduledExecutorService _scheduler;
   private final int _maxConcurrentConnectionInitializations;
   private final int _channelPoolWaiterTimeout;
+  private final EventLoopGroup _eventLoopGroup;
+  private final boolean _eventLoopAffinity;
+  private final boolean _adaptivePoolSizing;
+  private final boolean _concurrentPool;
+  private final AsyncPoolPriorityPolicy _priorityPolicy;
 
   public HttpNettyChannelPoolFactory(int maxPoolSize, long idleTimeout, int maxPoolWaiterSize, AsyncPoolImpl.Strategy strategy,
                                      int minPoolSize, EventLoopGroup eventLoopGroup, SSLContext sslContext, SSLParameters sslParameters, int maxHeaderSize,
                                      int maxChunkSize, int maxResponseSize, ScheduledExecutorService scheduler, int maxConcurrentConnectionInitializations,
                                      boolean enableSSLSessionResumption, ChannelGroup allChannels, int channelPoolWaiterTimeout,
-                                     int connectTimeout, int sslHandShakeTimeout)
+                                     int connectTimeout, int sslHandShakeTimeout,
+                                     boolean eventLoopAffinity, boolean adaptivePoolSizing,
+                                     boolean writeCoalescing, boolean concurrentPool, AsyncPoolPriorityPolicy priorityPolicy)
   {
 
     _allChannels = allChannels;
@@ -69,10 +83,10 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
     _maxConcurrentConnectionInitializations = maxConcurrentConnectionInitializations;
     _channelPoolWaiterTimeout = channelPoolWaiterTimeout;
     Bootstrap bootstrap = new Bootstrap().group(eventLoopGroup)
-      .channel(NioSocketChannel.class)
+      .channel(NettyTransport.of(eventLoopGroup).getChannelClass())
       .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
       .handler(new HttpClientPipelineInitializer(sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize,
-          enableSSLSessionResumption, sslHandShakeTimeout));
+          enableSSLSessionResumption, sslHandShakeTimeout, writeCoalescing));
 
     _bootstrap = bootstrap;
     _maxPoolSize = maxPoolSize;
@@ -80,46 +94,76 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
     _maxPoolWaiterSize = maxPoolWaiterSize;
     _strategy = strategy;
     _minPoolSize = minPoolSize;
+    _eventLoopGroup = eventLoopGroup;
+    _eventLoopAffinity = eventLoopAffinity;
+    _adaptivePoolSizing = adaptivePoolSizing;
+    _concurrentPool = concurrentPool;
+    _priorityPolicy = priorityPolicy;
   }
 
   @Override
   public AsyncPool<Channel> getPool(SocketAddress address)
   {
-    return new AsyncPoolImpl<>(address.toString(),
-      new ChannelPoolLifecycle(address,
-        _bootstrap,
-        _allChannels,
-        false),
-      _maxPoolSize,
-      _idleTimeout,
-      _channelPoolWaiterTimeout,
-      _scheduler,
-      _maxPoolWaiterSize,
-      _strategy,
-      _minPoolSize,
-      new ExponentialBackOffRateLimiter(0,
+    if (_eventLoopAffinity)
+    {
+      return new EventLoopAffineChannelPool(address.toString(), _eventLoopGroup, _maxPoolSize, _minPoolSize,
+          _maxPoolWaiterSize, _maxConcurrentConnectionInitializations,
+          (eventLoop, maxPoolSize, minPoolSize, maxPoolWaiterSize, maxConcurrentConnectionInitializations) ->
+              createPool(address, _bootstrap.clone(eventLoop), maxPoolSize, minPoolSize, maxPoolWaiterSize,
+                  maxConcurrentConnectionInitializations));
+    }
+    return createPool(address, _bootstrap, _maxPoolSize, _minPoolSize, _maxPoolWaiterSize,
+        _maxConcurrentConnectionInitializations);
+  }
+
+  private AsyncPool<Channel> createPool(SocketAddress address, Bootstrap bootstrap, int maxPoolSize, int minPoolSize,
+      int maxPoolWaiterSize, int maxConcurrentConnectionInitializations)
+  {
+    ChannelPoolLifecycle lifecycle = new ChannelPoolLifecycle(address, bootstrap, _allChannels, false);
+    RateLimiter rateLimiter = new ExponentialBackOffRateLimiter(0,
         ChannelPoolLifecycle.MAX_PERIOD_BEFORE_RETRY_CONNECTIONS,
         ChannelPoolLifecycle.INITIAL_PERIOD_BEFORE_RETRY_CONNECTIONS,
         _scheduler,
-        _maxConcurrentConnectionInitializations),
-      SystemClock.instance(),
-      NoopLongTracker.instance()
+        maxConcurrentConnectionInitializations);
+    if (_concurrentPool)
+    {
+      // Neither adaptive sizing nor request priorities are supported by the concurrent pool
+      return new ConcurrentAsyncPoolImpl<>(address.toString(), lifecycle, maxPoolSize, _idleTimeout,
+          _channelPoolWaiterTimeout, _scheduler, maxPoolWaiterSize, _strategy, minPoolSize, rateLimiter,
+          SystemClock.instance(), NoopLongTracker.instance());
+    }
+    return new AsyncPoolImpl<>(address.toString(),
+        lifecycle,
+        maxPoolSize,
+        _idleTimeout,
+        _channelPoolWaiterTimeout,
+        _scheduler,
+        maxPoolWaiterSize,
+        _strategy,
+        minPoolSize,
+        rateLimiter,
+        SystemClock.instance(),
+        NoopLongTracker.instance(),
+        _adaptivePoolSizing ? new AdaptivePoolSizer() : null,
+        _priorityPolicy
     );
   }
 
-  static class HttpClientPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+  static class HttpClientPipelineInitializer extends ChannelInitializer<SocketChannel>
   {
     private final SSLContext _sslContext;
     private final SSLParameters _sslParameters;
 
     private final ChannelPoolHandler _handler = new ChannelPoolHandler();
     private final RAPResponseHandler _responseHandler = new RAPResponseHandler();
+    private final ResponseTimingHandler _responseTimingHandler = new ResponseTimingHandler();
 
     private final int _maxHeaderSize;
     private final int _maxChunkSize;
     private final int _maxResponseSize;
     private final boolean _enableSSLSessionResumption;
     private final int _sslSessionTimeout;
+    private final boolean _writeCoalescing;
 
     /**
      * Creates new instance. If sslParameters is present the PipelineInitializer
@@ -133,30 +177,38 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
      * @param maxChunkSize
      * @param maxResponseSize
      * @param enableSSLSessionResumption
+     * @param writeCoalescing consolidates the flushes issued in the same event loop iteration
      */
     public HttpClientPipelineInitializer(SSLContext sslContext, SSLParameters sslParameters, int maxHeaderSize,
                                          int maxChunkSize, int maxResponseSize, boolean enableSSLSessionResumption,
-                                         int sslSessionTimeout)
+                                         int sslSessionTimeout, boolean writeCoalescing)
     {
       _maxHeaderSize = maxHeaderSize;
       _maxChunkSize = maxChunkSize;
       _maxResponseSize = maxResponseSize;
       _enableSSLSessionResumption = enableSSLSessionResumption;
       _sslSessionTimeout = sslSessionTimeout;
+      _writeCoalescing = writeCoalescing;
       SslHandlerUtil.validateSslParameters(sslContext, sslParameters);
       _sslContext = sslContext;
       _sslParameters = sslParameters;
     }
 
     @Override
-    protected void initChannel(NioSocketChannel ch) throws Exception
+    protected void initChannel(SocketChannel ch) throws Exception
     {
       if (_sslContext != null)
       {
         ch.pipeline().addLast(SessionResumptionSslHandler.PIPELINE_SESSION_RESUMPTION_HANDLER,
           new SessionResumptionSslHandler(_sslContext, _sslParameters, _enableSSLSessionResumption, _sslSessionTimeout));
       }
+      if (_writeCoalescing)
+      {
+        ch.pipeline().addLast("flushConsolidation",
+          new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+      }
       ch.pipeline().addLast("codec", new HttpClientCodec(4096, _maxHeaderSize, _maxChunkSize));
+      ch.pipeline().addLast("responseTiming", _responseTimingHandler);
       ch.pipeline().addLast("dechunker", new HttpObjectAggregator(_maxResponseSize));
       ch.pipeline().addLast("rapiCodec", new RAPClientCodec());
       // the response handler catches the exceptions thrown by other layers. By consequence no handlers that throw exceptions
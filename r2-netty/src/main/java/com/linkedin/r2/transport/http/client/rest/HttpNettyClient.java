@@ -19,11 +19,14 @@ package com.linkedin.r2.transport.http.client.rest;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestPriority;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.timing.FrameworkTimingKeys;
+import com.linkedin.r2.message.timing.TimingContextUtil;
 import com.linkedin.r2.netty.common.NettyChannelAttributes;
 import com.linkedin.r2.netty.common.NettyClientState;
 import com.linkedin.r2.netty.handler.common.SslHandshakeTimingHandler;
@@ -34,6 +37,7 @@ import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.TimeoutTransportCallback;
 import com.linkedin.r2.transport.http.client.common.AbstractNettyClient;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
+import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolManager;
 import com.linkedin.r2.transport.http.client.common.ErrorChannelFutureListener;
 import com.linkedin.r2.transport.http.client.common.ssl.SslSessionValidator;
@@ -127,11 +131,15 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
       return;
     }
 
+    TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
     final Cancellable pendingGet = pool.get(new Callback<Channel>()
     {
       @Override
       public void onSuccess(final Channel channel)
       {
+        TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
+        ChannelPoolLifecycle.markConnectTiming(channel, requestContext);
+
         // This handler ensures the channel is returned to the pool at the end of the
         // Netty pipeline.
         channel.attr(ChannelPoolHandler.CHANNEL_POOL_ATTR_KEY).set(pool);
@@ -148,6 +156,7 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
 
         // This handler invokes the callback with the response once it arrives.
         channel.attr(RAPResponseHandler.CALLBACK_ATTR_KEY).set(sslTimingCallback);
+        channel.attr(NettyChannelAttributes.REQUEST_CONTEXT).set(requestContext);
 
         // Set the session validator requested by the user
         SslSessionValidator sslSessionValidator = (SslSessionValidator) requestContext.getLocalAttr(R2Constants.REQUESTED_SSL_SESSION_VALIDATOR);
@@ -178,15 +187,20 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
 
         // here we want the exception in outbound operations to be passed back through pipeline so that
         // the user callback would be invoked with the exception and the channel can be put back into the pool
-        channel.writeAndFlush(newRequest).addListener(new ErrorChannelFutureListener());
+        TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_WRITE.key());
+        channel.writeAndFlush(newRequest).addListener(new ErrorChannelFutureListener()).addListener(future -> {
+          TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_WRITE.key());
+          TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_WAIT.key());
+        });
       }
 
       @Override
       public void onError(Throwable e)
       {
+        TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
         errorResponse(callback, e);
       }
-    });
+    }, RequestPriority.fromRequestContext(requestContext));
     if (pendingGet != null)
     {
       callback.addTimeoutTask(pendingGet::cancel);
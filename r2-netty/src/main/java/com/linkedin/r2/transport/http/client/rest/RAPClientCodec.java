@@ -21,13 +21,17 @@
 package com.linkedin.r2.transport.http.client.rest;
 
 import com.linkedin.data.ByteString;
+import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.timing.FrameworkTimingKeys;
+import com.linkedin.r2.message.timing.TimingContextUtil;
+import com.linkedin.r2.netty.common.ByteStringUtil;
+import com.linkedin.r2.netty.common.NettyChannelAttributes;
 import com.linkedin.r2.netty.common.NettyRequestAdapter;
 import com.linkedin.r2.transport.http.common.HttpConstants;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
@@ -83,7 +87,7 @@ class RAPClientCodec extends ChannelDuplexHandler
         path = "/";
       }
       ByteString entity = request.getEntity();
-      ByteBuf content = Unpooled.wrappedBuffer(entity.asByteBuffer());
+      ByteBuf content = ByteStringUtil.toByteBuf(entity);
       FullHttpRequest nettyRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, nettyMethod, path, content);
 
       NettyRequestAdapter.setHttpHeadersAndCookies(request, url, nettyRequest);
@@ -100,6 +104,13 @@ class RAPClientCodec extends ChannelDuplexHandler
     protected void decode(ChannelHandlerContext ctx, FullHttpResponse nettyResponse, List<Object> out)
         throws Exception
     {
+      RequestContext requestContext = ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).get();
+      if (requestContext != null)
+      {
+        // Started by the ResponseTimingHandler when the response headers were received
+        TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_READ.key());
+      }
+
       // Weird weird... Netty won't throw up, instead, it'll return a partially decoded response
       // if there is a decoding error.
       if (nettyResponse.decoderResult().isFailure())
@@ -108,6 +119,12 @@ class RAPClientCodec extends ChannelDuplexHandler
         return;
       }
 
+      if (requestContext != null)
+      {
+        // Ended by the RAPResponseHandler once the wire attributes are separated from the headers
+        TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_DECODE.key());
+      }
+
       RestResponseBuilder builder = new RestResponseBuilder();
       builder.setStatus(nettyResponse.status().code());
 
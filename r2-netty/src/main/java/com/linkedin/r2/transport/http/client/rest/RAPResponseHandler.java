@@ -20,8 +20,12 @@
 
 package com.linkedin.r2.transport.http.client.rest;
 
+import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.timing.FrameworkTimingKeys;
+import com.linkedin.r2.message.timing.TimingContextUtil;
+import com.linkedin.r2.netty.common.NettyChannelAttributes;
 import com.linkedin.r2.transport.common.WireAttributeHelper;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
@@ -60,6 +64,8 @@ class RAPResponseHandler extends SimpleChannelInboundHandler<RestResponse>
   @Override
   protected void channelRead0(ChannelHandlerContext ctx, RestResponse response) throws Exception
   {
+    RequestContext requestContext = ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).getAndSet(null);
+
     final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     headers.putAll(response.getHeaders());
 
@@ -68,6 +74,11 @@ class RAPResponseHandler extends SimpleChannelInboundHandler<RestResponse>
     final RestResponse newResponse = new RestResponseBuilder(response)
         .unsafeSetHeaders(headers)
         .build();
+    if (requestContext != null)
+    {
+      // Started by the RAPClientCodec once the whole response was aggregated
+      TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_DECODE.key());
+    }
     // In general there should always be a callback to handle a received message,
     // but it could have been removed due to a previous exception or closure on the
     // channel
@@ -87,6 +98,7 @@ class RAPResponseHandler extends SimpleChannelInboundHandler<RestResponse>
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
   {
+    ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).set(null);
     TransportCallback<RestResponse> callback = ctx.channel().attr(CALLBACK_ATTR_KEY).getAndSet(null);
     if (callback != null)
     {
@@ -108,6 +120,7 @@ class RAPResponseHandler extends SimpleChannelInboundHandler<RestResponse>
     // have to deal with that ourselves (it does not get turned into an exception by downstream
     // layers, even though some other protocol errors do)
 
+    ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).set(null);
     TransportCallback<RestResponse> callback = ctx.channel().attr(CALLBACK_ATTR_KEY).getAndSet(null);
     if (callback != null)
     {
@@ -0,0 +1,53 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client.rest;
+
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.timing.FrameworkTimingKeys;
+import com.linkedin.r2.message.timing.TimingContextUtil;
+import com.linkedin.r2.netty.common.NettyChannelAttributes;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpResponse;
+
+
+/**
+ * Netty pipeline handler, placed between the HTTP codec and the aggregator, which records the time waited for the
+ * response headers and starts the read of the response entity, ended by {@link RAPClientCodec} once the whole
+ * response has been aggregated.
+ *
+ * The handler is stateless, the {@link RequestContext} of the request in flight is a channel attribute.
+ */
+@ChannelHandler.Sharable
+class ResponseTimingHandler extends ChannelInboundHandlerAdapter
+{
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg)
+  {
+    if (msg instanceof HttpResponse)
+    {
+      RequestContext requestContext = ctx.channel().attr(NettyChannelAttributes.REQUEST_CONTEXT).get();
+      if (requestContext != null)
+      {
+        TimingContextUtil.endTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_WAIT.key());
+        TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_RESPONSE_R2_READ.key());
+      }
+    }
+    ctx.fireChannelRead(msg);
+  }
+}
@@ -17,11 +17,17 @@
 package com.linkedin.r2.transport.http.client.stream.http;
 
 import com.linkedin.common.stats.NoopLongTracker;
+import com.linkedin.r2.netty.common.NettyTransport;
+import com.linkedin.r2.transport.http.client.AdaptivePoolSizer;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.AsyncPoolImpl;
+import com.linkedin.r2.transport.http.client.AsyncPoolPriorityPolicy;
+import com.linkedin.r2.transport.http.client.ConcurrentAsyncPoolImpl;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
+import com.linkedin.r2.transport.http.client.common.EventLoopAffineChannelPool;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
+import com.linkedin.r2.transport.http.client.RateLimiter;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamClient;
 import com.linkedin.util.clock.SystemClock;
 import io.netty.bootstrap.Bootstrap;
@@ -30,7 +36,7 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -53,6 +59,11 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
   private final ScheduledExecutorService _scheduler;
   private final int _maxConcurrentConnectionInitializations;
   private final int _channelPoolWaiterTimeout;
+  private final EventLoopGroup _eventLoopGroup;
+  private final boolean _eventLoopAffinity;
+  private final boolean _adaptivePoolSizing;
+  private final boolean _concurrentPool;
+  private final AsyncPoolPriorityPolicy _priorityPolicy;
 
   public HttpNettyStreamChannelPoolFactory(int maxPoolSize,
                                            long idleTimeout,
@@ -72,14 +83,19 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
                                            ChannelGroup channelGroup,
                                            int channelPoolWaiterTimeout,
                                            int connectTimeout,
-                                           int sslHandShakeTimeout)
+                                           int sslHandShakeTimeout,
+                                           boolean eventLoopAffinity,
+                                           boolean adaptivePoolSizing,
+                                           boolean writeCoalescing,
+                                           boolean concurrentPool,
+                                           AsyncPoolPriorityPolicy priorityPolicy)
   {
-    ChannelInitializer<NioSocketChannel> initializer =
+    ChannelInitializer<SocketChannel> initializer =
       new RAPStreamClientPipelineInitializer(sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize,
-          enableSSLSessionResumption, sslHandShakeTimeout);
+          enableSSLSessionResumption, sslHandShakeTimeout, writeCoalescing);
 
     Bootstrap bootstrap = new Bootstrap().group(eventLoopGroup)
-      .channel(NioSocketChannel.class)
+      .channel(NettyTransport.of(eventLoopGroup).getChannelClass())
       .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
       .handler(initializer);
 
@@ -94,30 +110,58 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
     _scheduler = scheduler;
     _maxConcurrentConnectionInitializations = maxConcurrentConnectionInitializations;
     _channelPoolWaiterTimeout = channelPoolWaiterTimeout;
+    _eventLoopGroup = eventLoopGroup;
+    _eventLoopAffinity = eventLoopAffinity;
+    _adaptivePoolSizing = adaptivePoolSizing;
+    _concurrentPool = concurrentPool;
+    _priorityPolicy = priorityPolicy;
   }
 
   @Override
   public AsyncPool<Channel> getPool(SocketAddress address)
   {
-    return new AsyncPoolImpl<>(address.toString(),
-      new ChannelPoolLifecycle(address,
-        _bootstrap,
-        _allChannels,
-        _tcpNoDelay),
-      _maxPoolSize,
-      _idleTimeout,
-      _channelPoolWaiterTimeout,
-      _scheduler,
-      _maxPoolWaiterSize,
-      _strategy,
-      _minPoolSize,
-      new ExponentialBackOffRateLimiter(0,
+    if (_eventLoopAffinity)
+    {
+      return new EventLoopAffineChannelPool(address.toString(), _eventLoopGroup, _maxPoolSize, _minPoolSize,
+          _maxPoolWaiterSize, _maxConcurrentConnectionInitializations,
+          (eventLoop, maxPoolSize, minPoolSize, maxPoolWaiterSize, maxConcurrentConnectionInitializations) ->
+              createPool(address, _bootstrap.clone(eventLoop), maxPoolSize, minPoolSize, maxPoolWaiterSize,
+                  maxConcurrentConnectionInitializations));
+    }
+    return createPool(address, _bootstrap, _maxPoolSize, _minPoolSize, _maxPoolWaiterSize,
+        _maxConcurrentConnectionInitializations);
+  }
+
+  private AsyncPool<Channel> createPool(SocketAddress address, Bootstrap bootstrap, int maxPoolSize, int minPoolSize,
+      int maxPoolWaiterSize, int maxConcurrentConnectionInitializations)
+  {
+    ChannelPoolLifecycle lifecycle = new ChannelPoolLifecycle(address, bootstrap, _allChannels, _tcpNoDelay);
+    RateLimiter rateLimiter = new ExponentialBackOffRateLimiter(0,
         ChannelPoolLifecycle.MAX_PERIOD_BEFORE_RETRY_CONNECTIONS,
         ChannelPoolLifecycle.INITIAL_PERIOD_BEFORE_RETRY_CONNECTIONS,
         _scheduler,
-        _maxConcurrentConnectionInitializations),
-      SystemClock.instance(),
-      NoopLongTracker.instance()
+        maxConcurrentConnectionInitializations);
+    if (_concurrentPool)
+    {
+      // Neither adaptive sizing nor request priorities are supported by the concurrent pool
+      return new ConcurrentAsyncPoolImpl<>(address.toString(), lifecycle, maxPoolSize, _idleTimeout,
+          _channelPoolWaiterTimeout, _scheduler, maxPoolWaiterSize, _strategy, minPoolSize, rateLimiter,
+          SystemClock.instance(), NoopLongTracker.instance());
+    }
+    return new AsyncPoolImpl<>(address.toString(),
+        lifecycle,
+        maxPoolSize,
+        _idleTimeout,
+        _channelPoolWaiterTimeout,
+        _scheduler,
+        maxPoolWaiterSize,
+        _strategy,
+        minPoolSize,
+        rateLimiter,
+        SystemClock.instance(),
+        NoopLongTracker.instance(),
+        _adaptivePoolSizing ? new AdaptivePoolSizer() : null,
+        _priorityPolicy
     );
   }
 }
@@ -21,7 +21,10 @@ import com.linkedin.common.util.None;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestPriority;
 import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.timing.FrameworkTimingKeys;
+import com.linkedin.r2.message.timing.TimingContextUtil;
 import com.linkedin.r2.netty.common.NettyChannelAttributes;
 import com.linkedin.r2.netty.common.NettyClientState;
 import com.linkedin.r2.netty.handler.common.SslHandshakeTimingHandler;
@@ -31,6 +34,7 @@ import com.linkedin.r2.transport.http.client.AbstractJmxManager;
 import com.linkedin.r2.transport.http.client.AsyncPool;
 import com.linkedin.r2.transport.http.client.TimeoutTransportCallback;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
+import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolManager;
 import com.linkedin.r2.transport.http.client.common.ErrorChannelFutureListener;
 import com.linkedin.r2.transport.http.client.common.ssl.SslSessionValidator;
@@ -112,7 +116,8 @@ public class HttpNettyStreamClient extends AbstractNettyStreamClient
     requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_1_1);
 
     Callback<Channel> getCallback = new ChannelPoolGetCallback(pool, request, requestContext, callback, requestTimeout);
-    final Cancellable pendingGet = pool.get(getCallback);
+    TimingContextUtil.beginTiming(requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
+    final Cancellable pendingGet = pool.get(getCallback, RequestPriority.fromRequestContext(requestContext));
     if (pendingGet != null)
     {
       callback.addTimeoutTask(pendingGet::cancel);
@@ -139,6 +144,9 @@ public class HttpNettyStreamClient extends AbstractNettyStreamClient
     @Override
     public void onSuccess(final Channel channel)
     {
+      TimingContextUtil.endTiming(_requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
+      ChannelPoolLifecycle.markConnectTiming(channel, _requestContext);
+
       // This handler ensures the channel is returned to the pool at the end of the
       // Netty pipeline.
       channel.attr(ChannelPoolStreamHandler.CHANNEL_POOL_ATTR_KEY).set(_pool);
@@ -201,6 +209,7 @@ public class HttpNettyStreamClient extends AbstractNettyStreamClient
     @Override
     public void onError(Throwable e)
     {
+      TimingContextUtil.endTiming(_requestContext, FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key());
       _callback.onResponse(TransportResponseImpl.error(e));
     }
   }
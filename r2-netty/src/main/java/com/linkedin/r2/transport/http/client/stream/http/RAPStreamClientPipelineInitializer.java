@@ -18,8 +18,9 @@ package com.linkedin.r2.transport.http.client.stream.http;
 
 import com.linkedin.r2.netty.handler.common.SessionResumptionSslHandler;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -32,7 +33,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Netty HTTP/1.1 streaming implementation of {@link ChannelInitializer}
  */
-public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+public class RAPStreamClientPipelineInitializer extends ChannelInitializer<SocketChannel>
 {
   static final Logger LOG = LoggerFactory.getLogger(RAPStreamClientPipelineInitializer.class);
 
@@ -43,6 +44,7 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
   private final long _maxResponseSize;
   private final boolean _enableSSLSessionResumption;
   private final int _sslHandShakeTimeout;
+  private final boolean _writeCoalescing;
 
   /**
    * Creates new instance.
@@ -52,10 +54,12 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
    *          SSLContext.getDefaultSSLParameters(), but those turned out to be
    *          exceedingly difficult to configure, so we can't pass all desired
    *          configuration in sslContext.
+   * @param writeCoalescing consolidates the flushes issued in the same event loop iteration, see
+   *          {@link FlushConsolidationHandler}.
    */
   RAPStreamClientPipelineInitializer(SSLContext sslContext, SSLParameters sslParameters, int maxHeaderSize,
                                      int maxChunkSize, long maxResponseSize, boolean enableSSLSessionResumption,
-                                     int sslHandShakeTimeout)
+                                     int sslHandShakeTimeout, boolean writeCoalescing)
   {
     // Check if requested parameters are present in the supported params of the context.
     // Log warning for those not present. Throw an exception if none present.
@@ -89,6 +93,7 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
     _maxResponseSize = maxResponseSize;
     _enableSSLSessionResumption = enableSSLSessionResumption;
     _sslHandShakeTimeout = sslHandShakeTimeout;
+    _writeCoalescing = writeCoalescing;
   }
 
   /**
@@ -125,13 +130,20 @@ public class RAPStreamClientPipelineInitializer extends ChannelInitializer<NioSo
   }
 
   @Override
-  protected void initChannel(NioSocketChannel ch)
+  protected void initChannel(SocketChannel ch)
   {
     if (_sslContext != null)
     {
       ch.pipeline().addLast(SessionResumptionSslHandler.PIPELINE_SESSION_RESUMPTION_HANDLER,
           new SessionResumptionSslHandler(_sslContext, _sslParameters, _enableSSLSessionResumption, _sslHandShakeTimeout));
     }
+    if (_writeCoalescing)
+    {
+      // Below the codec, so that the header and content chunks of a request leave in one flush, and above the
+      // SslHandler, so that they are also encrypted together
+      ch.pipeline().addLast("flushConsolidation",
+          new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+    }
     ch.pipeline().addLast("codec", new HttpClientCodec(4096, _maxHeaderSize, _maxChunkSize));
     ch.pipeline().addLast("rapFullRequestEncoder", new RAPStreamFullRequestEncoder());
     ch.pipeline().addLast("rapEncoder", new RAPStreamRequestEncoder());
@@ -20,6 +20,7 @@ import com.linkedin.common.callback.Callback;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.RequestPriority;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.netty.common.NettyChannelAttributes;
 import com.linkedin.r2.netty.common.NettyClientState;
@@ -100,7 +101,7 @@ public class Http2NettyStreamClient extends AbstractNettyStreamClient
     requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_2);
 
     Callback<Channel> getCallback = new ChannelPoolGetCallback(pool, request, requestContext, callback, requestTimeout);
-    final Cancellable pendingGet = pool.get(getCallback);
+    final Cancellable pendingGet = pool.get(getCallback, RequestPriority.fromRequestContext(requestContext));
     if (pendingGet != null)
     {
       callback.addTimeoutTask(pendingGet::cancel);
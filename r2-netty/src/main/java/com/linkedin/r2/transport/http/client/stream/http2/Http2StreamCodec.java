@@ -24,6 +24,7 @@ import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.message.stream.entitystream.ReadHandle;
 import com.linkedin.r2.message.stream.entitystream.Reader;
+import com.linkedin.r2.netty.common.ByteStringUtil;
 import com.linkedin.r2.netty.common.NettyRequestAdapter;
 import com.linkedin.r2.transport.common.bridge.common.RequestWithCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
@@ -111,7 +112,7 @@ class Http2StreamCodec extends Http2ConnectionHandler
       headersFuture.addListener(future -> {
         if (future.isSuccess())
         {
-          final ByteBuf data = Unpooled.wrappedBuffer(restRequest.getEntity().asByteBuffer());
+          final ByteBuf data = ByteStringUtil.toByteBuf(restRequest.getEntity());
           LOG.debug("Sent HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
               new Object[]{streamId, END_STREAM, data.readableBytes(), NO_PADDING});
           encoder.writeData(ctx, streamId, data, NO_PADDING, END_STREAM, ctx.newPromise());
@@ -279,7 +280,7 @@ class Http2StreamCodec extends Http2ConnectionHandler
     @Override
     public void onDataAvailable(final ByteString data)
     {
-      ByteBuf content = Unpooled.wrappedBuffer(data.asByteBuffer());
+      ByteBuf content = ByteStringUtil.toByteBuf(data);
       _encoder.writeData(_ctx, _streamId, content, NO_PADDING, NOT_END_STREAM, _ctx.channel().newPromise())
           .addListener(future -> _readHandle.request(1));
       LOG.debug("Sent HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
@@ -0,0 +1,71 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import java.util.concurrent.Executor;
+
+
+/**
+ * Hands the dispatch of the requests read by an event loop to the executor of the {@link ServerDispatchMode}, or
+ * runs it in place without an executor, and records the hop in {@link ServerDispatchStats}.
+ */
+final class DispatchExecutor
+{
+  private final Executor _executor;
+  private final ServerDispatchStats _stats;
+
+  /**
+   * @param executor executor of the dispatches, or null to dispatch on the calling event loop.
+   * @param stats statistics of the hops.
+   */
+  DispatchExecutor(Executor executor, ServerDispatchStats stats)
+  {
+    _executor = executor;
+    _stats = stats;
+  }
+
+  /**
+   * Runs the dispatch of a request.
+   *
+   * @throws java.util.concurrent.RejectedExecutionException if the executor rejected the dispatch.
+   */
+  void execute(Runnable dispatch)
+  {
+    if (_executor == null)
+    {
+      _stats.onDispatchedInline(0);
+      dispatch.run();
+      return;
+    }
+
+    final long queuedNanos = System.nanoTime();
+    _stats.onQueued();
+    try
+    {
+      _executor.execute(() ->
+      {
+        _stats.onDispatched(System.nanoTime() - queuedNanos);
+        dispatch.run();
+      });
+    }
+    catch (RuntimeException e)
+    {
+      _stats.onRejected();
+      throw e;
+    }
+  }
+}
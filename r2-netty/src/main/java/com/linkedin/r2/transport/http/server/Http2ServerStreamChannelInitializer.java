@@ -0,0 +1,67 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.r2.netty.handler.http2.Http2MessageDecoders;
+import com.linkedin.r2.netty.handler.http2.Http2MessageEncoders;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import java.util.function.Supplier;
+
+
+/**
+ * Sets up the pipeline of the stream channels created by the client on an HTTP/2 connection to
+ * {@link HttpNettyServer}.
+ *
+ * Http2MultiplexHandler$DefaultHttp2StreamChannel$1{
+ *   (outboundStreamResponseEncoder = {@link Http2MessageEncoders.StreamResponseEncoder}),
+ *   (outboundRestResponseEncoder = {@link Http2MessageEncoders.RestResponseEncoder}),
+ *   (outboundStreamDataEncoder = {@link Http2MessageEncoders.DataEncoder}),
+ *   (inboundDataDecoder = {@link Http2MessageDecoders.DataDecoder}),
+ *   (inboundRequestDecoder = {@link Http2MessageDecoders.RequestDecoder}),
+ *   (handler = {@link Http2ServerStreamHandler})
+ * }
+ */
+class Http2ServerStreamChannelInitializer extends ChannelInitializer<Channel>
+{
+  private final HttpDispatcher _dispatcher;
+  private final Supplier<DispatchExecutor> _dispatchExecutors;
+  private final long _maxRequestSize;
+
+  /**
+   * @param dispatchExecutors supplies the {@link DispatchExecutor} of each stream channel.
+   */
+  Http2ServerStreamChannelInitializer(HttpDispatcher dispatcher, Supplier<DispatchExecutor> dispatchExecutors,
+      long maxRequestSize)
+  {
+    _dispatcher = dispatcher;
+    _dispatchExecutors = dispatchExecutors;
+    _maxRequestSize = maxRequestSize;
+  }
+
+  @Override
+  protected void initChannel(Channel channel)
+  {
+    channel.pipeline().addLast("outboundStreamResponseEncoder", Http2MessageEncoders.newStreamResponseEncoder());
+    channel.pipeline().addLast("outboundRestResponseEncoder", Http2MessageEncoders.newRestResponseEncoder());
+    channel.pipeline().addLast("outboundStreamDataEncoder", Http2MessageEncoders.newDataEncoder());
+    channel.pipeline().addLast("inboundDataDecoder", Http2MessageDecoders.newDataDecoder());
+    channel.pipeline().addLast("inboundRequestDecoder", Http2MessageDecoders.newRequestDecoder());
+    channel.pipeline().addLast("handler",
+        new Http2ServerStreamHandler(_dispatcher, _dispatchExecutors.get(), _maxRequestSize));
+  }
+}
@@ -0,0 +1,176 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.rest.RestStatus;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.CancelingReader;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.netty.entitystream.StreamReader;
+import com.linkedin.r2.netty.entitystream.StreamWriter;
+import com.linkedin.r2.transport.common.WireAttributeHelper;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import com.linkedin.r2.transport.http.client.stream.OrderedEntityStreamReader;
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import java.nio.channels.ClosedChannelException;
+import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Dispatches the request of an HTTP/2 stream channel as a {@link StreamRequest} and writes back the
+ * {@link StreamResponse}, streaming both entities.
+ *
+ * The request entity is written to the entity stream by a {@link StreamWriter}, which turns off auto read of the
+ * stream channel once the application falls behind. The data frames are then no longer consumed, no WINDOW_UPDATE
+ * is sent for the stream, and the client stops sending once the stream's flow-control window is used up. The response
+ * entity is read by a {@link StreamReader}, which only requests more data once the previous data frames are written,
+ * that is once the client's flow-control window let them through.
+ */
+class Http2ServerStreamHandler extends ChannelInboundHandlerAdapter
+{
+  private static final Logger LOG = LoggerFactory.getLogger(Http2ServerStreamHandler.class);
+
+  private final HttpDispatcher _dispatcher;
+  private final DispatchExecutor _dispatchExecutor;
+  private final long _maxRequestSize;
+
+  private StreamWriter _writer;
+
+  Http2ServerStreamHandler(HttpDispatcher dispatcher, DispatchExecutor dispatchExecutor, long maxRequestSize)
+  {
+    _dispatcher = dispatcher;
+    _dispatchExecutor = dispatchExecutor;
+    _maxRequestSize = maxRequestSize;
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg)
+  {
+    if (msg instanceof StreamRequestBuilder)
+    {
+      // Http2MessageDecoders.RequestDecoder decodes at most one request per stream, trailers are ignored
+      _writer = new StreamWriter(ctx, _maxRequestSize);
+      dispatch(ctx, ((StreamRequestBuilder) msg).build(EntityStreams.newEntityStream(_writer)));
+    }
+    else if (msg instanceof ByteString)
+    {
+      final StreamWriter writer = _writer;
+      if (msg == StreamWriter.EOF)
+      {
+        _writer = null;
+      }
+      if (writer != null)
+      {
+        writer.onDataAvailable((ByteString) msg);
+      }
+    }
+    else
+    {
+      ctx.fireChannelRead(msg);
+    }
+  }
+
+  private void dispatch(ChannelHandlerContext ctx, StreamRequest request)
+  {
+    final RequestContext requestContext = new RequestContext();
+    requestContext.putLocalAttr(R2Constants.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_2);
+
+    final TransportCallback<StreamResponse> writeResponseCallback = response -> writeResponse(ctx, response);
+    try
+    {
+      _dispatchExecutor.execute(() -> handleRequest(request, requestContext, writeResponseCallback));
+    }
+    catch (RejectedExecutionException ex)
+    {
+      writeResponseCallback.onResponse(TransportResponseImpl.<StreamResponse> error(ex,
+          Collections.<String, String> emptyMap()));
+    }
+  }
+
+  private void handleRequest(StreamRequest request, RequestContext requestContext,
+      TransportCallback<StreamResponse> writeResponseCallback)
+  {
+    try
+    {
+      _dispatcher.handleRequest(request, requestContext, writeResponseCallback);
+    }
+    catch (Exception ex)
+    {
+      writeResponseCallback.onResponse(TransportResponseImpl.<StreamResponse> error(ex,
+          Collections.<String, String> emptyMap()));
+    }
+  }
+
+  private void writeResponse(ChannelHandlerContext ctx, TransportResponse<StreamResponse> response)
+  {
+    if (response.hasError())
+    {
+      // See PipelineStreamHandler for the cases where the error is not already turned into a response.
+      ctx.writeAndFlush(new RestResponseBuilder(
+          RestStatus.responseForError(RestStatus.INTERNAL_SERVER_ERROR, response.getError()))
+          .unsafeOverwriteHeaders(WireAttributeHelper.toWireAttributes(response.getWireAttributes()))
+          .build());
+      return;
+    }
+
+    final StreamResponse streamResponse = response.getResponse().builder()
+        .unsafeOverwriteHeaders(WireAttributeHelper.toWireAttributes(response.getWireAttributes()))
+        .build(response.getResponse().getEntityStream());
+
+    // Sets reader after the headers have been written, the entity is dropped if they could not be.
+    ctx.writeAndFlush(streamResponse).addListener(future -> streamResponse.getEntityStream().setReader(
+        future.isSuccess() ? new OrderedEntityStreamReader(ctx, new StreamReader(ctx)) : new CancelingReader()));
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx)
+  {
+    tryNotifyWriterWithError(new ClosedChannelException());
+    ctx.fireChannelInactive();
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause)
+  {
+    LOG.error("Exception caught on stream channel: " + ctx.channel(), cause);
+    tryNotifyWriterWithError(cause);
+    ctx.close();
+  }
+
+  private void tryNotifyWriterWithError(Throwable cause)
+  {
+    final StreamWriter writer = _writer;
+    _writer = null;
+    if (writer != null)
+    {
+      writer.onError(cause);
+    }
+  }
+}
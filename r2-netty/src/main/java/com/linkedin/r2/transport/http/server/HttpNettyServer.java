@@ -21,13 +21,18 @@
 package com.linkedin.r2.transport.http.server;
 
 import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.netty.common.NettyTransport;
 import com.linkedin.r2.util.NamedThreadFactory;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutorGroup;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
 
@@ -47,9 +52,17 @@ import javax.net.ssl.SSLParameters;
   private final SSLContext _sslContext;
   private final SSLParameters _sslParameters;
   private final int _startupTimeoutMillis;
-
-  private NioEventLoopGroup _bossGroup;
-  private NioEventLoopGroup _workerGroup;
+  private final NettyTransport _transport;
+  private final int _acceptorCount;
+  private final boolean _http2;
+  private final int _maxRequestSize;
+  private final boolean _writeCoalescing;
+  private final ServerDispatchMode _dispatchMode;
+  private final Executor _dispatchExecutor;
+  private final ServerDispatchStats _dispatchStats;
+
+  private EventLoopGroup _bossGroup;
+  private EventLoopGroup _workerGroup;
   private EventExecutorGroup _eventExecutors;
 
   public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher)
@@ -77,6 +90,43 @@ import javax.net.ssl.SSLParameters;
   public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
                          SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis)
   {
+    this(port, threadPoolSize, dispatcher, restOverStream, sslContext, sslParameters, startupTimeoutMillis,
+        NettyTransport.NIO, 1, false, HttpNettyServerBuilder.DEFAULT_MAX_REQUEST_SIZE,
+        ServerDispatchMode.EXECUTOR_GROUP, null, new ServerDispatchStats(), false);
+  }
+
+  /**
+   * @param transport Netty transport of the event loops, falls back to NIO if it is not available.
+   * @param acceptorCount number of acceptors binding the port with SO_REUSEPORT, only used with the epoll transport.
+   * @param http2 whether HTTP/2 is served, negotiated with ALPN over TLS and with h2c upgrade or prior knowledge
+   *              in clear text, in addition to HTTP/1.1.
+   * @param maxRequestSize maximum size of the request entities, in bytes.
+   * @param dispatchMode where the dispatcher runs, threadPoolSize is only used with
+   *                     {@link ServerDispatchMode#EXECUTOR_GROUP}.
+   * @param dispatchExecutor executor of the dispatcher with {@link ServerDispatchMode#EXECUTOR}, which the caller
+   *                         shuts down.
+   * @param dispatchStats records the hops to the dispatcher.
+   * @param writeCoalescing whether the HTTP/1.1 connections consolidate the flushes of the responses written in the
+   *                        same event loop iteration.
+   */
+  public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
+                         SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis,
+                         NettyTransport transport, int acceptorCount, boolean http2, int maxRequestSize,
+                         ServerDispatchMode dispatchMode, Executor dispatchExecutor, ServerDispatchStats dispatchStats,
+                         boolean writeCoalescing)
+  {
+    if (acceptorCount < 1)
+    {
+      throw new IllegalArgumentException("acceptorCount should be positive.");
+    }
+    if (maxRequestSize < 0)
+    {
+      throw new IllegalArgumentException("maxRequestSize should not be negative.");
+    }
+    if (dispatchMode == ServerDispatchMode.EXECUTOR && dispatchExecutor == null)
+    {
+      throw new IllegalArgumentException("dispatchExecutor should be set with the EXECUTOR dispatch mode.");
+    }
     _port = port;
     _threadPoolSize = threadPoolSize;
     _dispatcher = dispatcher;
@@ -84,22 +134,53 @@ import javax.net.ssl.SSLParameters;
     _sslContext = sslContext;
     _sslParameters = sslParameters;
     _startupTimeoutMillis = startupTimeoutMillis;
+    _transport = transport;
+    _acceptorCount = acceptorCount;
+    _http2 = http2;
+    _maxRequestSize = maxRequestSize;
+    _dispatchMode = dispatchMode;
+    _dispatchExecutor = dispatchExecutor;
+    _dispatchStats = dispatchStats;
+    _writeCoalescing = writeCoalescing;
   }
 
   @Override
   public void start()
   {
-    _eventExecutors =  new DefaultEventExecutorGroup(_threadPoolSize);
-    _bossGroup = new NioEventLoopGroup(1, new NamedThreadFactory("R2 Nio Boss"));
-    _workerGroup = new NioEventLoopGroup(0, new NamedThreadFactory("R2 Nio Worker"));
+    final NettyTransport transport = NettyTransport.resolve(_transport);
+    // Only epoll supports SO_REUSEPORT, which lets each acceptor bind its own socket on the same port.
+    final int acceptorCount = transport == NettyTransport.EPOLL ? _acceptorCount : 1;
+    final String threadPrefix = transport == NettyTransport.EPOLL ? "R2 Epoll" : "R2 Nio";
+
+    _eventExecutors = _dispatchMode == ServerDispatchMode.EXECUTOR_GROUP
+        ? new DefaultEventExecutorGroup(_threadPoolSize)
+        : null;
+    _bossGroup = transport.newEventLoopGroup(acceptorCount, new NamedThreadFactory(threadPrefix + " Boss"));
+    _workerGroup = transport.newEventLoopGroup(0, new NamedThreadFactory(threadPrefix + " Worker"));
 
     final HttpNettyServerPipelineInitializer pipelineInitializer = new HttpNettyServerPipelineInitializer(
-        _dispatcher, _eventExecutors, _sslContext, _sslParameters, _restOverStream);
+        _dispatcher, _eventExecutors, _dispatchMode == ServerDispatchMode.EXECUTOR ? _dispatchExecutor : null,
+        _dispatchStats, _sslContext, _sslParameters, _restOverStream, _http2, _maxRequestSize,
+        _writeCoalescing);
     ServerBootstrap bootstrap = new ServerBootstrap()
                                       .group(_bossGroup, _workerGroup)
-                                      .channel(NioServerSocketChannel.class)
+                                      .channel(transport.getServerChannelClass())
                                       .childHandler(pipelineInitializer);
-    bootstrap.bind(new InetSocketAddress(_port)).awaitUninterruptibly(_startupTimeoutMillis);
+    if (acceptorCount > 1)
+    {
+      bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+    }
+
+    // Each bind registers its server channel with the next boss event loop.
+    final List<ChannelFuture> bindFutures = new ArrayList<>(acceptorCount);
+    for (int i = 0; i < acceptorCount; i++)
+    {
+      bindFutures.add(bootstrap.bind(new InetSocketAddress(_port)));
+    }
+    for (ChannelFuture bindFuture : bindFutures)
+    {
+      bindFuture.awaitUninterruptibly(_startupTimeoutMillis);
+    }
   }
 
   @Override
@@ -124,13 +205,16 @@ import javax.net.ssl.SSLParameters;
       // Do nothing
     }
 
-    try
+    if (_eventExecutors != null)
     {
-      _eventExecutors.shutdownGracefully().sync();
-    }
-    catch(Exception ex)
-    {
-      // Do nothing
+      try
+      {
+        _eventExecutors.shutdownGracefully().sync();
+      }
+      catch(Exception ex)
+      {
+        // Do nothing
+      }
     }
   }
 
@@ -139,6 +223,9 @@ import javax.net.ssl.SSLParameters;
   {
     _bossGroup.terminationFuture().await();
     _workerGroup.terminationFuture().await();
-    _eventExecutors.terminationFuture().await();
+    if (_eventExecutors != null)
+    {
+      _eventExecutors.terminationFuture().await();
+    }
   }
 }
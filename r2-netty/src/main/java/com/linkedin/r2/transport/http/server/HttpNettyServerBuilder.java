@@ -19,8 +19,10 @@ package com.linkedin.r2.transport.http.server;
 import com.linkedin.r2.filter.FilterChain;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.filter.transport.FilterChainDispatcher;
+import com.linkedin.r2.netty.common.NettyTransport;
 import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
 import com.linkedin.util.ArgumentUtil;
+import java.util.concurrent.Executor;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
 
@@ -36,6 +38,8 @@ public class HttpNettyServerBuilder
 {
   public static final int DEFAULT_NETTY_HTTP_SERVER_PORT = 8080;
   public static final int DEFAULT_THREAD_POOL_SIZE = 256;
+  public static final int DEFAULT_STARTUP_TIMEOUT_MILLIS = 10000;
+  public static final int DEFAULT_MAX_REQUEST_SIZE = 1048576;
 
   // The following fields are required.
   private TransportDispatcher _transportDispatcher = null;
@@ -45,8 +49,16 @@ public class HttpNettyServerBuilder
   private int _port = DEFAULT_NETTY_HTTP_SERVER_PORT;
   private int _threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
   private boolean _restOverStream = R2Constants.DEFAULT_REST_OVER_STREAM;
+  private NettyTransport _transport = NettyTransport.NIO;
+  private int _acceptorCount = 1;
+  private boolean _http2 = false;
+  private int _maxRequestSize = DEFAULT_MAX_REQUEST_SIZE;
+  private ServerDispatchMode _dispatchMode = ServerDispatchMode.EXECUTOR_GROUP;
+  private ServerDispatchStats _dispatchStats = new ServerDispatchStats();
+  private boolean _writeCoalescing = false;
 
   // The following fields are optional.
+  private Executor _dispatchExecutor = null;
   private SSLContext _sslContext = null;
   private SSLParameters _sslParameters = null;
 
@@ -92,17 +104,105 @@ public class HttpNettyServerBuilder
     return this;
   }
 
+  /**
+   * Sets the Netty transport of the server. If the transport is not available on the current platform, the server
+   * falls back to {@link NettyTransport#NIO}.
+   */
+  public HttpNettyServerBuilder transport(NettyTransport transport)
+  {
+    _transport = transport;
+    return this;
+  }
+
+  /**
+   * Sets the number of acceptors that bind the port with SO_REUSEPORT, so that the kernel balances incoming
+   * connections between them. Only used with {@link NettyTransport#EPOLL}.
+   */
+  public HttpNettyServerBuilder acceptorCount(int acceptorCount)
+  {
+    _acceptorCount = acceptorCount;
+    return this;
+  }
+
+  /**
+   * Enables HTTP/2 in addition to HTTP/1.1: negotiated with ALPN when an {@link SSLContext} is set, and with an
+   * upgrade to h2c or prior knowledge otherwise. HTTP/2 requests are always dispatched as streams, with the request
+   * and response entities flow-controlled per stream.
+   */
+  public HttpNettyServerBuilder enableHttp2(boolean http2)
+  {
+    _http2 = http2;
+    return this;
+  }
+
+  /**
+   * Sets the maximum size of the request entities, in bytes.
+   */
+  public HttpNettyServerBuilder maxRequestSize(int maxRequestSize)
+  {
+    _maxRequestSize = maxRequestSize;
+    return this;
+  }
+
+  /**
+   * Sets where the dispatcher runs for the requests read by the event loops, see {@link ServerDispatchMode}.
+   * {@link ServerDispatchMode#EXECUTOR} also needs {@link #dispatchExecutor(Executor)}.
+   */
+  public HttpNettyServerBuilder dispatchMode(ServerDispatchMode dispatchMode)
+  {
+    _dispatchMode = dispatchMode;
+    return this;
+  }
+
+  /**
+   * Sets the executor of the dispatcher with {@link ServerDispatchMode#EXECUTOR}. The server does not shut it down.
+   */
+  public HttpNettyServerBuilder dispatchExecutor(Executor dispatchExecutor)
+  {
+    _dispatchExecutor = dispatchExecutor;
+    return this;
+  }
+
+  /**
+   * Sets the statistics the server records the queue depth and latency of the hops to the dispatcher into.
+   */
+  public HttpNettyServerBuilder dispatchStats(ServerDispatchStats dispatchStats)
+  {
+    _dispatchStats = dispatchStats;
+    return this;
+  }
+
+  /**
+   * Consolidates the flushes of the HTTP/1.1 responses written in the same event loop iteration, so that the
+   * responses to pipelined requests, and the headers and chunks of a streamed response, leave with fewer system
+   * calls and packets, at the cost of a flush delayed to the end of the iteration.
+   */
+  public HttpNettyServerBuilder writeCoalescing(boolean writeCoalescing)
+  {
+    _writeCoalescing = writeCoalescing;
+    return this;
+  }
+
   public HttpNettyServer build()
   {
     validateParameters();
     final TransportDispatcher filterDispatcher = new FilterChainDispatcher(_transportDispatcher, _filters);
     final HttpDispatcher dispatcher = HttpDispatcherFactory.create((filterDispatcher));
-    return new HttpNettyServer(_port, _threadPoolSize, dispatcher, _sslContext, _sslParameters);
+    return new HttpNettyServer(_port, _threadPoolSize, dispatcher, R2Constants.DEFAULT_REST_OVER_STREAM, _sslContext,
+        _sslParameters, DEFAULT_STARTUP_TIMEOUT_MILLIS, _transport, _acceptorCount, _http2, _maxRequestSize,
+        _dispatchMode, _dispatchExecutor, _dispatchStats, _writeCoalescing);
   }
 
   private void validateParameters()
   {
     ArgumentUtil.notNull(_transportDispatcher, "transportDispatcher");
     ArgumentUtil.notNull(_filters, "filters");
+    ArgumentUtil.notNull(_transport, "transport");
+    ArgumentUtil.notNull(_dispatchMode, "dispatchMode");
+    ArgumentUtil.notNull(_dispatchStats, "dispatchStats");
+    if (_dispatchMode == ServerDispatchMode.EXECUTOR)
+    {
+      ArgumentUtil.notNull(_dispatchExecutor, "dispatchExecutor");
+    }
   }
 }
@@ -18,42 +18,120 @@ package com.linkedin.r2.transport.http.server;
 
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.netty.common.SslHandlerUtil;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.HttpMessage;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AsciiString;
+import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.EventExecutorGroup;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
 
 
-public class HttpNettyServerPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+/**
+ * Sets up the pipeline of the connections accepted by {@link HttpNettyServer}.
+ *
+ * Without HTTP/2, requests are aggregated and decoded into {@link RestRequest}s.
+ *
+ * With HTTP/2 over TLS, the protocol is negotiated with ALPN: h2 connections get an HTTP/2 frame codec and a
+ * multiplex handler, which creates a stream channel set up by {@link Http2ServerStreamChannelInitializer} for each
+ * request, and http/1.1 connections get the handlers above. In clear text, connections starting with the HTTP/2
+ * preface (prior knowledge) and HTTP/1.1 requests to upgrade to h2c switch to HTTP/2, and the others are served
+ * with HTTP/1.1.
+ */
+public class HttpNettyServerPipelineInitializer extends ChannelInitializer<SocketChannel>
 {
+  private static final long MAX_INITIAL_STREAM_WINDOW_SIZE = 8 * 1024 * 1024;
+  private static final boolean IS_CLIENT = false;
+
   private final SSLContext _sslContext;
   private final SSLParameters _sslParameters;
   private final EventExecutorGroup _eventExecutors;
+  private final Executor _dispatchExecutor;
+  private final ServerDispatchStats _dispatchStats;
   private final boolean _restOverStream;
   private final HttpDispatcher _dispatcher;
+  private final boolean _http2;
+  private final int _maxRequestSize;
+  private final boolean _writeCoalescing;
 
 
   HttpNettyServerPipelineInitializer(HttpDispatcher dispatcher, EventExecutorGroup eventExecutors,
                                      SSLContext sslContext, SSLParameters sslParameters,
                                      boolean restOverStream)
+  {
+    this(dispatcher, eventExecutors, null, new ServerDispatchStats(), sslContext, sslParameters, restOverStream, false,
+        HttpNettyServerBuilder.DEFAULT_MAX_REQUEST_SIZE, false);
+  }
+
+  /**
+   * @param eventExecutors executor group dispatching the requests with {@link ServerDispatchMode#EXECUTOR_GROUP}.
+   * @param dispatchExecutor executor dispatching the requests with {@link ServerDispatchMode#EXECUTOR}. Requests are
+   *                         dispatched on the event loops if neither executor is set.
+   * @param writeCoalescing whether the HTTP/1.1 connections consolidate their flushes, see
+   *                        {@link FlushConsolidationHandler}. Not applied to connections upgraded from clear text
+   *                        HTTP/1.1 to h2c, whose protocol is only known after the first request.
+   */
+  HttpNettyServerPipelineInitializer(HttpDispatcher dispatcher, EventExecutorGroup eventExecutors,
+                                     Executor dispatchExecutor, ServerDispatchStats dispatchStats,
+                                     SSLContext sslContext, SSLParameters sslParameters,
+                                     boolean restOverStream, boolean http2, int maxRequestSize,
+                                     boolean writeCoalescing)
   {
     _dispatcher = dispatcher;
     _sslContext = sslContext;
     _sslParameters = sslParameters;
     _eventExecutors = eventExecutors;
+    _dispatchExecutor = dispatchExecutor;
+    _dispatchStats = dispatchStats;
     _restOverStream = restOverStream;
+    _http2 = http2;
+    _maxRequestSize = maxRequestSize;
+    _writeCoalescing = writeCoalescing;
   }
 
   @Override
-  protected void initChannel(NioSocketChannel ch) throws Exception
+  protected void initChannel(SocketChannel ch) throws Exception
   {
     SslHandlerUtil.validateSslParameters(_sslContext, _sslParameters);
+    if (_http2)
+    {
+      if (_sslContext != null)
+      {
+        configureHttp2Ssl(ch);
+      }
+      else
+      {
+        configureHttp2ClearText(ch);
+      }
+      return;
+    }
+
     // If _sslContext is not NULL, we should first add SSL handler to the pipeline to secure the channel.
     if (_sslContext != null)
     {
@@ -61,13 +139,150 @@ public class HttpNettyServerPipelineInitializer extends ChannelInitializer<NioSo
       ch.pipeline().addLast(SslHandlerUtil.PIPELINE_SSL_HANDLER, sslHandler);
     }
 
+    addFlushConsolidation(ch.pipeline());
     ch.pipeline().addLast("decoder", new HttpRequestDecoder());
-    ch.pipeline().addLast("aggregator", new HttpObjectAggregator(1048576));
     ch.pipeline().addLast("encoder", new HttpResponseEncoder());
-    ch.pipeline().addLast("rapi", new RAPServerCodec());
+    addHttp1Handlers(ch.pipeline());
+  }
 
+  /**
+   * Adds the handler consolidating the flushes of the HTTP/1.1 responses, before the HTTP codec and after the
+   * SslHandler so that the responses flushed together are also encrypted together. Flushes are consolidated while
+   * a read is in progress, which covers the responses to pipelined requests dispatched on the event loop, and until
+   * the end of the event loop iteration otherwise, which covers the responses written from other threads.
+   */
+  private void addFlushConsolidation(ChannelPipeline pipeline)
+  {
+    if (_writeCoalescing)
+    {
+      pipeline.addLast("flushConsolidation",
+          new FlushConsolidationHandler(FlushConsolidationHandler.DEFAULT_EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+    }
+  }
+
+  /**
+   * Adds the handlers that aggregate and dispatch HTTP/1.1 requests, after the HTTP codec.
+   */
+  private void addHttp1Handlers(ChannelPipeline pipeline)
+  {
+    pipeline.addLast("aggregator", new HttpObjectAggregator(_maxRequestSize));
+    pipeline.addLast("rapi", new RAPServerCodec());
+
+    final DispatchExecutor dispatchExecutor = newDispatchExecutor();
     final SimpleChannelInboundHandler<RestRequest> restHandler = _restOverStream ?
-        new PipelineStreamHandler(_dispatcher) : new PipelineRestHandler(_dispatcher);
-    ch.pipeline().addLast(_eventExecutors, "handler", restHandler);
+        new PipelineStreamHandler(_dispatcher, dispatchExecutor) : new PipelineRestHandler(_dispatcher, dispatchExecutor);
+    pipeline.addLast("handler", restHandler);
+  }
+
+  /**
+   * Creates the {@link DispatchExecutor} of a connection or HTTP/2 stream. Like a handler added with an executor
+   * group, all of its requests are dispatched by the same executor of the group.
+   */
+  private DispatchExecutor newDispatchExecutor()
+  {
+    return new DispatchExecutor(_eventExecutors != null ? _eventExecutors.next() : _dispatchExecutor, _dispatchStats);
+  }
+
+  /**
+   * Configures the pipeline for TLS with ALPN negotiation of h2 or http/1.1.
+   */
+  private void configureHttp2Ssl(SocketChannel ch)
+  {
+    ch.pipeline().addLast(SslHandlerUtil.PIPELINE_SSL_HANDLER, createSslContext().newHandler(ch.alloc()));
+    ch.pipeline().addLast(new ApplicationProtocolNegotiationHandler(ApplicationProtocolNames.HTTP_1_1)
+    {
+      @Override
+      protected void configurePipeline(ChannelHandlerContext ctx, String protocol)
+      {
+        if (ApplicationProtocolNames.HTTP_2.equals(protocol))
+        {
+          addHttp2Handlers(ctx.pipeline());
+        }
+        else
+        {
+          addFlushConsolidation(ctx.pipeline());
+          ctx.pipeline().addLast("codec", new HttpServerCodec());
+          addHttp1Handlers(ctx.pipeline());
+        }
+      }
+    });
+  }
+
+  /**
+   * Configures the pipeline for clear text, with HTTP/2 prior knowledge or upgrade to h2c, and HTTP/1.1 otherwise.
+   */
+  private void configureHttp2ClearText(SocketChannel ch)
+  {
+    final HttpServerCodec sourceCodec = new HttpServerCodec();
+    final HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(sourceCodec,
+        protocol -> AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)
+            ? new Http2ServerUpgradeCodec(newHttp2FrameCodecBuilder().build(), newHttp2MultiplexHandler())
+            : null,
+        _maxRequestSize);
+    final ChannelInitializer<Channel> priorKnowledgeInitializer = new ChannelInitializer<Channel>()
+    {
+      @Override
+      protected void initChannel(Channel channel)
+      {
+        addHttp2Handlers(channel.pipeline());
+      }
+    };
+
+    ch.pipeline().addLast(new CleartextHttp2ServerUpgradeHandler(sourceCodec, upgradeHandler, priorKnowledgeInitializer));
+    // Requests that do not upgrade reach this handler, which replaces itself with the HTTP/1.1 handlers.
+    ch.pipeline().addLast(new SimpleChannelInboundHandler<HttpMessage>()
+    {
+      @Override
+      protected void channelRead0(ChannelHandlerContext ctx, HttpMessage msg)
+      {
+        addHttp1Handlers(ctx.pipeline());
+        ctx.pipeline().remove(this);
+        ctx.fireChannelRead(ReferenceCountUtil.retain(msg));
+      }
+    });
+  }
+
+  private void addHttp2Handlers(ChannelPipeline pipeline)
+  {
+    pipeline.addLast(newHttp2FrameCodecBuilder().build());
+    pipeline.addLast(newHttp2MultiplexHandler());
+  }
+
+  private Http2FrameCodecBuilder newHttp2FrameCodecBuilder()
+  {
+    final Http2Settings settings = new Http2Settings();
+    // Together with the buffer of the request entity stream writer, this bounds the request data held per stream.
+    settings.initialWindowSize((int) Math.min(MAX_INITIAL_STREAM_WINDOW_SIZE, _maxRequestSize));
+    return Http2FrameCodecBuilder.forServer().initialSettings(settings);
+  }
+
+  private Http2MultiplexHandler newHttp2MultiplexHandler()
+  {
+    final Http2ServerStreamChannelInitializer streamInitializer =
+        new Http2ServerStreamChannelInitializer(_dispatcher, this::newDispatchExecutor, _maxRequestSize);
+    // The request sent to upgrade to h2c is answered on stream 1, like any other HTTP/2 request.
+    return new Http2MultiplexHandler(streamInitializer, streamInitializer);
+  }
+
+  @SuppressWarnings("deprecation")
+  private JdkSslContext createSslContext()
+  {
+    // Like the HTTP/2 client, builds from the existing SSLContext and SSLParameters, which SslContextBuilder
+    // does not support.
+    return new JdkSslContext(
+        _sslContext,
+        IS_CLIENT,
+        _sslParameters == null || _sslParameters.getCipherSuites() == null
+            ? null : Arrays.asList(_sslParameters.getCipherSuites()),
+        IdentityCipherSuiteFilter.INSTANCE,
+        new ApplicationProtocolConfig(
+            ApplicationProtocolConfig.Protocol.ALPN,
+            ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+            ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+            ApplicationProtocolNames.HTTP_2,
+            ApplicationProtocolNames.HTTP_1_1),
+        _sslParameters == null ? ClientAuth.NONE
+            : _sslParameters.getNeedClientAuth() ? ClientAuth.REQUIRE
+            : _sslParameters.getWantClientAuth() ? ClientAuth.OPTIONAL : ClientAuth.NONE);
   }
 }
@@ -28,6 +28,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,10 +37,12 @@ class PipelineRestHandler extends SimpleChannelInboundHandler<RestRequest>
 {
   private static final Logger LOG = LoggerFactory.getLogger(PipelineRestHandler.class);
   private final HttpDispatcher _dispatcher;
+  private final DispatchExecutor _dispatchExecutor;
 
-  PipelineRestHandler(HttpDispatcher dispatcher)
+  PipelineRestHandler(HttpDispatcher dispatcher, DispatchExecutor dispatchExecutor)
   {
     _dispatcher = dispatcher;
+    _dispatchExecutor = dispatchExecutor;
   }
 
   @Override
@@ -75,6 +78,18 @@ class PipelineRestHandler extends SimpleChannelInboundHandler<RestRequest>
         ch.writeAndFlush(responseBuilder.build());
       }
     };
+    try
+    {
+      _dispatchExecutor.execute(() -> handleRequest(request, writeResponseCallback));
+    }
+    catch (RejectedExecutionException ex)
+    {
+      writeResponseCallback.onResponse(TransportResponseImpl.<RestResponse> error(ex, Collections.<String, String> emptyMap()));
+    }
+  }
+
+  private void handleRequest(RestRequest request, TransportCallback<RestResponse> writeResponseCallback)
+  {
     try
     {
       _dispatcher.handleRequest(request, writeResponseCallback);
@@ -84,6 +99,7 @@ class PipelineRestHandler extends SimpleChannelInboundHandler<RestRequest>
       writeResponseCallback.onResponse(TransportResponseImpl.<RestResponse> error(ex, Collections.<String, String> emptyMap()));
     }
   }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
   {
@@ -31,6 +31,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,10 +40,12 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
 {
   private static final Logger LOG = LoggerFactory.getLogger(PipelineStreamHandler.class);
   private final HttpDispatcher _dispatcher;
+  private final DispatchExecutor _dispatchExecutor;
 
-  PipelineStreamHandler(HttpDispatcher dispatcher)
+  PipelineStreamHandler(HttpDispatcher dispatcher, DispatchExecutor dispatchExecutor)
   {
     _dispatcher = dispatcher;
+    _dispatchExecutor = dispatchExecutor;
   }
 
   private void writeError(Channel ch, TransportResponse<StreamResponse> response, Throwable ex)
@@ -101,6 +104,19 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
         }
       }
     };
+    try
+    {
+      _dispatchExecutor.execute(() -> handleRequest(request, writeResponseCallback));
+    }
+    catch (RejectedExecutionException ex)
+    {
+      writeResponseCallback.onResponse(TransportResponseImpl.<StreamResponse> error(ex,
+          Collections.<String, String> emptyMap()));
+    }
+  }
+
+  private void handleRequest(RestRequest request, TransportCallback<StreamResponse> writeResponseCallback)
+  {
     try
     {
       _dispatcher.handleRequest(Messages.toStreamRequest(request), writeResponseCallback);
@@ -112,6 +128,7 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
     }
   }
 
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
   {
@@ -0,0 +1,40 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+/**
+ * Where {@link HttpNettyServer} runs the {@link HttpDispatcher} for the requests read by its event loops.
+ */
+public enum ServerDispatchMode
+{
+  /**
+   * On a server owned group of threadPoolSize threads, with all the requests of a connection, or of an HTTP/2 stream,
+   * dispatched by the same thread. Suited to resources that block.
+   */
+  EXECUTOR_GROUP,
+
+  /**
+   * Directly on the event loop that read the request, without any hop. Only suited to resources that never block,
+   * such as ParSeq tasks or resources returning a CompletionStage.
+   */
+  EVENT_LOOP,
+
+  /**
+   * On an executor provided by the application, e.g. one creating a virtual thread per request.
+   */
+  EXECUTOR
+}
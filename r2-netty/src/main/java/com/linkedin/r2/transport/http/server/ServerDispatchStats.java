@@ -0,0 +1,113 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Statistics of the hop of requests from the event loops of {@link HttpNettyServer} to the threads running the
+ * {@link HttpDispatcher}, to compare the {@link ServerDispatchMode}s of a deployment.
+ *
+ * The queue depth is the number of requests handed to the executor and not yet started. The hop latency is the time
+ * between the hand-off and the start of the dispatch, which is zero with {@link ServerDispatchMode#EVENT_LOOP}.
+ * Instances are thread safe and may be shared by several servers.
+ */
+public final class ServerDispatchStats
+{
+  private final AtomicInteger _queueDepth = new AtomicInteger();
+  private final AtomicInteger _maxQueueDepth = new AtomicInteger();
+  private final LongAdder _dispatchCount = new LongAdder();
+  private final LongAdder _rejectedCount = new LongAdder();
+  private final LongAdder _totalHopLatencyNanos = new LongAdder();
+  private final AtomicLong _maxHopLatencyNanos = new AtomicLong();
+
+  void onQueued()
+  {
+    final int queueDepth = _queueDepth.incrementAndGet();
+    _maxQueueDepth.accumulateAndGet(queueDepth, Math::max);
+  }
+
+  void onRejected()
+  {
+    _queueDepth.decrementAndGet();
+    _rejectedCount.increment();
+  }
+
+  void onDispatched(long hopLatencyNanos)
+  {
+    _queueDepth.decrementAndGet();
+    onDispatchedInline(hopLatencyNanos);
+  }
+
+  void onDispatchedInline(long hopLatencyNanos)
+  {
+    _dispatchCount.increment();
+    _totalHopLatencyNanos.add(hopLatencyNanos);
+    _maxHopLatencyNanos.accumulateAndGet(hopLatencyNanos, Math::max);
+  }
+
+  /**
+   * @return number of requests waiting for a thread of the executor.
+   */
+  public int getQueueDepth()
+  {
+    return _queueDepth.get();
+  }
+
+  /**
+   * @return highest number of requests that waited for a thread of the executor at the same time.
+   */
+  public int getMaxQueueDepth()
+  {
+    return _maxQueueDepth.get();
+  }
+
+  /**
+   * @return number of requests dispatched.
+   */
+  public long getDispatchCount()
+  {
+    return _dispatchCount.sum();
+  }
+
+  /**
+   * @return number of requests the executor rejected, which were answered with an error.
+   */
+  public long getRejectedCount()
+  {
+    return _rejectedCount.sum();
+  }
+
+  public long getTotalHopLatencyNanos()
+  {
+    return _totalHopLatencyNanos.sum();
+  }
+
+  public long getMaxHopLatencyNanos()
+  {
+    return _maxHopLatencyNanos.get();
+  }
+
+  public double getAverageHopLatencyNanos()
+  {
+    final long dispatchCount = getDispatchCount();
+    return dispatchCount == 0 ? 0 : (double) getTotalHopLatencyNanos() / dispatchCount;
+  }
+}
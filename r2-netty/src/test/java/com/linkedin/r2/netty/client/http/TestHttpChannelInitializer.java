@@ -0,0 +1,77 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.netty.client.http;
+
+import com.linkedin.r2.netty.handler.common.SessionResumptionSslHandler;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import java.util.List;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestHttpChannelInitializer
+{
+  private static final int MAX_SIZE = 8192;
+
+  @Test
+  public void testWriteCoalescing()
+  {
+    List<String> names = initPipeline(null, null, true).names();
+
+    Assert.assertEquals(names.indexOf("flushConsolidation"), names.indexOf("codec") - 1);
+  }
+
+  @Test
+  public void testWriteCoalescingWithSsl() throws Exception
+  {
+    ChannelPipeline pipeline = initPipeline(SSLContext.getDefault(), new SSLParameters(), true);
+    List<String> names = pipeline.names();
+
+    Assert.assertTrue(pipeline.get("flushConsolidation") instanceof FlushConsolidationHandler);
+    // The SslHandler takes the place of the session resumption handler once the channel is active
+    Assert.assertTrue(names.indexOf(SessionResumptionSslHandler.PIPELINE_SESSION_RESUMPTION_HANDLER)
+        < names.indexOf("flushConsolidation"));
+    Assert.assertEquals(names.indexOf("flushConsolidation"), names.indexOf("codec") - 1);
+  }
+
+  @Test
+  public void testNoWriteCoalescing() throws Exception
+  {
+    Assert.assertNull(initPipeline(null, null, false).get(FlushConsolidationHandler.class));
+    Assert.assertNull(initPipeline(SSLContext.getDefault(), new SSLParameters(), false)
+        .get(FlushConsolidationHandler.class));
+  }
+
+  private static ChannelPipeline initPipeline(SSLContext sslContext, SSLParameters sslParameters,
+      boolean writeCoalescing)
+  {
+    // The channel is not registered, so that the handlers are only added
+    ChannelPipeline pipeline = new EmbeddedChannel(false, false).pipeline();
+    SocketChannel channel = Mockito.mock(SocketChannel.class);
+    Mockito.when(channel.pipeline()).thenReturn(pipeline);
+
+    new HttpChannelInitializer(sslContext, sslParameters, MAX_SIZE, MAX_SIZE, MAX_SIZE, MAX_SIZE, false, MAX_SIZE,
+        writeCoalescing).initChannel(channel);
+    return pipeline;
+  }
+}
@@ -19,6 +19,8 @@ package com.linkedin.r2.netty.common;
 import com.linkedin.data.ByteString;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
 import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamRequestBuilder;
 import com.linkedin.r2.message.stream.entitystream.ByteStringWriter;
@@ -225,4 +227,22 @@ public class TestNettyRequestAdapter
     Assert.assertNotNull(cookies);
     Assert.assertEquals(cookies.size(), 10);
   }
+
+  @Test
+  public void testResponseToHttp2Headers()
+  {
+    RestResponse response = new RestResponseBuilder()
+        .setStatus(404)
+        .setHeader("Header1", "value1")
+        .setHeader(HttpHeaderNames.CONNECTION.toString(), "close")
+        .setCookies(ANY_COOKIES)
+        .build();
+
+    Http2Headers headers = NettyRequestAdapter.toHttp2Headers(response);
+
+    Assert.assertEquals(headers.status(), "404");
+    Assert.assertEquals(headers.get("header1"), "value1");
+    Assert.assertFalse(headers.contains(HttpHeaderNames.CONNECTION));
+    Assert.assertEquals(headers.getAll(HttpHeaderNames.SET_COOKIE).size(), ANY_COOKIES.size());
+  }
 }
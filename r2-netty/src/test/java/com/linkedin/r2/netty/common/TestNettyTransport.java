@@ -0,0 +1,76 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.netty.common;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.util.concurrent.Executors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestNettyTransport
+{
+  @Test
+  public void testResolve()
+  {
+    Assert.assertEquals(NettyTransport.resolve(null), NettyTransport.NIO);
+    Assert.assertEquals(NettyTransport.resolve(NettyTransport.NIO), NettyTransport.NIO);
+    Assert.assertEquals(NettyTransport.resolve(NettyTransport.EPOLL),
+        Epoll.isAvailable() ? NettyTransport.EPOLL : NettyTransport.NIO);
+    Assert.assertTrue(NettyTransport.NIO.isAvailable());
+  }
+
+  @Test
+  public void testChannelClasses()
+  {
+    Assert.assertEquals(NettyTransport.NIO.getChannelClass(), NioSocketChannel.class);
+    Assert.assertEquals(NettyTransport.NIO.getServerChannelClass(), NioServerSocketChannel.class);
+    Assert.assertEquals(NettyTransport.EPOLL.getChannelClass(), EpollSocketChannel.class);
+    Assert.assertEquals(NettyTransport.EPOLL.getServerChannelClass(), EpollServerSocketChannel.class);
+  }
+
+  @Test
+  public void testEventLoopGroup() throws Exception
+  {
+    NettyTransport transport = NettyTransport.resolve(NettyTransport.EPOLL);
+    EventLoopGroup eventLoopGroup = transport.newEventLoopGroup(1, Executors.defaultThreadFactory());
+    try
+    {
+      Assert.assertEquals(NettyTransport.of(eventLoopGroup), transport);
+    }
+    finally
+    {
+      eventLoopGroup.shutdownGracefully().sync();
+    }
+
+    NioEventLoopGroup nioEventLoopGroup = new NioEventLoopGroup(1);
+    try
+    {
+      Assert.assertEquals(NettyTransport.of(nioEventLoopGroup), NettyTransport.NIO);
+    }
+    finally
+    {
+      nioEventLoopGroup.shutdownGracefully().sync();
+    }
+  }
+}
@@ -46,6 +46,53 @@ public class TestChannelPoolManagerKey
     Assert.assertEquals(IDLE_TIMEOUT, plainKey.getIdleTimeout());
   }
 
+  @Test
+  public void testEventLoopAffinity()
+  {
+    ChannelPoolManagerKey plainKey = getKeyBuilder().build();
+    ChannelPoolManagerKey affineKey = getKeyBuilder().setEventLoopAffinity(true).build();
+    Assert.assertFalse(plainKey.isEventLoopAffinity());
+    Assert.assertTrue(affineKey.isEventLoopAffinity());
+    Assert.assertNotEquals(plainKey, affineKey);
+    Assert.assertNotEquals(plainKey.getName(), affineKey.getName());
+    Assert.assertEquals(getKeyBuilder().setEventLoopAffinity(false).build(), plainKey);
+  }
+
+  @Test
+  public void testAdaptivePoolSizing()
+  {
+    ChannelPoolManagerKey plainKey = getKeyBuilder().build();
+    ChannelPoolManagerKey adaptiveKey = getKeyBuilder().setAdaptivePoolSizing(true).build();
+    ChannelPoolManagerKey affineKey = getKeyBuilder().setEventLoopAffinity(true).build();
+    Assert.assertFalse(plainKey.isAdaptivePoolSizing());
+    Assert.assertTrue(adaptiveKey.isAdaptivePoolSizing());
+    Assert.assertNotEquals(plainKey, adaptiveKey);
+    Assert.assertNotEquals(plainKey.getName(), adaptiveKey.getName());
+    Assert.assertNotEquals(affineKey.getName(), adaptiveKey.getName());
+  }
+
+  @Test
+  public void testWriteCoalescing()
+  {
+    ChannelPoolManagerKey plainKey = getKeyBuilder().build();
+    ChannelPoolManagerKey coalescingKey = getKeyBuilder().setWriteCoalescing(true).build();
+    Assert.assertFalse(plainKey.isWriteCoalescing());
+    Assert.assertTrue(coalescingKey.isWriteCoalescing());
+    Assert.assertNotEquals(plainKey, coalescingKey);
+    Assert.assertNotEquals(plainKey.getName(), coalescingKey.getName());
+  }
+
+  @Test
+  public void testConcurrentPool()
+  {
+    ChannelPoolManagerKey plainKey = getKeyBuilder().build();
+    ChannelPoolManagerKey concurrentKey = getKeyBuilder().setConcurrentPool(true).build();
+    Assert.assertFalse(plainKey.isConcurrentPool());
+    Assert.assertTrue(concurrentKey.isConcurrentPool());
+    Assert.assertNotEquals(plainKey, concurrentKey);
+    Assert.assertNotEquals(plainKey.getName(), concurrentKey.getName());
+  }
+
   private ChannelPoolManagerKeyBuilder getKeyBuilder()
   {
     return new ChannelPoolManagerKeyBuilder().setSslIdleTimeout(SSL_IDLE_TIMEOUT).setIdleTimeout(IDLE_TIMEOUT);
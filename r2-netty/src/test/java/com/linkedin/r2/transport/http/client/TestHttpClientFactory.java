@@ -31,6 +31,7 @@ import com.linkedin.r2.testutils.server.HttpServerBuilder;
 import com.linkedin.r2.transport.common.Client;
 import com.linkedin.r2.transport.common.bridge.client.TransportClient;
 import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.http.client.common.ChannelPoolManager;
 import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -41,12 +42,15 @@ import org.testng.annotations.Test;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -124,6 +128,82 @@ public class TestHttpClientFactory
     }
   }
 
+  @DataProvider
+  public static Object[][] poolConfigs()
+  {
+    return new Object[][] {
+      { true, false },
+      { true, true },
+      { false, false },
+      { false, true },
+    };
+  }
+
+  @Test(dataProvider = "poolConfigs")
+  public void testConcurrentPool(boolean restOverStream, boolean concurrentPool) throws Exception
+  {
+    List<ChannelPoolManager> channelPoolManagers = new CopyOnWriteArrayList<>();
+    AbstractJmxManager jmxManager = new AbstractJmxManager()
+    {
+      @Override
+      public void onProviderCreate(PoolStatsProvider provider)
+      {
+        channelPoolManagers.add((ChannelPoolManager) provider);
+      }
+
+      @Override
+      public void onProviderShutdown(PoolStatsProvider provider)
+      {
+      }
+    };
+    HttpClientFactory factory = new HttpClientFactory.Builder()
+        .setEventLoopGroup(new NioEventLoopGroup())
+        .setShutDownFactory(true)
+        .setScheduleExecutorService(Executors.newSingleThreadScheduledExecutor())
+        .setShutdownScheduledExecutorService(true)
+        .setJmxManager(jmxManager)
+        .build();
+
+    Server server = new HttpServerBuilder().build();
+    try
+    {
+      server.start();
+      HashMap<String, String> properties = new HashMap<>();
+      properties.put(HttpClientFactory.HTTP_PROTOCOL_VERSION, HTTP_1_1);
+      if (concurrentPool)
+      {
+        properties.put(HttpClientFactory.HTTP_POOL_CONCURRENT, "true");
+      }
+      Client client = new TransportClientAdapter(factory.getClient(properties), restOverStream);
+      for (int i = 0; i < 10; i++)
+      {
+        RestRequest r = new RestRequestBuilder(new URI(URI)).build();
+        Assert.assertEquals(client.restRequest(r).get(30, TimeUnit.SECONDS).getStatus(), 200);
+      }
+
+      // The rest and stream clients each have a plain and an SSL channel pool manager
+      Assert.assertEquals(channelPoolManagers.size(), 4);
+      SocketAddress address = new InetSocketAddress(new URI(URI).getHost(), new URI(URI).getPort());
+      for (ChannelPoolManager channelPoolManager : channelPoolManagers)
+      {
+        Assert.assertEquals(channelPoolManager.getPoolForAddress(address) instanceof ConcurrentAsyncPoolImpl,
+            concurrentPool);
+      }
+
+      FutureCallback<None> clientShutdown = new FutureCallback<>();
+      client.shutdown(clientShutdown);
+      clientShutdown.get(30, TimeUnit.SECONDS);
+
+      FutureCallback<None> factoryShutdown = new FutureCallback<>();
+      factory.shutdown(factoryShutdown);
+      factoryShutdown.get(30, TimeUnit.SECONDS);
+    }
+    finally
+    {
+      server.stop();
+    }
+  }
+
   @DataProvider
   public static Object[][] configs()
   {
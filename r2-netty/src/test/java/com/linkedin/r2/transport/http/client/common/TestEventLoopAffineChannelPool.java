@@ -0,0 +1,357 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client.common;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.transport.http.client.AsyncPool;
+import com.linkedin.r2.transport.http.client.AsyncPoolLifecycleStats;
+import com.linkedin.r2.transport.http.client.AsyncPoolStats;
+import com.linkedin.r2.transport.http.client.PoolStats;
+import com.linkedin.r2.util.Cancellable;
+import io.netty.channel.Channel;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import io.netty.channel.local.LocalChannel;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestEventLoopAffineChannelPool
+{
+  private static final int EVENT_LOOPS = 2;
+
+  private DefaultEventLoopGroup _eventLoopGroup;
+
+  @BeforeClass
+  public void doBeforeClass()
+  {
+    _eventLoopGroup = new DefaultEventLoopGroup(EVENT_LOOPS);
+  }
+
+  @AfterClass
+  public void doAfterClass()
+  {
+    _eventLoopGroup.shutdownGracefully();
+  }
+
+  @DataProvider
+  public Object[][] poolLimits()
+  {
+    return new Object[][] {
+        // maxSize, minSize, maxWaiters, maxConcurrentConnectionInitializations, partitions
+        {5, 1, 7, 3, EVENT_LOOPS},
+        {1, 1, 1, 1, 1},
+        {8, 0, 1, Integer.MAX_VALUE, EVENT_LOOPS},
+        {8, 3, Integer.MAX_VALUE, 1, 1},
+        {Integer.MAX_VALUE, 0, 0, Integer.MAX_VALUE, EVENT_LOOPS},
+    };
+  }
+
+  @Test(dataProvider = "poolLimits")
+  public void testPartitionSizes(int maxSize, int minSize, int maxWaiters, int maxConcurrentConnectionInitializations,
+      int expectedPartitions)
+  {
+    int[] sums = new int[4];
+    List<EventLoop> eventLoops = new ArrayList<>();
+    new EventLoopAffineChannelPool("pool", _eventLoopGroup, maxSize, minSize, maxWaiters,
+        maxConcurrentConnectionInitializations, (eventLoop, partitionMaxSize, partitionMinSize, partitionMaxWaiters,
+            partitionMaxConcurrentConnectionInitializations) -> {
+          Assert.assertTrue(partitionMaxSize > 0);
+          Assert.assertTrue(partitionMaxConcurrentConnectionInitializations > 0);
+          sums[0] += partitionMaxSize;
+          sums[1] += partitionMinSize;
+          sums[2] += partitionMaxWaiters;
+          sums[3] += partitionMaxConcurrentConnectionInitializations;
+          eventLoops.add(eventLoop);
+          return new PartitionPool(eventLoop, partitionMaxSize);
+        });
+    Assert.assertEquals(eventLoops.size(), expectedPartitions);
+    Assert.assertEquals(eventLoops.stream().distinct().count(), expectedPartitions);
+    // The limits of the pool are split between the partitions, not multiplied
+    Assert.assertEquals(sums[0], maxSize);
+    Assert.assertEquals(sums[1], minSize);
+    Assert.assertEquals(sums[2], maxWaiters);
+    Assert.assertEquals(sums[3], maxConcurrentConnectionInitializations);
+  }
+
+  @Test
+  public void testEventLoopWithoutPartitionBorrows() throws Exception
+  {
+    List<PartitionPool> partitions = new ArrayList<>();
+    EventLoopAffineChannelPool pool = newPool(partitions, 1);
+    pool.start();
+    Assert.assertEquals(partitions.size(), 1);
+
+    for (EventExecutor executor : _eventLoopGroup)
+    {
+      Channel channel = getOn((EventLoop) executor, pool);
+      Assert.assertSame(channel.eventLoop(), partitions.get(0)._eventLoop);
+      pool.put(channel);
+    }
+    Assert.assertEquals(partitions.get(0)._puts, EVENT_LOOPS);
+  }
+
+  @Test
+  public void testWaitsOnPartitionTakingWaiters() throws Exception
+  {
+    List<PartitionPool> partitions = new ArrayList<>();
+    List<Integer> maxWaiters = new ArrayList<>();
+    EventLoopAffineChannelPool pool = new EventLoopAffineChannelPool("pool", _eventLoopGroup, EVENT_LOOPS, 0, 1,
+        EVENT_LOOPS, (eventLoop, maxSize, minSize, partitionMaxWaiters, maxConcurrentConnectionInitializations) -> {
+          PartitionPool partition = new PartitionPool(eventLoop, maxSize);
+          partitions.add(partition);
+          maxWaiters.add(partitionMaxWaiters);
+          return partition;
+        });
+    pool.start();
+    Assert.assertEquals(maxWaiters, Arrays.asList(1, 0));
+
+    // Exhaust both partitions, then wait from the loop of the partition that takes no waiter
+    EventLoop eventLoop = partitions.get(1)._eventLoop;
+    getOn(eventLoop, pool);
+    getOn(eventLoop, pool);
+    getOn(eventLoop, pool);
+    Assert.assertEquals(partitions.get(0)._checkedOut, 2);
+    Assert.assertEquals(partitions.get(1)._checkedOut, 1);
+  }
+
+  @Test
+  public void testPrefersCurrentEventLoop() throws Exception
+  {
+    List<PartitionPool> partitions = new ArrayList<>();
+    EventLoopAffineChannelPool pool = newPool(partitions, EVENT_LOOPS);
+    pool.start();
+
+    for (PartitionPool partition : partitions)
+    {
+      Channel channel = getOn(partition._eventLoop, pool);
+      Assert.assertSame(channel.eventLoop(), partition._eventLoop);
+      pool.put(channel);
+      Assert.assertEquals(partition._puts, 1);
+    }
+  }
+
+  @Test
+  public void testPrefersEventLoopConstructingThePool() throws Exception
+  {
+    List<PartitionPool> partitions = new ArrayList<>();
+    EventLoop eventLoop = (EventLoop) _eventLoopGroup.iterator().next();
+    FutureCallback<Channel> callback = new FutureCallback<>();
+    // The partitions are known to the event loops as soon as the pool is constructed, even on one of the loops
+    eventLoop.submit(() -> newPool(partitions, EVENT_LOOPS).get(callback)).get(5, TimeUnit.SECONDS);
+    Assert.assertSame(partitions.get(0)._eventLoop, eventLoop);
+    Assert.assertSame(callback.get(5, TimeUnit.SECONDS).eventLoop(), eventLoop);
+  }
+
+  @Test
+  public void testFallsBackWhenExhausted() throws Exception
+  {
+    List<PartitionPool> partitions = new ArrayList<>();
+    EventLoopAffineChannelPool pool = newPool(partitions, EVENT_LOOPS);
+    pool.start();
+
+    EventLoop eventLoop = partitions.get(0)._eventLoop;
+    Channel first = getOn(eventLoop, pool);
+    Assert.assertSame(first.eventLoop(), eventLoop);
+
+    // The partition of the event loop has a single channel, which is checked out
+    Channel second = getOn(eventLoop, pool);
+    Assert.assertSame(second.eventLoop(), partitions.get(1)._eventLoop);
+
+    // Channels go back to the partition of their event loop
+    pool.dispose(second);
+    Assert.assertEquals(partitions.get(1)._disposes, 1);
+    pool.put(first);
+    Channel third = getOn(eventLoop, pool);
+    Assert.assertSame(third.eventLoop(), eventLoop);
+
+    PoolStats stats = pool.getStats();
+    Assert.assertEquals(stats.getMaxPoolSize(), EVENT_LOOPS);
+    Assert.assertEquals(stats.getCheckedOut(), 1);
+  }
+
+  @Test
+  public void testStatsAggregatePartitions() throws Exception
+  {
+    List<PartitionPool> partitions = new ArrayList<>();
+    EventLoopAffineChannelPool pool = newPool(partitions, EVENT_LOOPS);
+    partitions.get(0)._createTime = 10;
+    partitions.get(1)._createTime = 30;
+
+    PoolStats.LifecycleStats stats = pool.getStats().getLifecycleStats();
+    Assert.assertEquals(stats.getCreateTimeAvg(), 20D);
+    Assert.assertEquals(stats.getCreateTime50Pct(), 30);
+    Assert.assertEquals(stats.getCreateTime95Pct(), 30);
+    Assert.assertEquals(stats.getCreateTime99Pct(), 30);
+  }
+
+  @Test
+  public void testOtherThreadsSpreadOverPartitions() throws Exception
+  {
+    List<PartitionPool> partitions = new ArrayList<>();
+    EventLoopAffineChannelPool pool = newPool(partitions, 10);
+    pool.start();
+
+    for (int i = 0; i < EVENT_LOOPS * 3; i++)
+    {
+      FutureCallback<Channel> callback = new FutureCallback<>();
+      pool.get(callback);
+      callback.get(5, TimeUnit.SECONDS);
+    }
+    for (PartitionPool partition : partitions)
+    {
+      Assert.assertEquals(partition._checkedOut, 3);
+    }
+
+    FutureCallback<None> shutdown = new FutureCallback<>();
+    pool.shutdown(shutdown);
+    shutdown.get(5, TimeUnit.SECONDS);
+    for (PartitionPool partition : partitions)
+    {
+      Assert.assertTrue(partition._shutdown);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testPutForeignChannel() throws Exception
+  {
+    EventLoopAffineChannelPool pool = newPool(new ArrayList<>(), EVENT_LOOPS);
+    DefaultEventLoopGroup otherGroup = new DefaultEventLoopGroup(1);
+    try
+    {
+      LocalChannel channel = new LocalChannel();
+      otherGroup.register(channel).sync();
+      pool.put(channel);
+    }
+    finally
+    {
+      otherGroup.shutdownGracefully();
+    }
+  }
+
+  private EventLoopAffineChannelPool newPool(List<PartitionPool> partitions, int maxSize)
+  {
+    return new EventLoopAffineChannelPool("pool", _eventLoopGroup, maxSize, 0, Integer.MAX_VALUE, Integer.MAX_VALUE,
+        (eventLoop, partitionMaxSize, minSize, maxWaiters, maxConcurrentConnectionInitializations) -> {
+          PartitionPool partition = new PartitionPool(eventLoop, partitionMaxSize);
+          partitions.add(partition);
+          return partition;
+        });
+  }
+
+  private static Channel getOn(EventLoop eventLoop, AsyncPool<Channel> pool) throws Exception
+  {
+    FutureCallback<Channel> callback = new FutureCallback<>();
+    eventLoop.submit(() -> pool.get(callback)).get(5, TimeUnit.SECONDS);
+    return callback.get(5, TimeUnit.SECONDS);
+  }
+
+  /**
+   * A partition that creates channels registered on its event loop and records how they are returned.
+   */
+  private static class PartitionPool implements AsyncPool<Channel>
+  {
+    private final EventLoop _eventLoop;
+    private final int _maxSize;
+    private int _checkedOut;
+    private int _puts;
+    private int _disposes;
+    private boolean _shutdown;
+    private long _createTime;
+
+    private PartitionPool(EventLoop eventLoop, int maxSize)
+    {
+      _eventLoop = eventLoop;
+      _maxSize = maxSize;
+    }
+
+    @Override
+    public String getName()
+    {
+      return "partition";
+    }
+
+    @Override
+    public void start()
+    {
+    }
+
+    @Override
+    public void shutdown(Callback<None> callback)
+    {
+      _shutdown = true;
+      callback.onSuccess(None.none());
+    }
+
+    @Override
+    public Collection<Callback<Channel>> cancelWaiters()
+    {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public synchronized Cancellable get(Callback<Channel> callback)
+    {
+      LocalChannel channel = new LocalChannel();
+      _eventLoop.register(channel).addListener(future -> {
+        if (future.isSuccess())
+        {
+          callback.onSuccess(channel);
+        }
+        else
+        {
+          callback.onError(future.cause());
+        }
+      });
+      _checkedOut++;
+      return () -> false;
+    }
+
+    @Override
+    public synchronized void put(Channel obj)
+    {
+      _checkedOut--;
+      _puts++;
+    }
+
+    @Override
+    public synchronized void dispose(Channel obj)
+    {
+      _checkedOut--;
+      _disposes++;
+    }
+
+    @Override
+    public synchronized PoolStats getStats()
+    {
+      return new AsyncPoolStats(0, 0, 0, 0, 0, 0, 0, 0, _checkedOut, _maxSize, 0, _checkedOut, 0, 0, 0L, 0, 0D, 0L,
+          0L, 0L, new AsyncPoolLifecycleStats(_createTime, _createTime, _createTime, _createTime));
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestDispatchExecutor
+{
+  @Test
+  public void testInlineDispatch()
+  {
+    ServerDispatchStats stats = new ServerDispatchStats();
+    DispatchExecutor dispatchExecutor = new DispatchExecutor(null, stats);
+
+    Thread[] dispatchThread = new Thread[1];
+    dispatchExecutor.execute(() -> dispatchThread[0] = Thread.currentThread());
+
+    Assert.assertSame(dispatchThread[0], Thread.currentThread());
+    Assert.assertEquals(stats.getDispatchCount(), 1);
+    Assert.assertEquals(stats.getQueueDepth(), 0);
+    Assert.assertEquals(stats.getMaxQueueDepth(), 0);
+    Assert.assertEquals(stats.getAverageHopLatencyNanos(), 0.0);
+  }
+
+  @Test
+  public void testExecutorDispatch()
+  {
+    ServerDispatchStats stats = new ServerDispatchStats();
+    List<Runnable> queue = new ArrayList<>();
+    DispatchExecutor dispatchExecutor = new DispatchExecutor(queue::add, stats);
+
+    int[] dispatched = new int[1];
+    dispatchExecutor.execute(() -> dispatched[0]++);
+    dispatchExecutor.execute(() -> dispatched[0]++);
+    Assert.assertEquals(dispatched[0], 0);
+    Assert.assertEquals(stats.getQueueDepth(), 2);
+
+    queue.forEach(Runnable::run);
+    Assert.assertEquals(dispatched[0], 2);
+    Assert.assertEquals(stats.getQueueDepth(), 0);
+    Assert.assertEquals(stats.getMaxQueueDepth(), 2);
+    Assert.assertEquals(stats.getDispatchCount(), 2);
+    Assert.assertTrue(stats.getMaxHopLatencyNanos() >= 0);
+    Assert.assertTrue(stats.getTotalHopLatencyNanos() >= stats.getMaxHopLatencyNanos());
+  }
+
+  @Test
+  public void testRejectedDispatch()
+  {
+    ServerDispatchStats stats = new ServerDispatchStats();
+    Executor rejectingExecutor = command ->
+    {
+      throw new RejectedExecutionException();
+    };
+    DispatchExecutor dispatchExecutor = new DispatchExecutor(rejectingExecutor, stats);
+
+    try
+    {
+      dispatchExecutor.execute(() -> Assert.fail("Rejected dispatch should not run"));
+      Assert.fail("Expected RejectedExecutionException");
+    }
+    catch (RejectedExecutionException e)
+    {
+      // expected
+    }
+    Assert.assertEquals(stats.getQueueDepth(), 0);
+    Assert.assertEquals(stats.getRejectedCount(), 1);
+    Assert.assertEquals(stats.getDispatchCount(), 0);
+  }
+}
@@ -0,0 +1,75 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.r2.netty.common.SslHandlerUtil;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.ssl.SslHandler;
+import java.util.List;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestHttpNettyServerPipelineInitializer
+{
+  @Test
+  public void testWriteCoalescing() throws Exception
+  {
+    List<String> names = initPipeline(null, null, true).names();
+
+    Assert.assertEquals(names.indexOf("flushConsolidation"), names.indexOf("decoder") - 1);
+  }
+
+  @Test
+  public void testWriteCoalescingWithSsl() throws Exception
+  {
+    ChannelPipeline pipeline = initPipeline(SSLContext.getDefault(), new SSLParameters(), true);
+    List<String> names = pipeline.names();
+
+    Assert.assertTrue(pipeline.get(SslHandlerUtil.PIPELINE_SSL_HANDLER) instanceof SslHandler);
+    Assert.assertTrue(pipeline.get("flushConsolidation") instanceof FlushConsolidationHandler);
+    Assert.assertEquals(names.indexOf(SslHandlerUtil.PIPELINE_SSL_HANDLER), names.indexOf("flushConsolidation") - 1);
+    Assert.assertEquals(names.indexOf("flushConsolidation"), names.indexOf("decoder") - 1);
+  }
+
+  @Test
+  public void testNoWriteCoalescing() throws Exception
+  {
+    Assert.assertNull(initPipeline(null, null, false).get(FlushConsolidationHandler.class));
+    Assert.assertNull(initPipeline(SSLContext.getDefault(), new SSLParameters(), false)
+        .get(FlushConsolidationHandler.class));
+  }
+
+  private static ChannelPipeline initPipeline(SSLContext sslContext, SSLParameters sslParameters,
+      boolean writeCoalescing) throws Exception
+  {
+    // The channel is not registered, so that the handlers are only added
+    ChannelPipeline pipeline = new EmbeddedChannel(false, false).pipeline();
+    SocketChannel channel = Mockito.mock(SocketChannel.class);
+    Mockito.when(channel.pipeline()).thenReturn(pipeline);
+
+    new HttpNettyServerPipelineInitializer(null, null, null, new ServerDispatchStats(), sslContext, sslParameters,
+        false, false, HttpNettyServerBuilder.DEFAULT_MAX_REQUEST_SIZE, writeCoalescing).initChannel(channel);
+    return pipeline;
+  }
+}
@@ -17,6 +17,8 @@
 /* $Id$ */
 package test.r2.perf;
 
+import com.linkedin.r2.netty.common.NettyTransport;
+import com.linkedin.r2.transport.http.server.ServerDispatchMode;
 import java.lang.reflect.Field;
 import java.net.URI;
 
@@ -42,6 +44,10 @@ public class PerfConfig
   private static final String PERF_SERVER_NUM_HEADERS = "perf.server.num_headers";
   private static final String PERF_CLIENT_HEADER_SIZE = "perf.client.header_size";
   private static final String PERF_SERVER_HEADER_SIZE = "perf.server.header_size";
+  private static final String PERF_CLIENT_TRANSPORT = "perf.client.transport";
+  private static final String PERF_SERVER_TRANSPORT = "perf.server.transport";
+  private static final String PERF_SERVER_ACCEPTORS = "perf.server.acceptors";
+  private static final String PERF_SERVER_DISPATCH = "perf.server.dispatch";
 
   // Default property values
   private static final String DEFAULT_HOST = "localhost";
@@ -60,6 +66,11 @@ public class PerfConfig
   private static final int DEFAULT_SERVER_NUM_HEADERS = 0;
   private static final int DEFAULT_SERVER_HEADER_SIZE = 0;
 
+  private static final String DEFAULT_CLIENT_TRANSPORT = NettyTransport.NIO.name();
+  private static final String DEFAULT_SERVER_TRANSPORT = NettyTransport.NIO.name();
+  private static final int DEFAULT_SERVER_ACCEPTORS = 1;
+  private static final String DEFAULT_SERVER_DISPATCH = ServerDispatchMode.EXECUTOR_GROUP.name();
+
   public static int getHttpPort()
   {
     return getInt(PERF_HTTP_PORT);
@@ -105,6 +116,26 @@ public class PerfConfig
     return getInt(PERF_SERVER_HEADER_SIZE);
   }
 
+  public static NettyTransport getClientTransport()
+  {
+    return NettyTransport.valueOf(getString(PERF_CLIENT_TRANSPORT).toUpperCase());
+  }
+
+  public static NettyTransport getServerTransport()
+  {
+    return NettyTransport.valueOf(getString(PERF_SERVER_TRANSPORT).toUpperCase());
+  }
+
+  public static int getServerAcceptors()
+  {
+    return getInt(PERF_SERVER_ACCEPTORS);
+  }
+
+  public static ServerDispatchMode getServerDispatchMode()
+  {
+    return ServerDispatchMode.valueOf(getString(PERF_SERVER_DISPATCH).toUpperCase());
+  }
+
   public static URI getRelativeUri()
   {
     return getUri(PERF_RELATIVE_URI);
@@ -34,7 +34,6 @@ import java.util.Collections;
 import java.util.concurrent.Executors;
 
 import com.linkedin.r2.util.NamedThreadFactory;
-import io.netty.channel.nio.NioEventLoopGroup;
 import test.r2.perf.Generator;
 import test.r2.perf.PerfConfig;
 
@@ -46,7 +45,7 @@ import test.r2.perf.PerfConfig;
 public class PerfClients
 {
   private static final TransportClientFactory FACTORY = new HttpClientFactory.Builder()
-      .setEventLoopGroup(new NioEventLoopGroup(0 /* use default settings */, new NamedThreadFactory("R2 Nio Event Loop")))
+      .setTransport(PerfConfig.getClientTransport())
       .setShutDownFactory(true)
       .setScheduleExecutorService(Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("R2 Netty Scheduler")))
       .setShutdownScheduledExecutorService(true)
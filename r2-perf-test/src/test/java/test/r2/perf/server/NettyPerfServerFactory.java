@@ -0,0 +1,47 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.perf.server;
+
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.transport.common.Server;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import com.linkedin.r2.transport.http.server.HttpNettyServerBuilder;
+import com.linkedin.r2.transport.http.server.ServerDispatchMode;
+import java.util.concurrent.Executors;
+import test.r2.perf.PerfConfig;
+
+/**
+ * Creates a Netty {@link Server} with the transport, number of acceptors and dispatch mode from {@link PerfConfig},
+ * to compare the NIO and native epoll transports, and the dispatch modes.
+ */
+public class NettyPerfServerFactory extends AbstractPerfServerFactory
+{
+  @Override
+  protected Server createServer(int port, TransportDispatcher dispatcher, boolean restOverStream)
+  {
+    final ServerDispatchMode dispatchMode = PerfConfig.getServerDispatchMode();
+    return new HttpNettyServerBuilder()
+        .filters(FilterChains.empty())
+        .port(port)
+        .transportDispatcher(dispatcher)
+        .transport(PerfConfig.getServerTransport())
+        .acceptorCount(PerfConfig.getServerAcceptors())
+        .dispatchMode(dispatchMode)
+        .dispatchExecutor(dispatchMode == ServerDispatchMode.EXECUTOR ? Executors.newCachedThreadPool() : null)
+        .build();
+  }
+}
@@ -0,0 +1,148 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.restli.internal.server.response;
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BenchmarkDataShape;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.transform.filter.request.MaskTree;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.restli.common.ResourceMethod;
+import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.internal.common.AllProtocolVersions;
+import com.linkedin.restli.internal.server.PathKeysImpl;
+import com.linkedin.restli.internal.server.ResourceContextImpl;
+import com.linkedin.restli.internal.server.RoutingResult;
+import com.linkedin.restli.internal.server.methods.AnyRecord;
+import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
+import com.linkedin.restli.internal.server.util.RestLiSyntaxException;
+import com.linkedin.restli.server.RestLiResponseData;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Projects the elements of the {@link BenchmarkDataShape#COLLECTION} shape through {@link GetAllResponseBuilder},
+ * which projects every element with the mask of the request the way rest.li servers build collection responses,
+ * with and without compiled projection.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GetAllProjectionBenchmark
+{
+  public enum MaskShape
+  {
+    /**
+     * A few fields, like a typical client projection.
+     */
+    SPARSE("{\"field0\": 1, \"field4\": 1, \"nested\": {\"field1\": 1}}"),
+
+    /**
+     * Most fields.
+     */
+    DENSE("{\"field0\": 1, \"field1\": 1, \"field2\": 1, \"field3\": 1, \"field4\": 1, \"field5\": 1, \"field6\": 1, "
+        + "\"field7\": 1, \"field8\": 1, \"field9\": 1, \"field10\": 1, \"field11\": 1, \"field12\": 1, "
+        + "\"field13\": 1, \"field14\": 1, \"field15\": 1, \"field16\": 1, \"field17\": 1, \"field18\": 1, "
+        + "\"field19\": 1, \"tags\": 1, \"nested\": 1}"),
+
+    /**
+     * A nested array projection.
+     */
+    RANGE("{\"field0\": 1, \"tags\": {\"$start\": 0, \"$count\": 2}}");
+
+    private final String _json;
+
+    MaskShape(String json)
+    {
+      _json = json;
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class GetAllState
+  {
+    @Param
+    MaskShape _maskShape;
+
+    @Param({"false", "true"})
+    boolean _useCompiledProjection;
+
+    List<AnyRecord> _elements = new ArrayList<>();
+    MaskTree _elementMask;
+    RestRequest _request;
+    ResourceMethodDescriptor _methodDescriptor;
+    GetAllResponseBuilder _builder = new GetAllResponseBuilder();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+      for (Object element : BenchmarkDataShape.COLLECTION.create().getDataList("elements"))
+      {
+        _elements.add(new AnyRecord((DataMap) element));
+      }
+      // Resources are projected with the mask of their elements
+      _elementMask = new MaskTree(new JacksonDataCodec().stringToMap(_maskShape._json));
+      _request = new RestRequestBuilder(URI.create("/benchmark"))
+          .setHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION,
+              AllProtocolVersions.LATEST_PROTOCOL_VERSION.toString())
+          .build();
+      _methodDescriptor = ResourceMethodDescriptor.createForRestful(ResourceMethod.GET_ALL,
+          BenchmarkResource.class.getMethod("getAll"), ResourceMethodDescriptor.InterfaceType.SYNC);
+    }
+  }
+
+  public static class BenchmarkResource
+  {
+    public List<AnyRecord> getAll()
+    {
+      return Collections.emptyList();
+    }
+  }
+
+  @Benchmark
+  public RestLiResponseData<GetAllResponseEnvelope> getAll(GetAllState state) throws RestLiSyntaxException
+  {
+    // Like a rest.li server, use a new resource context for every request
+    final ResourceContextImpl context =
+        new ResourceContextImpl(new PathKeysImpl(), state._request, new RequestContext());
+    context.setProjectionMask(state._elementMask);
+    context.setUseCompiledProjection(state._useCompiledProjection);
+    return state._builder.buildRestLiResponseData(state._request,
+        new RoutingResult(context, state._methodDescriptor), state._elements, Collections.emptyMap(),
+        Collections.emptyList());
+  }
+}
@@ -60,6 +60,7 @@ public interface RestConstants
   String HEADER_CONTENT_ID = "Content-ID";
   String HEADER_SERVICE_SCOPED_PATH = "x-restli-service-scoped-path";
   String HEADER_FETCH_SYMBOL_TABLE = "x-restli-symbol-table-request";
+  String HEADER_FETCH_COMPRESSION_DICTIONARY = "x-restli-compression-dictionary-request";
 
   // Default supported mime types.
   Set<String> SUPPORTED_MIME_TYPES = new LinkedHashSet<>(
@@ -97,6 +97,15 @@ public class TestLatencyInstrumentation extends RestLiIntegrationTest
   // These timing keys will not be present when using protocol 2.0.0
   private static final Set<TimingKey> TIMING_KEYS_MISSING_ON_PROTOCOL_2_0_0 =
       Collections.singleton(FrameworkTimingKeys.SERVER_REQUEST_RESTLI_URI_PARSE_1.key());
+  // These timing keys depend on the transport client, the type of the request and the reuse of pooled connections.
+  // They are phases of the transport, between the R2 request and response timings rather than within them.
+  private static final Set<TimingKey> TIMING_KEYS_OF_TRANSPORT =
+      new HashSet<>(Arrays.asList(FrameworkTimingKeys.CLIENT_REQUEST_R2_POOL_WAIT.key(),
+          FrameworkTimingKeys.CLIENT_REQUEST_R2_CONNECT.key(),
+          FrameworkTimingKeys.CLIENT_REQUEST_R2_WRITE.key(),
+          FrameworkTimingKeys.CLIENT_RESPONSE_R2_WAIT.key(),
+          FrameworkTimingKeys.CLIENT_RESPONSE_R2_READ.key(),
+          FrameworkTimingKeys.CLIENT_RESPONSE_R2_DECODE.key()));
 
   private static final double NANOS_TO_MILLIS = .000001;
 
@@ -261,6 +270,8 @@ public class TestLatencyInstrumentation extends RestLiIntegrationTest
         })
         // Expect some keys to be missing since using protocol 2.0.0
         .filter(timingKey -> !TIMING_KEYS_MISSING_ON_PROTOCOL_2_0_0.contains(timingKey))
+        // Transport keys may or may not be present
+        .filter(timingKey -> !TIMING_KEYS_OF_TRANSPORT.contains(timingKey))
         // Only expect keys that are included by the current timing importance threshold
         .filter(timingKey -> timingImportanceThreshold == null ||
             TIMING_KEYS_ALWAYS_PRESENT.contains(timingKey) ||
@@ -270,9 +281,8 @@ public class TestLatencyInstrumentation extends RestLiIntegrationTest
     // Check that all keys have complete timings (not -1) and that there are no unexpected keys
     for (TimingKey timingKey : _resultMap.keySet())
     {
-      if (expectedKeys.contains(timingKey))
+      if (expectedKeys.remove(timingKey) || TIMING_KEYS_OF_TRANSPORT.contains(timingKey))
       {
-        expectedKeys.remove(timingKey);
         Assert.assertNotEquals(_resultMap.get(timingKey).getDurationNano(), -1, timingKey.getName() + " is -1");
       }
       else if (timingKey.getName().contains(FrameworkTimingKeys.KEY_PREFIX))
@@ -301,7 +311,7 @@ public class TestLatencyInstrumentation extends RestLiIntegrationTest
     for (int i = 0; i < size; i++)
     {
       TimingKey keyA = entrySet.get(i).getKey();
-      if (!keyA.getName().contains(FrameworkTimingKeys.KEY_PREFIX))
+      if (!keyA.getName().contains(FrameworkTimingKeys.KEY_PREFIX) || TIMING_KEYS_OF_TRANSPORT.contains(keyA))
       {
         continue;
       }
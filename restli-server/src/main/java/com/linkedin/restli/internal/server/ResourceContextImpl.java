@@ -21,6 +21,7 @@ import com.linkedin.data.ByteString;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.template.StringArray;
+import com.linkedin.data.transform.filter.CompiledProjector;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.jersey.api.uri.UriComponent;
 import com.linkedin.r2.message.Request;
@@ -44,7 +45,9 @@ import com.linkedin.restli.internal.common.QueryParamsDataMap;
 import com.linkedin.restli.internal.common.URIParamUtils;
 import com.linkedin.restli.internal.server.util.ArgumentUtils;
 import com.linkedin.restli.internal.server.util.MIMEParse;
+import com.linkedin.restli.internal.server.util.ResponseEncodingProjector;
 import com.linkedin.restli.internal.server.util.RestLiSyntaxException;
+import com.linkedin.restli.server.ProjectionMaskCache;
 import com.linkedin.restli.server.ProjectionMode;
 import com.linkedin.restli.server.RestLiResponseAttachments;
 import com.linkedin.restli.server.RestLiServiceException;
@@ -116,6 +119,17 @@ public class ResourceContextImpl implements ServerResourceContext
   // Fill in default values
   private boolean _fillInDefaultValues;
 
+  // Project entities with compiled projection masks
+  private boolean _useCompiledProjection;
+
+  // Projection mask last compiled, and the result, which is null if the mask cannot be compiled
+  private MaskTree _compiledProjectionMask;
+  private CompiledProjector _compiledProjector;
+
+  // Project the response entities while they are encoded, and the projection left to apply if it is deferred
+  private boolean _projectWhileEncoding;
+  private ResponseEncodingProjector _responseEncodingProjector;
+
   /**
    * Default constructor.
    *
@@ -142,6 +156,24 @@ public class ResourceContextImpl implements ServerResourceContext
   public ResourceContextImpl(final MutablePathKeys pathKeys,
                              final Request request,
                              final RequestContext requestContext) throws RestLiSyntaxException
+  {
+    this(pathKeys, request, requestContext, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param pathKeys path keys object
+   * @param request request
+   * @param requestContext context for the request
+   * @param projectionMaskCache cache of parsed projection masks, or null to always parse them
+   * @throws RestLiSyntaxException if the syntax of query parameters in the request is
+   *           incorrect
+   */
+  public ResourceContextImpl(final MutablePathKeys pathKeys,
+                             final Request request,
+                             final RequestContext requestContext,
+                             final ProjectionMaskCache projectionMaskCache) throws RestLiSyntaxException
   {
     _pathKeys = pathKeys;
     _request = request;
@@ -186,7 +218,7 @@ public class ResourceContextImpl implements ServerResourceContext
 
     if (_parameters.containsKey(RestConstants.FIELDS_PARAM))
     {
-      _projectionMask = ArgumentUtils.parseProjectionParameter(getParameter(RestConstants.FIELDS_PARAM));
+      _projectionMask = parseProjectionParameter(getParameter(RestConstants.FIELDS_PARAM), projectionMaskCache);
     }
     else
     {
@@ -195,7 +227,7 @@ public class ResourceContextImpl implements ServerResourceContext
 
     if (_parameters.containsKey(RestConstants.METADATA_FIELDS_PARAM))
     {
-      _metadataProjectionMask = ArgumentUtils.parseProjectionParameter(getParameter(RestConstants.METADATA_FIELDS_PARAM));
+      _metadataProjectionMask = parseProjectionParameter(getParameter(RestConstants.METADATA_FIELDS_PARAM), projectionMaskCache);
     }
     else
     {
@@ -204,7 +236,7 @@ public class ResourceContextImpl implements ServerResourceContext
 
     if (_parameters.containsKey(RestConstants.PAGING_FIELDS_PARAM))
     {
-      _pagingProjectionMask = ArgumentUtils.parseProjectionParameter(getParameter(RestConstants.PAGING_FIELDS_PARAM));
+      _pagingProjectionMask = parseProjectionParameter(getParameter(RestConstants.PAGING_FIELDS_PARAM), projectionMaskCache);
     }
     else
     {
@@ -220,6 +252,14 @@ public class ResourceContextImpl implements ServerResourceContext
     _fillInDefaultValues = getParameter(RestConstants.FILL_IN_DEFAULTS_PARAM) != null;
   }
 
+  private static MaskTree parseProjectionParameter(String projectionParam, ProjectionMaskCache projectionMaskCache)
+      throws RestLiSyntaxException
+  {
+    return projectionMaskCache == null
+        ? ArgumentUtils.parseProjectionParameter(projectionParam)
+        : projectionMaskCache.getProjectionMask(projectionParam);
+  }
+
   private static boolean isResponseAttachmentsAllowed(Request request)
   {
     final String acceptTypeHeader = request.getHeader(RestConstants.HEADER_ACCEPT);
@@ -653,6 +693,62 @@ public class ResourceContextImpl implements ServerResourceContext
     _fillInDefaultValues = fillInDefaultValues || _fillInDefaultValues;
   }
 
+  @Override
+  public boolean shouldUseCompiledProjection()
+  {
+    return _useCompiledProjection;
+  }
+
+  @Override
+  public void setUseCompiledProjection(boolean useCompiledProjection)
+  {
+    _useCompiledProjection = useCompiledProjection;
+  }
+
+  /**
+   * Compiles the projection mask once per request, when the first entity is projected, rather than once per entity.
+   * The mask is compiled again if it is replaced with {@link #setProjectionMask(MaskTree)}, but changes made to the
+   * mask in place once entities are being projected are not picked up.
+   */
+  @Override
+  public CompiledProjector getCompiledProjector()
+  {
+    if (!_useCompiledProjection || _projectionMask == null)
+    {
+      return null;
+    }
+    if (_compiledProjectionMask != _projectionMask)
+    {
+      _compiledProjector = CompiledProjector.compile(_projectionMask.getDataMap());
+      _compiledProjectionMask = _projectionMask;
+    }
+    return _compiledProjector;
+  }
+
+  @Override
+  public boolean shouldProjectWhileEncoding()
+  {
+    return _projectWhileEncoding;
+  }
+
+  @Override
+  public void setProjectWhileEncoding(boolean projectWhileEncoding)
+  {
+    _projectWhileEncoding = projectWhileEncoding;
+  }
+
+  @Override
+  public ResponseEncodingProjector getResponseEncodingProjector()
+  {
+    return _responseEncodingProjector;
+  }
+
+  @Override
+  public void setResponseEncodingProjector(ResponseEncodingProjector responseEncodingProjector)
+  {
+    _responseEncodingProjector = responseEncodingProjector;
+  }
+
   @Override
   public Optional<Object> getCustomContextData(String key)
   {
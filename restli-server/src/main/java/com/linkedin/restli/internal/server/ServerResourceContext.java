@@ -28,6 +28,7 @@ import com.linkedin.entitystream.EntityStream;
 import com.linkedin.restli.common.ProtocolVersion;
 import com.linkedin.restli.common.ResourceMethod;
 import com.linkedin.restli.common.attachments.RestLiAttachmentReader;
+import com.linkedin.restli.internal.server.util.ResponseEncodingProjector;
 import com.linkedin.restli.server.ResourceContext;
 import com.linkedin.restli.server.RestLiServiceException;
 
@@ -200,4 +201,27 @@ public interface ServerResourceContext extends ResourceContext
    * @param alwaysProjectedFields Set of fields to include when projection is applied.
    */
   void setAlwaysProjectedFields(Set<String> alwaysProjectedFields);
-}
\ No newline at end of file
+
+  /**
+   * @return true if the response entities may be projected while they are encoded rather than before. It is only set
+   * for responses encoded with a stream codec,
+   * see {@link com.linkedin.restli.server.RestLiConfig#setProjectWhileEncoding(boolean)}.
+   */
+  default boolean shouldProjectWhileEncoding()
+  {
+    return false;
+  }
+
+  default void setProjectWhileEncoding(boolean projectWhileEncoding) {}
+
+  /**
+   * @return the projection that is left to apply while the response entities are encoded, or null if the response
+   * entities are already projected.
+   */
+  default ResponseEncodingProjector getResponseEncodingProjector()
+  {
+    return null;
+  }
+
+  default void setResponseEncodingProjector(ResponseEncodingProjector responseEncodingProjector) {}
+}
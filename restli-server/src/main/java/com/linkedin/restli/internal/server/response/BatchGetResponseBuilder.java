@@ -31,6 +31,7 @@ import com.linkedin.restli.internal.common.URIParamUtils;
 import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.methods.AnyRecord;
 import com.linkedin.restli.internal.server.response.BatchResponseEnvelope.BatchResponseEntry;
+import com.linkedin.restli.internal.server.util.ResponseEncodingProjector;
 import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.BatchResult;
 import com.linkedin.restli.server.RestLiResponseData;
@@ -166,6 +167,9 @@ public class BatchGetResponseBuilder implements RestLiResponseBuilder<RestLiResp
     TimingContextUtil.beginTiming(routingResult.getContext().getRawRequestContext(),
         FrameworkTimingKeys.SERVER_RESPONSE_RESTLI_PROJECTION_APPLY.key());
 
+    // The entities are projected here, unless their projection is left to the encoder.
+    final boolean projectEntities =
+        entities.isEmpty() || !ResponseEncodingProjector.deferResultsProjection(routingResult.getContext());
     Map<Object, BatchResponseEntry> batchResult = new HashMap<>(entities.size() + serviceErrors.size());
     for (Map.Entry<Object, RecordTemplate> entity : entities.entrySet())
     {
@@ -183,7 +187,8 @@ public class BatchGetResponseBuilder implements RestLiResponseBuilder<RestLiResp
         rawData = (DataMap) ResponseUtils.fillInDataDefault(entity.getValue().schema(), rawData);
       }
 
-      final DataMap projectedData = RestUtils.projectFields(rawData, routingResult.getContext());
+      final DataMap projectedData =
+          projectEntities ? RestUtils.projectFields(rawData, routingResult.getContext()) : rawData;
 
       AnyRecord anyRecord = new AnyRecord(projectedData);
       batchResult.put(finalKey, new BatchResponseEntry(statuses.get(entity.getKey()), anyRecord));
@@ -28,14 +28,15 @@ import com.linkedin.restli.common.CollectionMetadata;
 import com.linkedin.restli.common.CollectionResponse;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.internal.server.RoutingResult;
+import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.methods.AnyRecord;
+import com.linkedin.restli.internal.server.util.ResponseEncodingProjector;
 import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.CollectionResult;
 import com.linkedin.restli.server.CollectionResult.PageIncrement;
 import com.linkedin.restli.server.RestLiResponseData;
 import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.ProjectionMode;
-import com.linkedin.restli.server.ResourceContext;
 
 import java.net.HttpCookie;
 import java.util.ArrayList;
@@ -118,7 +119,7 @@ public abstract class CollectionResponseBuilder<D extends RestLiResponseData<? e
                                     final List<HttpCookie> cookies)
   {
     //Extract the resource context that contains projection information for root object entities, metadata and paging.
-    final ResourceContext resourceContext = routingResult.getContext();
+    final ServerResourceContext resourceContext = routingResult.getContext();
 
     //Calculate paging metadata and apply projection
     final CollectionMetadata paging =
@@ -144,7 +145,9 @@ public abstract class CollectionResponseBuilder<D extends RestLiResponseData<? e
     final CollectionMetadata projectedPaging = new CollectionMetadata(RestUtils.projectFields(paging.data(),
             ProjectionMode.AUTOMATIC, resourceContext.getPagingProjectionMask()));
 
-    //For root object entities
+    //For root object entities, unless their projection is left to the encoder
+    final boolean projectElements =
+        elements.isEmpty() || !ResponseEncodingProjector.deferElementsProjection(resourceContext);
     List<AnyRecord> processedElements = new ArrayList<>(elements.size());
     for (RecordTemplate entry : elements)
     {
@@ -159,7 +162,8 @@ public abstract class CollectionResponseBuilder<D extends RestLiResponseData<? e
       {
         rawData = (DataMap) ResponseUtils.fillInDataDefault(entry.schema(), rawData);
       }
-      processedElements.add(new AnyRecord(RestUtils.projectFields(rawData, resourceContext)));
+      processedElements.add(
+          new AnyRecord(projectElements ? RestUtils.projectFields(rawData, resourceContext) : rawData));
     }
 
     //Now for custom metadata
@@ -25,10 +25,11 @@ import com.linkedin.r2.message.timing.FrameworkTimingKeys;
 import com.linkedin.r2.message.timing.TimingContextUtil;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.internal.server.RoutingResult;
+import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.methods.AnyRecord;
+import com.linkedin.restli.internal.server.util.ResponseEncodingProjector;
 import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.GetResult;
-import com.linkedin.restli.server.ResourceContext;
 
 import com.linkedin.restli.server.RestLiResponseData;
 import java.net.HttpCookie;
@@ -75,7 +76,7 @@ public class GetResponseBuilder implements RestLiResponseBuilder<RestLiResponseD
       record = (RecordTemplate) result;
       status = HttpStatus.S_200_OK;
     }
-    final ResourceContext resourceContext = routingResult.getContext();
+    final ServerResourceContext resourceContext = routingResult.getContext();
     DataMap rawData = record.data();
     RecordDataSchema schema = record.schema();
     if (resourceContext.isFillInDefaultsRequested())
@@ -83,6 +84,13 @@ public class GetResponseBuilder implements RestLiResponseBuilder<RestLiResponseD
       rawData = (DataMap) ResponseUtils.fillInDataDefault(schema, rawData);
     }
 
+    if (ResponseEncodingProjector.deferEntityProjection(resourceContext))
+    {
+      // The entity is copied shallowly as response metadata is added to it.
+      return new RestLiResponseDataImpl<>(new GetResponseEnvelope(status, new AnyRecord(new DataMap(rawData))),
+          headers, cookies);
+    }
+
     TimingContextUtil.beginTiming(resourceContext.getRawRequestContext(),
         FrameworkTimingKeys.SERVER_RESPONSE_RESTLI_PROJECTION_APPLY.key());
 
@@ -47,6 +47,7 @@ import com.linkedin.restli.internal.server.model.ResourceModel;
 import com.linkedin.restli.internal.server.util.AlternativeKeyCoercerException;
 import com.linkedin.restli.internal.server.util.ArgumentUtils;
 import com.linkedin.restli.internal.server.util.DataMapUtils;
+import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.restspec.ResourceEntityType;
 import com.linkedin.restli.server.RestLiServiceException;
 import java.io.IOException;
@@ -198,7 +199,8 @@ public class ResponseUtils
                                                          .getResourceEntityType();
     if (restLiResponse.hasData() && ResourceEntityType.STRUCTURED_DATA == resourceEntityType)
     {
-      DataMap dataMap = restLiResponse.getDataMap();
+      // Projection left to the encoder is applied here as the entity is encoded with a codec that cannot project.
+      DataMap dataMap = RestUtils.projectResponseForEncoding(restLiResponse.getDataMap(), context);
       String mimeType = context.getResponseMimeType();
       URI requestUri = context.getRequestURI();
       Map<String, String> requestHeaders = context.getRequestHeaders();
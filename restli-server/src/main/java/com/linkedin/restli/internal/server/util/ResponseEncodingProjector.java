@@ -0,0 +1,236 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.util;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.DataMapBuilder;
+import com.linkedin.data.codec.entitystream.EncodingProjection;
+import com.linkedin.data.collections.CheckedUtil;
+import com.linkedin.data.transform.filter.CompiledProjector;
+import com.linkedin.restli.common.BatchResponse;
+import com.linkedin.restli.common.CollectionResponse;
+import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.internal.server.RestLiInternalException;
+import com.linkedin.restli.internal.server.ServerResourceContext;
+import com.linkedin.restli.server.ProjectionMode;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Projection of the entities of a response that is left to the encoder, see
+ * {@link com.linkedin.restli.server.RestLiConfig#setProjectWhileEncoding(boolean)}.
+ *
+ * <p>The entities are the response itself for GET, the elements of collection responses for FINDER and GET_ALL, and
+ * the results of BATCH_GET responses. The other parts of the response, e.g. paging, statuses, errors and response
+ * metadata, are encoded whole.</p>
+ *
+ * @see ServerResourceContext#getResponseEncodingProjector()
+ */
+public final class ResponseEncodingProjector
+{
+  private final CompiledProjector _projector;
+  private final Set<String> _alwaysIncludedFields;
+  // Field of the response that holds the entities, or null if the response is the entity
+  private final String _entitiesField;
+
+  private ResponseEncodingProjector(CompiledProjector projector, Set<String> alwaysIncludedFields,
+      String entitiesField)
+  {
+    _projector = projector;
+    _alwaysIncludedFields = alwaysIncludedFields;
+    _entitiesField = entitiesField;
+  }
+
+  /**
+   * Leave the projection of a GET response entity to the encoder if the given context allows it.
+   *
+   * @param resourceContext the context of the response.
+   * @return true if the projection is left to the encoder, and the entity must not be projected.
+   */
+  public static boolean deferEntityProjection(ServerResourceContext resourceContext)
+  {
+    return deferProjection(resourceContext, null);
+  }
+
+  /**
+   * Leave the projection of the elements of a collection response to the encoder if the given context allows it.
+   *
+   * @param resourceContext the context of the response.
+   * @return true if the projection is left to the encoder, and the elements must not be projected.
+   */
+  public static boolean deferElementsProjection(ServerResourceContext resourceContext)
+  {
+    return deferProjection(resourceContext, CollectionResponse.ELEMENTS);
+  }
+
+  /**
+   * Leave the projection of the results of a batch response to the encoder if the given context allows it.
+   *
+   * @param resourceContext the context of the response.
+   * @return true if the projection is left to the encoder, and the results must not be projected.
+   */
+  public static boolean deferResultsProjection(ServerResourceContext resourceContext)
+  {
+    return deferProjection(resourceContext, BatchResponse.RESULTS);
+  }
+
+  private static boolean deferProjection(ServerResourceContext resourceContext, String entitiesField)
+  {
+    // The compiled projector is checked first, as it is the only one of these that every response builder reads.
+    final CompiledProjector projector = resourceContext.getCompiledProjector();
+    if (projector == null || !resourceContext.shouldProjectWhileEncoding()
+        || resourceContext.getProjectionMode() != ProjectionMode.AUTOMATIC)
+    {
+      return false;
+    }
+
+    final Set<String> alwaysIncludedFields = new HashSet<>();
+    if (resourceContext.getAlwaysProjectedFields() != null)
+    {
+      alwaysIncludedFields.addAll(resourceContext.getAlwaysProjectedFields());
+    }
+    if (entitiesField == null)
+    {
+      // The response metadata is added to the entity after it would have been projected, so it is always included.
+      alwaysIncludedFields.add(RestConstants.METADATA_RESERVED_FIELD);
+    }
+    resourceContext.setResponseEncodingProjector(
+        new ResponseEncodingProjector(projector, alwaysIncludedFields, entitiesField));
+    return true;
+  }
+
+  /**
+   * @return the projection to apply while the response is encoded. It is meant to be used by a single encoder.
+   */
+  public EncodingProjection toEncodingProjection()
+  {
+    final EncodingProjection entityProjection = _projector.toEncodingProjection(_alwaysIncludedFields);
+    return _entitiesField == null
+        ? entityProjection
+        : new WholeProjection(_entitiesField, new WholeProjection(null, entityProjection));
+  }
+
+  /**
+   * Project the entities of the response, for encoders that cannot project while encoding.
+   *
+   * @param response the response data.
+   * @return a copy of the response in which the entities are projected. Other values are shared with the input.
+   */
+  public DataMap project(DataMap response)
+  {
+    try
+    {
+      if (_entitiesField == null)
+      {
+        return _projector.project(response, _alwaysIncludedFields);
+      }
+
+      final Object entities = response.get(_entitiesField);
+      final Object projectedEntities;
+      if (entities instanceof DataList)
+      {
+        final DataList elements = (DataList) entities;
+        final DataList projectedElements = new DataList(elements.size());
+        for (Object element : elements)
+        {
+          CheckedUtil.addWithoutChecking(projectedElements, projectEntity(element));
+        }
+        projectedEntities = projectedElements;
+      }
+      else if (entities instanceof DataMap)
+      {
+        final DataMap results = (DataMap) entities;
+        final DataMap projectedResults =
+            new DataMap(DataMapBuilder.getOptimumHashMapCapacityFromSize(results.size()));
+        for (Map.Entry<String, Object> entry : results.entrySet())
+        {
+          CheckedUtil.putWithoutChecking(projectedResults, entry.getKey(), projectEntity(entry.getValue()));
+        }
+        projectedEntities = projectedResults;
+      }
+      else
+      {
+        return response;
+      }
+
+      final DataMap projectedResponse = new DataMap(response);
+      CheckedUtil.putWithoutChecking(projectedResponse, _entitiesField, projectedEntities);
+      return projectedResponse;
+    }
+    catch (RuntimeException e)
+    {
+      throw new RestLiInternalException("Error projecting fields", e);
+    }
+  }
+
+  private Object projectEntity(Object entity)
+  {
+    return entity instanceof DataMap ? _projector.project((DataMap) entity, _alwaysIncludedFields) : entity;
+  }
+
+  /**
+   * Writes a map or list whole, and applies a projection to the value of one field, or to every value.
+   */
+  private static final class WholeProjection implements EncodingProjection
+  {
+    // The field whose value is projected, or null to project every value
+    private final String _field;
+    private final EncodingProjection _valueProjection;
+
+    private WholeProjection(String field, EncodingProjection valueProjection)
+    {
+      _field = field;
+      _valueProjection = valueProjection;
+    }
+
+    @Override
+    public Collection<Map.Entry<String, Object>> selectEntries(DataMap map)
+    {
+      return map.entrySet();
+    }
+
+    @Override
+    public EncodingProjection getFieldProjection(String key)
+    {
+      return _field == null || _field.equals(key) ? _valueProjection : null;
+    }
+
+    @Override
+    public int getStart()
+    {
+      return 0;
+    }
+
+    @Override
+    public int getCount()
+    {
+      return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public EncodingProjection getElementProjection()
+    {
+      return _field == null ? _valueProjection : null;
+    }
+  }
+}
@@ -18,6 +18,7 @@ package com.linkedin.restli.internal.server.util;
 
 
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.entitystream.EncodingProjection;
 import com.linkedin.data.collections.CheckedUtil;
 import com.linkedin.data.element.DataElement;
 import com.linkedin.data.it.Builder;
@@ -25,6 +26,7 @@ import com.linkedin.data.it.IterationOrder;
 import com.linkedin.data.it.Predicate;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.transform.filter.CompiledProjector;
 import com.linkedin.data.transform.filter.CopyFilter;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.jersey.api.uri.UriBuilder;
@@ -266,7 +268,7 @@ public class RestUtils
   public static DataMap projectFields(final DataMap dataMap, final ResourceContext resourceContext)
   {
     return projectFields(dataMap, resourceContext.getProjectionMode(), resourceContext.getProjectionMask(),
-        resourceContext.getAlwaysProjectedFields());
+        resourceContext.getAlwaysProjectedFields(), resourceContext.getCompiledProjector());
   }
 
   /**
@@ -281,6 +283,24 @@ public class RestUtils
    */
   public static DataMap projectFields(final DataMap dataMap, final ProjectionMode projectionMode,
       final MaskTree projectionMask, Set<String> alwaysIncludedFields)
+  {
+    return projectFields(dataMap, projectionMode, projectionMask, alwaysIncludedFields, null);
+  }
+
+  /**
+   * Filter input {@link DataMap} by the projection mask from the input.
+   * {@link ResourceContext}.
+   *
+   * @param dataMap {@link DataMap} to filter
+   * @param projectionMode {@link ProjectionMode} to decide if restli should project or not
+   * @param  projectionMask {@link MaskTree} the mask to use when projecting
+   * @param alwaysIncludedFields Set of fields that are always included in the result.
+   * @param compiledProjector the projection mask compiled with {@link CompiledProjector#compile}, used instead of
+   *                          the mask when not null. Compile it once for all the entities of a response.
+   * @return filtered DataMap. Empty one if the projection mask specifies no fields.
+   */
+  public static DataMap projectFields(final DataMap dataMap, final ProjectionMode projectionMode,
+      final MaskTree projectionMask, Set<String> alwaysIncludedFields, CompiledProjector compiledProjector)
   {
     if (projectionMode == ProjectionMode.MANUAL)
     {
@@ -301,6 +321,10 @@ public class RestUtils
 
     try
     {
+      if (compiledProjector != null)
+      {
+        return compiledProjector.project(dataMap, alwaysIncludedFields);
+      }
       return (DataMap) new CopyFilter(alwaysIncludedFields).filter(dataMap, filterMap);
     }
     catch (Exception e)
@@ -309,6 +333,34 @@ public class RestUtils
     }
   }
 
+  /**
+   * Get the projection to apply while the response of the given context is encoded.
+   *
+   * @param resourceContext the context of the response.
+   * @return the projection for the encoder, or null if the response entities are already projected.
+   * @see ServerResourceContext#getResponseEncodingProjector()
+   */
+  public static EncodingProjection getResponseEncodingProjection(final ServerResourceContext resourceContext)
+  {
+    ResponseEncodingProjector projector = resourceContext.getResponseEncodingProjector();
+    return projector == null ? null : projector.toEncodingProjection();
+  }
+
+  /**
+   * Project the entities of the response of the given context if their projection was left to the encoder, for
+   * encoders that cannot project while encoding.
+   *
+   * @param dataMap the response data.
+   * @param resourceContext the context of the response.
+   * @return the response with projected entities, or the input response if they are already projected.
+   * @see ServerResourceContext#getResponseEncodingProjector()
+   */
+  public static DataMap projectResponseForEncoding(final DataMap dataMap, final ServerResourceContext resourceContext)
+  {
+    ResponseEncodingProjector projector = resourceContext.getResponseEncodingProjector();
+    return projector == null ? dataMap : projector.project(dataMap);
+  }
+
   /**
    * Validate request headers.
    *
@@ -70,6 +70,8 @@ abstract class BaseRestLiServer
   private final Set<String> _customContentTypes;
   private final ResourceMethodConfigProvider _methodConfigProvider;
   private final boolean _fillInDefaultValueConfigured;
+  private final boolean _useCompiledProjection;
+  private final ProjectionMaskCache _projectionMaskCache;
 
   BaseRestLiServer(RestLiConfig config,
       ResourceFactory resourceFactory,
@@ -90,6 +92,8 @@ abstract class BaseRestLiServer
 
     _filters = config.getFilters() != null ? config.getFilters() : new ArrayList<>();
     _fillInDefaultValueConfigured = config.shouldFillInDefaultValues();
+    _useCompiledProjection = config.shouldUseCompiledProjection();
+    _projectionMaskCache = config.getProjectionMaskCache();
 
     _methodConfigProvider = ResourceMethodConfigProvider.build(config.getMethodConfig());
   }
@@ -135,7 +139,8 @@ abstract class BaseRestLiServer
 
     try
     {
-      ServerResourceContext context = new ResourceContextImpl(new PathKeysImpl(), request, requestContext);
+      ServerResourceContext context = new ResourceContextImpl(new PathKeysImpl(), request, requestContext,
+          _projectionMaskCache);
       RestUtils.validateRequestHeadersAndUpdateResourceContext(request.getHeaders(), _customContentTypes, context);
 
       ResourceMethodDescriptor method = _router.process(context);
@@ -143,6 +148,7 @@ abstract class BaseRestLiServer
       context.setAlwaysProjectedFields(methodConfig.getAlwaysProjectedFields().getValue());
 
       context.setFillInDefaultValues(_fillInDefaultValueConfigured);
+      context.setUseCompiledProjection(_useCompiledProjection);
       return new RoutingResult(context, method, methodConfig);
     }
     catch (RestLiSyntaxException e)
@@ -0,0 +1,112 @@
+/*
+   Copyright (c) 2021 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.server;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.transform.filter.request.MaskTree;
+import com.linkedin.restli.internal.server.util.ArgumentUtils;
+import com.linkedin.restli.internal.server.util.RestLiSyntaxException;
+
+
+/**
+ * A bounded cache of parsed projection masks, keyed by the raw value of the projection query parameter
+ * (e.g. {@code fields}). Clients tend to send the same few projections over and over, so caching them saves
+ * parsing the mask on every request.
+ *
+ * <p>Set it with {@link RestLiConfig#setProjectionMaskCache(ProjectionMaskCache)} and keep a reference to read
+ * the hit and miss counts.</p>
+ */
+public class ProjectionMaskCache
+{
+  private final Cache<String, DataMap> _cache;
+
+  /**
+   * @param maxSize the maximum number of projection masks to cache.
+   */
+  public ProjectionMaskCache(int maxSize)
+  {
+    _cache = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+  }
+
+  /**
+   * Returns the mask for the given projection parameter, which is only parsed if it is not cached yet. The returned
+   * {@link MaskTree} is a copy of the cached one, so callers are free to modify it.
+   *
+   * @param projectionParam the raw projection parameter value.
+   * @return {@link MaskTree} based on the projection parameter.
+   * @throws RestLiSyntaxException if the projection parameter is invalid.
+   */
+  public MaskTree getProjectionMask(String projectionParam) throws RestLiSyntaxException
+  {
+    if (projectionParam == null)
+    {
+      return new MaskTree();
+    }
+
+    DataMap mask = _cache.getIfPresent(projectionParam);
+    if (mask == null)
+    {
+      mask = ArgumentUtils.decodeMaskUriFormat(projectionParam).getDataMap();
+      mask.makeReadOnly();
+      _cache.put(projectionParam, mask);
+    }
+
+    try
+    {
+      return new MaskTree(mask.copy());
+    }
+    catch (CloneNotSupportedException e)
+    {
+      // DataMaps are always cloneable.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @return the number of lookups that found a cached mask.
+   */
+  public long getHitCount()
+  {
+    return _cache.stats().hitCount();
+  }
+
+  /**
+   * @return the number of lookups that had to parse the mask.
+   */
+  public long getMissCount()
+  {
+    return _cache.stats().missCount();
+  }
+
+  /**
+   * @return the number of masks evicted because the cache was full.
+   */
+  public long getEvictionCount()
+  {
+    return _cache.stats().evictionCount();
+  }
+
+  /**
+   * @return the approximate number of cached masks.
+   */
+  public long getSize()
+  {
+    return _cache.estimatedSize();
+  }
+}
@@ -17,6 +17,7 @@
 package com.linkedin.restli.server;
 
 
+import com.linkedin.data.transform.filter.CompiledProjector;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
@@ -242,4 +243,25 @@ public interface ResourceContext extends CustomRequestContext
   }
 
   default void setFillInDefaultValues(boolean fillInDefaultValues) {}
+
+  /**
+   * @return true if the server is configured to project entities with compiled projection masks.
+   */
+  default boolean shouldUseCompiledProjection()
+  {
+    return false;
+  }
+
+  default void setUseCompiledProjection(boolean useCompiledProjection) {}
+
+  /**
+   * @return the projection mask compiled with {@link CompiledProjector}, or null if compiled projection is not used,
+   * there is no projection mask or the mask cannot be compiled. Implementations should compile the mask only once.
+   */
+  default CompiledProjector getCompiledProjector()
+  {
+    MaskTree projectionMask = getProjectionMask();
+    return shouldUseCompiledProjection() && projectionMask != null
+        ? CompiledProjector.compile(projectionMask.getDataMap()) : null;
+  }
 }
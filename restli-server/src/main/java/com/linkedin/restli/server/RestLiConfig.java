@@ -97,12 +97,21 @@ public class RestLiConfig
   // config flag for determine restli server to fill-in default values or not
   private boolean _fillInDefaultValues = false;
 
+  // config flag for projecting response entities with compiled projection masks instead of the filter interpreter
+  private boolean _useCompiledProjection = false;
+
+  // config flag for projecting response entities while they are encoded instead of building projected copies
+  private boolean _projectWhileEncoding = false;
+
   // resource method level configuration
   private RestLiMethodConfig _methodConfig;
 
   /** configuration for whether to attach stacktrace for {@link com.linkedin.r2.message.rest.RestException} */
   private boolean _writableStackTrace = true;
 
+  // cache of parsed projection masks, or null if masks are parsed on every request
+  private ProjectionMaskCache _projectionMaskCache = null;
+
   /**
    * Constructor.
    */
@@ -593,4 +602,63 @@ public class RestLiConfig
   {
     _fillInDefaultValues = fillInDefaultValues;
   }
+
+  /**
+   * @return the cache of parsed projection masks, or null if masks are parsed on every request.
+   */
+  public ProjectionMaskCache getProjectionMaskCache()
+  {
+    return _projectionMaskCache;
+  }
+
+  /**
+   * Set the cache of parsed projection masks. Masks are parsed on every request if it is not set.
+   * @param projectionMaskCache the cache, or null to disable caching.
+   */
+  public void setProjectionMaskCache(ProjectionMaskCache projectionMaskCache)
+  {
+    _projectionMaskCache = projectionMaskCache;
+  }
+
+  /**
+   * @return true if response entities are projected with compiled projection masks.
+   */
+  public boolean shouldUseCompiledProjection()
+  {
+    return _useCompiledProjection;
+  }
+
+  /**
+   * Set the flag to decide whether to project response entities with compiled projection masks. Masks that cannot be
+   * compiled are still applied with {@link com.linkedin.data.transform.filter.CopyFilter}.
+   * @param useCompiledProjection a boolean for the flag
+   */
+  public void setUseCompiledProjection(boolean useCompiledProjection)
+  {
+    _useCompiledProjection = useCompiledProjection;
+  }
+
+  /**
+   * @return true if response entities are projected while they are encoded.
+   */
+  public boolean shouldProjectWhileEncoding()
+  {
+    return _projectWhileEncoding;
+  }
+
+  /**
+   * Set the flag to decide whether to project response entities while they are encoded with a stream codec, so
+   * that no projected copy of the entities is built. It applies to the entity of GET responses, the elements of
+   * FINDER and GET_ALL responses and the results of BATCH_GET responses. It only applies to responses encoded with
+   * stream codecs, see {@link #setUseStreamCodec(boolean)}, and to projection masks compiled with compiled projection,
+   * see {@link #setUseCompiledProjection(boolean)}. Other responses are projected as usual.
+   *
+   * <p>Response filters see the entities before they are projected, and the projection is applied to the entities
+   * they leave in the response.</p>
+   * @param projectWhileEncoding a boolean for the flag
+   */
+  public void setProjectWhileEncoding(boolean projectWhileEncoding)
+  {
+    _projectWhileEncoding = projectWhileEncoding;
+  }
 }
@@ -3,6 +3,8 @@ package com.linkedin.restli.server;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.CallbackAdapter;
 import com.linkedin.data.ByteString;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.entitystream.EncodingProjection;
 import com.linkedin.data.codec.entitystream.StreamDataCodec;
 import com.linkedin.entitystream.EntityStream;
 import com.linkedin.entitystream.EntityStreams;
@@ -33,6 +35,7 @@ import com.linkedin.restli.internal.server.response.ErrorResponseBuilder;
 import com.linkedin.restli.internal.server.response.RestLiResponse;
 import com.linkedin.restli.internal.server.response.RestLiResponseException;
 import com.linkedin.restli.internal.server.response.ResponseUtils;
+import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.restspec.ResourceEntityType;
 import com.linkedin.restli.server.resources.ResourceFactory;
 import org.slf4j.Logger;
@@ -61,6 +64,7 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
 
   final RestRestLiServer _fallback;
   private boolean _useStreamCodec;
+  private boolean _projectWhileEncoding;
 
   StreamRestLiServer(RestLiConfig config,
       ResourceFactory resourceFactory,
@@ -75,6 +79,7 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
         errorResponseBuilder);
 
     _useStreamCodec = config.isUseStreamCodec();
+    _projectWhileEncoding = config.shouldProjectWhileEncoding();
     _fallback = new RestRestLiServer(config,
         resourceFactory, engine,
         rootResources,
@@ -200,7 +205,12 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
       Callback<StreamResponse> callback)
   {
     handleStructuredDataResourceRequest(request, routingResult, callback,
-        respContentType -> toRestLiResponseCallback(callback, routingResult, respContentType),
+        respContentType ->
+        {
+          // Only responses encoded here can be projected while they are encoded.
+          routingResult.getContext().setProjectWhileEncoding(_projectWhileEncoding);
+          return toRestLiResponseCallback(callback, routingResult, respContentType);
+        },
         restRequest -> _fallback.handleResourceRequest(restRequest,
             routingResult,
             toRestResponseCallback(callback, routingResult.getContext())));
@@ -347,7 +357,7 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
       if (restLiResponse.hasData())
       {
         responseBuilder.setHeader(RestConstants.HEADER_CONTENT_TYPE, _contentType.getHeaderKey());
-        entityStream = _contentType.getStreamCodec().encodeMap(restLiResponse.getDataMap());
+        entityStream = encodeDataMap(restLiResponse.getDataMap());
       }
       else
       {
@@ -360,6 +370,32 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
       return streamResponse;
     }
 
+    /**
+     * Encodes the response data, projecting it while encoding when the codec supports it, and before encoding
+     * otherwise.
+     */
+    private EntityStream<ByteString> encodeDataMap(DataMap dataMap)
+    {
+      final ServerResourceContext context = _routingResult.getContext();
+      final StreamDataCodec codec = _contentType.getStreamCodec();
+      if (codec.supportsEncodingProjection())
+      {
+        EncodingProjection projection = RestUtils.getResponseEncodingProjection(context);
+        if (projection != null)
+        {
+          try
+          {
+            return codec.encodeMap(dataMap, projection);
+          }
+          catch (UnsupportedOperationException e)
+          {
+            // The codec cannot project this data after all, fall back to projecting before encoding.
+          }
+        }
+      }
+      return codec.encodeMap(RestUtils.projectResponseForEncoding(dataMap, context));
+    }
+
     @Override
     protected Throwable convertError(Throwable e)
     {
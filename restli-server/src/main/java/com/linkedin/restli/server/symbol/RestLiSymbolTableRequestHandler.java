@@ -20,6 +20,7 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.data.ByteString;
+import com.linkedin.data.codec.symbol.CompressionDictionary;
 import com.linkedin.data.codec.symbol.DefaultSymbolTableProvider;
 import com.linkedin.data.codec.symbol.SymbolTable;
 import com.linkedin.data.codec.symbol.SymbolTableProvider;
@@ -47,12 +48,16 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A {@link NonResourceRequestHandler} used to serve symbol tables.
+ *
+ * <p>Compression dictionaries are served from the same paths when the request has the
+ * {@link RestConstants#HEADER_FETCH_COMPRESSION_DICTIONARY} header.</p>
  */
 public class RestLiSymbolTableRequestHandler implements NonResourceRequestHandler
 {
   public static final String SYMBOL_TABLE_URI_PATH = DefaultSymbolTableProvider.SYMBOL_TABLE_URI_PATH;
   private static final Logger LOGGER = LoggerFactory.getLogger(RestLiSymbolTableRequestHandler.class);
   private static final int DEFAULT_CACHE_SIZE = 100;
+  private static final String OCTET_STREAM = "application/octet-stream";
 
   private final Cache<String, ByteString> _symbolTableNameToSerializedBytesCache;
 
@@ -92,7 +97,8 @@ public class RestLiSymbolTableRequestHandler implements NonResourceRequestHandle
 
     // When path is service scoped, URI is in the form of /<SERVICE>/symbolTable, else it
     // is in the form of /symbolTable or /symbolTable/<TABLENAME>
-    boolean isSymbolTableRequest = request.getHeaders().containsKey(RestConstants.HEADER_FETCH_SYMBOL_TABLE);
+    boolean isSymbolTableRequest = request.getHeaders().containsKey(RestConstants.HEADER_FETCH_SYMBOL_TABLE)
+        || request.getHeaders().containsKey(RestConstants.HEADER_FETCH_COMPRESSION_DICTIONARY);
     if (isSymbolTableRequest)
     {
       return pathSegments.get(pathSegments.size() - 1).getPath().equals(SYMBOL_TABLE_URI_PATH)
@@ -116,6 +122,12 @@ public class RestLiSymbolTableRequestHandler implements NonResourceRequestHandle
       return;
     }
 
+    if (request.getHeaders().containsKey(RestConstants.HEADER_FETCH_COMPRESSION_DICTIONARY))
+    {
+      handleCompressionDictionaryRequest(request, callback);
+      return;
+    }
+
     //
     // Determine response content type based on accept header.
     // Assume protobuf2 if no accept header is specified. Note that this is a deviation from the rest of rest.li
@@ -200,4 +212,51 @@ public class RestLiSymbolTableRequestHandler implements NonResourceRequestHandle
       callback.onError(e);
     }
   }
+
+  private void handleCompressionDictionaryRequest(RestRequest request, Callback<RestResponse> callback)
+  {
+    final String path = request.getURI().getRawPath();
+    final List<UriComponent.PathSegment> pathSegments = UriComponent.decodePath(path, true);
+    final SymbolTableProvider provider = SymbolTableProviderHolder.INSTANCE.getSymbolTableProvider();
+    CompressionDictionary dictionary = null;
+
+    // Same as symbol tables, the URL is either .../symbolTable/dictionaryName or .../symbolTable.
+    int pathSize = pathSegments.size();
+    try
+    {
+      if (pathSegments.get(pathSize - 1).getPath().equals(SYMBOL_TABLE_URI_PATH))
+      {
+        dictionary = provider.getResponseCompressionDictionary(request.getURI(), request.getHeaders());
+      }
+      else if (pathSegments.get(pathSize - 2).getPath().equals(SYMBOL_TABLE_URI_PATH))
+      {
+        dictionary = provider.getCompressionDictionary(pathSegments.get(pathSize - 1).getPath());
+      }
+      else
+      {
+        LOGGER.error("request is malformed for handling compression dictionary" + request.getURI());
+      }
+    }
+    catch (IllegalStateException e)
+    {
+      LOGGER.error("Exception retrieving compression dictionary for URI " + request.getURI());
+      dictionary = null;
+    }
+
+    if (dictionary == null)
+    {
+      LOGGER.error("Did not find compression dictionary for path " + path);
+      callback.onError(RestException.forError(HttpStatus.S_404_NOT_FOUND.getCode(),
+          "Did not find compression dictionary"));
+      return;
+    }
+
+    RestResponse restResponse =
+        new RestResponseBuilder()
+            .setStatus(HttpStatus.S_200_OK.getCode())
+            .setHeader(RestConstants.HEADER_CONTENT_TYPE, OCTET_STREAM)
+            .setEntity(dictionary.getData())
+            .build();
+    callback.onSuccess(restResponse);
+  }
 }
@@ -19,6 +19,7 @@ package com.linkedin.restli.internal.server;
 
 import com.linkedin.data.DataMap;
 import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.transform.filter.CompiledProjector;
 import com.linkedin.data.transform.filter.request.MaskOperation;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.r2.message.RequestContext;
@@ -26,6 +27,7 @@ import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.common.AllProtocolVersions;
 import com.linkedin.restli.internal.server.util.RestLiSyntaxException;
+import com.linkedin.restli.server.ProjectionMaskCache;
 import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.test.TestResourceContext;
 
@@ -171,6 +173,29 @@ public class TestResourceContextImpl
     Assert.assertEquals(maskOperations.get(new PathSpec("state")), MaskOperation.POSITIVE_MASK_OP);
   }
 
+  @Test
+  public void testProjectionMaskCache() throws Exception
+  {
+    ProjectionMaskCache cache = new ProjectionMaskCache(10);
+    URI uri = URI.create("resources/?fields=locale,state");
+
+    ServerResourceContext first = new ResourceContextImpl(
+        new PathKeysImpl(), new TestResourceContext.MockRequest(uri), new RequestContext(), cache);
+    Assert.assertEquals(cache.getMissCount(), 1);
+    Assert.assertEquals(cache.getHitCount(), 0);
+
+    ServerResourceContext second = new ResourceContextImpl(
+        new PathKeysImpl(), new TestResourceContext.MockRequest(uri), new RequestContext(), cache);
+    Assert.assertEquals(cache.getMissCount(), 1);
+    Assert.assertEquals(cache.getHitCount(), 1);
+    Assert.assertEquals(second.getProjectionMask().getDataMap(), first.getProjectionMask().getDataMap());
+
+    // Each context gets its own copy of the cached mask.
+    first.getProjectionMask().addOperation(new PathSpec("id"), MaskOperation.POSITIVE_MASK_OP);
+    Assert.assertEquals(first.getProjectionMask().getOperations().size(), 3);
+    Assert.assertEquals(second.getProjectionMask().getOperations().size(), 2);
+  }
+
   private enum ProjectionType
   {
     METADATA,
@@ -221,6 +246,36 @@ public class TestResourceContextImpl
         };
   }
 
+  @Test
+  public void testCompiledProjector() throws Exception
+  {
+    final ResourceContextImpl context = new ResourceContextImpl(new PathKeysImpl(),
+        new RestRequestBuilder(URI.create("foobar?fields=foo,bar"))
+            .setHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION, AllProtocolVersions.LATEST_PROTOCOL_VERSION.toString())
+            .build(),
+        new RequestContext());
+    Assert.assertNull(context.getCompiledProjector());
+
+    context.setUseCompiledProjection(true);
+    final CompiledProjector projector = context.getCompiledProjector();
+    Assert.assertNotNull(projector);
+    // The mask is compiled once for all the entities of the response
+    Assert.assertSame(context.getCompiledProjector(), projector);
+
+    final MaskTree mask = new MaskTree();
+    mask.addOperation(new PathSpec("baz"), MaskOperation.POSITIVE_MASK_OP);
+    context.setProjectionMask(mask);
+    final CompiledProjector replacedProjector = context.getCompiledProjector();
+    Assert.assertNotSame(replacedProjector, projector);
+    final DataMap data = new DataMap();
+    data.put("foo", "a");
+    data.put("baz", "b");
+    Assert.assertEquals(replacedProjector.project(data, Collections.emptySet()).keySet(), Collections.singleton("baz"));
+
+    context.setProjectionMask(null);
+    Assert.assertNull(context.getCompiledProjector());
+  }
+
   @Test(dataProvider = "returnEntityParameterData")
   public void testReturnEntityParameter(String uri, boolean expectReturnEntity, boolean expectException) throws RestLiSyntaxException
   {
@@ -219,6 +219,7 @@ public class TestBatchFinderResponseBuilder
     EasyMock.expect(mockContext.getMetadataProjectionMode()).andStubReturn(ProjectionMode.MANUAL);
     EasyMock.expect(mockContext.getRawRequestContext()).andStubReturn(new RequestContext());
     EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(null).anyTimes();
     EasyMock.expect(mockContext.isFillInDefaultsRequested()).andStubReturn(false);
 
     EasyMock.replay(mockContext);
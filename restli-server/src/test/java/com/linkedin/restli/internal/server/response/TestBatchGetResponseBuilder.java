@@ -18,11 +18,13 @@ package com.linkedin.restli.internal.server.response;
 
 
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
 import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.schema.StringDataSchema;
 import com.linkedin.data.template.InvalidAlternativeKeyException;
 import com.linkedin.data.template.KeyCoercer;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.transform.filter.CompiledProjector;
 import com.linkedin.data.transform.filter.request.MaskOperation;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.pegasus.generator.examples.Foo;
@@ -40,6 +42,8 @@ import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
 import com.linkedin.restli.internal.server.model.ResourceModel;
+import com.linkedin.restli.internal.server.util.ResponseEncodingProjector;
+import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.AlternativeKey;
 import com.linkedin.restli.server.BatchResult;
 import com.linkedin.restli.server.ProjectionMode;
@@ -51,6 +55,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -391,6 +396,7 @@ public class TestBatchGetResponseBuilder
     EasyMock.expect(mockContext.getBatchKeyErrors()).andReturn(Collections.emptyMap()).once();
     EasyMock.expect(mockContext.getRawRequestContext()).andReturn(new RequestContext()).anyTimes();
     EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(null).anyTimes();
     EasyMock.expect(mockContext.isFillInDefaultsRequested()).andReturn(false).anyTimes();
     EasyMock.replay(mockContext);
 
@@ -414,6 +420,64 @@ public class TestBatchGetResponseBuilder
     EasyMock.verify(mockContext);
   }
 
+  @Test
+  public void testProjectionWhileEncoding() throws Exception
+  {
+    MaskTree maskTree = new MaskTree();
+    maskTree.addOperation(new PathSpec("fruitsField"), MaskOperation.POSITIVE_MASK_OP);
+    CompiledProjector projector = CompiledProjector.compile(maskTree.getDataMap());
+
+    ServerResourceContext mockContext = EasyMock.createMock(ServerResourceContext.class);
+    EasyMock.expect(mockContext.hasParameter(RestConstants.ALT_KEY_PARAM)).andReturn(false).anyTimes();
+    EasyMock.expect(mockContext.getBatchKeyErrors()).andReturn(Collections.emptyMap()).once();
+    EasyMock.expect(mockContext.getRestliProtocolVersion())
+        .andReturn(AllProtocolVersions.LATEST_PROTOCOL_VERSION).anyTimes();
+    EasyMock.expect(mockContext.getRawRequestContext()).andReturn(new RequestContext()).anyTimes();
+    EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(projector).anyTimes();
+    EasyMock.expect(mockContext.shouldProjectWhileEncoding()).andReturn(true).anyTimes();
+    EasyMock.expect(mockContext.getProjectionMode()).andReturn(ProjectionMode.AUTOMATIC).anyTimes();
+    EasyMock.expect(mockContext.getProjectionMask()).andReturn(maskTree).anyTimes();
+    EasyMock.expect(mockContext.isFillInDefaultsRequested()).andReturn(false).anyTimes();
+    Capture<ResponseEncodingProjector> responseEncodingProjector = EasyMock.newCapture();
+    mockContext.setResponseEncodingProjector(EasyMock.capture(responseEncodingProjector));
+    EasyMock.expectLastCall().once();
+    EasyMock.expect(mockContext.getResponseEncodingProjector()).andAnswer(responseEncodingProjector::getValue)
+        .anyTimes();
+    EasyMock.replay(mockContext);
+
+    ResourceMethodDescriptor mockDescriptor = getMockResourceMethodDescriptor(null);
+    RoutingResult routingResult = new RoutingResult(mockContext, mockDescriptor);
+
+    Map<Integer, Foo> results = new HashMap<>();
+    Foo value = new Foo().setStringField("value").setFruitsField(Fruits.APPLE);
+    results.put(1, value);
+
+    BatchGetResponseBuilder responseBuilder = new BatchGetResponseBuilder(new ErrorResponseBuilder());
+    RestLiResponseData<BatchGetResponseEnvelope> responseData = responseBuilder.buildRestLiResponseData(null,
+                                                                              routingResult,
+                                                                              results,
+                                                                              Collections.emptyMap(),
+                                                                              Collections.emptyList());
+    RestLiResponse restLiResponse = responseBuilder.buildResponse(routingResult, responseData);
+
+    // The results are left unprojected, and the projection only applies to them when the response is encoded.
+    DataMap response = restLiResponse.getDataMap();
+    Assert.assertEquals(response.getDataMap(BatchResponse.RESULTS).getDataMap("1"), value.data());
+    DataMap expected = new DataMap(response);
+    expected.put(BatchResponse.RESULTS,
+        new DataMap(Collections.singletonMap("1", new Foo().setFruitsField(Fruits.APPLE).data())));
+
+    JacksonStreamDataCodec codec = new JacksonStreamDataCodec(1);
+    DataMap encoded = codec.decodeMap(codec.encodeMap(response, RestUtils.getResponseEncodingProjection(mockContext)))
+        .toCompletableFuture().get();
+    Assert.assertEquals(encoded, expected);
+    Assert.assertEquals(RestUtils.projectResponseForEncoding(response, mockContext), expected);
+    Assert.assertEquals(value.data().size(), 2);
+
+    EasyMock.verify(mockContext);
+  }
+
   private static ServerResourceContext getMockResourceContext(ProtocolVersion protocolVersion,
                                                         Map<Object, RestLiServiceException> exceptions,
                                                         String altKeyName,
@@ -433,6 +497,7 @@ public class TestBatchGetResponseBuilder
     }
     EasyMock.expect(mockContext.getRawRequestContext()).andReturn(new RequestContext()).anyTimes();
     EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(null).anyTimes();
     EasyMock.replay(mockContext);
     return mockContext;
   }
@@ -17,9 +17,12 @@
 package com.linkedin.restli.internal.server.response;
 
 
+import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
 import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.transform.filter.CompiledProjector;
 import com.linkedin.data.transform.filter.request.MaskOperation;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.pegasus.generator.examples.Foo;
@@ -34,6 +37,8 @@ import com.linkedin.restli.common.ResourceMethod;
 import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
+import com.linkedin.restli.internal.server.util.ResponseEncodingProjector;
+import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.CollectionResult;
 import com.linkedin.restli.server.ProjectionMode;
 import com.linkedin.restli.server.RestLiResponseData;
@@ -52,6 +57,7 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 
 
@@ -288,6 +294,68 @@ public class TestCollectionResponseBuilder
     }
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public <D extends RestLiResponseData<? extends CollectionResponseEnvelope>> void testProjectionWhileEncoding()
+      throws Exception
+  {
+    for (Map.Entry<ResourceMethod, CollectionResponseBuilder<?>> entry: BUILDERS.entrySet())
+    {
+      MaskTree maskTree = new MaskTree();
+      maskTree.addOperation(new PathSpec("stringField"), MaskOperation.POSITIVE_MASK_OP);
+      CompiledProjector projector = CompiledProjector.compile(maskTree.getDataMap());
+
+      ServerResourceContext mockContext = EasyMock.createMock(ServerResourceContext.class);
+      EasyMock.expect(mockContext.getParameter(EasyMock.<String>anyObject())).andReturn(null).anyTimes();
+      EasyMock.expect(mockContext.getRequestHeaders()).andReturn(ResponseBuilderUtil.getHeaders()).anyTimes();
+      EasyMock.expect(mockContext.getRawRequestContext()).andReturn(new RequestContext()).anyTimes();
+      EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+      EasyMock.expect(mockContext.getCompiledProjector()).andReturn(projector).anyTimes();
+      EasyMock.expect(mockContext.shouldProjectWhileEncoding()).andReturn(true).anyTimes();
+      EasyMock.expect(mockContext.getProjectionMode()).andReturn(ProjectionMode.AUTOMATIC).anyTimes();
+      EasyMock.expect(mockContext.getProjectionMask()).andReturn(maskTree).anyTimes();
+      EasyMock.expect(mockContext.getMetadataProjectionMode()).andReturn(ProjectionMode.AUTOMATIC).anyTimes();
+      EasyMock.expect(mockContext.getMetadataProjectionMask()).andReturn(null).anyTimes();
+      EasyMock.expect(mockContext.getPagingProjectionMask()).andReturn(null).anyTimes();
+      EasyMock.expect(mockContext.isFillInDefaultsRequested()).andReturn(false).anyTimes();
+      Capture<ResponseEncodingProjector> responseEncodingProjector = EasyMock.newCapture();
+      mockContext.setResponseEncodingProjector(EasyMock.capture(responseEncodingProjector));
+      EasyMock.expectLastCall().once();
+      EasyMock.expect(mockContext.getResponseEncodingProjector()).andAnswer(responseEncodingProjector::getValue)
+          .anyTimes();
+      EasyMock.replay(mockContext);
+      RoutingResult routingResult = new RoutingResult(mockContext, getMockResourceMethodDescriptor());
+
+      List<Foo> elements = generateTestList();
+      CollectionResponseBuilder<D> responseBuilder = (CollectionResponseBuilder<D>) entry.getValue();
+      D responseData = responseBuilder.buildRestLiResponseData(getRestRequest(), routingResult, elements,
+          Collections.emptyMap(), Collections.emptyList());
+      RestLiResponse restLiResponse = responseBuilder.buildResponse(routingResult, responseData);
+
+      // The elements are left unprojected, and the projection only applies to them when the response is encoded.
+      DataMap response = restLiResponse.getDataMap();
+      DataList unprojectedElements = new DataList();
+      DataList projectedElements = new DataList();
+      for (int i = 0; i < elements.size(); i++)
+      {
+        unprojectedElements.add(elements.get(i).data());
+        projectedElements.add(generateTestListWithProjection().get(i).data());
+      }
+      Assert.assertEquals(response.getDataList(CollectionResponse.ELEMENTS), unprojectedElements);
+      DataMap expected = new DataMap(response);
+      expected.put(CollectionResponse.ELEMENTS, projectedElements);
+
+      JacksonStreamDataCodec codec = new JacksonStreamDataCodec(1);
+      DataMap encoded = codec.decodeMap(codec.encodeMap(response, RestUtils.getResponseEncodingProjection(mockContext)))
+          .toCompletableFuture().get();
+      Assert.assertEquals(encoded, expected);
+      Assert.assertEquals(RestUtils.projectResponseForEncoding(response, mockContext), expected);
+      Assert.assertEquals(response.getDataList(CollectionResponse.ELEMENTS), unprojectedElements);
+
+      EasyMock.verify(mockContext);
+    }
+  }
+
   @SuppressWarnings("deprecation")
   private static ServerResourceContext getMockResourceContext(MaskTree dataMaskTree,
                                                         MaskTree metadataMaskTree,
@@ -301,6 +369,7 @@ public class TestCollectionResponseBuilder
     EasyMock.expect(mockContext.getRequestHeaders()).andReturn(ResponseBuilderUtil.getHeaders()).once();
     EasyMock.expect(mockContext.getRawRequestContext()).andReturn(new RequestContext()).anyTimes();
     EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(null).anyTimes();
 
     //Field Projection
     EasyMock.expect(mockContext.getProjectionMode()).andReturn(dataProjectionMode).times(generateTestList().size());
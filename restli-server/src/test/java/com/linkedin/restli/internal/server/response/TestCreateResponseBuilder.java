@@ -192,6 +192,7 @@ public class TestCreateResponseBuilder
     EasyMock.expect(mockContext.getProjectionMode()).andReturn(ProjectionMode.AUTOMATIC);
     EasyMock.expect(mockContext.getRawRequestContext()).andReturn(new RequestContext()).anyTimes();
     EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(null).anyTimes();
     EasyMock.replay(mockContext);
     RoutingResult routingResult = new RoutingResult(mockContext, null);
 
@@ -261,6 +262,7 @@ public class TestCreateResponseBuilder
     EasyMock.expect(mockContext.getProjectionMode()).andReturn(ProjectionMode.AUTOMATIC);
     EasyMock.expect(mockContext.getRawRequestContext()).andReturn(new RequestContext()).anyTimes();
     EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(null).anyTimes();
     EasyMock.replay(mockContext);
     RoutingResult routingResult = new RoutingResult(mockContext, null);
 
@@ -18,17 +18,22 @@ package com.linkedin.restli.internal.server.response;
 
 
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
 import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.transform.filter.CompiledProjector;
 import com.linkedin.data.transform.filter.request.MaskOperation;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.pegasus.generator.examples.Foo;
 import com.linkedin.pegasus.generator.examples.Fruits;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.restli.common.HttpStatus;
+import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
+import com.linkedin.restli.internal.server.util.ResponseEncodingProjector;
+import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.GetResult;
 import com.linkedin.restli.server.ProjectionMode;
 
@@ -36,6 +41,7 @@ import com.linkedin.restli.server.RestLiResponseData;
 import java.util.Collections;
 import java.util.Map;
 
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -136,6 +142,52 @@ public class TestGetResponseBuilder
     EasyMock.verify(mockContext);
   }
 
+  @Test
+  public void testProjectionWhileEncoding() throws Exception
+  {
+    MaskTree maskTree = new MaskTree();
+    maskTree.addOperation(new PathSpec("stringField"), MaskOperation.POSITIVE_MASK_OP);
+    CompiledProjector projector = CompiledProjector.compile(maskTree.getDataMap());
+
+    ServerResourceContext mockContext = EasyMock.createMock(ServerResourceContext.class);
+    EasyMock.expect(mockContext.getRawRequestContext()).andReturn(new RequestContext()).anyTimes();
+    EasyMock.expect(mockContext.isFillInDefaultsRequested()).andReturn(false).anyTimes();
+    EasyMock.expect(mockContext.shouldProjectWhileEncoding()).andReturn(true).anyTimes();
+    EasyMock.expect(mockContext.getProjectionMode()).andReturn(ProjectionMode.AUTOMATIC).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(projector).anyTimes();
+    EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    Capture<ResponseEncodingProjector> responseEncodingProjector = EasyMock.newCapture();
+    mockContext.setResponseEncodingProjector(EasyMock.capture(responseEncodingProjector));
+    EasyMock.expectLastCall().once();
+    EasyMock.expect(mockContext.getResponseEncodingProjector()).andAnswer(responseEncodingProjector::getValue)
+        .anyTimes();
+    EasyMock.replay(mockContext);
+    RoutingResult routingResult = new RoutingResult(mockContext, getMockResourceMethodDescriptor());
+
+    Foo value = getRecord();
+    GetResponseBuilder responseBuilder = new GetResponseBuilder();
+    RestLiResponseData<GetResponseEnvelope> responseData = responseBuilder.buildRestLiResponseData(null, routingResult,
+        value, Collections.emptyMap(), Collections.emptyList());
+    RestLiResponse restLiResponse = responseBuilder.buildResponse(routingResult, responseData);
+
+    // The entity is left unprojected, and adding response metadata to it does not change the resource's record.
+    DataMap entity = restLiResponse.getDataMap();
+    Assert.assertEquals(entity, getRecord().data());
+    DataMap responseMetadata = new DataMap(Collections.singletonMap("key", "value"));
+    entity.put(RestConstants.METADATA_RESERVED_FIELD, responseMetadata);
+    Assert.assertEquals(value, getRecord());
+
+    JacksonStreamDataCodec codec = new JacksonStreamDataCodec(1);
+    DataMap encoded = codec.decodeMap(codec.encodeMap(entity, RestUtils.getResponseEncodingProjection(mockContext)))
+        .toCompletableFuture().get();
+    DataMap expected = new DataMap(getProjectedRecord().data());
+    expected.put(RestConstants.METADATA_RESERVED_FIELD, responseMetadata);
+    Assert.assertEquals(encoded, expected);
+    Assert.assertEquals(RestUtils.projectResponseForEncoding(entity, mockContext), expected);
+
+    EasyMock.verify(mockContext);
+  }
+
   private static ResourceMethodDescriptor getMockResourceMethodDescriptor()
   {
     ResourceMethodDescriptor mockDescriptor = EasyMock.createMock(ResourceMethodDescriptor.class);
@@ -150,7 +202,9 @@ public class TestGetResponseBuilder
     EasyMock.expect(mockContext.getProjectionMode()).andReturn(projectionMode).once();
     EasyMock.expect(mockContext.getProjectionMask()).andReturn(maskTree).once();
     EasyMock.expect(mockContext.getAlwaysProjectedFields()).andReturn(Collections.emptySet()).anyTimes();
+    EasyMock.expect(mockContext.getCompiledProjector()).andReturn(null).anyTimes();
     EasyMock.expect(mockContext.isFillInDefaultsRequested()).andReturn(false).anyTimes();
+    EasyMock.expect(mockContext.shouldProjectWhileEncoding()).andReturn(false).anyTimes();
     EasyMock.replay(mockContext);
     return mockContext;
   }
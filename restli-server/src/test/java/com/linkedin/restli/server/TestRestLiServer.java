@@ -20,8 +20,13 @@ package com.linkedin.restli.server;
 
 import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.data.ByteString;
+import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
+import com.linkedin.data.codec.entitystream.StreamDataCodec;
 import com.linkedin.jersey.api.uri.UriComponent;
 import com.linkedin.multipart.MultiPartMIMEReader;
 import com.linkedin.multipart.MultiPartMIMEStreamRequestFactory;
@@ -29,6 +34,7 @@ import com.linkedin.multipart.MultiPartMIMEWriter;
 import com.linkedin.multipart.utils.MIMETestUtils.MultiPartMIMEFullReaderCallback;
 import com.linkedin.multipart.utils.MIMETestUtils.SinglePartMIMEFullReaderCallback;
 import com.linkedin.parseq.Engine;
+import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Messages;
 import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
@@ -46,6 +52,8 @@ import com.linkedin.r2.message.stream.entitystream.EntityStream;
 import com.linkedin.r2.message.stream.entitystream.EntityStreams;
 import com.linkedin.r2.message.stream.entitystream.FullEntityReader;
 import com.linkedin.r2.message.stream.entitystream.Observer;
+import com.linkedin.restli.common.BatchResponse;
+import com.linkedin.restli.common.CollectionResponse;
 import com.linkedin.restli.common.ErrorResponse;
 import com.linkedin.restli.common.HttpMethod;
 import com.linkedin.restli.common.HttpStatus;
@@ -84,6 +92,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -323,6 +332,129 @@ public class TestRestLiServer
     testValidRequest(_serverWithFilters, null, true, RestConstants.HEADER_RESTLI_PROTOCOL_VERSION, restOrStream);
   }
 
+  @Test
+  public void testProjectWhileEncoding() throws Exception
+  {
+    RestLiConfig config = new RestLiConfig();
+    config.addResourcePackageNames("com.linkedin.restli.server.twitter");
+    config.setUseStreamCodec(true);
+    config.setUseCompiledProjection(true);
+    config.setProjectWhileEncoding(true);
+    RestLiServer server = new RestLiServer(config, _resourceFactory, EasyMock.createMock(Engine.class));
+
+    DataMap statusData = new DataMap();
+    statusData.put("text", "test status");
+    statusData.put("replyTo", "another status");
+    final Status status = new Status(statusData);
+    final StatusCollectionResource statusResource = getMockResource(StatusCollectionResource.class);
+    EasyMock.expect(statusResource.get(eq(1L))).andReturn(status).once();
+    replay(statusResource);
+
+    RestResponse restResponse = handleStreamRequest(server, "/statuses/1?fields=text");
+
+    assertEquals(restResponse.getStatus(), 200);
+    assertEquals(DataMapUtils.readMap(restResponse), new DataMap(Collections.singletonMap("text", "test status")));
+    // The projection is applied while encoding, and the record returned by the resource is left as it is.
+    assertEquals(status.data().size(), 2);
+    verify(statusResource);
+  }
+
+  @Test
+  public void testProjectWhileEncodingCollectionAndBatchResponses() throws Exception
+  {
+    RestLiConfig config = new RestLiConfig();
+    config.addResourcePackageNames("com.linkedin.restli.server.twitter");
+    config.setUseStreamCodec(true);
+    config.setUseCompiledProjection(true);
+    config.setProjectWhileEncoding(true);
+    RestLiServer server = new RestLiServer(config, _resourceFactory, EasyMock.createMock(Engine.class));
+
+    DataMap statusData = new DataMap();
+    statusData.put("text", "test status");
+    statusData.put("replyTo", "another status");
+    final Status status = new Status(statusData);
+    final StatusCollectionResource statusResource = getMockResource(StatusCollectionResource.class);
+    EasyMock.expect(statusResource.getPublicTimeline(EasyMock.anyObject(PagingContext.class)))
+        .andReturn(Collections.singletonList(status)).once();
+    EasyMock.expect(statusResource.batchGet(eq(Collections.singleton(1L))))
+        .andReturn(Collections.singletonMap(1L, status)).once();
+    replay(statusResource);
+
+    DataMap projectedStatus = new DataMap(Collections.singletonMap("text", "test status"));
+
+    RestResponse finderResponse = handleStreamRequest(server, "/statuses?q=public_timeline&fields=text");
+    assertEquals(finderResponse.getStatus(), 200);
+    assertEquals(DataMapUtils.readMap(finderResponse).getDataList(CollectionResponse.ELEMENTS),
+        new DataList(Collections.singletonList(projectedStatus)));
+
+    RestResponse batchGetResponse = handleStreamRequest(server, "/statuses?ids=List(1)&fields=text");
+    assertEquals(batchGetResponse.getStatus(), 200);
+    assertEquals(DataMapUtils.readMap(batchGetResponse).getDataMap(BatchResponse.RESULTS),
+        new DataMap(Collections.singletonMap("1", projectedStatus)));
+
+    // The projections are applied while encoding, and the record returned by the resource is left as it is.
+    assertEquals(status.data().size(), 2);
+    verify(statusResource);
+  }
+
+  @DataProvider(name = "nonProjectingStreamCodecs")
+  public Object[][] nonProjectingStreamCodecs()
+  {
+    return new Object[][]
+        {
+            { "application/x-restli-test-no-projection", new DelegatingStreamDataCodec(false) },
+            { "application/x-restli-test-failed-projection", new DelegatingStreamDataCodec(true) }
+        };
+  }
+
+  @Test(dataProvider = "nonProjectingStreamCodecs")
+  public void testProjectWhileEncodingWithCodecNotProjecting(String contentType, StreamDataCodec streamCodec)
+      throws Exception
+  {
+    com.linkedin.restli.common.ContentType.createContentType(contentType, new JacksonDataCodec(), streamCodec);
+
+    RestLiConfig config = new RestLiConfig();
+    config.addResourcePackageNames("com.linkedin.restli.server.twitter");
+    config.setUseStreamCodec(true);
+    config.setUseCompiledProjection(true);
+    config.setProjectWhileEncoding(true);
+    RestLiServer server = new RestLiServer(config, _resourceFactory, EasyMock.createMock(Engine.class));
+
+    DataMap statusData = new DataMap();
+    statusData.put("text", "test status");
+    statusData.put("replyTo", "another status");
+    final StatusCollectionResource statusResource = getMockResource(StatusCollectionResource.class);
+    EasyMock.expect(statusResource.get(eq(1L))).andReturn(new Status(statusData)).once();
+    replay(statusResource);
+
+    RestResponse restResponse = handleStreamRequest(server, "/statuses/1?fields=text", contentType);
+
+    // The codec cannot project while encoding, so the response is projected before it is encoded.
+    assertEquals(restResponse.getStatus(), 200);
+    assertEquals(restResponse.getHeader(RestConstants.HEADER_CONTENT_TYPE), contentType);
+    assertEquals(DataMapUtils.readMap(restResponse), new DataMap(Collections.singletonMap("text", "test status")));
+    verify(statusResource);
+  }
+
+  private static RestResponse handleStreamRequest(RestLiServer server, String uri) throws Exception
+  {
+    return handleStreamRequest(server, uri, RestConstants.HEADER_VALUE_APPLICATION_JSON);
+  }
+
+  private static RestResponse handleStreamRequest(RestLiServer server, String uri, String accept) throws Exception
+  {
+    StreamRequest streamRequest = new StreamRequestBuilder(new URI(uri))
+        .setHeader(RestConstants.HEADER_RESTLI_PROTOCOL_VERSION,
+            AllProtocolVersions.LATEST_PROTOCOL_VERSION.toString())
+        .setHeader(RestConstants.HEADER_ACCEPT, accept)
+        .build(EntityStreams.emptyStream());
+    FutureCallback<StreamResponse> streamResponseCallback = new FutureCallback<>();
+    server.handleRequest(streamRequest, new RequestContext(), streamResponseCallback);
+    FutureCallback<RestResponse> restResponseCallback = new FutureCallback<>();
+    Messages.toRestResponse(streamResponseCallback.get(), restResponseCallback);
+    return restResponseCallback.get();
+  }
+
   @Test(dataProvider = "validClientProtocolVersionData")
   public void testValidClientProtocolVersion(RestLiServer server, ProtocolVersion clientProtocolVersion,
                                              String headerConstant, RestOrStream restOrStream) throws URISyntaxException
@@ -2337,4 +2469,48 @@ public class TestRestLiServer
       return _isDone.get();
     }
   }
+  /**
+   * Custom stream codec that does not project while encoding, either by not supporting it, or by claiming to and
+   * failing.
+   */
+  private static class DelegatingStreamDataCodec implements StreamDataCodec
+  {
+    private final JacksonStreamDataCodec _delegate = new JacksonStreamDataCodec(R2Constants.DEFAULT_DATA_CHUNK_SIZE);
+    private final boolean _claimsEncodingProjection;
+
+    DelegatingStreamDataCodec(boolean claimsEncodingProjection)
+    {
+      _claimsEncodingProjection = claimsEncodingProjection;
+    }
+
+    @Override
+    public CompletionStage<DataMap> decodeMap(com.linkedin.entitystream.EntityStream<ByteString> entityStream)
+    {
+      return _delegate.decodeMap(entityStream);
+    }
+
+    @Override
+    public CompletionStage<DataList> decodeList(com.linkedin.entitystream.EntityStream<ByteString> entityStream)
+    {
+      return _delegate.decodeList(entityStream);
+    }
+
+    @Override
+    public com.linkedin.entitystream.EntityStream<ByteString> encodeMap(DataMap map)
+    {
+      return _delegate.encodeMap(map);
+    }
+
+    @Override
+    public boolean supportsEncodingProjection()
+    {
+      return _claimsEncodingProjection;
+    }
+
+    @Override
+    public com.linkedin.entitystream.EntityStream<ByteString> encodeList(DataList list)
+    {
+      return _delegate.encodeList(list);
+    }
+  }
 }
@@ -18,6 +18,8 @@ package com.linkedin.restli.server;
 
 import com.google.common.collect.ImmutableList;
 import com.linkedin.common.callback.Callback;
+import com.linkedin.data.ByteString;
+import com.linkedin.data.codec.symbol.CompressionDictionary;
 import com.linkedin.data.codec.symbol.InMemorySymbolTable;
 import com.linkedin.data.codec.symbol.SymbolTable;
 import com.linkedin.data.codec.symbol.SymbolTableProvider;
@@ -78,6 +80,8 @@ public class TestRestLiSymbolTableRequestHandler
         { "/symbolTable", Collections.emptyMap(), true },
         { "/service/symbolTable", requestHeaders, true },
         { "/service/symbolTable/foo", requestHeaders, true },
+        { "/service/symbolTable/foo",
+            Collections.singletonMap(RestConstants.HEADER_FETCH_COMPRESSION_DICTIONARY, Boolean.TRUE.toString()), true },
     };
   }
 
@@ -306,4 +310,62 @@ public class TestRestLiSymbolTableRequestHandler
     Assert.assertEquals(response.getHeader(RestConstants.HEADER_CONTENT_TYPE), ContentType.JSON.getHeaderKey());
     Assert.assertEquals(symbolTable, SymbolTableSerializer.fromByteString(response.getEntity(), ContentType.JSON.getCodec()));
   }
+
+  @Test
+  public void testReturnCompressionDictionary() throws Exception
+  {
+    CompressionDictionary dictionary =
+        new CompressionDictionary("TestDictionary", ByteString.copy(new byte[] { 1, 2, 3 }));
+    URI uri = URI.create("/service/symbolTable/TestDictionary");
+    RestRequest request = new RestRequestBuilder(uri)
+        .setHeader(RestConstants.HEADER_FETCH_COMPRESSION_DICTIONARY, Boolean.TRUE.toString())
+        .build();
+    when(_symbolTableProvider.getCompressionDictionary(eq("TestDictionary"))).thenReturn(dictionary);
+
+    CompletableFuture<RestResponse> future = new CompletableFuture<>();
+    _requestHandler.handleRequest(request, mock(RequestContext.class), new Callback<RestResponse>() {
+      @Override
+      public void onError(Throwable e) {
+        future.completeExceptionally(e);
+      }
+
+      @Override
+      public void onSuccess(RestResponse result) {
+        future.complete(result);
+      }
+    });
+
+    Assert.assertFalse(future.isCompletedExceptionally());
+    Assert.assertTrue(future.isDone());
+
+    RestResponse response = future.get();
+    Assert.assertEquals(response.getStatus(), HttpStatus.S_200_OK.getCode());
+    Assert.assertEquals(response.getHeader(RestConstants.HEADER_CONTENT_TYPE), "application/octet-stream");
+    Assert.assertEquals(dictionary.getData(), response.getEntity());
+  }
+
+  @Test
+  public void testSelfCompressionDictionaryNotFound404()
+  {
+    RestRequest request = new RestRequestBuilder(URI.create("/symbolTable"))
+        .setHeader(RestConstants.HEADER_FETCH_COMPRESSION_DICTIONARY, Boolean.TRUE.toString())
+        .build();
+
+    CompletableFuture<RestResponse> future = new CompletableFuture<>();
+    _requestHandler.handleRequest(request, mock(RequestContext.class), new Callback<RestResponse>() {
+      @Override
+      public void onError(Throwable e) {
+        future.completeExceptionally(e);
+        Assert.assertEquals(((RestException) e).getResponse().getStatus(), HttpStatus.S_404_NOT_FOUND.getCode());
+      }
+
+      @Override
+      public void onSuccess(RestResponse result) {
+        future.complete(result);
+      }
+    });
+
+    Assert.assertTrue(future.isDone());
+    Assert.assertTrue(future.isCompletedExceptionally());
+  }
 }
@@ -20,6 +20,7 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.linkedin.d2.balancer.util.LoadBalancerUtil;
 import com.linkedin.data.ByteString;
+import com.linkedin.data.codec.symbol.CompressionDictionary;
 import com.linkedin.data.codec.symbol.EmptySymbolTable;
 import com.linkedin.data.codec.symbol.InMemorySymbolTable;
 import com.linkedin.data.codec.symbol.SymbolTable;
@@ -77,6 +78,12 @@ import org.slf4j.LoggerFactory;
  * <p>The symbol table name used by this provider is prefixed with the root URI of the service on which
  * the symbol table is hosted. For remote symbol tables, this prefix is renamed to the prefix of the current service
  * before it is cached. The final symbol table name is in the form of ServiceURI|Prefix-SymbolListHashCode</p>
+ *
+ * <br>
+ * <p>A pre-trained compression dictionary can optionally be passed in via the constructor, in which case it is used as
+ * the response compression dictionary and served from the same endpoint as symbol tables. Remote dictionaries are
+ * fetched and cached by name in the same way as remote symbol tables. Dictionary names are in the form of
+ * ServiceURI|Prefix-dict-DictionaryHashCode</p>
  */
 public class RestLiSymbolTableProvider implements SymbolTableProvider, ResourceDefinitionListener
 {
@@ -94,6 +101,9 @@ public class RestLiSymbolTableProvider implements SymbolTableProvider, ResourceD
   private final Cache<String, SymbolTable> _symbolTableNameToSymbolTableCache;
   private volatile SymbolTable _defaultResponseSymbolTable = null;
   private volatile String _defaultResponseSymbolTableName = null;
+  private final Cache<String, CompressionDictionary> _dictionaryNameToDictionaryCache;
+  private final CompressionDictionary _defaultResponseCompressionDictionary;
+  private final String _defaultResponseCompressionDictionaryName;
 
   /**
    * Constructor
@@ -131,6 +141,32 @@ public class RestLiSymbolTableProvider implements SymbolTableProvider, ResourceD
       String symbolTablePrefix,
       String serverNodeUri,
       List<String> overriddenSymbols)
+  {
+    this(client, uriPrefix, cacheSize, symbolTablePrefix, serverNodeUri, overriddenSymbols, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param client                 The {@link Client} to use to make requests to remote services to fetch their symbol
+   *                               tables and compression dictionaries.
+   * @param uriPrefix              The URI prefix to use when invoking remote services by name (and not by hostname:port)
+   * @param cacheSize              The size of the caches used to store symbol tables and compression dictionaries.
+   * @param symbolTablePrefix      The prefix to use for symbol tables and compression dictionaries vended by this
+   *                               instance.
+   * @param serverNodeUri          The URI on which the current service is running. This should also include the
+   *                               context and servlet path (if applicable).
+   * @param overriddenSymbols      The list of overridden symbols to use for the symbol table.
+   * @param compressionDictionary  The pre-trained compression dictionary to use for responses, eg: a zstd dictionary
+   *                               trained on sampled responses of this service, or null to not use one.
+   */
+  public RestLiSymbolTableProvider(Client client,
+      String uriPrefix,
+      int cacheSize,
+      String symbolTablePrefix,
+      String serverNodeUri,
+      List<String> overriddenSymbols,
+      ByteString compressionDictionary)
   {
     _client = client;
     _uriPrefix = uriPrefix;
@@ -145,6 +181,20 @@ public class RestLiSymbolTableProvider implements SymbolTableProvider, ResourceD
       _defaultResponseSymbolTable = new InMemorySymbolTable(symbolTableName, overriddenSymbols);
       _defaultResponseSymbolTableName = _symbolTableNameHandler.extractMetadata(symbolTableName).getSymbolTableName();
     }
+
+    _dictionaryNameToDictionaryCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    if (serverNodeUri != null && compressionDictionary != null)
+    {
+      String dictionaryName = _symbolTableNameHandler.generateDictionaryName(compressionDictionary);
+      _defaultResponseCompressionDictionary = new CompressionDictionary(dictionaryName, compressionDictionary);
+      _defaultResponseCompressionDictionaryName =
+          _symbolTableNameHandler.extractMetadata(dictionaryName).getSymbolTableName();
+    }
+    else
+    {
+      _defaultResponseCompressionDictionary = null;
+      _defaultResponseCompressionDictionaryName = null;
+    }
   }
 
   /**
@@ -169,6 +219,9 @@ public class RestLiSymbolTableProvider implements SymbolTableProvider, ResourceD
     _symbolTableNameHandler = new SymbolTableNameHandler(responseSymbolTable.getName(), serverNodeUri);
     _serviceNameToSymbolTableCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
     _symbolTableNameToSymbolTableCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    _dictionaryNameToDictionaryCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    _defaultResponseCompressionDictionary = null;
+    _defaultResponseCompressionDictionaryName = null;
     
     if (_serverNodeUri != null)
     {
@@ -288,6 +341,60 @@ public class RestLiSymbolTableProvider implements SymbolTableProvider, ResourceD
     return _defaultResponseSymbolTable;
   }
 
+  @Override
+  public CompressionDictionary getCompressionDictionary(String dictionaryName)
+  {
+    try
+    {
+      SymbolTableMetadata metadata = _symbolTableNameHandler.extractMetadata(dictionaryName);
+      String serverNodeUri = metadata.getServerNodeUri();
+      String localName = metadata.getSymbolTableName();
+      boolean isRemote = metadata.isRemote();
+
+      // Check if it's the default dictionary name.
+      if (localName.equals(_defaultResponseCompressionDictionaryName))
+      {
+        return _defaultResponseCompressionDictionary;
+      }
+
+      // First check the cache.
+      CompressionDictionary dictionary = _dictionaryNameToDictionaryCache.getIfPresent(localName);
+      if (dictionary != null)
+      {
+        return dictionary;
+      }
+
+      // If this is a local dictionary, and we didn't find it in the cache, cry foul.
+      if (!isRemote)
+      {
+        throw new IllegalStateException("Unable to fetch compression dictionary with name: " + dictionaryName);
+      }
+
+      // Ok, we didn't find it in the cache, let's go query the service the dictionary was served from.
+      URI dictionaryUri = new URI(serverNodeUri + "/" + RestLiSymbolTableRequestHandler.SYMBOL_TABLE_URI_PATH + "/" + localName);
+      dictionary = fetchRemoteCompressionDictionary(dictionaryUri, dictionaryName);
+
+      if (dictionary != null)
+      {
+        // Cache the retrieved dictionary.
+        _dictionaryNameToDictionaryCache.put(localName, dictionary);
+        return dictionary;
+      }
+    }
+    catch (URISyntaxException ex)
+    {
+      LOGGER.error("Failed to construct compression dictionary URI from name: " + dictionaryName, ex);
+    }
+
+    throw new IllegalStateException("Unable to fetch compression dictionary with name: " + dictionaryName);
+  }
+
+  @Override
+  public CompressionDictionary getResponseCompressionDictionary(URI requestUri, Map<String, String> requestHeaders)
+  {
+    return _defaultResponseCompressionDictionary;
+  }
+
   @Override
   public void onInitialized(Map<String, ResourceDefinition> resourceDefinitions)
   {
@@ -349,4 +456,40 @@ public class RestLiSymbolTableProvider implements SymbolTableProvider, ResourceD
 
     return null;
   }
+
+  CompressionDictionary fetchRemoteCompressionDictionary(URI dictionaryUri, String dictionaryName)
+  {
+    try
+    {
+      Future<RestResponse> future = _client.restRequest(new RestRequestBuilder(dictionaryUri)
+          .setHeader(RestConstants.HEADER_FETCH_COMPRESSION_DICTIONARY, Boolean.TRUE.toString())
+          .build());
+      RestResponse restResponse = future.get(DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      int status = restResponse.getStatus();
+
+      if (status == HttpStatus.S_200_OK.getCode())
+      {
+        ByteString byteString = restResponse.getEntity();
+        if (byteString == null || byteString.isEmpty())
+        {
+          throw new IOException("Empty body");
+        }
+
+        // Rename to replace url prefix with current url prefix, same as symbol tables.
+        return new CompressionDictionary(_symbolTableNameHandler.replaceServerNodeUri(dictionaryName), byteString);
+      }
+
+      throw new IOException("Unexpected response status: " + status);
+    }
+    catch (ExecutionException ex)
+    {
+      LOGGER.error("Failed to fetch compression dictionary from " + dictionaryUri, ex.getCause());
+    }
+    catch (Exception ex)
+    {
+      LOGGER.error("Failed to fetch compression dictionary from " + dictionaryUri, ex);
+    }
+
+    return null;
+  }
 }
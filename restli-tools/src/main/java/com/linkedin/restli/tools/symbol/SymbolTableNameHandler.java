@@ -16,6 +16,7 @@
 
 package com.linkedin.restli.tools.symbol;
 
+import com.linkedin.data.ByteString;
 import com.linkedin.data.codec.symbol.SymbolTableMetadata;
 import com.linkedin.data.codec.symbol.SymbolTableMetadataExtractor;
 import java.util.List;
@@ -31,6 +32,7 @@ import java.util.List;
 class SymbolTableNameHandler extends SymbolTableMetadataExtractor
 {
   private static String PREFIX_HASH_SEPARATOR = "-";
+  private static String DICTIONARY_SUFFIX = "-dict";
 
   private final String _symbolTablePrefix;
   private final String _serverNodeUri;
@@ -65,6 +67,24 @@ class SymbolTableNameHandler extends SymbolTableMetadataExtractor
         + PREFIX_HASH_SEPARATOR + symbols.hashCode();
   }
 
+  /**
+   * Generate the compression dictionary name.
+   *
+   * @param dictionary        The dictionary content.
+   *
+   * @return The generated dictionary name in the form of ServerNodeUri|SymbolTablePrefix-dict-DictionaryHashCode
+   */
+  String generateDictionaryName(ByteString dictionary)
+  {
+    if (_serverNodeUri == null)
+    {
+      throw new IllegalStateException("Cannot generate compression dictionary name with null server node URI.");
+    }
+
+    return _serverNodeUri + SERVER_NODE_URI_PREFIX_TABLENAME_SEPARATOR + _symbolTablePrefix + DICTIONARY_SUFFIX
+        + PREFIX_HASH_SEPARATOR + dictionary.hashCode();
+  }
+
   @Override
   protected SymbolTableMetadata createMetadata(String serverNodeUri, String tableName) {
     // A table is remote if the server node URI does not match the current server node URI.
@@ -16,6 +16,8 @@
 
 package com.linkedin.restli.tools.symbol;
 
+import com.linkedin.data.ByteString;
+import com.linkedin.data.codec.symbol.CompressionDictionary;
 import com.linkedin.data.codec.symbol.InMemorySymbolTable;
 import com.linkedin.data.codec.symbol.SymbolTable;
 import com.linkedin.data.codec.symbol.SymbolTableSerializer;
@@ -217,4 +219,59 @@ public class TestRestLiSymbolTableProvider
     Assert.assertNull(_provider.getRequestSymbolTable(URI.create("d2://serviceName")));
     Assert.assertEquals(networkCallCount.get(), 2);
   }
+
+  @Test
+  public void testGetResponseCompressionDictionary()
+  {
+    Assert.assertNull(_provider.getResponseCompressionDictionary(URI.create("https://Host:100/service/symbolTable"), Collections.emptyMap()));
+
+    ByteString data = ByteString.copy(new byte[] { 1, 2, 3 });
+    RestLiSymbolTableProvider provider =
+        new RestLiSymbolTableProvider(_client, "d2://", 10, "Test", "https://Host:100/service", null, data);
+    CompressionDictionary dictionary =
+        provider.getResponseCompressionDictionary(URI.create("https://Host:100/service/symbolTable"), Collections.emptyMap());
+    Assert.assertNotNull(dictionary);
+    Assert.assertEquals(dictionary.getName(), "https://Host:100/service|Test-dict-" + data.hashCode());
+    Assert.assertEquals(dictionary.getData(), data);
+    Assert.assertSame(provider.getCompressionDictionary(dictionary.getName()), dictionary);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testGetMissingLocalCompressionDictionary()
+  {
+    _provider.getCompressionDictionary("https://Host:100/service|Test-dict-100");
+  }
+
+  @Test
+  public void testGetRemoteCompressionDictionaryFetchSuccess()
+  {
+    ByteString data = ByteString.copy(new byte[] { 1, 2, 3 });
+    RestResponseBuilder builder = new RestResponseBuilder();
+    builder.setStatus(200);
+    builder.setEntity(data);
+    builder.setHeader(RestConstants.HEADER_CONTENT_TYPE, "application/octet-stream");
+    when(_client.restRequest(eq(new RestRequestBuilder(
+            URI.create("https://OtherHost:100/service/symbolTable/Test-dict-100"))
+            .setHeaders(Collections.singletonMap(RestConstants.HEADER_FETCH_COMPRESSION_DICTIONARY, Boolean.TRUE.toString()))
+            .build()))).thenReturn(CompletableFuture.completedFuture(builder.build()));
+
+    CompressionDictionary dictionary = _provider.getCompressionDictionary("https://OtherHost:100/service|Test-dict-100");
+    Assert.assertNotNull(dictionary);
+    Assert.assertEquals("https://Host:100/service|Test-dict-100", dictionary.getName());
+    Assert.assertEquals(data, dictionary.getData());
+
+    // Subsequent fetch should not trigger network fetch and get the dictionary from the cache.
+    when(_client.restRequest(any(RestRequest.class))).thenThrow(new IllegalStateException());
+    Assert.assertSame(dictionary, _provider.getCompressionDictionary("https://OtherHost:100/service|Test-dict-100"));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testGetRemoteCompressionDictionaryFetchError()
+  {
+    RestResponseBuilder builder = new RestResponseBuilder();
+    builder.setStatus(404);
+    when(_client.restRequest(any(RestRequest.class))).thenReturn(CompletableFuture.completedFuture(builder.build()));
+
+    _provider.getCompressionDictionary("https://OtherHost:100/service|Test-dict-100");
+  }
 }
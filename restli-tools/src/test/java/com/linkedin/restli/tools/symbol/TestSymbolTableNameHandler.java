@@ -16,6 +16,8 @@
 
 package com.linkedin.restli.tools.symbol;
 
+import com.linkedin.data.ByteString;
+import com.linkedin.data.codec.symbol.CompressionDictionary;
 import com.linkedin.data.codec.symbol.SymbolTableMetadata;
 import com.linkedin.parseq.function.Tuple3;
 import java.util.Arrays;
@@ -46,6 +48,26 @@ public class TestSymbolTableNameHandler
     handler.generateName(symbols);
   }
 
+  @Test
+  public void testGenerateDictionaryName()
+  {
+    ByteString dictionary = ByteString.copy(new byte[] { 1, 2, 3 });
+    String name = SYMBOL_TABLE_NAME_HANDLER.generateDictionaryName(dictionary);
+    Assert.assertEquals(name, "https://Host:100/service|Prefix-dict-" + dictionary.hashCode());
+  }
+
+  @Test
+  public void testDictionaryLocalNameSharedAcrossHosts()
+  {
+    ByteString dictionary = ByteString.copy(new byte[] { 1, 2, 3 });
+    String name = SYMBOL_TABLE_NAME_HANDLER.generateDictionaryName(dictionary);
+    String otherName = new SymbolTableNameHandler("Prefix", "https://OtherHost:100/service")
+        .generateDictionaryName(dictionary);
+    Assert.assertNotEquals(name, otherName);
+    Assert.assertEquals(CompressionDictionary.getLocalName(name), CompressionDictionary.getLocalName(otherName));
+    Assert.assertEquals(CompressionDictionary.getLocalName(name), "Prefix-dict-" + dictionary.hashCode());
+  }
+
   @Test
   public void testExtractTableInfoRemoteTable()
   {